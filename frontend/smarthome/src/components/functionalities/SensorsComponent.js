@@ -6,6 +6,9 @@ import { useTheme } from "@mui/material";
 import clsx from "clsx";
 import AddFunctionalityButton from "./AddFunctionalityButton";
 
+// Only the newest readings are needed to show the current value of each sensor
+const LATEST_READINGS = 50;
+
 const formatType = (type) => {
     // Add a space before each capital letter, except for the first character
     return type.replace(/([A-Z])/g, ' $1').trim();
@@ -20,7 +23,7 @@ const SensorsComponent = ({ deviceID, sensors, onAddSensor }) => {
     useEffect(() => {
         const fetchLogs = async () => {
             try {
-                const response = await fetch(`${process.env.REACT_APP_BACKEND_API_URL}/smarthome/logs?deviceId=${deviceID}`);
+                const response = await fetch(`${process.env.REACT_APP_BACKEND_API_URL}/smarthome/logs?deviceId=${deviceID}&latest=${LATEST_READINGS}`);
                 if (!response.ok) {
                     throw new Error('Failed to fetch logs');
                 }
@@ -38,9 +38,20 @@ const StatusSlider = ({ initialStatus, onUpdate, actuatorId }) => {
                 if (!response.ok) {
                     throw new Error('Network response was not ok');
                 }
+                // 202: a newer command for the actuator replaced this one, there is no new status to show
+                if (response.status === 202) {
+                    return null;
+                }
                 return response.json();
             })
             .then(data => {
+                if (data === null) {
+                    setFeedback('New position set');
+                    setTimeout(() => {
+                        setFeedback(null);
+                    }, 3000);
+                    return;
+                }
                 const newStatusFromApi = parseInt(data.status, 10);
                 if (!isNaN(newStatusFromApi)) {
                     setNewStatus(newStatusFromApi);
@@ -1,5 +1,6 @@
 package smarthome.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
@@ -12,12 +13,20 @@ import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
 import smarthome.domain.vo.actuatorvo.ActuatorStatusVO;
 import smarthome.domain.vo.actuatorvo.Settings;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.mapper.ActuatorMapper;
+import smarthome.mapper.dto.ActuatorCommandResultDTO;
 import smarthome.mapper.dto.ActuatorDTO;
+import smarthome.mapper.dto.GroupCommandResultDTO;
 import smarthome.service.ActuatorService;
+import smarthome.service.GroupCommandResult;
+import smarthome.service.command.ActuatorCommandQueue;
+import smarthome.service.command.CommandReceipt;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -28,6 +37,7 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class ActuatorCTRLWeb {
 
     private final ActuatorService actuatorService;
+    private ActuatorCommandQueue actuatorCommandQueue;
 
 
     /**
@@ -43,6 +53,17 @@ public class ActuatorCTRLWeb {
         this.actuatorService = actuatorService;
     }
 
+    /**
+     * Setter method for the ActuatorCommandQueue, present when the coalescing of actuator commands is enabled. Without
+     * it, every command is executed by the ActuatorService as soon as it is received.
+     *
+     * @param actuatorCommandQueue The ActuatorCommandQueue to be set.
+     */
+    @Autowired(required = false)
+    public void setActuatorCommandQueue(ActuatorCommandQueue actuatorCommandQueue) {
+        this.actuatorCommandQueue = actuatorCommandQueue;
+    }
+
     /**
      * This method receives an ActuatorDTO and creates an Actuator with the information provided in the DTO.
      * It first creates the ActuatorNameVO, ActuatorTypeIDVO, DeviceIDVO and Settings objects from the DTO.
@@ -170,12 +191,20 @@ public class ActuatorCTRLWeb {
 
     /**
      * Executes a command on the specified actuator.
+     * <p>
+     * When the coalescing of actuator commands is enabled, the command goes through the ActuatorCommandQueue: if a
+     * newer command for the same actuator arrives before it is executed, it is never executed, and is answered at
+     * once with HTTP status ACCEPTED (202) and no body, as the state of the actuator is the one the newer command
+     * answers with.
+     * </p>
      *
      * @param actuatorId the unique identifier of the actuator
      * @param command the command value to be executed on the actuator
      * @return a ResponseEntity containing the ActuatorDTO representing the actuator with updated information, along
-     * with HTTP status OK (200) if the command execution is successful; otherwise, returns HTTP status BAD_REQUEST
-     * (400) if the command execution fails due to an invalid request or actuator not found
+     * with HTTP status OK (200) if the command execution is successful, or no body and ACCEPTED (202) if the command
+     * was superseded by a newer one; otherwise, returns HTTP status BAD_REQUEST (400) if the command execution fails
+     * due to an invalid request or actuator not found, or SERVICE_UNAVAILABLE (503) if the command queue is closed
+     * because the application is shutting down
      */
     // /{actuatorId}/act?command=someCommandValue
     @PatchMapping("/{actuatorId}/act")
@@ -183,7 +212,16 @@ public class ActuatorCTRLWeb {
                                                        @RequestParam(name="command") String command) {
         try {
             ActuatorIDVO actuatorIDVO = ActuatorMapper.createActuatorIDVO(actuatorId);
-            Actuator actuator = this.actuatorService.executeCommand(actuatorIDVO,command);
+            Actuator actuator;
+            if (this.actuatorCommandQueue == null) {
+                actuator = this.actuatorService.executeCommand(actuatorIDVO,command);
+            } else {
+                CommandReceipt receipt = this.actuatorCommandQueue.execute(actuatorIDVO, command);
+                if (receipt.isSuperseded()) {
+                    return new ResponseEntity<>(HttpStatus.ACCEPTED);
+                }
+                actuator = receipt.getActuator();
+            }
             ActuatorDTO actuatorDTO = ActuatorMapper.domainToDTO(actuator);
 
             Link selfLink = linkTo(methodOn(ActuatorCTRLWeb.class).getActuatorById(actuatorDTO.getActuatorId()))
@@ -198,7 +236,77 @@ public class ActuatorCTRLWeb {
 
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Executes a command on every actuator of a type in a room, or in a group of devices, for instance closing every
+     * roller blind of a room in one request. The actuators are commanded concurrently and their new states are saved
+     * in a single batch; an actuator failing does not stop the others.
+     *
+     * @param roomId         the room whose actuators are commanded, if no device IDs are given
+     * @param deviceIds      the devices whose actuators are commanded, if no room ID is given
+     * @param actuatorTypeId the type of the actuators to command
+     * @param command        the command value to be executed on each actuator
+     * @return a ResponseEntity containing the GroupCommandResultDTO with the outcome of each actuator and the time the
+     * group took, with HTTP status OK (200) if every actuator executed the command, MULTI_STATUS (207) if some did
+     * not, or BAD_REQUEST (400) if the request is invalid, gives both or neither a room and devices, or names a
+     * device or actuator type that is not found
+     */
+    // /group/act?roomId=someRoomId&actuatorTypeId=RollerBlindActuator&command=0
+    @PatchMapping("/group/act")
+    public ResponseEntity<GroupCommandResultDTO> executeGroupCommand(
+            @RequestParam(name = "roomId", required = false) String roomId,
+            @RequestParam(name = "deviceId", required = false) List<String> deviceIds,
+            @RequestParam(name = "actuatorTypeId") String actuatorTypeId,
+            @RequestParam(name = "command") String command) {
+        if ((roomId == null) == (deviceIds == null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            ActuatorTypeIDVO actuatorTypeIDVO = new ActuatorTypeIDVO(actuatorTypeId);
+            GroupCommandResult result;
+            if (roomId != null) {
+                RoomIDVO roomIDVO = RoomIDVO.valueOf(UUID.fromString(roomId));
+                result = this.actuatorService.executeRoomCommand(roomIDVO, actuatorTypeIDVO, command);
+            } else {
+                List<DeviceIDVO> deviceIDVOs = new ArrayList<>();
+                for (String deviceId : deviceIds) {
+                    deviceIDVOs.add(ActuatorMapper.createDeviceIDVOFromString(deviceId));
+                }
+                result = this.actuatorService.executeGroupCommand(deviceIDVOs, actuatorTypeIDVO, command);
+            }
+            HttpStatus status = result.isSuccessful() ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+            return new ResponseEntity<>(groupResultToDTO(result), status);
+
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Converts the outcome of a group command to a GroupCommandResultDTO, with one ActuatorCommandResultDTO per
+     * actuator, in the order they were commanded.
+     *
+     * @param result the outcome of the group command
+     * @return the GroupCommandResultDTO
+     */
+    private GroupCommandResultDTO groupResultToDTO(GroupCommandResult result) {
+        List<ActuatorCommandResultDTO> results = new ArrayList<>();
+        for (GroupCommandResult.ActuatorOutcome outcome : result.getOutcomes()) {
+            results.add(ActuatorCommandResultDTO.builder()
+                    .actuatorId(outcome.getActuatorID().getID())
+                    .successful(outcome.isSuccessful())
+                    .status(outcome.getStatus())
+                    .error(outcome.getError())
+                    .build());
         }
+        return GroupCommandResultDTO.builder()
+                .latencyMillis(result.getLatencyMillis())
+                .results(results)
+                .build();
     }
 
     /**
@@ -1,13 +1,24 @@
 package smarthome.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import smarthome.domain.IDGenerator;
 import smarthome.domain.log.Log;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
 import smarthome.domain.vo.DeltaVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.TimeStampVO;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.domain.vo.sensorvo.SensorIDVO;
@@ -15,12 +26,21 @@ import smarthome.mapper.DeviceMapper;
 import smarthome.mapper.LogMapper;
 import smarthome.mapper.SensorMapper;
 import smarthome.mapper.dto.LogDTO;
+import smarthome.mapper.dto.LogIngestResultDTO;
 import smarthome.service.LogService;
 import smarthome.utils.timeconfig.TimeConfigDTO;
 import smarthome.utils.timeconfig.TimeConfigMapper;
 
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 /**
  * REST controller for managing logs in the Smart Home system.
@@ -37,17 +57,79 @@ import java.util.List;
 
 public class LogCTRLWeb {
 
-    private final LogService logService;
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogCTRLWeb.class);
 
+    private final LogService logService;
+    private final SensorValueFactory sensorValueFactory;
+    private final IDGenerator idGenerator;
+    private static final String NDJSON = "application/x-ndjson";
+    // Nothing is closed or flushed through to the response before the first log is written
+    private static final JsonFactory NDJSON_FACTORY = new JsonFactoryBuilder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.FLUSH_PASSED_TO_STREAM)
+            .build();
 
     /**
      * Constructs a new {@code WebLogController} with the specified {@code LogService}.
      *
      * @param logService the service for managing logs
+     * @param sensorValueFactory the factory used to read the readings of incoming logs
+     * @param idGenerator the generator of the IDs of incoming logs sent without one
      */
     @Autowired
-    public LogCTRLWeb(LogService logService) {
+    public LogCTRLWeb(LogService logService, SensorValueFactory sensorValueFactory, IDGenerator idGenerator) {
         this.logService = logService;
+        this.sensorValueFactory = sensorValueFactory;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Adds several readings at once.
+     * <p>
+     * Each {@link LogDTO} must carry the time, reading, sensor ID, device ID and sensor type ID of the reading; the
+     * log ID is optional and is generated when missing. All valid logs are handed to the {@code LogService} in a
+     * single call, so they are written in batches instead of one transaction per log. Every log is accepted or
+     * rejected on its own, and the response holds one {@link LogIngestResultDTO} per log, in request order.
+     * </p>
+     * @param logDTOs the readings to add
+     * @return a {@code ResponseEntity} with the per-log results and HTTP status CREATED if every log was added,
+     * MULTI_STATUS if some were not, or BAD_REQUEST if the request is empty or too large
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<LogIngestResultDTO>> addLogs(@RequestBody List<LogDTO> logDTOs) {
+        if (logDTOs == null || logDTOs.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        LogIngestResultDTO[] results = new LogIngestResultDTO[logDTOs.size()];
+        List<Log> logs = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < logDTOs.size(); i++) {
+            try {
+                logs.add(LogMapper.dtoToDomain(logDTOs.get(i), sensorValueFactory, idGenerator));
+                positions.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = LogIngestResultDTO.builder().index(i).saved(false).error("Invalid log").build();
+            }
+        }
+
+        try {
+            List<Optional<Log>> added = logs.isEmpty() ? List.of() : logService.addLogs(logs);
+            for (int i = 0; i < logs.size(); i++) {
+                int position = positions.get(i);
+                boolean saved = added.get(i).isPresent();
+                results[position] = LogIngestResultDTO.builder()
+                        .index(position)
+                        .logID(logs.get(i).getId().getID())
+                        .saved(saved)
+                        .error(saved ? null : "Log not saved")
+                        .build();
+            }
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+
+        boolean allSaved = logs.size() == logDTOs.size() && List.of(results).stream().allMatch(LogIngestResultDTO::isSaved);
+        return new ResponseEntity<>(List.of(results), allSaved ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
     }
 
     /**
@@ -92,6 +174,161 @@ public class LogCTRLWeb {
     }
 
 
+    /**
+     * Finds a page of readings for a specific device, ordered by time. A time period (timeConfigDTO) may be specified,
+     * which is optional.
+     * <p>
+     * Pages are read by seeking past the last log of the previous page, identified by the {@code cursor} token, so deep
+     * pages cost the same as the first one. When the page is full, the response carries a {@code next} link holding
+     * the cursor of the following page; the time period, if any, must be sent again with it.
+     * </p>
+     * @param id the device ID
+     * @param pageSize the maximum number of readings in the page
+     * @param cursor the cursor token of the previous page (Optional)
+     * @param timeConfigDTO the time configuration data transfer object (Optional)
+     * @return a {@code ResponseEntity} containing the page of log DTOs and HTTP status
+     */
+    @GetMapping(params = {"deviceId", "pageSize"})
+    public ResponseEntity<CollectionModel<LogDTO>> findReadingsPage(
+            @RequestParam(value = "deviceId") String id,
+            @RequestParam(value = "pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestBody(required = false) TimeConfigDTO timeConfigDTO) {
+
+        try {
+            DeviceIDVO deviceIDVO = DeviceMapper.createDeviceID(id);
+            LogCursorVO after = LogMapper.createLogCursorVO(cursor);
+
+            TimeStampVO initialTimeStamp = null;
+            TimeStampVO finalTimeStamp = null;
+
+            //Ensuring that mapping is only done if timeConfigDto is passed to the function
+            if (timeConfigDTO != null) {
+                initialTimeStamp = TimeConfigMapper.createInitialTimeStamp(timeConfigDTO);
+                finalTimeStamp = TimeConfigMapper.createFinalTimeStamp(timeConfigDTO);
+            }
+
+            List<Log> logs = logService.findReadingsPageFromDevice(deviceIDVO, initialTimeStamp, finalTimeStamp, after, pageSize);
+            CollectionModel<LogDTO> page = CollectionModel.of(LogMapper.domainToDTO(logs));
+
+            // A full page may be followed by more readings, so it links to the page after its last log
+            if (logs.size() == pageSize) {
+                String nextCursor = LogMapper.createLogCursorVO(logs.get(logs.size() - 1)).getValue();
+                page.add(linkTo(methodOn(LogCTRLWeb.class).findReadingsPage(id, pageSize, nextCursor, null))
+                        .withRel(IanaLinkRelations.NEXT));
+            }
+            return new ResponseEntity<>(page, HttpStatus.OK);
+
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Finds the newest readings of a specific device, newest first.
+     * <p>
+     * Only the requested number of readings is read, straight from the end of the device's time index, so the cost
+     * does not depend on how long the device has been logging.
+     * </p>
+     * @param id the device ID
+     * @param latest the number of readings to retrieve
+     * @return a {@code ResponseEntity} containing the list of log DTOs and HTTP status
+     */
+    @GetMapping(params = {"deviceId", "latest", "!pageSize"})
+    public ResponseEntity<CollectionModel<LogDTO>> findLatestReadings(
+            @RequestParam(value = "deviceId") String id,
+            @RequestParam(value = "latest") int latest) {
+
+        try {
+            DeviceIDVO deviceIDVO = DeviceMapper.createDeviceID(id);
+            List<Log> logs = logService.findLatestReadingsFromDevice(deviceIDVO, latest);
+            return new ResponseEntity<>(CollectionModel.of(LogMapper.domainToDTO(logs)), HttpStatus.OK);
+
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Exports the readings of a specific device as newline-delimited JSON, one log per line, when the client
+     * accepts {@code application/x-ndjson}. A time period (timeConfigDTO) may be specified, which is optional.
+     * <p>
+     * Unlike {@link #findReadings}, logs are streamed from the {@code LogService} and written to the response as
+     * they are read, so memory use does not grow with the number of readings. Invalid requests are answered with
+     * BAD_REQUEST before anything is written. If reading the logs fails, the error is logged and rethrown: before
+     * the response is committed it becomes an INTERNAL_SERVER_ERROR, afterwards the container aborts the response,
+     * so a client never mistakes a partial export for a complete one.
+     * </p>
+     * @param id the device ID
+     * @param timeConfigDTO the time configuration data transfer object (Optional)
+     * @param response the response the readings are written to
+     * @throws IOException if writing to the response fails
+     */
+    @GetMapping(value = "", produces = NDJSON)
+    public void exportReadings(
+            @RequestParam(value = "deviceId") String id,
+            @RequestBody(required = false) TimeConfigDTO timeConfigDTO,
+            HttpServletResponse response) throws IOException {
+
+        JsonGenerator generator = NDJSON_FACTORY.createGenerator(response.getOutputStream());
+        generator.setRootValueSeparator(null);
+        try {
+            DeviceIDVO deviceIDVO = DeviceMapper.createDeviceID(id);
+
+            TimeStampVO initialTimeStamp = null;
+            TimeStampVO finalTimeStamp = null;
+
+            //Ensuring that mapping is only done if timeConfigDto is passed to the function
+            if (timeConfigDTO != null) {
+                initialTimeStamp = TimeConfigMapper.createInitialTimeStamp(timeConfigDTO);
+                finalTimeStamp = TimeConfigMapper.createFinalTimeStamp(timeConfigDTO);
+            }
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(NDJSON);
+            logService.exportReadingsFromDevice(deviceIDVO, initialTimeStamp, finalTimeStamp,
+                    log -> writeLine(generator, LogMapper.domainToDTO(log)));
+            generator.close();
+
+        } catch (IllegalArgumentException e) {
+            if (response.isCommitted()) {
+                LOGGER.error("Export of the readings of device {} failed after the response was committed", id, e);
+                throw e;
+            }
+            // Validation happens before the first log is written, so the status can still be changed
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(null);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            // Rethrown without closing the generator, so the readings already sent are not ended as a complete body
+            LOGGER.error("Export of the readings of device {} failed", id, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes a log as a single line of JSON.
+     *
+     * @param generator the generator writing to the response
+     * @param logDTO the log to be written
+     */
+    private static void writeLine(JsonGenerator generator, LogDTO logDTO) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("logID", logDTO.getLogID());
+            generator.writeStringField("time", logDTO.getTime());
+            generator.writeStringField("reading", logDTO.getReading());
+            generator.writeStringField("sensorID", logDTO.getSensorID());
+            generator.writeStringField("deviceID", logDTO.getDeviceID());
+            generator.writeStringField("sensorTypeID", logDTO.getSensorTypeID());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     /**
      * Gets the maximum temperature difference between indoor and outdoor sensors within a time period.
      * <p>
@@ -149,6 +386,26 @@ public class LogCTRLWeb {
         }
     }
 
+    /**
+     * Handles HTTP GET requests to retrieve how much each device contributed to the peak power consumption of a house
+     * within a specified time period.
+     *
+     * @param timeConfigDTO the configuration object containing start time, end time, and delta values.
+     * @return a ResponseEntity containing the consumption of each device at the peak instant, keyed by device ID.
+     */
+    @GetMapping("/peak-power-consumption/breakdown")
+    public ResponseEntity<Map<String, Integer>> getPeakPowerConsumptionBreakdown(@RequestBody TimeConfigDTO timeConfigDTO) {
+        try {
+            TimeStampVO start = TimeConfigMapper.createInitialTimeStamp(timeConfigDTO);
+            TimeStampVO end = TimeConfigMapper.createFinalTimeStamp(timeConfigDTO);
+            DeltaVO delta = TimeConfigMapper.createDeltaVO(timeConfigDTO);
+            Map<String, Integer> breakdown = logService.getPeakPowerConsumptionBreakdown(start, end, delta);
+            return new ResponseEntity<>(breakdown, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     /**
      * Handles a POST request to retrieve sun readings based on the given parameters.
      *
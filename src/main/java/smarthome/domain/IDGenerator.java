@@ -0,0 +1,16 @@
+package smarthome.domain;
+
+import java.util.UUID;
+
+/**
+ * Generates the identifiers of new aggregates.
+ */
+public interface IDGenerator {
+
+    /**
+     * Generates a new identifier.
+     *
+     * @return A UUID different from every UUID generated before.
+     */
+    UUID nextID();
+}
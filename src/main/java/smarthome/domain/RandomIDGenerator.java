@@ -0,0 +1,29 @@
+package smarthome.domain;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Generates random (version 4) UUIDs, from the shared SecureRandom of {@link UUID#randomUUID()}.
+ * <p>
+ * Selected with {@code log.id-generator=random}. Random identifiers are spread over the whole key space, so every
+ * insert lands on a random page of the primary key index; prefer {@link TimeOrderedIDGenerator} for high-rate
+ * aggregates such as logs.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "log.id-generator", havingValue = "random")
+public class RandomIDGenerator implements IDGenerator {
+
+    /**
+     * Generates a new random UUID.
+     *
+     * @return A version 4 UUID.
+     */
+    @Override
+    public UUID nextID() {
+        return UUID.randomUUID();
+    }
+}
@@ -0,0 +1,80 @@
+package smarthome.domain;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered UUIDs, laid out as version 7 UUIDs (RFC 9562): the Unix time in milliseconds in the first 48
+ * bits, then a 12-bit sequence, then 62 random bits.
+ * <p>
+ * Identifiers generated one after the other are increasing, so they are appended at the end of the primary key index
+ * instead of being inserted at random pages of it. The sequence orders the identifiers generated within the same
+ * millisecond, and when it is exhausted the time is carried forward by one millisecond. The generator is lock-free:
+ * the last time and sequence are advanced by compare-and-set, and the random bits come from
+ * {@link ThreadLocalRandom} rather than the shared SecureRandom of {@link UUID#randomUUID()}. The random bits make
+ * identifiers from different generators or processes unique, not unguessable.
+ * </p>
+ * <p>
+ * This is the default generator, also selected with {@code log.id-generator=time-ordered}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "log.id-generator", havingValue = "time-ordered", matchIfMissing = true)
+public class TimeOrderedIDGenerator implements IDGenerator {
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RANDOM_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final LongSupplier clock;
+    // Time in milliseconds, shifted left by SEQUENCE_BITS, plus the sequence of the last generated identifier
+    private final AtomicLong last = new AtomicLong();
+
+    /**
+     * Creates a generator reading the system clock.
+     */
+    public TimeOrderedIDGenerator() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a generator reading the given clock.
+     *
+     * @param clock The clock, returning the Unix time in milliseconds.
+     * @throws IllegalArgumentException If the clock is null.
+     */
+    TimeOrderedIDGenerator(LongSupplier clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Invalid clock");
+        }
+        this.clock = clock;
+    }
+
+    /**
+     * Generates a new time-ordered UUID, greater than every UUID generated before by this generator.
+     *
+     * @return A version 7 UUID.
+     */
+    @Override
+    public UUID nextID() {
+        long now = this.clock.getAsLong() << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = this.last.get();
+            next = Math.max(now, previous + 1);
+        } while (!this.last.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        long most = (millis << 16) | VERSION | sequence;
+        long least = VARIANT | (ThreadLocalRandom.current().nextLong() & RANDOM_MASK);
+        return new UUID(most, least);
+    }
+}
@@ -13,6 +13,7 @@ public interface Actuator extends AggregateRoot {
     ActuatorNameVO getActuatorName();
     ActuatorStatusVO getActuatorStatus();
     String executeCommand(ActuatorExternalService externalService, String value);
+    boolean isCommandValid(String value);
     String getLowerLimit();
     String getUpperLimit();
     String getPrecision();
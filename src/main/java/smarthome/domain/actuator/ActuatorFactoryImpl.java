@@ -1,6 +1,7 @@
 package smarthome.domain.actuator;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
 import smarthome.domain.vo.actuatorvo.ActuatorStatusVO;
@@ -12,24 +13,62 @@ import org.apache.commons.configuration2.Configuration;
 import org.apache.commons.configuration2.builder.fluent.Configurations;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 @Component
 public class ActuatorFactoryImpl implements ActuatorFactory {
 
-    private Configuration configuration;
+    private static final MethodType SPREAD_CONSTRUCTOR = MethodType.methodType(Actuator.class, Object[].class);
+
+    private final String filePath;
+    private volatile Map<String, List<ActuatorConstructor>> constructors;
+    private volatile long lastModified;
 
     /**
      * Constructor for FactoryActuator Class.
      * File path is injected in the Class.
      * So this factory is able to read from any file properties passed on.
+     * The constructors of every actuator type in the file are resolved here, once, so creating an actuator does not
+     * load classes or look constructors up.
      *
      * @throws ConfigurationException If a file path is invalid.
      */
     public ActuatorFactoryImpl(@Value("${filepath}") String filePath) throws ConfigurationException {
-        initializeConfiguration(filePath);
+        this.filePath = filePath;
+        initializeConfiguration();
+    }
+
+    /**
+     * Reloads the configuration file and resolves the constructors of the actuator types it lists again. The
+     * actuators created before are not affected.
+     *
+     * @throws ConfigurationException If the file cannot be read, in which case the actuator types loaded before are
+     *                                kept.
+     */
+    public void refresh() throws ConfigurationException {
+        initializeConfiguration();
+    }
+
+    /**
+     * Reloads the configuration file if it was modified since it was last loaded. Runs periodically.
+     *
+     * @throws ConfigurationException If the file cannot be read.
+     */
+    @Scheduled(fixedDelayString = "${filepath.refresh-interval-ms:30000}")
+    public void refreshIfModified() throws ConfigurationException {
+        if (new File(this.filePath).lastModified() != this.lastModified) {
+            initializeConfiguration();
+        }
     }
 
     /**
@@ -37,7 +76,7 @@ public class ActuatorFactoryImpl implements ActuatorFactory {
      * 1: Checks input parameters. If any of the parameters are null, an IllegalArgumentException is thrown;
      * 2: Verifies whether the actuator type chosen exists in the file and has a correct path to its Class. The value
      * obtained from the configuration file is a path that dynamically identifies the intended Class at runtime;
-     * 3: Once the class is identified, its constructor is obtained, and a new instance is created using the entry parameters.;
+     * 3: The constructor of the class matching the entry parameters, resolved when the file was loaded, is called;
      * 4: Attempts to instantiate the actuator and returns it.
      *
      * @param actuatorName   Actuator name
@@ -51,28 +90,15 @@ public class ActuatorFactoryImpl implements ActuatorFactory {
 
         if (!validParameters(actuatorName, actuatorTypeID, deviceID))
             throw new IllegalArgumentException("Invalid actuator parameters");
-        Optional<String> actuatorType = getPath(actuatorTypeID);
-        if (actuatorType.isPresent()) {
-            try {
-                Class<?> classObject = Class.forName(actuatorType.get());
-                Object[] parameters = toObjectArray(actuatorName, actuatorTypeID, deviceID, settings);
-                Constructor<?> constructor = findMatchingConstructor(classObject, parameters);
-                return (Actuator) constructor.newInstance(parameters);
-
-            } catch (ClassNotFoundException | InvocationTargetException | NoSuchMethodException |
-                     InstantiationException | IllegalAccessException e) {
-                return null;
-            }
-        } else {
-            return null;
-        }
+        Object[] parameters = toObjectArray(actuatorName, actuatorTypeID, deviceID, settings);
+        return instantiate(actuatorTypeID, parameters);
     }
 
     /**
      * Creates an Actuator from the Data Model:
      * 1: Verifies whether the actuator type chosen exists in the file and has a correct path to its Class. The value
      * obtained from the configuration file is a path that dynamically identifies the intended Class at runtime;
-     * 2: Once the class is identified, its constructor is obtained, and a new instance is created using the entry parameters.;
+     * 2: The constructor of the class matching the entry parameters, resolved when the file was loaded, is called;
      * 3: Attempts to instantiate the actuator and returns it.
      * Note: Input parameters are not being validated since they are generated from already persisted data.
      *
@@ -88,25 +114,9 @@ public class ActuatorFactoryImpl implements ActuatorFactory {
                                    ActuatorTypeIDVO actuatorTypeID, DeviceIDVO deviceID,
                                    Settings settings, ActuatorStatusVO statusVO) {
 
-        Optional<String> actuatorType = getPath(actuatorTypeID);
-        if (actuatorType.isPresent()) {
-            try {
-                Class<?> classObject = Class.forName(actuatorType.get());
-
-                Object[] parameters = toObjectArrayFromDataModel(actuatorID, actuatorName, actuatorTypeID, deviceID,
-                        settings, statusVO);
-
-                Constructor<?> constructor = findMatchingConstructor(classObject, parameters);
-
-                return (Actuator) constructor.newInstance(parameters);
-
-            } catch (ClassNotFoundException | InvocationTargetException | NoSuchMethodException |
-                     InstantiationException | IllegalAccessException e) {
-                return null;
-            }
-        } else {
-            return null;
-        }
+        Object[] parameters = toObjectArrayFromDataModel(actuatorID, actuatorName, actuatorTypeID, deviceID,
+                settings, statusVO);
+        return instantiate(actuatorTypeID, parameters);
     }
 
     /**
@@ -165,49 +175,32 @@ public class ActuatorFactoryImpl implements ActuatorFactory {
     }
 
     /**
-     * Finds a constructor of the given class that matches the provided parameter types.
-     * The function starts by iterating through all constructors of the given class and for each of the class
-     * constructors gets the parameter types and saves them into an array.
-     * After that, it compares the number of parameters and their types against the provided parameters.
-     * If a constructor with matching parameter types is found, it returns that constructor.
+     * Creates an actuator of the given type by calling the first constructor of its class, in the order they were
+     * resolved, whose parameter types match the provided parameters.
      *
-     * @param classObject        The class for which to find the constructor
-     * @param receivedParameters The parameters to match against the constructor's parameter types
-     * @return The matching constructor, if found
-     * @throws NoSuchMethodException If no matching constructor is found.
+     * @param actuatorTypeID The actuator type
+     * @param parameters     The parameters to pass to the constructor
+     * @return The created actuator, or null if the type is unknown, no constructor matches or the constructor fails.
      */
-    private Constructor<?> findMatchingConstructor(Class<?> classObject, Object[] receivedParameters)
-            throws NoSuchMethodException {
-
-        for (Constructor<?> constructor : classObject.getConstructors()) {
-            Class<?>[] constructorParametersTypes = constructor.getParameterTypes();
-
-            if (constructorParametersTypes.length == receivedParameters.length
-                    && matchingParameters(constructorParametersTypes, receivedParameters)) {
-
-                return constructor;
-            }
+    private Actuator instantiate(ActuatorTypeIDVO actuatorTypeID, Object[] parameters) {
+        List<ActuatorConstructor> candidates = this.constructors.get(actuatorTypeID.getID());
+        if (candidates == null) {
+            return null;
         }
-
-        throw new NoSuchMethodException("No matching constructor found");
-    }
-
-    /**
-     * Verify if the parameter types of the found actuator constructor match with the received parameter types.
-     *
-     * @param constructorParameterTypes Array of Class objects that represent the formal parameter types, in
-     *                                  declaration order
-     * @param receivedParameters        Array of Objects corresponding to the parameters received in the
-     *                                  createActuator() method
-     * @return True if all received parameters match with the found constructor parameter types, false otherwise.
-     */
-    private boolean matchingParameters(Class<?>[] constructorParameterTypes, Object[] receivedParameters) {
-        for (int i = 0; i < constructorParameterTypes.length; i++) {
-            if (!constructorParameterTypes[i].isAssignableFrom(receivedParameters[i].getClass())) {
-                return false;
+        for (ActuatorConstructor candidate : candidates) {
+            if (candidate.matches(parameters)) {
+                try {
+                    return (Actuator) candidate.handle().invokeExact(parameters);
+                } catch (RuntimeException e) {
+                    return null;
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    return null;
+                }
             }
         }
-        return true;
+        return null;
     }
 
     /**
@@ -227,25 +220,83 @@ public class ActuatorFactoryImpl implements ActuatorFactory {
     }
 
     /**
-     * Initializes the Configuration Object with the proper file path containing the required actuators' data.
+     * Loads the file containing the required actuators' data and resolves the public constructors of every actuator
+     * class it lists. Entries that do not name an Actuator class are left out, so no actuator of that type is created.
      *
      * @throws ConfigurationException If file path is invalid.
      */
-    private void initializeConfiguration(String filePath) throws ConfigurationException {
+    private synchronized void initializeConfiguration() throws ConfigurationException {
+        long modified = new File(this.filePath).lastModified();
         Configurations configs = new Configurations();
-        this.configuration = configs.properties(filePath);
+        Configuration configuration = configs.properties(this.filePath);
+
+        Map<String, List<ActuatorConstructor>> resolved = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Iterator<String> types = configuration.getKeys();
+        while (types.hasNext()) {
+            String type = types.next();
+            try {
+                Class<?> classObject = Class.forName(configuration.getString(type));
+                if (Actuator.class.isAssignableFrom(classObject)) {
+                    resolved.put(type, resolveConstructors(lookup, classObject));
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Not a class path: no actuator of this type is created
+            }
+        }
+        this.constructors = Collections.unmodifiableMap(resolved);
+        this.lastModified = modified;
     }
 
     /**
-     * Extracts from the file the path to the Class of the pretended actuator type.
+     * Resolves the public constructors of an actuator class into method handles taking their parameters as an array.
      *
-     * @param actuatorTypeID ActuatorTypeID to get the correct path from the file
-     * @return Optional container, which might be empty in case actuator type does not exist in the file.
+     * @param lookup      The lookup used to access the constructors
+     * @param classObject The actuator class
+     * @return The constructors, in the order returned by {@link Class#getConstructors()}.
      */
-    private Optional<String> getPath(ActuatorTypeIDVO actuatorTypeID) {
-        String strActuatorType = actuatorTypeID.getID();
-        if (this.configuration.getString(strActuatorType) == null) return Optional.empty();
-        return Optional.of(this.configuration.getString(strActuatorType));
+    private static List<ActuatorConstructor> resolveConstructors(MethodHandles.Lookup lookup, Class<?> classObject) {
+        List<ActuatorConstructor> resolved = new ArrayList<>();
+        for (Constructor<?> constructor : classObject.getConstructors()) {
+            try {
+                MethodHandle handle = lookup.unreflectConstructor(constructor)
+                        .asSpreader(Object[].class, constructor.getParameterCount())
+                        .asType(SPREAD_CONSTRUCTOR);
+                resolved.add(new ActuatorConstructor(constructor.getParameterTypes(), handle));
+            } catch (IllegalAccessException e) {
+                // Not accessible: skipped, as if the class did not declare it
+            }
+        }
+        return List.copyOf(resolved);
+    }
+
+    /**
+     * A public constructor of an actuator class.
+     *
+     * @param parameterTypes The formal parameter types, in declaration order
+     * @param handle         Calls the constructor with its parameters passed as an array
+     */
+    private record ActuatorConstructor(Class<?>[] parameterTypes, MethodHandle handle) {
+
+        /**
+         * Verify if the parameter types of the constructor match with the received parameters.
+         *
+         * @param receivedParameters Array of Objects corresponding to the parameters received in the
+         *                           createActuator() method
+         * @return True if there are as many received parameters as constructor parameters, and each is an instance of
+         * the matching parameter type, false otherwise.
+         */
+        boolean matches(Object[] receivedParameters) {
+            if (parameterTypes.length != receivedParameters.length) {
+                return false;
+            }
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (!parameterTypes[i].isInstance(receivedParameters[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
 }
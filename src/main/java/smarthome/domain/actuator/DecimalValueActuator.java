@@ -123,6 +123,20 @@ public class DecimalValueActuator implements Actuator {
         return parsedValueAsString;
     }
 
+    /**
+     * Verifies if a command can be executed, without executing it: the value must be a number within actuator limits.
+     * @param value Value passed in the command
+     * @return True if the command is valid.
+     */
+    @Override
+    public boolean isCommandValid(String value) {
+        try {
+            return isValueWithinLimits(Double.parseDouble(value));
+        } catch (NumberFormatException | NullPointerException e) {
+            return false;
+        }
+    }
+
     /**
      * Verifies if the value passed for the executeCommand() method is valid (within actuator limits).
      * @param value Value passed in the command
@@ -97,6 +97,21 @@ public class IntegerValueActuator implements Actuator {
 
 
 
+    /**
+     * This method verifies if a command can be executed, without executing it: the value must be an integer within
+     * the limits of the actuator.
+     * @param value Value passed in the command
+     * @return true if the command is valid, false otherwise
+     */
+    @Override
+    public boolean isCommandValid(String value) {
+        try {
+            return isValueWithinLimits(Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * This method verifies if a given value is within the range of the pre-established limits for the present state of
      * the actuator.
@@ -111,6 +111,20 @@ public class RollerBlindActuator implements AggregateRoot, Actuator {
     }
 
 
+    /**
+     * Validates a command without executing it.
+     * @param value The position to move the roller blind to.
+     * @return true if the value is an integer between 0 and 100, false otherwise.
+     */
+    @Override
+    public boolean isCommandValid(String value) {
+        try {
+            return validateCommand(Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * Validates the command to move the roller blind to the specified position.
      * @param position The position to move the roller blind to.
@@ -103,7 +103,8 @@ public class SwitchActuator implements Actuator {
      * @return {@code true} if the input string can be parsed as an integer and is either 0 or 1; {@code false}
      * otherwise.
      */
-    private boolean isCommandValid (String inputValue){
+    @Override
+    public boolean isCommandValid (String inputValue){
         try{
             int value = Integer.parseInt(inputValue);
             return value == 1 || value == 0;
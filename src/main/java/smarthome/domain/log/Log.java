@@ -2,6 +2,8 @@ package smarthome.domain.log;
 
 import smarthome.domain.AggregateRoot;
 import smarthome.domain.DomainID;
+import smarthome.domain.IDGenerator;
+import smarthome.domain.TimeOrderedIDGenerator;
 import smarthome.domain.sensor.sensorvalues.SensorValueObject;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.logvo.LogIDVO;
@@ -11,13 +13,15 @@ import smarthome.domain.vo.logvo.TimeStampVO;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.UUID;
 
 /**
  * Represents a log entry in the system. Each log entry contains a unique identifier, a timestamp, a sensor reading,
  * a sensor ID, a device ID, and a sensor type ID.
  */
 public class Log implements AggregateRoot {
+    // Time-ordered IDs keep the inserts of new logs at the end of the primary key index
+    private static final IDGenerator DEFAULT_ID_GENERATOR = new TimeOrderedIDGenerator();
+
     private final LogIDVO logID;
     private final TimeStampVO time;
     private final SensorValueObject<?> reading;
@@ -27,7 +31,7 @@ public class Log implements AggregateRoot {
 
     /**
      * Constructs a new Log object with the provided parameters. Usually created right after a reading is obtained.
-     *
+     * The ID of the log is generated by a {@link TimeOrderedIDGenerator}.
      *
      * @param reading      the sensor value object representing the reading
      * @param sensorID     the sensor ID object representing the ID of the sensor
@@ -36,11 +40,26 @@ public class Log implements AggregateRoot {
      * @throws IllegalArgumentException if any of the parameters are null
      */
     public Log(SensorValueObject<?> reading, SensorIDVO sensorID, DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
-        if (areParamsNull(reading, sensorID, deviceID, sensorTypeID)) {
+        this(DEFAULT_ID_GENERATOR, reading, sensorID, deviceID, sensorTypeID);
+    }
+
+    /**
+     * Constructs a new Log object with the provided parameters, its ID generated by the given generator. Usually
+     * created right after a reading is obtained.
+     *
+     * @param idGenerator  the generator of the ID of the log
+     * @param reading      the sensor value object representing the reading
+     * @param sensorID     the sensor ID object representing the ID of the sensor
+     * @param deviceID     the device ID object representing the ID of the device
+     * @param sensorTypeID the sensor type ID object representing the ID of the sensor type
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    public Log(IDGenerator idGenerator, SensorValueObject<?> reading, SensorIDVO sensorID, DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
+        if (areParamsNull(idGenerator, reading, sensorID, deviceID, sensorTypeID)) {
             throw new IllegalArgumentException("Invalid parameters.");
         }
 
-        this.logID = new LogIDVO(UUID.randomUUID());
+        this.logID = new LogIDVO(idGenerator.nextID());
         this.time = new TimeStampVO(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
         this.reading = reading;
         this.sensorID = sensorID;
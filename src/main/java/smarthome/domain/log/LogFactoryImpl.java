@@ -1,6 +1,9 @@
 package smarthome.domain.log;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import smarthome.domain.IDGenerator;
+import smarthome.domain.TimeOrderedIDGenerator;
 import smarthome.domain.sensor.sensorvalues.SensorValueObject;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.logvo.LogIDVO;
@@ -11,6 +14,29 @@ import smarthome.domain.vo.logvo.TimeStampVO;
 @Component
 public class LogFactoryImpl implements LogFactory {
 
+    private final IDGenerator idGenerator;
+
+    /**
+     * Creates a factory generating the IDs of new logs with a {@link TimeOrderedIDGenerator}.
+     */
+    public LogFactoryImpl() {
+        this(new TimeOrderedIDGenerator());
+    }
+
+    /**
+     * Creates a factory generating the IDs of new logs with the given generator.
+     *
+     * @param idGenerator the generator of the IDs of new logs
+     * @throws IllegalArgumentException if the generator is null
+     */
+    @Autowired
+    public LogFactoryImpl(IDGenerator idGenerator) {
+        if (idGenerator == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.idGenerator = idGenerator;
+    }
+
     /**
      * * Constructs a new Log object with the provided parameters. Usually created right after a reading is obtained.
      *
@@ -22,7 +48,7 @@ public class LogFactoryImpl implements LogFactory {
      * @throws IllegalArgumentException if any of the parameters are null
      */
     public Log createLog(SensorValueObject<?> reading, SensorIDVO sensorID, DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
-        return new Log(reading, sensorID, deviceID, sensorTypeID);
+        return new Log(idGenerator, reading, sensorID, deviceID, sensorTypeID);
     }
 
     /**
@@ -0,0 +1,150 @@
+package smarthome.domain.log;
+
+import smarthome.domain.vo.logvo.TimeStampVO;
+
+import java.util.Objects;
+
+/**
+ * Summary of the numeric readings of one sensor type of a device over a period: how many there are, their sum,
+ * minimum and maximum, and from these their average.
+ * <p>
+ * The period runs from start (inclusive) to end (exclusive). Aggregates of adjacent or overlapping periods can be
+ * merged, which is how a long period is answered from rollup buckets instead of from every reading. An aggregate
+ * with no readings has a count of zero and NaN as its minimum, maximum and average.
+ * </p>
+ */
+public final class ReadingAggregate {
+
+    private static final String ERROR_MESSAGE = "Invalid parameters";
+
+    private final TimeStampVO start;
+    private final TimeStampVO end;
+    private final long count;
+    private final double sum;
+    private final double min;
+    private final double max;
+
+    /**
+     * Constructor for ReadingAggregate.
+     *
+     * @param start the start of the period (inclusive)
+     * @param end   the end of the period (exclusive)
+     * @param count the number of readings
+     * @param sum   the sum of the readings
+     * @param min   the smallest reading
+     * @param max   the largest reading
+     * @throws IllegalArgumentException if start or end are null, end is before start or count is negative
+     */
+    public ReadingAggregate(TimeStampVO start, TimeStampVO end, long count, double sum, double min, double max) {
+        if (start == null || end == null || end.getValue().isBefore(start.getValue()) || count < 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        this.start = start;
+        this.end = end;
+        this.count = count;
+        this.sum = count == 0 ? 0 : sum;
+        this.min = count == 0 ? Double.NaN : min;
+        this.max = count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Creates an aggregate with no readings.
+     *
+     * @param start the start of the period (inclusive)
+     * @param end   the end of the period (exclusive)
+     * @return an empty aggregate over the period
+     */
+    public static ReadingAggregate empty(TimeStampVO start, TimeStampVO end) {
+        return new ReadingAggregate(start, end, 0, 0, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * Creates an aggregate holding a single reading.
+     *
+     * @param time  the time of the reading
+     * @param value the numeric value of the reading
+     * @return an aggregate over the instant of the reading
+     */
+    public static ReadingAggregate of(TimeStampVO time, double value) {
+        return new ReadingAggregate(time, time, 1, value, value, value);
+    }
+
+    /**
+     * Merges this aggregate with another one. The resulting period spans both periods.
+     *
+     * @param other the aggregate to merge with
+     * @return a new aggregate holding the readings of both
+     * @throws IllegalArgumentException if other is null
+     */
+    public ReadingAggregate merge(ReadingAggregate other) {
+        if (other == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        TimeStampVO mergedStart = other.start.getValue().isBefore(start.getValue()) ? other.start : start;
+        TimeStampVO mergedEnd = other.end.getValue().isAfter(end.getValue()) ? other.end : end;
+        if (other.count == 0 || count == 0) {
+            ReadingAggregate source = count == 0 ? other : this;
+            return new ReadingAggregate(mergedStart, mergedEnd, source.count, source.sum, source.min, source.max);
+        }
+        return new ReadingAggregate(mergedStart, mergedEnd, count + other.count, sum + other.sum,
+                Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    /**
+     * Returns the same readings over another period, typically the bucket or the requested range they were
+     * gathered for.
+     *
+     * @param newStart the start of the period (inclusive)
+     * @param newEnd   the end of the period (exclusive)
+     * @return a new aggregate with the same readings and the given period
+     * @throws IllegalArgumentException if the period is invalid
+     */
+    public ReadingAggregate withPeriod(TimeStampVO newStart, TimeStampVO newEnd) {
+        return new ReadingAggregate(newStart, newEnd, count, sum, min, max);
+    }
+
+    public TimeStampVO getStart() {
+        return start;
+    }
+
+    public TimeStampVO getEnd() {
+        return end;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the average of the readings, or NaN if there are none
+     */
+    public double getAverage() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReadingAggregate that = (ReadingAggregate) o;
+        return count == that.count && Double.compare(sum, that.sum) == 0 && Double.compare(min, that.min) == 0
+                && Double.compare(max, that.max) == 0 && start.equals(that.start) && end.equals(that.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end, count, sum, min, max);
+    }
+}
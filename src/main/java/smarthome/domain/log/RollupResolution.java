@@ -0,0 +1,51 @@
+package smarthome.domain.log;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes at which readings are rolled up, from the finest to the coarsest.
+ */
+public enum RollupResolution {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupResolution(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @param time a point in time
+     * @return the start of the bucket holding the given time
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * @param bucketStart the start of a bucket
+     * @return the start of the following bucket, which is also the (exclusive) end of the given one
+     */
+    public LocalDateTime nextBucket(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * @param time a point in time
+     * @return true if the time is the start of a bucket
+     */
+    public boolean isBucketStart(LocalDateTime time) {
+        return bucketStart(time).equals(time);
+    }
+
+    /**
+     * @return the length of a bucket
+     */
+    public Duration getBucketDuration() {
+        return unit.getDuration();
+    }
+}
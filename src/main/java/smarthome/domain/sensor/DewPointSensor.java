@@ -10,7 +10,7 @@ import smarthome.domain.vo.sensorvo.SensorNameVO;
 
 import java.util.UUID;
 
-public class DewPointSensor implements Sensor {
+public class DewPointSensor implements InstantaneousSensor {
 
     private final SensorIDVO sensorID;
     private SensorNameVO sensorName;
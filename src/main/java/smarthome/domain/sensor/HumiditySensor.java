@@ -10,7 +10,7 @@ import smarthome.domain.vo.sensorvo.SensorNameVO;
 
 import java.util.UUID;
 
-public class HumiditySensor implements Sensor {
+public class HumiditySensor implements InstantaneousSensor {
 
     private SensorNameVO sensorName;
     private final DeviceIDVO deviceID;
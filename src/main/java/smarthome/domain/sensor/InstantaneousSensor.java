@@ -0,0 +1,13 @@
+package smarthome.domain.sensor;
+
+import smarthome.domain.sensor.externalservices.SensorExternalServices;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+
+/**
+ * A sensor whose reading is the value measured right now by its hardware, with no period or date to ask for, so it
+ * can be polled on a schedule.
+ */
+public interface InstantaneousSensor extends Sensor {
+    SensorValueObject<?> getReading(SensorExternalServices simHardware, SensorValueFactory valueFactory);
+}
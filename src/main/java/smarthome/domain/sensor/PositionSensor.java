@@ -13,7 +13,7 @@ import java.util.UUID;
 /**
  * PositionSensor is a domain entity that represents a sensor that measures the position/value in a scale.
  */
-public class PositionSensor implements Sensor {
+public class PositionSensor implements InstantaneousSensor {
 
     private SensorNameVO sensorName;
     private final DeviceIDVO deviceID;
@@ -10,7 +10,7 @@ import smarthome.domain.vo.sensorvo.SensorNameVO;
 
 import java.util.UUID;
 
-public class PowerConsumptionSensor implements Sensor {
+public class PowerConsumptionSensor implements InstantaneousSensor {
 
     private SensorNameVO sensorName;
     private final SensorIDVO sensorID;
@@ -1,6 +1,7 @@
 package smarthome.domain.sensor;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
@@ -12,37 +13,80 @@ import org.apache.commons.configuration2.builder.fluent.Configurations;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 
 import java.io.File;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
 
 @Component
 public class SensorFactoryImpl implements SensorFactory{
-    private final Configuration configuration;
+    private static final MethodType NEW_SENSOR = MethodType.methodType(Sensor.class,
+            SensorNameVO.class, DeviceIDVO.class, SensorTypeIDVO.class);
+    private static final MethodType PERSISTED_SENSOR = MethodType.methodType(Sensor.class,
+            SensorIDVO.class, SensorNameVO.class, DeviceIDVO.class, SensorTypeIDVO.class);
+
+    private final File file;
+    private volatile Map<String, SensorConstructors> constructors;
+    private volatile long lastModified;
 
 
     /**
      * Constructs an instance of V1SensorFactory with the provided configuration file path.
      * This constructor initializes a V1SensorFactory by loading configurations from the specified file path.
      * It uses the Apache Commons Configuration library to load the properties from the file.
+     * The class and constructors of every configured sensor type are resolved here, once, so creating a sensor
+     * does not load classes or look constructors up.
      * @param path The path to the configuration file.
      * @throws IllegalArgumentException if there is an error reading the configuration file. This exception is thrown to
      * indicate an error while loading properties from the file.
      */
     public SensorFactoryImpl(@Value("${filepath}") String path) {
+        try {
+            this.file = new File(path);
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("Error reading file");
+        }
+        refresh();
+    }
+
+    /**
+     * Reloads the configuration file and resolves the constructors of the sensor types it lists again. The sensors
+     * created before are not affected.
+     * @throws IllegalArgumentException if there is an error reading the configuration file, in which case the
+     * sensor types loaded before are kept.
+     */
+    public synchronized void refresh() {
+        long modified = this.file.lastModified();
+        Configuration configuration;
         try {
             Configurations configs = new Configurations();
-            this.configuration = configs.properties(new File(path));
-        } catch (NullPointerException | ConfigurationException e){
+            configuration = configs.properties(this.file);
+        } catch (ConfigurationException e){
             throw new IllegalArgumentException("Error reading file");
         }
+        this.constructors = resolveConstructors(configuration);
+        this.lastModified = modified;
+    }
+
+    /**
+     * Reloads the configuration file if it was modified since it was last loaded. Runs periodically.
+     */
+    @Scheduled(fixedDelayString = "${filepath.refresh-interval-ms:30000}")
+    public void refreshIfModified() {
+        if (this.file.lastModified() != this.lastModified) {
+            refresh();
+        }
     }
 
     /**
      * Creates a Sensor object based on the provided sensor information.
-     * This method constructs a Sensor object using reflection based on the provided SensorName, DeviceID, and SensorTypeID.
+     * This method constructs a Sensor object based on the provided SensorName, DeviceID, and SensorTypeID.
      * It first checks if the provided parameters are not null and if the sensor type is permitted.
-     * It then retrieves the sensor type's class path from the loaded configuration file, dynamically creates an instance
-     * of the specified class using reflection, and returns the created Sensor object.
+     * It then calls the constructor of the sensor type's class, resolved when the configuration file was loaded,
+     * and returns the created Sensor object.
      * @param sensorName   The name of the sensor.
      * @param deviceID     The ID of the device to which the sensor is attached.
      * @param sensorTypeID The type ID of the sensor.
@@ -50,14 +94,18 @@ public class SensorFactoryImpl implements SensorFactory{
      * sensor type is not permitted, or if there is an error during object creation.
      */
     public Sensor createSensor (SensorNameVO sensorName, DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID){
-        if (!areParamsNull(sensorName,deviceID,sensorTypeID) && isTypePermitted(sensorTypeID.getID())){
-            try{
-                String sensorTypePath = this.configuration.getString(sensorTypeID.getID());
-                Class<?> classObj = Class.forName(sensorTypePath);
-                Constructor<?> constructor = classObj.getConstructor(SensorNameVO.class, DeviceIDVO.class, SensorTypeIDVO.class);
-                return (Sensor) constructor.newInstance(sensorName, deviceID, sensorTypeID);
-            } catch (ClassNotFoundException | NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException e) {
-                return null;
+        if (!areParamsNull(sensorName,deviceID,sensorTypeID)){
+            SensorConstructors sensorConstructors = this.constructors.get(sensorTypeID.getID());
+            if (sensorConstructors != null && sensorConstructors.newSensor() != null){
+                try{
+                    return (Sensor) sensorConstructors.newSensor().invokeExact(sensorName, deviceID, sensorTypeID);
+                } catch (RuntimeException e) {
+                    return null;
+                } catch (Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    return null;
+                }
             }
         }
         return null;
@@ -67,9 +115,9 @@ public class SensorFactoryImpl implements SensorFactory{
     /**
      * Creates a Sensor object based on the provided sensor information, including the SensorID.
      * Context: This method is used when we want to create a sensor object from a sensorDataModel.
-     * This method constructs a Sensor object using reflection based on the provided SensorID, SensorName, DeviceID, and SensorTypeID.
-     * It retrieves the sensor type's class path from the loaded configuration file, dynamically creates an instance
-     * of the specified class using reflection, and returns the created Sensor object.
+     * This method constructs a Sensor object based on the provided SensorID, SensorName, DeviceID, and SensorTypeID.
+     * It calls the constructor of the sensor type's class, resolved when the configuration file was loaded, and
+     * returns the created Sensor object.
      *
      * @param sensorID     The ID of the sensor.
      * @param sensorName   The name of the sensor.
@@ -79,13 +127,57 @@ public class SensorFactoryImpl implements SensorFactory{
      */
     @Override
     public Sensor createSensor(SensorIDVO sensorID, SensorNameVO sensorName, DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
+        SensorConstructors sensorConstructors = this.constructors.get(sensorTypeID.getID());
+        if (sensorConstructors == null || sensorConstructors.persistedSensor() == null) {
+            return null;
+        }
         try {
-            String sensorTypePath = this.configuration.getString(sensorTypeID.getID());
-            Class<?> classObj = Class.forName(sensorTypePath);
-            Constructor<?> constructor = classObj.getConstructor(SensorIDVO.class, SensorNameVO.class, DeviceIDVO.class, SensorTypeIDVO.class);
-            return (Sensor) constructor.newInstance(sensorID, sensorName, deviceID, sensorTypeID);
-        } catch (ClassNotFoundException | NoSuchMethodException | InvocationTargetException | InstantiationException |
-                 IllegalAccessException e) {
+            return (Sensor) sensorConstructors.persistedSensor().invokeExact(sensorID, sensorName, deviceID, sensorTypeID);
+        } catch (RuntimeException e) {
+            return null;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Resolves the constructors of every sensor type of the configuration. Entries that do not name a Sensor class
+     * are left out, so no sensor of that type is created.
+     * @param configuration The configuration mapping sensor types to class paths.
+     * @return The constructors, by sensor type.
+     */
+    private static Map<String, SensorConstructors> resolveConstructors(Configuration configuration) {
+        Map<String, SensorConstructors> resolved = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Iterator<String> types = configuration.getKeys();
+        while (types.hasNext()) {
+            String type = types.next();
+            try {
+                Class<?> classObj = Class.forName(configuration.getString(type));
+                if (Sensor.class.isAssignableFrom(classObj)) {
+                    resolved.put(type, new SensorConstructors(findConstructor(lookup, classObj, NEW_SENSOR),
+                            findConstructor(lookup, classObj, PERSISTED_SENSOR)));
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Not a class path: no sensor of this type is created
+            }
+        }
+        return Collections.unmodifiableMap(resolved);
+    }
+
+    /**
+     * Finds the public constructor of a class taking the parameters of the given type.
+     * @param lookup   The lookup used to find the constructor.
+     * @param classObj The sensor class.
+     * @param type     The parameters of the constructor, and Sensor as the return type.
+     * @return A method handle calling the constructor, or null if the class has no such constructor.
+     */
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> classObj, MethodType type) {
+        try {
+            return lookup.findConstructor(classObj, type.changeReturnType(void.class)).asType(type);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
             return null;
         }
     }
@@ -105,11 +197,9 @@ public class SensorFactoryImpl implements SensorFactory{
     }
 
     /**
-     * Queries the configuration object by calling the method containsKey, which matches the input string with a key;
-     * @param type Type of the sensor.
-     * @return True or false
+     * The constructors of a sensor class: the one creating a new sensor, and the one rebuilding a persisted sensor.
+     * Either is null if the class does not declare it.
      */
-    private boolean isTypePermitted(String type){
-        return this.configuration.containsKey(type);
+    private record SensorConstructors(MethodHandle newSensor, MethodHandle persistedSensor) {
     }
 }
@@ -11,7 +11,7 @@ import smarthome.domain.vo.sensorvo.SensorNameVO;
 
 import java.util.UUID;
 
-public class SolarIrradianceSensor implements Sensor {
+public class SolarIrradianceSensor implements InstantaneousSensor {
 
     private final SensorIDVO sensorID;
     private SensorNameVO sensorName;
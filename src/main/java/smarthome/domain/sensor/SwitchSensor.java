@@ -10,7 +10,7 @@ import smarthome.domain.vo.sensorvo.SensorNameVO;
 
 import java.util.UUID;
 
-public class SwitchSensor implements Sensor {
+public class SwitchSensor implements InstantaneousSensor {
 
     private SensorNameVO nameVO;
     private final DeviceIDVO deviceIDVO;
@@ -10,7 +10,7 @@ import smarthome.domain.vo.sensorvo.SensorNameVO;
 
 import java.util.UUID;
 
-public class TemperatureSensor implements Sensor {
+public class TemperatureSensor implements InstantaneousSensor {
     private SensorNameVO name;
     private final DeviceIDVO deviceID;
     private final SensorTypeIDVO sensorTypeID;
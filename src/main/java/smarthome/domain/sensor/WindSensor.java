@@ -15,7 +15,7 @@ import java.util.UUID;
  * Implements the Sensor interface that extends EntityDomain interface, so it has to offer an implementation
  * for all methods defined in DomainID interface.
  */
-public class WindSensor implements Sensor {
+public class WindSensor implements InstantaneousSensor {
 
     private final SensorIDVO sensorIDVO;
     private SensorNameVO nameVO;
@@ -0,0 +1,122 @@
+package smarthome.domain.sensor.externalservices;
+
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives batch reads to hardware that can only read one sensor at a time.
+ * <p>
+ * getValues() reads the sensors of a batch concurrently, each with the getValue() of the wrapped hardware, on at most
+ * parallelism threads, so a batch takes about as long as its slowest reads instead of the sum of all of them. A batch
+ * waits at most timeout for its reads; sensors not read by then, or whose read failed, are left out of the result.
+ * Single reads go straight to the wrapped hardware.
+ * </p>
+ */
+public class ParallelSensorExternalServices implements SensorExternalServices, AutoCloseable {
+
+    private final SensorExternalServices delegate;
+    private final ThreadPoolExecutor readers;
+    private final long timeoutMillis;
+
+    /**
+     * Constructor for ParallelSensorExternalServices.
+     *
+     * @param delegate      the hardware reading one sensor at a time
+     * @param parallelism   the maximum number of sensors read at once
+     * @param timeoutMillis the maximum time a batch waits for its reads, in milliseconds
+     * @throws IllegalArgumentException if the hardware is null or the numbers are not positive
+     */
+    public ParallelSensorExternalServices(SensorExternalServices delegate, int parallelism, long timeoutMillis) {
+        if (delegate == null || parallelism <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger count = new AtomicInteger();
+        this.readers = new ThreadPoolExecutor(parallelism, parallelism, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sensor-hardware-reader-" + count.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.readers.allowCoreThreadTimeOut(true);
+    }
+
+    public String getValue() {
+        return delegate.getValue();
+    }
+
+    public String getValue(String initialDate, String finalDate) {
+        return delegate.getValue(initialDate, finalDate);
+    }
+
+    /**
+     * Reads the sensors concurrently, waiting at most timeout for the whole batch.
+     *
+     * @param sensorIDs the IDs of the sensors to read
+     * @return the value of each sensor read in time, by sensor ID, in the order of the collection
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     */
+    @Override
+    public Map<SensorIDVO, String> getValues(Collection<SensorIDVO> sensorIDs) {
+        if (sensorIDs == null || sensorIDs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        List<SensorIDVO> ids = new ArrayList<>(sensorIDs);
+        List<Callable<String>> reads = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            reads.add(delegate::getValue);
+        }
+        Map<SensorIDVO, String> values = new LinkedHashMap<>();
+        if (reads.isEmpty()) {
+            return values;
+        }
+        try {
+            // Reads still running at the timeout are cancelled
+            List<Future<String>> results = readers.invokeAll(reads, timeoutMillis, TimeUnit.MILLISECONDS);
+            for (int i = 0; i < ids.size(); i++) {
+                String value = valueOf(results.get(i));
+                if (value != null) {
+                    values.put(ids.get(i), value);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return values;
+    }
+
+    /**
+     * @return the value read, or null if the read failed or was cancelled
+     * @throws InterruptedException never in practice, as the read is already done
+     */
+    private static String valueOf(Future<String> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (ExecutionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stops the reader threads.
+     */
+    @Override
+    public void close() {
+        readers.shutdownNow();
+    }
+}
@@ -1,7 +1,41 @@
 package smarthome.domain.sensor.externalservices;
 
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 public interface SensorExternalServices {
     String getValue();
 
     String getValue(String initialDate, String finalDate);
+
+    /**
+     * Reads the current value of several sensors at once. Hardware able to read many sensors in one round trip
+     * overrides this; by default each sensor is read with getValue(), one after the other, and
+     * {@link ParallelSensorExternalServices} reads them concurrently instead.
+     *
+     * @param sensorIDs the IDs of the sensors to read
+     * @return the value of each sensor read, by sensor ID; sensors that could not be read are left out
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     */
+    default Map<SensorIDVO, String> getValues(Collection<SensorIDVO> sensorIDs) {
+        if (sensorIDs == null || sensorIDs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        Map<SensorIDVO, String> values = new LinkedHashMap<>();
+        for (SensorIDVO sensorID : sensorIDs) {
+            try {
+                String value = getValue();
+                if (value != null) {
+                    values.put(sensorID, value);
+                }
+            } catch (RuntimeException e) {
+                // Left out, the other sensors are still read
+            }
+        }
+        return values;
+    }
 }
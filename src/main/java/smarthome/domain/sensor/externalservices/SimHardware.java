@@ -1,11 +1,45 @@
 package smarthome.domain.sensor.externalservices;
 
+import org.springframework.stereotype.Component;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Local stand-in for the sensor hardware. Every sensor reads the same sample value, and a batch of sensors is read
+ * in a single call, as batch-capable hardware would.
+ */
+@Component
 public class SimHardware implements SensorExternalServices{
+    private static final String SAMPLE = "Sample";
+
     public String getValue() {
-        return "Sample";
+        return SAMPLE;
     }
 
     public String getValue(String initialDate, String finalDate) {
-        return "Sample";
+        return SAMPLE;
+    }
+
+    /**
+     * Reads the sample value of every sensor in a single call.
+     *
+     * @param sensorIDs the IDs of the sensors to read
+     * @return the sample value of each sensor, by sensor ID
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     */
+    @Override
+    public Map<SensorIDVO, String> getValues(Collection<SensorIDVO> sensorIDs) {
+        if (sensorIDs == null || sensorIDs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        Map<SensorIDVO, String> values = new LinkedHashMap<>();
+        for (SensorIDVO sensorID : sensorIDs) {
+            values.put(sensorID, SAMPLE);
+        }
+        return values;
     }
 }
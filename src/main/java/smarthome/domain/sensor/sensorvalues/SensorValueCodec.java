@@ -0,0 +1,135 @@
+package smarthome.domain.sensor.sensorvalues;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.ZonedDateTime;
+
+/**
+ * Converts the readings of one sensor value class from and to their text form.
+ * <p>
+ * The constructor of the value class is looked up once, when the codec is created, and kept as a method handle, so
+ * parsing a reading is a direct constructor call: no class loading or reflective lookup happens per reading. Value
+ * classes are built either from the reading text, or from a date and time, in which case the text is parsed as an
+ * ISO zoned date time first.
+ * </p>
+ */
+public final class SensorValueCodec {
+
+    private static final MethodType FROM_TEXT = MethodType.methodType(SensorValueObject.class, String.class);
+    private static final MethodType FROM_TIME = MethodType.methodType(SensorValueObject.class, ZonedDateTime.class);
+
+    private final Class<?> valueClass;
+    private final MethodHandle textParser;
+    private final MethodHandle timeParser;
+
+    private SensorValueCodec(Class<?> valueClass, MethodHandle textParser, MethodHandle timeParser) {
+        this.valueClass = valueClass;
+        this.textParser = textParser;
+        this.timeParser = timeParser;
+    }
+
+    /**
+     * Creates the codec of a sensor value class, looking up its public constructor taking a String or a
+     * ZonedDateTime.
+     *
+     * @param valueClass the sensor value class
+     * @return the codec of the class
+     * @throws IllegalArgumentException if the class is null, is not a SensorValueObject or has neither constructor
+     */
+    public static SensorValueCodec of(Class<?> valueClass) {
+        if (valueClass == null || !SensorValueObject.class.isAssignableFrom(valueClass)) {
+            throw new IllegalArgumentException("Invalid sensor value class");
+        }
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle textParser = findConstructor(lookup, valueClass, String.class);
+        MethodHandle timeParser = findConstructor(lookup, valueClass, ZonedDateTime.class);
+        if (timeParser != null) {
+            timeParser = timeParser.asType(FROM_TIME);
+        }
+        if (textParser != null) {
+            textParser = textParser.asType(FROM_TEXT);
+        } else if (timeParser != null) {
+            try {
+                MethodHandle parseTime = lookup.findStatic(ZonedDateTime.class, "parse",
+                        MethodType.methodType(ZonedDateTime.class, CharSequence.class));
+                textParser = MethodHandles.filterArguments(timeParser, 0, parseTime.asType(
+                        MethodType.methodType(ZonedDateTime.class, String.class)));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            throw new IllegalArgumentException("Invalid sensor value class");
+        }
+        return new SensorValueCodec(valueClass, textParser, timeParser);
+    }
+
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> valueClass, Class<?> parameter) {
+        try {
+            return lookup.findConstructor(valueClass, MethodType.methodType(void.class, parameter));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the sensor value class handled by this codec
+     */
+    public Class<?> getValueClass() {
+        return valueClass;
+    }
+
+    /**
+     * Parses a reading from its text form.
+     *
+     * @param reading the reading text
+     * @return the sensor value, or null if the reading is not valid for this value class
+     */
+    public SensorValueObject<?> parse(String reading) {
+        try {
+            return (SensorValueObject<?>) textParser.invokeExact(reading);
+        } catch (RuntimeException e) {
+            return null;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a sensor value from a date and time, for the value classes built from one.
+     *
+     * @param reading the date and time of the reading
+     * @return the sensor value, or null if this value class is not built from a date and time or the reading is not
+     * valid
+     */
+    public SensorValueObject<?> parse(ZonedDateTime reading) {
+        if (timeParser == null) {
+            return null;
+        }
+        try {
+            return (SensorValueObject<?>) timeParser.invokeExact(reading);
+        } catch (RuntimeException e) {
+            return null;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a sensor value in the text form read back by {@link #parse(String)}.
+     *
+     * @param value the sensor value
+     * @return the text form of the value
+     * @throws IllegalArgumentException if the value is null
+     */
+    public String serialize(SensorValueObject<?> value) {
+        if (value == null || value.getValue() == null) {
+            throw new IllegalArgumentException("Invalid sensor value");
+        }
+        return value.getValue().toString();
+    }
+}
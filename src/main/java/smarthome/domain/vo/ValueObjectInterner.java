@@ -0,0 +1,80 @@
+package smarthome.domain.vo;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Canonicalizing cache of value objects, so the value objects rebuilt for the same key share one instance.
+ * <p>
+ * Large reads rebuild the same few identifiers over and over (every log of a sensor references the same device,
+ * sensor and sensor type). Interning them spares the allocations, and lets equals return on its identity check.
+ * </p>
+ * <p>
+ * The cache is a fixed number of slots, each holding the last value object interned for a key hashing to it, so its
+ * size is bounded whatever the number of keys. Value objects are only weakly referenced: the cache never keeps one
+ * alive. A key whose slot was taken by another key, or whose value object was collected, just gets a new value object,
+ * equal to the previous one. The cache is thread safe, without locking.
+ * </p>
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the value objects.
+ */
+public final class ValueObjectInterner<K, V> {
+
+    private final AtomicReferenceArray<Entry<K, V>> slots;
+    private final int mask;
+
+    /**
+     * Creates an interner.
+     *
+     * @param capacity The number of slots, rounded up to a power of two.
+     * @throws IllegalArgumentException If the capacity is not positive or above 2^30.
+     */
+    public ValueObjectInterner(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the value object interned for the key, creating and interning it if there is none.
+     *
+     * @param key     The key of the value object. A null key is passed to the factory, and its result is not interned.
+     * @param factory Creates the value object of a key.
+     * @return The value object of the key.
+     */
+    public V intern(K key, Function<? super K, ? extends V> factory) {
+        if (key == null) {
+            return factory.apply(null);
+        }
+        int hash = key.hashCode();
+        int index = (hash ^ (hash >>> 16)) & this.mask;
+        Entry<K, V> entry = this.slots.get(index);
+        if (entry != null && entry.key.equals(key)) {
+            V value = entry.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        V value = Objects.requireNonNull(factory.apply(key));
+        this.slots.set(index, new Entry<>(key, value));
+        return value;
+    }
+
+    private static final class Entry<K, V> extends WeakReference<V> {
+        private final K key;
+
+        private Entry(K key, V value) {
+            super(value);
+            this.key = key;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package smarthome.domain.vo.actuatortype;
 
 import smarthome.domain.DomainID;
+import smarthome.domain.vo.ValueObjectInterner;
 
 import java.util.Objects;
 
 
 public class ActuatorTypeIDVO implements DomainID {
 
+    private static final ValueObjectInterner<String, ActuatorTypeIDVO> BY_ID = new ValueObjectInterner<>(256);
+
     private final String actuatorTypeID;
 
     /**
@@ -22,6 +25,16 @@ public class ActuatorTypeIDVO implements DomainID {
         this.actuatorTypeID = actuatorTypeID;
     }
 
+    /**
+     * Returns the ActuatorTypeIDVO of the given identifier, sharing the instance already created for it if there is one.
+     * @param identifier String identifier for the actuator type;
+     * @return The ActuatorTypeIDVO of the identifier;
+     * @throws IllegalArgumentException If the identifier is null or empty;
+     */
+    public static ActuatorTypeIDVO valueOf(String identifier) {
+        return BY_ID.intern(identifier, ActuatorTypeIDVO::new);
+    }
+
     /**
      * Simple getter method;
      * @return Receives the encapsulated value (which in this case is a string);
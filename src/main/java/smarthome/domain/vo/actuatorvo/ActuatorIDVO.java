@@ -65,4 +65,13 @@ public class ActuatorIDVO implements DomainID {
     public String getID() {
         return this.identifier.toString();
     }
+
+    /**
+     * Gets the UUID of the actuator identifier, as stored in binary form by the persistence layer.
+     *
+     * @return The UUID of the actuator identifier.
+     */
+    public UUID getUUID() {
+        return this.identifier;
+    }
 }
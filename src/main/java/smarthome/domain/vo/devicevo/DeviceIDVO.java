@@ -1,6 +1,7 @@
 package smarthome.domain.vo.devicevo;
 
 import smarthome.domain.DomainID;
+import smarthome.domain.vo.ValueObjectInterner;
 
 import java.util.Objects;
 import java.util.UUID;
@@ -10,6 +11,9 @@ import java.util.UUID;
  */
 public class DeviceIDVO implements DomainID {
 
+    private static final ValueObjectInterner<UUID, DeviceIDVO> BY_UUID = new ValueObjectInterner<>(4096);
+    private static final ValueObjectInterner<String, DeviceIDVO> BY_TEXT = new ValueObjectInterner<>(4096);
+
     private final UUID deviceID;
 
     /**
@@ -27,6 +31,30 @@ public class DeviceIDVO implements DomainID {
     }
 
 
+    /**
+     * Returns the DeviceIDVO of the given identifier, sharing the instance already created for it if there is one.
+     *
+     * @param identifier The UUID identifier for the device.
+     * @return The DeviceIDVO of the identifier.
+     * @throws IllegalArgumentException If the identifier is null.
+     */
+    public static DeviceIDVO valueOf(UUID identifier) {
+        return BY_UUID.intern(identifier, DeviceIDVO::new);
+    }
+
+    /**
+     * Returns the DeviceIDVO of the given identifier string, sharing the instance already created for it if there is
+     * one. The string is only parsed the first time.
+     *
+     * @param identifier The string representation of the UUID identifier for the device.
+     * @return The DeviceIDVO of the identifier.
+     * @throws IllegalArgumentException If the string is not a UUID.
+     * @throws NullPointerException If the string is null, as {@link UUID#fromString(String)}.
+     */
+    public static DeviceIDVO valueOf(String identifier) {
+        return BY_TEXT.intern(identifier, text -> valueOf(UUID.fromString(text)));
+    }
+
     /**
      * Gets the string representation of the device identifier (ID).
      *
@@ -62,4 +90,12 @@ public class DeviceIDVO implements DomainID {
         return Objects.hash(this.deviceID);
     }
 
+    /**
+     * Gets the UUID of the device identifier, as stored in binary form by the persistence layer.
+     *
+     * @return The UUID of the device identifier.
+     */
+    public UUID getUUID() {
+        return this.deviceID;
+    }
 }
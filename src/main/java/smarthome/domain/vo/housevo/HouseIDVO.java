@@ -47,4 +47,13 @@ public class HouseIDVO implements DomainID {
         HouseIDVO houseIDVO = (HouseIDVO) o;
         return Objects.equals(identifier, houseIDVO.identifier);
     }
+
+    /**
+     * Gets the UUID of the house identifier, as stored in binary form by the persistence layer.
+     *
+     * @return The UUID of the house identifier.
+     */
+    public UUID getUUID() {
+        return this.identifier;
+    }
 }
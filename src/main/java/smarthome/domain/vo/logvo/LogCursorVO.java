@@ -0,0 +1,105 @@
+package smarthome.domain.vo.logvo;
+
+import smarthome.domain.vo.ValueObject;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Value object class representing a position in the readings of a device, ordered by time and log ID.
+ * It points at the last log of a page, so the next page starts right after it. Its value is an opaque token that
+ * can be handed to clients and read back.
+ */
+public class LogCursorVO implements ValueObject<String> {
+
+    private final TimeStampVO time;
+    private final LogIDVO logID;
+    private static final String ERROR = "Invalid cursor";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Constructs a new LogCursorVO pointing at the log with the given time and ID.
+     * @param time The time of the log.
+     * @param logID The ID of the log.
+     */
+    public LogCursorVO(TimeStampVO time, LogIDVO logID) {
+        if (time == null || logID == null) {
+            throw new IllegalArgumentException(ERROR);
+        }
+        this.time = time;
+        this.logID = logID;
+    }
+
+    /**
+     * Constructs a new LogCursorVO from a token previously returned by getValue().
+     * @param token The cursor token.
+     */
+    public LogCursorVO(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            throw new IllegalArgumentException(ERROR);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new IllegalArgumentException(ERROR);
+            }
+            this.time = new TimeStampVO(LocalDateTime.parse(decoded.substring(0, separatorIndex)));
+            this.logID = new LogIDVO(UUID.fromString(decoded.substring(separatorIndex + 1)));
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new IllegalArgumentException(ERROR);
+        }
+    }
+
+    /**
+     * Returns the cursor as an opaque, URL-safe token.
+     * @return The cursor token.
+     */
+    @Override
+    public String getValue() {
+        String decoded = time.getValue() + SEPARATOR + logID.getID();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(decoded.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the time of the log the cursor points at.
+     * @return The time of the log.
+     */
+    public TimeStampVO getTime() {
+        return time;
+    }
+
+    /**
+     * Returns the ID of the log the cursor points at.
+     * @return The ID of the log.
+     */
+    public LogIDVO getLogID() {
+        return logID;
+    }
+
+    /**
+     * Compares this LogCursorVO object with another object for equality.
+     * @param obj The object to compare with.
+     * @return True if the objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        LogCursorVO that = (LogCursorVO) obj;
+        return Objects.equals(this.time, that.time) && Objects.equals(this.logID, that.logID);
+    }
+
+    /**
+     * Generates a hash code for the LogCursorVO object.
+     * @return The hash code generated for the LogCursorVO object.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(time, logID);
+    }
+}
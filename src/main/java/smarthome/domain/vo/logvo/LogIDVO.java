@@ -52,4 +52,13 @@ public class LogIDVO implements DomainID {
     public String getID() {
         return this.identifier.toString();
     }
+
+    /**
+     * Gets the UUID of the log identifier, as stored in binary form by the persistence layer.
+     *
+     * @return The UUID of the log identifier.
+     */
+    public UUID getUUID() {
+        return this.identifier;
+    }
 }
@@ -1,6 +1,7 @@
 package smarthome.domain.vo.roomvo;
 
 import smarthome.domain.DomainID;
+import smarthome.domain.vo.ValueObjectInterner;
 
 import java.util.UUID;
 
@@ -9,6 +10,9 @@ import java.util.UUID;
  */
 public class RoomIDVO implements DomainID {
 
+    private static final ValueObjectInterner<UUID, RoomIDVO> BY_UUID = new ValueObjectInterner<>(4096);
+    private static final ValueObjectInterner<String, RoomIDVO> BY_TEXT = new ValueObjectInterner<>(4096);
+
     private final UUID identifier;
 
     /**
@@ -24,6 +28,30 @@ public class RoomIDVO implements DomainID {
         this.identifier = identifier;
     }
 
+    /**
+     * Returns the RoomIDVO of the given identifier, sharing the instance already created for it if there is one.
+     *
+     * @param identifier The UUID identifier for the room.
+     * @return The RoomIDVO of the identifier.
+     * @throws IllegalArgumentException If the identifier is null.
+     */
+    public static RoomIDVO valueOf(UUID identifier) {
+        return BY_UUID.intern(identifier, RoomIDVO::new);
+    }
+
+    /**
+     * Returns the RoomIDVO of the given identifier string, sharing the instance already created for it if there is
+     * one. The string is only parsed the first time.
+     *
+     * @param identifier The string representation of the UUID identifier for the room.
+     * @return The RoomIDVO of the identifier.
+     * @throws IllegalArgumentException If the string is not a UUID.
+     * @throws NullPointerException If the string is null, as {@link UUID#fromString(String)}.
+     */
+    public static RoomIDVO valueOf(String identifier) {
+        return BY_TEXT.intern(identifier, text -> valueOf(UUID.fromString(text)));
+    }
+
     /**
      * Gets the string representation of the room identifier.
      *
@@ -47,5 +75,12 @@ public class RoomIDVO implements DomainID {
         return identifier.hashCode();
     }
 
-
+    /**
+     * Gets the UUID of the room identifier, as stored in binary form by the persistence layer.
+     *
+     * @return The UUID of the room identifier.
+     */
+    public UUID getUUID() {
+        return this.identifier;
+    }
 }
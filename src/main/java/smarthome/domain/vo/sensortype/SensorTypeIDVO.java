@@ -1,9 +1,12 @@
 package smarthome.domain.vo.sensortype;
 
 import smarthome.domain.DomainID;
+import smarthome.domain.vo.ValueObjectInterner;
 
 public class SensorTypeIDVO implements DomainID {
 
+    private static final ValueObjectInterner<String, SensorTypeIDVO> BY_ID = new ValueObjectInterner<>(256);
+
     private final String sensorTypeID;
 
     /**
@@ -19,6 +22,16 @@ public class SensorTypeIDVO implements DomainID {
         }
     }
 
+    /**
+     * Returns the SensorTypeIDVO of the given identifier, sharing the instance already created for it if there is one.
+     * @param identifier String identifier for the sensor type;
+     * @return The SensorTypeIDVO of the identifier;
+     * @throws IllegalArgumentException If the identifier is null or empty;
+     */
+    public static SensorTypeIDVO valueOf(String identifier) {
+        return BY_ID.intern(identifier, SensorTypeIDVO::new);
+    }
+
     /**
      * Simple getter method;
      * @return Receives the encapsulated value (which in this case is a string);
@@ -1,10 +1,15 @@
 package smarthome.domain.vo.sensorvo;
 
 import smarthome.domain.DomainID;
+import smarthome.domain.vo.ValueObjectInterner;
 
 import java.util.UUID;
 
 public class SensorIDVO implements DomainID {
+
+    private static final ValueObjectInterner<UUID, SensorIDVO> BY_UUID = new ValueObjectInterner<>(4096);
+    private static final ValueObjectInterner<String, SensorIDVO> BY_TEXT = new ValueObjectInterner<>(4096);
+
     private final UUID identifier;
 
     /**
@@ -20,6 +25,30 @@ public class SensorIDVO implements DomainID {
     }
 
 
+    /**
+     * Returns the SensorIDVO of the given identifier, sharing the instance already created for it if there is one.
+     *
+     * @param identifier The UUID identifier for the sensor.
+     * @return The SensorIDVO of the identifier.
+     * @throws IllegalArgumentException If the identifier is null.
+     */
+    public static SensorIDVO valueOf(UUID identifier) {
+        return BY_UUID.intern(identifier, SensorIDVO::new);
+    }
+
+    /**
+     * Returns the SensorIDVO of the given identifier string, sharing the instance already created for it if there is
+     * one. The string is only parsed the first time.
+     *
+     * @param identifier The string representation of the UUID identifier for the sensor.
+     * @return The SensorIDVO of the identifier.
+     * @throws IllegalArgumentException If the string is not a UUID.
+     * @throws NullPointerException If the string is null, as {@link UUID#fromString(String)}.
+     */
+    public static SensorIDVO valueOf(String identifier) {
+        return BY_TEXT.intern(identifier, text -> valueOf(UUID.fromString(text)));
+    }
+
     /**
      * Implements method from DomainID Interface
      * @return A String format of the Sensor identifier
@@ -41,4 +70,13 @@ public class SensorIDVO implements DomainID {
     public int hashCode() {
         return identifier.hashCode();
     }
+
+    /**
+     * Gets the UUID of the sensor identifier, as stored in binary form by the persistence layer.
+     *
+     * @return The UUID of the sensor identifier.
+     */
+    public UUID getUUID() {
+        return this.identifier;
+    }
 }
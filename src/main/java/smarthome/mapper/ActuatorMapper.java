@@ -75,7 +75,7 @@ public class ActuatorMapper {
         if (actuatorDTO == null) {
             throw new IllegalArgumentException(ERRORMESSAGE);
         } else {
-            return new ActuatorTypeIDVO(actuatorDTO.getActuatorTypeID());
+            return ActuatorTypeIDVO.valueOf(actuatorDTO.getActuatorTypeID());
         }
     }
 
@@ -95,7 +95,7 @@ public class ActuatorMapper {
                 throw new IllegalArgumentException("Device ID cannot be null");
             }
             UUID deviceID = UUID.fromString(actuatorDTO.getDeviceID());
-            return new DeviceIDVO(deviceID);
+            return DeviceIDVO.valueOf(deviceID);
         }
     }
 
@@ -183,7 +183,7 @@ public class ActuatorMapper {
             throw new IllegalArgumentException("DeviceID cannot be null");
         } else {
             UUID id = UUID.fromString(deviceId);
-            return new DeviceIDVO(id);
+            return DeviceIDVO.valueOf(id);
         }
     }
 }
\ No newline at end of file
@@ -37,10 +37,10 @@ public class ActuatorTypeMapper {
             throw new IllegalArgumentException(ERRORMESSAGE);
         }
         String actuatorType = actuatorTypeDTO.getActuatorTypeID();
-        return new ActuatorTypeIDVO(actuatorType);
+        return ActuatorTypeIDVO.valueOf(actuatorType);
     }
 
     public static ActuatorTypeIDVO createActuatorTypeIDVOFromString(String actuatorType){
-        return new ActuatorTypeIDVO(actuatorType);
+        return ActuatorTypeIDVO.valueOf(actuatorType);
     }
 }
@@ -72,7 +72,7 @@ public class DeviceMapper {
             throw new IllegalArgumentException("Invalid device ID");
         }
         UUID id = UUID.fromString(deviceID);
-        return new DeviceIDVO(id);
+        return DeviceIDVO.valueOf(id);
     }
 
     /**
@@ -93,7 +93,7 @@ public class DeviceMapper {
             throw new IllegalArgumentException("Invalid room ID");
         }
         UUID id = UUID.fromString(roomID);
-        return new RoomIDVO(id);
+        return RoomIDVO.valueOf(id);
     }
 
     /**
@@ -112,7 +112,7 @@ public class DeviceMapper {
 
         if (uuid != null){
             UUID id = UUID.fromString(deviceID);
-            return new DeviceIDVO(id);
+            return DeviceIDVO.valueOf(id);
         }
         throw new IllegalArgumentException("Invalid device ID");
     }
@@ -145,7 +145,7 @@ public class DeviceMapper {
         else {
             // Converts String from the DTO into a UUID
             UUID room = UUID.fromString(roomID);
-            return new RoomIDVO(room);
+            return RoomIDVO.valueOf(room);
         }
     }
 
@@ -3,11 +3,13 @@ package smarthome.mapper;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import smarthome.domain.IDGenerator;
 import smarthome.domain.log.Log;
 import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
 import smarthome.domain.sensor.sensorvalues.SensorValueFactoryImpl;
 import smarthome.domain.sensor.sensorvalues.SensorValueObject;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.LogIDVO;
 import smarthome.domain.vo.logvo.TimeStampVO;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
@@ -16,6 +18,7 @@ import smarthome.mapper.dto.LogDTO;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -85,7 +88,7 @@ public class LogMapper {
         if (logDTO == null){
             throw new IllegalArgumentException(ERRORMESSAGE);
         }
-        return new DeviceIDVO(UUID.fromString(logDTO.getDeviceID()));
+        return DeviceIDVO.valueOf(logDTO.getDeviceID());
     }
 
     /**
@@ -99,7 +102,7 @@ public class LogMapper {
         if (logDTO == null){
             throw new IllegalArgumentException(ERRORMESSAGE);
         }
-        return new SensorIDVO(UUID.fromString(logDTO.getSensorID()));
+        return SensorIDVO.valueOf(logDTO.getSensorID());
     }
 
     /**
@@ -113,7 +116,7 @@ public class LogMapper {
         if (logDTO == null){
             throw new IllegalArgumentException(ERRORMESSAGE);
         }
-        return new SensorTypeIDVO(logDTO.getSensorTypeID());
+        return SensorTypeIDVO.valueOf(logDTO.getSensorTypeID());
     }
 
     /**
@@ -145,6 +148,66 @@ public class LogMapper {
         return new TimeStampVO(LocalDateTime.parse(logDTO.getTime()));
     }
 
+    /**
+     * Creates a {@code LogCursorVO} instance from a cursor token received from a client.
+     *
+     * @param cursor the cursor token, may be null for the first page
+     * @return a {@code LogCursorVO} read from the token, or null if no token was given
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static LogCursorVO createLogCursorVO (String cursor){
+        if (cursor == null){
+            return null;
+        }
+        return new LogCursorVO(cursor);
+    }
+
+    /**
+     * Creates a {@code LogCursorVO} instance pointing at the given log, so the next page starts right after it.
+     *
+     * @param log the last log of a page, must not be null
+     * @return a {@code LogCursorVO} pointing at the log
+     * @throws IllegalArgumentException if {@code log} is null
+     */
+    public static LogCursorVO createLogCursorVO (Log log){
+        if (log == null){
+            throw new IllegalArgumentException(ERRORMESSAGE);
+        }
+        return new LogCursorVO(log.getTime(), new LogIDVO(UUID.fromString(log.getId().getID())));
+    }
+
+    /**
+     * Converts a data transfer object LogDTO received from a client into a domain model Log object.
+     * <p>
+     * The time, reading, sensor ID, device ID and sensor type ID are required. The log ID is optional: when it is
+     * given it is kept, so a client retrying the same reading cannot store it twice, otherwise a new one is generated
+     * by the given generator, like the IDs of the logs created by the LogFactory.
+     * </p>
+     * @param logDTO the log data transfer object, must not be null
+     * @param sensorValueFactory the factory used to create the reading, must not be null
+     * @param idGenerator the generator of the log ID when none is given, must not be null
+     * @return a Log object holding the data of the {@code logDTO}
+     * @throws IllegalArgumentException if {@code logDTO}, the factory, the generator or any of the required attributes
+     * is null or invalid
+     */
+    public static Log dtoToDomain (LogDTO logDTO, SensorValueFactory sensorValueFactory, IDGenerator idGenerator){
+        if (logDTO == null || sensorValueFactory == null || idGenerator == null || logDTO.getTime() == null
+                || logDTO.getReading() == null || logDTO.getSensorID() == null || logDTO.getDeviceID() == null
+                || logDTO.getSensorTypeID() == null){
+            throw new IllegalArgumentException(ERRORMESSAGE);
+        }
+        LogIDVO logID = logDTO.getLogID() != null ? createLogIDVO(logDTO) : new LogIDVO(idGenerator.nextID());
+        TimeStampVO time;
+        try {
+            time = createTimeStampVO(logDTO);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time");
+        }
+        SensorTypeIDVO sensorTypeID = createSensorTypeIDVO(logDTO);
+        SensorValueObject<?> reading = sensorValueFactory.createSensorValue(logDTO.getReading(), sensorTypeID);
+        return new Log(logID, time, reading, createSensorIDVO(logDTO), createDeviceIDVO(logDTO), sensorTypeID);
+    }
+
     /**
      * Converts a domain model Log object to a data transfer object (DTO) LogDTO.
      * <p>
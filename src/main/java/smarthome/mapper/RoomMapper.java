@@ -93,7 +93,7 @@ public class RoomMapper {
         else {
             // Converts String from the DTO into a UUID
             UUID roomID = UUID.fromString(roomDTO.getId());
-            return new RoomIDVO(roomID);
+            return RoomIDVO.valueOf(roomID);
         }
     }
 
@@ -78,7 +78,7 @@ public class SensorMapper {
             throw new IllegalArgumentException("Invalid device ID");
         }
         UUID id = UUID.fromString(deviceID);
-        return new DeviceIDVO(id);
+        return DeviceIDVO.valueOf(id);
     }
 
     /**
@@ -93,7 +93,7 @@ public class SensorMapper {
         }
 
         String sensorTypeID = sensorDTO.getSensorTypeID();
-        return new SensorTypeIDVO(sensorTypeID);
+        return SensorTypeIDVO.valueOf(sensorTypeID);
     }
 
     /**
@@ -110,7 +110,7 @@ public class SensorMapper {
             throw new IllegalArgumentException("Invalid sensor ID");
         }
         UUID id = UUID.fromString(sensorID);
-        return new SensorIDVO(id);
+        return SensorIDVO.valueOf(id);
     }
 
 
@@ -127,7 +127,7 @@ public class SensorMapper {
         if (sensorID == null || sensorID.trim().isEmpty()) {
             throw new IllegalArgumentException("Invalid sensor ID");
         }
-        return new SensorTypeIDVO(sensorID);
+        return SensorTypeIDVO.valueOf(sensorID);
     }
 
 
@@ -157,7 +157,7 @@ public class SensorMapper {
             throw new IllegalArgumentException("DeviceID cannot be null");
         } else {
             UUID id = UUID.fromString(deviceId);
-            return new DeviceIDVO(id);
+            return DeviceIDVO.valueOf(id);
         }
     }
 
@@ -9,7 +9,6 @@ import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 public class ActuatorAssembler {
 
@@ -21,12 +20,10 @@ public class ActuatorAssembler {
      * @return Actuator object
      */
     public static Actuator toDomain(ActuatorFactory actuatorFactory, ActuatorDataModel actuatorDataModel) {
-        UUID actuatorUUID = UUID.fromString(actuatorDataModel.getActuatorID());
-        ActuatorIDVO actuatorID = new ActuatorIDVO(actuatorUUID);
+        ActuatorIDVO actuatorID = new ActuatorIDVO(actuatorDataModel.getActuatorID());
         ActuatorNameVO actuatorName = new ActuatorNameVO(actuatorDataModel.getActuatorName());
-        ActuatorTypeIDVO actuatorType = new ActuatorTypeIDVO(actuatorDataModel.getActuatorTypeID());
-        UUID deviceUUID = UUID.fromString(actuatorDataModel.getDeviceID());
-        DeviceIDVO deviceID = new DeviceIDVO(deviceUUID);
+        ActuatorTypeIDVO actuatorType = ActuatorTypeIDVO.valueOf(actuatorDataModel.getActuatorTypeID());
+        DeviceIDVO deviceID = DeviceIDVO.valueOf(actuatorDataModel.getDeviceID());
         String lowerLimit = actuatorDataModel.getLowerLimit();
         String upperLimit = actuatorDataModel.getUpperLimit();
         String precision = actuatorDataModel.getPrecision_value();
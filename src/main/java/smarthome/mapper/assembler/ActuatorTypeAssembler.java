@@ -32,7 +32,7 @@ public class ActuatorTypeAssembler {
      * @return The ActuatorType object created.
      */
     public static ActuatorType actuatorTypeToDomain(ActuatorTypeFactory actuatorTypeFactory, ActuatorTypeDataModel actuatorTypeDataModel){
-        ActuatorTypeIDVO actuatorTypeIDVO = new ActuatorTypeIDVO(actuatorTypeDataModel.getActuatorTypeID());
+        ActuatorTypeIDVO actuatorTypeIDVO = ActuatorTypeIDVO.valueOf(actuatorTypeDataModel.getActuatorTypeID());
         return actuatorTypeFactory.createActuatorType(actuatorTypeIDVO);
     }
 
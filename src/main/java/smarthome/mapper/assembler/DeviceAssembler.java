@@ -10,7 +10,10 @@ import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.persistence.jpa.datamodel.DeviceDataModel;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class DeviceAssembler {
@@ -33,12 +36,12 @@ public class DeviceAssembler {
      */
     public static Device toDomain(DeviceFactory deviceFactory, DeviceDataModel deviceDataModel)
     {
-        DeviceIDVO deviceIDVO = new DeviceIDVO(UUID.fromString(deviceDataModel.getDeviceID()));
+        DeviceIDVO deviceIDVO = DeviceIDVO.valueOf(deviceDataModel.getDeviceID());
         DeviceNameVO deviceNameVO = new DeviceNameVO(deviceDataModel.getDeviceName());
         DeviceModelVO deviceModelVO = new DeviceModelVO(deviceDataModel.getDeviceModel());
         DeviceStatusVO deviceStatusVO = new DeviceStatusVO(deviceDataModel.getDeviceStatus());
 
-        RoomIDVO roomIDVO = new RoomIDVO(UUID.fromString(deviceDataModel.getRoomID()));
+        RoomIDVO roomIDVO = RoomIDVO.valueOf(deviceDataModel.getRoomID());
 
         return deviceFactory.createDevice(deviceIDVO,deviceNameVO,deviceModelVO,deviceStatusVO,roomIDVO);
     }
@@ -62,4 +65,49 @@ public class DeviceAssembler {
 
         return devices;
     }
+
+    /**
+     * Converts the rows of the functionality join queries to devices grouped by type. Each row holds a sensor or
+     * actuator type ID (String) and the DeviceDataModel of the device holding it. Sensor types come first, then
+     * actuator types, each in row order; an actuator type sharing the ID of a sensor type replaces its devices.
+     * A device is listed once per type and assembled only once overall.
+     *
+     * @param deviceFactory The DeviceFactory used to create Device objects.
+     * @param sensorRows    The rows joining sensors with their devices.
+     * @param actuatorRows  The rows joining actuators with their devices.
+     * @return The map of type ID to the list of devices holding that type.
+     */
+
+    public static Map<String, List<Device>> toDomainGroups(DeviceFactory deviceFactory, List<Object[]> sensorRows,
+                                                            List<Object[]> actuatorRows) {
+        Map<UUID, Device> devices = new HashMap<>();
+        Map<String, Map<UUID, Device>> groups = groupRows(deviceFactory, sensorRows, devices);
+        groups.putAll(groupRows(deviceFactory, actuatorRows, devices));
+
+        Map<String, List<Device>> result = new LinkedHashMap<>();
+        groups.forEach((type, group) -> result.put(type, new ArrayList<>(group.values())));
+        return result;
+    }
+
+    /**
+     * Groups the devices of (type ID, DeviceDataModel) rows by type ID, keeping the order of the rows.
+     *
+     * @param deviceFactory The DeviceFactory used to create Device objects.
+     * @param rows          The rows to be grouped.
+     * @param devices       The devices already assembled, by ID.
+     * @return The map of type ID to the devices holding that type, by ID.
+     */
+
+    private static Map<String, Map<UUID, Device>> groupRows(DeviceFactory deviceFactory, List<Object[]> rows,
+                                                            Map<UUID, Device> devices) {
+        Map<String, Map<UUID, Device>> groups = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            String type = (String) row[0];
+            DeviceDataModel deviceDataModel = (DeviceDataModel) row[1];
+            UUID deviceID = deviceDataModel.getDeviceID();
+            Device device = devices.computeIfAbsent(deviceID, id -> toDomain(deviceFactory, deviceDataModel));
+            groups.computeIfAbsent(type, key -> new LinkedHashMap<>()).putIfAbsent(deviceID, device);
+        }
+        return groups;
+    }
 }
@@ -6,7 +6,6 @@ import smarthome.persistence.jpa.datamodel.HouseDataModel;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 public class HouseAssembler {
 
@@ -19,7 +18,7 @@ public class HouseAssembler {
      */
     static public House toDomain(HouseFactory houseFactory, HouseDataModel houseDataModel) {
         // Create value objects from data model
-        HouseIDVO houseIDVO = new HouseIDVO(UUID.fromString(houseDataModel.getId()));
+        HouseIDVO houseIDVO = new HouseIDVO(houseDataModel.getId());
         DoorVO doorVO = new DoorVO(houseDataModel.getDoor());
         StreetVO streetVO = new StreetVO(houseDataModel.getStreet());
         CityVO cityVO = new CityVO(houseDataModel.getCity());
@@ -14,7 +14,6 @@ import smarthome.domain.vo.logvo.TimeStampVO;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 public class LogAssembler {
 
@@ -44,11 +43,11 @@ public class LogAssembler {
      * @return              The converted Log domain object, or null if an error occurs.
      */
     public static Log toDomain(LogFactory logFactory, SensorValueFactory valueFactory, LogDataModel logDataModel){
-        LogIDVO logIDVO = new LogIDVO(UUID.fromString(logDataModel.getLogID()));
+        LogIDVO logIDVO = new LogIDVO(logDataModel.getLogID());
         TimeStampVO timeStamp = new TimeStampVO(logDataModel.getTime());
-        SensorIDVO sensorIDVO = new SensorIDVO(UUID.fromString(logDataModel.getSensorID()));
-        DeviceIDVO deviceIDVO = new DeviceIDVO(UUID.fromString(logDataModel.getDeviceID()));
-        SensorTypeIDVO sensorTypeIDVO = new SensorTypeIDVO(logDataModel.getSensorTypeID());
+        SensorIDVO sensorIDVO = SensorIDVO.valueOf(logDataModel.getSensorID());
+        DeviceIDVO deviceIDVO = DeviceIDVO.valueOf(logDataModel.getDeviceID());
+        SensorTypeIDVO sensorTypeIDVO = SensorTypeIDVO.valueOf(logDataModel.getSensorTypeID());
         SensorValueObject<?> reading = valueFactory.createSensorValue(logDataModel.getReading(),sensorTypeIDVO);
         return logFactory.createLog(logIDVO,timeStamp,reading,sensorIDVO,deviceIDVO,sensorTypeIDVO);
     }
@@ -0,0 +1,44 @@
+package smarthome.mapper.assembler;
+
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.persistence.jpa.datamodel.LogRollupDataModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class LogRollupAssembler {
+
+    /**
+     * Private constructor to prevent instantiation of the class.
+     */
+    private LogRollupAssembler(){
+
+    }
+
+    /**
+     * Converts a LogRollupDataModel object to the ReadingAggregate of its bucket.
+     *
+     * @param dataModel The LogRollupDataModel object to convert.
+     * @return          The aggregate of the bucket, covering the bucket from its start to the start of the next one.
+     */
+    public static ReadingAggregate toDomain(LogRollupDataModel dataModel){
+        TimeStampVO start = new TimeStampVO(dataModel.getBucketStart());
+        TimeStampVO end = new TimeStampVO(dataModel.getResolution().nextBucket(dataModel.getBucketStart()));
+        return new ReadingAggregate(start, end, dataModel.getCount(), dataModel.getSum(), dataModel.getMin(), dataModel.getMax());
+    }
+
+    /**
+     * Converts a collection of LogRollupDataModel objects to ReadingAggregate objects, keeping their order.
+     *
+     * @param dataModels The LogRollupDataModel objects to convert.
+     * @return           The aggregates of the buckets.
+     */
+    public static List<ReadingAggregate> toDomain(Iterable<LogRollupDataModel> dataModels){
+        List<ReadingAggregate> aggregates = new ArrayList<>();
+        for (LogRollupDataModel dataModel : dataModels) {
+            aggregates.add(toDomain(dataModel));
+        }
+        return aggregates;
+    }
+}
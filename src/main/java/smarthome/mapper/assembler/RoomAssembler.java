@@ -8,7 +8,6 @@ import smarthome.persistence.jpa.datamodel.RoomDataModel;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * RoomAssembler is a class that is used to convert RoomDataModel objects to Room objects.
@@ -36,14 +35,14 @@ public class RoomAssembler {
      */
 
     public static Room toDomain(RoomFactory roomFactory, RoomDataModel roomDataModel) {
-        RoomIDVO roomIDVO = new RoomIDVO(UUID.fromString(roomDataModel.getRoomID()));
+        RoomIDVO roomIDVO = RoomIDVO.valueOf(roomDataModel.getRoomID());
         RoomNameVO roomNameVO = new RoomNameVO(roomDataModel.getRoomName());
         RoomFloorVO roomFloorVO = new RoomFloorVO(roomDataModel.getRoomFloor());
         RoomLengthVO roomLengthVO = new RoomLengthVO(roomDataModel.getRoomLength());
         RoomWidthVO roomWidthVO = new RoomWidthVO(roomDataModel.getRoomWidth());
         RoomHeightVO roomHeightVO = new RoomHeightVO(roomDataModel.getRoomHeight());
         RoomDimensionsVO roomDimensionsVO = new RoomDimensionsVO(roomLengthVO, roomWidthVO, roomHeightVO);
-        HouseIDVO houseIDVO = new HouseIDVO(UUID.fromString(roomDataModel.getHouseID()));
+        HouseIDVO houseIDVO = new HouseIDVO(roomDataModel.getHouseID());
         return roomFactory.createRoom(roomIDVO, roomNameVO, roomFloorVO, roomDimensionsVO, houseIDVO);
     }
 
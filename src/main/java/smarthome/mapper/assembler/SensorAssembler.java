@@ -10,7 +10,6 @@ import smarthome.persistence.jpa.datamodel.SensorDataModel;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 public class SensorAssembler {
 
@@ -32,10 +31,10 @@ public class SensorAssembler {
      * @return The Sensor object.
      */
     public static Sensor toDomain(SensorFactory sensorFactory, SensorDataModel sensorDataModel) {
-        SensorIDVO sensorIDVO = new SensorIDVO(UUID.fromString(sensorDataModel.getSensorId()));
+        SensorIDVO sensorIDVO = SensorIDVO.valueOf(sensorDataModel.getSensorId());
         SensorNameVO sensorNameVO = new SensorNameVO(sensorDataModel.getSensorName());
-        SensorTypeIDVO sensorTypeIDVO = new SensorTypeIDVO((sensorDataModel.getSensorTypeID()));
-        DeviceIDVO deviceIDVO = new DeviceIDVO(UUID.fromString(sensorDataModel.getDeviceID()));
+        SensorTypeIDVO sensorTypeIDVO = SensorTypeIDVO.valueOf(sensorDataModel.getSensorTypeID());
+        DeviceIDVO deviceIDVO = DeviceIDVO.valueOf(sensorDataModel.getDeviceID());
         return sensorFactory.createSensor(sensorIDVO, sensorNameVO, deviceIDVO, sensorTypeIDVO);
     }
 
@@ -33,7 +33,7 @@ public class SensorTypeAssembler {
      */
     public static SensorType toDomain(SensorTypeFactory factory, SensorTypeDataModel sensorTypeDataModel)
     {
-        SensorTypeIDVO sensorTypeIDVO = new SensorTypeIDVO(sensorTypeDataModel.getSensorTypeId());
+        SensorTypeIDVO sensorTypeIDVO = SensorTypeIDVO.valueOf(sensorTypeDataModel.getSensorTypeId());
         UnitVO unitVO = new UnitVO(sensorTypeDataModel.getUnit());
         return factory.createSensorType(sensorTypeIDVO, unitVO);
     }
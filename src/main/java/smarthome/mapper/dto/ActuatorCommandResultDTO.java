@@ -0,0 +1,17 @@
+package smarthome.mapper.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of one actuator of a group command: its status after the command, or why the command failed.
+ */
+@Builder
+@NoArgsConstructor  // Generates a no-argument constructor
+@AllArgsConstructor // Generates a constructor with all arguments
+@Getter
+public class ActuatorCommandResultDTO {
+        private String actuatorId;
+        private boolean successful;
+        private String status;
+        private String error;
+}
@@ -0,0 +1,18 @@
+package smarthome.mapper.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of a group command: one {@link ActuatorCommandResultDTO} per actuator commanded, and the time the whole
+ * group took, in milliseconds.
+ */
+@Builder
+@NoArgsConstructor  // Generates a no-argument constructor
+@AllArgsConstructor // Generates a constructor with all arguments
+@Getter
+public class GroupCommandResultDTO {
+        private long latencyMillis;
+        private List<ActuatorCommandResultDTO> results;
+}
@@ -0,0 +1,17 @@
+package smarthome.mapper.dto;
+
+import lombok.*;
+
+/**
+ * Outcome of one log of a bulk ingestion request, reported at the same position as the log in the request.
+ */
+@Builder
+@NoArgsConstructor  // Generates a no-argument constructor
+@AllArgsConstructor // Generates a constructor with all arguments
+@Getter
+public class LogIngestResultDTO {
+        private int index;
+        private String logID;
+        private boolean saved;
+        private String error;
+}
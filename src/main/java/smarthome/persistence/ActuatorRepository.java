@@ -4,6 +4,18 @@ import smarthome.domain.actuator.Actuator;
 import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 
+import java.util.List;
+
 public interface ActuatorRepository extends Repository<ActuatorIDVO, Actuator>{
     Iterable<Actuator> findByDeviceID(DeviceIDVO deviceID);
+
+    /**
+     * Saves the state of several actuators in one write, replacing the stored state of those already present, so a
+     * group command persists all of its actuators at once instead of one transaction per actuator.
+     *
+     * @param actuators the actuators to be saved
+     * @return one result per actuator, in the same order: true if the actuator was saved, false otherwise
+     * @throws IllegalArgumentException if the list or any of its actuators is null
+     */
+    List<Boolean> saveAll(List<Actuator> actuators);
 }
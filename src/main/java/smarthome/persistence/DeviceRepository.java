@@ -6,9 +6,18 @@ import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.roomvo.RoomIDVO;
 
 import java.util.List;
+import java.util.Map;
 
 public interface DeviceRepository extends Repository<DeviceIDVO, Device>{
     Iterable<Device> findByRoomID(RoomIDVO roomID);
 
     boolean update(Device device);
+
+    /**
+     * Groups the devices by the types of the sensors and actuators they hold. Sensor types come first, then actuator
+     * types, each in the order they are first found; every device appears once per type. Database repositories find
+     * them ordered by type ID, then device name and device ID, so the result does not depend on the storage order.
+     * @return Map of sensor or actuator type ID to the devices holding that type. Null if the devices cannot be read.
+     */
+    Map<String, List<Device>> findGroupedByFunctionality();
 }
@@ -1,9 +1,17 @@
 package smarthome.persistence;
 
 import smarthome.domain.log.Log;
+import smarthome.domain.log.ReadingAggregate;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.LogIDVO;
 import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * This interface defines the operations that a LogRepository must support.
@@ -11,6 +19,47 @@ import smarthome.domain.vo.logvo.TimeStampVO;
  */
 public interface LogRepository extends Repository<LogIDVO, Log>{
 
+    /**
+     * Saves several logs at once. Implementations write the logs in batches rather than one transaction per log,
+     * and a log that cannot be saved (for instance because a log with the same ID already exists) does not prevent
+     * the others from being saved.
+     *
+     * @param logs the logs to be saved
+     * @return one result per log, in the same order: true if the log was saved, false otherwise
+     * @throws IllegalArgumentException if the list or any of its logs is null
+     */
+    List<Boolean> saveAll(List<Log> logs);
+
+    /**
+     * Deletes every log of the monthly partitions older than the given month. Logs are stored by month, so whole
+     * partitions are dropped at once instead of selecting the expired logs one by one.
+     *
+     * @param oldestRetained the oldest month whose logs are kept
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the month is null
+     */
+    long deletePartitionsBefore(YearMonth oldestRetained);
+
+    /**
+     * Deletes the logs with the given IDs. IDs of logs that are not stored are ignored.
+     *
+     * @param ids the IDs of the logs to delete
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     */
+    long deleteByIds(Collection<LogIDVO> ids);
+
+    /**
+     * Streams every log of the monthly partitions older than the given month, in ascending (time, log ID) order,
+     * handing each one to the given action as it is read. Used to move closed months out of the repository, so
+     * unlike the other queries a failure to read the logs is not hidden: it is thrown to the caller.
+     *
+     * @param month  the month before which logs are streamed
+     * @param action the action applied to each log
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    void streamReadingsBefore(YearMonth month, Consumer<Log> action);
+
     /**
      * Retrieves all logs associated with a specific device within a given time period.
      *
@@ -20,7 +69,86 @@ public interface LogRepository extends Repository<LogIDVO, Log>{
      * @return an Iterable of logs that match the given criteria
      */
     Iterable<Log> findReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to);
+
+    /**
+     * Streams the logs of a specific device within a given time period, in ascending time order, handing each one
+     * to the given action as it is read. Logs are not accumulated, so memory use does not grow with the result size.
+     * Null time stamps leave the corresponding side of the period open.
+     * <p>
+     * Unlike the other queries, a failure to read the logs is not turned into an empty result: the exception of the
+     * underlying store is thrown, even after some logs were handed to the action, so the caller can tell that the
+     * logs it received are incomplete.
+     * </p>
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param action   the action applied to each log
+     */
+    void streamReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, Consumer<Log> action);
+
+    /**
+     * Retrieves a page of the logs of a specific device within a given time period, ordered by time and log ID.
+     * The page starts right after the given cursor, or at the start of the time period if the cursor is null, so
+     * every page is read by seeking the (device, time, id) index rather than by skipping rows.
+     * Null time stamps leave the corresponding side of the period open.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param after    the cursor of the last log of the previous page, or null for the first page
+     * @param limit    the maximum number of logs in the page
+     * @return an Iterable of at most limit logs, in ascending (time, log ID) order
+     */
+    Iterable<Log> findReadingsPageByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, LogCursorVO after, int limit);
+
+    /**
+     * Retrieves the newest logs of a specific device.
+     *
+     * @param deviceID the ID of the device
+     * @param limit    the maximum number of logs to retrieve
+     * @return an Iterable of at most limit logs, newest first
+     */
+    Iterable<Log> findLatestReadingsByDeviceID(DeviceIDVO deviceID, int limit);
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period, ordered by time.
+     *
+     * @param deviceID   the ID of the device
+     * @param sensorType the ID of the sensor type
+     * @param start      the start of the time period
+     * @param end        the end of the time period
+     * @return an Iterable of logs that match the given criteria, in ascending time order
+     */
     Iterable<Log> getDeviceTemperatureLogs(DeviceIDVO deviceID, String sensorType, TimeStampVO start, TimeStampVO end);
     Iterable<Log> findByDeviceIDAndSensorTypeAndTimeBetween(String deviceID, String sensorType, TimeStampVO start, TimeStampVO end);
     Iterable<Log> findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(String excludeDeviceID, String sensorType, TimeStampVO start, TimeStampVO end);
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period whose numeric
+     * reading lies within a range, ordered by time. Non-numeric readings never match.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (inclusive)
+     * @param min          the smallest reading wanted (inclusive)
+     * @param max          the largest reading wanted (inclusive)
+     * @return an Iterable of logs that match the given criteria, in ascending time order
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    Iterable<Log> findByDeviceIDAndSensorTypeAndReadingBetween(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end, double min, double max);
+
+    /**
+     * Aggregates the numeric readings of a given sensor type for a specific device within a given time period: how
+     * many there are, their sum, minimum and maximum. Non-numeric readings are left out.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (exclusive)
+     * @return the aggregate of the readings over the period, with a count of zero if there are none
+     * @throws IllegalArgumentException if any of the parameters are null, or end is before start
+     */
+    ReadingAggregate aggregateReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end);
 }
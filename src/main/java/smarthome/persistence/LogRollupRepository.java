@@ -0,0 +1,93 @@
+package smarthome.persistence;
+
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This interface defines the operations that a repository of reading rollups must support.
+ * A rollup is the {@link ReadingAggregate} of the readings of one sensor type of a device within one bucket of a
+ * {@link RollupResolution}.
+ */
+public interface LogRollupRepository {
+
+    /**
+     * Replaces the rollups of a device and sensor type whose bucket starts within the given period, at every
+     * resolution, by the given ones. The replacement is atomic: readers see either the old or the new rollups.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param from         the start of the period (inclusive)
+     * @param to           the end of the period (exclusive)
+     * @param rollups      the new rollups of the period, by resolution; each aggregate covers exactly its bucket
+     */
+    void replaceRollups(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to,
+                        Map<RollupResolution, List<ReadingAggregate>> rollups);
+
+    /**
+     * Replaces individual rollup buckets of a device and sensor type, leaving the other buckets untouched. Each given
+     * aggregate replaces the bucket of its resolution starting at its start; an aggregate without readings removes
+     * that bucket. The replacement is atomic: readers see either the old or the new buckets.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param buckets      the new buckets, by resolution; each aggregate covers exactly its bucket
+     */
+    void replaceBuckets(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, Map<RollupResolution, List<ReadingAggregate>> buckets);
+
+    /**
+     * Records that the minute bucket of a device and sensor type holds readings its rollups do not include yet, so
+     * the mark survives a restart. Marking a minute already marked does nothing.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minute       the start of the minute bucket
+     */
+    void markDirty(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO minute);
+
+    /**
+     * Removes the marks of minute buckets of a device and sensor type whose rollups are up to date again.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minutes      the starts of the minute buckets
+     */
+    void clearDirty(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, Collection<TimeStampVO> minutes);
+
+    /**
+     * Retrieves every minute bucket marked as dirty.
+     *
+     * @return the marked minute buckets, in no particular order
+     */
+    List<DirtyMinute> findDirty();
+
+    /**
+     * Retrieves the rollups of a device and sensor type at one resolution whose bucket starts within the given period.
+     * Buckets without readings are not stored, so they are not returned.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param resolution   the resolution of the rollups
+     * @param from         the start of the period (inclusive)
+     * @param to           the end of the period (exclusive)
+     * @return the rollups, in ascending bucket order
+     */
+    List<ReadingAggregate> findRollups(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, RollupResolution resolution,
+                                       TimeStampVO from, TimeStampVO to);
+
+    /**
+     * A minute bucket of a device and sensor type whose rollups do not include all of its readings yet.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minute       the start of the minute bucket
+     */
+    record DirtyMinute(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO minute) {
+    }
+}
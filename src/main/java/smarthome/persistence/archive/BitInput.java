@@ -0,0 +1,47 @@
+package smarthome.persistence.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a stream of bits written by {@link BitOutput} from a region of a buffer. Only absolute reads are made on
+ * the buffer, so several inputs can read the same buffer at once.
+ */
+final class BitInput {
+
+    private final ByteBuffer buffer;
+    private long bitPosition;
+
+    /**
+     * Constructs an input starting at the given byte of the buffer.
+     *
+     * @param buffer the buffer holding the bits
+     * @param offset the index of the first byte of the stream
+     */
+    BitInput(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.bitPosition = (long) offset << 3;
+    }
+
+    /**
+     * @return the next bit
+     */
+    boolean readBit() {
+        return readBits(1) != 0;
+    }
+
+    /**
+     * Reads the next bits as an unsigned value, most significant first.
+     *
+     * @param count the number of bits to read, between 0 and 64
+     * @return the value of the bits
+     */
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            int current = buffer.get((int) (bitPosition >>> 3));
+            value = (value << 1) | ((current >>> (7 - (bitPosition & 7))) & 1);
+            bitPosition++;
+        }
+        return value;
+    }
+}
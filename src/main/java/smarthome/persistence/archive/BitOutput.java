@@ -0,0 +1,47 @@
+package smarthome.persistence.archive;
+
+import java.util.Arrays;
+
+/**
+ * A growable stream of bits, written most significant bit first.
+ */
+final class BitOutput {
+
+    private byte[] bytes = new byte[64];
+    private long bitLength;
+
+    /**
+     * Writes a single bit.
+     *
+     * @param bit the bit to write
+     */
+    void writeBit(boolean bit) {
+        writeBits(bit ? 1 : 0, 1);
+    }
+
+    /**
+     * Writes the lowest bits of a value, most significant first.
+     *
+     * @param value the value whose bits are written
+     * @param count the number of bits to write, between 0 and 64
+     */
+    void writeBits(long value, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            int byteIndex = (int) (bitLength >>> 3);
+            if (byteIndex == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            if (((value >>> i) & 1) != 0) {
+                bytes[byteIndex] |= (byte) (0x80 >>> (bitLength & 7));
+            }
+            bitLength++;
+        }
+    }
+
+    /**
+     * @return the bits written so far, padded with zeros to a whole number of bytes
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, (int) ((bitLength + 7) >>> 3));
+    }
+}
@@ -0,0 +1,41 @@
+package smarthome.persistence.archive;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.persistence.LogRepository;
+import smarthome.persistence.springdata.LogRepositorySpringData;
+import smarthome.persistence.writebehind.LogRepositoryWriteBehind;
+
+import java.nio.file.Path;
+
+/**
+ * Turns on the log archive when {@code log.archive.enabled=true}: the log repository, or the write-behind pipeline in
+ * front of it when enabled, becomes the live repository of a {@link LogRepositoryArchive}, which is then the
+ * LogRepository injected into the services. Closed months are sealed into segment files on a schedule.
+ */
+@Configuration
+@ConditionalOnProperty(name = "log.archive.enabled", havingValue = "true")
+public class LogArchiveConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public LogRepositoryArchive logRepositoryArchive(
+            LogRepositorySpringData logRepositorySpringData,
+            ObjectProvider<LogRepositoryWriteBehind> logRepositoryWriteBehind,
+            LogFactory logFactory,
+            SensorValueFactory sensorValueFactory,
+            @Value("${log.archive.directory:archive}") String directory,
+            @Value("${log.archive.seal-after-months:2}") int sealAfterMonths) {
+        LogRepository live = logRepositoryWriteBehind.getIfAvailable();
+        if (live == null) {
+            live = logRepositorySpringData;
+        }
+        return new LogRepositoryArchive(live, Path.of(directory), logFactory, sensorValueFactory, sealAfterMonths);
+    }
+}
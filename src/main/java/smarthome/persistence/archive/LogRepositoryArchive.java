@@ -0,0 +1,731 @@
+package smarthome.persistence.archive;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.persistence.LogRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * LogRepository that keeps the recent months of logs in a live repository and the older, closed months in compressed
+ * read-only segment files, one per month (see {@link LogSegment}).
+ * <p>
+ * Logs are always saved to the live repository. Once a month is closed, {@link #sealBefore(YearMonth)} moves its logs
+ * into a segment and deletes them from the live repository. Queries read the segments of the months in their
+ * period and the live repository, and combine both results in (time, log ID) order, so callers cannot tell where a
+ * log is stored. A log saved late into a sealed month stays in the live repository and is still found, and a month
+ * sealed again later is merged into its existing segment.
+ * </p>
+ * <p>
+ * Sealing only deletes from the live repository the logs it wrote into a segment, so a log saved into a month while
+ * that very month is being sealed stays live, and is sealed with the month the next time.
+ * </p>
+ */
+public class LogRepositoryArchive implements LogRepository, AutoCloseable {
+
+    private static final String ERROR_MESSAGE = "Invalid parameters.";
+    private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+    private static final String FILE_PREFIX = "logs-";
+    private static final String FILE_SUFFIX = ".seg";
+    private static final Comparator<Log> NEWEST_FIRST = LogSegment.ORDER.reversed();
+
+    private final LogRepository live;
+    private final Path directory;
+    private final LogFactory logFactory;
+    private final SensorValueFactory sensorValueFactory;
+    private final int sealAfterMonths;
+    private final ConcurrentSkipListMap<YearMonth, LogSegment> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * Constructor for LogRepositoryArchive. Opens the segments already in the directory, creating the directory if
+     * it does not exist.
+     *
+     * @param live               the repository holding the months that are not sealed
+     * @param directory          the directory of the segment files
+     * @param logFactory         the factory used to rebuild Log domain objects
+     * @param sensorValueFactory the factory used to rebuild reading values
+     * @param sealAfterMonths    the number of months after which a month is sealed by {@link #sealClosedMonths()}
+     * @throws IllegalArgumentException if any of the parameters are null or the number of months is not positive
+     * @throws UncheckedIOException     if the segments cannot be read
+     */
+    public LogRepositoryArchive(LogRepository live, Path directory, LogFactory logFactory,
+                                SensorValueFactory sensorValueFactory, int sealAfterMonths) {
+        if (live == null || directory == null || logFactory == null || sensorValueFactory == null || sealAfterMonths < 1) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        this.live = live;
+        this.directory = directory;
+        this.logFactory = logFactory;
+        this.sensorValueFactory = sensorValueFactory;
+        this.sealAfterMonths = sealAfterMonths;
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    LogSegment segment = LogSegment.open(file);
+                    segments.put(segment.getMonth(), segment);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Saves a log to the live repository.
+     *
+     * @param log the log to be saved
+     * @return true if the log was saved, false otherwise
+     */
+    @Override
+    public boolean save(Log log) {
+        return live.save(log);
+    }
+
+    /**
+     * Saves several logs to the live repository.
+     *
+     * @param logs the logs to be saved
+     * @return one result per log, in the same order: true if the log was saved, false otherwise
+     */
+    @Override
+    public List<Boolean> saveAll(List<Log> logs) {
+        return live.saveAll(logs);
+    }
+
+    /**
+     * Deletes the logs of the months older than the given month, from the live repository and from the segments.
+     *
+     * @param oldestRetained the oldest month whose logs are kept
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the month is null
+     * @throws UncheckedIOException     if a segment file cannot be deleted
+     */
+    @Override
+    public synchronized long deletePartitionsBefore(YearMonth oldestRetained) {
+        if (oldestRetained == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        long deleted = live.deletePartitionsBefore(oldestRetained);
+        NavigableMap<YearMonth, LogSegment> expired = segments.headMap(oldestRetained, false);
+        for (LogSegment segment : new ArrayList<>(expired.values())) {
+            segments.remove(segment.getMonth());
+            try {
+                Files.deleteIfExists(segment.getFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            deleted += segment.getLogCount();
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the logs with the given IDs, from the live repository and from the segments. A segment holding any of
+     * them is rewritten without them, or deleted if none of its logs is left.
+     *
+     * @param ids the IDs of the logs to delete
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     * @throws UncheckedIOException     if a segment cannot be rewritten
+     */
+    @Override
+    public synchronized long deleteByIds(Collection<LogIDVO> ids) {
+        if (ids == null || ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        long deleted = live.deleteByIds(ids);
+        Set<String> deletedIDs = new HashSet<>();
+        for (LogIDVO id : ids) {
+            deletedIDs.add(id.getID());
+        }
+        for (LogSegment segment : new ArrayList<>(segments.values())) {
+            List<Log> kept = new ArrayList<>();
+            for (Log log : segment.readAll(logFactory, sensorValueFactory)) {
+                if (!deletedIDs.contains(log.getId().getID())) {
+                    kept.add(log);
+                }
+            }
+            if (kept.size() == segment.getLogCount()) {
+                continue;
+            }
+            deleted += segment.getLogCount() - kept.size();
+            try {
+                if (kept.isEmpty()) {
+                    segments.remove(segment.getMonth());
+                    Files.deleteIfExists(segment.getFile());
+                } else {
+                    LogSegment.write(segment.getFile(), segment.getMonth(), kept);
+                    segments.put(segment.getMonth(), LogSegment.open(segment.getFile()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Streams the logs of the months older than the given month, sealed or not.
+     *
+     * @param month  the month before which logs are streamed
+     * @param action the action applied to each log
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public void streamReadingsBefore(YearMonth month, Consumer<Log> action) {
+        if (month == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        SegmentInterleaver interleaver = new SegmentInterleaver(segments.headMap(month, false).values().iterator(), action);
+        live.streamReadingsBefore(month, interleaver);
+        interleaver.finish();
+    }
+
+    /**
+     * Moves the logs of the months older than the given month from the live repository into segments, one month at a
+     * time, then deletes from the live repository the logs written into the segments, by ID. Logs saved into those
+     * months meanwhile are not deleted. If some logs cannot be deleted, they are found in both places until the month
+     * is sealed again, which merges them into the segment once more without duplicating them.
+     *
+     * @param oldestLive the oldest month kept in the live repository
+     * @return the number of logs moved
+     * @throws IllegalArgumentException if the month is null
+     * @throws UncheckedIOException     if a segment cannot be written, in which case no log is deleted
+     */
+    public synchronized long sealBefore(YearMonth oldestLive) {
+        if (oldestLive == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        MonthSealer sealer = new MonthSealer();
+        live.streamReadingsBefore(oldestLive, sealer);
+        sealer.finish();
+        if (!sealer.sealedIDs.isEmpty()) {
+            live.deleteByIds(sealer.sealedIDs);
+        }
+        return sealer.sealedIDs.size();
+    }
+
+    /**
+     * Seals the months closed for at least the configured number of months. Runs periodically.
+     *
+     * @return the number of logs moved
+     */
+    @Scheduled(cron = "${log.archive.cron:0 0 3 * * *}")
+    public long sealClosedMonths() {
+        return sealBefore(YearMonth.now().minusMonths(sealAfterMonths));
+    }
+
+    /**
+     * Retrieves all logs, sealed or not.
+     *
+     * @return an Iterable of all logs
+     */
+    @Override
+    public Iterable<Log> findAll() {
+        List<Log> logs = new ArrayList<>();
+        live.findAll().forEach(logs::add);
+        for (LogSegment segment : segments.values()) {
+            logs.addAll(segment.readAll(logFactory, sensorValueFactory));
+        }
+        return deduplicate(logs, LogSegment.ORDER, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves a log by its ID, from the live repository first, then from the segments.
+     *
+     * @param id the ID of the log
+     * @return the log, or null if no log with the given ID was saved
+     * @throws IllegalArgumentException if the id is null
+     */
+    @Override
+    public Log findById(LogIDVO id) {
+        if (id == null) {
+            throw new IllegalArgumentException("LogIDVO cannot be null");
+        }
+        Log log = live.findById(id);
+        if (log != null) {
+            return log;
+        }
+        UUID uuid = UUID.fromString(id.getID());
+        for (LogSegment segment : segments.descendingMap().values()) {
+            log = segment.findById(uuid, logFactory, sensorValueFactory);
+            if (log != null) {
+                return log;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a log with the given ID was saved.
+     *
+     * @param id the ID of the log
+     * @return true if the log is present, false otherwise
+     * @throws IllegalArgumentException if the id is null
+     */
+    @Override
+    public boolean isPresent(LogIDVO id) {
+        return findById(id) != null;
+    }
+
+    /**
+     * Retrieves all logs of a specific device within a given time period, ordered by time.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if the deviceID is null
+     */
+    @Override
+    public Iterable<Log> findReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to) {
+        List<Log> logs = new ArrayList<>();
+        streamReadingsByDeviceID(deviceID, from, to, logs::add);
+        return logs;
+    }
+
+    /**
+     * Streams the logs of a specific device within a given time period, ordered by time. The live repository is
+     * streamed between the sealed months, and each sealed month is read from its segment.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param action   the action applied to each log
+     * @throws IllegalArgumentException if the deviceID or the action are null
+     */
+    @Override
+    public void streamReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, Consumer<Log> action) {
+        if (deviceID == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        String device = deviceID.getID();
+        streamCombined(from, to, (seriesDevice, seriesType) -> seriesDevice.equals(device),
+                (start, end, consumer) -> live.streamReadingsByDeviceID(deviceID, start, end, consumer), action);
+    }
+
+    /**
+     * Retrieves a page of the logs of a specific device within a given time period, ordered by time and log ID.
+     * Both the live repository and the segments provide their first logs after the cursor, and the page keeps the
+     * first of them.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param after    the cursor of the last log of the previous page, or null for the first page
+     * @param limit    the maximum number of logs in the page
+     * @return an Iterable of at most limit logs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findReadingsPageByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, LogCursorVO after, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Log> logs = new ArrayList<>();
+        live.findReadingsPageByDeviceID(deviceID, from, to, after, limit).forEach(logs::add);
+
+        TimeStampVO seekFrom = from;
+        if (after != null && (from == null || after.getTime().getValue().isAfter(from.getValue()))) {
+            seekFrom = after.getTime();
+        }
+        String device = deviceID.getID();
+        int archived = 0;
+        for (LogSegment segment : segmentsWithin(seekFrom, to)) {
+            if (archived >= limit) {
+                break;
+            }
+            for (Log log : segment.read((seriesDevice, seriesType) -> seriesDevice.equals(device),
+                    toEpochSecond(seekFrom, Long.MIN_VALUE), toEpochSecond(to, Long.MAX_VALUE), false, logFactory, sensorValueFactory)) {
+                if (after == null || isAfter(log, after)) {
+                    logs.add(log);
+                    archived++;
+                }
+            }
+        }
+        return deduplicate(logs, LogSegment.ORDER, limit);
+    }
+
+    /**
+     * Retrieves the newest logs of a specific device, newest first. Segments are read from the newest one, until the
+     * older segments are no longer needed to fill the list.
+     *
+     * @param deviceID the ID of the device
+     * @param limit    the maximum number of logs to retrieve
+     * @return an Iterable of at most limit logs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findLatestReadingsByDeviceID(DeviceIDVO deviceID, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Log> logs = new ArrayList<>();
+        live.findLatestReadingsByDeviceID(deviceID, limit).forEach(logs::add);
+        String device = deviceID.getID();
+        int archived = 0;
+        for (LogSegment segment : segments.descendingMap().values()) {
+            if (archived >= limit) {
+                break;
+            }
+            List<Log> monthLogs = segment.read((seriesDevice, seriesType) -> seriesDevice.equals(device),
+                    Long.MIN_VALUE, Long.MAX_VALUE, false, logFactory, sensorValueFactory);
+            logs.addAll(monthLogs);
+            archived += monthLogs.size();
+        }
+        return deduplicate(logs, NEWEST_FIRST, limit);
+    }
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period, ordered by time.
+     *
+     * @param deviceID   the ID of the device
+     * @param sensorType the ID of the sensor type
+     * @param start      the start of the time period
+     * @param end        the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> getDeviceTemperatureLogs(DeviceIDVO deviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorType == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        return findByDeviceIDAndSensorTypeAndTimeBetween(deviceID.getID(), sensorType, start, end);
+    }
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period, ordered by time.
+     * Only the series of the device and sensor type is decoded from the segments.
+     *
+     * @param deviceID   the ID of the device
+     * @param sensorType the ID of the sensor type
+     * @param start      the start of the time period
+     * @param end        the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndTimeBetween(String deviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorType == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Log> logs = new ArrayList<>();
+        live.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID, sensorType, start, end).forEach(logs::add);
+        readSegments(start, end, (seriesDevice, seriesType) -> seriesDevice.equals(deviceID) && seriesType.equals(sensorType),
+                false, logs::add);
+        return deduplicate(logs, LogSegment.ORDER, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves the logs with negative readings of a given sensor type within a given time period, excluding the logs
+     * of a specific device, ordered by time.
+     *
+     * @param excludeDeviceID the ID of the device to exclude
+     * @param sensorType      the ID of the sensor type
+     * @param start           the start of the time period
+     * @param end             the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(String excludeDeviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        if (excludeDeviceID == null || sensorType == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Log> logs = new ArrayList<>();
+        live.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(excludeDeviceID, sensorType, start, end).forEach(logs::add);
+        readSegments(start, end, (seriesDevice, seriesType) -> !seriesDevice.equals(excludeDeviceID) && seriesType.equals(sensorType),
+                true, logs::add);
+        return deduplicate(logs, LogSegment.ORDER, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period whose numeric
+     * reading lies within a range, ordered by time. The live repository filters its own logs; the segments of the
+     * period are decoded and filtered here.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (inclusive)
+     * @param min          the smallest reading wanted (inclusive)
+     * @param max          the largest reading wanted (inclusive)
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndReadingBetween(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end, double min, double max) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Log> logs = new ArrayList<>();
+        live.findByDeviceIDAndSensorTypeAndReadingBetween(deviceID, sensorTypeID, start, end, min, max).forEach(logs::add);
+        String device = deviceID.getID();
+        String sensorType = sensorTypeID.getID();
+        readSegments(start, end, (seriesDevice, seriesType) -> seriesDevice.equals(device) && seriesType.equals(sensorType),
+                false, log -> {
+                    if (log.getReading().getValue() instanceof Number number
+                            && number.doubleValue() >= min && number.doubleValue() <= max) {
+                        logs.add(log);
+                    }
+                });
+        return deduplicate(logs, LogSegment.ORDER, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Aggregates the numeric readings of a given sensor type for a specific device within a given time period. When
+     * no sealed month overlaps the period, the live repository computes the aggregate on its own; otherwise the
+     * readings of the period are gathered from both, so that a log held by both while its month is sealed is only
+     * counted once.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (exclusive)
+     * @return the aggregate of the readings over the period
+     * @throws IllegalArgumentException if any of the parameters are null, or end is before start
+     */
+    @Override
+    public ReadingAggregate aggregateReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null || end.getValue().isBefore(start.getValue())) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        if (segmentsWithin(start, end).isEmpty()) {
+            return live.aggregateReadings(deviceID, sensorTypeID, start, end);
+        }
+        ReadingAggregate aggregate = ReadingAggregate.empty(start, end);
+        for (Log log : findByDeviceIDAndSensorTypeAndTimeBetween(deviceID.getID(), sensorTypeID.getID(), start, end)) {
+            if (log.getTime().getValue().isBefore(end.getValue())
+                    && log.getReading().getValue() instanceof Number number) {
+                aggregate = aggregate.merge(ReadingAggregate.of(log.getTime(), number.doubleValue()));
+            }
+        }
+        return aggregate.withPeriod(start, end);
+    }
+
+    /**
+     * Releases the segments. The live repository is left open: it is closed by whoever created it.
+     */
+    @Override
+    public void close() {
+        segments.clear();
+    }
+
+    /**
+     * Streams the logs of a time period in (time, log ID) order: the live repository is streamed over the periods
+     * between sealed months, and a sealed month is read from its segment merged with the logs the live repository
+     * still holds for that month.
+     */
+    private void streamCombined(TimeStampVO from, TimeStampVO to, BiPredicate<String, String> seriesFilter,
+                                LiveStream liveStream, Consumer<Log> action) {
+        LocalDateTime cursor = from != null ? from.getValue() : null;
+        for (LogSegment segment : segmentsWithin(from, to)) {
+            LocalDateTime monthStart = segment.getMonth().atDay(1).atStartOfDay();
+            LocalDateTime monthEnd = segment.getMonth().plusMonths(1).atDay(1).atStartOfDay().minusSeconds(1);
+            if (cursor == null || cursor.isBefore(monthStart)) {
+                liveStream.stream(cursor != null ? new TimeStampVO(cursor) : null, new TimeStampVO(monthStart.minusSeconds(1)), action);
+            }
+            TimeStampVO monthFrom = new TimeStampVO(cursor != null && cursor.isAfter(monthStart) ? cursor : monthStart);
+            TimeStampVO monthTo = new TimeStampVO(to != null && to.getValue().isBefore(monthEnd) ? to.getValue() : monthEnd);
+            List<Log> logs = segment.read(seriesFilter, toEpochSecond(monthFrom, Long.MIN_VALUE),
+                    toEpochSecond(monthTo, Long.MAX_VALUE), false, logFactory, sensorValueFactory);
+            liveStream.stream(monthFrom, monthTo, logs::add);
+            deduplicate(logs, LogSegment.ORDER, Integer.MAX_VALUE).forEach(action);
+            cursor = monthEnd.plusSeconds(1);
+        }
+        if (cursor == null || to == null || !cursor.isAfter(to.getValue())) {
+            liveStream.stream(cursor != null ? new TimeStampVO(cursor) : null, to, action);
+        }
+    }
+
+    /**
+     * Reads the logs of the series accepted by a filter within a time period from the segments of the period.
+     */
+    private void readSegments(TimeStampVO start, TimeStampVO end, BiPredicate<String, String> seriesFilter,
+                              boolean negativeOnly, Consumer<Log> action) {
+        for (LogSegment segment : segmentsWithin(start, end)) {
+            segment.read(seriesFilter, toEpochSecond(start, Long.MIN_VALUE), toEpochSecond(end, Long.MAX_VALUE),
+                    negativeOnly, logFactory, sensorValueFactory).forEach(action);
+        }
+    }
+
+    /**
+     * Selects the segments of the months overlapping a time period, in ascending month order.
+     * Null time stamps leave the corresponding side of the period open.
+     */
+    private Collection<LogSegment> segmentsWithin(TimeStampVO from, TimeStampVO to) {
+        if (from != null && to != null && from.getValue().isAfter(to.getValue())) {
+            return List.of();
+        }
+        NavigableMap<YearMonth, LogSegment> selected = segments;
+        if (from != null) {
+            selected = selected.tailMap(YearMonth.from(from.getValue()), true);
+        }
+        if (to != null) {
+            selected = selected.headMap(YearMonth.from(to.getValue()), true);
+        }
+        return selected.values();
+    }
+
+    /**
+     * Sorts logs and drops the second copy of a log found both in a segment and in the live repository, which
+     * happens while a month is being sealed.
+     */
+    private static List<Log> deduplicate(List<Log> logs, Comparator<Log> order, int limit) {
+        logs.sort(order);
+        List<Log> result = new ArrayList<>(Math.min(logs.size(), limit));
+        Log previous = null;
+        for (Log log : logs) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (previous == null || !previous.getId().equals(log.getId())) {
+                result.add(log);
+            }
+            previous = log;
+        }
+        return result;
+    }
+
+    private static boolean isAfter(Log log, LogCursorVO after) {
+        int byTime = log.getTime().getValue().compareTo(after.getTime().getValue());
+        return byTime > 0 || (byTime == 0 && log.getId().getID().compareTo(after.getLogID().getID()) > 0);
+    }
+
+    private static long toEpochSecond(TimeStampVO time, long whenNull) {
+        return time != null ? time.getValue().toEpochSecond(ZoneOffset.UTC) : whenNull;
+    }
+
+    private Path segmentFile(YearMonth month) {
+        return directory.resolve(FILE_PREFIX + month.format(FILE_MONTH) + FILE_SUFFIX);
+    }
+
+    /**
+     * A query of the live repository over a time period.
+     */
+    @FunctionalInterface
+    private interface LiveStream {
+        void stream(TimeStampVO from, TimeStampVO to, Consumer<Log> action);
+    }
+
+    /**
+     * Hands out the logs streamed from the live repository with the logs of the sealed months in between, each
+     * sealed month merged with the logs the live repository still holds for it.
+     */
+    private final class SegmentInterleaver implements Consumer<Log> {
+        private final Iterator<LogSegment> sealed;
+        private final Consumer<Log> action;
+        private final List<Log> late = new ArrayList<>();
+        private LogSegment next;
+
+        private SegmentInterleaver(Iterator<LogSegment> sealed, Consumer<Log> action) {
+            this.sealed = sealed;
+            this.action = action;
+            this.next = sealed.hasNext() ? sealed.next() : null;
+        }
+
+        @Override
+        public void accept(Log log) {
+            YearMonth logMonth = YearMonth.from(log.getTime().getValue());
+            while (next != null && next.getMonth().isBefore(logMonth)) {
+                emitNext();
+            }
+            if (next != null && next.getMonth().equals(logMonth)) {
+                late.add(log);
+            } else {
+                action.accept(log);
+            }
+        }
+
+        private void finish() {
+            while (next != null) {
+                emitNext();
+            }
+        }
+
+        private void emitNext() {
+            late.addAll(next.readAll(logFactory, sensorValueFactory));
+            deduplicate(late, LogSegment.ORDER, Integer.MAX_VALUE).forEach(action);
+            late.clear();
+            next = sealed.hasNext() ? sealed.next() : null;
+        }
+    }
+
+    /**
+     * Collects the streamed logs of one month at a time and writes each month into its segment, merged with the
+     * segment already written for that month, if any.
+     */
+    private final class MonthSealer implements Consumer<Log> {
+        private final Map<String, Log> pending = new LinkedHashMap<>();
+        // The IDs of the live logs written into a segment, the only ones deleted from the live repository
+        private final List<LogIDVO> sealedIDs = new ArrayList<>();
+        private final List<LogIDVO> monthIDs = new ArrayList<>();
+        private YearMonth month;
+
+        @Override
+        public void accept(Log log) {
+            YearMonth logMonth = YearMonth.from(log.getTime().getValue());
+            if (!logMonth.equals(month)) {
+                finish();
+                month = logMonth;
+            }
+            pending.put(log.getId().getID(), log);
+            monthIDs.add((LogIDVO) log.getId());
+        }
+
+        private void finish() {
+            if (month == null || pending.isEmpty()) {
+                return;
+            }
+            LogSegment existing = segments.get(month);
+            if (existing != null) {
+                for (Log log : existing.readAll(logFactory, sensorValueFactory)) {
+                    pending.putIfAbsent(log.getId().getID(), log);
+                }
+            }
+            Path file = segmentFile(month);
+            try {
+                LogSegment.write(file, month, pending.values());
+                segments.put(month, LogSegment.open(file));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            pending.clear();
+            sealedIDs.addAll(monthIDs);
+            monthIDs.clear();
+        }
+    }
+}
@@ -0,0 +1,592 @@
+package smarthome.persistence.archive;
+
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * A sealed month of logs, stored in a compressed, read-only file and read through a memory mapping.
+ * <p>
+ * The file starts with a header holding dictionaries of the device, sensor type, sensor and text reading IDs of the
+ * month, followed by a directory of its series (one per device and sensor type) with their time span. Each series
+ * block holds the log IDs as raw UUID bits, then one bit stream encoding, for each reading in (time, log ID) order:
+ * </p>
+ * <ul>
+ *     <li>its time as the delta of the delta to the previous one, which takes a single bit for evenly spaced
+ *     readings,</li>
+ *     <li>its sensor as a dictionary code, or a single bit when it is the same sensor as the previous reading,</li>
+ *     <li>its value: numbers are XORed with the previous number and only the meaningful bits of the XOR are kept,
+ *     which takes a single bit for a repeated value and a few bits for a slowly changing one; texts are dictionary
+ *     codes.</li>
+ * </ul>
+ * <p>
+ * Queries skip the series of other devices or sensor types and the series outside their time span without reading
+ * them, and decoding stops at the end of the requested period.
+ * </p>
+ */
+final class LogSegment {
+
+    /**
+     * The order of the logs of a segment and of its query results: by time, then by log ID.
+     */
+    static final Comparator<Log> ORDER = Comparator.comparing((Log log) -> log.getTime().getValue())
+            .thenComparing(log -> log.getId().getID());
+
+    private static final int MAGIC = 0x534C4753;
+    private static final short VERSION = 1;
+    private static final int SERIES_ENTRY_SIZE = 32;
+    private static final int ID_SIZE = 16;
+
+    private static final int INTEGER = 0;
+    private static final int DECIMAL = 1;
+    private static final int TEXT = 2;
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final YearMonth month;
+    private final long logCount;
+    private final String[] devices;
+    private final String[] sensorTypes;
+    private final String[] sensors;
+    private final String[] texts;
+    private final Series[] series;
+
+    private LogSegment(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        ByteBuffer header = buffer.duplicate();
+        if (header.remaining() < 18 || header.getInt() != MAGIC || header.getShort() != VERSION) {
+            throw new IOException("Not a log segment: " + file);
+        }
+        int partition = header.getInt();
+        this.month = YearMonth.of(partition / 100, partition % 100);
+        this.logCount = header.getLong();
+        this.devices = readStrings(header);
+        this.sensorTypes = readStrings(header);
+        this.sensors = readStrings(header);
+        this.texts = readStrings(header);
+        this.series = new Series[header.getInt()];
+        for (int i = 0; i < series.length; i++) {
+            series[i] = new Series(header.getInt(), header.getInt(), header.getInt(), header.getLong(), header.getLong(),
+                    header.getInt());
+        }
+    }
+
+    /**
+     * Opens a segment file and maps it into memory.
+     *
+     * @param file the segment file
+     * @return the segment
+     * @throws IOException if the file cannot be read or is not a segment
+     */
+    static LogSegment open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid once the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new LogSegment(file, buffer);
+        }
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    YearMonth getMonth() {
+        return month;
+    }
+
+    long getLogCount() {
+        return logCount;
+    }
+
+    /**
+     * Reads the logs of the series accepted by a filter within a time period.
+     *
+     * @param seriesFilter the filter of the series, given their device ID and sensor type ID
+     * @param fromTime     the start of the period, in epoch seconds (inclusive)
+     * @param toTime       the end of the period, in epoch seconds (inclusive)
+     * @param negativeOnly whether only negative numeric readings are read
+     * @param logFactory   the factory used to rebuild the logs
+     * @param valueFactory the factory used to rebuild the reading values
+     * @return the logs, in (time, log ID) order
+     */
+    List<Log> read(BiPredicate<String, String> seriesFilter, long fromTime, long toTime, boolean negativeOnly,
+                   LogFactory logFactory, SensorValueFactory valueFactory) {
+        List<Log> logs = new ArrayList<>();
+        int seriesRead = 0;
+        for (Series entry : series) {
+            if (entry.lastTime < fromTime || entry.firstTime > toTime
+                    || !seriesFilter.test(devices[entry.device], sensorTypes[entry.sensorType])) {
+                continue;
+            }
+            seriesRead++;
+            new SeriesReader(entry, logFactory, valueFactory).read(fromTime, toTime, negativeOnly, Integer.MAX_VALUE, logs::add);
+        }
+        if (seriesRead > 1) {
+            logs.sort(ORDER);
+        }
+        return logs;
+    }
+
+    /**
+     * Reads every log of the segment.
+     *
+     * @param logFactory   the factory used to rebuild the logs
+     * @param valueFactory the factory used to rebuild the reading values
+     * @return the logs, in (time, log ID) order
+     */
+    List<Log> readAll(LogFactory logFactory, SensorValueFactory valueFactory) {
+        return read((deviceID, sensorTypeID) -> true, Long.MIN_VALUE, Long.MAX_VALUE, false, logFactory, valueFactory);
+    }
+
+    /**
+     * Finds a log by its ID. Only the ID columns are scanned; the stream of the series is decoded up to the log.
+     *
+     * @param id           the ID of the log
+     * @param logFactory   the factory used to rebuild the log
+     * @param valueFactory the factory used to rebuild the reading value
+     * @return the log, or null if it is not in the segment
+     */
+    Log findById(UUID id, LogFactory logFactory, SensorValueFactory valueFactory) {
+        for (Series entry : series) {
+            for (int i = 0; i < entry.count; i++) {
+                int position = entry.offset + i * ID_SIZE;
+                if (buffer.getLong(position) == id.getMostSignificantBits()
+                        && buffer.getLong(position + 8) == id.getLeastSignificantBits()) {
+                    List<Log> found = new ArrayList<>(1);
+                    new SeriesReader(entry, logFactory, valueFactory).readAt(i, found::add);
+                    return found.get(0);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes a month of logs to a segment file. The file is written next to its final name and moved in place once
+     * complete, so a segment file is never seen half written.
+     *
+     * @param file  the segment file
+     * @param month the month of the logs
+     * @param logs  the logs, all within the month and with distinct IDs
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path file, YearMonth month, Collection<Log> logs) throws IOException {
+        Dictionary devices = new Dictionary();
+        Dictionary sensorTypes = new Dictionary();
+        Dictionary sensors = new Dictionary();
+        Dictionary texts = new Dictionary();
+        Map<String, List<Log>> bySeries = new TreeMap<>();
+        for (Log log : logs) {
+            String deviceID = log.getDeviceID().getID();
+            String sensorTypeID = log.getSensorTypeID().getID();
+            devices.code(deviceID);
+            sensorTypes.code(sensorTypeID);
+            sensors.code(log.getSensorID().getID());
+            Object value = log.getReading().getValue();
+            if (kindOf(value) == TEXT) {
+                texts.code(value.toString());
+            }
+            bySeries.computeIfAbsent(deviceID + "|" + sensorTypeID, key -> new ArrayList<>()).add(log);
+        }
+
+        int sensorBits = bitsFor(sensors.size());
+        int textBits = bitsFor(texts.size());
+        List<byte[]> blocks = new ArrayList<>();
+        List<long[]> entries = new ArrayList<>();
+        for (List<Log> seriesLogs : bySeries.values()) {
+            seriesLogs.sort(ORDER);
+            Log first = seriesLogs.get(0);
+            blocks.add(encode(seriesLogs, sensors, texts, sensorBits, textBits));
+            entries.add(new long[]{devices.code(first.getDeviceID().getID()), sensorTypes.code(first.getSensorTypeID().getID()),
+                    seriesLogs.size(), toEpochSecond(first.getTime()), toEpochSecond(seriesLogs.get(seriesLogs.size() - 1).getTime())});
+        }
+
+        long offset = 4 + 2 + 4 + 8 + devices.byteSize() + sensorTypes.byteSize() + sensors.byteSize() + texts.byteSize()
+                + 4 + (long) SERIES_ENTRY_SIZE * entries.size();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(month.getYear() * 100 + month.getMonthValue());
+            out.writeLong(logs.size());
+            devices.writeTo(out);
+            sensorTypes.writeTo(out);
+            sensors.writeTo(out);
+            texts.writeTo(out);
+            out.writeInt(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                long[] entry = entries.get(i);
+                if (offset > Integer.MAX_VALUE) {
+                    throw new IOException("Log segment too large: " + file);
+                }
+                out.writeInt((int) entry[0]);
+                out.writeInt((int) entry[1]);
+                out.writeInt((int) entry[2]);
+                out.writeLong(entry[3]);
+                out.writeLong(entry[4]);
+                out.writeInt((int) offset);
+                offset += blocks.get(i).length;
+            }
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Encodes the logs of a series: their IDs, then the bit stream of their times, sensors and values.
+     */
+    private static byte[] encode(List<Log> logs, Dictionary sensors, Dictionary texts, int sensorBits, int textBits) {
+        ByteBuffer ids = ByteBuffer.allocate(logs.size() * ID_SIZE);
+        BitOutput bits = new BitOutput();
+        XorState xor = new XorState();
+        long previousTime = 0;
+        long previousDelta = 0;
+        int previousSensor = -1;
+        int previousKind = -1;
+        for (Log log : logs) {
+            UUID id = UUID.fromString(log.getId().getID());
+            ids.putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+
+            long time = toEpochSecond(log.getTime());
+            if (previousSensor < 0) {
+                bits.writeBits(time, 64);
+            } else {
+                long delta = time - previousTime;
+                writeDeltaOfDelta(bits, delta - previousDelta);
+                previousDelta = delta;
+            }
+            previousTime = time;
+
+            int sensor = sensors.code(log.getSensorID().getID());
+            if (previousSensor < 0) {
+                bits.writeBits(sensor, sensorBits);
+            } else if (sensor == previousSensor) {
+                bits.writeBit(false);
+            } else {
+                bits.writeBit(true);
+                bits.writeBits(sensor, sensorBits);
+            }
+            previousSensor = sensor;
+
+            Object value = log.getReading().getValue();
+            int kind = kindOf(value);
+            if (previousKind < 0) {
+                bits.writeBits(kind, 2);
+            } else if (kind == previousKind) {
+                bits.writeBit(false);
+            } else {
+                bits.writeBit(true);
+                bits.writeBits(kind, 2);
+            }
+            previousKind = kind;
+
+            if (kind == TEXT) {
+                bits.writeBits(texts.code(value.toString()), textBits);
+            } else if (kind == INTEGER) {
+                xor.write(bits, ((Number) value).longValue());
+            } else {
+                xor.write(bits, Double.doubleToLongBits(((Number) value).doubleValue()));
+            }
+        }
+        byte[] stream = bits.toByteArray();
+        byte[] block = new byte[ids.capacity() + stream.length];
+        System.arraycopy(ids.array(), 0, block, 0, ids.capacity());
+        System.arraycopy(stream, 0, block, ids.capacity(), stream.length);
+        return block;
+    }
+
+    /**
+     * Writes the difference between two consecutive time deltas with a variable length prefix code: a single zero
+     * bit for a regular interval, and up to 68 bits for an arbitrary jump.
+     */
+    private static void writeDeltaOfDelta(BitOutput bits, long deltaOfDelta) {
+        if (deltaOfDelta == 0) {
+            bits.writeBit(false);
+        } else if (deltaOfDelta >= -63 && deltaOfDelta <= 64) {
+            bits.writeBits(0b10, 2);
+            bits.writeBits(deltaOfDelta + 63, 7);
+        } else if (deltaOfDelta >= -255 && deltaOfDelta <= 256) {
+            bits.writeBits(0b110, 3);
+            bits.writeBits(deltaOfDelta + 255, 9);
+        } else if (deltaOfDelta >= -2047 && deltaOfDelta <= 2048) {
+            bits.writeBits(0b1110, 4);
+            bits.writeBits(deltaOfDelta + 2047, 12);
+        } else {
+            bits.writeBits(0b1111, 4);
+            bits.writeBits(deltaOfDelta, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitInput bits) {
+        if (!bits.readBit()) {
+            return 0;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(7) - 63;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(9) - 255;
+        }
+        if (!bits.readBit()) {
+            return bits.readBits(12) - 2047;
+        }
+        return bits.readBits(64);
+    }
+
+    private static int kindOf(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return INTEGER;
+        }
+        if (value instanceof Number) {
+            return DECIMAL;
+        }
+        return TEXT;
+    }
+
+    private static int bitsFor(int size) {
+        return size <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(size - 1);
+    }
+
+    private static long toEpochSecond(TimeStampVO time) {
+        return time.getValue().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static String[] readStrings(ByteBuffer header) {
+        String[] strings = new String[header.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[header.getInt()];
+            header.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return strings;
+    }
+
+    /**
+     * Entry of the series directory: the device and sensor type codes, the number of readings, the time of the
+     * first and last readings and the position of the series block in the file.
+     */
+    private record Series(int device, int sensorType, int count, long firstTime, long lastTime, int offset) {
+    }
+
+    /**
+     * Decodes the readings of one series, rebuilding each ID object only once per series.
+     */
+    private final class SeriesReader {
+        private final Series entry;
+        private final LogFactory logFactory;
+        private final SensorValueFactory valueFactory;
+        private final DeviceIDVO deviceID;
+        private final SensorTypeIDVO sensorTypeID;
+        private final SensorIDVO[] sensorIDs = new SensorIDVO[sensors.length];
+        private final int sensorBits = bitsFor(sensors.length);
+        private final int textBits = bitsFor(texts.length);
+
+        private SeriesReader(Series entry, LogFactory logFactory, SensorValueFactory valueFactory) {
+            this.entry = entry;
+            this.logFactory = logFactory;
+            this.valueFactory = valueFactory;
+            this.deviceID = DeviceIDVO.valueOf(devices[entry.device]);
+            this.sensorTypeID = SensorTypeIDVO.valueOf(sensorTypes[entry.sensorType]);
+        }
+
+        /**
+         * Decodes the readings within a time period, stopping after the period or after limit readings.
+         */
+        private void read(long fromTime, long toTime, boolean negativeOnly, int limit, Consumer<Log> action) {
+            decode(fromTime, toTime, negativeOnly, -1, limit, action);
+        }
+
+        /**
+         * Decodes the reading at the given index.
+         */
+        private void readAt(int index, Consumer<Log> action) {
+            decode(Long.MIN_VALUE, Long.MAX_VALUE, false, index, 1, action);
+        }
+
+        private void decode(long fromTime, long toTime, boolean negativeOnly, int onlyIndex, int limit, Consumer<Log> action) {
+            BitInput bits = new BitInput(buffer, entry.offset + entry.count * ID_SIZE);
+            XorState xor = new XorState();
+            long time = 0;
+            long delta = 0;
+            int sensor = 0;
+            int kind = 0;
+            int taken = 0;
+            for (int i = 0; i < entry.count && taken < limit; i++) {
+                if (i == 0) {
+                    time = bits.readBits(64);
+                    sensor = (int) bits.readBits(sensorBits);
+                    kind = (int) bits.readBits(2);
+                } else {
+                    delta += readDeltaOfDelta(bits);
+                    time += delta;
+                    if (bits.readBit()) {
+                        sensor = (int) bits.readBits(sensorBits);
+                    }
+                    if (bits.readBit()) {
+                        kind = (int) bits.readBits(2);
+                    }
+                }
+                if (time > toTime) {
+                    return;
+                }
+                long value = kind == TEXT ? bits.readBits(textBits) : xor.read(bits);
+                boolean wanted = onlyIndex < 0 ? time >= fromTime : i == onlyIndex;
+                if (wanted && (!negativeOnly || isNegative(kind, value))) {
+                    action.accept(toLog(i, time, sensor, kind, value));
+                    taken++;
+                }
+            }
+        }
+
+        private Log toLog(int index, long time, int sensor, int kind, long value) {
+            int position = entry.offset + index * ID_SIZE;
+            LogIDVO logID = new LogIDVO(new UUID(buffer.getLong(position), buffer.getLong(position + 8)));
+            if (sensorIDs[sensor] == null) {
+                sensorIDs[sensor] = SensorIDVO.valueOf(sensors[sensor]);
+            }
+            String reading;
+            if (kind == INTEGER) {
+                reading = Long.toString(value);
+            } else if (kind == DECIMAL) {
+                reading = Double.toString(Double.longBitsToDouble(value));
+            } else {
+                reading = texts[(int) value];
+            }
+            SensorValueObject<?> sensorValue = valueFactory.createSensorValue(reading, sensorTypeID);
+            return logFactory.createLog(logID, new TimeStampVO(LocalDateTime.ofEpochSecond(time, 0, ZoneOffset.UTC)),
+                    sensorValue, sensorIDs[sensor], deviceID, sensorTypeID);
+        }
+
+        private boolean isNegative(int kind, long value) {
+            if (kind == INTEGER) {
+                return value < 0;
+            }
+            return kind == DECIMAL && Double.longBitsToDouble(value) < 0;
+        }
+    }
+
+    /**
+     * State of the XOR compression of a stream of 64-bit values: the previous value and the window of meaningful
+     * bits of the previous XOR, which the next XOR reuses when its meaningful bits fit in it.
+     */
+    private static final class XorState {
+        private boolean started;
+        private long previous;
+        private int leading = -1;
+        private int trailing;
+
+        private void write(BitOutput bits, long value) {
+            if (!started) {
+                bits.writeBits(value, 64);
+                started = true;
+                previous = value;
+                return;
+            }
+            long xor = value ^ previous;
+            previous = value;
+            if (xor == 0) {
+                bits.writeBit(false);
+                return;
+            }
+            bits.writeBit(true);
+            int newLeading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int newTrailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= 0 && newLeading >= leading && newTrailing >= trailing) {
+                bits.writeBit(false);
+                bits.writeBits(xor >>> trailing, 64 - leading - trailing);
+            } else {
+                int significant = 64 - newLeading - newTrailing;
+                bits.writeBit(true);
+                bits.writeBits(newLeading, 5);
+                bits.writeBits(significant == 64 ? 0 : significant, 6);
+                bits.writeBits(xor >>> newTrailing, significant);
+                leading = newLeading;
+                trailing = newTrailing;
+            }
+        }
+
+        private long read(BitInput bits) {
+            if (!started) {
+                started = true;
+                previous = bits.readBits(64);
+                return previous;
+            }
+            if (!bits.readBit()) {
+                return previous;
+            }
+            if (bits.readBit()) {
+                leading = (int) bits.readBits(5);
+                int significant = (int) bits.readBits(6);
+                trailing = 64 - leading - (significant == 0 ? 64 : significant);
+            }
+            previous ^= bits.readBits(64 - leading - trailing) << trailing;
+            return previous;
+        }
+    }
+
+    /**
+     * Dictionary of the distinct strings of a segment, coded in order of first appearance.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new LinkedHashMap<>();
+
+        private int code(String value) {
+            return codes.computeIfAbsent(value, key -> codes.size());
+        }
+
+        private int size() {
+            return codes.size();
+        }
+
+        private long byteSize() {
+            long size = 4;
+            for (String value : codes.keySet()) {
+                size += 4 + value.getBytes(StandardCharsets.UTF_8).length;
+            }
+            return size;
+        }
+
+        private void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(codes.size());
+            for (String value : codes.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package smarthome.persistence.cache;
+
+import smarthome.domain.actuator.Actuator;
+import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.persistence.ActuatorRepository;
+
+import java.util.List;
+
+/**
+ * ActuatorRepository that keeps the actuators looked up by ID in a {@link RepositoryCache}, so operating an actuator
+ * over and over no longer reaches the database every time. Lookups by device and findAll() always go to the wrapped
+ * repository.
+ */
+public class ActuatorRepositoryCache implements ActuatorRepository, AutoCloseable {
+
+    private final ActuatorRepository delegate;
+    private final RepositoryCache<ActuatorIDVO, Actuator> cache;
+
+    /**
+     * Constructor for ActuatorRepositoryCache.
+     *
+     * @param delegate the repository the actuators are read from and written to
+     * @param cache    the cache of the actuators
+     * @throws IllegalArgumentException if any of the parameters is null
+     */
+    public ActuatorRepositoryCache(ActuatorRepository delegate, RepositoryCache<ActuatorIDVO, Actuator> cache) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Saves the actuator in the wrapped repository and drops any cached copy of it.
+     *
+     * @param actuator the actuator to be saved
+     * @return true if the actuator was saved, false otherwise
+     */
+    @Override
+    public boolean save(Actuator actuator) {
+        boolean saved = delegate.save(actuator);
+        if (actuator != null) {
+            cache.invalidate((ActuatorIDVO) actuator.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Saves the actuators in the wrapped repository and drops any cached copy of them.
+     *
+     * @param actuators the actuators to be saved
+     * @return one result per actuator, in the same order: true if the actuator was saved, false otherwise
+     */
+    @Override
+    public List<Boolean> saveAll(List<Actuator> actuators) {
+        List<Boolean> saved = delegate.saveAll(actuators);
+        for (Actuator actuator : actuators) {
+            cache.invalidate((ActuatorIDVO) actuator.getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public Iterable<Actuator> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Finds the actuator with the given ID, in the cache first and then in the wrapped repository.
+     *
+     * @param id the ID of the actuator
+     * @return the actuator, or null if there is no such actuator
+     */
+    @Override
+    public Actuator findById(ActuatorIDVO id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public boolean isPresent(ActuatorIDVO id) {
+        if (id == null) {
+            return delegate.isPresent(null);
+        }
+        return cache.contains(id) || delegate.isPresent(id);
+    }
+
+    @Override
+    public Iterable<Actuator> findByDeviceID(DeviceIDVO deviceID) {
+        return delegate.findByDeviceID(deviceID);
+    }
+
+    /**
+     * @return the cache of the actuators
+     */
+    public RepositoryCache<ActuatorIDVO, Actuator> getCache() {
+        return cache;
+    }
+
+    /**
+     * Withdraws the metrics of the cache from JMX.
+     */
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
@@ -0,0 +1,117 @@
+package smarthome.persistence.cache;
+
+import smarthome.domain.device.Device;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.persistence.DeviceRepository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DeviceRepository that keeps the devices looked up by ID in a {@link RepositoryCache}, so services that check the
+ * same devices over and over (adding sensors and actuators, comparing readings of indoor and outdoor devices) no
+ * longer reach the database every time. Lookups by room or functionality and findAll() always go to the wrapped repository.
+ */
+public class DeviceRepositoryCache implements DeviceRepository, AutoCloseable {
+
+    private final DeviceRepository delegate;
+    private final RepositoryCache<DeviceIDVO, Device> cache;
+
+    /**
+     * Constructor for DeviceRepositoryCache.
+     *
+     * @param delegate the repository the devices are read from and written to
+     * @param cache    the cache of the devices
+     * @throws IllegalArgumentException if any of the parameters is null
+     */
+    public DeviceRepositoryCache(DeviceRepository delegate, RepositoryCache<DeviceIDVO, Device> cache) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Saves the device in the wrapped repository and drops any cached copy of it.
+     *
+     * @param device the device to be saved
+     * @return true if the device was saved, false otherwise
+     */
+    @Override
+    public boolean save(Device device) {
+        boolean saved = delegate.save(device);
+        if (device != null) {
+            cache.invalidate(device.getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Updates the device in the wrapped repository and drops any cached copy of it.
+     *
+     * @param device the updated device
+     * @return true if the device was updated, false otherwise
+     */
+    @Override
+    public boolean update(Device device) {
+        boolean updated = delegate.update(device);
+        if (device != null) {
+            cache.invalidate(device.getId());
+        }
+        return updated;
+    }
+
+    @Override
+    public Iterable<Device> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Finds the device with the given ID, in the cache first and then in the wrapped repository.
+     *
+     * @param id the ID of the device
+     * @return the device, or null if there is no such device
+     */
+    @Override
+    public Device findById(DeviceIDVO id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public boolean isPresent(DeviceIDVO id) {
+        if (id == null) {
+            return delegate.isPresent(null);
+        }
+        return cache.contains(id) || delegate.isPresent(id);
+    }
+
+    @Override
+    public Iterable<Device> findByRoomID(RoomIDVO roomID) {
+        return delegate.findByRoomID(roomID);
+    }
+
+    @Override
+    public Map<String, List<Device>> findGroupedByFunctionality() {
+        return delegate.findGroupedByFunctionality();
+    }
+
+    /**
+     * @return the cache of the devices
+     */
+    public RepositoryCache<DeviceIDVO, Device> getCache() {
+        return cache;
+    }
+
+    /**
+     * Withdraws the metrics of the cache from JMX.
+     */
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
@@ -0,0 +1,221 @@
+package smarthome.persistence.cache;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded cache of the entities of one repository, keyed by their ID.
+ * <p>
+ * Lookups are read-through: an entity missing from the cache is loaded from the wrapped repository and kept, unless
+ * the repository did not find it. When the cache holds capacity entities, the least recently used one is evicted.
+ * Saving or updating an entity invalidates its entry, and a load that was running while an entry was invalidated is
+ * not kept, so the cache never holds an entity older than the last write made through it. Writes made by other
+ * processes are not seen until the entity is evicted or the cache is cleared.
+ * </p>
+ * <p>
+ * Entities that can be changed in place, such as devices and actuators, are cached with a copier: the cache keeps its
+ * own copy of a loaded entity and hands out a new copy on every hit, so a caller changing the entity it got, whether
+ * it saves it or not, changes neither the cached entity nor the one held by another caller.
+ * </p>
+ *
+ * @param <K> the type of the entity IDs
+ * @param <V> the type of the entities
+ */
+public class RepositoryCache<K, V> implements RepositoryCacheMXBean, AutoCloseable {
+
+    private static final String OBJECT_NAME = "smarthome:type=RepositoryCache,name=";
+
+    private final int capacity;
+    private final UnaryOperator<V> copier;
+    // Access-ordered, so the eldest entry is the least recently used one; guarded by this
+    private final LinkedHashMap<K, V> entries;
+    // Incremented by every invalidation, so loads that overlap one are not kept; guarded by this
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    private ObjectName registeredName;
+
+    /**
+     * Constructor for RepositoryCache, for entities that are never changed in place: the cached entity itself is
+     * handed out on every hit.
+     *
+     * @param capacity the maximum number of cached entities
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public RepositoryCache(int capacity) {
+        this(capacity, UnaryOperator.identity());
+    }
+
+    /**
+     * Constructor for RepositoryCache, for entities that can be changed in place.
+     *
+     * @param capacity the maximum number of cached entities
+     * @param copier   the function returning an independent copy of an entity
+     * @throws IllegalArgumentException if the capacity is not positive or the copier is null
+     */
+    public RepositoryCache(int capacity, UnaryOperator<V> copier) {
+        if (capacity <= 0 || copier == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.capacity = capacity;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > RepositoryCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached entity with the given ID, loading it with the given loader if it is not cached. The loader
+     * and the copier run outside the cache lock, so a slow repository does not hold back lookups of other entities.
+     *
+     * @param id     the ID of the entity
+     * @param loader the lookup of the wrapped repository, returning null if there is no such entity
+     * @return the entity, or a copy of the cached one, or null if the loader did not find it
+     */
+    public V get(K id, Function<K, V> loader) {
+        long loadGeneration;
+        V cached;
+        synchronized (this) {
+            cached = entries.get(id);
+            if (cached != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            loadGeneration = generation;
+        }
+        if (cached != null) {
+            return copier.apply(cached);
+        }
+        V loaded = loader.apply(id);
+        if (loaded != null) {
+            V copy = copier.apply(loaded);
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(id, copy);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Tells whether the entity with the given ID is cached, counting a hit if it is. A miss is not counted, as the
+     * caller asks the wrapped repository itself.
+     *
+     * @param id the ID of the entity
+     * @return true if the entity is cached
+     */
+    public synchronized boolean contains(K id) {
+        if (entries.containsKey(id)) {
+            hits++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops the entity with the given ID, after it was saved or updated.
+     *
+     * @param id the ID of the entity
+     */
+    public synchronized void invalidate(K id) {
+        generation++;
+        if (entries.remove(id) != null) {
+            invalidations++;
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    @Override
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public synchronized double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Publishes the metrics of this cache over JMX under the given name. Only one cache can be published per name;
+     * a second one is left unpublished.
+     *
+     * @param name the name of the cached repository, e.g. Device
+     */
+    public synchronized void registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(OBJECT_NAME + name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(this, objectName);
+                registeredName = objectName;
+            }
+        } catch (JMException e) {
+            // Metrics are optional, the cache works the same without them
+        }
+    }
+
+    /**
+     * Withdraws the metrics of this cache from JMX, if they were published.
+     */
+    @Override
+    public synchronized void close() {
+        if (registeredName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            // Already gone
+        }
+        registeredName = null;
+    }
+}
@@ -0,0 +1,83 @@
+package smarthome.persistence.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import smarthome.domain.actuator.Actuator;
+import smarthome.domain.actuator.ActuatorFactory;
+import smarthome.domain.device.Device;
+import smarthome.domain.device.DeviceFactory;
+import smarthome.mapper.assembler.ActuatorAssembler;
+import smarthome.mapper.assembler.DeviceAssembler;
+import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
+import smarthome.persistence.jpa.datamodel.DeviceDataModel;
+import smarthome.persistence.springdata.ActuatorRepositorySpringData;
+import smarthome.persistence.springdata.DeviceRepositorySpringData;
+import smarthome.persistence.springdata.RoomRepositorySpringData;
+import smarthome.persistence.springdata.SensorRepositorySpringData;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Turns on the topology cache when {@code repository.cache.enabled=true}: the Spring Data device, room, sensor and
+ * actuator repositories are each wrapped in a read-through cache of at most {@code repository.cache.max-entries}
+ * entities, which then becomes the repository injected into the services. The metrics of each cache are published
+ * over JMX as {@code smarthome:type=RepositoryCache,name=<Device|Room|Sensor|Actuator>}, and withdrawn when Spring
+ * closes the repositories.
+ * <p>
+ * Devices and actuators are changed in place when they are deactivated or operated, so their caches hand out copies,
+ * rebuilt from the data model of the cached entity the same way the Spring Data repositories rebuild them from a row.
+ * </p>
+ * <p>
+ * Only writes made through this application invalidate the caches; leave them off when other processes change the
+ * topology in the same database. They are off by default.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "repository.cache.enabled", havingValue = "true")
+public class RepositoryCacheConfiguration {
+
+    @Value("${repository.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public DeviceRepositoryCache deviceRepositoryCache(DeviceRepositorySpringData deviceRepositorySpringData,
+                                                       DeviceFactory deviceFactory) {
+        UnaryOperator<Device> copier = device -> DeviceAssembler.toDomain(deviceFactory, new DeviceDataModel(device));
+        return new DeviceRepositoryCache(deviceRepositorySpringData, createCache("Device", copier));
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public RoomRepositoryCache roomRepositoryCache(RoomRepositorySpringData roomRepositorySpringData) {
+        return new RoomRepositoryCache(roomRepositorySpringData, createCache("Room"));
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public SensorRepositoryCache sensorRepositoryCache(SensorRepositorySpringData sensorRepositorySpringData) {
+        return new SensorRepositoryCache(sensorRepositorySpringData, createCache("Sensor"));
+    }
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public ActuatorRepositoryCache actuatorRepositoryCache(ActuatorRepositorySpringData actuatorRepositorySpringData,
+                                                           ActuatorFactory actuatorFactory) {
+        UnaryOperator<Actuator> copier =
+                actuator -> ActuatorAssembler.toDomain(actuatorFactory, new ActuatorDataModel(actuator));
+        return new ActuatorRepositoryCache(actuatorRepositorySpringData, createCache("Actuator", copier));
+    }
+
+    private <K, V> RepositoryCache<K, V> createCache(String name) {
+        return createCache(name, UnaryOperator.identity());
+    }
+
+    private <K, V> RepositoryCache<K, V> createCache(String name, UnaryOperator<V> copier) {
+        RepositoryCache<K, V> cache = new RepositoryCache<>(maxEntries, copier);
+        cache.registerMBean(name);
+        return cache;
+    }
+}
@@ -0,0 +1,48 @@
+package smarthome.persistence.cache;
+
+/**
+ * Management interface of {@link RepositoryCache}, published over JMX so the hit ratio and the size of each topology
+ * cache can be watched at runtime.
+ */
+public interface RepositoryCacheMXBean {
+
+    /**
+     * @return the number of entities held in the cache
+     */
+    int getSize();
+
+    /**
+     * @return the maximum number of entities the cache holds before evicting the least recently used one
+     */
+    int getCapacity();
+
+    /**
+     * @return the number of lookups answered by the cache
+     */
+    long getHits();
+
+    /**
+     * @return the number of lookups that went to the wrapped repository
+     */
+    long getMisses();
+
+    /**
+     * @return the fraction of lookups answered by the cache, 0 when there was no lookup yet
+     */
+    double getHitRatio();
+
+    /**
+     * @return the number of entities evicted to keep the cache within its capacity
+     */
+    long getEvictions();
+
+    /**
+     * @return the number of entities dropped from the cache because they were saved or updated
+     */
+    long getInvalidations();
+
+    /**
+     * Drops every entity from the cache, e.g. after the database was changed by another process.
+     */
+    void clear();
+}
@@ -0,0 +1,87 @@
+package smarthome.persistence.cache;
+
+import smarthome.domain.room.Room;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.persistence.RoomRepository;
+
+/**
+ * RoomRepository that keeps the rooms looked up by ID in a {@link RepositoryCache}, so resolving the room of a device
+ * no longer reaches the database every time. findAll() always goes to the wrapped repository.
+ */
+public class RoomRepositoryCache implements RoomRepository, AutoCloseable {
+
+    private final RoomRepository delegate;
+    private final RepositoryCache<RoomIDVO, Room> cache;
+
+    /**
+     * Constructor for RoomRepositoryCache.
+     *
+     * @param delegate the repository the rooms are read from and written to
+     * @param cache    the cache of the rooms
+     * @throws IllegalArgumentException if any of the parameters is null
+     */
+    public RoomRepositoryCache(RoomRepository delegate, RepositoryCache<RoomIDVO, Room> cache) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Saves the room in the wrapped repository and drops any cached copy of it.
+     *
+     * @param room the room to be saved
+     * @return true if the room was saved, false otherwise
+     */
+    @Override
+    public boolean save(Room room) {
+        boolean saved = delegate.save(room);
+        if (room != null) {
+            cache.invalidate(room.getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public Iterable<Room> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Finds the room with the given ID, in the cache first and then in the wrapped repository.
+     *
+     * @param id the ID of the room
+     * @return the room, or null if there is no such room
+     */
+    @Override
+    public Room findById(RoomIDVO id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public boolean isPresent(RoomIDVO id) {
+        if (id == null) {
+            return delegate.isPresent(null);
+        }
+        return cache.contains(id) || delegate.isPresent(id);
+    }
+
+    /**
+     * @return the cache of the rooms
+     */
+    public RepositoryCache<RoomIDVO, Room> getCache() {
+        return cache;
+    }
+
+    /**
+     * Withdraws the metrics of the cache from JMX.
+     */
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
@@ -0,0 +1,100 @@
+package smarthome.persistence.cache;
+
+import smarthome.domain.sensor.Sensor;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+import smarthome.persistence.SensorRepository;
+
+/**
+ * SensorRepository that keeps the sensors looked up by ID in a {@link RepositoryCache}, so reading a sensor over and
+ * over no longer reaches the database every time. Lookups by device or sensor type and findAll() always go to the
+ * wrapped repository.
+ */
+public class SensorRepositoryCache implements SensorRepository, AutoCloseable {
+
+    private final SensorRepository delegate;
+    private final RepositoryCache<SensorIDVO, Sensor> cache;
+
+    /**
+     * Constructor for SensorRepositoryCache.
+     *
+     * @param delegate the repository the sensors are read from and written to
+     * @param cache    the cache of the sensors
+     * @throws IllegalArgumentException if any of the parameters is null
+     */
+    public SensorRepositoryCache(SensorRepository delegate, RepositoryCache<SensorIDVO, Sensor> cache) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Saves the sensor in the wrapped repository and drops any cached copy of it.
+     *
+     * @param sensor the sensor to be saved
+     * @return true if the sensor was saved, false otherwise
+     */
+    @Override
+    public boolean save(Sensor sensor) {
+        boolean saved = delegate.save(sensor);
+        if (sensor != null) {
+            cache.invalidate((SensorIDVO) sensor.getId());
+        }
+        return saved;
+    }
+
+    @Override
+    public Iterable<Sensor> findAll() {
+        return delegate.findAll();
+    }
+
+    /**
+     * Finds the sensor with the given ID, in the cache first and then in the wrapped repository.
+     *
+     * @param id the ID of the sensor
+     * @return the sensor, or null if there is no such sensor
+     */
+    @Override
+    public Sensor findById(SensorIDVO id) {
+        if (id == null) {
+            return delegate.findById(null);
+        }
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public boolean isPresent(SensorIDVO id) {
+        if (id == null) {
+            return delegate.isPresent(null);
+        }
+        return cache.contains(id) || delegate.isPresent(id);
+    }
+
+    @Override
+    public Iterable<Sensor> findByDeviceID(DeviceIDVO deviceID) {
+        return delegate.findByDeviceID(deviceID);
+    }
+
+    @Override
+    public Iterable<Sensor> findBySensorTypeId(SensorTypeIDVO id) {
+        return delegate.findBySensorTypeId(id);
+    }
+
+    /**
+     * @return the cache of the sensors
+     */
+    public RepositoryCache<SensorIDVO, Sensor> getCache() {
+        return cache;
+    }
+
+    /**
+     * Withdraws the metrics of the cache from JMX.
+     */
+    @Override
+    public void close() {
+        cache.close();
+    }
+}
@@ -1,11 +1,15 @@
 package smarthome.persistence.jpa.datamodel;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import smarthome.domain.actuator.Actuator;
+import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
+
+import java.util.UUID;
 
 /**
  * DataModel class for the Actuator entity.
@@ -20,8 +24,9 @@ import smarthome.domain.actuator.Actuator;
 public class ActuatorDataModel {
     @Getter
     @Id
-    @Column(name = "id")
-    private String actuatorID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID actuatorID;
     @Getter
     @Column(name = "actuator_name")
     private String actuatorName;
@@ -29,8 +34,9 @@ public class ActuatorDataModel {
     @Column(name = "actuator_type_id")
     private String actuatorTypeID;
     @Getter
-    @Column(name = "device_id")
-    private String deviceID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "device_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID deviceID;
     @Getter
     @Column(name = "lower_limit")
     private String lowerLimit;
@@ -57,10 +63,10 @@ public class ActuatorDataModel {
      * @result The ActuatorDataModel object is created with the provided parameters.
      */
     public ActuatorDataModel(Actuator actuator) {
-        this.actuatorID = actuator.getId().getID();
+        this.actuatorID = ((ActuatorIDVO) actuator.getId()).getUUID();
         this.actuatorName = actuator.getActuatorName().getValue();
         this.actuatorTypeID = actuator.getActuatorTypeID().getID();
-        this.deviceID = actuator.getDeviceID().getID();
+        this.deviceID = actuator.getDeviceID().getUUID();
         this.lowerLimit = actuator.getLowerLimit();
         this.upperLimit = actuator.getUpperLimit();
         this.precision_value = actuator.getPrecision();
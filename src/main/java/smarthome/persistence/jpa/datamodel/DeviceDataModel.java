@@ -3,20 +3,24 @@ package smarthome.persistence.jpa.datamodel;
 import jakarta.persistence.*;
 import smarthome.domain.device.Device;
 
+import java.util.UUID;
+
 @Entity
 @Table(name = "Device")
 public class DeviceDataModel {
     @Id
-    @Column(name = "id")
-    private String deviceID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID deviceID;
     @Column(name = "device_name")
     private String deviceName;
     @Column(name = "device_model")
     private String deviceModel;
     @Column(name = "device_status")
     private boolean deviceStatus;
-    @Column(name = "room_id")
-    private String roomID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "room_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID roomID;
 
     /**
      * Default constructor. Required by JPA.
@@ -31,11 +35,11 @@ public class DeviceDataModel {
      */
     public DeviceDataModel(Device device) {
 
-        this.deviceID = device.getId().getID();
+        this.deviceID = device.getId().getUUID();
         this.deviceName = device.getDeviceName().getValue();
         this.deviceModel = device.getDeviceModel().getValue();
         this.deviceStatus = device.getDeviceStatus().getValue();
-        this.roomID = device.getRoomID().getID();
+        this.roomID = device.getRoomID().getUUID();
         }
     /**
      * Method to be used on the DeviceRepositoryJPA to update objects
@@ -43,11 +47,11 @@ public class DeviceDataModel {
      * @param device The Device object from which to create the DeviceDataModel object.
      */
     public boolean updateFromDomain(Device device) {
-        this.deviceID = device.getId().getID();
+        this.deviceID = device.getId().getUUID();
         this.deviceName = device.getDeviceName().getValue();
         this.deviceModel = device.getDeviceModel().getValue();
         this.deviceStatus = device.getDeviceStatus().getValue();
-        this.roomID = device.getRoomID().getID();
+        this.roomID = device.getRoomID().getUUID();
 
         return true;
     }
@@ -57,7 +61,7 @@ public class DeviceDataModel {
      * @return The value of the attribute.
      */
 
-    public String getDeviceID() {
+    public UUID getDeviceID() {
         return deviceID;
     }
     /**
@@ -95,7 +99,7 @@ public class DeviceDataModel {
          */
 
 
-    public String getRoomID() { return roomID; }
+    public UUID getRoomID() { return roomID; }
 
 }
 
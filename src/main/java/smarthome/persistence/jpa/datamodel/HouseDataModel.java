@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import smarthome.domain.house.House;
 import smarthome.domain.vo.housevo.LocationVO;
 
+import java.util.UUID;
+
 /**
  * Represents the data model entity for a house.
  */
@@ -13,8 +15,9 @@ import smarthome.domain.vo.housevo.LocationVO;
 public class HouseDataModel {
 
     @Id
-    @Column(name = "id")
-    private String id;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID id;
 
     @Column(name = "door")
     private String door;
@@ -49,7 +52,7 @@ public class HouseDataModel {
      * @param house The House object to construct from.
      */
     public HouseDataModel(House house) {
-        this.id = house.getId().getID();
+        this.id = house.getId().getUUID();
         LocationVO location = house.getLocation();
         this.door = location.getDoor();
         this.street = location.getStreet();
@@ -67,7 +70,7 @@ public class HouseDataModel {
      * @return true if the update was successful, false otherwise.
      */
     public boolean updateFromDomain(House house) {
-        this.id = house.getId().getID();
+        this.id = house.getId().getUUID();
         LocationVO location = house.getLocation();
         this.door = location.getDoor();
         this.street = location.getStreet();
@@ -85,7 +88,7 @@ public class HouseDataModel {
      *
      * @return The ID of the house.
      */
-    public String getId() {
+    public UUID getId() {
         return id;
     }
 
@@ -1,32 +1,64 @@
 package smarthome.persistence.jpa.datamodel;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import smarthome.domain.log.Log;
+import smarthome.domain.vo.logvo.LogIDVO;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 /**
  * LogDataModel is a class that mirrors the Log entity within the database.
  * It serves as a means to persist Log objects in the database.
+ * Besides the textual reading, numeric readings are also stored in a typed column, so that range, sign and aggregate
+ * filters can be evaluated by the database.
+ * The composite indexes match the repository queries: readings of a device, optionally of one sensor type, within
+ * a time range, and readings of a sensor type within a time range. The device index ends with the log ID so that
+ * pages ordered by (time, id) and the latest readings of a device are read straight from the index. The sensor type
+ * indexes end with the numeric reading, so reading filters are checked on the index entries and aggregates of a
+ * device and sensor type never read the table. Rows written before the numeric column existed are filled in by
+ * db/migration/&lt;h2|mariadb&gt;/reading-num-backfill.sql.
+ * On MariaDB the table is range partitioned by month on the time column (see
+ * db/migration/mariadb/log-monthly-partitions.sql and {@link smarthome.persistence.jpa.repository.LogPartitions}), so
+ * the time predicates of the queries prune the partitions outside the requested period and expired months are dropped
+ * whole. The time index serves the queries over every device, such as the purge and the archive, where the table is
+ * not partitioned.
  */
 
 @Entity
-@Table(name = "LOG")
+@Table(name = "LOG", indexes = {
+        @Index(name = "idx_log_device_sensor_type_time_num", columnList = "device_id, sensor_type_id, time, reading_num"),
+        @Index(name = "idx_log_device_time_id", columnList = "device_id, time, id"),
+        @Index(name = "idx_log_sensor_type_time_num", columnList = "sensor_type_id, time, reading_num"),
+        @Index(name = "idx_log_time_id", columnList = "time, id")
+})
 public class LogDataModel {
     @Id
-    @Column(name = "id")
-    private String logID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID logID;
     @Column(name = "time")
     private LocalDateTime time;
     @Column(name = "reading")
     private String reading;
-    @Column(name = "sensor_id")
-    private String sensorID;
-    @Column(name = "device_id")
-    private String deviceID;
+    @Column(name = "reading_num")
+    private Double readingNumeric;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reading_type")
+    private ReadingType readingType;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "sensor_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID sensorID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "device_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID deviceID;
     @Column(name = "sensor_type_id")
     private String sensorTypeID;
 
@@ -40,22 +72,27 @@ public class LogDataModel {
      * This constructor forms a LogDataModel instance using a Log domain object as input.
      * It extracts the required attributes from the Log object to instantiate the LogDataModel.
      * This is typically used to transform a Log object into a LogDataModel before storing it in the database.
+     * Integer and decimal readings are also stored in the numeric reading column; any other reading, such as wind or
+     * sun time values, is only stored as text.
      *
      * @param log The Log instance that serves as the basis for the LogDataModel creation.
      */
     public LogDataModel(Log log) {
-        this.logID = log.getId().getID();
+        this.logID = ((LogIDVO) log.getId()).getUUID();
         this.time = log.getTime().getValue();
-        this.reading = log.getReading().getValue().toString();
-        this.sensorID = log.getSensorID().getID();
-        this.deviceID = log.getDeviceID().getID();
+        Object value = log.getReading().getValue();
+        this.reading = value.toString();
+        this.readingType = ReadingType.of(value);
+        this.readingNumeric = this.readingType == ReadingType.TEXT ? null : ((Number) value).doubleValue();
+        this.sensorID = log.getSensorID().getUUID();
+        this.deviceID = log.getDeviceID().getUUID();
         this.sensorTypeID = log.getSensorTypeID().getID();
     }
 
     /**
      * Getter to obtain the logID attribute.
      */
-    public String getLogID() {
+    public UUID getLogID() {
         return logID;
     }
 
@@ -76,14 +113,14 @@ public class LogDataModel {
     /**
      * Getter to obtain the sensorID attribute.
      */
-    public String getSensorID() {
+    public UUID getSensorID() {
         return sensorID;
     }
 
     /**
      * Getter to obtain the deviceID attribute.
      */
-    public String getDeviceID() {
+    public UUID getDeviceID() {
         return deviceID;
     }
 
@@ -93,4 +130,43 @@ public class LogDataModel {
     public String getSensorTypeID() {
         return sensorTypeID;
     }
-}
\ No newline at end of file
+
+    /**
+     * Getter to obtain the readingNumeric attribute, which is null for non-numeric readings.
+     */
+    public Double getReadingNumeric() {
+        return readingNumeric;
+    }
+
+    /**
+     * Getter to obtain the readingType attribute.
+     */
+    public ReadingType getReadingType() {
+        return readingType;
+    }
+
+    /**
+     * Kind of value a reading holds, which tells whether it is also stored in the numeric reading column.
+     */
+    public enum ReadingType {
+        INTEGER,
+        DECIMAL,
+        TEXT;
+
+        /**
+         * Determines the kind of the given reading value.
+         *
+         * @param value the reading value.
+         * @return INTEGER for integral numbers, DECIMAL for other numbers and TEXT for anything else.
+         */
+        public static ReadingType of(Object value) {
+            if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+                return INTEGER;
+            }
+            if (value instanceof Number) {
+                return DECIMAL;
+            }
+            return TEXT;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package smarthome.persistence.jpa.datamodel;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * LogRollupDataModel mirrors one rollup bucket within the database: the count, sum, minimum and maximum of the
+ * numeric readings of one sensor type of a device within one minute, hour or day.
+ * The index matches the rollup queries, which read the buckets of one series at one resolution within a time range.
+ */
+@Entity
+@Table(name = "LOG_ROLLUP", indexes = {
+        @Index(name = "idx_log_rollup_series", columnList = "device_id, sensor_type_id, resolution, bucket_start")
+})
+public class LogRollupDataModel {
+    @Id
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID rollupID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "device_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID deviceID;
+    @Column(name = "sensor_type_id")
+    private String sensorTypeID;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution")
+    private RollupResolution resolution;
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+    @Column(name = "reading_count")
+    private long count;
+    @Column(name = "reading_sum")
+    private double sum;
+    @Column(name = "reading_min")
+    private double min;
+    @Column(name = "reading_max")
+    private double max;
+
+    /**
+     * Constructor with no arguments. Necessary for JPA.
+     */
+    public LogRollupDataModel() {
+    }
+
+    /**
+     * Creates the data model of a rollup bucket. The ID is a name-based UUID derived from the series, resolution and
+     * bucket start, so a bucket is stored at most once.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param resolution   the resolution of the bucket
+     * @param aggregate    the aggregate of the bucket, starting at the bucket start
+     */
+    public LogRollupDataModel(UUID deviceID, String sensorTypeID, RollupResolution resolution, ReadingAggregate aggregate) {
+        this.bucketStart = aggregate.getStart().getValue();
+        this.rollupID = UUID.nameUUIDFromBytes((deviceID + "|" + sensorTypeID + "|" + resolution + "|" + bucketStart)
+                .getBytes(StandardCharsets.UTF_8));
+        this.deviceID = deviceID;
+        this.sensorTypeID = sensorTypeID;
+        this.resolution = resolution;
+        this.count = aggregate.getCount();
+        this.sum = aggregate.getSum();
+        this.min = aggregate.getMin();
+        this.max = aggregate.getMax();
+    }
+
+    /**
+     * Getter to obtain the rollupID attribute.
+     */
+    public UUID getRollupID() {
+        return rollupID;
+    }
+
+    /**
+     * Getter to obtain the deviceID attribute.
+     */
+    public UUID getDeviceID() {
+        return deviceID;
+    }
+
+    /**
+     * Getter to obtain the sensorTypeID attribute.
+     */
+    public String getSensorTypeID() {
+        return sensorTypeID;
+    }
+
+    /**
+     * Getter to obtain the resolution attribute.
+     */
+    public RollupResolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Getter to obtain the bucketStart attribute.
+     */
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    /**
+     * Getter to obtain the count attribute.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Getter to obtain the sum attribute.
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * Getter to obtain the min attribute.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Getter to obtain the max attribute.
+     */
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,92 @@
+package smarthome.persistence.jpa.datamodel;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * LogRollupDirtyDataModel mirrors, within the database, one minute of one sensor type of a device whose rollups do
+ * not include all of its readings yet, so the minutes still to be compacted are known again after a restart.
+ */
+@Entity
+@Table(name = "LOG_ROLLUP_DIRTY")
+public class LogRollupDirtyDataModel {
+    @Id
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID dirtyID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "device_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID deviceID;
+    @Column(name = "sensor_type_id")
+    private String sensorTypeID;
+    @Column(name = "minute_start")
+    private LocalDateTime minuteStart;
+
+    /**
+     * Constructor with no arguments. Necessary for JPA.
+     */
+    public LogRollupDirtyDataModel() {
+    }
+
+    /**
+     * Creates the data model of a dirty minute. The ID is derived from the series and the minute, so a minute is
+     * marked at most once.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minuteStart  the start of the minute
+     */
+    public LogRollupDirtyDataModel(UUID deviceID, String sensorTypeID, LocalDateTime minuteStart) {
+        this.dirtyID = idOf(deviceID, sensorTypeID, minuteStart);
+        this.deviceID = deviceID;
+        this.sensorTypeID = sensorTypeID;
+        this.minuteStart = minuteStart;
+    }
+
+    /**
+     * Computes the ID of the mark of a minute of a series.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minuteStart  the start of the minute
+     * @return the name-based UUID of the mark
+     */
+    public static UUID idOf(UUID deviceID, String sensorTypeID, LocalDateTime minuteStart) {
+        return UUID.nameUUIDFromBytes((deviceID + "|" + sensorTypeID + "|" + minuteStart).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Getter to obtain the dirtyID attribute.
+     */
+    public UUID getDirtyID() {
+        return dirtyID;
+    }
+
+    /**
+     * Getter to obtain the deviceID attribute.
+     */
+    public UUID getDeviceID() {
+        return deviceID;
+    }
+
+    /**
+     * Getter to obtain the sensorTypeID attribute.
+     */
+    public String getSensorTypeID() {
+        return sensorTypeID;
+    }
+
+    /**
+     * Getter to obtain the minuteStart attribute.
+     */
+    public LocalDateTime getMinuteStart() {
+        return minuteStart;
+    }
+}
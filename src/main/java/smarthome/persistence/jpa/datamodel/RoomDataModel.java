@@ -1,11 +1,14 @@
 package smarthome.persistence.jpa.datamodel;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import smarthome.domain.room.Room;
 
+import java.util.UUID;
+
 /**
  * RoomDataModel is a class that represents the Room entity in the database.
  * It is used to store Room objects in the database.
@@ -16,8 +19,9 @@ import smarthome.domain.room.Room;
 public class RoomDataModel {
 
     @Id
-    @Column(name = "id")
-    private String roomID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID roomID;
     @Column(name = "room_name")
     private String roomName;
     @Column(name = "room_floor")
@@ -28,8 +32,9 @@ public class RoomDataModel {
     private double roomWidth;
     @Column(name = "room_height")
     private double roomHeight;
-    @Column(name = "house_id")
-    private String houseID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "house_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID houseID;
 
     /**
      * Default constructor. Required by JPA.
@@ -47,13 +52,13 @@ public class RoomDataModel {
      */
 
     public RoomDataModel(Room room) {
-        this.roomID = room.getId().getID();
+        this.roomID = room.getId().getUUID();
         this.roomName = room.getRoomName().getValue();
         this.roomFloor = room.getFloor().getValue();
         this.roomLength = room.getRoomDimensions().getRoomLength();
         this.roomWidth = room.getRoomDimensions().getRoomWidth();
         this.roomHeight = room.getRoomDimensions().getRoomHeight();
-        this.houseID = room.getHouseID().getID();
+        this.houseID = room.getHouseID().getUUID();
     }
 
     /**
@@ -62,7 +67,7 @@ public class RoomDataModel {
      * @return The value of the attribute.
      */
 
-    public String getRoomID() {
+    public UUID getRoomID() {
         return roomID;
     }
 
@@ -122,7 +127,7 @@ public class RoomDataModel {
      * @return The value of the attribute.
      */
 
-    public String getHouseID() {
+    public UUID getHouseID() {
         return houseID;
     }
 }
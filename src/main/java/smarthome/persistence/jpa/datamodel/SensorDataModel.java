@@ -2,23 +2,29 @@ package smarthome.persistence.jpa.datamodel;
 
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import smarthome.domain.sensor.Sensor;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.util.UUID;
 
 @Entity
 @Table(name = "sensor")
 public class SensorDataModel {
     @Id
-    @Column(name = "id")
-    private String id;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID id;
     @Column(name = "name")
     private String name;
     @Column(name = "sensor_type_id")
     private String sensorTypeID;
-    @Column(name = "device_id")
-    private String deviceID;
+    @Convert(converter = UUIDBinaryConverter.class)
+    @Column(name = "device_id", columnDefinition = UUIDBinaryConverter.COLUMN_DEFINITION)
+    private UUID deviceID;
 
 
     /**
@@ -34,10 +40,10 @@ public class SensorDataModel {
      * @param sensor The sensor object to be converted to a SensorDataModel.
      */
     public SensorDataModel(Sensor sensor) {
-        this.id = sensor.getId().getID();
+        this.id = ((SensorIDVO) sensor.getId()).getUUID();
         this.name = sensor.getSensorName().getValue();
         this.sensorTypeID = sensor.getSensorTypeID().getID();
-        this.deviceID = sensor.getDeviceID().getID();
+        this.deviceID = sensor.getDeviceID().getUUID();
     }
 
     /**
@@ -45,7 +51,7 @@ public class SensorDataModel {
      *
      * @return The sensor ID.
      */
-    public String getSensorId() {
+    public UUID getSensorId() {
         return id;
     }
 
@@ -75,7 +81,7 @@ public class SensorDataModel {
      *
      * @return The device ID.
      */
-    public String getDeviceID() {
+    public UUID getDeviceID() {
         return deviceID;
     }
 }
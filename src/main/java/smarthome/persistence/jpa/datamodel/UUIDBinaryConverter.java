@@ -0,0 +1,105 @@
+package smarthome.persistence.jpa.datamodel;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.UUID;
+
+/**
+ * Stores UUID identifiers as 16 bytes instead of their 36-character text, so ID columns and their indexes are about
+ * 2.5 times smaller and are compared as fixed-length binary.
+ * <p>
+ * The bytes are the most significant half of the UUID followed by the least significant half, both big-endian, so the
+ * binary order of the column is the order of the textual form, which the log pages ordered by (time, log ID) rely on.
+ * The column is declared with {@link #COLUMN_DEFINITION} by every data model, since the JPA providers do not agree on
+ * the type of a converted byte array column.
+ * </p>
+ */
+@Converter
+public class UUIDBinaryConverter implements AttributeConverter<UUID, byte[]> {
+
+    /**
+     * Column definition of the UUID columns.
+     */
+    public static final String COLUMN_DEFINITION = "BINARY(16)";
+
+    /**
+     * Converts a UUID into its 16-byte form.
+     *
+     * @param uuid the UUID, may be null
+     * @return the 16 bytes of the UUID, or null if it is null
+     */
+    @Override
+    public byte[] convertToDatabaseColumn(UUID uuid) {
+        return uuid == null ? null : toBytes(uuid);
+    }
+
+    /**
+     * Converts the 16-byte form of a UUID back into the UUID.
+     *
+     * @param bytes the 16 bytes, may be null
+     * @return the UUID, or null if the bytes are null
+     * @throws IllegalArgumentException if there are not 16 bytes
+     */
+    @Override
+    public UUID convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : fromBytes(bytes);
+    }
+
+    /**
+     * Converts a UUID into its 16-byte form.
+     *
+     * @param uuid the UUID
+     * @return the 16 bytes of the UUID
+     */
+    public static byte[] toBytes(UUID uuid) {
+        byte[] bytes = new byte[16];
+        long most = uuid.getMostSignificantBits();
+        long least = uuid.getLeastSignificantBits();
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (most >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (least >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+
+    /**
+     * Converts the 16-byte form of a UUID back into the UUID.
+     *
+     * @param bytes the 16 bytes
+     * @return the UUID
+     * @throws IllegalArgumentException if there are not 16 bytes
+     */
+    public static UUID fromBytes(byte[] bytes) {
+        if (bytes.length != 16) {
+            throw new IllegalArgumentException("Invalid UUID bytes");
+        }
+        long most = 0;
+        long least = 0;
+        for (int i = 0; i < 8; i++) {
+            most = (most << 8) | (bytes[i] & 0xFF);
+            least = (least << 8) | (bytes[8 + i] & 0xFF);
+        }
+        return new UUID(most, least);
+    }
+
+    /**
+     * Parses the textual form of an identifier received as a String, to compare it with a UUID column.
+     * <p>
+     * Text that is not a UUID gives the nil UUID, which no stored entity has, so a query on it matches what it matched
+     * when identifiers were compared as text.
+     * </p>
+     *
+     * @param id the textual form of the identifier
+     * @return the UUID of the identifier, or the nil UUID if the text is not a UUID
+     */
+    public static UUID fromText(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return NIL;
+        }
+    }
+
+    private static final UUID NIL = new UUID(0L, 0L);
+}
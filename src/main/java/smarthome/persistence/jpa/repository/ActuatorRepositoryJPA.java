@@ -11,9 +11,11 @@ import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
 import smarthome.persistence.jpa.datamodel.DeviceDataModel;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public class ActuatorRepositoryJPA implements ActuatorRepository {
 
@@ -54,6 +56,42 @@ public class ActuatorRepositoryJPA implements ActuatorRepository {
         }
     }
 
+    /**
+     * Saves the state of several domain Actuators to the database in a single transaction, merging those already
+     * persisted. Either every Actuator is saved or, if the transaction fails, none is.
+     * @param actuators Actuators to be saved.
+     * @return One result per Actuator, in the same order: true if it was saved, false otherwise.
+     * @throws IllegalArgumentException If the list or any of its Actuators is invalid (null).
+     */
+    @Override
+    public List<Boolean> saveAll(List<Actuator> actuators) {
+        if(isNull(actuators) || actuators.stream().anyMatch(this::isNull)){
+            throw new IllegalArgumentException("Actuator is null");
+        }
+        if(actuators.isEmpty()){
+            return new ArrayList<>();
+        }
+        try(EntityManager manager = entityManagerFactory.createEntityManager()) {
+            EntityTransaction transaction = manager.getTransaction();
+            transaction.begin();
+            try {
+                for (Actuator actuator : actuators) {
+                    manager.merge(new ActuatorDataModel(actuator));
+                }
+                transaction.commit();
+            } catch (RuntimeException exception) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw exception;
+            }
+            return new ArrayList<>(Collections.nCopies(actuators.size(), true));
+
+        } catch (RuntimeException exception){
+            return new ArrayList<>(Collections.nCopies(actuators.size(), false));
+        }
+    }
+
     /**
      * Fetches all Actuator data models from the database and converts them into domain objects.
      * @return An Iterable containing all domain Actuators, or an empty list in case there are no
@@ -123,7 +161,7 @@ public class ActuatorRepositoryJPA implements ActuatorRepository {
      * @return An optional containing the ActuatorDataModel if found, an empty Optional otherwise.
      */
     private Optional<ActuatorDataModel> getActuatorDataModelFromID(EntityManager manager, ActuatorIDVO actuatorID){
-        String id = actuatorID.getID();
+        UUID id = actuatorID.getUUID();
         return Optional.ofNullable(manager.find(ActuatorDataModel.class, id));
     }
 
@@ -148,7 +186,7 @@ public class ActuatorRepositoryJPA implements ActuatorRepository {
     public Iterable<Actuator> findByDeviceID(DeviceIDVO deviceID) {
         try (EntityManager em = this.entityManagerFactory.createEntityManager()) {
             TypedQuery<ActuatorDataModel> query = em.createQuery("SELECT a FROM ActuatorDataModel a WHERE a.deviceID = :deviceID", ActuatorDataModel.class);
-            query.setParameter("deviceID", deviceID.getID());
+            query.setParameter("deviceID", deviceID.getUUID());
             List<ActuatorDataModel> list = query.getResultList();
             return ActuatorAssembler.toDomainList(actuatorFactory, list);
         } catch (RuntimeException e) {
@@ -11,7 +11,9 @@ import smarthome.persistence.jpa.datamodel.DeviceDataModel;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Implementation of the DeviceRepository interface using Java Persistence API (JPA).
@@ -69,7 +71,7 @@ public class DeviceRepositoryJPA implements DeviceRepository {
     public Iterable<Device> findByRoomID(RoomIDVO roomID) {
         try (EntityManager em = this.entityManagerFactory.createEntityManager()) {
             TypedQuery<DeviceDataModel> query = em.createQuery("SELECT d FROM DeviceDataModel d WHERE d.roomID = :roomID", DeviceDataModel.class);
-            query.setParameter("roomID", roomID.getID());
+            query.setParameter("roomID", roomID.getUUID());
             List<DeviceDataModel> list = query.getResultList();
             return DeviceAssembler.toDomainList(deviceFactory, list);
         } catch (RuntimeException e) {
@@ -181,6 +183,29 @@ public class DeviceRepositoryJPA implements DeviceRepository {
         }
     }
 
+    /**
+     * Groups the devices by the types of their sensors and actuators, reading each side with a single join query
+     * ordered by type ID, then device name and device ID.
+     * @return Map of sensor or actuator type ID to the devices holding that type, null if any RunTimeException occurred.
+     */
+
+    @Override
+    public Map<String, List<Device>> findGroupedByFunctionality() {
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            List<Object[]> sensorRows = em.createQuery(
+                    "SELECT s.sensorTypeID, d FROM SensorDataModel s JOIN DeviceDataModel d ON d.deviceID = s.deviceID " +
+                            "ORDER BY s.sensorTypeID, d.deviceName, d.deviceID",
+                    Object[].class).getResultList();
+            List<Object[]> actuatorRows = em.createQuery(
+                    "SELECT a.actuatorTypeID, d FROM ActuatorDataModel a JOIN DeviceDataModel d ON d.deviceID = a.deviceID " +
+                            "ORDER BY a.actuatorTypeID, d.deviceName, d.deviceID",
+                    Object[].class).getResultList();
+            return DeviceAssembler.toDomainGroups(deviceFactory, sensorRows, actuatorRows);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
     /**
      * Retrieves a DeviceDataModel entity from the database by its ID.
      * @param em The EntityManager used to perform the database operation.
@@ -189,7 +214,7 @@ public class DeviceRepositoryJPA implements DeviceRepository {
      */
 
     private Optional<DeviceDataModel> getDeviceDataModelFromDeviceId(EntityManager em, DeviceIDVO id){
-        String deviceID = id.getID();
+        UUID deviceID = id.getUUID();
         return Optional.ofNullable(em.find(DeviceDataModel.class, deviceID));
     }
 
@@ -13,6 +13,7 @@ import smarthome.persistence.jpa.datamodel.HouseDataModel;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Implementation of the HouseRepository interface using Java Persistence API (JPA).
@@ -223,7 +224,7 @@ public class HouseRepositoryJPA implements HouseRepository {
      * @return An Optional containing the retrieved HouseDataModel entity, or empty if not found.
      */
     private Optional<HouseDataModel> getHouseDataModelFromHouseId(EntityManager em, HouseIDVO id){
-        String houseId = id.getID();
+        UUID houseId = id.getUUID();
         return Optional.ofNullable(em.find(HouseDataModel.class, houseId));
     }
 
@@ -0,0 +1,173 @@
+package smarthome.persistence.jpa.repository;
+
+import jakarta.persistence.EntityManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monthly range partitions of the LOG table, as created on MariaDB by db/migration/mariadb/log-monthly-partitions.sql.
+ * <p>
+ * The table is partitioned by RANGE COLUMNS(time): one partition per month, named pYYYYMM, holding the logs before the
+ * first day of the next month, followed by pmax holding every later log. Expired months are dropped as whole
+ * partitions, which frees their rows at once instead of deleting them one by one, and the months ahead are split off
+ * pmax while it is still empty, so adding a month never moves rows.
+ * </p>
+ * <p>
+ * On a database without partitions, such as H2 or a MariaDB database not migrated yet, {@link #isPartitioned} is false
+ * and the repositories delete the expired rows instead. The statements that change the partitions must run inside a
+ * transaction of the given EntityManager.
+ * </p>
+ */
+public final class LogPartitions {
+
+    private static final String OVERFLOW = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private LogPartitions() {
+    }
+
+    /**
+     * Tells whether the LOG table is partitioned by month.
+     *
+     * @param entityManager the EntityManager the database is queried with
+     * @return true if the table has its pmax partition
+     */
+    public static boolean isPartitioned(EntityManager entityManager) {
+        return partitionNames(entityManager).contains(OVERFLOW);
+    }
+
+    /**
+     * Drops the partitions of the months before the given one.
+     *
+     * @param entityManager  the EntityManager the statements are run with, inside a transaction
+     * @param oldestRetained the oldest month whose logs are kept
+     * @return the number of logs dropped
+     */
+    public static long dropBefore(EntityManager entityManager, YearMonth oldestRetained) {
+        List<String> expired = new ArrayList<>();
+        for (String name : partitionNames(entityManager)) {
+            YearMonth month = monthOf(name);
+            if (month != null && month.isBefore(oldestRetained)) {
+                expired.add(name);
+            }
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        String partitions = String.join(", ", expired);
+        Number count = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM LOG PARTITION (" + partitions + ")")
+                .getSingleResult();
+        entityManager.createNativeQuery("ALTER TABLE LOG DROP PARTITION " + partitions).executeUpdate();
+        return count.longValue();
+    }
+
+    /**
+     * Adds the partitions of the months up to the given one that do not have their own yet. The first time, when
+     * every log is still in pmax, the partitions start from the month of the oldest log, so the logs already stored
+     * are split into their months once.
+     *
+     * @param entityManager the EntityManager the statements are run with, inside a transaction
+     * @param from          the first month to add when the table has no monthly partition yet, usually the current one
+     * @param through       the last month to add
+     * @return the number of partitions added
+     */
+    public static int addThrough(EntityManager entityManager, YearMonth from, YearMonth through) {
+        List<String> names = partitionNames(entityManager);
+        if (!names.contains(OVERFLOW)) {
+            return 0;
+        }
+        YearMonth last = null;
+        for (String name : names) {
+            YearMonth month = monthOf(name);
+            if (month != null && (last == null || month.isAfter(last))) {
+                last = month;
+            }
+        }
+        YearMonth first = from;
+        if (last != null) {
+            first = last.plusMonths(1);
+        } else {
+            Object oldest = entityManager.createNativeQuery("SELECT MIN(time) FROM LOG PARTITION (" + OVERFLOW + ")")
+                    .getSingleResult();
+            LocalDateTime oldestTime = toLocalDateTime(oldest);
+            if (oldestTime != null && YearMonth.from(oldestTime).isBefore(first)) {
+                first = YearMonth.from(oldestTime);
+            }
+        }
+        if (first.isAfter(through)) {
+            return 0;
+        }
+        entityManager.createNativeQuery(splitOverflowStatement(first, through)).executeUpdate();
+        return (int) ChronoUnit.MONTHS.between(first, through) + 1;
+    }
+
+    /**
+     * Builds the statement moving the months of a period out of pmax, each into its own partition.
+     *
+     * @param first the first month of the period
+     * @param last  the last month of the period
+     * @return the ALTER TABLE statement
+     */
+    static String splitOverflowStatement(YearMonth first, YearMonth last) {
+        StringBuilder statement = new StringBuilder("ALTER TABLE LOG REORGANIZE PARTITION " + OVERFLOW + " INTO (");
+        for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+            statement.append("PARTITION ").append(partitionName(month))
+                    .append(" VALUES LESS THAN ('").append(month.plusMonths(1).atDay(1)).append(" 00:00:00'), ");
+        }
+        return statement.append("PARTITION ").append(OVERFLOW).append(" VALUES LESS THAN (MAXVALUE))").toString();
+    }
+
+    /**
+     * @param month the month
+     * @return the name of the partition of the month, such as p202401 for January 2024
+     */
+    static String partitionName(YearMonth month) {
+        return month.format(NAME_FORMAT);
+    }
+
+    /**
+     * @param partitionName the name of a partition
+     * @return the month of a monthly partition, or null for pmax or any other partition
+     */
+    static YearMonth monthOf(String partitionName) {
+        try {
+            return YearMonth.parse(partitionName, NAME_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lists the partitions of the LOG table, or nothing if the database has no partitions table.
+     */
+    private static List<String> partitionNames(EntityManager entityManager) {
+        Number tables = (Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                        "WHERE UPPER(TABLE_SCHEMA) = 'INFORMATION_SCHEMA' AND UPPER(TABLE_NAME) = 'PARTITIONS'")
+                .getSingleResult();
+        if (tables.intValue() == 0) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        for (Object name : entityManager.createNativeQuery("SELECT PARTITION_NAME FROM INFORMATION_SCHEMA.PARTITIONS " +
+                        "WHERE TABLE_SCHEMA = DATABASE() AND UPPER(TABLE_NAME) = 'LOG' AND PARTITION_NAME IS NOT NULL " +
+                        "ORDER BY PARTITION_ORDINAL_POSITION")
+                .getResultList()) {
+            names.add(name.toString());
+        }
+        return names;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return value instanceof LocalDateTime time ? time : null;
+    }
+}
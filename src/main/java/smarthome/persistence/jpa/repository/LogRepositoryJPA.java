@@ -3,26 +3,49 @@ package smarthome.persistence.jpa.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceException;
 import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.eclipse.persistence.jpa.JpaEntityManagerFactory;
 import smarthome.domain.log.Log;
 import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.ReadingAggregate;
 import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.LogIDVO;
 import smarthome.mapper.assembler.LogAssembler;
 import smarthome.persistence.LogRepository;
 import smarthome.persistence.jpa.datamodel.LogDataModel;
+import smarthome.persistence.jpa.datamodel.UUIDBinaryConverter;
 import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 public class LogRepositoryJPA implements LogRepository {
     private final LogFactory logFactory;
     private final SensorValueFactory sensorValueFactory;
     private final EntityManagerFactory entityManagerFactory;
     private static final String ERROR_MESSAGE = "Invalid parameters.";
+    private static final LocalDateTime EARLIEST_TIME = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private final int batchSize;
+    // Sorts before every log ID (the nil UUID is never generated), so a seek from it includes all logs at the seek time
+    private static final UUID LOWEST_ID = new UUID(0L, 0L);
     /**
      * Constructor for LogRepositoryJPA.
      *
@@ -31,9 +54,41 @@ public class LogRepositoryJPA implements LogRepository {
      * @param entityManagerFactory the factory used to create EntityManager instances for database interactions
      */
     public LogRepositoryJPA(LogFactory logFactory, SensorValueFactory sensorValueFactory, EntityManagerFactory entityManagerFactory) {
+        this(logFactory, sensorValueFactory, entityManagerFactory, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor for LogRepositoryJPA with a custom batch size for saveAll().
+     *
+     * @param logFactory the factory used to create Log domain objects
+     * @param sensorValueFactory the factory used to create SensorValue domain objects
+     * @param entityManagerFactory the factory used to create EntityManager instances for database interactions
+     * @param batchSize the number of logs written per transaction by saveAll(), also used as the JDBC batch size of
+     *                  an EclipseLink entityManagerFactory
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public LogRepositoryJPA(LogFactory logFactory, SensorValueFactory sensorValueFactory, EntityManagerFactory entityManagerFactory, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
         this.logFactory = logFactory;
         this.sensorValueFactory = sensorValueFactory;
         this.entityManagerFactory = entityManagerFactory;
+        this.batchSize = batchSize;
+        alignBatchWriting(entityManagerFactory, batchSize);
+    }
+
+    /**
+     * Has EclipseLink send the inserts of a saveAll() transaction in JDBC batches of batchSize statements, so that the
+     * batch size set for the repository is the one that reaches the database. Other providers are left as they are.
+     *
+     * @param entityManagerFactory the factory the repository works with
+     * @param batchSize            the number of logs written per transaction
+     */
+    private static void alignBatchWriting(EntityManagerFactory entityManagerFactory, int batchSize) {
+        if (entityManagerFactory instanceof JpaEntityManagerFactory eclipseLink) {
+            eclipseLink.getServerSession().getPlatform().setMaxBatchWritingSize(batchSize);
+        }
     }
 
     /**
@@ -60,6 +115,222 @@ public class LogRepositoryJPA implements LogRepository {
         }
     }
 
+    /**
+     * Saves several logs to the database, batchSize logs per transaction, reusing one EntityManager.
+     * Logs whose ID is already stored, or repeated earlier in the list, are skipped and reported as not saved.
+     * If a batch still fails to commit, it is rolled back and its logs are saved one by one, so a single bad log
+     * only costs its own batch the fast path.
+     *
+     * @param logs the logs to be saved
+     * @return one result per log, in the same order: true if the log was saved, false otherwise
+     * @throws IllegalArgumentException if the list or any of its logs is null
+     */
+    @Override
+    public List<Boolean> saveAll(List<Log> logs) {
+        if (logs == null || logs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Boolean> results = new ArrayList<>(Collections.nCopies(logs.size(), false));
+        Set<UUID> seenIDs = new HashSet<>();
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            for (int start = 0; start < logs.size(); start += batchSize) {
+                List<Log> batch = logs.subList(start, Math.min(start + batchSize, logs.size()));
+                saveBatch(em, batch, start, seenIDs, results);
+            }
+        } catch (RuntimeException e) {
+            // Logs not yet written keep their false result
+        }
+        return results;
+    }
+
+    /**
+     * Writes one batch of logs in a single transaction and records which of them were saved.
+     *
+     * @param em the EntityManager instance used to interact with the database
+     * @param batch the logs of the batch
+     * @param offset the position of the first log of the batch in the full list
+     * @param seenIDs the IDs of the logs already handled, updated with the IDs of this batch
+     * @param results the results of the full list, updated for the logs of this batch
+     */
+    private void saveBatch(EntityManager em, List<Log> batch, int offset, Set<UUID> seenIDs, List<Boolean> results) {
+        List<UUID> ids = new ArrayList<>(batch.size());
+        for (Log log : batch) {
+            ids.add(((LogIDVO) log.getId()).getUUID());
+        }
+        TypedQuery<UUID> query = em.createQuery("SELECT r.logID FROM LogDataModel r WHERE r.logID IN :ids", UUID.class);
+        query.setParameter("ids", ids);
+        seenIDs.addAll(query.getResultList());
+
+        List<Integer> pending = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (seenIDs.add(ids.get(i))) {
+                pending.add(i);
+            }
+        }
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            for (int i : pending) {
+                em.persist(new LogDataModel(batch.get(i)));
+            }
+            tx.commit();
+            for (int i : pending) {
+                results.set(offset + i, true);
+            }
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            em.clear();
+            for (int i : pending) {
+                results.set(offset + i, save(batch.get(i)));
+            }
+        }
+        em.clear();
+    }
+
+    /**
+     * Deletes the logs of the monthly partitions older than the given month. On a table partitioned by month (see
+     * {@link LogPartitions}) the expired partitions are dropped whole. Otherwise the expired logs are found through the
+     * time index and deleted batchSize logs per transaction, so the purge never holds a long transaction or a large
+     * set of locks, and a failure only loses the current batch, which the next purge deletes again.
+     *
+     * @param oldestRetained the oldest month whose logs are kept
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the month is null
+     */
+    @Override
+    public long deletePartitionsBefore(YearMonth oldestRetained) {
+        if (oldestRetained == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        long deleted = 0;
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            if (LogPartitions.isPartitioned(em)) {
+                return dropPartitionsBefore(em, oldestRetained);
+            }
+            TypedQuery<UUID> expired = em.createQuery(
+                    "SELECT r.logID FROM LogDataModel r WHERE r.time < :before", UUID.class);
+            expired.setParameter("before", oldestRetained.atDay(1).atStartOfDay());
+            expired.setMaxResults(batchSize);
+            List<UUID> ids = expired.getResultList();
+            while (!ids.isEmpty()) {
+                EntityTransaction tx = em.getTransaction();
+                try {
+                    tx.begin();
+                    Query delete = em.createQuery("DELETE FROM LogDataModel r WHERE r.logID IN :ids");
+                    delete.setParameter("ids", ids);
+                    deleted += delete.executeUpdate();
+                    tx.commit();
+                } catch (RuntimeException e) {
+                    if (tx.isActive()) {
+                        tx.rollback();
+                    }
+                    return deleted;
+                }
+                em.clear();
+                ids = expired.getResultList();
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the logs with the given IDs, batchSize logs per transaction, each batch with a single statement. A
+     * failure stops the deletion; the logs of the failed and following batches stay stored.
+     *
+     * @param ids the IDs of the logs to delete
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     */
+    @Override
+    public long deleteByIds(Collection<LogIDVO> ids) {
+        if (ids == null || ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<UUID> uuids = ids.stream().map(LogIDVO::getUUID).toList();
+        long deleted = 0;
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            Query delete = em.createQuery("DELETE FROM LogDataModel r WHERE r.logID IN :ids");
+            for (int from = 0; from < uuids.size(); from += batchSize) {
+                EntityTransaction tx = em.getTransaction();
+                try {
+                    tx.begin();
+                    delete.setParameter("ids", uuids.subList(from, Math.min(from + batchSize, uuids.size())));
+                    deleted += delete.executeUpdate();
+                    tx.commit();
+                } catch (RuntimeException e) {
+                    if (tx.isActive()) {
+                        tx.rollback();
+                    }
+                    return deleted;
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Drops the partitions of the months before the given one in a transaction.
+     *
+     * @return the number of logs dropped, or 0 if they could not be dropped, in which case the next purge retries
+     */
+    private static long dropPartitionsBefore(EntityManager em, YearMonth oldestRetained) {
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            long dropped = LogPartitions.dropBefore(em, oldestRetained);
+            tx.commit();
+            return dropped;
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Streams the logs of the monthly partitions older than the given month, ordered by time and log ID.
+     * Logs are read in pages of a fixed size, each page resuming after the (time, logID) of the last row read, and
+     * the persistence context is cleared between pages. A failing query is thrown to the caller.
+     *
+     * @param month  the month before which logs are streamed
+     * @param action the action applied to each log
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public void streamReadingsBefore(YearMonth month, Consumer<Log> action) {
+        if (month == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        LocalDateTime seekTime = EARLIEST_TIME;
+        UUID seekID = LOWEST_ID;
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            TypedQuery<LogDataModel> query = em.createQuery(
+                    "SELECT r FROM LogDataModel r WHERE r.time < :before " +
+                            "AND r.time >= :seekTime AND (r.time > :seekTime OR r.logID > :seekID) " +
+                            "ORDER BY r.time, r.logID", LogDataModel.class);
+            query.setParameter("before", month.atDay(1).atStartOfDay());
+            query.setMaxResults(STREAM_CHUNK_SIZE);
+            List<LogDataModel> page;
+            do {
+                query.setParameter("seekTime", seekTime);
+                query.setParameter("seekID", seekID);
+                page = query.getResultList();
+                for (LogDataModel dataModel : page) {
+                    action.accept(LogAssembler.toDomain(logFactory, sensorValueFactory, dataModel));
+                }
+                if (!page.isEmpty()) {
+                    LogDataModel last = page.get(page.size() - 1);
+                    seekTime = last.getTime();
+                    seekID = last.getLogID();
+                }
+                em.clear();
+            } while (page.size() == STREAM_CHUNK_SIZE);
+        }
+    }
+
     /**
      * Checks if a log with the given ID is present in the database.
      *
@@ -126,12 +397,13 @@ public class LogRepositoryJPA implements LogRepository {
      * @return the retrieved log, or null if no log with the given ID was found
      */
     private Optional<LogDataModel> getDataModelFromId(EntityManager em, LogIDVO logIDVO) {
-        return Optional.ofNullable(em.find(LogDataModel.class, logIDVO.getID()));
+        return Optional.ofNullable(em.find(LogDataModel.class, logIDVO.getUUID()));
     }
 
 
     /**
-     * Retrieves all logs associated with a specific device within a given time period.
+     * Retrieves all logs associated with a specific device within a given time period, ordered by time.
+     * If both time stamps are null, all logs of the device are retrieved.
      *
      * @param deviceID the ID of the device
      * @param from     the start of the time period
@@ -146,13 +418,116 @@ public class LogRepositoryJPA implements LogRepository {
         }
         try (EntityManager em = entityManagerFactory.createEntityManager()) {
 
-            Query query = em.createQuery("SELECT r FROM LogDataModel r WHERE r.deviceID = :deviceID AND " +
-                    "(:from IS NULL OR r.time >= :from) AND (:to IS NULL OR r.time <= :to)");
+            Query query;
+            if (from == null && to == null) {
+                query = em.createQuery("SELECT r FROM LogDataModel r WHERE r.deviceID = :deviceID ORDER BY r.time");
+            } else {
+                // A missing bound is replaced by the earliest or latest time, keeping the query a plain range
+                query = em.createQuery("SELECT r FROM LogDataModel r WHERE r.deviceID = :deviceID AND " +
+                        "r.time BETWEEN :from AND :to ORDER BY r.time");
+                query.setParameter("from", from != null ? from.getValue() : EARLIEST_TIME);
+                query.setParameter("to", to != null ? to.getValue() : LATEST_TIME);
+            }
+            query.setParameter("deviceID", deviceID.getUUID());
+
+            List<LogDataModel> listOfLogs = query.getResultList();
+            return LogAssembler.toDomain(logFactory, sensorValueFactory, listOfLogs);
+        } catch (RuntimeException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Streams the logs of a specific device within a given time period, ordered by time.
+     * Logs are read in pages of a fixed size, each page resuming after the (time, logID) of the last row read, and
+     * the persistence context is cleared between pages, so memory use stays flat regardless of the result size.
+     * A missing bound is replaced by the earliest or latest time.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param action   the action applied to each log
+     * @throws IllegalArgumentException if the deviceID or the action are null
+     * @throws PersistenceException     if a query fails, possibly after some logs were handed to the action
+     */
+    @Override
+    public void streamReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, Consumer<Log> action) {
+        if (deviceID == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        LocalDateTime seekTime = from != null ? from.getValue() : EARLIEST_TIME;
+        UUID seekID = LOWEST_ID;
+        LocalDateTime toValue = to != null ? to.getValue() : LATEST_TIME;
+
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            List<LogDataModel> page;
+            do {
+                page = findPage(em, deviceID.getUUID(), seekTime, seekID, toValue, STREAM_CHUNK_SIZE);
+                for (LogDataModel dataModel : page) {
+                    action.accept(LogAssembler.toDomain(logFactory, sensorValueFactory, dataModel));
+                }
+                if (!page.isEmpty()) {
+                    LogDataModel last = page.get(page.size() - 1);
+                    seekTime = last.getTime();
+                    seekID = last.getLogID();
+                }
+                em.clear();
+            } while (page.size() == STREAM_CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Retrieves a page of the logs of a specific device within a given time period, ordered by time and log ID.
+     * The page starts right after the cursor, or at the start of the time period if the cursor is null or points
+     * before it. A missing bound is replaced by the earliest or latest time.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param after    the cursor of the last log of the previous page, or null for the first page
+     * @param limit    the maximum number of logs in the page
+     * @return an Iterable of at most limit logs, or an empty list if an error occurs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findReadingsPageByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, LogCursorVO after, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        LocalDateTime seekTime = from != null ? from.getValue() : EARLIEST_TIME;
+        UUID seekID = LOWEST_ID;
+        if (after != null && !after.getTime().getValue().isBefore(seekTime)) {
+            seekTime = after.getTime().getValue();
+            seekID = after.getLogID().getUUID();
+        }
+        LocalDateTime toValue = to != null ? to.getValue() : LATEST_TIME;
 
-            query.setParameter("deviceID", deviceID);
-            query.setParameter("from", from);
-            query.setParameter("to", to);
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            List<LogDataModel> page = findPage(em, deviceID.getUUID(), seekTime, seekID, toValue, limit);
+            return LogAssembler.toDomain(logFactory, sensorValueFactory, page);
+        } catch (RuntimeException e) {
+            return Collections.emptyList();
+        }
+    }
 
+    /**
+     * Retrieves the newest logs of a specific device, newest first.
+     *
+     * @param deviceID the ID of the device
+     * @param limit    the maximum number of logs to retrieve
+     * @return an Iterable of at most limit logs, or an empty list if an error occurs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findLatestReadingsByDeviceID(DeviceIDVO deviceID, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            TypedQuery<LogDataModel> query = em.createQuery("SELECT r FROM LogDataModel r WHERE r.deviceID = :deviceID " +
+                    "ORDER BY r.time DESC, r.logID DESC", LogDataModel.class);
+            query.setParameter("deviceID", deviceID.getUUID());
+            query.setMaxResults(limit);
             List<LogDataModel> listOfLogs = query.getResultList();
             return LogAssembler.toDomain(logFactory, sensorValueFactory, listOfLogs);
         } catch (RuntimeException e) {
@@ -160,11 +535,36 @@ public class LogRepositoryJPA implements LogRepository {
         }
     }
 
+    /**
+     * Retrieves a page of the logs of a device, ordered by time and log ID, starting right after the given
+     * (time, log ID) position. The seek time is also the lower bound of the range, so the query seeks the
+     * (device, time, id) index instead of skipping rows.
+     *
+     * @param em the EntityManager instance used to interact with the database
+     * @param deviceID the ID of the device
+     * @param seekTime the time of the last log already read
+     * @param seekID the ID of the last log already read; logs at seekTime are only returned if their ID is greater
+     * @param to the end of the time period
+     * @param limit the maximum number of logs in the page
+     * @return a list of at most limit data models
+     */
+    private List<LogDataModel> findPage(EntityManager em, UUID deviceID, LocalDateTime seekTime, UUID seekID, LocalDateTime to, int limit) {
+        TypedQuery<LogDataModel> query = em.createQuery("SELECT r FROM LogDataModel r WHERE r.deviceID = :deviceID AND " +
+                "r.time >= :seekTime AND r.time <= :to AND (r.time > :seekTime OR r.logID > :seekID) " +
+                "ORDER BY r.time, r.logID", LogDataModel.class);
+        query.setParameter("deviceID", deviceID);
+        query.setParameter("seekTime", seekTime);
+        query.setParameter("seekID", seekID);
+        query.setParameter("to", to);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
     /**
      * Retrieves all Log objects from the database that fall within the specified time range and are associated with
      * the specified device and sensor type.
      * This method queries the database for LogDataModel objects that match the specified device ID, sensor type, and
-     * time range. It uses the setParameter() method to set the named parameters in the query.
+     * time range. It uses the setParameter() method to set the named parameters in the query. Results are ordered by time.
      * It then converts the LogDataModel objects to Log objects using LogAssembler and returns the result.
      * If a RuntimeException occurs, it returns an empty list.
      * If any of the input parameters are null, it throws an IllegalArgumentException.
@@ -182,8 +582,8 @@ public class LogRepositoryJPA implements LogRepository {
         }
 
         try (EntityManager em = entityManagerFactory.createEntityManager()) {
-            Query query = em.createQuery("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID AND l.sensorTypeID = :sensorTypeID AND l.time BETWEEN :start AND :end");
-            query.setParameter("deviceID", deviceID.getID());
+            Query query = em.createQuery("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID AND l.sensorTypeID = :sensorTypeID AND l.time BETWEEN :start AND :end ORDER BY l.time");
+            query.setParameter("deviceID", deviceID.getUUID());
             query.setParameter("sensorTypeID", sensorType);
             query.setParameter("start", start.getValue());
             query.setParameter("end", end.getValue());
@@ -198,7 +598,7 @@ public class LogRepositoryJPA implements LogRepository {
     /**
      * Finds and retrieves logs from the database for a specific device and sensor type within a given time range.
      * This method performs validation on the input parameters to ensure they are not null. It uses an EntityManager
-     * to execute a query that selects logs matching the specified device ID, sensor type, and time range.
+     * to execute a query that selects logs matching the specified device ID, sensor type, and time range, ordered by time.
      * If any parameter is invalid or if an error occurs during query execution, an empty list is returned.
      *
      * @param deviceID the ID of the device to filter logs.
@@ -214,8 +614,8 @@ public class LogRepositoryJPA implements LogRepository {
         }
 
         try (EntityManager em = entityManagerFactory.createEntityManager()) {
-            Query query = em.createQuery("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID AND l.sensorTypeID = :sensorTypeID AND l.time BETWEEN :start AND :end");
-            query.setParameter("deviceID", deviceID);
+            Query query = em.createQuery("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID AND l.sensorTypeID = :sensorTypeID AND l.time BETWEEN :start AND :end ORDER BY l.time");
+            query.setParameter("deviceID", UUIDBinaryConverter.fromText(deviceID));
             query.setParameter("sensorTypeID", sensorType);
             query.setParameter("start", start.getValue());
             query.setParameter("end", end.getValue());
@@ -251,13 +651,13 @@ public class LogRepositoryJPA implements LogRepository {
                             "WHERE l.deviceID != :excludeDeviceID " +
                             "AND l.sensorTypeID = :sensorTypeID " +
                             "AND l.time BETWEEN :start AND :end " +
-                            "AND l.reading LIKE :negativeSign"  // Check if the reading contains the minus sign
+                            "AND l.readingNumeric < 0 " +  // Check if the numeric reading is negative
+                            "ORDER BY l.time"
             );
-            query.setParameter("excludeDeviceID", excludeDeviceID);
+            query.setParameter("excludeDeviceID", UUIDBinaryConverter.fromText(excludeDeviceID));
             query.setParameter("sensorTypeID", sensorType);
             query.setParameter("start", start.getValue());
             query.setParameter("end", end.getValue());
-            query.setParameter("negativeSign", "%-%");  // Pattern to match any string containing '-'
             List<LogDataModel> listOfLogs = query.getResultList();
             return LogAssembler.toDomain(logFactory, sensorValueFactory, listOfLogs);
         } catch (RuntimeException e) {
@@ -265,6 +665,83 @@ public class LogRepositoryJPA implements LogRepository {
         }
     }
 
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period whose numeric
+     * reading lies within a range, ordered by time. The reading range is evaluated by the database on the numeric
+     * reading column.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (inclusive)
+     * @param min          the smallest reading wanted (inclusive)
+     * @param max          the largest reading wanted (inclusive)
+     * @return an Iterable of logs that match the given criteria, or an empty list if an error occurs
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndReadingBetween(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end, double min, double max) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
 
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            TypedQuery<LogDataModel> query = em.createQuery(
+                    "SELECT l FROM LogDataModel l " +
+                            "WHERE l.deviceID = :deviceID " +
+                            "AND l.sensorTypeID = :sensorTypeID " +
+                            "AND l.time BETWEEN :start AND :end " +
+                            "AND l.readingNumeric BETWEEN :min AND :max " +
+                            "ORDER BY l.time", LogDataModel.class);
+            query.setParameter("deviceID", deviceID.getUUID());
+            query.setParameter("sensorTypeID", sensorTypeID.getID());
+            query.setParameter("start", start.getValue());
+            query.setParameter("end", end.getValue());
+            query.setParameter("min", min);
+            query.setParameter("max", max);
+            return LogAssembler.toDomain(logFactory, sensorValueFactory, query.getResultList());
+        } catch (RuntimeException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Aggregates the numeric readings of a given sensor type for a specific device within a given time period. The
+     * count, sum, minimum and maximum are computed by the database, so no reading is transferred.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (exclusive)
+     * @return the aggregate of the readings over the period, or null if an error occurs
+     * @throws IllegalArgumentException if any of the parameters are null, or end is before start
+     */
+    @Override
+    public ReadingAggregate aggregateReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null || end.getValue().isBefore(start.getValue())) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
 
-}
\ No newline at end of file
+        try (EntityManager em = entityManagerFactory.createEntityManager()) {
+            TypedQuery<Object[]> query = em.createQuery(
+                    "SELECT COUNT(l.readingNumeric), SUM(l.readingNumeric), MIN(l.readingNumeric), MAX(l.readingNumeric) " +
+                            "FROM LogDataModel l " +
+                            "WHERE l.deviceID = :deviceID " +
+                            "AND l.sensorTypeID = :sensorTypeID " +
+                            "AND l.time >= :start AND l.time < :end", Object[].class);
+            query.setParameter("deviceID", deviceID.getUUID());
+            query.setParameter("sensorTypeID", sensorTypeID.getID());
+            query.setParameter("start", start.getValue());
+            query.setParameter("end", end.getValue());
+            Object[] row = query.getSingleResult();
+            long count = ((Number) row[0]).longValue();
+            if (count == 0) {
+                return ReadingAggregate.empty(start, end);
+            }
+            return new ReadingAggregate(start, end, count, ((Number) row[1]).doubleValue(),
+                    ((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import smarthome.persistence.jpa.datamodel.RoomDataModel;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * RoomRepositoryJPA is a class that implements the RoomRepository interface.
@@ -163,9 +164,9 @@ public class RoomRepositoryJPA implements RoomRepository {
     /**
      * Private method to get a RoomDataModel object from the database by its ID. It returns an Optional of RoomDataModel object.
      * This method is used by the findById() method to retrieve a RoomDataModel object from the database.
-     * First it gets an ID string by calling the getID() method on the RoomIDVO object.
+     * First it gets the ID UUID by calling the getUUID() method on the RoomIDVO object.
      * Then t returns an Optional of RoomDataModel object by calling the find() method on the EntityManager with the
-     * RoomDataModel class and the ID string as parameters.
+     * RoomDataModel class and the ID UUID as parameters.
      * If the RoomDataModel object is present, it returns the RoomDataModel object, and null otherwise.
      *
      * @param entityManager
@@ -174,7 +175,7 @@ public class RoomRepositoryJPA implements RoomRepository {
      */
 
     private Optional<RoomDataModel> getDataModelFromId(EntityManager entityManager, RoomIDVO roomIDVO) {
-        String roomId = roomIDVO.getID();
+        UUID roomId = roomIDVO.getUUID();
         return Optional.ofNullable(entityManager.find(RoomDataModel.class, roomId));
     }
 }
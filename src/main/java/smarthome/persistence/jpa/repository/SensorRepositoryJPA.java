@@ -16,6 +16,7 @@ import smarthome.persistence.jpa.datamodel.SensorDataModel;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 public class SensorRepositoryJPA implements SensorRepository {
 
@@ -153,7 +154,7 @@ public class SensorRepositoryJPA implements SensorRepository {
 
     /**
      * Method to get a SensorDataModel object from the database by its ID. It returns an Optional of SensorDataModel.
-     * First, it gets a SensorDataModel object by calling find() on the EntityManager with the String Sensor ID as a parameter.
+     * First, it gets a SensorDataModel object by calling find() on the EntityManager with the Sensor ID UUID as a parameter.
      * Then it returns an Optional of the SensorDataModel object.
      *
      * @param entityManager The EntityManager object.
@@ -161,7 +162,7 @@ public class SensorRepositoryJPA implements SensorRepository {
      * @return An Optional of SensorDataModel.
      */
     private Optional<SensorDataModel> getSensorDataModelFromSensorId(EntityManager entityManager, SensorIDVO sensorIDVO) {
-        String sensorID = sensorIDVO.getID();
+        UUID sensorID = sensorIDVO.getUUID();
         return Optional.ofNullable(entityManager.find(SensorDataModel.class, sensorID));
     }
 
@@ -169,7 +170,7 @@ public class SensorRepositoryJPA implements SensorRepository {
     public Iterable<Sensor> findByDeviceID(DeviceIDVO deviceID) {
         try (EntityManager em = this.entityManagerFactory.createEntityManager()) {
             TypedQuery<SensorDataModel> query = em.createQuery("SELECT a FROM SensorDataModel a WHERE a.deviceID = :deviceID", SensorDataModel.class);
-            query.setParameter("deviceID", deviceID.getID());
+            query.setParameter("deviceID", deviceID.getUUID());
             List<SensorDataModel> list = query.getResultList();
             return SensorAssembler.toDomain(sensorFactory, list);
         } catch (RuntimeException e) {
@@ -6,27 +6,53 @@ import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.persistence.ActuatorRepository;
 
 import java.util.*;
-import java.util.stream.Collectors;
-
-
 
+/**
+ * In-memory ActuatorRepository, safe to use from concurrent request threads. Lookups by ID take no lock, and every
+ * collection returned is a snapshot that later writes do not change.
+ */
 public class ActuatorRepositoryMem implements ActuatorRepository {
 
-    private final LinkedHashMap<ActuatorIDVO, Actuator> actuatorMap = new LinkedHashMap<>();
+    private final ConcurrentEntityStore<ActuatorIDVO, Actuator> actuatorMap = new ConcurrentEntityStore<>();
+    private final SecondaryIndex<DeviceIDVO, ActuatorIDVO, Actuator> deviceIndex = new SecondaryIndex<>();
 
     /**
      * Saves a new actuator in the repository.
      * This method is mandatory, implemented from Repository interface.
      * @param actuator Actuator to be saved
-     * @return True if actuator is valid and does not already exist in the repository
+     * @return True if actuator and its ID are not null and it does not already exist in the repository
      */
     @Override
     public boolean save(Actuator actuator) {
-        if(validActuator(actuator)){
-            this.actuatorMap.put((ActuatorIDVO) actuator.getId(), actuator);
-            return true;
+        if(actuator == null){
+            return false;
         }
-        return false;
+        ActuatorIDVO actuatorID = (ActuatorIDVO) actuator.getId();
+        return this.actuatorMap.insert(actuatorID, actuator,
+                saved -> this.deviceIndex.put(saved.getDeviceID(), actuatorID, saved));
+    }
+
+    /**
+     * Saves several actuators, replacing the ones already stored with the same ID and moving them to the index of
+     * their device.
+     * @param actuators Actuators to be saved
+     * @return One result per actuator, in the same order: true if the actuator and its ID are not null
+     * @throws IllegalArgumentException if the list or any of its actuators is null
+     */
+    @Override
+    public List<Boolean> saveAll(List<Actuator> actuators) {
+        if (actuators == null || actuators.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Actuator is null");
+        }
+        List<Boolean> results = new ArrayList<>(actuators.size());
+        for (Actuator actuator : actuators) {
+            ActuatorIDVO actuatorID = (ActuatorIDVO) actuator.getId();
+            results.add(this.actuatorMap.upsert(actuatorID, actuator, (previous, saved) -> {
+                DeviceIDVO previousDeviceID = previous == null ? null : previous.getDeviceID();
+                this.deviceIndex.replace(previousDeviceID, saved.getDeviceID(), actuatorID, saved);
+            }));
+        }
+        return results;
     }
 
     /**
@@ -58,29 +84,16 @@ public class ActuatorRepositoryMem implements ActuatorRepository {
      */
     @Override
     public boolean isPresent(ActuatorIDVO id) {
-        return actuatorMap.containsKey(id);
-    }
-
-    /**
-     * Verifies if Actuator is valid to be previously saved.
-     * @param actuator Actuator to verify
-     * @return True if Actuator is not null and if it is not already stored in the repository
-     */
-    private boolean validActuator(Actuator actuator){
-        if(actuator == null)
-            return false;
-        return !isPresent((ActuatorIDVO) actuator.getId());
+        return actuatorMap.contains(id);
     }
 
     /**
-     * Finds all actuators in a device by its device ID.
+     * Finds all actuators in a device by its device ID, reading the device index instead of scanning every actuator.
      *
      * @param deviceID Device ID
      * @return Iterable of Actuators
      */
     public List<Actuator> findByDeviceID(DeviceIDVO deviceID) {
-        return actuatorMap.values().stream()
-                .filter(actuator -> deviceID.equals(actuator.getDeviceID()))
-                .collect(Collectors.toList());
+        return actuatorMap.read(() -> deviceIndex.get(deviceID));
     }
 }
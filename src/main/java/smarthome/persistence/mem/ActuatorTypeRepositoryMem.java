@@ -4,20 +4,19 @@ import smarthome.domain.actuatortype.ActuatorType;
 import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
 import smarthome.persistence.ActuatorTypeRepository;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
+/**
+ * In-memory ActuatorTypeRepository, safe to use from concurrent request threads. findAll() returns a snapshot that
+ * later saves do not change.
+ */
 public class ActuatorTypeRepositoryMem implements ActuatorTypeRepository {
-    private final Map<ActuatorTypeIDVO, ActuatorType> actuatorTypes = new LinkedHashMap<>();
+    private final ConcurrentEntityStore<ActuatorTypeIDVO, ActuatorType> actuatorTypes = new ConcurrentEntityStore<>();
 
     @Override
     public boolean save(ActuatorType entity) {
-        if (entity == null || entity.getId() == null || actuatorTypes.containsKey(entity.getId())) {
+        if (entity == null) {
             return false;
-        } else {
-            actuatorTypes.put(entity.getId(), entity);
-            return true;
         }
+        return actuatorTypes.insert(entity.getId(), entity);
     }
 
     @Override
@@ -32,6 +31,6 @@ public class ActuatorTypeRepositoryMem implements ActuatorTypeRepository {
 
     @Override
     public boolean isPresent(ActuatorTypeIDVO id) {
-        return actuatorTypes.containsKey(id);
+        return actuatorTypes.contains(id);
     }
 }
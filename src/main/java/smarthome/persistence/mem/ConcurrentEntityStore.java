@@ -0,0 +1,158 @@
+package smarthome.persistence.mem;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The entities of an in-memory repository, safe to use from concurrent request threads.
+ * <p>
+ * Lookups by ID read a ConcurrentHashMap without taking any lock. The insertion order the repositories expose, and the
+ * secondary indexes kept by each repository, are held next to it and guarded by a read-write lock: writers take the
+ * write lock to update the entities, their order and the indexes in one step, so readers holding the read lock never
+ * see one without the other. Everything handed out to callers is a copy taken under the read lock, so iterating it
+ * cannot fail with a ConcurrentModificationException, however many writes happen meanwhile.
+ * </p>
+ * <p>
+ * Null IDs are never stored: they are not present, and nothing is found for them.
+ * </p>
+ *
+ * @param <ID> the type of the entity IDs
+ * @param <T>  the type of the entities
+ */
+final class ConcurrentEntityStore<ID, T> {
+
+    private final ConcurrentHashMap<ID, T> byID = new ConcurrentHashMap<>();
+    private final LinkedHashMap<ID, T> ordered = new LinkedHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Stores an entity if there is none with the same ID.
+     *
+     * @param id     the ID of the entity
+     * @param entity the entity
+     * @return true if the entity was stored, false if the ID is null or already present
+     */
+    boolean insert(ID id, T entity) {
+        return insert(id, entity, stored -> { });
+    }
+
+    /**
+     * Stores an entity if there is none with the same ID.
+     *
+     * @param id       the ID of the entity
+     * @param entity   the entity
+     * @param onInsert updates the secondary indexes with the entity, under the write lock, once it is stored
+     * @return true if the entity was stored, false if the ID is null or already present
+     */
+    boolean insert(ID id, T entity, Consumer<T> onInsert) {
+        if (id == null || entity == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (byID.putIfAbsent(id, entity) != null) {
+                return false;
+            }
+            ordered.put(id, entity);
+            onInsert.accept(entity);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stores an entity, replacing in place the one with the same ID if there is one.
+     *
+     * @param id     the ID of the entity
+     * @param entity the entity
+     * @return true if the entity was stored, false if the ID is null
+     */
+    boolean upsert(ID id, T entity) {
+        return upsert(id, entity, (previous, stored) -> { });
+    }
+
+    /**
+     * Stores an entity, replacing in place the one with the same ID if there is one.
+     *
+     * @param id        the ID of the entity
+     * @param entity    the entity
+     * @param onReplace updates the secondary indexes, under the write lock, with the replaced entity (null if there
+     *                  was none) and the new one
+     * @return true if the entity was stored, false if the ID is null
+     */
+    boolean upsert(ID id, T entity, BiConsumer<T, T> onReplace) {
+        if (id == null || entity == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            T previous = byID.put(id, entity);
+            ordered.put(id, entity);
+            onReplace.accept(previous, entity);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds an entity by its ID, without locking.
+     *
+     * @param id the ID of the entity
+     * @return the entity, or null if there is none
+     */
+    T get(ID id) {
+        return id == null ? null : byID.get(id);
+    }
+
+    /**
+     * Verifies if there is an entity with the given ID, without locking.
+     *
+     * @param id the ID of the entity
+     * @return true if there is one, false otherwise
+     */
+    boolean contains(ID id) {
+        return id != null && byID.containsKey(id);
+    }
+
+    /**
+     * @return a copy of the entities, in the order they were first stored
+     */
+    List<T> values() {
+        return read(() -> new ArrayList<>(ordered.values()));
+    }
+
+    /**
+     * @return the first ID stored, or null if there is none
+     */
+    ID firstID() {
+        return read(() -> {
+            Iterator<ID> iterator = ordered.keySet().iterator();
+            return iterator.hasNext() ? iterator.next() : null;
+        });
+    }
+
+    /**
+     * Runs a read of the secondary indexes under the read lock, so it sees every write made so far as a whole. The
+     * reader must copy what it returns.
+     *
+     * @param reader the read to run
+     * @return the result of the read
+     */
+    <R> R read(Supplier<R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -1,17 +1,49 @@
 package smarthome.persistence.mem;
 
+import smarthome.domain.actuator.Actuator;
 import smarthome.domain.device.Device;
+import smarthome.domain.sensor.Sensor;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.DeviceRepository;
+import smarthome.persistence.SensorRepository;
 
 import java.util.*;
-import java.util.stream.Collectors;
-
 
+/**
+ * In-memory DeviceRepository, safe to use from concurrent request threads. Lookups by ID take no lock, and every
+ * collection returned is a snapshot that later writes do not change.
+ */
 public class DeviceRepositoryMem implements DeviceRepository {
 
-    private final LinkedHashMap<DeviceIDVO, Device> data = new LinkedHashMap<>();
+    private final ConcurrentEntityStore<DeviceIDVO, Device> data = new ConcurrentEntityStore<>();
+    private final SecondaryIndex<RoomIDVO, DeviceIDVO, Device> roomIndex = new SecondaryIndex<>();
+    private final SensorRepository sensorRepository;
+    private final ActuatorRepository actuatorRepository;
+
+    /**
+     * Creates a repository that is not aware of the sensors and actuators of its devices, so it cannot group them by
+     * functionality: {@link #findGroupedByFunctionality()} returns null, as when the devices cannot be read.
+     */
+    public DeviceRepositoryMem() {
+        this.sensorRepository = null;
+        this.actuatorRepository = null;
+    }
+
+    /**
+     * Creates a repository that groups its devices by the sensors and actuators held in the given repositories.
+     *
+     * @param sensorRepository   SensorRepository holding the sensors of the devices
+     * @param actuatorRepository ActuatorRepository holding the actuators of the devices
+     */
+    public DeviceRepositoryMem(SensorRepository sensorRepository, ActuatorRepository actuatorRepository) {
+        if (sensorRepository == null || actuatorRepository == null) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.sensorRepository = sensorRepository;
+        this.actuatorRepository = actuatorRepository;
+    }
 
     /**
      * Saves an entity onto the repository;
@@ -21,11 +53,10 @@ public class DeviceRepositoryMem implements DeviceRepository {
      */
     @Override
     public boolean save(Device entity) {
-        if (!validateEntity(entity) || data.containsKey(entity.getId())){
+        if (!validateEntity(entity)){
             return false;
         }
-        data.put(entity.getId(), entity);
-        return true;
+        return data.insert(entity.getId(), entity, device -> roomIndex.put(device.getRoomID(), device.getId(), device));
     }
 
     /**
@@ -41,7 +72,7 @@ public class DeviceRepositoryMem implements DeviceRepository {
     /**
      * Finds all entities saved onto the repository;
      *
-     * @return Iterable.
+     * @return Iterable with a snapshot of the entities, in the order they were saved.
      */
     @Override
     public Iterable<Device> findAll() {
@@ -56,11 +87,7 @@ public class DeviceRepositoryMem implements DeviceRepository {
      */
     @Override
     public Device findById(DeviceIDVO id) {
-        if (!isPresent(id)) {
-            return null;
-        } else {
-            return data.get(id);
-        }
+        return data.get(id);
     }
 
     /**
@@ -71,26 +98,74 @@ public class DeviceRepositoryMem implements DeviceRepository {
      */
     @Override
     public boolean isPresent(DeviceIDVO id) {
-        return data.containsKey(id);
+        return data.contains(id);
     }
 
     /**
-     * Finds all devices in a room by RoomIDVO
+     * Finds all devices in a room by RoomIDVO, reading the room index instead of scanning every device.
      *
      * @param roomID RoomIDVO
      * @return List of devices in the room
      */
     public List<Device> findByRoomID(RoomIDVO roomID) {
-        return data.values().stream()
-                .filter(device -> roomID.equals(device.getRoomID()))
-                .collect(Collectors.toList());
+        return data.read(() -> roomIndex.get(roomID));
     }
+
+    /**
+     * Updates an entity, or saves it if it is not present, moving it to the index of its new room if it changed.
+     *
+     * @param entity Entity
+     * @return True or False
+     */
     @Override
     public boolean update(Device entity) {
         if(entity == null || entity.getId() == null){
             return false;
         }
-        data.put(entity.getId(),entity);
-        return true;
+        return data.upsert(entity.getId(), entity, (previous, device) -> {
+            RoomIDVO previousRoomID = previous == null ? null : previous.getRoomID();
+            roomIndex.replace(previousRoomID, device.getRoomID(), device.getId(), device);
+        });
+    }
+
+    /**
+     * Groups the devices by the types of their sensors and actuators, sensor types first. Sensors and actuators of
+     * devices that are not in this repository are ignored.
+     *
+     * @return Map of sensor or actuator type ID to the devices holding that type, or null if the repository was
+     * created without the sensor and actuator repositories
+     */
+    @Override
+    public Map<String, List<Device>> findGroupedByFunctionality() {
+        if (sensorRepository == null) {
+            return null;
+        }
+        Map<String, Map<DeviceIDVO, Device>> groups = new LinkedHashMap<>();
+        for (Sensor sensor : sensorRepository.findAll()) {
+            addToGroup(groups, sensor.getSensorTypeID().getID(), sensor.getDeviceID());
+        }
+        Map<String, Map<DeviceIDVO, Device>> actuatorGroups = new LinkedHashMap<>();
+        for (Actuator actuator : actuatorRepository.findAll()) {
+            addToGroup(actuatorGroups, actuator.getActuatorTypeID().getID(), actuator.getDeviceID());
+        }
+        groups.putAll(actuatorGroups);
+
+        Map<String, List<Device>> result = new LinkedHashMap<>();
+        groups.forEach((type, group) -> result.put(type, new ArrayList<>(group.values())));
+        return result;
+    }
+
+    /**
+     * Adds a device to the group of a type, once.
+     *
+     * @param groups   Groups being built, by type ID
+     * @param type     Sensor or actuator type ID
+     * @param deviceID DeviceIDVO of the device holding the type
+     */
+    private void addToGroup(Map<String, Map<DeviceIDVO, Device>> groups, String type, DeviceIDVO deviceID) {
+        Device device = data.get(deviceID);
+        if (device != null) {
+            groups.computeIfAbsent(type, key -> new LinkedHashMap<>()).putIfAbsent(deviceID, device);
+        }
     }
 }
\ No newline at end of file
@@ -4,13 +4,15 @@ import smarthome.domain.house.House;
 import smarthome.domain.vo.housevo.HouseIDVO;
 import smarthome.persistence.HouseRepository;
 
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Optional;
 
+/**
+ * In-memory HouseRepository, safe to use from concurrent request threads. Lookups by ID take no lock, and every
+ * collection returned is a snapshot that later writes do not change.
+ */
 public class HouseRepositoryMem implements HouseRepository {
 
-    private final LinkedHashMap<HouseIDVO, House> data = new LinkedHashMap<>();
+    private final ConcurrentEntityStore<HouseIDVO, House> data = new ConcurrentEntityStore<>();
 
 
     /**
@@ -19,11 +21,10 @@ public class HouseRepositoryMem implements HouseRepository {
      */
     @Override
     public boolean save(House entity) {
-        if(entity == null || entity.getId() == null || isPresent(entity.getId())){
+        if(entity == null){
             return false;
         }
-       data.put(entity.getId(),entity);
-        return true;
+        return data.insert(entity.getId(), entity);
     }
 
 
@@ -44,11 +45,7 @@ public class HouseRepositoryMem implements HouseRepository {
      */
     @Override
     public House findById(HouseIDVO id) {
-        if(isPresent(id)){
-            return data.get(id);
-        } else{
-            return null;
-        }
+        return data.get(id);
     }
 
 
@@ -59,7 +56,7 @@ public class HouseRepositoryMem implements HouseRepository {
      */
     @Override
     public boolean isPresent(HouseIDVO id) {
-        return data.containsKey(id);
+        return data.contains(id);
     }
 
     /**
@@ -67,33 +64,21 @@ public class HouseRepositoryMem implements HouseRepository {
      * @return An Optional with the first found House entity, an empty Optional if there is no House in the map.
      */
     public Optional<House> getFirstHouse(){
-        Iterator<House> iterator = this.data.values().iterator();
-        if(!iterator.hasNext()){
-            return Optional.empty();
-        }
-        else {
-            return Optional.of(iterator.next());
-        }
+        return Optional.ofNullable(this.data.get(this.data.firstID()));
     }
     /**
      * Getter method to retrieve the first HouseIDVO
      * @return FirstHouseIDVO
      */
     public HouseIDVO getFirstHouseIDVO() {
-        Iterator<HouseIDVO> iterator = this.data.keySet().iterator();
-        if (!iterator.hasNext()) {
-            return null;
-        } else {
-            return iterator.next();
-        }
+        return this.data.firstID();
     }
 
     @Override
     public boolean update(House entity) {
-        if(entity == null || entity.getId() == null){
+        if(entity == null){
             return false;
         }
-        data.put(entity.getId(),entity);
-        return true;
+        return data.upsert(entity.getId(), entity);
     }
 }
@@ -0,0 +1,615 @@
+package smarthome.persistence.mem;
+
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.persistence.LogRepository;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory LogRepository that keeps the readings of each (device, sensor type) pair in a columnar {@link LogSeries}.
+ * <p>
+ * Time range queries binary search the time column of the matching series, and queries spanning several series merge
+ * them in (time, log ID) order, the same order the database repositories return. Logs can be saved concurrently:
+ * writers only contend when they write to the same series, and readers only hold a series while copying the rows
+ * they need.
+ * </p>
+ * <p>
+ * Series are partitioned by month. Queries only visit the partitions that overlap their time period, and since
+ * partitions do not overlap in time, the readings of consecutive partitions are simply handed out one partition after
+ * the other. Expired months are dropped as whole partitions by {@link #deletePartitionsBefore(YearMonth)}.
+ * </p>
+ * <p>
+ * An index maps each log ID to the series holding it and the time of the log, so a log is saved only once whatever
+ * its time, and finding a log by ID binary searches a single series instead of scanning them all.
+ * </p>
+ */
+public class LogRepositoryMem implements LogRepository {
+
+    private final ConcurrentSkipListMap<YearMonth, ConcurrentHashMap<SeriesKey, LogSeries>> partitions = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<UUID, IndexEntry> index = new ConcurrentHashMap<>();
+    // Saves share the lock, dropping partitions takes it alone so that no log is saved into a dropped partition
+    private final ReentrantReadWriteLock partitionLock = new ReentrantReadWriteLock();
+    private final LogFactory logFactory;
+    private final SensorValueFactory sensorValueFactory;
+    private static final String ERROR_MESSAGE = "Invalid parameters.";
+
+    /**
+     * Constructor for LogRepositoryMem.
+     *
+     * @param logFactory         the factory used to rebuild Log domain objects
+     * @param sensorValueFactory the factory used to rebuild reading values
+     */
+    public LogRepositoryMem(LogFactory logFactory, SensorValueFactory sensorValueFactory) {
+        if (logFactory == null || sensorValueFactory == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        this.logFactory = logFactory;
+        this.sensorValueFactory = sensorValueFactory;
+    }
+
+    /**
+     * Saves a log in the series of its device and sensor type, within the partition of its month, unless a log with
+     * the same ID was already saved.
+     *
+     * @param log the log to be saved
+     * @return true if the log was saved, false if a log with the same ID was already saved
+     * @throws IllegalArgumentException if the log is null
+     */
+    @Override
+    public boolean save(Log log) {
+        if (log == null) {
+            throw new IllegalArgumentException("Log cannot be null");
+        }
+        SeriesKey key = new SeriesKey(log.getDeviceID().getID(), log.getSensorTypeID().getID());
+        partitionLock.readLock().lock();
+        try {
+            LogSeries series = partitions.computeIfAbsent(YearMonth.from(log.getTime().getValue()), k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key, k -> new LogSeries(log.getDeviceID(), log.getSensorTypeID()));
+            UUID id = UUID.fromString(log.getId().getID());
+            // Claiming the ID first keeps two concurrent saves of the same log from both appending it
+            if (index.putIfAbsent(id, new IndexEntry(series, LogSeries.toEpochSecond(log.getTime()))) != null) {
+                return false;
+            }
+            return series.append(log);
+        } finally {
+            partitionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saves several logs, each into its series. There is no transaction to amortise in memory, so this only checks
+     * the whole list up front before saving any log.
+     *
+     * @param logs the logs to be saved
+     * @return one result per log, in the same order: true if the log was saved, false if it already existed
+     * @throws IllegalArgumentException if the list or any of its logs is null
+     */
+    @Override
+    public List<Boolean> saveAll(List<Log> logs) {
+        if (logs == null || logs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Boolean> results = new ArrayList<>(logs.size());
+        for (Log log : logs) {
+            results.add(save(log));
+        }
+        return results;
+    }
+
+    /**
+     * Drops the partitions of the months older than the given month, with every log they hold.
+     *
+     * @param oldestRetained the oldest month whose logs are kept
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the month is null
+     */
+    @Override
+    public long deletePartitionsBefore(YearMonth oldestRetained) {
+        if (oldestRetained == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        partitionLock.writeLock().lock();
+        try {
+            NavigableMap<YearMonth, ConcurrentHashMap<SeriesKey, LogSeries>> expired = partitions.headMap(oldestRetained, false);
+            long deleted = 0;
+            for (Map<SeriesKey, LogSeries> partition : expired.values()) {
+                for (LogSeries series : partition.values()) {
+                    LogSeries.Slice slice = series.range(Long.MIN_VALUE, Long.MAX_VALUE);
+                    for (int i = 0; i < slice.size(); i++) {
+                        index.remove(slice.id(i));
+                    }
+                    deleted += slice.size();
+                }
+            }
+            expired.clear();
+            return deleted;
+        } finally {
+            partitionLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes the logs with the given IDs, each found through the ID index and removed from its series.
+     *
+     * @param ids the IDs of the logs to delete
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     */
+    @Override
+    public long deleteByIds(Collection<LogIDVO> ids) {
+        if (ids == null || ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        partitionLock.readLock().lock();
+        try {
+            long deleted = 0;
+            for (LogIDVO id : ids) {
+                UUID uuid = UUID.fromString(id.getID());
+                IndexEntry entry = index.get(uuid);
+                if (entry != null && entry.series().remove(entry.time(), uuid)) {
+                    index.remove(uuid, entry);
+                    deleted++;
+                }
+            }
+            return deleted;
+        } finally {
+            partitionLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams the logs of the partitions older than the given month, partition after partition.
+     *
+     * @param month  the month before which logs are streamed
+     * @param action the action applied to each log
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public void streamReadingsBefore(YearMonth month, Consumer<Log> action) {
+        if (month == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        for (Map<SeriesKey, LogSeries> partition : partitions.headMap(month, false).values()) {
+            List<Range> ranges = new ArrayList<>();
+            for (LogSeries series : partition.values()) {
+                ranges.add(new Range(series.range(Long.MIN_VALUE, Long.MAX_VALUE)));
+            }
+            merge(ranges, Integer.MAX_VALUE, action);
+        }
+    }
+
+    /**
+     * Retrieves all logs, each series in time order.
+     *
+     * @return an Iterable of all logs
+     */
+    @Override
+    public Iterable<Log> findAll() {
+        List<Log> logs = new ArrayList<>();
+        for (Map<SeriesKey, LogSeries> partition : partitions.values()) {
+            for (LogSeries series : partition.values()) {
+                LogSeries.Slice slice = series.range(Long.MIN_VALUE, Long.MAX_VALUE);
+                for (int i = 0; i < slice.size(); i++) {
+                    logs.add(slice.toLog(i, logFactory, sensorValueFactory));
+                }
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Retrieves a log by its ID, from the series the ID index points to.
+     *
+     * @param id the ID of the log
+     * @return the log, or null if no log with the given ID was saved
+     * @throws IllegalArgumentException if the id is null
+     */
+    @Override
+    public Log findById(LogIDVO id) {
+        if (id == null) {
+            throw new IllegalArgumentException("LogIDVO cannot be null");
+        }
+        UUID uuid = UUID.fromString(id.getID());
+        IndexEntry entry = index.get(uuid);
+        if (entry == null) {
+            return null;
+        }
+        LogSeries.Slice slice = entry.series().byID(entry.time(), uuid);
+        return slice.size() > 0 ? slice.toLog(0, logFactory, sensorValueFactory) : null;
+    }
+
+    /**
+     * Checks if a log with the given ID was saved.
+     *
+     * @param id the ID of the log
+     * @return true if the log is present, false otherwise
+     * @throws IllegalArgumentException if the id is null
+     */
+    @Override
+    public boolean isPresent(LogIDVO id) {
+        if (id == null) {
+            throw new IllegalArgumentException("LogIDVO cannot be null");
+        }
+        return index.containsKey(UUID.fromString(id.getID()));
+    }
+
+    /**
+     * Retrieves all logs of a specific device within a given time period, ordered by time.
+     * Null time stamps leave the corresponding side of the period open.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if the deviceID is null
+     */
+    @Override
+    public Iterable<Log> findReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to) {
+        List<Log> logs = new ArrayList<>();
+        streamReadingsByDeviceID(deviceID, from, to, logs::add);
+        return logs;
+    }
+
+    /**
+     * Streams the logs of a specific device within a given time period, ordered by time.
+     * Null time stamps leave the corresponding side of the period open.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param action   the action applied to each log
+     * @throws IllegalArgumentException if the deviceID or the action are null
+     */
+    @Override
+    public void streamReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, Consumer<Log> action) {
+        if (deviceID == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        long fromTime = from != null ? LogSeries.toEpochSecond(from) : Long.MIN_VALUE;
+        long toTime = to != null ? LogSeries.toEpochSecond(to) : Long.MAX_VALUE;
+
+        for (Map<SeriesKey, LogSeries> partition : partitionsWithin(from, to)) {
+            List<Range> ranges = new ArrayList<>();
+            for (LogSeries series : partition.values()) {
+                if (series.getDeviceID().equals(deviceID)) {
+                    ranges.add(new Range(series.range(fromTime, toTime)));
+                }
+            }
+            merge(ranges, Integer.MAX_VALUE, action);
+        }
+    }
+
+    /**
+     * Retrieves a page of the logs of a specific device within a given time period, ordered by time and log ID.
+     * The page starts right after the cursor, or at the start of the time period if the cursor is null.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param after    the cursor of the last log of the previous page, or null for the first page
+     * @param limit    the maximum number of logs in the page
+     * @return an Iterable of at most limit logs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findReadingsPageByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, LogCursorVO after, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        long fromTime = from != null ? LogSeries.toEpochSecond(from) : Long.MIN_VALUE;
+        long toTime = to != null ? LogSeries.toEpochSecond(to) : Long.MAX_VALUE;
+        long seekTime = after != null ? LogSeries.toEpochSecond(after.getTime()) : fromTime;
+        UUID seekID = after != null ? after.getLogID().getUUID() : null;
+
+        // Partitions before the cursor are skipped; each series contributes at most the rows still missing from the page
+        TimeStampVO seekFrom = after != null ? after.getTime() : from;
+        List<Log> logs = new ArrayList<>();
+        for (Map<SeriesKey, LogSeries> partition : partitionsWithin(seekFrom, to)) {
+            int missing = limit - logs.size();
+            if (missing == 0) {
+                break;
+            }
+            List<Range> ranges = new ArrayList<>();
+            for (LogSeries series : partition.values()) {
+                if (series.getDeviceID().equals(deviceID)) {
+                    ranges.add(new Range(series.page(fromTime, toTime, seekTime, seekID, missing)));
+                }
+            }
+            merge(ranges, missing, logs::add);
+        }
+        return logs;
+    }
+
+    /**
+     * Retrieves the newest logs of a specific device, newest first.
+     *
+     * @param deviceID the ID of the device
+     * @param limit    the maximum number of logs to retrieve
+     * @return an Iterable of at most limit logs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findLatestReadingsByDeviceID(DeviceIDVO deviceID, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        // Newest partition first, until the older partitions are no longer needed to fill the list
+        List<Log> logs = new ArrayList<>();
+        for (Map<SeriesKey, LogSeries> partition : partitions.descendingMap().values()) {
+            int missing = limit - logs.size();
+            if (missing == 0) {
+                break;
+            }
+            List<LogSeries.Slice> slices = new ArrayList<>();
+            for (LogSeries series : partition.values()) {
+                if (series.getDeviceID().equals(deviceID)) {
+                    slices.add(series.newest(missing));
+                }
+            }
+            mergeNewestFirst(slices, missing, logs::add);
+        }
+        return logs;
+    }
+
+    /**
+     * Walks every slice backwards from its newest reading, always taking the newest head, and hands each reading to
+     * the given action.
+     *
+     * @param slices the slices to merge
+     * @param limit  the maximum number of readings to take
+     * @param action the action applied to each reading, rebuilt into a Log
+     */
+    private void mergeNewestFirst(List<LogSeries.Slice> slices, int limit, Consumer<Log> action) {
+        int[] positions = new int[slices.size()];
+        for (int s = 0; s < positions.length; s++) {
+            positions[s] = slices.get(s).size() - 1;
+        }
+        for (int taken = 0; taken < limit; taken++) {
+            int newest = -1;
+            for (int s = 0; s < positions.length; s++) {
+                if (positions[s] >= 0 && (newest < 0
+                        || slices.get(s).compare(positions[s], slices.get(newest), positions[newest]) > 0)) {
+                    newest = s;
+                }
+            }
+            if (newest < 0) {
+                return;
+            }
+            action.accept(slices.get(newest).toLog(positions[newest], logFactory, sensorValueFactory));
+            positions[newest]--;
+        }
+    }
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period, ordered by time.
+     *
+     * @param deviceID   the ID of the device
+     * @param sensorType the ID of the sensor type
+     * @param start      the start of the time period
+     * @param end        the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> getDeviceTemperatureLogs(DeviceIDVO deviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorType == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        return findByDeviceIDAndSensorTypeAndTimeBetween(deviceID.getID(), sensorType, start, end);
+    }
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period, ordered by time.
+     * Only the series of the device and sensor type is read, in the partitions of the period.
+     *
+     * @param deviceID   the ID of the device
+     * @param sensorType the ID of the sensor type
+     * @param start      the start of the time period
+     * @param end        the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndTimeBetween(String deviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorType == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Log> logs = new ArrayList<>();
+        SeriesKey key = new SeriesKey(deviceID, sensorType);
+        for (Map<SeriesKey, LogSeries> partition : partitionsWithin(start, end)) {
+            LogSeries series = partition.get(key);
+            if (series != null) {
+                LogSeries.Slice slice = series.range(LogSeries.toEpochSecond(start), LogSeries.toEpochSecond(end));
+                for (int i = 0; i < slice.size(); i++) {
+                    logs.add(slice.toLog(i, logFactory, sensorValueFactory));
+                }
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Retrieves the logs with negative readings of a given sensor type within a given time period, excluding the logs
+     * of a specific device, ordered by time.
+     *
+     * @param excludeDeviceID the ID of the device to exclude
+     * @param sensorType      the ID of the sensor type
+     * @param start           the start of the time period
+     * @param end             the end of the time period
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(String excludeDeviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        if (excludeDeviceID == null || sensorType == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        long startTime = LogSeries.toEpochSecond(start);
+        long endTime = LogSeries.toEpochSecond(end);
+
+        List<Log> logs = new ArrayList<>();
+        for (Map<SeriesKey, LogSeries> partition : partitionsWithin(start, end)) {
+            List<Range> ranges = new ArrayList<>();
+            for (LogSeries series : partition.values()) {
+                if (series.getSensorTypeID().getID().equals(sensorType) && !series.getDeviceID().getID().equals(excludeDeviceID)) {
+                    ranges.add(new Range(series.range(startTime, endTime, value -> value < 0)));
+                }
+            }
+            merge(ranges, Integer.MAX_VALUE, logs::add);
+        }
+        return logs;
+    }
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period whose numeric
+     * reading lies within a range, ordered by time. Only the series of the device and sensor type is read, and only
+     * the matching readings are rebuilt into logs.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (inclusive)
+     * @param min          the smallest reading wanted (inclusive)
+     * @param max          the largest reading wanted (inclusive)
+     * @return an Iterable of logs that match the given criteria
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndReadingBetween(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end, double min, double max) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Log> logs = new ArrayList<>();
+        SeriesKey key = new SeriesKey(deviceID.getID(), sensorTypeID.getID());
+        for (Map<SeriesKey, LogSeries> partition : partitionsWithin(start, end)) {
+            LogSeries series = partition.get(key);
+            if (series != null) {
+                LogSeries.Slice slice = series.range(LogSeries.toEpochSecond(start), LogSeries.toEpochSecond(end),
+                        value -> value >= min && value <= max);
+                for (int i = 0; i < slice.size(); i++) {
+                    logs.add(slice.toLog(i, logFactory, sensorValueFactory));
+                }
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Aggregates the numeric readings of a given sensor type for a specific device within a given time period,
+     * straight from the value columns of its series, without rebuilding any log.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (exclusive)
+     * @return the aggregate of the readings over the period
+     * @throws IllegalArgumentException if any of the parameters are null, or end is before start
+     */
+    @Override
+    public ReadingAggregate aggregateReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null || end.getValue().isBefore(start.getValue())) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        ReadingAggregate aggregate = ReadingAggregate.empty(start, end);
+        SeriesKey key = new SeriesKey(deviceID.getID(), sensorTypeID.getID());
+        for (Map<SeriesKey, LogSeries> partition : partitionsWithin(start, end)) {
+            LogSeries series = partition.get(key);
+            if (series != null) {
+                aggregate = aggregate.merge(series.aggregate(start, end));
+            }
+        }
+        return aggregate.withPeriod(start, end);
+    }
+
+    /**
+     * Selects the partitions of the months overlapping a time period, in ascending month order.
+     * Null time stamps leave the corresponding side of the period open.
+     *
+     * @param from the start of the time period
+     * @param to   the end of the time period
+     * @return the partitions within the period
+     */
+    private Collection<ConcurrentHashMap<SeriesKey, LogSeries>> partitionsWithin(TimeStampVO from, TimeStampVO to) {
+        if (from != null && to != null && from.getValue().isAfter(to.getValue())) {
+            return List.of();
+        }
+        NavigableMap<YearMonth, ConcurrentHashMap<SeriesKey, LogSeries>> selected = partitions;
+        if (from != null) {
+            selected = selected.tailMap(YearMonth.from(from.getValue()), true);
+        }
+        if (to != null) {
+            selected = selected.headMap(YearMonth.from(to.getValue()), true);
+        }
+        return selected.values();
+    }
+
+    /**
+     * Merges slices of several series in (time, log ID) order, handing each reading to the given action.
+     * Series are few per device or sensor type, so the next reading is picked by comparing the heads of all ranges.
+     *
+     * @param ranges the ranges to merge, advanced as readings are taken
+     * @param limit  the maximum number of readings to take
+     * @param action the action applied to each reading, rebuilt into a Log
+     */
+    private void merge(List<Range> ranges, int limit, Consumer<Log> action) {
+        int taken = 0;
+        while (taken < limit) {
+            Range next = null;
+            for (Range range : ranges) {
+                if (range.position < range.slice.size()
+                        && (next == null || range.slice.compare(range.position, next.slice, next.position) < 0)) {
+                    next = range;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            action.accept(next.slice.toLog(next.position, logFactory, sensorValueFactory));
+            next.position++;
+            taken++;
+        }
+    }
+
+    /**
+     * Key of the series of a device and sensor type.
+     */
+    private record SeriesKey(String deviceID, String sensorTypeID) {
+    }
+
+    /**
+     * Entry of the ID index: the series holding a log and its time, in epoch seconds.
+     */
+    private record IndexEntry(LogSeries series, long time) {
+    }
+
+    /**
+     * A slice of a series being merged, with the position of its next reading.
+     */
+    private static final class Range {
+        private final LogSeries.Slice slice;
+        private int position;
+
+        private Range(LogSeries.Slice slice) {
+            this.slice = slice;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package smarthome.persistence.mem;
+
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.persistence.LogRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory LogRollupRepository. The buckets of each series are kept per resolution in a map sorted by bucket start,
+ * so a time range is a sub-map view rather than a scan.
+ */
+public class LogRollupRepositoryMem implements LogRollupRepository {
+
+    private final Map<String, Map<RollupResolution, TreeMap<LocalDateTime, ReadingAggregate>>> seriesMap = new HashMap<>();
+    private final Set<DirtyMinute> dirtyMinutes = new LinkedHashSet<>();
+    private static final String ERROR_MESSAGE = "Invalid parameters.";
+
+    /**
+     * Replaces the rollups of a series within a period, at every resolution.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param from         the start of the period (inclusive)
+     * @param to           the end of the period (exclusive)
+     * @param rollups      the new rollups of the period, by resolution
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public synchronized void replaceRollups(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to,
+                                            Map<RollupResolution, List<ReadingAggregate>> rollups) {
+        if (deviceID == null || sensorTypeID == null || from == null || to == null || rollups == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        Map<RollupResolution, TreeMap<LocalDateTime, ReadingAggregate>> series =
+                seriesMap.computeIfAbsent(seriesKey(deviceID, sensorTypeID), k -> new EnumMap<>(RollupResolution.class));
+        for (RollupResolution resolution : RollupResolution.values()) {
+            TreeMap<LocalDateTime, ReadingAggregate> buckets = series.computeIfAbsent(resolution, k -> new TreeMap<>());
+            buckets.subMap(from.getValue(), to.getValue()).clear();
+            for (ReadingAggregate aggregate : rollups.getOrDefault(resolution, List.of())) {
+                buckets.put(aggregate.getStart().getValue(), aggregate);
+            }
+        }
+    }
+
+    /**
+     * Replaces individual buckets of a series, removing those whose aggregate holds no readings.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param buckets      the new buckets, by resolution
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public synchronized void replaceBuckets(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID,
+                                            Map<RollupResolution, List<ReadingAggregate>> buckets) {
+        if (deviceID == null || sensorTypeID == null || buckets == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        Map<RollupResolution, TreeMap<LocalDateTime, ReadingAggregate>> series =
+                seriesMap.computeIfAbsent(seriesKey(deviceID, sensorTypeID), k -> new EnumMap<>(RollupResolution.class));
+        for (Map.Entry<RollupResolution, List<ReadingAggregate>> entry : buckets.entrySet()) {
+            TreeMap<LocalDateTime, ReadingAggregate> byStart = series.computeIfAbsent(entry.getKey(), k -> new TreeMap<>());
+            for (ReadingAggregate aggregate : entry.getValue()) {
+                if (aggregate.getCount() == 0) {
+                    byStart.remove(aggregate.getStart().getValue());
+                } else {
+                    byStart.put(aggregate.getStart().getValue(), aggregate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks a minute bucket of a series as dirty.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minute       the start of the minute bucket
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public synchronized void markDirty(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO minute) {
+        if (deviceID == null || sensorTypeID == null || minute == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        dirtyMinutes.add(new DirtyMinute(deviceID, sensorTypeID, minute));
+    }
+
+    /**
+     * Removes the marks of minute buckets of a series.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minutes      the starts of the minute buckets
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public synchronized void clearDirty(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, Collection<TimeStampVO> minutes) {
+        if (deviceID == null || sensorTypeID == null || minutes == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        for (TimeStampVO minute : minutes) {
+            dirtyMinutes.remove(new DirtyMinute(deviceID, sensorTypeID, minute));
+        }
+    }
+
+    /**
+     * Retrieves every minute bucket marked as dirty.
+     *
+     * @return the marked minute buckets, in the order they were marked
+     */
+    @Override
+    public synchronized List<DirtyMinute> findDirty() {
+        return new ArrayList<>(dirtyMinutes);
+    }
+
+    /**
+     * Retrieves the rollups of a series at one resolution whose bucket starts within a period.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param resolution   the resolution of the rollups
+     * @param from         the start of the period (inclusive)
+     * @param to           the end of the period (exclusive)
+     * @return the rollups, in ascending bucket order
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public synchronized List<ReadingAggregate> findRollups(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, RollupResolution resolution,
+                                                           TimeStampVO from, TimeStampVO to) {
+        if (deviceID == null || sensorTypeID == null || resolution == null || from == null || to == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        Map<RollupResolution, TreeMap<LocalDateTime, ReadingAggregate>> series = seriesMap.get(seriesKey(deviceID, sensorTypeID));
+        if (series == null || !series.containsKey(resolution) || !from.getValue().isBefore(to.getValue())) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(series.get(resolution).subMap(from.getValue(), to.getValue()).values());
+    }
+
+    private static String seriesKey(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
+        return deviceID.getID() + "|" + sensorTypeID.getID();
+    }
+}
@@ -0,0 +1,529 @@
+package smarthome.persistence.mem;
+
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.DoublePredicate;
+
+/**
+ * The readings of one sensor type of one device, stored column by column and sorted by time and log ID.
+ * <p>
+ * Each reading takes a slot in a set of primitive columns: epoch seconds, the two halves of the log UUID, the index of
+ * its sensor in a sensor dictionary, the kind of its value and the value itself (the integer, the bits of the decimal,
+ * or the index of its text in a text dictionary).
+ * </p>
+ * <p>
+ * Writers take the write lock and insert in place; readings arriving in time order are appended, late ones only shift
+ * the readings after them. Readers take the read lock just long enough to binary search the time column and copy the
+ * matching rows into a {@link Slice}, which is rebuilt into Log objects after the lock is released.
+ * </p>
+ */
+final class LogSeries {
+
+    private static final byte INTEGER = 0;
+    private static final byte DECIMAL = 1;
+    private static final byte TEXT = 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final DeviceIDVO deviceID;
+    private final SensorTypeIDVO sensorTypeID;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<SensorIDVO, Integer> sensorCodes = new HashMap<>();
+    private final Map<String, Integer> textCodes = new HashMap<>();
+
+    private long[] times = new long[INITIAL_CAPACITY];
+    private long[] idMost = new long[INITIAL_CAPACITY];
+    private long[] idLeast = new long[INITIAL_CAPACITY];
+    private int[] sensors = new int[INITIAL_CAPACITY];
+    private byte[] kinds = new byte[INITIAL_CAPACITY];
+    private long[] values = new long[INITIAL_CAPACITY];
+    // Entries are only ever added past the end, so slices can share the dictionaries without copying them
+    private SensorIDVO[] sensorDictionary = new SensorIDVO[4];
+    private String[] textDictionary = new String[4];
+    private int size;
+
+    /**
+     * Constructs an empty series.
+     *
+     * @param deviceID     the ID of the device the readings belong to
+     * @param sensorTypeID the ID of the sensor type of the readings
+     */
+    LogSeries(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
+        this.deviceID = deviceID;
+        this.sensorTypeID = sensorTypeID;
+    }
+
+    DeviceIDVO getDeviceID() {
+        return deviceID;
+    }
+
+    SensorTypeIDVO getSensorTypeID() {
+        return sensorTypeID;
+    }
+
+    /**
+     * @return the number of readings in the series
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a log to the series, keeping it sorted by time and log ID. The series only detects a log saved twice with
+     * the same time; {@link LogRepositoryMem} keeps the index that rejects a log ID saved at any other time.
+     *
+     * @param log the log to be added, of this series' device and sensor type
+     * @return true if the log was added, false if a log with the same ID and time is already in the series
+     */
+    boolean append(Log log) {
+        long time = toEpochSecond(log.getTime());
+        UUID id = UUID.fromString(log.getId().getID());
+        Object value = log.getReading().getValue();
+
+        lock.writeLock().lock();
+        try {
+            int position = seekAfter(time, id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (position > 0 && times[position - 1] == time
+                    && idMost[position - 1] == id.getMostSignificantBits() && idLeast[position - 1] == id.getLeastSignificantBits()) {
+                return false;
+            }
+            if (size == times.length) {
+                grow();
+            }
+            if (position < size) {
+                shift(position);
+            }
+            times[position] = time;
+            idMost[position] = id.getMostSignificantBits();
+            idLeast[position] = id.getLeastSignificantBits();
+            sensors[position] = sensorCode(log.getSensorID());
+            kinds[position] = kindOf(value);
+            values[position] = encode(kinds[position], value);
+            size++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the readings within a time period.
+     *
+     * @param fromTime the start of the period, in epoch seconds (inclusive)
+     * @param toTime   the end of the period, in epoch seconds (inclusive)
+     * @return the readings within the period, in (time, log ID) order
+     */
+    Slice range(long fromTime, long toTime) {
+        lock.readLock().lock();
+        try {
+            return copy(lowerBound(fromTime), upperBound(toTime));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the numeric readings within a time period that the given filter accepts. Text readings are never copied.
+     *
+     * @param fromTime the start of the period, in epoch seconds (inclusive)
+     * @param toTime   the end of the period, in epoch seconds (inclusive)
+     * @param filter   the filter applied to the numeric value of each reading
+     * @return the matching readings within the period, in (time, log ID) order
+     */
+    Slice range(long fromTime, long toTime, DoublePredicate filter) {
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(fromTime);
+            int end = upperBound(toTime);
+            int[] indexes = new int[Math.max(end - start, 0)];
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                if (kinds[i] != TEXT && filter.test(numeric(kinds[i], values[i]))) {
+                    indexes[count++] = i;
+                }
+            }
+            return copy(indexes, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aggregates the numeric readings within a time period, straight from the value column. Text readings are left
+     * out.
+     *
+     * @param start the start of the period (inclusive)
+     * @param end   the end of the period (exclusive)
+     * @return the aggregate of the readings within the period
+     */
+    ReadingAggregate aggregate(TimeStampVO start, TimeStampVO end) {
+        lock.readLock().lock();
+        try {
+            int last = lowerBound(toEpochSecond(end));
+            long count = 0;
+            double sum = 0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lowerBound(toEpochSecond(start)); i < last; i++) {
+                if (kinds[i] != TEXT) {
+                    double value = numeric(kinds[i], values[i]);
+                    count++;
+                    sum += value;
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+            }
+            return new ReadingAggregate(start, end, count, sum, min, max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies at most limit readings within a time period that sort after the given time and log ID.
+     *
+     * @param fromTime the start of the period, in epoch seconds (inclusive)
+     * @param toTime   the end of the period, in epoch seconds (inclusive)
+     * @param seekTime the time of the last reading already read, in epoch seconds
+     * @param seekID   the log ID of the last reading already read, or null to start at the start of the period
+     * @param limit    the maximum number of readings to copy
+     * @return the readings after the given position, in (time, log ID) order
+     */
+    Slice page(long fromTime, long toTime, long seekTime, UUID seekID, int limit) {
+        lock.readLock().lock();
+        try {
+            int start = lowerBound(fromTime);
+            if (seekID != null) {
+                start = Math.max(start, seekAfter(seekTime, seekID.getMostSignificantBits(), seekID.getLeastSignificantBits()));
+            }
+            int end = upperBound(toTime);
+            return copy(start, end - start > limit ? start + limit : end);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the newest readings.
+     *
+     * @param limit the maximum number of readings to copy
+     * @return the newest readings, in (time, log ID) order
+     */
+    Slice newest(int limit) {
+        lock.readLock().lock();
+        try {
+            return copy(Math.max(size - limit, 0), size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies the reading with the given log ID and time. The time narrows the search to the readings of that second,
+     * which are binary searched by log ID.
+     *
+     * @param time the time of the reading, in epoch seconds
+     * @param id   the log ID
+     * @return a slice holding the reading, or an empty slice if it is not in the series
+     */
+    Slice byID(long time, UUID id) {
+        lock.readLock().lock();
+        try {
+            int position = seekAfter(time, id.getMostSignificantBits(), id.getLeastSignificantBits()) - 1;
+            if (position >= 0 && times[position] == time
+                    && idMost[position] == id.getMostSignificantBits() && idLeast[position] == id.getLeastSignificantBits()) {
+                return copy(position, position + 1);
+            }
+            return copy(0, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the reading with the given log ID and time.
+     *
+     * @param time the time of the reading, in epoch seconds
+     * @param id   the log ID
+     * @return true if the reading was removed, false if it is not in the series
+     */
+    boolean remove(long time, UUID id) {
+        lock.writeLock().lock();
+        try {
+            int position = seekAfter(time, id.getMostSignificantBits(), id.getLeastSignificantBits()) - 1;
+            if (position < 0 || times[position] != time
+                    || idMost[position] != id.getMostSignificantBits() || idLeast[position] != id.getLeastSignificantBits()) {
+                return false;
+            }
+            int length = size - position - 1;
+            System.arraycopy(times, position + 1, times, position, length);
+            System.arraycopy(idMost, position + 1, idMost, position, length);
+            System.arraycopy(idLeast, position + 1, idLeast, position, length);
+            System.arraycopy(sensors, position + 1, sensors, position, length);
+            System.arraycopy(kinds, position + 1, kinds, position, length);
+            System.arraycopy(values, position + 1, values, position, length);
+            size--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Converts a time stamp to the epoch seconds stored in the time column.
+     *
+     * @param timeStamp the time stamp
+     * @return the epoch seconds of the time stamp, read as UTC
+     */
+    static long toEpochSecond(TimeStampVO timeStamp) {
+        return timeStamp.getValue().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int upperBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int seekAfter(long time, long mostBits, long leastBits) {
+        int low = lowerBound(time);
+        int high = upperBound(time);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareID(idMost[middle], idLeast[middle], mostBits, leastBits) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        idMost = Arrays.copyOf(idMost, capacity);
+        idLeast = Arrays.copyOf(idLeast, capacity);
+        sensors = Arrays.copyOf(sensors, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    private void shift(int position) {
+        int length = size - position;
+        System.arraycopy(times, position, times, position + 1, length);
+        System.arraycopy(idMost, position, idMost, position + 1, length);
+        System.arraycopy(idLeast, position, idLeast, position + 1, length);
+        System.arraycopy(sensors, position, sensors, position + 1, length);
+        System.arraycopy(kinds, position, kinds, position + 1, length);
+        System.arraycopy(values, position, values, position + 1, length);
+    }
+
+    private int sensorCode(SensorIDVO sensorID) {
+        Integer code = sensorCodes.get(sensorID);
+        if (code == null) {
+            code = sensorCodes.size();
+            if (code == sensorDictionary.length) {
+                sensorDictionary = Arrays.copyOf(sensorDictionary, code * 2);
+            }
+            sensorDictionary[code] = sensorID;
+            sensorCodes.put(sensorID, code);
+        }
+        return code;
+    }
+
+    private long encode(byte kind, Object value) {
+        if (kind == INTEGER) {
+            return ((Number) value).longValue();
+        }
+        if (kind == DECIMAL) {
+            return Double.doubleToRawLongBits(((Number) value).doubleValue());
+        }
+        String text = value.toString();
+        Integer code = textCodes.get(text);
+        if (code == null) {
+            code = textCodes.size();
+            if (code == textDictionary.length) {
+                textDictionary = Arrays.copyOf(textDictionary, code * 2);
+            }
+            textDictionary[code] = text;
+            textCodes.put(text, code);
+        }
+        return code;
+    }
+
+    private Slice copy(int start, int end) {
+        int length = Math.max(end - start, 0);
+        return new Slice(Arrays.copyOfRange(times, start, start + length), Arrays.copyOfRange(idMost, start, start + length),
+                Arrays.copyOfRange(idLeast, start, start + length), Arrays.copyOfRange(sensors, start, start + length),
+                Arrays.copyOfRange(kinds, start, start + length), Arrays.copyOfRange(values, start, start + length),
+                sensorDictionary, textDictionary);
+    }
+
+    private Slice copy(int[] indexes, int count) {
+        Slice slice = new Slice(new long[count], new long[count], new long[count], new int[count], new byte[count],
+                new long[count], sensorDictionary, textDictionary);
+        for (int i = 0; i < count; i++) {
+            int index = indexes[i];
+            slice.times[i] = times[index];
+            slice.idMost[i] = idMost[index];
+            slice.idLeast[i] = idLeast[index];
+            slice.sensors[i] = sensors[index];
+            slice.kinds[i] = kinds[index];
+            slice.values[i] = values[index];
+        }
+        return slice;
+    }
+
+    /**
+     * Determines how a reading value is stored in the value column.
+     *
+     * @param value the reading value
+     * @return INTEGER for integral numbers, DECIMAL for other numbers and TEXT for anything else
+     */
+    private static byte kindOf(Object value) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            return INTEGER;
+        }
+        if (value instanceof Number) {
+            return DECIMAL;
+        }
+        return TEXT;
+    }
+
+    private static double numeric(byte kind, long value) {
+        return kind == INTEGER ? value : Double.longBitsToDouble(value);
+    }
+
+    // Log IDs compare in the same order as their textual form
+    private static int compareID(long mostBits, long leastBits, long otherMostBits, long otherLeastBits) {
+        int byMost = Long.compareUnsigned(mostBits, otherMostBits);
+        return byMost != 0 ? byMost : Long.compareUnsigned(leastBits, otherLeastBits);
+    }
+
+    /**
+     * A copy of some readings of the series, in (time, log ID) order, that can be read without locking.
+     */
+    final class Slice {
+        private final long[] times;
+        private final long[] idMost;
+        private final long[] idLeast;
+        private final int[] sensors;
+        private final byte[] kinds;
+        private final long[] values;
+        private final SensorIDVO[] sensorDictionary;
+        private final String[] textDictionary;
+
+        private Slice(long[] times, long[] idMost, long[] idLeast, int[] sensors, byte[] kinds, long[] values,
+                      SensorIDVO[] sensorDictionary, String[] textDictionary) {
+            this.times = times;
+            this.idMost = idMost;
+            this.idLeast = idLeast;
+            this.sensors = sensors;
+            this.kinds = kinds;
+            this.values = values;
+            this.sensorDictionary = sensorDictionary;
+            this.textDictionary = textDictionary;
+        }
+
+        int size() {
+            return times.length;
+        }
+
+        /**
+         * @param index the index of a reading
+         * @return the log ID of the reading
+         */
+        UUID id(int index) {
+            return new UUID(idMost[index], idLeast[index]);
+        }
+
+        /**
+         * Compares a reading of this slice with a reading of another slice, by time and then by log ID.
+         *
+         * @param index      the index of a reading of this slice
+         * @param other      the other slice
+         * @param otherIndex the index of a reading of the other slice
+         * @return a negative number, zero or a positive number as this reading sorts before, with or after the other
+         */
+        int compare(int index, Slice other, int otherIndex) {
+            int byTime = Long.compare(times[index], other.times[otherIndex]);
+            return byTime != 0 ? byTime
+                    : compareID(idMost[index], idLeast[index], other.idMost[otherIndex], other.idLeast[otherIndex]);
+        }
+
+        /**
+         * Returns the textual form of a reading, as the sensor value factory reads it.
+         *
+         * @param index the index of the reading
+         * @return the reading as text
+         */
+        String reading(int index) {
+            if (kinds[index] == INTEGER) {
+                return Long.toString(values[index]);
+            }
+            if (kinds[index] == DECIMAL) {
+                return Double.toString(Double.longBitsToDouble(values[index]));
+            }
+            return textDictionary[(int) values[index]];
+        }
+
+        /**
+         * Rebuilds a reading into a Log.
+         *
+         * @param index              the index of the reading
+         * @param logFactory         the factory used to create the Log
+         * @param sensorValueFactory the factory used to create the reading value
+         * @return the Log at the given index
+         */
+        Log toLog(int index, LogFactory logFactory, SensorValueFactory sensorValueFactory) {
+            LogIDVO logID = new LogIDVO(new UUID(idMost[index], idLeast[index]));
+            TimeStampVO time = new TimeStampVO(LocalDateTime.ofEpochSecond(times[index], 0, ZoneOffset.UTC));
+            SensorValueObject<?> reading = sensorValueFactory.createSensorValue(reading(index), sensorTypeID);
+            return logFactory.createLog(logID, time, reading, sensorDictionary[sensors[index]], deviceID, sensorTypeID);
+        }
+    }
+}
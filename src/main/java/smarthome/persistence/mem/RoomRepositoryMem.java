@@ -6,9 +6,14 @@ import smarthome.persistence.RoomRepository;
 
 
 import java.util.*;
+
+/**
+ * In-memory RoomRepository, safe to use from concurrent request threads. Lookups by ID take no lock, and every
+ * collection returned is a snapshot that later writes do not change.
+ */
 public class RoomRepositoryMem implements RoomRepository {
 
-    private final LinkedHashMap<RoomIDVO, Room> data = new LinkedHashMap<>();
+    private final ConcurrentEntityStore<RoomIDVO, Room> data = new ConcurrentEntityStore<>();
 
     /**
      * Saves a room to the repository.
@@ -17,11 +22,10 @@ public class RoomRepositoryMem implements RoomRepository {
      */
     @Override
     public boolean save(Room room) {
-        if(room == null || room.getId() == null || isPresent(room.getId())) {
+        if(room == null) {
             return false;
         }
-        data.put(room.getId(), room);
-        return true;
+        return data.insert(room.getId(), room);
     }
 
     /**
@@ -40,11 +44,7 @@ public class RoomRepositoryMem implements RoomRepository {
      */
     @Override
     public Room findById(RoomIDVO roomID) {
-        if(!isPresent(roomID)) {
-            return null;
-        } else {
-            return data.get(roomID);
-        }
+        return data.get(roomID);
     }
 
     /**
@@ -54,7 +54,7 @@ public class RoomRepositoryMem implements RoomRepository {
      */
     @Override
     public boolean isPresent(RoomIDVO roomID) {
-        return data.containsKey(roomID);
+        return data.contains(roomID);
     }
 
     /**
@@ -0,0 +1,89 @@
+package smarthome.persistence.mem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A secondary index of an in-memory repository: the entities grouped by one of their attributes (a room, a device, a
+ * sensor type), so a lookup by that attribute reads one bucket instead of scanning every entity.
+ * <p>
+ * Each bucket keeps its entities by ID, in the order they were first added; replacing an entity with the same ID keeps
+ * its place, as the LinkedHashMap of the repository does. Entities with a null key are not indexed, so they are never
+ * found, as they never matched the key of a lookup before. The repository owning the index keeps it consistent with
+ * its data on every write.
+ * </p>
+ *
+ * @param <K>  the type of the indexed attribute
+ * @param <ID> the type of the entity IDs
+ * @param <T>  the type of the entities
+ */
+final class SecondaryIndex<K, ID, T> {
+
+    private final Map<K, LinkedHashMap<ID, T>> buckets = new HashMap<>();
+
+    /**
+     * Adds an entity to the bucket of a key, or replaces it in place if it is already there.
+     *
+     * @param key    the value of the indexed attribute of the entity
+     * @param id     the ID of the entity
+     * @param entity the entity
+     */
+    void put(K key, ID id, T entity) {
+        if (key == null) {
+            return;
+        }
+        buckets.computeIfAbsent(key, k -> new LinkedHashMap<>()).put(id, entity);
+    }
+
+    /**
+     * Removes an entity from the bucket of a key, dropping the bucket once it is empty.
+     *
+     * @param key the value of the indexed attribute of the entity
+     * @param id  the ID of the entity
+     */
+    void remove(K key, ID id) {
+        if (key == null) {
+            return;
+        }
+        LinkedHashMap<ID, T> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Moves an entity whose indexed attribute changed from the bucket of its old key to the bucket of its new one.
+     * If the key did not change the entity is replaced in place.
+     *
+     * @param oldKey the value of the indexed attribute of the stored entity, null if there was none
+     * @param newKey the value of the indexed attribute of the new entity
+     * @param id     the ID of the entity
+     * @param entity the new entity
+     */
+    void replace(K oldKey, K newKey, ID id, T entity) {
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            remove(oldKey, id);
+        }
+        put(newKey, id, entity);
+    }
+
+    /**
+     * Finds the entities in the bucket of a key.
+     *
+     * @param key the value of the indexed attribute
+     * @return a new list with the entities of the bucket, empty if there are none
+     */
+    List<T> get(K key) {
+        LinkedHashMap<ID, T> bucket = key == null ? null : buckets.get(key);
+        if (bucket == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(bucket.values());
+    }
+}
@@ -6,12 +6,15 @@ import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.domain.vo.sensorvo.SensorIDVO;
 import smarthome.persistence.SensorRepository;
 
-import java.util.LinkedHashMap;
-import java.util.stream.Collectors;
-
+/**
+ * In-memory SensorRepository, safe to use from concurrent request threads. Lookups by ID take no lock, and every
+ * collection returned is a snapshot that later writes do not change.
+ */
 public class SensorRepositoryMem implements SensorRepository {
 
-    private final LinkedHashMap<SensorIDVO, Sensor> sensorMap = new LinkedHashMap<>();
+    private final ConcurrentEntityStore<SensorIDVO, Sensor> sensorMap = new ConcurrentEntityStore<>();
+    private final SecondaryIndex<DeviceIDVO, SensorIDVO, Sensor> deviceIndex = new SecondaryIndex<>();
+    private final SecondaryIndex<SensorTypeIDVO, SensorIDVO, Sensor> sensorTypeIndex = new SecondaryIndex<>();
 
     /**
      * @param sensor Entity to be saved
@@ -19,11 +22,14 @@ public class SensorRepositoryMem implements SensorRepository {
      */
     @Override
     public boolean save(Sensor sensor) {
-        if(sensor == null || sensor.getId() == null || isPresent((SensorIDVO) sensor.getId())){
+        if(sensor == null || sensor.getId() == null){
             return false;
         }
-        sensorMap.put((SensorIDVO) sensor.getId(), sensor);
-        return true;
+        SensorIDVO sensorID = (SensorIDVO) sensor.getId();
+        return sensorMap.insert(sensorID, sensor, saved -> {
+            deviceIndex.put(saved.getDeviceID(), sensorID, saved);
+            sensorTypeIndex.put(saved.getSensorTypeID(), sensorID, saved);
+        });
     }
 
     /**
@@ -42,9 +48,6 @@ public class SensorRepositoryMem implements SensorRepository {
      */
     @Override
     public Sensor findById(SensorIDVO id) {
-        if(!isPresent(id)){
-            return null;
-        }
         return sensorMap.get(id);
     }
 
@@ -55,29 +58,31 @@ public class SensorRepositoryMem implements SensorRepository {
      */
     @Override
     public boolean isPresent(SensorIDVO id) {
-        return sensorMap.containsKey(id);
+        return sensorMap.contains(id);
     }
 
+    /**
+     * Finds all Sensor objects of a device, reading the device index instead of scanning every sensor.
+     *
+     * @param deviceID The DeviceIDVO of the device.
+     * @return An Iterable of the Sensor objects of the device, in the order they were saved.
+     */
     @Override
     public Iterable<Sensor> findByDeviceID(DeviceIDVO deviceID) {
-        return sensorMap.values().stream()
-                .filter(sensor -> deviceID.equals(sensor.getDeviceID()))
-                .collect(Collectors.toList());
+        return sensorMap.read(() -> deviceIndex.get(deviceID));
     }
 
 
     /**
      * Finds all Sensor objects in the repository that match the provided sensor type ID.
-     * This method filters the values in the sensorMap to find sensors with the specified sensor type ID.
-     * The results are collected into a list and returned.
+     * This method reads the sensors with the specified sensor type ID from the sensor type index, which is kept
+     * up to date on save, so it does not scan the sensorMap.
      *
      * @param id The SensorTypeIDVO representing the type of sensor to search for.
      * @return An Iterable of Sensor objects that match the specified sensor type ID.
      */
     @Override
     public Iterable<Sensor> findBySensorTypeId(SensorTypeIDVO id) {
-        return sensorMap.values().stream()
-                .filter(sensor -> id.equals(sensor.getSensorTypeID()))
-                .collect(Collectors.toList());
+        return sensorMap.read(() -> sensorTypeIndex.get(id));
     }
 }
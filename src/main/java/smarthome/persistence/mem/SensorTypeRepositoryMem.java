@@ -4,17 +4,15 @@ import smarthome.domain.sensortype.SensorType;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.persistence.SensorTypeRepository;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 /**
  * A repository implementation for managing SensorType entities.
  * This repository provides methods to save, find, and check for the presence of SensorType entities.
+ * It is safe to use from concurrent request threads; findAll() returns a snapshot that later saves do not change.
  */
 public class SensorTypeRepositoryMem implements SensorTypeRepository {
 
     /** The data store for SensorType entities, mapped by their unique identifiers. */
-    private final Map<SensorTypeIDVO, SensorType> data = new LinkedHashMap<>();
+    private final ConcurrentEntityStore<SensorTypeIDVO, SensorType> data = new ConcurrentEntityStore<>();
 
     /**
      * Saves a SensorType entity to the repository.
@@ -23,11 +21,7 @@ public class SensorTypeRepositoryMem implements SensorTypeRepository {
      */
     @Override
     public boolean save(SensorType entity) {
-        if (validSaveConditions(entity)) {
-            data.put(entity.getId(), entity);
-            return true;
-        }
-        return false;
+        return validSaveConditions(entity) && data.insert(entity.getId(), entity);
     }
 
     /**
@@ -55,10 +49,7 @@ public class SensorTypeRepositoryMem implements SensorTypeRepository {
      */
     @Override
     public SensorType findById(SensorTypeIDVO id) {
-        if (isPresent(id)) {
-            return data.get(id);
-        }
-        return null;
+        return data.get(id);
     }
 
     /**
@@ -68,6 +59,6 @@ public class SensorTypeRepositoryMem implements SensorTypeRepository {
      */
     @Override
     public boolean isPresent(SensorTypeIDVO id) {
-        return data.containsKey(id);
+        return data.contains(id);
     }
 }
@@ -10,8 +10,12 @@ import smarthome.mapper.assembler.ActuatorAssembler;
 import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 
 import static java.util.Objects.isNull;
 
@@ -59,6 +63,35 @@ public class ActuatorRepositorySpringData implements ActuatorRepository {
         }
     }
 
+    /**
+     * Saves the state of several actuator entities to the database with a single saveAll(), which runs in one
+     * transaction: either every actuator is saved or, if it fails, none is.
+     *
+     * @param actuators The actuator entities to save.
+     * @return one result per actuator, in the same order: true if it was saved, false otherwise.
+     * @throws IllegalArgumentException if the list or any of its actuators is null.
+     */
+    @Override
+    public List<Boolean> saveAll(List<Actuator> actuators) {
+        if (isNull(actuators) || actuators.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Actuator is null");
+        }
+        if (actuators.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ActuatorDataModel> actuatorDataModels = new ArrayList<>(actuators.size());
+        for (Actuator actuator : actuators) {
+            actuatorDataModels.add(new ActuatorDataModel(actuator));
+        }
+
+        try {
+            this.iActuatorRepositorySpringData.saveAll(actuatorDataModels);
+            return new ArrayList<>(Collections.nCopies(actuators.size(), true));
+        } catch (DataAccessException e) {
+            return new ArrayList<>(Collections.nCopies(actuators.size(), false));
+        }
+    }
+
     /**
      * Retrieves all actuator entities from the database.
      *
@@ -85,7 +118,7 @@ public class ActuatorRepositorySpringData implements ActuatorRepository {
         if (isNull(id)) {
             return null;
         }
-        String actuatorId = id.getID();
+        UUID actuatorId = id.getUUID();
         try {
             Optional<ActuatorDataModel> actuatorDataModelOpt = this.iActuatorRepositorySpringData.findById(actuatorId);
 
@@ -124,7 +157,7 @@ public class ActuatorRepositorySpringData implements ActuatorRepository {
     @Override
     public Iterable<Actuator> findByDeviceID(DeviceIDVO deviceID) {
         try {
-            Iterable<ActuatorDataModel> actuatorDataModelIterable = this.iActuatorRepositorySpringData.findByDeviceID(deviceID.getID());
+            Iterable<ActuatorDataModel> actuatorDataModelIterable = this.iActuatorRepositorySpringData.findByDeviceID(deviceID.getUUID());
             return ActuatorAssembler.toDomainList(this.actuatorFactory, actuatorDataModelIterable);
         } catch (RuntimeException e) {
             return Collections.emptyList();
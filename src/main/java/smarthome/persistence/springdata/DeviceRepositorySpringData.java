@@ -12,7 +12,10 @@ import smarthome.persistence.DeviceRepository;
 
 import smarthome.persistence.jpa.datamodel.DeviceDataModel;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public class DeviceRepositorySpringData implements DeviceRepository {
@@ -84,7 +87,7 @@ public class DeviceRepositorySpringData implements DeviceRepository {
         if(isNull(id)){
             return null;
         }
-        String deviceID = id.getID();
+        UUID deviceID = id.getUUID();
         try{
             Optional<DeviceDataModel> deviceDataModelOpt = this.iDeviceRepositorySpringData.findById(deviceID);
 
@@ -108,13 +111,31 @@ public class DeviceRepositorySpringData implements DeviceRepository {
     @Override
     public Iterable<Device> findByRoomID(RoomIDVO roomID) {
         try {
-            Iterable<DeviceDataModel> deviceDataModelIterable = this.iDeviceRepositorySpringData.findByRoomID(roomID.getID());
+            Iterable<DeviceDataModel> deviceDataModelIterable = this.iDeviceRepositorySpringData.findByRoomID(roomID.getUUID());
             return DeviceAssembler.toDomainList(deviceFactory, deviceDataModelIterable);
         } catch (RuntimeException e) {
             return Collections.emptyList();
         }
     }
 
+    /**
+     * Groups the devices by the types of their sensors and actuators. Each side is read with a single join query
+     * instead of loading all sensors and actuators and then every device by ID.
+     *
+     * @return Map of sensor or actuator type ID to the devices holding that type. Null if a DataAccessException occurs.
+     */
+
+    @Override
+    public Map<String, List<Device>> findGroupedByFunctionality() {
+        try {
+            List<Object[]> sensorRows = this.iDeviceRepositorySpringData.findDevicesWithSensorType();
+            List<Object[]> actuatorRows = this.iDeviceRepositorySpringData.findDevicesWithActuatorType();
+            return DeviceAssembler.toDomainGroups(this.deviceFactory, sensorRows, actuatorRows);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
     /**
      * Checks if a device entity with the given ID exists in the database.
      *
@@ -150,7 +171,7 @@ public class DeviceRepositorySpringData implements DeviceRepository {
         }
 
         try{
-            String deviceID = device.getId().getID();
+            UUID deviceID = device.getId().getUUID();
             Optional<DeviceDataModel> deviceDataModelOpt = this.iDeviceRepositorySpringData.findById(deviceID);
 
             if(deviceDataModelOpt.isPresent()){
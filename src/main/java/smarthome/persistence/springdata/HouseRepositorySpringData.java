@@ -9,6 +9,7 @@ import smarthome.persistence.HouseRepository;
 import smarthome.persistence.jpa.datamodel.HouseDataModel;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Implementation of the HouseRepository interface using Spring Data JPA.
@@ -85,7 +86,7 @@ public class HouseRepositorySpringData implements HouseRepository {
         if(isNull(id)){
             return null;
         }
-        String houseID = id.getID();
+        UUID houseID = id.getUUID();
         try{
             Optional<HouseDataModel> houseDataModelOpt = this.iHouseRepositorySpringData.findById(houseID);
 
@@ -169,7 +170,7 @@ public class HouseRepositorySpringData implements HouseRepository {
         }
 
         try{
-            String houseID = house.getId().getID();
+            UUID houseID = house.getId().getUUID();
             Optional<HouseDataModel> houseDataModelOpt = this.iHouseRepositorySpringData.findById(houseID);
 
             if(houseDataModelOpt.isPresent()){
@@ -3,6 +3,8 @@ package smarthome.persistence.springdata;
 import org.springframework.data.jpa.repository.JpaRepository;
 import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
 
-public interface IActuatorRepositorySpringData extends JpaRepository<ActuatorDataModel, String> {
-    Iterable<ActuatorDataModel> findByDeviceID(String deviceID);
+import java.util.UUID;
+
+public interface IActuatorRepositorySpringData extends JpaRepository<ActuatorDataModel, UUID> {
+    Iterable<ActuatorDataModel> findByDeviceID(UUID deviceID);
 }
@@ -1,10 +1,32 @@
 package smarthome.persistence.springdata;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import smarthome.persistence.jpa.datamodel.DeviceDataModel;
 
-public interface IDeviceRepositorySpringData extends JpaRepository<DeviceDataModel,String> {
+import java.util.List;
+import java.util.UUID;
 
-    Iterable <DeviceDataModel> findByRoomID (String RoomID);
+public interface IDeviceRepositorySpringData extends JpaRepository<DeviceDataModel, UUID> {
+
+    Iterable <DeviceDataModel> findByRoomID (UUID RoomID);
+
+    /**
+     * Joins every sensor with the device it belongs to, ordered by sensor type ID, then device name and device ID.
+     *
+     * @return a list of rows, each holding the sensor type ID (String) and the DeviceDataModel of one sensor
+     */
+    @Query("SELECT s.sensorTypeID, d FROM SensorDataModel s JOIN DeviceDataModel d ON d.deviceID = s.deviceID " +
+            "ORDER BY s.sensorTypeID, d.deviceName, d.deviceID")
+    List<Object[]> findDevicesWithSensorType();
+
+    /**
+     * Joins every actuator with the device it belongs to, ordered by actuator type ID, then device name and device ID.
+     *
+     * @return a list of rows, each holding the actuator type ID (String) and the DeviceDataModel of one actuator
+     */
+    @Query("SELECT a.actuatorTypeID, d FROM ActuatorDataModel a JOIN DeviceDataModel d ON d.deviceID = a.deviceID " +
+            "ORDER BY a.actuatorTypeID, d.deviceName, d.deviceID")
+    List<Object[]> findDevicesWithActuatorType();
 
 }
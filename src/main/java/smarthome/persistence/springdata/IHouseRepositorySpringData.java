@@ -3,6 +3,8 @@ package smarthome.persistence.springdata;
 import org.springframework.data.jpa.repository.JpaRepository;
 import smarthome.persistence.jpa.datamodel.HouseDataModel;
 
-public interface IHouseRepositorySpringData extends JpaRepository<HouseDataModel,String> {
+import java.util.UUID;
+
+public interface IHouseRepositorySpringData extends JpaRepository<HouseDataModel, UUID> {
 
 }
@@ -1,37 +1,152 @@
 package smarthome.persistence.springdata;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import smarthome.persistence.jpa.datamodel.LogDataModel;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface ILogRepositorySpringData extends JpaRepository<LogDataModel, String> {
+public interface ILogRepositorySpringData extends JpaRepository<LogDataModel, UUID> {
     /**
-     * Finds logs by device ID and optionally within a specified time range.
-     * If 'from' or 'to' parameters are null, the time condition is ignored.
+     * Finds which of the given log IDs are already stored, with a single query.
+     *
+     * @param logIDs the log IDs to look for
+     * @return the IDs among logIDs that belong to a stored log
+     */
+    @Query("SELECT l.logID FROM LogDataModel l WHERE l.logID IN :logIDs")
+    List<UUID> findExistingLogIDs(@Param("logIDs") Collection<UUID> logIDs);
+
+    /**
+     * Finds the IDs of logs older than the given time, through the time index.
+     *
+     * @param before   the time before which logs are expired (exclusive)
+     * @param pageable the maximum number of IDs to retrieve
+     * @return the IDs of expired logs
+     */
+    @Query("SELECT l.logID FROM LogDataModel l WHERE l.time < :before")
+    List<UUID> findLogIDsBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    /**
+     * Streams the logs older than the given time, ordered by time and log ID.
+     * Rows are fetched from the database cursor in batches and are read-only, so the stream must be consumed
+     * (and closed) inside a transaction.
+     *
+     * @param before the time before which logs are streamed (exclusive)
+     * @return a stream of LogDataModel objects that match the criteria
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM LogDataModel l WHERE l.time < :before ORDER BY l.time, l.logID")
+    Stream<LogDataModel> streamBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * Deletes the logs with the given IDs with a single statement. Must be called inside a transaction.
+     *
+     * @param logIDs the IDs of the logs to delete
+     * @return the number of logs deleted
+     */
+    @Modifying
+    @Query("DELETE FROM LogDataModel l WHERE l.logID IN :logIDs")
+    int deleteByLogIDs(@Param("logIDs") Collection<UUID> logIDs);
+
+    /**
+     * Finds all logs of a device, ordered by time.
      *
      * @param deviceID the ID of the device
-     * @param from     the start time of the time range (inclusive), or null to ignore this condition
-     * @param to       the end time of the time range (inclusive), or null to ignore this condition
      * @return a list of LogDataModel objects that match the criteria
      */
+    @Query("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID ORDER BY l.time")
+    List<LogDataModel> findByDeviceID(@Param("deviceID") UUID deviceID);
 
+    /**
+     * Finds logs of a device within a specified time range, ordered by time.
+     * The range is a plain comparison on the time column, so the query is answered from the (device, time) index.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start time of the time range (inclusive)
+     * @param to       the end time of the time range (inclusive)
+     * @return a list of LogDataModel objects that match the criteria
+     */
     @Query("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID " +
-            "AND (:from IS NULL OR l.time >= :from) " +
-            "AND (:to IS NULL OR l.time <= :to)")
+            "AND l.time BETWEEN :from AND :to " +
+            "ORDER BY l.time")
     List<LogDataModel> findByDeviceIDAndTimeBetween(
-            @Param("deviceID") String deviceID,
+            @Param("deviceID") UUID deviceID,
             @Param("from") LocalDateTime from,
             @Param("to") LocalDateTime to);
 
+    /**
+     * Streams the logs of a device within a specified time range, ordered by time.
+     * Rows are fetched from the database cursor in batches and are read-only, so the stream must be consumed
+     * (and closed) inside a transaction.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start time of the time range (inclusive)
+     * @param to       the end time of the time range (inclusive)
+     * @return a stream of LogDataModel objects that match the criteria
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID " +
+            "AND l.time BETWEEN :from AND :to " +
+            "ORDER BY l.time")
+    Stream<LogDataModel> streamByDeviceIDAndTimeBetween(
+            @Param("deviceID") UUID deviceID,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Finds a page of the logs of a device, ordered by time and log ID, starting right after the given (time, log ID)
+     * position and ending at the given time. The lower time bound is the seek position itself, so the query is answered
+     * by seeking the (device, time, id) index however deep the page is.
+     *
+     * @param deviceID the ID of the device
+     * @param seekTime the time of the last log already read (inclusive bound)
+     * @param seekID   the ID of the last log already read; logs at seekTime are only returned if their ID is greater
+     * @param to       the end time of the time range (inclusive)
+     * @param pageable the size of the page
+     * @return a list of LogDataModel objects that match the criteria
+     */
+    @Query("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID " +
+            "AND l.time >= :seekTime AND l.time <= :to " +
+            "AND (l.time > :seekTime OR l.logID > :seekID) " +
+            "ORDER BY l.time, l.logID")
+    List<LogDataModel> findPageByDeviceIDAfter(
+            @Param("deviceID") UUID deviceID,
+            @Param("seekTime") LocalDateTime seekTime,
+            @Param("seekID") UUID seekID,
+            @Param("to") LocalDateTime to,
+            Pageable pageable);
+
+    /**
+     * Finds the newest logs of a device, newest first.
+     *
+     * @param deviceID the ID of the device
+     * @param pageable the number of logs to retrieve
+     * @return a list of LogDataModel objects that match the criteria
+     */
+    @Query("SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID ORDER BY l.time DESC, l.logID DESC")
+    List<LogDataModel> findLatestByDeviceID(@Param("deviceID") UUID deviceID, Pageable pageable);
+
     /**
      * This method retrieves all log data from the database that falls within the specified time range and is associated
      * with the specified device and sensor type.
      * It is a query method that is annotated with @Query to specify the JPQL query to be executed.
-     * The query retrieves all log data that matches the specified device ID, sensor type, and time range.
+     * The query retrieves all log data that matches the specified device ID, sensor type, and time range, ordered by time.
      * The method parameters are annotated with @Param to specify the named parameters in the query.
      * The method returns a List of LogDataModel objects that match the query criteria.
      *
@@ -44,9 +159,10 @@ public interface ILogRepositorySpringData extends JpaRepository<LogDataModel, St
     @Query("SELECT l FROM LogDataModel l " +
             "WHERE l.deviceID = :deviceID " +
             "AND l.sensorTypeID = :sensorType " +
-            "AND l.time BETWEEN :start AND :end")
+            "AND l.time BETWEEN :start AND :end " +
+            "ORDER BY l.time")
     List<LogDataModel> findByDeviceIDAndSensorTypeAndTimeBetween(
-            @Param("deviceID") String deviceID,
+            @Param("deviceID") UUID deviceID,
             @Param("sensorType") String sensorType,
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end
@@ -57,7 +173,7 @@ public interface ILogRepositorySpringData extends JpaRepository<LogDataModel, St
      * Finds and retrieves logs from the database for a specific sensor type and time range, excluding logs from a specific device,
      * and with negative readings. This method is defined using a JPQL query to filter logs based on the provided criteria.
      * The query selects logs where the device ID is not equal to the specified excludeDeviceID, the sensor type ID matches
-     * the specified sensorTypeID, the log time is between the specified start and end times, and the reading contains a negative sign.
+     * the specified sensorTypeID, the log time is between the specified start and end times, and the numeric reading is negative.
      *
      * @param excludeDeviceID the ID of the device to exclude from the logs.
      * @param sensorTypeID the ID of the sensor type to filter logs.
@@ -70,11 +186,61 @@ public interface ILogRepositorySpringData extends JpaRepository<LogDataModel, St
             "WHERE l.deviceID != :excludeDeviceID " +
             "AND l.sensorTypeID = :sensorTypeID " +
             "AND l.time BETWEEN :start AND :end " +
-            "AND l.reading LIKE '%-%'")
+            "AND l.readingNumeric < 0 " +
+            "ORDER BY l.time")
     List<LogDataModel> findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(
-            @Param("excludeDeviceID") String excludeDeviceID,
+            @Param("excludeDeviceID") UUID excludeDeviceID,
             @Param("sensorTypeID") String sensorTypeID,
             @Param("start") LocalDateTime start,
             @Param("end") LocalDateTime end
     );
-}
\ No newline at end of file
+
+    /**
+     * Finds the logs of a device and sensor type within a time range whose numeric reading lies within a range,
+     * ordered by time. Both filters are answered from the (device, sensor type, time, numeric reading) index, so
+     * only the matching rows are read from the table.
+     *
+     * @param deviceID   the ID of the device
+     * @param sensorType the ID of the sensor type
+     * @param start      the start of the time range (inclusive)
+     * @param end        the end of the time range (inclusive)
+     * @param min        the smallest reading (inclusive)
+     * @param max        the largest reading (inclusive)
+     * @return a list of LogDataModel objects that match the criteria
+     */
+    @Query("SELECT l FROM LogDataModel l " +
+            "WHERE l.deviceID = :deviceID " +
+            "AND l.sensorTypeID = :sensorType " +
+            "AND l.time BETWEEN :start AND :end " +
+            "AND l.readingNumeric BETWEEN :min AND :max " +
+            "ORDER BY l.time")
+    List<LogDataModel> findByDeviceIDAndSensorTypeAndReadingBetween(
+            @Param("deviceID") UUID deviceID,
+            @Param("sensorType") String sensorType,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end,
+            @Param("min") double min,
+            @Param("max") double max);
+
+    /**
+     * Aggregates the numeric readings of a device and sensor type within a time range: their count, sum, minimum and
+     * maximum, in that order. Text readings have no numeric reading and are not counted. The aggregate is computed
+     * from the (device, sensor type, time, numeric reading) index alone.
+     *
+     * @param deviceID   the ID of the device
+     * @param sensorType the ID of the sensor type
+     * @param start      the start of the time range (inclusive)
+     * @param end        the end of the time range (exclusive)
+     * @return a single row holding the count, sum, minimum and maximum; the last three are null if there are no readings
+     */
+    @Query("SELECT COUNT(l.readingNumeric), SUM(l.readingNumeric), MIN(l.readingNumeric), MAX(l.readingNumeric) " +
+            "FROM LogDataModel l " +
+            "WHERE l.deviceID = :deviceID " +
+            "AND l.sensorTypeID = :sensorType " +
+            "AND l.time >= :start AND l.time < :end")
+    List<Object[]> aggregateReadings(
+            @Param("deviceID") UUID deviceID,
+            @Param("sensorType") String sensorType,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+}
@@ -0,0 +1,9 @@
+package smarthome.persistence.springdata;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import smarthome.persistence.jpa.datamodel.LogRollupDirtyDataModel;
+
+import java.util.UUID;
+
+public interface ILogRollupDirtyRepositorySpringData extends JpaRepository<LogRollupDirtyDataModel, UUID> {
+}
@@ -0,0 +1,72 @@
+package smarthome.persistence.springdata;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import smarthome.domain.log.RollupResolution;
+import smarthome.persistence.jpa.datamodel.LogRollupDataModel;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface ILogRollupRepositorySpringData extends JpaRepository<LogRollupDataModel, UUID> {
+
+    /**
+     * Finds the rollups of a series at one resolution whose bucket starts within a time range, ordered by bucket.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param resolution   the resolution of the rollups
+     * @param from         the start of the time range (inclusive)
+     * @param to           the end of the time range (exclusive)
+     * @return a list of LogRollupDataModel objects that match the criteria
+     */
+    @Query("SELECT r FROM LogRollupDataModel r WHERE r.deviceID = :deviceID AND r.sensorTypeID = :sensorTypeID " +
+            "AND r.resolution = :resolution AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "ORDER BY r.bucketStart")
+    List<LogRollupDataModel> findRollups(
+            @Param("deviceID") UUID deviceID,
+            @Param("sensorTypeID") String sensorTypeID,
+            @Param("resolution") RollupResolution resolution,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Deletes the rollups of a series, at every resolution, whose bucket starts within a time range.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param from         the start of the time range (inclusive)
+     * @param to           the end of the time range (exclusive)
+     * @return the number of deleted rollups
+     */
+    @Modifying
+    @Query("DELETE FROM LogRollupDataModel r WHERE r.deviceID = :deviceID AND r.sensorTypeID = :sensorTypeID " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRollups(
+            @Param("deviceID") UUID deviceID,
+            @Param("sensorTypeID") String sensorTypeID,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Deletes the rollups of a series at one resolution starting at the given bucket starts.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param resolution   the resolution of the rollups
+     * @param bucketStarts the starts of the buckets to delete
+     * @return the number of deleted rollups
+     */
+    @Modifying
+    @Query("DELETE FROM LogRollupDataModel r WHERE r.deviceID = :deviceID AND r.sensorTypeID = :sensorTypeID " +
+            "AND r.resolution = :resolution AND r.bucketStart IN :bucketStarts")
+    int deleteBuckets(
+            @Param("deviceID") UUID deviceID,
+            @Param("sensorTypeID") String sensorTypeID,
+            @Param("resolution") RollupResolution resolution,
+            @Param("bucketStarts") Collection<LocalDateTime> bucketStarts);
+}
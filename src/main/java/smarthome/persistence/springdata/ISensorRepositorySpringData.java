@@ -4,7 +4,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
 import smarthome.persistence.jpa.datamodel.SensorDataModel;
 
-public interface ISensorRepositorySpringData extends JpaRepository<SensorDataModel, String> {
-    Iterable<SensorDataModel> findByDeviceID(String deviceID);
+import java.util.UUID;
+
+public interface ISensorRepositorySpringData extends JpaRepository<SensorDataModel, UUID> {
+    Iterable<SensorDataModel> findByDeviceID(UUID deviceID);
     Iterable<SensorDataModel> findBySensorTypeID(String sensorTypeID);
 }
@@ -0,0 +1,83 @@
+package smarthome.persistence.springdata;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import smarthome.persistence.jpa.repository.LogPartitions;
+
+import java.time.YearMonth;
+
+/**
+ * Keeps the monthly partitions of the LOG table ahead of time: the current month and the next monthsAhead months
+ * always have their own partition, so new logs never land in pmax and every month can later be dropped whole by the
+ * retention purge. Does nothing on a table that is not partitioned (see {@link LogPartitions}).
+ */
+@Component
+public class LogPartitionMaintenance {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogPartitionMaintenance.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for LogPartitionMaintenance.
+     *
+     * @param transactionManager the transaction manager the partitions are changed in
+     * @param monthsAhead        the number of months after the current one that have their partition in advance
+     * @throws IllegalArgumentException if the transaction manager is null or monthsAhead is negative
+     */
+    public LogPartitionMaintenance(PlatformTransactionManager transactionManager,
+                                   @Value("${log.partitions.months-ahead:2}") int monthsAhead) {
+        if (transactionManager == null || monthsAhead < 0) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+    }
+
+    /**
+     * Adds the partitions of the months ahead that are missing. Runs at startup and then periodically.
+     */
+    @Scheduled(fixedDelayString = "${log.partitions.check-interval-ms:3600000}")
+    public void addUpcomingPartitions() {
+        addUpcomingPartitions(YearMonth.now());
+    }
+
+    /**
+     * Adds the partitions of the months ahead of the given one that are missing.
+     *
+     * @param currentMonth the current month
+     * @return the number of partitions added
+     * @throws IllegalArgumentException if the month is null
+     */
+    public int addUpcomingPartitions(YearMonth currentMonth) {
+        if (currentMonth == null) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        try {
+            if (!LogPartitions.isPartitioned(entityManager)) {
+                return 0;
+            }
+            Integer added = transactionTemplate.execute(status ->
+                    LogPartitions.addThrough(entityManager, currentMonth, currentMonth.plusMonths(monthsAhead)));
+            return added != null ? added : 0;
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            LOGGER.warn("Could not add the log partitions up to {}; retried on the next check",
+                    currentMonth.plusMonths(monthsAhead), e);
+            return 0;
+        }
+    }
+}
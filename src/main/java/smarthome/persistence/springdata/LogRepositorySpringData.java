@@ -1,20 +1,45 @@
 package smarthome.persistence.springdata;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import smarthome.domain.log.Log;
 import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.ReadingAggregate;
 import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.LogIDVO;
 import smarthome.mapper.assembler.LogAssembler;
 import smarthome.persistence.LogRepository;
 import smarthome.persistence.jpa.datamodel.LogDataModel;
+import smarthome.persistence.jpa.datamodel.UUIDBinaryConverter;
+import smarthome.persistence.jpa.repository.LogPartitions;
 import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class LogRepositorySpringData implements LogRepository {
@@ -22,6 +47,17 @@ public class LogRepositorySpringData implements LogRepository {
     private final LogFactory logFactory;
     private final SensorValueFactory sensorValueFactory;
     private static final String ERROR_MESSAGE = "Invalid parameters.";
+    private static final LocalDateTime EARLIEST_TIME = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    // Sorts before every log ID (the nil UUID is never generated), so a seek from it includes all logs at the seek time
+    private static final UUID LOWEST_ID = new UUID(0L, 0L);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The following are autowired via setter method, they are only needed by saveAll()
+    private TransactionTemplate transactionTemplate;
+    private int batchSize = 500;
 
     /**
      * Constructor for LogRepositorySpringData.
@@ -57,6 +93,182 @@ public class LogRepositorySpringData implements LogRepository {
         }
     }
 
+    /**
+     * Saves several logs to the database, batchSize logs per transaction. Each batch is persisted straight through
+     * the EntityManager, flushed as one JDBC batch and cleared, instead of going through save() and its per-log
+     * merge and transaction.
+     * Logs whose ID is already stored, or repeated earlier in the list, are skipped and reported as not saved.
+     * If a batch still fails to commit, it is rolled back and its logs are saved one by one.
+     *
+     * @param logs the logs to be saved
+     * @return one result per log, in the same order: true if the log was saved, false otherwise
+     * @throws IllegalArgumentException if the list or any of its logs is null
+     */
+    @Override
+    public List<Boolean> saveAll(List<Log> logs) {
+        if (logs == null || logs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<Boolean> results = new ArrayList<>(Collections.nCopies(logs.size(), false));
+        Set<UUID> seenIDs = new HashSet<>();
+        for (int start = 0; start < logs.size(); start += batchSize) {
+            List<Log> batch = logs.subList(start, Math.min(start + batchSize, logs.size()));
+            saveBatch(batch, start, seenIDs, results);
+        }
+        return results;
+    }
+
+    /**
+     * Writes one batch of logs in a single transaction and records which of them were saved.
+     *
+     * @param batch   the logs of the batch
+     * @param offset  the position of the first log of the batch in the full list
+     * @param seenIDs the IDs of the logs already handled, updated with the IDs of this batch
+     * @param results the results of the full list, updated for the logs of this batch
+     */
+    private void saveBatch(List<Log> batch, int offset, Set<UUID> seenIDs, List<Boolean> results) {
+        List<LogDataModel> pending = new ArrayList<>(batch.size());
+        List<Integer> positions = new ArrayList<>(batch.size());
+        try {
+            List<UUID> ids = new ArrayList<>(batch.size());
+            for (Log log : batch) {
+                ids.add(((LogIDVO) log.getId()).getUUID());
+            }
+            seenIDs.addAll(this.iLogRepositorySpringData.findExistingLogIDs(ids));
+            for (int i = 0; i < batch.size(); i++) {
+                if (seenIDs.add(ids.get(i))) {
+                    pending.add(new LogDataModel(batch.get(i)));
+                    positions.add(offset + i);
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> persist(pending));
+            for (int position : positions) {
+                results.set(position, true);
+            }
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            for (int i = 0; i < pending.size(); i++) {
+                results.set(positions.get(i), saveOne(pending.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Saves a single log in its own transaction, used when the batch it belongs to could not be committed.
+     *
+     * @param dataModel the data model of the log
+     * @return true if the log was saved, false otherwise
+     */
+    private boolean saveOne(LogDataModel dataModel) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(List.of(dataModel)));
+            return true;
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the logs of the monthly partitions older than the given month. On a table partitioned by month (see
+     * {@link LogPartitions}) the expired partitions are dropped whole. Otherwise the expired logs are found through the
+     * time index and deleted batchSize logs per transaction, so the purge never holds a long transaction or a large
+     * set of locks, and a failure only loses the current batch, which the next purge deletes again.
+     *
+     * @param oldestRetained the oldest month whose logs are kept
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the month is null
+     */
+    @Override
+    public long deletePartitionsBefore(YearMonth oldestRetained) {
+        if (oldestRetained == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        LocalDateTime before = oldestRetained.atDay(1).atStartOfDay();
+        long deleted = 0;
+        try {
+            if (LogPartitions.isPartitioned(entityManager)) {
+                Long dropped = transactionTemplate.execute(status -> LogPartitions.dropBefore(entityManager, oldestRetained));
+                return dropped != null ? dropped : 0;
+            }
+            List<UUID> ids = this.iLogRepositorySpringData.findLogIDsBefore(before, PageRequest.of(0, batchSize));
+            while (!ids.isEmpty()) {
+                List<UUID> batch = ids;
+                Integer count = transactionTemplate.execute(status -> this.iLogRepositorySpringData.deleteByLogIDs(batch));
+                deleted += count != null ? count : 0;
+                ids = this.iLogRepositorySpringData.findLogIDsBefore(before, PageRequest.of(0, batchSize));
+            }
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            // The logs left are deleted by the next purge
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the logs with the given IDs, batchSize logs per transaction, each batch with a single statement. A
+     * failure stops the deletion; the logs of the failed and following batches stay stored.
+     *
+     * @param ids the IDs of the logs to delete
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the collection or any of its IDs is null
+     */
+    @Override
+    public long deleteByIds(Collection<LogIDVO> ids) {
+        if (ids == null || ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<UUID> uuids = ids.stream().map(LogIDVO::getUUID).toList();
+        long deleted = 0;
+        try {
+            for (int from = 0; from < uuids.size(); from += batchSize) {
+                List<UUID> batch = uuids.subList(from, Math.min(from + batchSize, uuids.size()));
+                Integer count = transactionTemplate.execute(status -> this.iLogRepositorySpringData.deleteByLogIDs(batch));
+                deleted += count != null ? count : 0;
+            }
+        } catch (DataAccessException | PersistenceException | TransactionException e) {
+            // The logs left stay stored
+        }
+        return deleted;
+    }
+
+    /**
+     * Streams the logs of the monthly partitions older than the given month, ordered by time and log ID.
+     * Rows are read from a database cursor inside a read-only transaction and detached once handed to the action.
+     * A failing query is thrown to the caller.
+     *
+     * @param month  the month before which logs are streamed
+     * @param action the action applied to each log
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamReadingsBefore(YearMonth month, Consumer<Log> action) {
+        if (month == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        try (Stream<LogDataModel> dataModels = this.iLogRepositorySpringData.streamBefore(month.atDay(1).atStartOfDay())) {
+            dataModels.forEach(dataModel -> {
+                action.accept(LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, dataModel));
+                this.entityManager.detach(dataModel);
+            });
+        }
+    }
+
+    /**
+     * Persists the given data models and flushes them, then detaches them so the persistence context does not grow
+     * from one batch to the next. Must be called inside a transaction.
+     *
+     * @param dataModels the data models to persist
+     */
+    private void persist(List<LogDataModel> dataModels) {
+        try {
+            for (LogDataModel dataModel : dataModels) {
+                entityManager.persist(dataModel);
+            }
+            entityManager.flush();
+        } finally {
+            entityManager.clear();
+        }
+    }
+
     /**
      * Retrieves a log from the database by its ID.
      *
@@ -70,7 +282,7 @@ public class LogRepositorySpringData implements LogRepository {
             throw new IllegalArgumentException("LogIDVO cannot be null");
         }
         try {
-            Optional<LogDataModel> logDataModelOptional = this.iLogRepositorySpringData.findById(logIDVO.getID());
+            Optional<LogDataModel> logDataModelOptional = this.iLogRepositorySpringData.findById(logIDVO.getUUID());
             return logDataModelOptional.map(dataModel ->
                     LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, dataModel)).orElse(null);
         } catch (DataAccessException e) {
@@ -79,7 +291,8 @@ public class LogRepositorySpringData implements LogRepository {
     }
 
     /**
-     * Retrieves all logs associated with a specific device within a given time period.
+     * Retrieves all logs associated with a specific device within a given time period, ordered by time.
+     * If both time stamps are null, all logs of the device are retrieved.
      *
      * @param deviceID the ID of the device
      * @param from     the start of the time period
@@ -94,10 +307,15 @@ public class LogRepositorySpringData implements LogRepository {
         }
 
         try {
-            LocalDateTime fromValue = (from != null) ? from.getValue() : null;
-            LocalDateTime toValue = (to != null) ? to.getValue() : null;
-
-            Iterable<LogDataModel> logDataModelIterable = this.iLogRepositorySpringData.findByDeviceIDAndTimeBetween(deviceID.getID(), fromValue, toValue);
+            Iterable<LogDataModel> logDataModelIterable;
+            if (from == null && to == null) {
+                logDataModelIterable = this.iLogRepositorySpringData.findByDeviceID(deviceID.getUUID());
+            } else {
+                // A missing bound is replaced by the earliest or latest time, keeping the query a plain range
+                LocalDateTime fromValue = (from != null) ? from.getValue() : EARLIEST_TIME;
+                LocalDateTime toValue = (to != null) ? to.getValue() : LATEST_TIME;
+                logDataModelIterable = this.iLogRepositorySpringData.findByDeviceIDAndTimeBetween(deviceID.getUUID(), fromValue, toValue);
+            }
             return LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, logDataModelIterable);
         } catch (DataAccessException e) {
             // Log the exception if necessary
@@ -105,6 +323,93 @@ public class LogRepositorySpringData implements LogRepository {
         }
     }
 
+    /**
+     * Streams the logs of a specific device within a given time period, ordered by time.
+     * Rows are read from a database cursor inside a read-only transaction and each one is detached from the
+     * persistence context after it is handed to the action, so memory use stays flat regardless of the result size.
+     * A missing bound is replaced by the earliest or latest time.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param action   the action applied to each log
+     * @throws IllegalArgumentException if the deviceID or the action are null
+     * @throws DataAccessException      if reading the logs fails, possibly after some of them were handed to the action
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, Consumer<Log> action) {
+        if (deviceID == null || action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        LocalDateTime fromValue = (from != null) ? from.getValue() : EARLIEST_TIME;
+        LocalDateTime toValue = (to != null) ? to.getValue() : LATEST_TIME;
+
+        try (Stream<LogDataModel> dataModels = this.iLogRepositorySpringData.streamByDeviceIDAndTimeBetween(deviceID.getUUID(), fromValue, toValue)) {
+            dataModels.forEach(dataModel -> {
+                action.accept(LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, dataModel));
+                this.entityManager.detach(dataModel);
+            });
+        }
+    }
+
+    /**
+     * Retrieves a page of the logs of a specific device within a given time period, ordered by time and log ID.
+     * The page starts right after the cursor, or at the start of the time period if the cursor is null or points
+     * before it. A missing bound is replaced by the earliest or latest time.
+     *
+     * @param deviceID the ID of the device
+     * @param from     the start of the time period
+     * @param to       the end of the time period
+     * @param after    the cursor of the last log of the previous page, or null for the first page
+     * @param limit    the maximum number of logs in the page
+     * @return an Iterable of at most limit logs, or an empty list if a DataAccessException occurs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findReadingsPageByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, LogCursorVO after, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        LocalDateTime seekTime = (from != null) ? from.getValue() : EARLIEST_TIME;
+        UUID seekID = LOWEST_ID;
+        if (after != null && !after.getTime().getValue().isBefore(seekTime)) {
+            seekTime = after.getTime().getValue();
+            seekID = after.getLogID().getUUID();
+        }
+        LocalDateTime toValue = (to != null) ? to.getValue() : LATEST_TIME;
+
+        try {
+            Iterable<LogDataModel> logDataModelIterable = this.iLogRepositorySpringData.findPageByDeviceIDAfter(
+                    deviceID.getUUID(), seekTime, seekID, toValue, PageRequest.ofSize(limit));
+            return LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, logDataModelIterable);
+        } catch (DataAccessException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Retrieves the newest logs of a specific device, newest first.
+     *
+     * @param deviceID the ID of the device
+     * @param limit    the maximum number of logs to retrieve
+     * @return an Iterable of at most limit logs, or an empty list if a DataAccessException occurs
+     * @throws IllegalArgumentException if the deviceID is null or the limit is not positive
+     */
+    @Override
+    public Iterable<Log> findLatestReadingsByDeviceID(DeviceIDVO deviceID, int limit) {
+        if (deviceID == null || limit <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        try {
+            Iterable<LogDataModel> logDataModelIterable = this.iLogRepositorySpringData.findLatestByDeviceID(
+                    deviceID.getUUID(), PageRequest.ofSize(limit));
+            return LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, logDataModelIterable);
+        } catch (DataAccessException e) {
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Checks if a log with the given ID is present in the database.
      *
@@ -157,10 +462,10 @@ public class LogRepositorySpringData implements LogRepository {
         }
 
         try {
-            String deviceIDString = deviceID.getID();
+            UUID deviceUUID = deviceID.getUUID();
             LocalDateTime startTime = start.getValue();
             LocalDateTime endTime = end.getValue();
-            Iterable<LogDataModel> listOfLogs = this.iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndTimeBetween(deviceIDString, sensorType, startTime, endTime);
+            Iterable<LogDataModel> listOfLogs = this.iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndTimeBetween(deviceUUID, sensorType, startTime, endTime);
             return LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, listOfLogs);
         } catch (DataAccessException e) {
             return null;
@@ -189,7 +494,7 @@ public class LogRepositorySpringData implements LogRepository {
         try {
             LocalDateTime startTime = start.getValue();
             LocalDateTime endTime = end.getValue();
-            Iterable<LogDataModel> gridPowerMeterLogsDataModel = this.iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID, sensorType, startTime, endTime);
+            Iterable<LogDataModel> gridPowerMeterLogsDataModel = this.iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndTimeBetween(UUIDBinaryConverter.fromText(deviceID), sensorType, startTime, endTime);
             return LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, gridPowerMeterLogsDataModel);
         } catch (DataAccessException e) {
             return null;
@@ -217,10 +522,81 @@ public class LogRepositorySpringData implements LogRepository {
         try {
             LocalDateTime startTime = start.getValue();
             LocalDateTime endTime = end.getValue();
-            Iterable<LogDataModel> powerSourceLogsDataModel = this.iLogRepositorySpringData.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(excludeDeviceID, sensorType, startTime, endTime);
+            Iterable<LogDataModel> powerSourceLogsDataModel = this.iLogRepositorySpringData.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(UUIDBinaryConverter.fromText(excludeDeviceID), sensorType, startTime, endTime);
             return LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, powerSourceLogsDataModel);
         } catch (DataAccessException e) {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the logs of a given sensor type for a specific device within a given time period whose numeric
+     * reading lies within a range, ordered by time. The reading range is evaluated by the database on the numeric
+     * reading column.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (inclusive)
+     * @param min          the smallest reading wanted (inclusive)
+     * @param max          the largest reading wanted (inclusive)
+     * @return an Iterable of logs that match the given criteria, or null if the database could not be read
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndReadingBetween(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end, double min, double max) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        try {
+            List<LogDataModel> dataModels = this.iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndReadingBetween(
+                    deviceID.getUUID(), sensorTypeID.getID(), start.getValue(), end.getValue(), min, max);
+            return LogAssembler.toDomain(this.logFactory, this.sensorValueFactory, dataModels);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Aggregates the numeric readings of a given sensor type for a specific device within a given time period. The
+     * count, sum, minimum and maximum are computed by the database, so no reading is transferred.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param start        the start of the time period (inclusive)
+     * @param end          the end of the time period (exclusive)
+     * @return the aggregate of the readings over the period, or null if the database could not be read
+     * @throws IllegalArgumentException if any of the parameters are null, or end is before start
+     */
+    @Override
+    public ReadingAggregate aggregateReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end) {
+        if (deviceID == null || sensorTypeID == null || start == null || end == null || end.getValue().isBefore(start.getValue())) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        try {
+            Object[] row = this.iLogRepositorySpringData.aggregateReadings(
+                    deviceID.getUUID(), sensorTypeID.getID(), start.getValue(), end.getValue()).get(0);
+            long count = ((Number) row[0]).longValue();
+            if (count == 0) {
+                return ReadingAggregate.empty(start, end);
+            }
+            return new ReadingAggregate(start, end, count, ((Number) row[1]).doubleValue(),
+                    ((Number) row[2]).doubleValue(), ((Number) row[3]).doubleValue());
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Autowired
+    public void setBatchSize(@Value("${log.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        this.batchSize = batchSize;
+    }
+}
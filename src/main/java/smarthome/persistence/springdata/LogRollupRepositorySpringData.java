@@ -0,0 +1,182 @@
+package smarthome.persistence.springdata;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.mapper.assembler.LogRollupAssembler;
+import smarthome.persistence.LogRollupRepository;
+import smarthome.persistence.jpa.datamodel.LogRollupDataModel;
+import smarthome.persistence.jpa.datamodel.LogRollupDirtyDataModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+public class LogRollupRepositorySpringData implements LogRollupRepository {
+    private final ILogRollupRepositorySpringData iLogRollupRepositorySpringData;
+    private final ILogRollupDirtyRepositorySpringData iLogRollupDirtyRepositorySpringData;
+    private static final String ERROR_MESSAGE = "Invalid parameters.";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for LogRollupRepositorySpringData.
+     *
+     * @param iLogRollupRepositorySpringData      the Spring Data repository used for the rollups
+     * @param iLogRollupDirtyRepositorySpringData the Spring Data repository used for the dirty minutes
+     */
+    public LogRollupRepositorySpringData(ILogRollupRepositorySpringData iLogRollupRepositorySpringData,
+                                         ILogRollupDirtyRepositorySpringData iLogRollupDirtyRepositorySpringData) {
+        this.iLogRollupRepositorySpringData = iLogRollupRepositorySpringData;
+        this.iLogRollupDirtyRepositorySpringData = iLogRollupDirtyRepositorySpringData;
+    }
+
+    /**
+     * Replaces the rollups of a series within a period in a single transaction: the old buckets are deleted with one
+     * statement and the new ones are persisted directly, so no bucket is read back first.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param from         the start of the period (inclusive)
+     * @param to           the end of the period (exclusive)
+     * @param rollups      the new rollups of the period, by resolution
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    @Transactional
+    public void replaceRollups(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to,
+                               Map<RollupResolution, List<ReadingAggregate>> rollups) {
+        if (deviceID == null || sensorTypeID == null || from == null || to == null || rollups == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        iLogRollupRepositorySpringData.deleteRollups(deviceID.getUUID(), sensorTypeID.getID(), from.getValue(), to.getValue());
+        for (Map.Entry<RollupResolution, List<ReadingAggregate>> entry : rollups.entrySet()) {
+            for (ReadingAggregate aggregate : entry.getValue()) {
+                entityManager.persist(new LogRollupDataModel(deviceID.getUUID(), sensorTypeID.getID(), entry.getKey(), aggregate));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Replaces individual buckets of a series in a single transaction: the old buckets of each resolution are deleted
+     * with one statement and the new ones holding readings are persisted directly.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param buckets      the new buckets, by resolution
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    @Transactional
+    public void replaceBuckets(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID,
+                               Map<RollupResolution, List<ReadingAggregate>> buckets) {
+        if (deviceID == null || sensorTypeID == null || buckets == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        for (Map.Entry<RollupResolution, List<ReadingAggregate>> entry : buckets.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            List<LocalDateTime> bucketStarts = new ArrayList<>();
+            for (ReadingAggregate aggregate : entry.getValue()) {
+                bucketStarts.add(aggregate.getStart().getValue());
+            }
+            iLogRollupRepositorySpringData.deleteBuckets(deviceID.getUUID(), sensorTypeID.getID(), entry.getKey(), bucketStarts);
+            for (ReadingAggregate aggregate : entry.getValue()) {
+                if (aggregate.getCount() > 0) {
+                    entityManager.persist(new LogRollupDataModel(deviceID.getUUID(), sensorTypeID.getID(), entry.getKey(), aggregate));
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Marks a minute bucket of a series as dirty. The mark has a name-based ID, so marking it again rewrites the
+     * same row.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minute       the start of the minute bucket
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public void markDirty(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO minute) {
+        if (deviceID == null || sensorTypeID == null || minute == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        iLogRollupDirtyRepositorySpringData.save(
+                new LogRollupDirtyDataModel(deviceID.getUUID(), sensorTypeID.getID(), minute.getValue()));
+    }
+
+    /**
+     * Removes the marks of minute buckets of a series, in one transaction.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minutes      the starts of the minute buckets
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public void clearDirty(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, Collection<TimeStampVO> minutes) {
+        if (deviceID == null || sensorTypeID == null || minutes == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (TimeStampVO minute : minutes) {
+            ids.add(LogRollupDirtyDataModel.idOf(deviceID.getUUID(), sensorTypeID.getID(), minute.getValue()));
+        }
+        iLogRollupDirtyRepositorySpringData.deleteAllByIdInBatch(ids);
+    }
+
+    /**
+     * Retrieves every minute bucket marked as dirty.
+     *
+     * @return the marked minute buckets, in no particular order
+     */
+    @Override
+    public List<DirtyMinute> findDirty() {
+        List<DirtyMinute> dirtyMinutes = new ArrayList<>();
+        for (LogRollupDirtyDataModel dataModel : iLogRollupDirtyRepositorySpringData.findAll()) {
+            dirtyMinutes.add(new DirtyMinute(new DeviceIDVO(dataModel.getDeviceID()),
+                    new SensorTypeIDVO(dataModel.getSensorTypeID()), new TimeStampVO(dataModel.getMinuteStart())));
+        }
+        return dirtyMinutes;
+    }
+
+    /**
+     * Retrieves the rollups of a series at one resolution whose bucket starts within a period.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param resolution   the resolution of the rollups
+     * @param from         the start of the period (inclusive)
+     * @param to           the end of the period (exclusive)
+     * @return the rollups, in ascending bucket order
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    @Override
+    public List<ReadingAggregate> findRollups(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, RollupResolution resolution,
+                                              TimeStampVO from, TimeStampVO to) {
+        if (deviceID == null || sensorTypeID == null || resolution == null || from == null || to == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        List<LogRollupDataModel> dataModels = iLogRollupRepositorySpringData.findRollups(
+                deviceID.getUUID(), sensorTypeID.getID(), resolution, from.getValue(), to.getValue());
+        return LogRollupAssembler.toDomain(dataModels);
+    }
+}
@@ -11,6 +11,7 @@ import smarthome.persistence.jpa.datamodel.RoomDataModel;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.UUID;
 
 /**
  * RoomRepositorySpringData class is a concrete implementation of RoomRepository interface.
@@ -154,7 +155,7 @@ public class RoomRepositorySpringData implements RoomRepository {
      */
 
     private Optional<RoomDataModel> getDataModelFromId(RoomIDVO roomIDVO) {
-        String roomId = roomIDVO.getID();
+        UUID roomId = roomIDVO.getUUID();
         return this.iRoomRepositorySpringData.findById(roomId);
     }
 }
@@ -16,6 +16,7 @@ import smarthome.persistence.jpa.datamodel.SensorDataModel;
 
 import java.util.Collections;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public class SensorRepositorySpringData implements SensorRepository {
@@ -57,7 +58,7 @@ public class SensorRepositorySpringData implements SensorRepository {
         if (id == null) {
             return null;
         }
-        String sensorId = id.getID();
+        UUID sensorId = id.getUUID();
         try {
             Optional<SensorDataModel> sensorDataModelOptional = this.iSensorRepositorySpringData.findById(sensorId);
             if (sensorDataModelOptional.isPresent()) {
@@ -110,7 +111,7 @@ public class SensorRepositorySpringData implements SensorRepository {
     @Override
     public Iterable<Sensor> findByDeviceID(DeviceIDVO deviceID) {
         try {
-            Iterable<SensorDataModel> sensorDataModelIterable = this.iSensorRepositorySpringData.findByDeviceID(deviceID.getID());
+            Iterable<SensorDataModel> sensorDataModelIterable = this.iSensorRepositorySpringData.findByDeviceID(deviceID.getUUID());
             return SensorAssembler.toDomain(this.sensorFactory, sensorDataModelIterable);
         } catch (RuntimeException e) {
             return Collections.emptyList();
@@ -0,0 +1,484 @@
+package smarthome.persistence.writebehind;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.persistence.LogRepository;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * LogRepository that writes logs behind the caller's back.
+ * <p>
+ * save() only places the log in a bounded queue and returns; a single writer thread takes the queued logs and hands
+ * them to the wrapped repository's saveAll(), committing a group as soon as it holds batchSize logs or maxDelay has
+ * passed since its first log, whichever comes first. The request that produced a reading therefore no longer waits
+ * for a database commit.
+ * </p>
+ * <p>
+ * When the queue is full, save() waits up to offerTimeout for room and then gives up returning false, so a slow
+ * database slows producers down instead of growing memory. Reads first wait for the logs already queued to be
+ * committed, so a caller always sees its own writes; a waiting read has the writer commit the group it is gathering
+ * at once instead of letting it fill up, so the read waits for a commit, not for maxDelay. close() stops accepting
+ * logs and commits everything still queued; logs still queued when the process dies without close() are lost, which
+ * is the price of this mode.
+ * </p>
+ * <p>
+ * A group whose commit fails is retried a few times, backing off between attempts. If it still fails, its logs are
+ * dropped: the failure is logged and counted in the failed logs and failed commits published over JMX.
+ * </p>
+ */
+public class LogRepositoryWriteBehind implements LogRepository, LogRepositoryWriteBehindMXBean, AutoCloseable {
+
+    private static final String ERROR_MESSAGE = "Invalid parameters.";
+    private static final String OBJECT_NAME = "smarthome:type=LogRepositoryWriteBehind";
+    // How long an idle writer waits before checking again whether the repository was closed
+    private static final long IDLE_POLL_MILLIS = 100;
+    // How often a writer gathering a group checks whether a read is waiting for it
+    private static final long FLUSH_CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int COMMIT_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MILLIS = 200;
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogRepositoryWriteBehind.class);
+
+    private final LogRepository delegate;
+    private final BlockingQueue<Log> queue;
+    private final int capacity;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutNanos;
+    private final Thread writer;
+    private volatile boolean closed;
+    private boolean registered;
+
+    // Logs accepted into the queue, and logs the writer is done with (saved or not), guarded by progressLock
+    private final AtomicLong enqueued = new AtomicLong();
+    private final Object progressLock = new Object();
+    private long completed;
+    // Reads waiting in flush(), which the writer serves by committing its group without waiting for it to fill up
+    private final AtomicInteger flushWaiters = new AtomicInteger();
+
+    private final AtomicLong committedLogs = new AtomicLong();
+    private final AtomicLong failedLogs = new AtomicLong();
+    private final AtomicLong rejectedLogs = new AtomicLong();
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong failedCommits = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+
+    /**
+     * Constructor for LogRepositoryWriteBehind. Starts the writer thread.
+     *
+     * @param delegate           the repository the logs are written to
+     * @param capacity           the maximum number of queued logs
+     * @param batchSize          the maximum number of logs per group commit
+     * @param maxDelayMillis     the maximum time a log waits in the queue for its group to fill up
+     * @param offerTimeoutMillis the maximum time save() waits for room in a full queue
+     * @throws IllegalArgumentException if the delegate is null, the capacity or batch size are not positive or the
+     *                                  times are negative
+     */
+    public LogRepositoryWriteBehind(LogRepository delegate, int capacity, int batchSize, long maxDelayMillis, long offerTimeoutMillis) {
+        if (delegate == null || capacity <= 0 || batchSize <= 0 || maxDelayMillis < 0 || offerTimeoutMillis < 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        this.delegate = delegate;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.writer = new Thread(this::writeLoop, "log-write-behind");
+        // Spring closes the repository on shutdown; the thread must not keep the JVM alive if nobody does
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a log to be written by the writer thread. If the queue is full, waits up to offerTimeout for room.
+     *
+     * @param log the log to be saved
+     * @return true if the log was queued, false if the queue stayed full or the repository is closed
+     * @throws IllegalArgumentException if the log is null
+     */
+    @Override
+    public boolean save(Log log) {
+        if (log == null) {
+            throw new IllegalArgumentException("Log cannot be null");
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            if (queue.offer(log, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                enqueued.incrementAndGet();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectedLogs.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Saves several logs straight through the wrapped repository, which already writes them in batches, after the
+     * logs queued before them. Unlike save(), the results tell whether each log was actually saved.
+     *
+     * @param logs the logs to be saved
+     * @return one result per log, in the same order: true if the log was saved, false otherwise
+     * @throws IllegalArgumentException if the list or any of its logs is null
+     */
+    @Override
+    public List<Boolean> saveAll(List<Log> logs) {
+        if (logs == null || logs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        flush();
+        return delegate.saveAll(logs);
+    }
+
+    /**
+     * Writes the queued logs, so that expired ones are not written back after the purge, then delegates.
+     */
+    @Override
+    public long deletePartitionsBefore(YearMonth oldestRetained) {
+        if (oldestRetained == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        flush();
+        return delegate.deletePartitionsBefore(oldestRetained);
+    }
+
+    /**
+     * Writes the queued logs, so that deleted ones are not written back afterwards, then delegates.
+     */
+    @Override
+    public long deleteByIds(Collection<LogIDVO> ids) {
+        if (ids == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        flush();
+        return delegate.deleteByIds(ids);
+    }
+
+    @Override
+    public void streamReadingsBefore(YearMonth month, Consumer<Log> action) {
+        flush();
+        delegate.streamReadingsBefore(month, action);
+    }
+
+    @Override
+    public Iterable<Log> findAll() {
+        flush();
+        return delegate.findAll();
+    }
+
+    @Override
+    public Log findById(LogIDVO id) {
+        flush();
+        return delegate.findById(id);
+    }
+
+    @Override
+    public boolean isPresent(LogIDVO id) {
+        flush();
+        return delegate.isPresent(id);
+    }
+
+    @Override
+    public Iterable<Log> findReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to) {
+        flush();
+        return delegate.findReadingsByDeviceID(deviceID, from, to);
+    }
+
+    @Override
+    public void streamReadingsByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, Consumer<Log> action) {
+        flush();
+        delegate.streamReadingsByDeviceID(deviceID, from, to, action);
+    }
+
+    @Override
+    public Iterable<Log> findReadingsPageByDeviceID(DeviceIDVO deviceID, TimeStampVO from, TimeStampVO to, LogCursorVO after, int limit) {
+        flush();
+        return delegate.findReadingsPageByDeviceID(deviceID, from, to, after, limit);
+    }
+
+    @Override
+    public Iterable<Log> findLatestReadingsByDeviceID(DeviceIDVO deviceID, int limit) {
+        flush();
+        return delegate.findLatestReadingsByDeviceID(deviceID, limit);
+    }
+
+    @Override
+    public Iterable<Log> getDeviceTemperatureLogs(DeviceIDVO deviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        flush();
+        return delegate.getDeviceTemperatureLogs(deviceID, sensorType, start, end);
+    }
+
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndTimeBetween(String deviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        flush();
+        return delegate.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID, sensorType, start, end);
+    }
+
+    @Override
+    public Iterable<Log> findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(String excludeDeviceID, String sensorType, TimeStampVO start, TimeStampVO end) {
+        flush();
+        return delegate.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(excludeDeviceID, sensorType, start, end);
+    }
+
+    @Override
+    public Iterable<Log> findByDeviceIDAndSensorTypeAndReadingBetween(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end, double min, double max) {
+        flush();
+        return delegate.findByDeviceIDAndSensorTypeAndReadingBetween(deviceID, sensorTypeID, start, end, min, max);
+    }
+
+    @Override
+    public ReadingAggregate aggregateReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO start, TimeStampVO end) {
+        flush();
+        return delegate.aggregateReadings(deviceID, sensorTypeID, start, end);
+    }
+
+    /**
+     * Waits until every log queued before this call has been handed to the wrapped repository. Returns at once when
+     * nothing is pending; otherwise the writer commits the group it is gathering straight away, so this takes about
+     * the commit under way plus one more, rather than maxDelay.
+     */
+    public void flush() {
+        long target = enqueued.get();
+        flushWaiters.incrementAndGet();
+        try {
+            synchronized (progressLock) {
+                while (completed < target && writer.isAlive()) {
+                    progressLock.wait(IDLE_POLL_MILLIS);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushWaiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Stops accepting logs, commits every log still queued and waits for the writer thread to finish.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // A save() racing with close() may have queued a log after the writer's last look at the queue
+        List<Log> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            commit(rest);
+        }
+        unregisterMBean();
+    }
+
+    /**
+     * Publishes the metrics of this repository over JMX. Only one instance can be published at a time; a second one
+     * is left unpublished.
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                registered = true;
+            }
+        } catch (JMException e) {
+            // Metrics are optional, the repository works the same without them
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+        if (!registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Already gone
+        }
+        registered = false;
+    }
+
+    /**
+     * Body of the writer thread: gathers groups of logs from the queue and commits them, until the repository is
+     * closed and the queue is empty.
+     */
+    private void writeLoop() {
+        List<Log> batch = new ArrayList<>(batchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                Log first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                // Nobody interrupts the writer but close() can no longer be relied upon, so wind down
+                closed = true;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Adds queued logs to the batch until it holds batchSize logs or maxDelay has passed since its first log. When
+     * the repository is closing or a read is waiting in flush(), takes whatever is queued without waiting.
+     *
+     * @param batch the batch, holding its first log
+     * @throws InterruptedException if the writer thread is interrupted while waiting
+     */
+    private void fillBatch(List<Log> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == batchSize || closed || flushWaiters.get() > 0 || remaining <= 0) {
+                return;
+            }
+            // Waits in short steps so that a read arriving meanwhile is noticed
+            Log next = queue.poll(Math.min(remaining, FLUSH_CHECK_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    /**
+     * Writes a group of logs through the wrapped repository and records the outcome. A commit that fails as a whole
+     * is retried up to COMMIT_ATTEMPTS times, waiting longer after each attempt; the wrapped repository reports the
+     * logs an earlier attempt already saved as not saved, so none is written twice. A group that still fails is
+     * logged and counts all of its logs as failed, since there is no caller left to report them to.
+     *
+     * @param batch the logs to write
+     */
+    private void commit(List<Log> batch) {
+        long start = System.nanoTime();
+        int saved = 0;
+        for (int attempt = 1; attempt <= COMMIT_ATTEMPTS; attempt++) {
+            try {
+                for (Boolean result : delegate.saveAll(batch)) {
+                    if (Boolean.TRUE.equals(result)) {
+                        saved++;
+                    }
+                }
+                break;
+            } catch (RuntimeException e) {
+                if (attempt == COMMIT_ATTEMPTS || !backOff(attempt)) {
+                    failedCommits.incrementAndGet();
+                    LOGGER.error("Dropped {} queued logs after {} failed commit attempts", batch.size(), attempt, e);
+                    break;
+                }
+                LOGGER.warn("Commit of {} queued logs failed, retrying (attempt {} of {})", batch.size(), attempt,
+                        COMMIT_ATTEMPTS, e);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        commits.incrementAndGet();
+        commitNanos.addAndGet(elapsed);
+        maxCommitNanos.accumulateAndGet(elapsed, Math::max);
+        committedLogs.addAndGet(saved);
+        failedLogs.addAndGet((long) batch.size() - saved);
+        synchronized (progressLock) {
+            completed += batch.size();
+            progressLock.notifyAll();
+        }
+    }
+
+    /**
+     * Waits before retrying a failed commit, longer after each attempt.
+     *
+     * @param attempt the number of the attempt that failed
+     * @return true if the wait completed, false if the thread was interrupted and should stop retrying
+     */
+    private static boolean backOff(int attempt) {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MILLIS * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getCommittedLogs() {
+        return committedLogs.get();
+    }
+
+    @Override
+    public long getFailedLogs() {
+        return failedLogs.get();
+    }
+
+    @Override
+    public long getRejectedLogs() {
+        return rejectedLogs.get();
+    }
+
+    @Override
+    public long getCommits() {
+        return commits.get();
+    }
+
+    @Override
+    public long getFailedCommits() {
+        return failedCommits.get();
+    }
+
+    @Override
+    public double getAverageCommitMillis() {
+        long count = commits.get();
+        return count == 0 ? 0 : commitNanos.get() / 1e6 / count;
+    }
+
+    @Override
+    public double getMaxCommitMillis() {
+        return maxCommitNanos.get() / 1e6;
+    }
+}
@@ -0,0 +1,53 @@
+package smarthome.persistence.writebehind;
+
+/**
+ * Management interface of {@link LogRepositoryWriteBehind}, published over JMX so the queue and the commits of the
+ * write-behind pipeline can be watched at runtime.
+ */
+public interface LogRepositoryWriteBehindMXBean {
+
+    /**
+     * @return the number of logs waiting in the queue
+     */
+    int getQueueDepth();
+
+    /**
+     * @return the maximum number of logs the queue holds before saves are held back
+     */
+    int getQueueCapacity();
+
+    /**
+     * @return the number of logs written to the database
+     */
+    long getCommittedLogs();
+
+    /**
+     * @return the number of logs taken from the queue that the database did not save
+     */
+    long getFailedLogs();
+
+    /**
+     * @return the number of logs refused because the queue stayed full
+     */
+    long getRejectedLogs();
+
+    /**
+     * @return the number of group commits
+     */
+    long getCommits();
+
+    /**
+     * @return the number of group commits that still failed after every retry, whose logs were dropped
+     */
+    long getFailedCommits();
+
+    /**
+     * @return the average duration of a group commit, in milliseconds
+     */
+    double getAverageCommitMillis();
+
+    /**
+     * @return the longest duration of a group commit, in milliseconds
+     */
+    double getMaxCommitMillis();
+}
@@ -0,0 +1,45 @@
+package smarthome.persistence.writebehind;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import smarthome.persistence.LogRepository;
+import smarthome.persistence.springdata.LogRepositorySpringData;
+
+/**
+ * Turns on the write-behind log pipeline when {@code log.write-behind.enabled=true}: the Spring Data log repository
+ * is wrapped in a {@link LogRepositoryWriteBehind}, which then becomes the LogRepository injected into the services,
+ * unless the log archive is enabled, in which case the archive wraps it in turn (see
+ * {@link smarthome.persistence.archive.LogArchiveConfiguration}).
+ * Spring closes it on shutdown, before the database, so queued logs are committed first.
+ */
+@Configuration
+@ConditionalOnProperty(name = "log.write-behind.enabled", havingValue = "true")
+public class LogWriteBehindConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public LogRepositoryWriteBehind logRepositoryWriteBehind(
+            LogRepositorySpringData logRepositorySpringData,
+            @Value("${log.write-behind.capacity:10000}") int capacity,
+            @Value("${log.write-behind.batch-size:500}") int batchSize,
+            @Value("${log.write-behind.max-delay-ms:50}") long maxDelayMillis,
+            @Value("${log.write-behind.offer-timeout-ms:100}") long offerTimeoutMillis) {
+        LogRepositoryWriteBehind repository = new LogRepositoryWriteBehind(
+                logRepositorySpringData, capacity, batchSize, maxDelayMillis, offerTimeoutMillis);
+        repository.registerMBean();
+        return repository;
+    }
+
+    /**
+     * Injects the write-behind repository into the services when the log archive is not there to wrap it. It is the
+     * same instance as logRepositoryWriteBehind, which already closes it.
+     */
+    @Bean(destroyMethod = "")
+    @Primary
+    @ConditionalOnProperty(name = "log.archive.enabled", havingValue = "false", matchIfMissing = true)
+    public LogRepository primaryLogRepository(LogRepositoryWriteBehind logRepositoryWriteBehind) {
+        return logRepositoryWriteBehind;
+    }
+}
@@ -7,6 +7,7 @@ import smarthome.domain.vo.actuatorvo.Settings;
 import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
 import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,4 +20,8 @@ public interface ActuatorService {
 
     Actuator executeCommand (ActuatorIDVO actuatorIDVO, String command);
     List<Actuator> getListOfActuatorsInADevice(DeviceIDVO deviceIDVO);
+
+    GroupCommandResult executeRoomCommand(RoomIDVO roomIDVO, ActuatorTypeIDVO actuatorTypeIDVO, String command);
+
+    GroupCommandResult executeGroupCommand(List<DeviceIDVO> deviceIDVOs, ActuatorTypeIDVO actuatorTypeIDVO, String command);
 }
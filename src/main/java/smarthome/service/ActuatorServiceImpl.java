@@ -1,6 +1,8 @@
 package smarthome.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import smarthome.domain.actuator.Actuator;
 import smarthome.domain.actuator.ActuatorFactory;
@@ -14,18 +16,40 @@ import smarthome.domain.vo.actuatorvo.Settings;
 import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
 import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.service.command.ActuatorCommandQueue;
+import smarthome.service.command.CommandReceipt;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
-public class ActuatorServiceImpl implements ActuatorService {
+public class ActuatorServiceImpl implements ActuatorService, AutoCloseable {
+    private static final int DEFAULT_GROUP_COMMAND_PARALLELISM = 16;
+    private static final long DEFAULT_GROUP_COMMAND_TIMEOUT_MILLIS = 5000;
+    private static final String TIMED_OUT = "Timed out";
+    private static final String SUPERSEDED = "Superseded by a newer command";
+
     private final DeviceRepository deviceRepository;
     private final ActuatorTypeRepository actuatorTypeRepository;
     private final ActuatorFactory actuatorFactory;
     private final ActuatorRepository actuatorRepository;
+    private final ThreadPoolExecutor groupCommandExecutor;
+    private final long groupCommandTimeoutMillis;
     private ActuatorExternalService actuatorExternalService;
+    private ObjectProvider<ActuatorCommandQueue> commandQueue;
 
     /**
      * Constructs an instance of V1ActuatorService with the provided dependencies.
@@ -37,15 +61,37 @@ public class ActuatorServiceImpl implements ActuatorService {
 
     public ActuatorServiceImpl(DeviceRepository deviceRepository, ActuatorTypeRepository actuatorTypeRepository,
                                ActuatorFactory actuatorFactory, ActuatorRepository actuatorRepository) {
+        this(deviceRepository, actuatorTypeRepository, actuatorFactory, actuatorRepository,
+                DEFAULT_GROUP_COMMAND_PARALLELISM, DEFAULT_GROUP_COMMAND_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Constructs an instance of ActuatorServiceImpl with the provided dependencies and the settings of the group
+     * commands, configured with the {@code actuator.group-command.*} properties.
+     *
+     * @param groupCommandParallelism   The maximum number of actuators commanded at once, across all group commands.
+     * @param groupCommandTimeoutMillis The maximum time a group command waits for the hardware, in milliseconds.
+     * @throws IllegalArgumentException if any of the dependencies is null or either number is not positive.
+     */
+    @Autowired
+    public ActuatorServiceImpl(DeviceRepository deviceRepository, ActuatorTypeRepository actuatorTypeRepository,
+                               ActuatorFactory actuatorFactory, ActuatorRepository actuatorRepository,
+                               @Value("${actuator.group-command.parallelism:16}") int groupCommandParallelism,
+                               @Value("${actuator.group-command.timeout-ms:5000}") long groupCommandTimeoutMillis) {
 
         if (areParamsNull(deviceRepository, actuatorTypeRepository, actuatorFactory, actuatorRepository)) {
             throw new IllegalArgumentException("Parameters cannot be null");
         }
+        if (groupCommandParallelism <= 0 || groupCommandTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
 
         this.deviceRepository = deviceRepository;
         this.actuatorTypeRepository = actuatorTypeRepository;
         this.actuatorFactory = actuatorFactory;
         this.actuatorRepository = actuatorRepository;
+        this.groupCommandExecutor = newGroupCommandExecutor(groupCommandParallelism);
+        this.groupCommandTimeoutMillis = groupCommandTimeoutMillis;
     }
 
     /**
@@ -103,12 +149,25 @@ public class ActuatorServiceImpl implements ActuatorService {
         this.actuatorExternalService = actuatorExternalService;
     }
 
+    /**
+     * Setter method for the ActuatorCommandQueue, looked up when a command is sent rather than injected, as the queue
+     * itself executes its commands through this service. When the queue is available, closeRollerBlind and the group
+     * commands go through it, so they are executed one at a time with the other commands for the same actuator.
+     *
+     * @param commandQueue The provider of the ActuatorCommandQueue, which has none if coalescing is turned off.
+     */
+    @Autowired
+    public void setCommandQueue(ObjectProvider<ActuatorCommandQueue> commandQueue) {
+        this.commandQueue = commandQueue;
+    }
+
     /**
      * Closes a roller blind actuator associated with the provided actuator ID.
      *
      * @param actuatorIDVO the ID of the actuator to close.
      * @return {@code true} if the roller blind actuator was successfully closed and the executeCommand method
-     * returns "0" as a string (to signal 0% opened), indicating a successful operation; {@code false} otherwise.
+     * returns "0" as a string (to signal 0% opened), indicating a successful operation, and its new status was saved;
+     * {@code false} otherwise, including when a newer command for the actuator superseded it in the command queue.
      */
     public boolean closeRollerBlind(ActuatorIDVO actuatorIDVO) {
         try {
@@ -119,11 +178,16 @@ public class ActuatorServiceImpl implements ActuatorService {
             String actuatorType = "RollerBlindActuator";
             String actuatorTypeID = actuator.getActuatorTypeID().getID();
             if (actuatorTypeID.equals(actuatorType)) {
+                CompletableFuture<CommandReceipt> queued = submitToCommandQueue(actuatorIDVO, "0");
+                if (queued != null) {
+                    CommandReceipt receipt = queued.join();
+                    return !receipt.isSuperseded() && "0".equals(receipt.getActuator().getActuatorStatus().getValue());
+                }
                 String result = actuator.executeCommand(actuatorExternalService,"0");
-                return (result.equals("0"));
+                return result.equals("0") && actuatorRepository.save(actuator);
             }
             return false;
-        } catch (NullPointerException e) {
+        } catch (NullPointerException | CompletionException e) {
             return false;
         }
     }
@@ -169,6 +233,218 @@ public class ActuatorServiceImpl implements ActuatorService {
         return actuatorList;
     }
 
+    /**
+     * Executes a command on every actuator of the given type in the active devices of a room, for instance closing
+     * every roller blind of the room at once.
+     *
+     * @param roomIDVO         the ID of the room
+     * @param actuatorTypeIDVO the type of the actuators to command
+     * @param command          the command to be executed on each actuator
+     * @return the outcome of each actuator and the time the whole group took; no outcomes if the room has no such
+     * actuators
+     * @throws IllegalArgumentException if any of the parameters is null or the actuator type is not present
+     * @see #executeGroupCommand(List, ActuatorTypeIDVO, String)
+     */
+    public GroupCommandResult executeRoomCommand(RoomIDVO roomIDVO, ActuatorTypeIDVO actuatorTypeIDVO, String command) {
+        if (areParamsNull(roomIDVO, actuatorTypeIDVO, command)) {
+            throw new IllegalArgumentException("Parameters cannot be null");
+        }
+        long start = System.nanoTime();
+        List<Device> devices = new ArrayList<>();
+        Iterable<Device> devicesInRoom = deviceRepository.findByRoomID(roomIDVO);
+        if (devicesInRoom != null) {
+            devicesInRoom.forEach(devices::add);
+        }
+        return executeOnDevices(devices, actuatorTypeIDVO, command, start);
+    }
+
+    /**
+     * Executes a command on every actuator of the given type in a group of devices.
+     * <p>
+     * The actuators are commanded concurrently, at most {@code actuator.group-command.parallelism} at once, so the
+     * group takes about as long as its slowest actuators rather than the sum of all of them. The new state of every
+     * actuator that executed the command is then saved in a single batch. Actuators of inactive devices are left out,
+     * and an actuator failing does not stop the others.
+     * </p>
+     * <p>
+     * Actuators the hardware has not answered for within {@code actuator.group-command.timeout-ms} are reported as
+     * timed out, but their commands are not interrupted, as the hardware may already have applied them: each one is
+     * saved on its own once the hardware answers. When the {@link ActuatorCommandQueue} is available, the commands go
+     * through it instead, so they are executed one at a time with the other commands for the same actuator, and each
+     * is saved as soon as it is executed; a command a newer one superseded in the queue is reported as such.
+     * </p>
+     *
+     * @param deviceIDVOs      the IDs of the devices of the group
+     * @param actuatorTypeIDVO the type of the actuators to command
+     * @param command          the command to be executed on each actuator
+     * @return the outcome of each actuator and the time the whole group took
+     * @throws IllegalArgumentException if any of the parameters or device IDs is null, a device is not found or the
+     *                                  actuator type is not present
+     */
+    public GroupCommandResult executeGroupCommand(List<DeviceIDVO> deviceIDVOs, ActuatorTypeIDVO actuatorTypeIDVO,
+                                                  String command) {
+        if (areParamsNull(deviceIDVOs, actuatorTypeIDVO, command) || deviceIDVOs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Parameters cannot be null");
+        }
+        long start = System.nanoTime();
+        List<Device> devices = new ArrayList<>();
+        for (DeviceIDVO deviceIDVO : new LinkedHashSet<>(deviceIDVOs)) {
+            Device device = deviceRepository.findById(deviceIDVO);
+            if (device == null) {
+                throw new IllegalArgumentException("Device not found");
+            }
+            devices.add(device);
+        }
+        return executeOnDevices(devices, actuatorTypeIDVO, command, start);
+    }
+
+    /**
+     * Commands the actuators of the given type in the active devices concurrently, then saves in one batch those that
+     * executed the command on the group command threads in time.
+     *
+     * @param devices          the devices of the group
+     * @param actuatorTypeIDVO the type of the actuators to command
+     * @param command          the command to be executed on each actuator
+     * @param start            when the group command started, as given by System.nanoTime()
+     * @return the outcome of each actuator and the time the whole group took
+     * @throws IllegalArgumentException if the actuator type is not present
+     */
+    private GroupCommandResult executeOnDevices(List<Device> devices, ActuatorTypeIDVO actuatorTypeIDVO,
+                                                String command, long start) {
+        if (!isActuatorTypePresent(actuatorTypeIDVO)) {
+            throw new IllegalArgumentException("Actuator type is not present");
+        }
+        List<Actuator> actuators = new ArrayList<>();
+        for (Device device : devices) {
+            if (device.isActive()) {
+                for (Actuator actuator : actuatorRepository.findByDeviceID(device.getId())) {
+                    if (actuatorTypeIDVO.equals(actuator.getActuatorTypeID())) {
+                        actuators.add(actuator);
+                    }
+                }
+            }
+        }
+
+        String[] statuses = new String[actuators.size()];
+        String[] errors = new String[actuators.size()];
+        boolean[] saved = new boolean[actuators.size()];
+        runCommands(actuators, command, statuses, errors, saved);
+
+        List<Actuator> executed = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < actuators.size(); i++) {
+            if (errors[i] == null && !saved[i]) {
+                executed.add(actuators.get(i));
+                positions.add(i);
+            }
+        }
+        List<Boolean> savedInBatch = executed.isEmpty() ? List.of() : actuatorRepository.saveAll(executed);
+        for (int i = 0; i < executed.size(); i++) {
+            if (!savedInBatch.get(i)) {
+                statuses[positions.get(i)] = null;
+                errors[positions.get(i)] = "Unable to save";
+            }
+        }
+
+        List<GroupCommandResult.ActuatorOutcome> outcomes = new ArrayList<>(actuators.size());
+        for (int i = 0; i < actuators.size(); i++) {
+            ActuatorIDVO actuatorIDVO = (ActuatorIDVO) actuators.get(i).getId();
+            outcomes.add(new GroupCommandResult.ActuatorOutcome(actuatorIDVO, statuses[i], errors[i]));
+        }
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new GroupCommandResult(outcomes, latencyMillis);
+    }
+
+    /**
+     * Executes the command on the actuators, through the command queue if available and on the group command threads
+     * otherwise, waiting at most the group command timeout for all of them. Fills in the status of each actuator that
+     * executed the command, and the error of the others. Commands still running at the timeout are left to finish and
+     * save their actuator on their own.
+     *
+     * @param saved set for each actuator whose new state was already saved, by the command queue
+     */
+    private void runCommands(List<Actuator> actuators, String command, String[] statuses, String[] errors,
+                             boolean[] saved) {
+        List<CompletableFuture<String>> results = new ArrayList<>(actuators.size());
+        for (int i = 0; i < actuators.size(); i++) {
+            Actuator actuator = actuators.get(i);
+            CompletableFuture<CommandReceipt> queued = submitToCommandQueue((ActuatorIDVO) actuator.getId(), command);
+            saved[i] = queued != null;
+            results.add(queued != null ? queued.thenApply(ActuatorServiceImpl::statusOf) : runOnGroupThreads(actuator,
+                    command));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(groupCommandTimeoutMillis);
+        boolean interrupted = false;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                if (interrupted) {
+                    throw new InterruptedException();
+                }
+                statuses[i] = results.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                String message = e.getCause().getMessage();
+                errors[i] = message == null ? "Unable to execute command" : message;
+            } catch (TimeoutException | InterruptedException e) {
+                interrupted = interrupted || e instanceof InterruptedException;
+                errors[i] = interrupted ? "Interrupted" : TIMED_OUT;
+                if (!saved[i]) {
+                    Actuator actuator = actuators.get(i);
+                    results.get(i).thenRun(() -> actuatorRepository.save(actuator));
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executes the command on an actuator on the group command threads.
+     *
+     * @return the status of the actuator after the command, completed exceptionally if the command fails or the
+     * threads are stopped
+     */
+    private CompletableFuture<String> runOnGroupThreads(Actuator actuator, String command) {
+        try {
+            return CompletableFuture.supplyAsync(() -> actuator.executeCommand(this.actuatorExternalService, command),
+                    groupCommandExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Unable to execute command"));
+        }
+    }
+
+    /**
+     * Hands a command to the command queue, if it is available and still open.
+     *
+     * @return the receipt of the command, completed exceptionally if the queue rejects it, or null if it has to be
+     * executed without the queue
+     */
+    private CompletableFuture<CommandReceipt> submitToCommandQueue(ActuatorIDVO actuatorIDVO, String command) {
+        ActuatorCommandQueue queue = commandQueue == null ? null : commandQueue.getIfAvailable();
+        if (queue == null) {
+            return null;
+        }
+        try {
+            return queue.submit(actuatorIDVO, command);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (IllegalStateException e) {
+            // Closed on shutdown
+            return null;
+        }
+    }
+
+    /**
+     * @return the status of the actuator of an executed command
+     * @throws IllegalStateException if a newer command superseded it
+     */
+    private static String statusOf(CommandReceipt receipt) {
+        if (receipt.isSuperseded()) {
+            throw new IllegalStateException(SUPERSEDED);
+        }
+        return receipt.getActuator().getActuatorStatus().getValue();
+    }
+
     /**
      * Checks the status of the Device with the provided DeviceIDVO to determine if it is active.
      * This method queries the DeviceRepository to retrieve the Device based on the given ID.
@@ -237,4 +513,31 @@ public class ActuatorServiceImpl implements ActuatorService {
         }
         return false;
     }
+
+    /**
+     * Creates the pool the group commands reach the hardware on, with at most parallelism daemon threads that stop
+     * once idle.
+     *
+     * @param parallelism the maximum number of actuators commanded at once
+     * @return the pool
+     */
+    private static ThreadPoolExecutor newGroupCommandExecutor(int parallelism) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "actuator-group-command-" + count.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Stops the group command threads.
+     */
+    @Override
+    public void close() {
+        groupCommandExecutor.shutdownNow();
+    }
 }
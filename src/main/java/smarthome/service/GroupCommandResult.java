@@ -0,0 +1,93 @@
+package smarthome.service;
+
+import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
+
+import java.util.List;
+
+/**
+ * Outcome of a command sent to a group of actuators: one {@link ActuatorOutcome} per actuator of the group, and the
+ * time the whole group took, from looking the actuators up to saving their new states.
+ */
+public class GroupCommandResult {
+
+    private final List<ActuatorOutcome> outcomes;
+    private final long latencyMillis;
+
+    /**
+     * Constructor for GroupCommandResult.
+     *
+     * @param outcomes      the outcome of each actuator of the group
+     * @param latencyMillis the time the whole group took, in milliseconds
+     * @throws IllegalArgumentException if the outcomes are null or the latency is negative
+     */
+    public GroupCommandResult(List<ActuatorOutcome> outcomes, long latencyMillis) {
+        if (outcomes == null || latencyMillis < 0) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        this.outcomes = List.copyOf(outcomes);
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * @return the outcome of each actuator of the group
+     */
+    public List<ActuatorOutcome> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * @return the time the whole group took, in milliseconds
+     */
+    public long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * @return true if every actuator of the group executed the command and had its new state saved
+     */
+    public boolean isSuccessful() {
+        return outcomes.stream().allMatch(ActuatorOutcome::isSuccessful);
+    }
+
+    /**
+     * Outcome of the command for one actuator of the group.
+     */
+    public static class ActuatorOutcome {
+
+        private final ActuatorIDVO actuatorID;
+        private final String status;
+        private final String error;
+
+        /**
+         * Constructor for ActuatorOutcome.
+         *
+         * @param actuatorID the ID of the actuator
+         * @param status     the status of the actuator after the command, or null if the command failed
+         * @param error      why the command failed, or null if it succeeded
+         */
+        public ActuatorOutcome(ActuatorIDVO actuatorID, String status, String error) {
+            this.actuatorID = actuatorID;
+            this.status = status;
+            this.error = error;
+        }
+
+        public ActuatorIDVO getActuatorID() {
+            return actuatorID;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * @return true if the actuator executed the command and had its new state saved
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package smarthome.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import smarthome.persistence.LogRepository;
+
+import java.time.YearMonth;
+
+/**
+ * Deletes the logs that are older than the configured retention period.
+ * <p>
+ * Logs are stored in monthly partitions and expire by whole months: with a retention of N months, the partitions of
+ * the months before the month N months ago are dropped, so every log is kept for at least N months and at most one
+ * month longer. A retention of 0 months keeps every log. The purge runs daily; the rollups of the readings are not
+ * affected, so the history of a series remains available at minute, hour and day resolution.
+ * </p>
+ */
+@Component
+public class LogRetentionPolicy {
+
+    private final LogRepository logRepository;
+    private final int retentionMonths;
+
+    /**
+     * Constructor for LogRetentionPolicy.
+     *
+     * @param logRepository   the repository the expired logs are deleted from
+     * @param retentionMonths the number of months logs are kept, or 0 to keep them forever
+     * @throws IllegalArgumentException if the repository is null or the retention is negative
+     */
+    public LogRetentionPolicy(LogRepository logRepository, @Value("${log.retention.months:0}") int retentionMonths) {
+        if (logRepository == null || retentionMonths < 0) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        this.logRepository = logRepository;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Deletes the expired logs. Runs periodically.
+     *
+     * @return the number of logs deleted
+     */
+    @Scheduled(cron = "${log.retention.cron:0 30 3 * * *}")
+    public long purgeExpiredLogs() {
+        return purgeExpiredLogs(YearMonth.now());
+    }
+
+    /**
+     * Deletes the logs that are expired in the given month.
+     *
+     * @param currentMonth the current month
+     * @return the number of logs deleted
+     * @throws IllegalArgumentException if the month is null
+     */
+    public long purgeExpiredLogs(YearMonth currentMonth) {
+        if (currentMonth == null) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        if (retentionMonths == 0) {
+            return 0;
+        }
+        return logRepository.deletePartitionsBefore(currentMonth.minusMonths(retentionMonths));
+    }
+}
@@ -0,0 +1,331 @@
+package smarthome.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.persistence.LogRepository;
+import smarthome.persistence.LogRollupRepository;
+import smarthome.persistence.LogRollupRepository.DirtyMinute;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the minute, hour and day rollups of the readings up to date.
+ * <p>
+ * Saving a log marks its (device, sensor type, minute) as dirty. The mark is kept in memory and, the first time the
+ * minute becomes dirty, written to the rollup repository, so the minutes still to be compacted are recovered after a
+ * restart. The compactor then recomputes only the dirty buckets: each dirty minute from its raw logs, one aggregate
+ * query, and each hour and day holding one from the finer buckets already stored. A day with many dirty minutes, such
+ * as after a bulk import, is recomputed whole from its raw logs instead. Recomputing instead of adding to the stored
+ * buckets keeps the rollups exact whatever the order, timing or repetition of the writes. Dirty minutes are compacted
+ * periodically, and before any rollup query on their series so that queries never read stale buckets.
+ * </p>
+ * <p>
+ * A series that cannot be compacted keeps its marks and is retried on the next pass; the failure is logged.
+ * </p>
+ */
+@Component
+public class LogRollupCompactor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogRollupCompactor.class);
+
+    private static final String ERROR_MESSAGE_PARAMS = "Invalid parameters";
+    // Past this many dirty minutes, reading the raw logs of the day once is cheaper than one query per minute
+    private static final int DAY_REBUILD_THRESHOLD = 60;
+
+    private final LogRepository logRepository;
+    private final LogRollupRepository logRollupRepository;
+    private final Set<DirtyMinute> dirtyMinutes = ConcurrentHashMap.newKeySet();
+    private boolean recovered;
+
+    /**
+     * Constructor for LogRollupCompactor.
+     *
+     * @param logRepository       the repository the raw logs are read from
+     * @param logRollupRepository the repository the rollups and the dirty minutes are written to
+     * @throws IllegalArgumentException if any of the repositories is null
+     */
+    public LogRollupCompactor(LogRepository logRepository, LogRollupRepository logRollupRepository) {
+        if (logRepository == null || logRollupRepository == null) {
+            throw new IllegalArgumentException("Repository cannot be null.");
+        }
+        this.logRepository = logRepository;
+        this.logRollupRepository = logRollupRepository;
+    }
+
+    /**
+     * Marks the minute of a saved log as needing to be compacted. A log without a time, device or sensor type belongs
+     * to no series and is ignored. If the mark cannot be persisted, it is still kept in memory.
+     *
+     * @param log the saved log
+     * @throws IllegalArgumentException if the log is null
+     */
+    public void markDirty(Log log) {
+        if (log == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        TimeStampVO time = log.getTime();
+        DeviceIDVO deviceID = log.getDeviceID();
+        SensorTypeIDVO sensorTypeID = log.getSensorTypeID();
+        if (time == null || deviceID == null || sensorTypeID == null) {
+            return;
+        }
+        TimeStampVO minute = new TimeStampVO(RollupResolution.MINUTE.bucketStart(time.getValue()));
+        if (dirtyMinutes.add(new DirtyMinute(deviceID, sensorTypeID, minute))) {
+            try {
+                logRollupRepository.markDirty(deviceID, sensorTypeID, minute);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Could not persist the dirty rollup minute {} of device {} and sensor type {}",
+                        minute.getValue(), deviceID.getID(), sensorTypeID.getID(), e);
+            }
+        }
+    }
+
+    /**
+     * Recomputes every day of a period of a series from its raw logs. Used to build the rollups of logs that were
+     * stored without going through the service.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param from         the start of the period
+     * @param to           the end of the period
+     * @throws IllegalArgumentException if any of the parameters are null
+     */
+    public synchronized void rebuild(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to) {
+        if (deviceID == null || sensorTypeID == null || from == null || to == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        for (LocalDateTime day = RollupResolution.DAY.bucketStart(from.getValue()); !day.isAfter(to.getValue());
+             day = RollupResolution.DAY.nextBucket(day)) {
+            rebuildDay(deviceID, sensorTypeID, day);
+        }
+    }
+
+    /**
+     * Compacts the dirty minutes of every series. Runs periodically.
+     */
+    @Scheduled(fixedDelayString = "${log.rollup.compact-interval-ms:10000}")
+    public synchronized void compact() {
+        recoverDirtyMinutes();
+        Map<Series, List<TimeStampVO>> bySeries = new LinkedHashMap<>();
+        for (DirtyMinute dirtyMinute : new ArrayList<>(dirtyMinutes)) {
+            bySeries.computeIfAbsent(new Series(dirtyMinute.deviceID(), dirtyMinute.sensorTypeID()), k -> new ArrayList<>())
+                    .add(dirtyMinute.minute());
+        }
+        int failedSeries = 0;
+        RuntimeException firstFailure = null;
+        for (Map.Entry<Series, List<TimeStampVO>> entry : bySeries.entrySet()) {
+            try {
+                compactSeries(entry.getKey().deviceID(), entry.getKey().sensorTypeID(), entry.getValue());
+            } catch (RuntimeException e) {
+                failedSeries++;
+                firstFailure = firstFailure == null ? e : firstFailure;
+            }
+        }
+        if (firstFailure != null) {
+            LOGGER.warn("Could not compact the rollups of {} of {} series; they are retried on the next pass",
+                    failedSeries, bySeries.size(), firstFailure);
+        }
+    }
+
+    /**
+     * Compacts the dirty minutes of one series. If that fails, the queries that follow read the rollups as they
+     * were.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     */
+    public synchronized void compact(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
+        recoverDirtyMinutes();
+        List<TimeStampVO> minutes = new ArrayList<>();
+        for (DirtyMinute dirtyMinute : dirtyMinutes) {
+            if (dirtyMinute.deviceID().equals(deviceID) && dirtyMinute.sensorTypeID().equals(sensorTypeID)) {
+                minutes.add(dirtyMinute.minute());
+            }
+        }
+        try {
+            compactSeries(deviceID, sensorTypeID, minutes);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not compact the rollups of device {} and sensor type {}; they are retried on the next pass",
+                    deviceID.getID(), sensorTypeID.getID(), e);
+        }
+    }
+
+    /**
+     * Loads the minutes left dirty by a previous run, once.
+     */
+    private void recoverDirtyMinutes() {
+        if (recovered) {
+            return;
+        }
+        try {
+            dirtyMinutes.addAll(logRollupRepository.findDirty());
+            recovered = true;
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not load the dirty rollup minutes; loading them is retried on the next pass", e);
+        }
+    }
+
+    /**
+     * Recomputes the dirty minutes of a series and the hours and days holding them. The minutes are unmarked before
+     * the logs are read, so a log saved meanwhile marks its minute again and is picked up by the next compaction. If
+     * the rollups cannot be written, the minutes are marked again and the failure is thrown. Once they are written,
+     * the persisted marks of the minutes not marked again are removed.
+     *
+     * @param deviceID     the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param minutes      the dirty minutes of the series
+     */
+    private void compactSeries(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, List<TimeStampVO> minutes) {
+        List<TimeStampVO> taken = new ArrayList<>();
+        for (TimeStampVO minute : minutes) {
+            if (dirtyMinutes.remove(new DirtyMinute(deviceID, sensorTypeID, minute))) {
+                taken.add(minute);
+            }
+        }
+        if (taken.isEmpty()) {
+            return;
+        }
+        try {
+            Map<LocalDateTime, List<LocalDateTime>> byDay = new TreeMap<>();
+            for (TimeStampVO minute : taken) {
+                byDay.computeIfAbsent(RollupResolution.DAY.bucketStart(minute.getValue()), k -> new ArrayList<>())
+                        .add(minute.getValue());
+            }
+            TreeMap<LocalDateTime, ReadingAggregate> minuteBuckets = new TreeMap<>();
+            for (Map.Entry<LocalDateTime, List<LocalDateTime>> day : byDay.entrySet()) {
+                if (day.getValue().size() > DAY_REBUILD_THRESHOLD) {
+                    rebuildDay(deviceID, sensorTypeID, day.getKey());
+                    continue;
+                }
+                for (LocalDateTime minute : day.getValue()) {
+                    minuteBuckets.put(minute, aggregateMinute(deviceID, sensorTypeID, minute));
+                }
+            }
+            if (!minuteBuckets.isEmpty()) {
+                TreeMap<LocalDateTime, ReadingAggregate> hourBuckets =
+                        rollUp(deviceID, sensorTypeID, RollupResolution.MINUTE, RollupResolution.HOUR, minuteBuckets);
+                TreeMap<LocalDateTime, ReadingAggregate> dayBuckets =
+                        rollUp(deviceID, sensorTypeID, RollupResolution.HOUR, RollupResolution.DAY, hourBuckets);
+                Map<RollupResolution, List<ReadingAggregate>> buckets = new EnumMap<>(RollupResolution.class);
+                buckets.put(RollupResolution.MINUTE, new ArrayList<>(minuteBuckets.values()));
+                buckets.put(RollupResolution.HOUR, new ArrayList<>(hourBuckets.values()));
+                buckets.put(RollupResolution.DAY, new ArrayList<>(dayBuckets.values()));
+                logRollupRepository.replaceBuckets(deviceID, sensorTypeID, buckets);
+            }
+        } catch (RuntimeException e) {
+            for (TimeStampVO minute : taken) {
+                dirtyMinutes.add(new DirtyMinute(deviceID, sensorTypeID, minute));
+            }
+            throw e;
+        }
+
+        taken.removeIf(minute -> dirtyMinutes.contains(new DirtyMinute(deviceID, sensorTypeID, minute)));
+        try {
+            logRollupRepository.clearDirty(deviceID, sensorTypeID, taken);
+        } catch (RuntimeException e) {
+            // The rollups are up to date; the leftover marks only cost a recompute after a restart
+            LOGGER.warn("Could not clear the dirty rollup minutes of device {} and sensor type {}",
+                    deviceID.getID(), sensorTypeID.getID(), e);
+        }
+    }
+
+    /**
+     * Aggregates the raw readings of one minute of a series.
+     */
+    private ReadingAggregate aggregateMinute(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, LocalDateTime minute) {
+        TimeStampVO start = new TimeStampVO(minute);
+        TimeStampVO end = new TimeStampVO(RollupResolution.MINUTE.nextBucket(minute));
+        ReadingAggregate aggregate = logRepository.aggregateReadings(deviceID, sensorTypeID, start, end);
+        if (aggregate == null) {
+            throw new IllegalStateException("Could not aggregate the readings of minute " + minute);
+        }
+        return aggregate.withPeriod(start, end);
+    }
+
+    /**
+     * Recomputes the coarser buckets holding updated finer buckets, from the finer buckets stored for them with the
+     * updated ones laid over. A coarser bucket left without readings comes out empty, which removes it.
+     */
+    private TreeMap<LocalDateTime, ReadingAggregate> rollUp(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID,
+                                                            RollupResolution finer, RollupResolution coarser,
+                                                            TreeMap<LocalDateTime, ReadingAggregate> updated) {
+        TreeMap<LocalDateTime, ReadingAggregate> result = new TreeMap<>();
+        for (LocalDateTime finerStart : updated.keySet()) {
+            LocalDateTime start = coarser.bucketStart(finerStart);
+            if (result.containsKey(start)) {
+                continue;
+            }
+            LocalDateTime end = coarser.nextBucket(start);
+            TreeMap<LocalDateTime, ReadingAggregate> finerBuckets = new TreeMap<>();
+            for (ReadingAggregate stored : logRollupRepository.findRollups(deviceID, sensorTypeID, finer,
+                    new TimeStampVO(start), new TimeStampVO(end))) {
+                finerBuckets.put(stored.getStart().getValue(), stored);
+            }
+            finerBuckets.putAll(updated.subMap(start, end));
+            ReadingAggregate total = ReadingAggregate.empty(new TimeStampVO(start), new TimeStampVO(end));
+            for (ReadingAggregate bucket : finerBuckets.values()) {
+                total = total.merge(bucket);
+            }
+            result.put(start, total.withPeriod(new TimeStampVO(start), new TimeStampVO(end)));
+        }
+        return result;
+    }
+
+    /**
+     * Recomputes the rollups of a whole day from its raw logs, one range query, and replaces them at every
+     * resolution at once.
+     */
+    private void rebuildDay(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, LocalDateTime dayStart) {
+        LocalDateTime dayEnd = RollupResolution.DAY.nextBucket(dayStart);
+        // Times are kept to the second, so the last second of the day is the inclusive end of the day
+        Iterable<Log> logs = logRepository.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID.getID(),
+                sensorTypeID.getID(), new TimeStampVO(dayStart), new TimeStampVO(dayEnd.minusSeconds(1)));
+
+        Map<RollupResolution, TreeMap<LocalDateTime, ReadingAggregate>> buckets = new EnumMap<>(RollupResolution.class);
+        for (RollupResolution resolution : RollupResolution.values()) {
+            buckets.put(resolution, new TreeMap<>());
+        }
+        for (Log log : logs == null ? List.<Log>of() : logs) {
+            if (log.getReading() != null && log.getReading().getValue() instanceof Number number) {
+                addReading(buckets, log.getTime().getValue(), number.doubleValue());
+            }
+        }
+
+        Map<RollupResolution, List<ReadingAggregate>> rollups = new EnumMap<>(RollupResolution.class);
+        buckets.forEach((resolution, byStart) -> rollups.put(resolution, new ArrayList<>(byStart.values())));
+        logRollupRepository.replaceRollups(deviceID, sensorTypeID, new TimeStampVO(dayStart), new TimeStampVO(dayEnd), rollups);
+    }
+
+    /**
+     * Adds a reading to its bucket at every resolution.
+     */
+    private static void addReading(Map<RollupResolution, TreeMap<LocalDateTime, ReadingAggregate>> buckets,
+                                   LocalDateTime time, double value) {
+        for (Map.Entry<RollupResolution, TreeMap<LocalDateTime, ReadingAggregate>> entry : buckets.entrySet()) {
+            RollupResolution resolution = entry.getKey();
+            LocalDateTime bucketStart = resolution.bucketStart(time);
+            ReadingAggregate reading = ReadingAggregate.of(new TimeStampVO(time), value)
+                    .withPeriod(new TimeStampVO(bucketStart), new TimeStampVO(resolution.nextBucket(bucketStart)));
+            entry.getValue().merge(bucketStart, reading, ReadingAggregate::merge);
+        }
+    }
+
+    private record Series(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID) {
+    }
+}
@@ -1,23 +1,38 @@
 package smarthome.service;
 
 import smarthome.domain.log.Log;
+import smarthome.domain.log.ReadingAggregate;
 import smarthome.domain.sensor.sensorvalues.SensorValueObject;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.DeltaVO;
 import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.domain.vo.sensorvo.SensorIDVO;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service interface for handling log data.
  */
 public interface LogService {
     Optional<Log> addLog (SensorValueObject<?> value, SensorIDVO sensor, DeviceIDVO device, SensorTypeIDVO sensorType);
+    List<Optional<Log>> addLogs (Collection<Log> logs);
     List<Log> findReadingsFromDevice(DeviceIDVO deviceID, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp);
+    List<Log> findReadingsPageFromDevice(DeviceIDVO deviceID, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp, LogCursorVO after, int pageSize);
+    List<Log> findLatestReadingsFromDevice(DeviceIDVO deviceID, int count);
+    void exportReadingsFromDevice(DeviceIDVO deviceID, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp, Consumer<Log> action);
+    ReadingAggregate summarizeReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to);
+    List<ReadingAggregate> findReadingAggregates(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to, int maxBuckets);
     String getMaxInstantaneousTempDifference(DeviceIDVO outdoorDevice, DeviceIDVO indoorDevice, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp, DeltaVO deltaMin);
     String getPeakPowerConsumption(TimeStampVO start, TimeStampVO end, DeltaVO delta);
+    Map<String, Integer> getPeakPowerConsumptionBreakdown(TimeStampVO start, TimeStampVO end, DeltaVO delta);
     String getSunReading(String date, String gpsLocation, SensorTypeIDVO sensorIDVO);
+    List<Log> sampleRoom(RoomIDVO roomID);
+    List<Log> sampleHouse();
 }
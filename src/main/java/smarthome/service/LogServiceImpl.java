@@ -5,26 +5,36 @@ import org.springframework.stereotype.Service;
 import smarthome.domain.device.Device;
 import smarthome.domain.log.Log;
 import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
 import smarthome.domain.room.Room;
+import smarthome.domain.sensor.InstantaneousSensor;
 import smarthome.domain.sensor.Sensor;
 import smarthome.domain.sensor.SunSensor;
+import smarthome.domain.sensor.externalservices.SensorExternalServices;
 import smarthome.domain.sensor.externalservices.SunTimeCalculator;
 
 import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
 import smarthome.domain.sensor.sensorvalues.SensorValueObject;
 import smarthome.domain.vo.DeltaVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.TimeStampVO;
 import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.domain.vo.sensorvo.SensorIDVO;
 import smarthome.persistence.DeviceRepository;
 import smarthome.persistence.LogRepository;
+import smarthome.persistence.LogRollupRepository;
 import smarthome.persistence.RoomRepository;
 import smarthome.persistence.SensorRepository;
+import smarthome.persistence.mem.LogRollupRepositoryMem;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class LogServiceImpl implements LogService {
@@ -33,30 +43,70 @@ public class LogServiceImpl implements LogService {
     private final DeviceRepository deviceRepository;
     private final RoomRepository roomRepository;
     private final LogFactory logFactory;
+    private final LogRollupRepository logRollupRepository;
+    private final LogRollupCompactor logRollupCompactor;
     // The following are autowired via setter method. Ideally they should be on the constructor
     private SensorValueFactory sensorValueFactory;
     private SensorRepository sensorRepository;
     private SunTimeCalculator sunTimeCalculator;
+    private SensorExternalServices sensorExternalServices;
 
     private static final String ERROR_MESSAGE_PARAMS = "Invalid parameters";
 
     private static final String ERROR_MESSAGE_TIME = "Invalid time stamps";
 
+    private static final String ERROR_MESSAGE_PAGE_SIZE = "Invalid page size";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String ERROR_MESSAGE_BATCH_SIZE = "Invalid batch size";
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    private static final String ERROR_MESSAGE_SENSORS = "Cannot access sensors";
+
+    private static final String ERROR_MESSAGE_BUCKET_COUNT = "Invalid bucket count";
+
+    private static final int MAX_BUCKET_COUNT = 10000;
+
     /**
-     * Constructor for LogServiceImpl.
+     * Constructor for LogServiceImpl, keeping the rollups of the readings in memory.
      * @param logRepository the repository used for data access
      * @param deviceRepository the repository used for data access
      * @param roomRepository the repository used for data access
      * @throws IllegalArgumentException if the logRepository is null
      */
     public LogServiceImpl(LogRepository logRepository, DeviceRepository deviceRepository, RoomRepository roomRepository, LogFactory logFactory){
-        if (areParamsNull(logRepository, deviceRepository, roomRepository, logFactory)) {
+        this(logRepository, deviceRepository, roomRepository, logFactory, new LogRollupRepositoryMem());
+    }
+
+    private LogServiceImpl(LogRepository logRepository, DeviceRepository deviceRepository, RoomRepository roomRepository,
+                           LogFactory logFactory, LogRollupRepository logRollupRepository) {
+        this(logRepository, deviceRepository, roomRepository, logFactory, logRollupRepository,
+                logRepository == null ? null : new LogRollupCompactor(logRepository, logRollupRepository));
+    }
+
+    /**
+     * Constructor for LogServiceImpl.
+     * @param logRepository the repository used for data access
+     * @param deviceRepository the repository used for data access
+     * @param roomRepository the repository used for data access
+     * @param logRollupRepository the repository the rollups of the readings are read from
+     * @param logRollupCompactor the compactor keeping those rollups up to date
+     * @throws IllegalArgumentException if any of the parameters is null
+     */
+    @Autowired
+    public LogServiceImpl(LogRepository logRepository, DeviceRepository deviceRepository, RoomRepository roomRepository,
+                          LogFactory logFactory, LogRollupRepository logRollupRepository, LogRollupCompactor logRollupCompactor) {
+        if (areParamsNull(logRepository, deviceRepository, roomRepository, logFactory, logRollupRepository, logRollupCompactor)) {
             throw new IllegalArgumentException("Repository cannot be null.");
         }
         this.logRepository = logRepository;
         this.deviceRepository = deviceRepository;
         this.roomRepository = roomRepository;
         this.logFactory = logFactory;
+        this.logRollupRepository = logRollupRepository;
+        this.logRollupCompactor = logRollupCompactor;
     }
 
     /**
@@ -85,12 +135,195 @@ public class LogServiceImpl implements LogService {
         }
         Log log = logFactory.createLog(value, sensor, device, sensorType);
         if (logRepository.save(log)) {
+            logRollupCompactor.markDirty(log);
             return Optional.of(log);
         }
         return Optional.empty();
     }
 
 
+    /**
+     * Adds several log entries to the log repository at once.
+     * <p>
+     * The logs are already built by the caller, typically with the time at which each reading was taken, and are
+     * handed to the repository in a single call so that they can be written in batches. Each log is saved or
+     * rejected on its own: a log that cannot be saved does not prevent the others from being saved.
+     * </p>
+     *
+     * @param logs the logs to be added, between 1 and MAX_BATCH_SIZE non-null logs
+     * @return one result per log, in the same order: an {@code Optional} containing the log if it was added, or an
+     * empty {@code Optional} if it could not be added
+     * @throws IllegalArgumentException if the collection is null, empty, larger than MAX_BATCH_SIZE or contains null
+     */
+    @Override
+    public List<Optional<Log>> addLogs(Collection<Log> logs){
+        if (logs == null || logs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        if (logs.isEmpty() || logs.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_BATCH_SIZE);
+        }
+        List<Log> listOfLogs = new ArrayList<>(logs);
+        List<Boolean> saved = logRepository.saveAll(listOfLogs);
+        List<Optional<Log>> results = new ArrayList<>(listOfLogs.size());
+        for (int i = 0; i < listOfLogs.size(); i++) {
+            if (Boolean.TRUE.equals(saved.get(i))) {
+                logRollupCompactor.markDirty(listOfLogs.get(i));
+                results.add(Optional.of(listOfLogs.get(i)));
+            } else {
+                results.add(Optional.empty());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Summarizes the numeric readings of a sensor type of a device within a time period: count, sum, minimum, maximum
+     * and average.
+     * <p>
+     * The period is split into the coarsest rollup buckets that fit in it: whole days in the middle, whole hours and
+     * minutes towards the edges, and only the seconds before the first and after the last whole minute are read from
+     * the raw logs. Any period is therefore answered with at most seven range queries, however many readings it
+     * holds.
+     * </p>
+     *
+     * @param deviceID the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param from the start of the period (inclusive)
+     * @param to the end of the period (exclusive)
+     * @return the summary of the readings, covering exactly the given period
+     * @throws IllegalArgumentException if any of the parameters are null or if the start is not before the end
+     */
+    @Override
+    public ReadingAggregate summarizeReadings(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to) {
+        validateRollupQuery(deviceID, sensorTypeID, from, to);
+        logRollupCompactor.compact(deviceID, sensorTypeID);
+
+        ReadingAggregate summary = ReadingAggregate.empty(from, to);
+        LocalDateTime end = to.getValue();
+        LocalDateTime cursor = from.getValue();
+        while (cursor.isBefore(end)) {
+            RollupResolution resolution = coarsestBucketAt(cursor, end);
+            LocalDateTime pieceEnd;
+            if (resolution == null) {
+                // Seconds before the next whole minute: read from the raw logs
+                pieceEnd = min(RollupResolution.MINUTE.nextBucket(RollupResolution.MINUTE.bucketStart(cursor)), end);
+                summary = summary.merge(aggregateLogs(deviceID, sensorTypeID, cursor, pieceEnd));
+            } else {
+                // Run of whole buckets, up to the end of the period or to where a coarser bucket can take over
+                pieceEnd = resolution.bucketStart(end);
+                RollupResolution coarser = coarserThan(resolution);
+                if (coarser != null) {
+                    pieceEnd = min(pieceEnd, coarser.nextBucket(coarser.bucketStart(cursor)));
+                }
+                for (ReadingAggregate bucket : logRollupRepository.findRollups(deviceID, sensorTypeID, resolution,
+                        new TimeStampVO(cursor), new TimeStampVO(pieceEnd))) {
+                    summary = summary.merge(bucket);
+                }
+            }
+            cursor = pieceEnd;
+        }
+        return summary.withPeriod(from, to);
+    }
+
+    /**
+     * Retrieves the rollup buckets of the numeric readings of a sensor type of a device within a time period, for
+     * charts and reports. The finest resolution that needs no more than maxBuckets buckets to cover the period is
+     * used, or days if none does. Buckets without readings are not returned.
+     *
+     * @param deviceID the ID of the device
+     * @param sensorTypeID the ID of the sensor type
+     * @param from the start of the period (inclusive)
+     * @param to the end of the period (exclusive)
+     * @param maxBuckets the maximum number of buckets wanted, between 1 and MAX_BUCKET_COUNT
+     * @return the buckets that start within the period, ordered by time
+     * @throws IllegalArgumentException if any of the parameters are null, if the start is not before the end or if
+     * the bucket count is out of range
+     */
+    @Override
+    public List<ReadingAggregate> findReadingAggregates(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to, int maxBuckets) {
+        validateRollupQuery(deviceID, sensorTypeID, from, to);
+        if (maxBuckets <= 0 || maxBuckets > MAX_BUCKET_COUNT) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_BUCKET_COUNT);
+        }
+        logRollupCompactor.compact(deviceID, sensorTypeID);
+
+        RollupResolution resolution = RollupResolution.DAY;
+        for (RollupResolution candidate : RollupResolution.values()) {
+            LocalDateTime start = candidate.bucketStart(from.getValue());
+            long bucketSeconds = candidate.getBucketDuration().getSeconds();
+            long buckets = (Duration.between(start, to.getValue()).getSeconds() + bucketSeconds - 1) / bucketSeconds;
+            if (buckets <= maxBuckets) {
+                resolution = candidate;
+                break;
+            }
+        }
+        return logRollupRepository.findRollups(deviceID, sensorTypeID, resolution,
+                new TimeStampVO(resolution.bucketStart(from.getValue())), to);
+    }
+
+    /**
+     * Validates the parameters of a rollup query: none may be null and the start must be before the end.
+     * @throws IllegalArgumentException if any of the validations fails
+     */
+    private void validateRollupQuery(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, TimeStampVO from, TimeStampVO to) {
+        if (areParamsNull(deviceID, sensorTypeID, from, to)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        if (!from.getValue().isBefore(to.getValue())) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_TIME);
+        }
+    }
+
+    /**
+     * Finds the coarsest resolution with a bucket starting at the given time and ending no later than the given end.
+     * @return the resolution, or null if not even a minute bucket fits
+     */
+    private RollupResolution coarsestBucketAt(LocalDateTime time, LocalDateTime end) {
+        RollupResolution[] resolutions = RollupResolution.values();
+        for (int i = resolutions.length - 1; i >= 0; i--) {
+            RollupResolution resolution = resolutions[i];
+            if (resolution.isBucketStart(time) && !resolution.nextBucket(time).isAfter(end)) {
+                return resolution;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the next coarser resolution, or null for the coarsest one
+     */
+    private RollupResolution coarserThan(RollupResolution resolution) {
+        RollupResolution[] resolutions = RollupResolution.values();
+        int next = resolution.ordinal() + 1;
+        return next < resolutions.length ? resolutions[next] : null;
+    }
+
+    private LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Aggregates the numeric readings of a series within a period directly from the raw logs.
+     * @param start the start of the period (inclusive)
+     * @param end the end of the period (exclusive)
+     */
+    private ReadingAggregate aggregateLogs(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID, LocalDateTime start, LocalDateTime end) {
+        ReadingAggregate aggregate = ReadingAggregate.empty(new TimeStampVO(start), new TimeStampVO(end));
+        // Times are kept to the second, so the second before the end is the inclusive end of the period
+        Iterable<Log> logs = logRepository.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID.getID(),
+                sensorTypeID.getID(), new TimeStampVO(start), new TimeStampVO(end.minusSeconds(1)));
+        if (logs == null) {
+            return aggregate;
+        }
+        for (Log log : logs) {
+            if (log.getReading() != null && log.getReading().getValue() instanceof Number number) {
+                aggregate = aggregate.merge(ReadingAggregate.of(log.getTime(), number.doubleValue()));
+            }
+        }
+        return aggregate;
+    }
+
     /**
      * Retrieves all logs associated with a specific device. A time period may be specified.
      * Validations regarding time period are:
@@ -109,6 +342,97 @@ public class LogServiceImpl implements LogService {
      */
     @Override
     public List<Log> findReadingsFromDevice(DeviceIDVO deviceID, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp) {
+        validateReadingsQuery(deviceID, initialTimeStamp, finalTimeStamp);
+
+        try {
+            Iterable<Log> iterable = logRepository.findReadingsByDeviceID(deviceID, initialTimeStamp, finalTimeStamp);
+            return convertToList(iterable);
+        } catch (IllegalArgumentException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Retrieves a page of the logs associated with a specific device, ordered by time and log ID. A time period may be
+     * specified, with the same validations as findReadingsFromDevice(). The page starts right after the given cursor,
+     * which points at the last log of the previous page, or at the start of the time period if the cursor is null.
+     * @param deviceID the ID of the device
+     * @param initialTimeStamp the initial timestamp that represents the beginning of the time period
+     * @param finalTimeStamp the final timestamp that represents the end of the time period
+     * @param after the cursor of the last log of the previous page, or null for the first page
+     * @param pageSize the maximum number of logs in the page, between 1 and MAX_PAGE_SIZE
+     * @return a List of at most pageSize logs
+     * @throws IllegalArgumentException if the device ID is null, if time frame is incomplete, if the specified initial
+     * date is after final date or if the page size is out of range.
+     */
+    @Override
+    public List<Log> findReadingsPageFromDevice(DeviceIDVO deviceID, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp, LogCursorVO after, int pageSize) {
+        validateReadingsQuery(deviceID, initialTimeStamp, finalTimeStamp);
+        validatePageSize(pageSize);
+
+        Iterable<Log> iterable = logRepository.findReadingsPageByDeviceID(deviceID, initialTimeStamp, finalTimeStamp, after, pageSize);
+        return convertToList(iterable);
+    }
+
+    /**
+     * Retrieves the newest logs associated with a specific device, newest first.
+     * @param deviceID the ID of the device
+     * @param count the maximum number of logs to retrieve, between 1 and MAX_PAGE_SIZE
+     * @return a List of at most count logs
+     * @throws IllegalArgumentException if the device ID is null or if the count is out of range.
+     */
+    @Override
+    public List<Log> findLatestReadingsFromDevice(DeviceIDVO deviceID, int count) {
+        if (areParamsNull(deviceID)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        validatePageSize(count);
+
+        Iterable<Log> iterable = logRepository.findLatestReadingsByDeviceID(deviceID, count);
+        return convertToList(iterable);
+    }
+
+    /**
+     * Validates that a page size is between 1 and MAX_PAGE_SIZE.
+     * @param pageSize the page size
+     * @throws IllegalArgumentException if the page size is out of range
+     */
+    private void validatePageSize(int pageSize) {
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Streams all logs associated with a specific device, in ascending time order, handing each one to the given
+     * action as it is read from the repository. A time period may be specified, with the same validations as
+     * findReadingsFromDevice(). All validations happen before the first log is handed to the action, so a caller
+     * writing the logs to a response can still report an invalid request.
+     * @param deviceID the ID of the device
+     * @param initialTimeStamp the initial timestamp that represents the beginning of the time period
+     * @param finalTimeStamp the final timestamp that represents the end of the time period
+     * @param action the action applied to each log
+     * @throws IllegalArgumentException if the device ID or the action are null, if time frame is incomplete or if the
+     * specified initial date is after final date.
+     */
+    @Override
+    public void exportReadingsFromDevice(DeviceIDVO deviceID, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp, Consumer<Log> action) {
+        if (action == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        validateReadingsQuery(deviceID, initialTimeStamp, finalTimeStamp);
+        logRepository.streamReadingsByDeviceID(deviceID, initialTimeStamp, finalTimeStamp, action);
+    }
+
+    /**
+     * Validates the parameters of a device readings query: the device ID must not be null, the time period must be
+     * complete and, if specified, the initial date must be before the final date.
+     * @param deviceID the ID of the device
+     * @param initialTimeStamp the initial timestamp that represents the beginning of the time period
+     * @param finalTimeStamp the final timestamp that represents the end of the time period
+     * @throws IllegalArgumentException if any of the validations fails
+     */
+    private void validateReadingsQuery(DeviceIDVO deviceID, TimeStampVO initialTimeStamp, TimeStampVO finalTimeStamp) {
         if (areParamsNull(deviceID)) {
             throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
         }
@@ -123,13 +447,6 @@ public class LogServiceImpl implements LogService {
         if (initialTimeStamp != null && finalTimeStamp != null && areTimeStampsInvalid(initialTimeStamp, finalTimeStamp)) {
             throw new IllegalArgumentException(ERROR_MESSAGE_TIME);
         }
-
-        try {
-            Iterable<Log> iterable = logRepository.findReadingsByDeviceID(deviceID, initialTimeStamp, finalTimeStamp);
-            return convertToList(iterable);
-        } catch (IllegalArgumentException e) {
-            return Collections.emptyList();
-        }
     }
 
     /**
@@ -272,6 +589,117 @@ public class LogServiceImpl implements LogService {
         }
     }
 
+    /**
+     * Takes a reading of every instantaneous sensor of the active devices of a room and logs the readings.
+     * <p>
+     * The sensors are read together, in a single batch read of the hardware, and their logs are saved together with
+     * addLogs(), so the readings of the room are written in one transaction as long as they fit in a database batch.
+     * Sensors the hardware does not answer for, or whose value cannot be parsed, are left out.
+     * </p>
+     *
+     * @param roomID the ID of the room
+     * @return the logs of the readings saved, in the order the sensors were found
+     * @throws IllegalArgumentException if the room ID is null, if the room is not found or if its devices or sensors
+     * cannot be read
+     */
+    @Override
+    public List<Log> sampleRoom(RoomIDVO roomID) {
+        if (roomID == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        if (!roomRepository.isPresent(roomID)) {
+            throw new IllegalArgumentException("Room not found");
+        }
+        Iterable<Device> devices = deviceRepository.findByRoomID(roomID);
+        if (devices == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_SENSORS);
+        }
+        List<Sensor> sensors = new ArrayList<>();
+        for (Device device : devices) {
+            if (device.isActive()) {
+                Iterable<Sensor> deviceSensors = sensorRepository.findByDeviceID(device.getId());
+                if (deviceSensors == null) {
+                    throw new IllegalArgumentException(ERROR_MESSAGE_SENSORS);
+                }
+                deviceSensors.forEach(sensors::add);
+            }
+        }
+        return sampleSensors(sensors);
+    }
+
+    /**
+     * Takes a reading of every instantaneous sensor of the active devices of the house and logs the readings, as
+     * {@link #sampleRoom} does for a room.
+     *
+     * @return the logs of the readings saved, in the order the sensors were found
+     * @throws IllegalArgumentException if the devices or sensors cannot be read
+     */
+    @Override
+    public List<Log> sampleHouse() {
+        Iterable<Device> devices = deviceRepository.findAll();
+        Iterable<Sensor> sensors = sensorRepository.findAll();
+        if (devices == null || sensors == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_SENSORS);
+        }
+        Set<DeviceIDVO> activeDevices = new HashSet<>();
+        for (Device device : devices) {
+            if (device.isActive()) {
+                activeDevices.add(device.getId());
+            }
+        }
+        List<Sensor> sensorsOfActiveDevices = new ArrayList<>();
+        for (Sensor sensor : sensors) {
+            if (activeDevices.contains(sensor.getDeviceID())) {
+                sensorsOfActiveDevices.add(sensor);
+            }
+        }
+        return sampleSensors(sensorsOfActiveDevices);
+    }
+
+    /**
+     * Reads the instantaneous sensors among the given ones in a single batch read of the hardware and saves the logs
+     * of their readings, at most MAX_BATCH_SIZE per call to addLogs().
+     *
+     * @param sensors the sensors to read
+     * @return the logs of the readings saved
+     */
+    private List<Log> sampleSensors(List<Sensor> sensors) {
+        Map<SensorIDVO, InstantaneousSensor> sensorsByID = new LinkedHashMap<>();
+        for (Sensor sensor : sensors) {
+            if (sensor instanceof InstantaneousSensor instantaneousSensor && sensor.getId() instanceof SensorIDVO sensorID) {
+                sensorsByID.put(sensorID, instantaneousSensor);
+            }
+        }
+        if (sensorsByID.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<SensorIDVO, String> values = sensorExternalServices.getValues(new ArrayList<>(sensorsByID.keySet()));
+        List<Log> logs = new ArrayList<>(sensorsByID.size());
+        sensorsByID.forEach((sensorID, sensor) -> {
+            String value = values.get(sensorID);
+            if (value == null) {
+                return;
+            }
+            try {
+                SensorValueObject<?> reading = sensorValueFactory.createSensorValue(value, sensor.getSensorTypeID());
+                if (reading != null) {
+                    logs.add(logFactory.createLog(reading, sensorID, sensor.getDeviceID(), sensor.getSensorTypeID()));
+                }
+            } catch (IllegalArgumentException e) {
+                // Not a value of the sensor type: the sensor is left out
+            }
+        });
+
+        List<Log> saved = new ArrayList<>(logs.size());
+        for (int start = 0; start < logs.size(); start += MAX_BATCH_SIZE) {
+            for (Optional<Log> result : addLogs(logs.subList(start, Math.min(start + MAX_BATCH_SIZE, logs.size())))) {
+                result.ifPresent(saved::add);
+            }
+        }
+        return saved;
+    }
+
     /**
      * Saves the given sensor reading by creating a log entry and persisting it.
      *
@@ -290,7 +718,11 @@ public class LogServiceImpl implements LogService {
             Log log = this.logFactory.createLog(reading,sensorIDVO,deviceIDVO,sensorTypeIDVO);
 
             // Attempt to save the log entry to the repository
-            return this.logRepository.save(log);
+            if (this.logRepository.save(log)) {
+                logRollupCompactor.markDirty(log);
+                return true;
+            }
+            return false;
         } catch (IllegalArgumentException | ClassCastException | NullPointerException e){
             return false;
         }
@@ -300,49 +732,147 @@ public class LogServiceImpl implements LogService {
     /**
      * Retrieves the maximum instantaneous temperature difference between an indoor and an outdoor device over a given
      * time period.
+     * <p>
+     * Both log sequences are swept once in time order. For each indoor reading, a sliding window over the outdoor
+     * readings holds every outdoor log within the delta, and two monotonic deques keep that window's hottest and
+     * coldest readings, so the largest difference for that instant is found in constant time. Time comparisons are
+     * done on epoch seconds. The repository already returns both sequences ordered by time, in which case ordering
+     * is a single linear check; unordered input is sorted first. Readings are only read for logs that fall inside
+     * a window.
+     * </p>
+     * When several instants share the maximum difference, the one reported is the first in the order the indoor logs
+     * were given.
      * @param outdoorDeviceLog The logs from the outdoor device.
      * @param indoorDeviceLog The logs from the indoor device.
      * @param delta The time window allowed for the same readings to be considered as being in the same instant (in minutes)
      * @return A string message detailing the maximum temperature difference and the precise moment it occurred, or a relevant error message.
      */
     private String retrieveMaxTempDiffInAnInstant(Iterable<Log> outdoorDeviceLog, Iterable<Log> indoorDeviceLog, DeltaVO delta){
-        // Defines the two variables needed: Maximum temperature difference and the Instant where it occurred.
-        double maxTempDiff = 0;
-        String instantTime = null;
-
         // Checks if there are any logs/records from the query
         if(!outdoorDeviceLog.iterator().hasNext() || !indoorDeviceLog.iterator().hasNext()){
             return "There are no records available for the given period";
         }
 
-        // Checks the outdoor device and the indoor device for logs/records that are within the defined delta (in case
-        // there are records/logs found in the query)
-        // Compares the two logs to get the maximum temperature difference and the instant where it happened
-        for (Log interiorLog : indoorDeviceLog) {
-            TimeStampVO intTime = interiorLog.getTime();
-            for (Log exteriorLog : outdoorDeviceLog) {
-                TimeStampVO extTime = exteriorLog.getTime();
-                if (isWithinTimeWindow(intTime, extTime, delta)) {
-                    double temp = getAbsoluteDifference(interiorLog, exteriorLog);
-                    if (temp>maxTempDiff){
-                        maxTempDiff=temp;
-                        instantTime = interiorLog.getTime().getValue().toString();
-                    }
+        List<Log> exteriorLogs = convertToList(outdoorDeviceLog);
+        List<Log> interiorLogs = convertToList(indoorDeviceLog);
+        long[] extTimes = toEpochSeconds(exteriorLogs);
+        long[] intTimes = toEpochSeconds(interiorLogs);
+        int[] extOrder = sortedOrder(extTimes);
+        int[] intOrder = sortedOrder(intTimes);
+        long window = delta.getValue() * 60L;
+
+        // Outdoor readings are read lazily, when they first enter a window
+        double[] extTemps = new double[extTimes.length];
+        // Monotonic deques of positions in extOrder: decreasing temperature in maxQueue, increasing in minQueue
+        int[] maxQueue = new int[extTimes.length];
+        int[] minQueue = new int[extTimes.length];
+        int maxHead = 0;
+        int maxTail = 0;
+        int minHead = 0;
+        int minTail = 0;
+        int lo = 0;
+        int hi = 0;
+
+        double maxTempDiff = 0;
+        int instantIndex = -1;
+
+        for (int intIndex : intOrder) {
+            long intTime = intTimes[intIndex];
+
+            // Drops outdoor readings that are too old for this and every later indoor reading
+            while (lo < extOrder.length && extTimes[extOrder[lo]] <= intTime - window) {
+                lo++;
+            }
+            hi = Math.max(hi, lo);
+            // Admits outdoor readings that are not too recent for this indoor reading
+            while (hi < extOrder.length && extTimes[extOrder[hi]] < intTime + window) {
+                double extTemp = (Double) exteriorLogs.get(extOrder[hi]).getReading().getValue();
+                extTemps[hi] = extTemp;
+                while (maxTail > maxHead && extTemps[maxQueue[maxTail - 1]] <= extTemp) {
+                    maxTail--;
+                }
+                maxQueue[maxTail++] = hi;
+                while (minTail > minHead && extTemps[minQueue[minTail - 1]] >= extTemp) {
+                    minTail--;
                 }
+                minQueue[minTail++] = hi;
+                hi++;
+            }
+            while (maxHead < maxTail && maxQueue[maxHead] < lo) {
+                maxHead++;
+            }
+            while (minHead < minTail && minQueue[minHead] < lo) {
+                minHead++;
+            }
+            if (maxHead == maxTail) {
+                continue;
+            }
+
+            double intTemp = (Double) interiorLogs.get(intIndex).getReading().getValue();
+            double temp = Math.max(Math.abs(intTemp - extTemps[maxQueue[maxHead]]), Math.abs(intTemp - extTemps[minQueue[minHead]]));
+            if (temp > maxTempDiff || (temp == maxTempDiff && instantIndex > intIndex)) {
+                maxTempDiff = temp;
+                instantIndex = intIndex;
             }
         }
-        // Checks if the instantTime variable has not been altered since it has been initialized
-        // In case the variable has not been altered (is still null) it means there were no matches that were
+        // Checks if the instantIndex variable has not been altered since it has been initialized
+        // In case the variable has not been altered (is still -1) it means there were no matches that were
         // in the same instant (instant is defined by the delta)
         // In case the variable has a new value, it means that there were matches found that are in the same instant
         // and retrieves the biggest temperature difference between all the instantaneous readings, as well
         // as the instant time when that difference occurred.
-        if(instantTime==null){
+        if(instantIndex == -1){
             return "Readings were found within the provided time span, but with no matches within the delta provided";
         } else{
+            String instantTime = interiorLogs.get(instantIndex).getTime().getValue().toString();
             return "The Maximum Temperature Difference within the selected Period was of " +maxTempDiff+ " Cº which happened at " +instantTime;
         }
     }
+
+    /**
+     * Converts the timestamps of a list of logs to epoch seconds, keeping the list order.
+     * @param logs The logs to convert.
+     * @return An array with the epoch second of each log, at the same position as the log in the list.
+     */
+    private long[] toEpochSeconds(List<Log> logs){
+        long[] times = new long[logs.size()];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = toEpochSecond(logs.get(i));
+        }
+        return times;
+    }
+
+    /**
+     * Converts the timestamp of a log to epoch seconds.
+     * @param log The log to convert.
+     * @return The epoch second of the log's timestamp.
+     */
+    private long toEpochSecond(Log log){
+        return log.getTime().getValue().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Computes the positions of the given times in ascending time order. Equal times keep their original relative
+     * order. When the times are already ordered, as returned by the repository, no sorting takes place.
+     * @param times The times to order.
+     * @return The positions of the times, ordered by time.
+     */
+    private int[] sortedOrder(long[] times){
+        boolean isSorted = true;
+        for (int i = 1; i < times.length && isSorted; i++) {
+            isSorted = times[i - 1] <= times[i];
+        }
+        if (isSorted) {
+            int[] order = new int[times.length];
+            Arrays.setAll(order, i -> i);
+            return order;
+        }
+        Integer[] boxedOrder = new Integer[times.length];
+        Arrays.setAll(boxedOrder, i -> i);
+        Arrays.sort(boxedOrder, Comparator.comparingLong(i -> times[i]));
+        return Arrays.stream(boxedOrder).mapToInt(Integer::intValue).toArray();
+    }
+
     /**
      * Checks if the outdoor device is located in the exterior of the House.
      * The method checks the room where the device is located and checks if the room's height is 0, which means
@@ -383,21 +913,6 @@ public class LogServiceImpl implements LogService {
         return Math.abs((Double) interiorLog.getReading().getValue() - (Double) exteriorLog.getReading().getValue());
     }
 
-    /**
-     * Checks if the reading timestamps of the two logs from the interior and exterior place
-     * devices are within a given time window.
-     * @param intTime The timestamp of the indoor device's reading.
-     * @param extTime The timestamp of the outdoor device's reading.
-     * @param deltaMin The time window in minutes.
-     * @return true if the timestamps are within the time window, false otherwise.
-     */
-    private boolean isWithinTimeWindow(TimeStampVO intTime, TimeStampVO extTime, DeltaVO deltaMin) {
-        LocalDateTime intT= intTime.getValue();
-        LocalDateTime extT = extTime.getValue();
-        int delta = deltaMin.getValue();
-        return intT.plusMinutes(delta).isAfter(extT) && intT.minusMinutes(delta).isBefore(extT);
-    }
-
     /**
      * Checks if the provided timestamps are invalid, i.e., if they are null, if the initial timestamp is after the final
      * and if the final timestamp is after the current time.
@@ -460,57 +975,194 @@ public class LogServiceImpl implements LogService {
                     " Wh which happened at " + maxValueLog.getTime().getValue() + " (No Power Source Device Logs were found within the selected period)";
         }
 
-        int peakConsumption = 0;
-        String instantTime = null;
-        boolean foundInstantLogMatch = false;
+        // Sweeps the power grid logs and the power source logs together to get the peak power consumption and the
+        // instant where it happened
+        PeakPowerConsumption peak = sweepPeakPowerConsumption(deviceID, powerGridLogs, powerSourceLogs, delta);
 
-        // Checks the power grid device and all power source devices for logs/records that are within the defined delta
-        // (in case there are records/logs found in the query)
-        // Compares the two logs to get the peak power consumption and the instant where it happened
-        for (Log powerGridLog : powerGridLogs) {
-            TimeStampVO gridTime = powerGridLog.getTime();
-            int totalValue = (int) powerGridLog.getReading().getValue();
+        // Checks if any power source log was found in the same instant (instant is defined by the delta) as a power
+        // grid log. In case there were none, there were no instant matches. Otherwise, retrieves the peak consumption
+        // of all the instantaneous readings, as well as the instant time when that occurred.
+        if(!peak.foundInstantLogMatch){
+            return "Readings were found within the provided time span, but with no instant matches within the delta provided";
+        } else{
+            return "The Peak Power Consumption of the House within the selected Period was of " + peak.consumption + " Wh which happened at " + peak.instantTime;
+        }
+    }
 
-            for (Log powerSourceLog : powerSourceLogs) {
-                TimeStampVO sourceTime = powerSourceLog.getTime();
+    /**
+     * Retrieves how much each device contributed to the peak power consumption of the house within the specified time
+     * period. The peak is computed as in {@link #getPeakPowerConsumption(TimeStampVO, TimeStampVO, DeltaVO)}; the
+     * Grid Power Meter contributes its reading at the peak instant and each power source device the sum of its
+     * readings (in absolute value) within the delta of that instant.
+     *
+     * @param start the start timestamp of the period, represented as a TimeStampVO object.
+     * @param end the end timestamp of the period, represented as a TimeStampVO object.
+     * @param delta the delta value to define the time window for matching logs, represented as a DeltaVO object.
+     * @return a map of device IDs to their consumption in Wh at the peak instant, starting with the Grid Power Meter,
+     * or an empty map if there are no Grid Power Meter logs or no instant matches within the delta.
+     * @throws IllegalArgumentException if the parameters are invalid or the timestamps are not valid.
+     */
+    public Map<String, Integer> getPeakPowerConsumptionBreakdown(TimeStampVO start, TimeStampVO end, DeltaVO delta) {
+        if (areParamsNull(start, end, delta)) {
+            throw new IllegalArgumentException(ERROR_MESSAGE_PARAMS);
+        }
+        if(areTimeStampsInvalid(start, end)){
+            throw new IllegalArgumentException(ERROR_MESSAGE_TIME);
+        }
+
+        String deviceID = System.getProperty("Grid Power Meter device");
+        String sensorTypeID = System.getProperty("Grid Power Meter sensor type");
+        Iterable<Log> powerGridLogs = logRepository.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID, sensorTypeID, start, end);
+        Iterable<Log> powerSourceLogs = logRepository.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(deviceID, sensorTypeID, start, end);
+
+        if(!powerGridLogs.iterator().hasNext()){
+            return Collections.emptyMap();
+        }
+        if(!powerSourceLogs.iterator().hasNext()){
+            Log maxValueLog = getMaxValue(powerGridLogs);
+            return Collections.singletonMap(deviceID, (int) maxValueLog.getReading().getValue());
+        }
+
+        PeakPowerConsumption peak = sweepPeakPowerConsumption(deviceID, powerGridLogs, powerSourceLogs, delta);
+        if(!peak.foundInstantLogMatch){
+            return Collections.emptyMap();
+        }
+        return peak.breakdown;
+    }
 
-                if (isWithinTimeWindow(gridTime, sourceTime, delta)) {
-                    int sourceValue = (int) powerSourceLog.getReading().getValue();
-                    totalValue += Math.abs(sourceValue);
-                    foundInstantLogMatch = true;
+    /**
+     * Computes the peak power consumption of the house by sweeping the power grid logs and the power source logs
+     * together in time order.
+     * <p>
+     * The power source logs are consumed through a sliding window that holds every source reading within the delta
+     * of the current grid reading, together with the running total of those readings per device, so each log is
+     * added and removed once. The repository returns both sequences ordered by time, in which case they are streamed
+     * without being copied and memory is bounded by the number of source readings within one window; unordered
+     * input is sorted first. Time comparisons are done on epoch seconds and source readings are only read for logs
+     * that fall inside a window.
+     * </p>
+     * When several grid logs share the peak consumption, the one reported is the first in the order the logs were
+     * given.
+     *
+     * @param gridDeviceID the ID of the Grid Power Meter device.
+     * @param powerGridLogs the logs from the Grid Power Meter.
+     * @param powerSourceLogs the logs from the power source devices.
+     * @param delta the delta value to define the time window for matching logs.
+     * @return the peak power consumption, its instant and the contribution of each device at that instant.
+     */
+    private PeakPowerConsumption sweepPeakPowerConsumption(String gridDeviceID, Iterable<Log> powerGridLogs, Iterable<Log> powerSourceLogs, DeltaVO delta) {
+        long window = delta.getValue() * 60L;
+
+        Iterable<Log> orderedGridLogs = powerGridLogs;
+        int[] gridPositions = null;
+        if (!isOrderedByTime(powerGridLogs)) {
+            List<Log> gridLogList = convertToList(powerGridLogs);
+            gridPositions = sortedOrder(toEpochSeconds(gridLogList));
+            orderedGridLogs = reorder(gridLogList, gridPositions);
+        }
+        Iterable<Log> orderedSourceLogs = powerSourceLogs;
+        if (!isOrderedByTime(powerSourceLogs)) {
+            List<Log> sourceLogList = convertToList(powerSourceLogs);
+            orderedSourceLogs = reorder(sourceLogList, sortedOrder(toEpochSeconds(sourceLogList)));
+        }
 
+        PeakPowerConsumption peak = new PeakPowerConsumption();
+        Deque<SourceReading> sourceWindow = new ArrayDeque<>();
+        // Per device running total and number of readings in the window
+        Map<String, int[]> sourceTotals = new HashMap<>();
+        int sourceTotal = 0;
+        Iterator<Log> sourceIterator = orderedSourceLogs.iterator();
+        Log nextSourceLog = sourceIterator.hasNext() ? sourceIterator.next() : null;
+        int position = 0;
+
+        for (Log powerGridLog : orderedGridLogs) {
+            int gridPosition = gridPositions == null ? position : gridPositions[position];
+            position++;
+            long gridTime = toEpochSecond(powerGridLog);
+
+            // Drops source readings that are too old for this and every later grid reading
+            while (!sourceWindow.isEmpty() && sourceWindow.peekFirst().time <= gridTime - window) {
+                SourceReading expired = sourceWindow.pollFirst();
+                sourceTotal -= expired.value;
+                int[] deviceTotal = sourceTotals.get(expired.deviceID);
+                deviceTotal[0] -= expired.value;
+                if (--deviceTotal[1] == 0) {
+                    sourceTotals.remove(expired.deviceID);
+                }
+            }
+            // Admits source readings that are not too recent for this grid reading, skipping the ones already too old
+            while (nextSourceLog != null && toEpochSecond(nextSourceLog) < gridTime + window) {
+                long sourceTime = toEpochSecond(nextSourceLog);
+                if (sourceTime > gridTime - window) {
+                    SourceReading admitted = new SourceReading(sourceTime, Math.abs((int) nextSourceLog.getReading().getValue()), nextSourceLog.getDeviceID().getID());
+                    sourceWindow.addLast(admitted);
+                    sourceTotal += admitted.value;
+                    int[] deviceTotal = sourceTotals.computeIfAbsent(admitted.deviceID, id -> new int[2]);
+                    deviceTotal[0] += admitted.value;
+                    deviceTotal[1]++;
+                    peak.foundInstantLogMatch = true;
                 }
+                nextSourceLog = sourceIterator.hasNext() ? sourceIterator.next() : null;
             }
-            if (totalValue>peakConsumption){
-                peakConsumption = totalValue;
-                instantTime = powerGridLog.getTime().getValue().toString();
+
+            int gridValue = (int) powerGridLog.getReading().getValue();
+            int totalValue = gridValue + sourceTotal;
+            if (totalValue > peak.consumption || (totalValue == peak.consumption && peak.instantPosition > gridPosition)) {
+                peak.consumption = totalValue;
+                peak.instantPosition = gridPosition;
+                peak.instantTime = powerGridLog.getTime().getValue().toString();
+                peak.breakdown = new LinkedHashMap<>();
+                peak.breakdown.put(gridDeviceID, gridValue);
+                sourceTotals.forEach((id, deviceTotal) -> peak.breakdown.put(id, deviceTotal[0]));
             }
         }
-        // Checks if the foundInstantLogMatch variable has not been altered since it has been initialized
-        // In case the variable has not been altered (is still false) it means there were no matches
-        // in the same instant (instant is defined by the delta)
-        // In case the variable is true, it means that there were matches found that are in the same instant
-        // and retrieves the peak consumption of all the instantaneous readings, as well as the instant time when
-        // that occurred.
-        if(!foundInstantLogMatch){
-            return "Readings were found within the provided time span, but with no instant matches within the delta provided";
-        } else{
-            return "The Peak Power Consumption of the House within the selected Period was of " + peakConsumption+ " Wh which happened at " + instantTime;
+        return peak;
+    }
+
+    /**
+     * Checks if the given logs are in ascending time order, without copying them.
+     * @param logs The logs to check.
+     * @return true if every log is not earlier than the previous one, false otherwise.
+     */
+    private boolean isOrderedByTime(Iterable<Log> logs){
+        long previous = Long.MIN_VALUE;
+        for (Log log : logs) {
+            long time = toEpochSecond(log);
+            if (time < previous) {
+                return false;
+            }
+            previous = time;
         }
+        return true;
     }
 
     /**
-     * Retrieves the log with the maximum reading value from the provided list of logs.
+     * Arranges a list of logs in the given order.
+     * @param logs The logs to arrange.
+     * @param order The positions of the logs, in the desired order.
+     * @return A new list with the logs in the given order.
+     */
+    private List<Log> reorder(List<Log> logs, int[] order){
+        List<Log> orderedLogs = new ArrayList<>(order.length);
+        for (int index : order) {
+            orderedLogs.add(logs.get(index));
+        }
+        return orderedLogs;
+    }
+
+    /**
+     * Retrieves the log with the maximum reading value from the provided list of logs. When several logs share the
+     * maximum reading value, the last one is returned.
      *
      * @param list an Iterable of Log objects.
      * @return the Log object with the maximum reading value.
      */
     private Log getMaxValue (Iterable<Log> list){
-        int peakGridConsumption = (int) list.iterator().next().getReading().getValue();
-        Log biggestReadingLog = list.iterator().next();
+        Log biggestReadingLog = null;
+        int peakGridConsumption = 0;
         for (Log log : list) {
             int powerGridValue = (int) log.getReading().getValue();
-            if (powerGridValue >= peakGridConsumption) {
+            if (biggestReadingLog == null || powerGridValue >= peakGridConsumption) {
                 peakGridConsumption = powerGridValue;
                 biggestReadingLog = log;
             }
@@ -518,6 +1170,33 @@ public class LogServiceImpl implements LogService {
         return biggestReadingLog;
     }
 
+    /**
+     * Peak power consumption found by {@link #sweepPeakPowerConsumption}, together with the instant where it happened
+     * and the consumption of each device at that instant.
+     */
+    private static final class PeakPowerConsumption {
+        private int consumption;
+        private String instantTime;
+        private int instantPosition = -1;
+        private boolean foundInstantLogMatch;
+        private Map<String, Integer> breakdown = Collections.emptyMap();
+    }
+
+    /**
+     * Power source reading held in the sliding window of {@link #sweepPeakPowerConsumption}.
+     */
+    private static final class SourceReading {
+        private final long time;
+        private final int value;
+        private final String deviceID;
+
+        private SourceReading(long time, int value, String deviceID) {
+            this.time = time;
+            this.value = value;
+            this.deviceID = deviceID;
+        }
+    }
+
 
     @Autowired
     public void setSensorValueFactory(SensorValueFactory sensorValueFactory) {
@@ -534,4 +1213,9 @@ public class LogServiceImpl implements LogService {
         this.sunTimeCalculator = sunTimeCalculator;
     }
 
+    @Autowired
+    public void setSensorExternalServices(SensorExternalServices sensorExternalServices) {
+        this.sensorExternalServices = sensorExternalServices;
+    }
+
 }
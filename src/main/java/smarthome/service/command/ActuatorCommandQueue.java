@@ -0,0 +1,337 @@
+package smarthome.service.command;
+
+import smarthome.domain.actuator.Actuator;
+import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
+import smarthome.service.ActuatorService;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces the commands sent to an actuator in quick succession, such as the positions of a slider being dragged,
+ * so only the last one reaches the hardware and the database.
+ * <p>
+ * A command for an actuator with nothing to do is executed at once. The commands of an actuator are executed one at
+ * a time, through {@link ActuatorService#executeCommand}: a command arriving while one is executed, or within window
+ * after it finished, waits until window has passed since then. Each actuator has at most one command waiting; a
+ * command arriving meanwhile takes its place, and the one it replaces is acknowledged at once as superseded without
+ * ever being executed. Commands are checked against their actuator before they take the place of another, so an
+ * invalid command never replaces a valid one. Commands for different actuators run concurrently, on at most threads
+ * threads.
+ * </p>
+ * <p>
+ * close() executes the commands still waiting before stopping the threads. The number of commands received,
+ * superseded and executed is published over JMX with the other metrics of {@link ActuatorCommandQueueMXBean}.
+ * </p>
+ */
+public class ActuatorCommandQueue implements ActuatorCommandQueueMXBean, AutoCloseable {
+
+    private static final String ERROR_MESSAGE = "Invalid parameters";
+    private static final String CLOSED_MESSAGE = "Command queue is closed";
+    private static final String OBJECT_NAME = "smarthome:type=ActuatorCommandQueue";
+    // How long close() waits for the commands still waiting or being executed before giving up on them
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final ActuatorService actuatorService;
+    private final long windowNanos;
+    private final ScheduledThreadPoolExecutor executor;
+    private final ConcurrentHashMap<ActuatorIDVO, Slot> slots = new ConcurrentHashMap<>();
+
+    private final AtomicLong submittedCommands = new AtomicLong();
+    private final AtomicLong supersededCommands = new AtomicLong();
+    private final AtomicLong executedCommands = new AtomicLong();
+    private final AtomicLong failedCommands = new AtomicLong();
+
+    private volatile boolean closed;
+    private boolean registered;
+
+    /**
+     * The command waiting for an actuator, and whether one is being executed, guarded by the slot itself. A slot is
+     * retired once its actuator has had nothing to do for window, so a new one is created for the next command.
+     */
+    private static final class Slot {
+        private String command;
+        private CompletableFuture<CommandReceipt> receipt;
+        // When the next command can be executed, in System.nanoTime() terms
+        private long readyAtNanos = System.nanoTime();
+        private boolean scheduled;
+        private boolean running;
+        private boolean retired;
+    }
+
+    /**
+     * Constructor for ActuatorCommandQueue.
+     *
+     * @param actuatorService the service the commands are executed with
+     * @param windowMillis    how long a command waits for newer ones for the same actuator, in milliseconds; 0 only
+     *                        coalesces the commands arriving while the previous one is executed
+     * @param threads         the maximum number of commands executed at once
+     * @throws IllegalArgumentException if the service is null, the window is negative or threads is not positive
+     */
+    public ActuatorCommandQueue(ActuatorService actuatorService, long windowMillis, int threads) {
+        if (actuatorService == null || windowMillis < 0 || threads <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        this.actuatorService = actuatorService;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads, runnable -> {
+            Thread thread = new Thread(runnable, "actuator-command-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Queues a command for an actuator, superseding the command already waiting for it, if any.
+     *
+     * @param actuatorIDVO the ID of the actuator
+     * @param command      the command to be executed on the actuator
+     * @return the receipt of the command, completed once it is executed or superseded; completed exceptionally with
+     * the IllegalArgumentException of {@link ActuatorService#executeCommand} if it fails
+     * @throws IllegalArgumentException if any of the parameters is null, the actuator is not found or the command is
+     *                                  not valid for it
+     * @throws IllegalStateException    if the queue is closed
+     */
+    public CompletableFuture<CommandReceipt> submit(ActuatorIDVO actuatorIDVO, String command) {
+        if (actuatorIDVO == null || command == null) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        if (closed) {
+            throw new IllegalStateException(CLOSED_MESSAGE);
+        }
+        Actuator actuator = actuatorService.getActuatorById(actuatorIDVO)
+                .orElseThrow(() -> new IllegalArgumentException("Actuator not found"));
+        if (!actuator.isCommandValid(command)) {
+            throw new IllegalArgumentException("Invalid value, could not execute command");
+        }
+        CompletableFuture<CommandReceipt> receipt = new CompletableFuture<>();
+        CompletableFuture<CommandReceipt> superseded;
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException(CLOSED_MESSAGE);
+            }
+            Slot slot = slots.computeIfAbsent(actuatorIDVO, id -> new Slot());
+            synchronized (slot) {
+                if (slot.retired) {
+                    continue;
+                }
+                superseded = slot.receipt;
+                slot.command = command;
+                slot.receipt = receipt;
+                if (!slot.scheduled && !slot.running) {
+                    schedule(actuatorIDVO, slot);
+                }
+            }
+            break;
+        }
+        submittedCommands.incrementAndGet();
+        if (superseded != null) {
+            supersededCommands.incrementAndGet();
+            superseded.complete(CommandReceipt.superseded());
+        }
+        return receipt;
+    }
+
+    /**
+     * Queues a command for an actuator and waits until it is executed or superseded.
+     *
+     * @param actuatorIDVO the ID of the actuator
+     * @param command      the command to be executed on the actuator
+     * @return the receipt of the command
+     * @throws IllegalArgumentException if any of the parameters is null, the actuator is not found, or the command is
+     *                                  not valid or fails
+     * @throws IllegalStateException    if the queue is closed
+     */
+    public CommandReceipt execute(ActuatorIDVO actuatorIDVO, String command) {
+        try {
+            return submit(actuatorIDVO, command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Has the command waiting for an actuator executed once the actuator is ready, at once if it has had nothing to do
+     * for window. Called holding the lock of the slot.
+     */
+    private void schedule(ActuatorIDVO actuatorIDVO, Slot slot) {
+        long delay = Math.max(0, slot.readyAtNanos - System.nanoTime());
+        try {
+            executor.schedule(() -> run(actuatorIDVO, slot), delay, TimeUnit.NANOSECONDS);
+            slot.scheduled = true;
+        } catch (RejectedExecutionException e) {
+            // Closed meanwhile: the command is dropped, and the actuator left with nothing to do
+            CompletableFuture<CommandReceipt> dropped = slot.receipt;
+            slot.command = null;
+            slot.receipt = null;
+            retire(actuatorIDVO, slot);
+            dropped.completeExceptionally(new IllegalStateException(CLOSED_MESSAGE));
+        }
+    }
+
+    /**
+     * Executes the command waiting for an actuator, then schedules the one that arrived meanwhile, if any, for window
+     * later. Once the queue is closed, that one is executed straight away instead.
+     */
+    private void run(ActuatorIDVO actuatorIDVO, Slot slot) {
+        while (true) {
+            String command;
+            CompletableFuture<CommandReceipt> receipt;
+            synchronized (slot) {
+                command = slot.command;
+                receipt = slot.receipt;
+                slot.command = null;
+                slot.receipt = null;
+                slot.scheduled = false;
+                slot.running = true;
+            }
+            try {
+                Actuator actuator = actuatorService.executeCommand(actuatorIDVO, command);
+                executedCommands.incrementAndGet();
+                receipt.complete(CommandReceipt.executed(actuator));
+            } catch (RuntimeException e) {
+                failedCommands.incrementAndGet();
+                receipt.completeExceptionally(e);
+            }
+            synchronized (slot) {
+                slot.running = false;
+                slot.readyAtNanos = System.nanoTime() + windowNanos;
+                if (slot.receipt == null) {
+                    retireWhenIdle(actuatorIDVO, slot);
+                    return;
+                }
+                if (!closed) {
+                    schedule(actuatorIDVO, slot);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the slot of an actuator once window has passed without a new command, so the commands arriving until then
+     * still wait for the window. Called holding the lock of the slot.
+     */
+    private void retireWhenIdle(ActuatorIDVO actuatorIDVO, Slot slot) {
+        if (windowNanos == 0 || closed) {
+            retire(actuatorIDVO, slot);
+            return;
+        }
+        try {
+            executor.schedule(() -> {
+                synchronized (slot) {
+                    if (!slot.retired && slot.receipt == null && !slot.running
+                            && slot.readyAtNanos - System.nanoTime() <= 0) {
+                        retire(actuatorIDVO, slot);
+                    }
+                }
+            }, windowNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            retire(actuatorIDVO, slot);
+        }
+    }
+
+    /**
+     * Drops the slot of an actuator with nothing left to do. Called holding the lock of the slot.
+     */
+    private void retire(ActuatorIDVO actuatorIDVO, Slot slot) {
+        slot.retired = true;
+        slots.remove(actuatorIDVO, slot);
+    }
+
+    @Override
+    public long getWindowMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(windowNanos);
+    }
+
+    @Override
+    public long getSubmittedCommands() {
+        return submittedCommands.get();
+    }
+
+    @Override
+    public long getSupersededCommands() {
+        return supersededCommands.get();
+    }
+
+    @Override
+    public long getExecutedCommands() {
+        return executedCommands.get();
+    }
+
+    @Override
+    public long getFailedCommands() {
+        return failedCommands.get();
+    }
+
+    @Override
+    public int getQueuedActuators() {
+        return slots.size();
+    }
+
+    /**
+     * Stops taking commands, executes the ones still waiting, and stops the threads.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        // Commands already waiting their window are still executed after shutdown
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        unregisterMBean();
+    }
+
+    /**
+     * Publishes the metrics of the queue over JMX. Only one instance can be published at a time; a second one is left
+     * unpublished.
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                registered = true;
+            }
+        } catch (JMException e) {
+            // Metrics are optional, the queue works the same without them
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+        if (!registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Already gone
+        }
+        registered = false;
+    }
+}
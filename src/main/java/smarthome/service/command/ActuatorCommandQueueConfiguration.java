@@ -0,0 +1,29 @@
+package smarthome.service.command;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import smarthome.service.ActuatorService;
+
+/**
+ * Turns on the coalescing of actuator commands when {@code actuator.command.coalescing.enabled=true}: the commands of
+ * PATCH /actuators/{actuatorId}/act, the group commands and the closing of roller blinds go through an
+ * {@link ActuatorCommandQueue}, so of the commands sent to an actuator while it is commanded, or within
+ * {@code actuator.command.coalescing.window-ms} after, only the last reaches the hardware. Spring closes it on
+ * shutdown, executing the commands still waiting first.
+ */
+@Configuration
+@ConditionalOnProperty(name = "actuator.command.coalescing.enabled", havingValue = "true")
+public class ActuatorCommandQueueConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ActuatorCommandQueue actuatorCommandQueue(
+            ActuatorService actuatorService,
+            @Value("${actuator.command.coalescing.window-ms:100}") long windowMillis,
+            @Value("${actuator.command.coalescing.threads:8}") int threads) {
+        ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, windowMillis, threads);
+        queue.registerMBean();
+        return queue;
+    }
+}
@@ -0,0 +1,39 @@
+package smarthome.service.command;
+
+/**
+ * Management interface of {@link ActuatorCommandQueue}, published over JMX so it can be watched at runtime how many
+ * of the commands received actually reach the hardware.
+ */
+public interface ActuatorCommandQueueMXBean {
+
+    /**
+     * @return how long after a command for an actuator is executed the next one waits, and can be superseded by newer
+     * ones, in milliseconds
+     */
+    long getWindowMillis();
+
+    /**
+     * @return the number of commands received
+     */
+    long getSubmittedCommands();
+
+    /**
+     * @return the number of commands replaced by a newer one for the same actuator, and never executed
+     */
+    long getSupersededCommands();
+
+    /**
+     * @return the number of commands executed on the hardware and saved
+     */
+    long getExecutedCommands();
+
+    /**
+     * @return the number of commands executed that failed, for instance because the value was invalid
+     */
+    long getFailedCommands();
+
+    /**
+     * @return the number of actuators with a command waiting or being executed, or with one executed within the window
+     */
+    int getQueuedActuators();
+}
@@ -0,0 +1,50 @@
+package smarthome.service.command;
+
+import smarthome.domain.actuator.Actuator;
+
+/**
+ * Answer to a command handed to the {@link ActuatorCommandQueue}: either the actuator after the command was executed,
+ * or the acknowledgement that a newer command for the same actuator superseded it before it ran, in which case it is
+ * never executed.
+ */
+public class CommandReceipt {
+
+    private final Actuator actuator;
+
+    private CommandReceipt(Actuator actuator) {
+        this.actuator = actuator;
+    }
+
+    /**
+     * @param actuator the actuator after the command was executed and saved
+     * @return the receipt of an executed command
+     * @throws IllegalArgumentException if the actuator is null
+     */
+    static CommandReceipt executed(Actuator actuator) {
+        if (actuator == null) {
+            throw new IllegalArgumentException("Invalid parameters");
+        }
+        return new CommandReceipt(actuator);
+    }
+
+    /**
+     * @return the receipt of a command superseded by a newer one
+     */
+    static CommandReceipt superseded() {
+        return new CommandReceipt(null);
+    }
+
+    /**
+     * @return true if a newer command for the same actuator replaced this one before it was executed
+     */
+    public boolean isSuperseded() {
+        return actuator == null;
+    }
+
+    /**
+     * @return the actuator after the command was executed, or null if the command was superseded
+     */
+    public Actuator getActuator() {
+        return actuator;
+    }
+}
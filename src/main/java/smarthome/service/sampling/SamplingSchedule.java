@@ -0,0 +1,85 @@
+package smarthome.service.sampling;
+
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How often the sensors are sampled: one interval per sensor type, a default interval for the types without one, the
+ * jitter added to every deadline, and how often the sensors are looked up again to sample the new ones.
+ * <p>
+ * The first reading of a sensor is taken at a random point of its first interval, and every later reading is delayed
+ * by a random fraction of the interval of at most the jitter. Sensors of the same type added at the same time, such as
+ * every sensor on startup, are therefore spread over the interval instead of hitting the hardware at the same instant.
+ * The jitter never accumulates: each deadline is one interval after the previous one before its jitter is added.
+ * </p>
+ */
+public final class SamplingSchedule {
+
+    private final long defaultIntervalNanos;
+    private final Map<String, Long> intervalNanos;
+    private final double jitter;
+    private final long refreshIntervalMillis;
+
+    /**
+     * Constructor for SamplingSchedule.
+     *
+     * @param defaultIntervalMillis the interval of the sensor types without one of their own, in milliseconds
+     * @param intervalsMillis       the interval of each sensor type, in milliseconds, by sensor type ID
+     * @param jitter                the largest delay added to a deadline, as a fraction of the interval, from 0 to 1
+     * @param refreshIntervalMillis the time between two lookups of the sensors, in milliseconds
+     * @throws IllegalArgumentException if the map is null, any interval is not positive or the jitter is out of range
+     */
+    public SamplingSchedule(long defaultIntervalMillis, Map<String, Long> intervalsMillis, double jitter,
+                            long refreshIntervalMillis) {
+        if (defaultIntervalMillis <= 0 || intervalsMillis == null || !(jitter >= 0 && jitter <= 1)
+                || refreshIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Invalid parameters.");
+        }
+        this.defaultIntervalNanos = TimeUnit.MILLISECONDS.toNanos(defaultIntervalMillis);
+        this.intervalNanos = new HashMap<>();
+        intervalsMillis.forEach((type, millis) -> {
+            if (type == null || millis == null || millis <= 0) {
+                throw new IllegalArgumentException("Invalid parameters.");
+            }
+            this.intervalNanos.put(type, TimeUnit.MILLISECONDS.toNanos(millis));
+        });
+        this.jitter = jitter;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    /**
+     * @param sensorTypeID the ID of the sensor type
+     * @return the interval between two readings of a sensor of that type, in nanoseconds
+     */
+    public long intervalNanos(SensorTypeIDVO sensorTypeID) {
+        return intervalNanos.getOrDefault(sensorTypeID.getID(), defaultIntervalNanos);
+    }
+
+    /**
+     * @return the time between two lookups of the sensors, in milliseconds
+     */
+    public long refreshIntervalMillis() {
+        return refreshIntervalMillis;
+    }
+
+    /**
+     * @param intervalNanos the interval of the sensor
+     * @return the delay before the first reading of a sensor, somewhere in its first interval
+     */
+    long firstDelayNanos(long intervalNanos) {
+        return ThreadLocalRandom.current().nextLong(intervalNanos);
+    }
+
+    /**
+     * @param intervalNanos the interval of the sensor
+     * @return the delay added to a deadline, at most the jitter times the interval
+     */
+    long jitterNanos(long intervalNanos) {
+        long bound = (long) (intervalNanos * jitter);
+        return bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound);
+    }
+}
@@ -0,0 +1,567 @@
+package smarthome.service.sampling;
+
+import smarthome.domain.device.Device;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.sensor.InstantaneousSensor;
+import smarthome.domain.sensor.Sensor;
+import smarthome.domain.sensor.externalservices.SensorExternalServices;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+import smarthome.persistence.DeviceRepository;
+import smarthome.persistence.SensorRepository;
+import smarthome.service.LogService;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes a reading of every instantaneous sensor on a schedule and writes the readings to the log store in batches.
+ * <p>
+ * Three kinds of threads share the work. A single scheduler thread only keeps time: when the deadline of a sensor comes
+ * it plans the next one and hands the reading to a reader, so a slow sensor never delays the others. Readers call the
+ * hardware through {@link SensorExternalServices}; at most maxConcurrentReads of them read at once. They run on
+ * virtual threads when the Java runtime has them, so thousands of slow hardware calls park cheaply, and on a bounded
+ * pool of platform threads otherwise. A single writer thread does the database work: it looks the sensors up again
+ * every refresh interval, and hands the queued readings to {@link LogService#addLogs} as soon as batchSize of them are
+ * queued, or every flush interval.
+ * </p>
+ * <p>
+ * At most maxPendingReadings readings wait for the writer. While the log store is slower than the sensors and the queue
+ * is full, the sensors are not read at all, and a reading that finds the queue full once taken is dropped; both are
+ * counted as dropped readings, so the sampler backs off instead of filling the memory.
+ * </p>
+ * <p>
+ * A sensor is read at most once at a time. A deadline that comes while the previous reading of its sensor is still
+ * running, or whose reading cannot start before the next deadline, is skipped and counted as missed; the time between
+ * a deadline and the start of its reading is the lag. Both are published over JMX with the other metrics of
+ * {@link SensorSamplerMXBean}. Sensors that cannot be read, such as period and sun sensors, and the sensors of devices
+ * that are not active are not sampled.
+ * </p>
+ */
+public class SensorSampler implements SensorSamplerMXBean, AutoCloseable {
+
+    private static final String ERROR_MESSAGE = "Invalid parameters.";
+    private static final String OBJECT_NAME = "smarthome:type=SensorSampler";
+    // How long close() waits for the readings in flight, and then for the last batch, before giving up on them
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final SensorRepository sensorRepository;
+    private final DeviceRepository deviceRepository;
+    private final SensorExternalServices hardware;
+    private final SensorValueFactory valueFactory;
+    private final LogFactory logFactory;
+    private final LogService logService;
+    private final SamplingSchedule schedule;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ScheduledThreadPoolExecutor writer;
+    private final ExecutorService readers;
+    private final boolean virtualThreads;
+    private final Semaphore readPermits;
+
+    // Written by the scheduler thread only; a map safe to read from any thread for the metrics
+    private final Map<SensorIDVO, SampledSensor> sampled = new ConcurrentHashMap<>();
+    private final BlockingQueue<Log> pending;
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean closed;
+    private boolean registered;
+
+    private final AtomicInteger readsInFlight = new AtomicInteger();
+    private final AtomicLong completedReads = new AtomicLong();
+    private final AtomicLong failedReads = new AtomicLong();
+    private final AtomicLong missedDeadlines = new AtomicLong();
+    private final AtomicLong lagSamples = new AtomicLong();
+    private final AtomicLong lagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private final AtomicLong loggedReadings = new AtomicLong();
+    private final AtomicLong unsavedReadings = new AtomicLong();
+    private final AtomicLong droppedReadings = new AtomicLong();
+
+    /**
+     * Constructor for SensorSampler. Nothing is sampled until start() is called.
+     *
+     * @param sensorRepository    the repository the sensors are looked up in
+     * @param deviceRepository    the repository the devices of the sensors are looked up in
+     * @param hardware            the hardware the readings are taken from
+     * @param valueFactory        the factory turning the raw readings into values
+     * @param logFactory          the factory of the logs of the readings
+     * @param logService          the service the logs are written through
+     * @param schedule            how often each sensor is read
+     * @param maxConcurrentReads  the maximum number of readings taken at once
+     * @param batchSize           the number of readings written to the log store at once
+     * @param maxPendingReadings  the maximum number of readings waiting to be written, at least batchSize
+     * @param flushIntervalMillis the maximum time a reading waits for its batch to fill up, in milliseconds
+     * @throws IllegalArgumentException if any of the objects is null, any of the numbers is not positive, or
+     *                                  maxPendingReadings is less than batchSize
+     */
+    public SensorSampler(SensorRepository sensorRepository, DeviceRepository deviceRepository,
+                         SensorExternalServices hardware, SensorValueFactory valueFactory, LogFactory logFactory,
+                         LogService logService, SamplingSchedule schedule, int maxConcurrentReads, int batchSize,
+                         int maxPendingReadings, long flushIntervalMillis) {
+        if (sensorRepository == null || deviceRepository == null || hardware == null || valueFactory == null
+                || logFactory == null || logService == null || schedule == null || maxConcurrentReads <= 0
+                || batchSize <= 0 || maxPendingReadings < batchSize || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException(ERROR_MESSAGE);
+        }
+        this.sensorRepository = sensorRepository;
+        this.deviceRepository = deviceRepository;
+        this.hardware = hardware;
+        this.valueFactory = valueFactory;
+        this.logFactory = logFactory;
+        this.logService = logService;
+        this.schedule = schedule;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.pending = new ArrayBlockingQueue<>(maxPendingReadings);
+
+        this.scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("sensor-sampler"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        this.writer = new ScheduledThreadPoolExecutor(1, daemonThreads("sensor-sampler-writer"));
+        ExecutorService virtualReaders = newVirtualThreadPerTaskExecutor();
+        this.virtualThreads = virtualReaders != null;
+        this.readers = virtualThreads ? virtualReaders : newPlatformReaders(maxConcurrentReads);
+        this.readPermits = new Semaphore(maxConcurrentReads);
+    }
+
+    /**
+     * Looks the sensors up and starts sampling them. Does nothing if already started.
+     */
+    public void start() {
+        if (closed || !started.compareAndSet(false, true)) {
+            return;
+        }
+        writer.scheduleWithFixedDelay(this::refreshSensors, 0, schedule.refreshIntervalMillis(), TimeUnit.MILLISECONDS);
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sampling, waits for the readings in flight and writes every reading still queued.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        scheduler.shutdownNow();
+        readers.shutdown();
+        try {
+            readers.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            // Periodic tasks are dropped on shutdown, the last flush queued before it still runs
+            writer.execute(this::flush);
+            writer.shutdown();
+            writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        unregisterMBean();
+    }
+
+    /**
+     * Publishes the metrics of the sampler over JMX. Only one instance can be published at a time; a second one is
+     * left unpublished.
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+                registered = true;
+            }
+        } catch (JMException e) {
+            // Metrics are optional, the sampler works the same without them
+        }
+    }
+
+    private synchronized void unregisterMBean() {
+        if (!registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Already gone
+        }
+        registered = false;
+    }
+
+    /**
+     * Looks the sensors and their devices up, on the writer thread, and has the scheduler thread start sampling the new
+     * sensors of active devices and stop sampling the removed ones and those of deactivated devices. If the sensors or
+     * devices cannot be read, the ones already known keep being sampled.
+     */
+    private void refreshSensors() {
+        Iterable<Sensor> sensors;
+        Iterable<Device> devices;
+        try {
+            sensors = sensorRepository.findAll();
+            devices = deviceRepository.findAll();
+        } catch (RuntimeException e) {
+            return;
+        }
+        if (sensors == null || devices == null) {
+            return;
+        }
+        Set<DeviceIDVO> activeDevices = new HashSet<>();
+        for (Device device : devices) {
+            if (device.isActive()) {
+                activeDevices.add(device.getId());
+            }
+        }
+        Map<SensorIDVO, InstantaneousSensor> found = new HashMap<>();
+        for (Sensor sensor : sensors) {
+            if (sensor instanceof InstantaneousSensor instantaneousSensor && sensor.getId() instanceof SensorIDVO id
+                    && activeDevices.contains(sensor.getDeviceID())) {
+                found.put(id, instantaneousSensor);
+            }
+        }
+        try {
+            scheduler.execute(() -> applySensors(found));
+        } catch (RejectedExecutionException e) {
+            // Closing
+        }
+    }
+
+    /**
+     * Starts sampling the sensors found that are not sampled yet, at a random point of their first interval, and
+     * stops sampling the ones no longer found. Runs on the scheduler thread.
+     *
+     * @param found the sensors found, by ID
+     */
+    private void applySensors(Map<SensorIDVO, InstantaneousSensor> found) {
+        sampled.values().removeIf(sampledSensor -> {
+            if (found.containsKey(sampledSensor.id)) {
+                return false;
+            }
+            sampledSensor.cancel();
+            return true;
+        });
+        long now = System.nanoTime();
+        found.forEach((id, sensor) -> {
+            SampledSensor sampledSensor = sampled.get(id);
+            if (sampledSensor != null) {
+                sampledSensor.sensor = sensor;
+                return;
+            }
+            long interval = schedule.intervalNanos(sensor.getSensorTypeID());
+            sampledSensor = new SampledSensor(id, sensor, interval, now + schedule.firstDelayNanos(interval));
+            sampled.put(id, sampledSensor);
+            planReading(sampledSensor, sampledSensor.nominalDeadline);
+        });
+    }
+
+    /**
+     * Plans the next reading of a sensor at the given deadline. Runs on the scheduler thread.
+     */
+    private void planReading(SampledSensor sampledSensor, long deadline) {
+        long delay = Math.max(0, deadline - System.nanoTime());
+        sampledSensor.next = scheduler.schedule(() -> onDeadline(sampledSensor, deadline), delay, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Plans the next deadline of a sensor and hands its reading to a reader, unless the previous one is still
+     * running. Deadlines the scheduler itself fell behind on are skipped and counted as missed. Runs on the scheduler
+     * thread.
+     *
+     * @param sampledSensor the sensor
+     * @param deadline      the deadline that came, in System.nanoTime() terms
+     */
+    private void onDeadline(SampledSensor sampledSensor, long deadline) {
+        if (sampledSensor.cancelled) {
+            return;
+        }
+        long interval = sampledSensor.intervalNanos;
+        long now = System.nanoTime();
+        sampledSensor.nominalDeadline += interval;
+        if (sampledSensor.nominalDeadline < now) {
+            long behind = (now - sampledSensor.nominalDeadline) / interval + 1;
+            missedDeadlines.addAndGet(behind);
+            sampledSensor.nominalDeadline += behind * interval;
+        }
+        planReading(sampledSensor, sampledSensor.nominalDeadline + schedule.jitterNanos(interval));
+
+        if (!sampledSensor.reading.compareAndSet(false, true)) {
+            missedDeadlines.incrementAndGet();
+            return;
+        }
+        readsInFlight.incrementAndGet();
+        try {
+            readers.execute(() -> read(sampledSensor, deadline));
+        } catch (RejectedExecutionException e) {
+            readsInFlight.decrementAndGet();
+            sampledSensor.reading.set(false);
+        }
+    }
+
+    /**
+     * Takes a reading of a sensor and queues its log, once a read permit is free. A reading that could not start
+     * before the next deadline of its sensor is skipped. Runs on a reader.
+     *
+     * @param sampledSensor the sensor
+     * @param deadline      the deadline of the reading, in System.nanoTime() terms
+     */
+    private void read(SampledSensor sampledSensor, long deadline) {
+        boolean batchFull = false;
+        try {
+            readPermits.acquire();
+            try {
+                batchFull = takeReading(sampledSensor, deadline);
+            } finally {
+                readPermits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            readsInFlight.decrementAndGet();
+            sampledSensor.reading.set(false);
+        }
+        // Only the reading that fills a batch asks for it to be written, the others wait for the flush interval
+        if (batchFull) {
+            try {
+                writer.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Closing, the last flush writes it
+            }
+        }
+    }
+
+    /**
+     * Records the lag of a reading, takes it and queues its log. The reading is dropped, before the hardware is read
+     * if possible, when the queue of pending readings is full.
+     *
+     * @return true if its log is the one that fills a batch
+     */
+    private boolean takeReading(SampledSensor sampledSensor, long deadline) {
+        long lag = Math.max(0, System.nanoTime() - deadline);
+        lagSamples.incrementAndGet();
+        lagNanos.addAndGet(lag);
+        maxLagNanos.accumulateAndGet(lag, Math::max);
+        if (lag >= sampledSensor.intervalNanos) {
+            missedDeadlines.incrementAndGet();
+            return false;
+        }
+        if (pending.remainingCapacity() == 0) {
+            droppedReadings.incrementAndGet();
+            return false;
+        }
+        InstantaneousSensor sensor = sampledSensor.sensor;
+        try {
+            SensorValueObject<?> value = sensor.getReading(hardware, valueFactory);
+            if (value == null) {
+                failedReads.incrementAndGet();
+                return false;
+            }
+            Log log = logFactory.createLog(value, sampledSensor.id, sensor.getDeviceID(), sensor.getSensorTypeID());
+            completedReads.incrementAndGet();
+            // Counted before it is queued, so the writer never takes more logs off the count than were put on it
+            boolean batchFull = pendingCount.incrementAndGet() == batchSize;
+            if (!pending.offer(log)) {
+                pendingCount.decrementAndGet();
+                droppedReadings.incrementAndGet();
+                return false;
+            }
+            return batchFull;
+        } catch (RuntimeException e) {
+            failedReads.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Writes every queued reading to the log store, batchSize at a time. Runs on the writer thread.
+     */
+    private void flush() {
+        List<Log> batch = new ArrayList<>(batchSize);
+        Log log;
+        while (true) {
+            while (batch.size() < batchSize && (log = pending.poll()) != null) {
+                batch.add(log);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingCount.addAndGet(-batch.size());
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * Writes a batch of readings and records the outcome. A batch that fails as a whole counts all of its readings
+     * as unsaved; there is no caller left to report them to.
+     */
+    private void write(List<Log> batch) {
+        int saved = 0;
+        try {
+            for (Optional<Log> result : logService.addLogs(batch)) {
+                if (result.isPresent()) {
+                    saved++;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Counted as unsaved below
+        }
+        loggedReadings.addAndGet(saved);
+        unsavedReadings.addAndGet((long) batch.size() - saved);
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, if the Java runtime has virtual threads. Looked up by
+     * reflection, so the application still runs on runtimes without them.
+     *
+     * @return the executor, or null if the runtime has no virtual threads
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a pool of at most maxConcurrentReads platform threads, which stop after a minute without readings.
+     */
+    private static ExecutorService newPlatformReaders(int maxConcurrentReads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrentReads, maxConcurrentReads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), daemonThreads("sensor-sampler-reader"));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Creates daemon threads with the given name, numbered after the first one; the sampler is closed by Spring and
+     * its threads must not keep the JVM alive if nobody does.
+     */
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            int number = count.getAndIncrement();
+            Thread thread = new Thread(runnable, number == 0 ? name : name + "-" + number);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public int getSampledSensors() {
+        return sampled.size();
+    }
+
+    @Override
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    @Override
+    public int getReadsInFlight() {
+        return readsInFlight.get();
+    }
+
+    @Override
+    public long getCompletedReads() {
+        return completedReads.get();
+    }
+
+    @Override
+    public long getFailedReads() {
+        return failedReads.get();
+    }
+
+    @Override
+    public long getMissedDeadlines() {
+        return missedDeadlines.get();
+    }
+
+    @Override
+    public double getAverageLagMillis() {
+        long count = lagSamples.get();
+        return count == 0 ? 0 : lagNanos.get() / 1e6 / count;
+    }
+
+    @Override
+    public double getMaxLagMillis() {
+        return maxLagNanos.get() / 1e6;
+    }
+
+    @Override
+    public int getPendingReadings() {
+        return pendingCount.get();
+    }
+
+    @Override
+    public long getLoggedReadings() {
+        return loggedReadings.get();
+    }
+
+    @Override
+    public long getUnsavedReadings() {
+        return unsavedReadings.get();
+    }
+
+    @Override
+    public long getDroppedReadings() {
+        return droppedReadings.get();
+    }
+
+    /**
+     * A sensor being sampled. Its deadlines and next reading are only touched by the scheduler thread.
+     */
+    private static final class SampledSensor {
+        private final SensorIDVO id;
+        private final long intervalNanos;
+        private final AtomicBoolean reading = new AtomicBoolean();
+        private volatile InstantaneousSensor sensor;
+        private volatile boolean cancelled;
+        private long nominalDeadline;
+        private ScheduledFuture<?> next;
+
+        private SampledSensor(SensorIDVO id, InstantaneousSensor sensor, long intervalNanos, long firstDeadline) {
+            this.id = id;
+            this.sensor = sensor;
+            this.intervalNanos = intervalNanos;
+            this.nominalDeadline = firstDeadline;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+    }
+}
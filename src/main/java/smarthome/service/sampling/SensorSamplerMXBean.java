@@ -0,0 +1,69 @@
+package smarthome.service.sampling;
+
+/**
+ * Management interface of {@link SensorSampler}, published over JMX so the sampling of the sensors can be watched at
+ * runtime: whether it keeps up with its schedule, and how many readings reach the log store.
+ */
+public interface SensorSamplerMXBean {
+
+    /**
+     * @return the number of sensors being sampled
+     */
+    int getSampledSensors();
+
+    /**
+     * @return true if the hardware is read on virtual threads, false if on a bounded pool of platform threads
+     */
+    boolean isVirtualThreads();
+
+    /**
+     * @return the number of readings started and not finished yet
+     */
+    int getReadsInFlight();
+
+    /**
+     * @return the number of readings taken
+     */
+    long getCompletedReads();
+
+    /**
+     * @return the number of readings the hardware or the value factory failed to produce
+     */
+    long getFailedReads();
+
+    /**
+     * @return the number of deadlines skipped because the previous reading of the sensor was not finished, or because
+     * the reading could not start before the next deadline
+     */
+    long getMissedDeadlines();
+
+    /**
+     * @return the average time between the deadline of a reading and its start, in milliseconds
+     */
+    double getAverageLagMillis();
+
+    /**
+     * @return the longest time between the deadline of a reading and its start, in milliseconds
+     */
+    double getMaxLagMillis();
+
+    /**
+     * @return the number of readings waiting to be written to the log store
+     */
+    int getPendingReadings();
+
+    /**
+     * @return the number of readings written to the log store
+     */
+    long getLoggedReadings();
+
+    /**
+     * @return the number of readings the log store did not save
+     */
+    long getUnsavedReadings();
+
+    /**
+     * @return the number of readings skipped or dropped because too many readings were waiting to be written
+     */
+    long getDroppedReadings();
+}
@@ -0,0 +1,77 @@
+package smarthome.service.sampling;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.sensor.externalservices.SensorExternalServices;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.persistence.DeviceRepository;
+import smarthome.persistence.SensorRepository;
+import smarthome.service.LogService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Turns on the scheduled sampling of the sensors when {@code sensor.sampling.enabled=true}: a {@link SensorSampler}
+ * reads every instantaneous sensor of the active devices at the interval of its type and writes the readings to the log store. Spring
+ * closes it on shutdown, before the log store, so the last readings are written first.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sensor.sampling.enabled", havingValue = "true")
+public class SensorSamplingConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public SensorSampler sensorSampler(
+            SensorRepository sensorRepository,
+            DeviceRepository deviceRepository,
+            SensorExternalServices sensorExternalServices,
+            SensorValueFactory sensorValueFactory,
+            LogFactory logFactory,
+            LogService logService,
+            @Value("${sensor.sampling.default-interval-ms:60000}") long defaultIntervalMillis,
+            @Value("${sensor.sampling.intervals-ms:}") String intervalsMillis,
+            @Value("${sensor.sampling.jitter:0.1}") double jitter,
+            @Value("${sensor.sampling.refresh-interval-ms:30000}") long refreshIntervalMillis,
+            @Value("${sensor.sampling.max-concurrent-reads:64}") int maxConcurrentReads,
+            @Value("${sensor.sampling.batch-size:500}") int batchSize,
+            @Value("${sensor.sampling.max-pending-readings:10000}") int maxPendingReadings,
+            @Value("${sensor.sampling.flush-interval-ms:1000}") long flushIntervalMillis) {
+        SamplingSchedule schedule = new SamplingSchedule(defaultIntervalMillis, parseIntervals(intervalsMillis), jitter,
+                refreshIntervalMillis);
+        SensorSampler sampler = new SensorSampler(sensorRepository, deviceRepository, sensorExternalServices,
+                sensorValueFactory, logFactory, logService, schedule, maxConcurrentReads, batchSize, maxPendingReadings,
+                flushIntervalMillis);
+        sampler.registerMBean();
+        sampler.start();
+        return sampler;
+    }
+
+    /**
+     * Parses the intervals of the sensor types, written as comma separated {@code SensorType:milliseconds} pairs.
+     *
+     * @param intervals the intervals, empty if every type uses the default one
+     * @return the interval of each sensor type, in milliseconds, by sensor type ID
+     * @throws IllegalArgumentException if a pair is not a sensor type and a number
+     */
+    static Map<String, Long> parseIntervals(String intervals) {
+        Map<String, Long> parsed = new HashMap<>();
+        if (intervals == null || intervals.isBlank()) {
+            return parsed;
+        }
+        for (String pair : intervals.split(",")) {
+            String[] typeAndMillis = pair.split(":");
+            if (typeAndMillis.length != 2 || typeAndMillis[0].isBlank()) {
+                throw new IllegalArgumentException("Invalid sampling interval: " + pair.trim());
+            }
+            try {
+                parsed.put(typeAndMillis[0].trim(), Long.parseLong(typeAndMillis[1].trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid sampling interval: " + pair.trim());
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,45 @@
+-- Converts the identifier columns of an existing H2 database from their 36-character text to BINARY(16).
+-- Run once, with the application stopped, on a database created before identifiers were stored in binary form.
+-- Each column goes through the UUID type, whose conversion to BINARY(16) is the big-endian layout written by
+-- UUIDBinaryConverter. Primary keys and indexes are kept and rebuilt by H2.
+-- Sensor and actuator type IDs are not UUIDs and stay text.
+
+-- The rollup ID was the text "device|sensor type|resolution|bucket start"; it becomes the name-based UUID of that text
+-- (UUID.nameUUIDFromBytes: MD5 with the version 3 and IETF variant bits set).
+UPDATE LOG_ROLLUP SET id = CAST(CAST(BITOR(BITAND(HASH('MD5', STRINGTOUTF8(id)),
+        X'ffffffffffff0fff3fffffffffffffff'), X'00000000000030008000000000000000') AS UUID) AS VARCHAR);
+
+ALTER TABLE HOUSE ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE HOUSE ALTER COLUMN id SET DATA TYPE BINARY(16);
+
+ALTER TABLE ROOM ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE ROOM ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE ROOM ALTER COLUMN house_id SET DATA TYPE UUID;
+ALTER TABLE ROOM ALTER COLUMN house_id SET DATA TYPE BINARY(16);
+
+ALTER TABLE DEVICE ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE DEVICE ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE DEVICE ALTER COLUMN room_id SET DATA TYPE UUID;
+ALTER TABLE DEVICE ALTER COLUMN room_id SET DATA TYPE BINARY(16);
+
+ALTER TABLE SENSOR ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE SENSOR ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE SENSOR ALTER COLUMN device_id SET DATA TYPE UUID;
+ALTER TABLE SENSOR ALTER COLUMN device_id SET DATA TYPE BINARY(16);
+
+ALTER TABLE ACTUATOR ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE ACTUATOR ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE ACTUATOR ALTER COLUMN device_id SET DATA TYPE UUID;
+ALTER TABLE ACTUATOR ALTER COLUMN device_id SET DATA TYPE BINARY(16);
+
+ALTER TABLE LOG ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE LOG ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE LOG ALTER COLUMN sensor_id SET DATA TYPE UUID;
+ALTER TABLE LOG ALTER COLUMN sensor_id SET DATA TYPE BINARY(16);
+ALTER TABLE LOG ALTER COLUMN device_id SET DATA TYPE UUID;
+ALTER TABLE LOG ALTER COLUMN device_id SET DATA TYPE BINARY(16);
+
+ALTER TABLE LOG_ROLLUP ALTER COLUMN id SET DATA TYPE UUID;
+ALTER TABLE LOG_ROLLUP ALTER COLUMN id SET DATA TYPE BINARY(16);
+ALTER TABLE LOG_ROLLUP ALTER COLUMN device_id SET DATA TYPE UUID;
+ALTER TABLE LOG_ROLLUP ALTER COLUMN device_id SET DATA TYPE BINARY(16);
@@ -0,0 +1,7 @@
+-- Drops the partition_month column of the LOG table, which only repeated the month of the time column.
+-- Run once, with the application stopped, on a database created while logs had that column. H2 has no declarative
+-- partitioning, so the retention purge deletes the expired rows through the time index created here.
+
+DROP INDEX IF EXISTS idx_log_partition_month;
+ALTER TABLE LOG DROP COLUMN IF EXISTS partition_month;
+CREATE INDEX IF NOT EXISTS idx_log_time_id ON LOG (time, id);
@@ -0,0 +1,39 @@
+-- Converts the identifier columns of an existing MariaDB database from their 36-character text to BINARY(16).
+-- Run once, with the application stopped, on a database created before identifiers were stored in binary form.
+-- Each column is first made binary so it can hold the raw bytes, rewritten with the big-endian layout written by
+-- UUIDBinaryConverter (the hex digits of the UUID), then narrowed to BINARY(16). Primary keys and indexes are kept.
+-- Sensor and actuator type IDs are not UUIDs and stay text.
+
+ALTER TABLE house MODIFY id VARBINARY(255) NOT NULL;
+UPDATE house SET id = UNHEX(REPLACE(id, '-', ''));
+ALTER TABLE house MODIFY id BINARY(16) NOT NULL;
+
+ALTER TABLE room MODIFY id VARBINARY(255) NOT NULL, MODIFY house_id VARBINARY(255);
+UPDATE room SET id = UNHEX(REPLACE(id, '-', '')), house_id = UNHEX(REPLACE(house_id, '-', ''));
+ALTER TABLE room MODIFY id BINARY(16) NOT NULL, MODIFY house_id BINARY(16);
+
+ALTER TABLE Device MODIFY id VARBINARY(255) NOT NULL, MODIFY room_id VARBINARY(255);
+UPDATE Device SET id = UNHEX(REPLACE(id, '-', '')), room_id = UNHEX(REPLACE(room_id, '-', ''));
+ALTER TABLE Device MODIFY id BINARY(16) NOT NULL, MODIFY room_id BINARY(16);
+
+ALTER TABLE sensor MODIFY id VARBINARY(255) NOT NULL, MODIFY device_id VARBINARY(255);
+UPDATE sensor SET id = UNHEX(REPLACE(id, '-', '')), device_id = UNHEX(REPLACE(device_id, '-', ''));
+ALTER TABLE sensor MODIFY id BINARY(16) NOT NULL, MODIFY device_id BINARY(16);
+
+ALTER TABLE actuator MODIFY id VARBINARY(255) NOT NULL, MODIFY device_id VARBINARY(255);
+UPDATE actuator SET id = UNHEX(REPLACE(id, '-', '')), device_id = UNHEX(REPLACE(device_id, '-', ''));
+ALTER TABLE actuator MODIFY id BINARY(16) NOT NULL, MODIFY device_id BINARY(16);
+
+ALTER TABLE LOG MODIFY id VARBINARY(255) NOT NULL, MODIFY sensor_id VARBINARY(255), MODIFY device_id VARBINARY(255);
+UPDATE LOG SET id = UNHEX(REPLACE(id, '-', '')), sensor_id = UNHEX(REPLACE(sensor_id, '-', '')),
+        device_id = UNHEX(REPLACE(device_id, '-', ''));
+ALTER TABLE LOG MODIFY id BINARY(16) NOT NULL, MODIFY sensor_id BINARY(16), MODIFY device_id BINARY(16);
+
+-- The rollup ID was the text "device|sensor type|resolution|bucket start"; it becomes the name-based UUID of that text
+-- (UUID.nameUUIDFromBytes: MD5 with the version 3 and IETF variant bits set).
+ALTER TABLE LOG_ROLLUP MODIFY id VARBINARY(255) NOT NULL, MODIFY device_id VARBINARY(255);
+UPDATE LOG_ROLLUP SET
+        id = UNHEX(CONCAT(SUBSTRING(MD5(id), 1, 12), '3', SUBSTRING(MD5(id), 14, 3),
+                LPAD(HEX((CONV(SUBSTRING(MD5(id), 17, 2), 16, 10) & 63) | 128), 2, '0'), SUBSTRING(MD5(id), 19))),
+        device_id = UNHEX(REPLACE(device_id, '-', ''));
+ALTER TABLE LOG_ROLLUP MODIFY id BINARY(16) NOT NULL, MODIFY device_id BINARY(16);
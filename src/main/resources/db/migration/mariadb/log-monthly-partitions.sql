@@ -0,0 +1,16 @@
+-- Partitions the LOG table by month on its time column, so the retention purge drops expired months whole instead of
+-- deleting their rows, and the partition_month column, which only repeated the month of the time, is dropped.
+-- Run once, with the application stopped. ddl-auto=create-drop recreates the table without partitions, so this only
+-- applies to databases whose schema is kept (ddl-auto=update or none).
+-- Every row starts in pmax; on its first check the application splits pmax into one partition per month, named
+-- pYYYYMM, from the month of the oldest log to a few months ahead (see LogPartitionMaintenance). That split moves the
+-- existing rows once; afterwards the months ahead are split off while still empty, which moves nothing.
+-- MariaDB requires the partitioning column in every unique key, so the primary key becomes (id, time). Log IDs stay
+-- unique: the application never stores a log whose ID is already saved.
+
+DROP INDEX IF EXISTS idx_log_partition_month ON LOG;
+ALTER TABLE LOG DROP COLUMN IF EXISTS partition_month;
+CREATE INDEX IF NOT EXISTS idx_log_time_id ON LOG (time, id);
+
+ALTER TABLE LOG DROP PRIMARY KEY, ADD PRIMARY KEY (id, time);
+ALTER TABLE LOG PARTITION BY RANGE COLUMNS(time) (PARTITION pmax VALUES LESS THAN (MAXVALUE));
@@ -0,0 +1,21 @@
+-- Fills in the numeric reading of the logs saved before the LOG table had the reading_num and reading_type columns.
+-- Run once, with the application stopped, on a database created before numeric readings were stored in their own
+-- column; ddl-auto=update adds the columns but leaves them null on the existing rows, which the numeric filters and
+-- aggregates would then skip. Safe to run again: only rows without a reading type are touched.
+-- A reading is numeric when its text is what the application writes for an integer or a decimal value
+-- (Integer.toString and Double.toString); anything else, such as wind or sun time values, stays text only.
+
+ALTER TABLE LOG ADD COLUMN IF NOT EXISTS reading_num DOUBLE,
+        ADD COLUMN IF NOT EXISTS reading_type ENUM('INTEGER', 'DECIMAL', 'TEXT');
+
+UPDATE LOG SET reading_type = 'INTEGER', reading_num = CAST(reading AS DOUBLE)
+        WHERE reading_type IS NULL AND reading REGEXP '^-?[0-9]+$';
+UPDATE LOG SET reading_type = 'DECIMAL', reading_num = CAST(reading AS DOUBLE)
+        WHERE reading_type IS NULL AND reading REGEXP '^-?[0-9]+[.][0-9]+(E-?[0-9]+)?$';
+UPDATE LOG SET reading_type = 'TEXT' WHERE reading_type IS NULL;
+
+-- The sensor type indexes now end with the numeric reading; the indexes they replace are dropped.
+DROP INDEX IF EXISTS idx_log_device_sensor_type_time ON LOG;
+DROP INDEX IF EXISTS idx_log_sensor_type_time ON LOG;
+CREATE INDEX IF NOT EXISTS idx_log_device_sensor_type_time_num ON LOG (device_id, sensor_type_id, time, reading_num);
+CREATE INDEX IF NOT EXISTS idx_log_sensor_type_time_num ON LOG (sensor_type_id, time, reading_num);
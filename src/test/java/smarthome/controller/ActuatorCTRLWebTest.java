@@ -12,6 +12,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import smarthome.domain.actuator.*;
 import smarthome.domain.device.Device;
 import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
@@ -25,6 +26,8 @@ import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.ActuatorTypeRepository;
 import smarthome.persistence.DeviceRepository;
 import smarthome.service.ActuatorService;
+import smarthome.service.command.ActuatorCommandQueue;
+import smarthome.service.command.CommandReceipt;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -1488,6 +1491,7 @@ class ActuatorCTRLWebTest {
 
         when(actuatorRepository.isPresent(actuatorIDVO)).thenReturn(true);
         when(actuatorRepository.findById(actuatorIDVO)).thenReturn(actuator);
+        when(actuatorRepository.save(actuator)).thenReturn(true);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/actuators/" + actuatorId + "/closerollerblind")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -1815,4 +1819,110 @@ class ActuatorCTRLWebTest {
                 .andExpect(jsonPath("$._links.ExecuteCommand.href").value(expectedRelLink.getHref()))
                 .andReturn();
     }
+
+    /**
+     * Test case to verify that when the command queue is enabled and executes the command, the response is OK with the
+     * actuator the queue returned.
+     *
+     * @throws Exception if an error occurs during the test execution
+     */
+    @Test
+    void givenCommandQueue_whenCommandIsExecuted_thenReturnOkWithUpdatedActuatorDTO() throws Exception {
+        // Arrange
+        String actuatorId = "f642fa85-4562-b3fc-5717-6afa62c963f6";
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.fromString(actuatorId));
+        SwitchActuator actuator = new SwitchActuator(actuatorIDVO, new ActuatorNameVO("Actuator1"),
+                new ActuatorTypeIDVO("SwitchActuator"), new DeviceIDVO(UUID.randomUUID()), new ActuatorStatusVO("1"));
+        CommandReceipt receipt = mock(CommandReceipt.class);
+        when(receipt.getActuator()).thenReturn(actuator);
+        ActuatorCommandQueue queue = mock(ActuatorCommandQueue.class);
+        when(queue.execute(actuatorIDVO, "1")).thenReturn(receipt);
+        MockMvc queueMockMvc = mockMvcWithCommandQueue(mock(ActuatorService.class), queue);
+
+        // Act & Assert
+        queueMockMvc.perform(MockMvcRequestBuilders.patch("/actuators/" + actuatorId + "/act?command=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.actuatorId").value(actuatorId))
+                .andExpect(jsonPath("$.status").value("1"));
+    }
+
+    /**
+     * Test case to verify that when the command queue is enabled and a newer command supersedes the command, the
+     * response is ACCEPTED with no body, and the actuator is not looked up to answer with its previous state.
+     *
+     * @throws Exception if an error occurs during the test execution
+     */
+    @Test
+    void givenCommandQueue_whenCommandIsSuperseded_thenReturnAcceptedWithoutBody() throws Exception {
+        // Arrange
+        String actuatorId = "f642fa85-4562-b3fc-5717-6afa62c963f6";
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.fromString(actuatorId));
+        CommandReceipt receipt = mock(CommandReceipt.class);
+        when(receipt.isSuperseded()).thenReturn(true);
+        ActuatorCommandQueue queue = mock(ActuatorCommandQueue.class);
+        when(queue.execute(actuatorIDVO, "40")).thenReturn(receipt);
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        MockMvc queueMockMvc = mockMvcWithCommandQueue(actuatorService, queue);
+
+        // Act & Assert
+        queueMockMvc.perform(MockMvcRequestBuilders.patch("/actuators/" + actuatorId + "/act?command=40")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(content().string(""));
+        verify(actuatorService, never()).getActuatorById(any());
+        verify(actuatorService, never()).executeCommand(any(), any());
+    }
+
+    /**
+     * Test case to verify that when the command queue refuses a command that is not valid for the actuator, the
+     * response is BAD_REQUEST.
+     *
+     * @throws Exception if an error occurs during the test execution
+     */
+    @Test
+    void givenCommandQueue_whenCommandIsInvalid_thenReturnBadRequest() throws Exception {
+        // Arrange
+        String actuatorId = "f642fa85-4562-b3fc-5717-6afa62c963f6";
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.fromString(actuatorId));
+        ActuatorCommandQueue queue = mock(ActuatorCommandQueue.class);
+        when(queue.execute(actuatorIDVO, "abc"))
+                .thenThrow(new IllegalArgumentException("Invalid value, could not execute command"));
+        MockMvc queueMockMvc = mockMvcWithCommandQueue(mock(ActuatorService.class), queue);
+
+        // Act & Assert
+        queueMockMvc.perform(MockMvcRequestBuilders.patch("/actuators/" + actuatorId + "/act?command=abc")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test case to verify that when the command queue is closed, because the application is shutting down, the
+     * response is SERVICE_UNAVAILABLE instead of an internal server error.
+     *
+     * @throws Exception if an error occurs during the test execution
+     */
+    @Test
+    void givenClosedCommandQueue_whenExecuteCommand_thenReturnServiceUnavailable() throws Exception {
+        // Arrange
+        String actuatorId = "f642fa85-4562-b3fc-5717-6afa62c963f6";
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.fromString(actuatorId));
+        ActuatorCommandQueue queue = mock(ActuatorCommandQueue.class);
+        when(queue.execute(actuatorIDVO, "1")).thenThrow(new IllegalStateException("Command queue is closed"));
+        MockMvc queueMockMvc = mockMvcWithCommandQueue(mock(ActuatorService.class), queue);
+
+        // Act & Assert
+        queueMockMvc.perform(MockMvcRequestBuilders.patch("/actuators/" + actuatorId + "/act?command=1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    /**
+     * @return a MockMvc for an ActuatorCTRLWeb of its own, whose commands go through the given command queue
+     */
+    private static MockMvc mockMvcWithCommandQueue(ActuatorService actuatorService, ActuatorCommandQueue queue) {
+        ActuatorCTRLWeb controller = new ActuatorCTRLWeb(actuatorService);
+        controller.setActuatorCommandQueue(queue);
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
 }
@@ -7,10 +7,8 @@ import smarthome.domain.room.Room;
 import smarthome.domain.vo.roomvo.*;
 import smarthome.mapper.dto.DeviceDTO;
 import smarthome.mapper.dto.RoomDTO;
-import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.DeviceRepository;
 import smarthome.persistence.RoomRepository;
-import smarthome.persistence.SensorRepository;
 import smarthome.service.DeviceService;
 import smarthome.service.DeviceServiceImpl;
 import smarthome.domain.vo.housevo.HouseIDVO;
@@ -56,9 +54,7 @@ class AddDeviceToRoomCTRLTest {
         // arranges Device Service
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         // arranges RoomDTO. String IDs must be obtained from the previously instantiated Room and HouseIDVO objects.
         String roomId = room.getId().getID();
@@ -114,9 +110,7 @@ class AddDeviceToRoomCTRLTest {
         // arranges Device Service
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         // arranges RoomDTO. String IDs must be obtained from the previously instantiated Room and HouseIDVO objects.
         String roomId = room.getId().getID();
@@ -174,9 +168,7 @@ class AddDeviceToRoomCTRLTest {
         // arranges Device Service
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         // arranges DeviceDTO
         String deviceName = "Top Load Washing Machine";
@@ -217,9 +209,7 @@ class AddDeviceToRoomCTRLTest {
         // arranges Device service
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         // arranges RoomDTO. String IDs must be obtained from the previously instantiated Room and HouseIDVO objects.
         String roomId = room.getId().getID();
@@ -258,9 +248,7 @@ class AddDeviceToRoomCTRLTest {
         // arranges Device service
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         // arranges RoomDTO. House ID must be obtained from the previously instantiated HouseIDVO object.
         String houseId = room.getHouseID().getID();
@@ -309,9 +297,7 @@ class AddDeviceToRoomCTRLTest {
         // arranges Device Service
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         // arranges RoomDTO. House ID must be obtained from the previously instantiated HouseIDVO object.
         String houseId = room.getHouseID().getID();
@@ -360,9 +346,7 @@ class AddDeviceToRoomCTRLTest {
         // arranges Device Service
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         // arranges RoomDTO. String IDs must be obtained from the previously instantiated Room and HouseIDVO objects.
         String roomId = room.getId().getID();
@@ -9,10 +9,8 @@ import smarthome.domain.vo.devicevo.DeviceModelVO;
 import smarthome.domain.vo.devicevo.DeviceNameVO;
 import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.mapper.dto.DeviceDTO;
-import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.DeviceRepository;
 import smarthome.persistence.RoomRepository;
-import smarthome.persistence.SensorRepository;
 import smarthome.service.DeviceService;
 import smarthome.service.DeviceServiceImpl;
 
@@ -46,7 +44,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * Test case to verify that when a null DeviceDTO is provided to deactivateDevice method,
      * it returns false.
-     * For this test case DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are being doubled.
+     * For this test case DeviceRepository and RoomRepository are being doubled.
      */
 
     @Test
@@ -57,10 +55,8 @@ class DeactivateDeviceCTRLTest {
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
 
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
 
@@ -74,7 +70,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * Test case to verify that when a null device ID is provided in the DeviceDTO to deactivateDevice method,
      * it returns false.
-     * For this test case DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are being doubled.
+     * For this test case DeviceRepository and RoomRepository are being doubled.
      */
     @Test
     void deactivateDevice_WhenNullDeviceDTOID_ShouldReturnFalse() {
@@ -91,9 +87,7 @@ class DeactivateDeviceCTRLTest {
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         // Creating DeactivateDeviceCTRL instance
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
@@ -108,7 +102,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * Test case to verify that when an invalid device ID is provided in the DeviceDTO to deactivateDevice method,
      * it returns false. By invalid (empty, empty with blank spaces and null)
-     * For this test case DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are being doubled.
+     * For this test case DeviceRepository and RoomRepository are being doubled.
      */
     @Test
     void deactivateDevice_WhenInvalidDeviceID_ShouldReturnFalse() {
@@ -129,9 +123,7 @@ class DeactivateDeviceCTRLTest {
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         // Creating DeactivateDeviceCTRL instance
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
@@ -151,7 +143,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * Test case to verify that when a non-convertible UUID string is provided in the DeviceDTO to deactivateDevice method,
      * it returns false.
-     * For this test case DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are being doubled.
+     * For this test case DeviceRepository and RoomRepository are being doubled.
      */
     @Test
     void deactivateDevice_WhenNonConvertibleUUIDtoString_ShouldReturnFalse() {
@@ -169,9 +161,7 @@ class DeactivateDeviceCTRLTest {
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         // Creating DeactivateDeviceCTRL instance
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
@@ -186,7 +176,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * This test case verifies that when a non-existing device is provided in the DeviceDTO to the `deactivateDevice` method,
      * it returns false.
-     * Doubles for DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are utilized in this test case.
+     * Doubles for DeviceRepository and RoomRepository are utilized in this test case.
      * The behavior of DeviceRepository is conditioned to return null when the `findByID()` method is invoked.
      * This behavior (returning null), although it's already the default behavior of Mockito if not explicitly set, is induced
      * here for clarity.
@@ -213,9 +203,7 @@ class DeactivateDeviceCTRLTest {
 
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         // Creating DeactivateDeviceCTRL instance
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
@@ -230,7 +218,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * Test case to verify that when a device is already deactivated and provided in the DeviceDTO to deactivateDevice method,
      * it returns false.
-     * Doubles for DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are utilized in this test case.
+     * Doubles for DeviceRepository and RoomRepository are utilized in this test case.
      * The behavior of DeviceRepository is conditioned to return the correct Device when the `findByID(DeviceIDVI)` method is invoked.
      */
 
@@ -262,9 +250,7 @@ class DeactivateDeviceCTRLTest {
 
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         // Creating DeactivateDeviceCTRL instance
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
@@ -291,7 +277,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * Test case to verify that when an activated device exists and is provided in the DeviceDTO to deactivateDevice method,
      * it returns False after successful deactivation.
-     * Doubles for DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are utilized in this test case.
+     * Doubles for DeviceRepository and RoomRepository are utilized in this test case.
      * The behavior of DeviceRepository is conditioned to return the correct Device when the `findByID(DeviceIDVI)` method is invoked.
      * The behavior of DeviceRepository is conditioned to return false when update(device) method is invoked.
      */
@@ -325,9 +311,7 @@ class DeactivateDeviceCTRLTest {
 
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         // Creating DeactivateDeviceCTRL instance
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
@@ -351,7 +335,7 @@ class DeactivateDeviceCTRLTest {
     /**
      * Test case to verify that when an activated device exists and is provided in the DeviceDTO to deactivateDevice method,
      * it returns False after successful deactivation.
-     * Doubles for DeviceRepository, RoomRepository, SensorRepository and ActuatorRepository are utilized in this test case.
+     * Doubles for DeviceRepository and RoomRepository are utilized in this test case.
      * The behavior of DeviceRepository is conditioned to return the correct Device when the `findByID(DeviceIDVI)` method is invoked.
      * The behavior of DeviceRepository is conditioned to return true when update(device) method is invoked.
      */
@@ -385,9 +369,7 @@ class DeactivateDeviceCTRLTest {
 
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactory, deviceRepositoryDouble);
 
         // Creating DeactivateDeviceCTRL instance
         DeactivateDeviceCTRL deactivateDeviceCTRL = new DeactivateDeviceCTRL(deviceService);
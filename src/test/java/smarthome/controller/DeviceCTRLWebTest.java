@@ -37,7 +37,9 @@ import smarthome.persistence.SensorRepository;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -762,39 +764,11 @@ class DeviceCTRLWebTest {
         DeviceIDVO secondDeviceID = secondDevice.getId();
         String secondDeviceIdString = secondDeviceID.getID();
 
-        //Conditioning device repository to return the correct device associated with a deviceID
-        when(deviceRepository.findById(deviceID)).thenReturn(device);
-        when(deviceRepository.findById(secondDeviceID)).thenReturn(secondDevice);
-
-        //Initializing a sensor
-        String sensorNameString = "Position Sensor Name";
-        SensorNameVO sensorNameVO = new SensorNameVO(sensorNameString);
-
-        String positionTypeString = "PositionSensor";
-        SensorTypeIDVO positionTypeIDVO = new SensorTypeIDVO(positionTypeString);
-
-        Sensor positionSensor = new PositionSensor(sensorNameVO, deviceID, positionTypeIDVO);
-
-        List<Sensor> sensorList = new ArrayList<>();
-        sensorList.add(positionSensor);
-
-        //Conditioning sensor repository double to return the previous created sensor
-        when(sensorRepository.findAll()).thenReturn(sensorList);
-
-        //Initializing an actuator
-        String actuatorNameString = "Roller Blind Actuator Name";
-        ActuatorNameVO actuatorNameVO = new ActuatorNameVO(actuatorNameString);
-
-        String actuatorTypeString = "RollerBlindActuator";
-        ActuatorTypeIDVO actuatorTypeIDVO = new ActuatorTypeIDVO(actuatorTypeString);
-
-        Actuator rollerBlindActuator = new RollerBlindActuator(actuatorNameVO, actuatorTypeIDVO, secondDeviceID);
-
-        List<Actuator> actuatorList = new ArrayList<>();
-        actuatorList.add(rollerBlindActuator);
-
-        //Conditioning sensor repository double to return the previous created sensor
-        when(actuatorRepository.findAll()).thenReturn(actuatorList);
+        //Conditioning device repository to group the first device under a position sensor and the second under a roller blind actuator
+        Map<String, List<Device>> devicesByFunctionality = new LinkedHashMap<>();
+        devicesByFunctionality.put("PositionSensor", List.of(device));
+        devicesByFunctionality.put("RollerBlindActuator", List.of(secondDevice));
+        when(deviceRepository.findGroupedByFunctionality()).thenReturn(devicesByFunctionality);
 
         String status = "true";
 
@@ -823,10 +797,8 @@ class DeviceCTRLWebTest {
      * Test method to verify the behavior when the repository returns null.
      * <p>
      * This method tests the behavior of the endpoint when the repository returns null
-     * while retrieving devices grouped by functionality. It initializes necessary value
-     * objects to create devices, sensors, and actuators. The devices are associated with
-     * sensors and actuators, simulating a scenario where devices have functionality components.
-     * However, the actuator repository is conditioned to return null when queried for all actuators.
+     * while retrieving devices grouped by functionality. The device repository is conditioned
+     * to return null when queried for the devices grouped by functionality.
      * <p>
      * The test then performs the GET request using MockMvc and verifies that the response
      * status is 500 (Internal Server Error) and the content is empty. This indicates that
@@ -840,52 +812,8 @@ class DeviceCTRLWebTest {
     void getDevicesByFunctionality_WhenRepositoryReturnsNull_ShouldReturnServiceUnavailableStatusCodeAndNullContent() throws Exception {
         //Arrange
 
-        //Initializing necessary value objects to create a device
-        String deviceNameString = "DeviceName";
-        DeviceNameVO deviceNameVO = new DeviceNameVO(deviceNameString);
-
-        String deviceModel = "DeviceModel";
-        DeviceModelVO modelVO = new DeviceModelVO(deviceModel);
-
-        RoomIDVO roomIDVO = new RoomIDVO(UUID.randomUUID());
-
-        //Creating a device
-        Device device = new Device(deviceNameVO, modelVO, roomIDVO);
-
-        //Extracting the generated device id
-        DeviceIDVO deviceID = device.getId();
-
-        //Initializing necessary value objects to create a second device
-        String secondDeviceNameString = "Second Device Name";
-        DeviceNameVO secondDeviceNameVO = new DeviceNameVO(secondDeviceNameString);
-
-        //Creating a device
-        Device secondDevice = new Device(secondDeviceNameVO, modelVO, roomIDVO);
-
-        //Extracting the generated device id
-        DeviceIDVO secondDeviceID = secondDevice.getId();
-
-        //Conditioning device repository to return the correct device associated with a deviceID
-        when(deviceRepository.findById(deviceID)).thenReturn(device);
-        when(deviceRepository.findById(secondDeviceID)).thenReturn(secondDevice);
-
-        //Initializing a sensor
-        String sensorNameString = "Position Sensor Name";
-        SensorNameVO sensorNameVO = new SensorNameVO(sensorNameString);
-
-        String positionTypeString = "PositionSensor";
-        SensorTypeIDVO positionTypeIDVO = new SensorTypeIDVO(positionTypeString);
-
-        Sensor positionSensor = new PositionSensor(sensorNameVO, deviceID, positionTypeIDVO);
-
-        List<Sensor> sensorList = new ArrayList<>();
-        sensorList.add(positionSensor);
-
-        //Conditioning sensor repository double to return the previous created sensor
-        when(sensorRepository.findAll()).thenReturn(sensorList);
-
-        //Conditioning actuator repository to return null when queried for all sensors
-        when(actuatorRepository.findAll()).thenReturn(null);
+        //Conditioning device repository to return null when queried for the devices grouped by functionality
+        when(deviceRepository.findGroupedByFunctionality()).thenReturn(null);
 
 
         //Act + Assert
@@ -898,7 +826,7 @@ class DeviceCTRLWebTest {
      * Test method to verify the behavior when there are no devices.
      * <p>
      * This method tests the behavior of the endpoint when there are no devices available
-     * in the system. It conditions the sensor and actuator repositories to return empty lists,
+     * in the system. It conditions the device repository to find no devices grouped by functionality,
      * simulating a scenario where no devices, sensors, or actuators are present.
      * <p>
      * The test then performs the GET request using MockMvc and verifies that the response
@@ -912,14 +840,8 @@ class DeviceCTRLWebTest {
     void getDevicesByFunctionality_WhenNoDevices_ShouldReturnOkStatusCodeAndEmptyMap() throws Exception {
         //Arrange
 
-        List<Sensor> sensorList = new ArrayList<>();
-        List<Actuator> actuatorList = new ArrayList<>();
-
-        //Conditioning sensor repository double to return the previous created sensor
-        when(sensorRepository.findAll()).thenReturn(sensorList);
-
-        //Conditioning actuator repository to return null when queried for all sensors
-        when(actuatorRepository.findAll()).thenReturn(actuatorList);
+        //Conditioning device repository to find no devices grouped by functionality
+        when(deviceRepository.findGroupedByFunctionality()).thenReturn(new LinkedHashMap<>());
 
         //Act + Assert
         mockMvc.perform(MockMvcRequestBuilders.get("/devices/byfunctionality").accept(MediaTypes.HAL_JSON_VALUE))
@@ -22,6 +22,9 @@ import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.DeviceRepository;
 import smarthome.persistence.RoomRepository;
 import smarthome.persistence.SensorRepository;
+import smarthome.persistence.mem.ActuatorRepositoryMem;
+import smarthome.persistence.mem.DeviceRepositoryMem;
+import smarthome.persistence.mem.SensorRepositoryMem;
 import smarthome.service.DeviceService;
 import smarthome.service.DeviceServiceImpl;
 
@@ -55,11 +58,9 @@ class GetListOfDevicesByFunctionalityCTRLTest {
      * getListOfDevicesByFunctionality method.
      * This test ensures that devices are properly grouped by their functionality types
      * and returned as lists of DeviceDTO objects.
-     * In this test case all repositories injected in query service are doubled. These doubles
-     * have their behavior conditioned:
-     * 1. When invoking findAll() in Sensor Repository, it must return the defined list of sensors;
-     * 2. When invoking findAll() in Actuator Repository, it must return the defined list of actuators;
-     * 3. When invoking findByID(DeviceIDVO) in device repository, it must return the defined device
+     * In this test case the device, sensor and actuator repositories are in-memory repositories holding
+     * the defined devices, sensors and actuators; the device repository groups the devices by the types
+     * of the sensors and actuators saved.
      */
     @Test
     void getListOfDevicesByFunctionalityTest_whenSuccessCase_DeliversAStrToDeviceDTOList() {
@@ -70,32 +71,30 @@ class GetListOfDevicesByFunctionalityCTRLTest {
         DeviceModelVO model1 = new DeviceModelVO("model1");
         RoomIDVO room1 = new RoomIDVO(UUID.randomUUID());
         Device device1 = new Device(name1,model1,room1);
-        DeviceIDVO deviceIDVO1 = device1.getId();
 
         DeviceNameVO name2 = new DeviceNameVO("name2");
         DeviceModelVO model2 = new DeviceModelVO("model2");
         RoomIDVO room2 = new RoomIDVO(UUID.randomUUID());
         Device device2 = new Device(name2,model2,room2);
-        DeviceIDVO deviceIDVO2 = device2.getId();
 
         DeviceNameVO name3 = new DeviceNameVO("name3");
         DeviceModelVO model3 = new DeviceModelVO("model3");
         RoomIDVO room3 = new RoomIDVO(UUID.randomUUID());
         Device device3 = new Device(name3,model3,room3);
-        DeviceIDVO deviceIDVO3 = device3.getId();
 
         DeviceNameVO name4 = new DeviceNameVO("name4");
         DeviceModelVO model4 = new DeviceModelVO("model4");
         RoomIDVO room4 = new RoomIDVO(UUID.randomUUID());
         Device device4 = new Device(name4,model4,room4);
-        DeviceIDVO deviceIDVO4 = device4.getId();
 
-        // Device doubling and behaviour conditioning
-        DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
-        when(deviceRepositoryDouble.findById(deviceIDVO1)).thenReturn(device1);
-        when(deviceRepositoryDouble.findById(deviceIDVO2)).thenReturn(device2);
-        when(deviceRepositoryDouble.findById(deviceIDVO3)).thenReturn(device3);
-        when(deviceRepositoryDouble.findById(deviceIDVO4)).thenReturn(device4);
+        // In-memory repositories, the device repository groups its devices by the sensors and actuators saved
+        SensorRepository sensorRepository = new SensorRepositoryMem();
+        ActuatorRepository actuatorRepository = new ActuatorRepositoryMem();
+        DeviceRepository deviceRepository = new DeviceRepositoryMem(sensorRepository, actuatorRepository);
+        deviceRepository.save(device1);
+        deviceRepository.save(device2);
+        deviceRepository.save(device3);
+        deviceRepository.save(device4);
 
         // Device1 sensors
         List<Sensor> sensorList = new ArrayList<>();
@@ -141,18 +140,14 @@ class GetListOfDevicesByFunctionalityCTRLTest {
         HumiditySensor sensor5 = new HumiditySensor(sensorName5,device4.getId(),senType5);
         sensorList.add(sensor5);
 
-        // Sensor Repository doubling and behavior conditioning
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        when(sensorRepositoryDouble.findAll()).thenReturn(sensorList);
-
-        // Sensor Repository doubling and behavior conditioning
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        when(actuatorRepositoryDouble.findAll()).thenReturn(actuatorList);
+        // Saving sensors and actuators in the order they were created
+        sensorList.forEach(sensorRepository::save);
+        actuatorList.forEach(actuatorRepository::save);
 
         // Service instantiation
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactoryDouble = mock(DeviceFactory.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepository);
 
         // CTRL instantiation and getListOfDevices call to create resultMap
         GetListOfDevicesByFunctionalityCTRL ctrl = new GetListOfDevicesByFunctionalityCTRL(deviceService);
@@ -239,8 +234,7 @@ class GetListOfDevicesByFunctionalityCTRLTest {
      * Tests whether the getListOfDevicesByFunctionality method returns an empty map
      * when no devices are present in the system.
      * In this test case, all repositories injected in query service are doubled.
-     * By default, both actuator and sensor repositories
-     * return an empty list, which is the desired output for this test case.
+     * The device repository double is conditioned to find no devices grouped by functionality.
      */
     @Test
     void whenNoDevicesArePresent_returnsEmptyList(){
@@ -248,9 +242,8 @@ class GetListOfDevicesByFunctionalityCTRLTest {
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactoryDouble = mock(DeviceFactory.class);
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        when(deviceRepositoryDouble.findGroupedByFunctionality()).thenReturn(new LinkedHashMap<>());
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble);
         GetListOfDevicesByFunctionalityCTRL controller = new GetListOfDevicesByFunctionalityCTRL(deviceService);
         Map<String, List<DeviceDTO>> expected = new LinkedHashMap<>();
         // Act
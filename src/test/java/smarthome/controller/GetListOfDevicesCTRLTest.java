@@ -7,10 +7,8 @@ import smarthome.domain.device.DeviceFactoryImpl;
 import smarthome.domain.vo.roomvo.*;
 import smarthome.mapper.dto.DeviceDTO;
 import smarthome.mapper.dto.RoomDTO;
-import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.DeviceRepository;
 import smarthome.persistence.RoomRepository;
-import smarthome.persistence.SensorRepository;
 import smarthome.service.DeviceService;
 import smarthome.service.DeviceServiceImpl;
 import smarthome.domain.vo.devicevo.DeviceModelVO;
@@ -65,9 +63,7 @@ class GetListOfDevicesCTRLTest {
         RoomRepository doubleRoomRepositoryMem = mock(RoomRepository.class);
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepositoryMem, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepositoryMem, deviceFactory, doubleDeviceRepository);
 
         //Act
         GetListOfDevicesCTRL getListOfDevicesCTRL = new GetListOfDevicesCTRL(deviceService);
@@ -92,9 +88,7 @@ class GetListOfDevicesCTRLTest {
         RoomRepository doubleRoomRepository = mock(RoomRepository.class);
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         GetListOfDevicesCTRL getListOfDevicesCTRL = new GetListOfDevicesCTRL(deviceService);
 
@@ -135,9 +129,7 @@ class GetListOfDevicesCTRLTest {
         when(doubleDeviceRepository.findByRoomID(roomIDVO)).thenReturn(Collections.emptyList());
 
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         GetListOfDevicesCTRL getListOfDevicesCTRL = new GetListOfDevicesCTRL(deviceService);
 
@@ -184,9 +176,7 @@ class GetListOfDevicesCTRLTest {
         when(doubleDeviceRepository.findByRoomID(any(RoomIDVO.class))).thenReturn(Collections.singletonList(device));
 
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         GetListOfDevicesCTRL getListOfDevicesCTRL = new GetListOfDevicesCTRL(deviceService);
 
@@ -253,9 +243,7 @@ class GetListOfDevicesCTRLTest {
         String expectedID1 = device1.getId().getID();
         String expectedID2 = device2.getId().getID();
 
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         GetListOfDevicesCTRL getListOfDevicesCTRL = new GetListOfDevicesCTRL(deviceService);
 
@@ -305,9 +293,7 @@ class GetListOfDevicesCTRLTest {
         RoomRepository doubleRoomRepository = mock(RoomRepository.class);
         DeviceRepository doubleDeviceRepository = mock(DeviceRepository.class);
         DeviceFactory deviceFactory = new DeviceFactoryImpl();
-        SensorRepository doubleSensorRepository = mock(SensorRepository.class);
-        ActuatorRepository doubleActuatorRepository = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository, doubleSensorRepository, doubleActuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(doubleRoomRepository, deviceFactory, doubleDeviceRepository);
 
         GetListOfDevicesCTRL getListOfDevicesCTRL = new GetListOfDevicesCTRL(deviceService);
 
@@ -1,11 +1,13 @@
 package smarthome.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -21,6 +23,7 @@ import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.devicevo.DeviceModelVO;
 import smarthome.domain.vo.devicevo.DeviceNameVO;
 import smarthome.domain.vo.housevo.HouseIDVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.LogIDVO;
 import smarthome.domain.vo.logvo.TimeStampVO;
 import smarthome.domain.vo.roomvo.*;
@@ -41,10 +44,19 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -328,6 +340,219 @@ class LogCTRLWebTest {
     }
 
 
+    /**
+     * Test case to verify that a GET request to the "/logs" endpoint accepting newline-delimited JSON streams the
+     * readings of the device, one log per line, in the order they are read from the repository.
+     *
+     * @throws Exception if an exception occurs during the mock MVC request operation.
+     */
+    @Test
+    void exportReadings_WhenAcceptingNdjson_ShouldWriteOneLogPerLine() throws Exception {
+        //Arrange
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorType = new SensorTypeIDVO("TemperatureSensor");
+
+        Log log1 = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:30")),
+                new TemperatureValue("23"), sensorID, deviceID, sensorType);
+        Log log2 = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:10:00")),
+                new TemperatureValue("25"), sensorID, deviceID, sensorType);
+
+        doAnswer(invocation -> {
+            Consumer<Log> action = invocation.getArgument(3);
+            action.accept(log1);
+            action.accept(log2);
+            return null;
+        }).when(logRepository).streamReadingsByDeviceID(eq(deviceID), isNull(), isNull(), any());
+
+        String expected = "{\"logID\":\"" + log1.getId().getID() + "\",\"time\":\"2024-04-04T12:00:30\",\"reading\":\"23.0\"," +
+                "\"sensorID\":\"" + sensorID.getID() + "\",\"deviceID\":\"" + deviceID.getID() + "\",\"sensorTypeID\":\"TemperatureSensor\"}\n" +
+                "{\"logID\":\"" + log2.getId().getID() + "\",\"time\":\"2024-04-04T12:10:00\",\"reading\":\"25.0\"," +
+                "\"sensorID\":\"" + sensorID.getID() + "\",\"deviceID\":\"" + deviceID.getID() + "\",\"sensorTypeID\":\"TemperatureSensor\"}\n";
+
+        //Act & Assert
+        mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .accept("application/x-ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(expected));
+    }
+
+    /**
+     * Test case to verify that a GET request to the "/logs" endpoint accepting newline-delimited JSON does not end the
+     * export as a complete response when the repository fails after some readings were read, but rethrows the
+     * failure so the request errors out.
+     */
+    @Test
+    void exportReadings_WhenRepositoryFailsWhileStreaming_ShouldRethrowTheFailure() {
+        //Arrange
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorType = new SensorTypeIDVO("TemperatureSensor");
+
+        Log log1 = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:30")),
+                new TemperatureValue("23"), sensorID, deviceID, sensorType);
+
+        doAnswer(invocation -> {
+            Consumer<Log> action = invocation.getArgument(3);
+            action.accept(log1);
+            throw new DataAccessResourceFailureException("Connection lost");
+        }).when(logRepository).streamReadingsByDeviceID(eq(deviceID), isNull(), isNull(), any());
+
+        //Act
+        ServletException exception = assertThrows(ServletException.class, () ->
+                mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .accept("application/x-ndjson")));
+
+        //Assert
+        assertInstanceOf(DataAccessResourceFailureException.class, exception.getCause());
+    }
+
+    /**
+     * Test case to verify that a GET request to the "/logs" endpoint accepting newline-delimited JSON with an
+     * incomplete time frame returns a Bad Request status without writing any readings.
+     *
+     * @throws Exception if an exception occurs during the mock MVC request operation.
+     */
+    @Test
+    void exportReadings_WhenOnlyInitialTimeFrame_ShouldReturnBadRequest() throws Exception {
+        //Arrange
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+
+        TimeConfigDTO incompleteTimeConfig = TimeConfigDTO.builder()
+                .initialTime("12:00:30")
+                .initialDate("2024-04-04")
+                .build();
+
+        String jsonTimeConfig = objectMapper.writeValueAsString(incompleteTimeConfig);
+
+        //Act & Assert
+        mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .accept("application/x-ndjson")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonTimeConfig))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * Test case to verify that a GET request to the "/logs" endpoint with a page size returns the first page of the
+     * device readings and, since the page is full, a next link holding the cursor of its last log.
+     *
+     * @throws Exception if an exception occurs during the mock MVC request operation.
+     */
+    @Test
+    void findReadingsPage_WhenPageIsFull_ShouldReturnReadingsAndNextLink() throws Exception {
+        //Arrange
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorType = new SensorTypeIDVO("TemperatureSensor");
+
+        LogIDVO logID2 = new LogIDVO(UUID.randomUUID());
+        TimeStampVO time2 = new TimeStampVO(LocalDateTime.parse("2024-04-04T12:10:00"));
+        Log log1 = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:30")),
+                new TemperatureValue("23"), sensorID, deviceID, sensorType);
+        Log log2 = new Log(logID2, time2, new TemperatureValue("25"), sensorID, deviceID, sensorType);
+
+        when(logRepository.findReadingsPageByDeviceID(deviceID, null, null, null, 2)).thenReturn(List.of(log1, log2));
+
+        String nextCursor = new LogCursorVO(time2, logID2).getValue();
+
+        //Act & Assert
+        mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .param("pageSize", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.logDTOList[0].logID").value(log1.getId().getID()))
+                .andExpect(jsonPath("$._embedded.logDTOList[1].logID").value(log2.getId().getID()))
+                .andExpect(jsonPath("$._links.next.href").value(containsString("cursor=" + nextCursor)));
+    }
+
+    /**
+     * Test case to verify that a GET request to the "/logs" endpoint with a cursor returns the page after it and,
+     * since the page is not full, no next link.
+     *
+     * @throws Exception if an exception occurs during the mock MVC request operation.
+     */
+    @Test
+    void findReadingsPage_WhenLastPage_ShouldReturnReadingsWithoutNextLink() throws Exception {
+        //Arrange
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorType = new SensorTypeIDVO("TemperatureSensor");
+
+        LogCursorVO cursor = new LogCursorVO(new TimeStampVO(LocalDateTime.parse("2024-04-04T12:10:00")), new LogIDVO(UUID.randomUUID()));
+        Log log3 = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:20:00")),
+                new TemperatureValue("24"), sensorID, deviceID, sensorType);
+
+        when(logRepository.findReadingsPageByDeviceID(deviceID, null, null, cursor, 2)).thenReturn(List.of(log3));
+
+        //Act & Assert
+        mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .param("pageSize", "2")
+                        .param("cursor", cursor.getValue()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.logDTOList[0].logID").value(log3.getId().getID()))
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+    }
+
+    /**
+     * Test case to verify that a GET request to the "/logs" endpoint with an invalid cursor or page size returns a
+     * Bad Request status.
+     *
+     * @throws Exception if an exception occurs during the mock MVC request operation.
+     */
+    @Test
+    void findReadingsPage_WhenInvalidCursorOrPageSize_ShouldReturnBadRequest() throws Exception {
+        //Arrange
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+
+        //Act & Assert
+        mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .param("pageSize", "2")
+                        .param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .param("pageSize", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test case to verify that a GET request to the "/logs" endpoint with latest=N returns the newest readings of
+     * the device, newest first.
+     *
+     * @throws Exception if an exception occurs during the mock MVC request operation.
+     */
+    @Test
+    void findLatestReadings_WhenExistentDeviceId_ShouldReturnNewestReadings() throws Exception {
+        //Arrange
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorType = new SensorTypeIDVO("TemperatureSensor");
+
+        Log newest = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:10:00")),
+                new TemperatureValue("25"), sensorID, deviceID, sensorType);
+        Log older = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:30")),
+                new TemperatureValue("23"), sensorID, deviceID, sensorType);
+
+        when(logRepository.findLatestReadingsByDeviceID(deviceID, 2)).thenReturn(List.of(newest, older));
+
+        //Act & Assert
+        mockMvc.perform(get("/logs")
+                        .param("deviceId", deviceID.getID())
+                        .param("latest", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.logDTOList[0].logID").value(newest.getId().getID()))
+                .andExpect(jsonPath("$._embedded.logDTOList[0].time").value("2024-04-04T12:10:00"))
+                .andExpect(jsonPath("$._embedded.logDTOList[1].logID").value(older.getId().getID()));
+    }
+
     /**
      * Tests the {@code findReadingsInAPeriod} method with an invalid device ID.
      * <p>
@@ -1292,6 +1517,52 @@ class LogCTRLWebTest {
 
     }
 
+    /**
+     * Tests the behavior of getPeakPowerConsumptionBreakdown endpoint in LogController
+     * when logs from both power grid and power source are found within the specified time range.
+     * <p>
+     * This test ensures that the endpoint returns the consumption of the grid power meter and of each power source
+     * device at the peak instant, keyed by device ID.
+     * </p>
+     * @throws Exception if an error occurs during the test execution
+     */
+    @Test
+    void whenLogsFromBothPowerGridAndSourceAreFoundAndWithinRange_getPeakPowerConsumptionBreakdownReturnsConsumptionPerDevice() throws Exception {
+        //Arrange
+        String timeConfigJson = "{\"initialDate\":\"2024-04-04\",\"initialTime\":\"11:30:30\",\"endDate\":\"2024-04-04\"," +
+                "\"endTime\":\"12:30:30\", \"deltaMin\":\"10\"}";
+
+        TimeStampVO initialSearch = new TimeStampVO("2024-04-04", "11:30:30");
+        TimeStampVO finalSearch = new TimeStampVO("2024-04-04", "12:30:30");
+
+        DeviceIDVO powerGridDeviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorTypeIDVO = new SensorTypeIDVO("ElectricEnergyConsumptionSensor");
+        Log powerGridLog = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:20:30")),
+                new EnergyConsumptionValue("23"), new SensorIDVO(UUID.randomUUID()), powerGridDeviceID, sensorTypeIDVO);
+
+        String deviceID = System.getProperty("Grid Power Meter device", powerGridDeviceID.getID());
+        String sensorTypeID = System.getProperty("Grid Power Meter sensor type", sensorTypeIDVO.getID());
+
+        when(logRepository.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID, sensorTypeID, initialSearch, finalSearch)).thenReturn(List.of(powerGridLog));
+
+        DeviceIDVO powerSourceDeviceID = new DeviceIDVO(UUID.randomUUID());
+        Log powerSourceLog1 = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:16:30")),
+                new EnergyConsumptionValue("-3"), new SensorIDVO(UUID.randomUUID()), powerSourceDeviceID, sensorTypeIDVO);
+        Log powerSourceLog2 = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:24:30")),
+                new EnergyConsumptionValue("-4"), new SensorIDVO(UUID.randomUUID()), powerSourceDeviceID, sensorTypeIDVO);
+
+        when(logRepository.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(deviceID, sensorTypeID, initialSearch, finalSearch)).thenReturn(List.of(powerSourceLog1, powerSourceLog2));
+
+        //Act & Assert
+        mockMvc.perform(get("/logs/peak-power-consumption/breakdown")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(timeConfigJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + deviceID + "']").value(23))
+                .andExpect(jsonPath("$['" + powerSourceDeviceID.getID() + "']").value(7))
+                .andReturn();
+    }
+
     /**
      * Tests that the getSunReading method returns HTTP status BAD_REQUEST when given invalid SensorTypeIDVO values.
      *
@@ -1470,4 +1741,71 @@ class LogCTRLWebTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("2024-05-10T16:17:03Z[UTC]"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the {@code addLogs} endpoint with a mix of valid, unsaved and invalid logs.
+     * <p>
+     * This test verifies that the valid logs are saved in a single repository call, and that the response reports
+     * one result per log, in request order, with a MULTI_STATUS status since not every log was saved.
+     * </p>
+     *
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void givenSomeInvalidOrUnsavedLogs_addLogsReturnsMultiStatusWithOneResultPerLog() throws Exception {
+        // Arrange
+        String deviceID = UUID.randomUUID().toString();
+        String sensorID = UUID.randomUUID().toString();
+        String logID = UUID.randomUUID().toString();
+        LogDTO saved = LogDTO.builder().logID(logID).time("2024-04-04T12:00:30").reading("21.5")
+                .sensorID(sensorID).deviceID(deviceID).sensorTypeID("TemperatureSensor").build();
+        LogDTO notSaved = LogDTO.builder().time("2024-04-04T12:10:00").reading("22")
+                .sensorID(sensorID).deviceID(deviceID).sensorTypeID("TemperatureSensor").build();
+        LogDTO invalid = LogDTO.builder().time("2024-04-04T12:20:00")
+                .sensorID(sensorID).deviceID(deviceID).sensorTypeID("TemperatureSensor").build();
+
+        when(logRepository.saveAll(anyList())).thenReturn(List.of(true, false));
+
+        // Act & Assert
+        mockMvc.perform(post("/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(saved, notSaved, invalid))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].logID").value(logID))
+                .andExpect(jsonPath("$[0].saved").value(true))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].saved").value(false))
+                .andExpect(jsonPath("$[1].error").value("Log not saved"))
+                .andExpect(jsonPath("$[2].saved").value(false))
+                .andExpect(jsonPath("$[2].error").value("Invalid log"));
+    }
+
+    /**
+     * Tests the {@code addLogs} endpoint when every log is saved, which returns CREATED, and with an empty request,
+     * which returns BAD_REQUEST.
+     *
+     * @throws Exception if an error occurs during the test
+     */
+    @Test
+    void givenAllLogsSaved_addLogsReturnsCreated_AndGivenEmptyRequest_ReturnsBadRequest() throws Exception {
+        // Arrange
+        LogDTO logDTO = LogDTO.builder().time("2024-04-04T12:00:30").reading("21.5")
+                .sensorID(UUID.randomUUID().toString()).deviceID(UUID.randomUUID().toString())
+                .sensorTypeID("TemperatureSensor").build();
+
+        when(logRepository.saveAll(anyList())).thenReturn(List.of(true));
+
+        // Act & Assert
+        mockMvc.perform(post("/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(logDTO))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].saved").value(true));
+
+        mockMvc.perform(post("/logs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,150 @@
+package smarthome.domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import smarthome.persistence.jpa.datamodel.UUIDBinaryConverter;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the insert throughput of a log-shaped table, with the binary primary key and the secondary indexes of the
+ * LOG table, for random and time-ordered log IDs. Only runs when asked to, with -Dbenchmark=true, and prints the
+ * throughput of each tenth of the run, so the slowdown of random keys as the primary key index outgrows the cache
+ * shows up.
+ * <p>
+ * Defaults to a file-based H2 database in the temporary directory and 1,000,000 rows per generator. Other databases
+ * and sizes are set with -Dbenchmark.url, -Dbenchmark.user, -Dbenchmark.password and -Dbenchmark.rows, e.g.
+ * {@code -Dbenchmark.url=jdbc:mariadb://localhost:3306/smarthome -Dbenchmark.rows=50000000}.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LogIDInsertBenchmarkTest {
+
+    private static final String TABLE = "LOG_ID_BENCHMARK";
+    private static final int BATCH_SIZE = 500;
+    private static final int INTERVALS = 10;
+    private static final int DEVICES = 1_000;
+    private static final String[] SENSOR_TYPES = {"TemperatureSensor", "HumiditySensor", "SwitchSensor",
+            "PowerConsumptionSensor", "WindSensor"};
+
+    private static final String URL = System.getProperty("benchmark.url",
+            "jdbc:h2:" + Path.of(System.getProperty("java.io.tmpdir"), "log-id-benchmark").toAbsolutePath());
+    private static final String USER = System.getProperty("benchmark.user", "sa");
+    private static final String PASSWORD = System.getProperty("benchmark.password", "");
+    private static final long ROWS = Long.getLong("benchmark.rows", 1_000_000L);
+
+    /**
+     * Measures inserts of logs identified by random (version 4) UUIDs.
+     */
+    @Test
+    void randomIDInserts() throws SQLException {
+        // Act
+        long inserted = insertLogs("Random IDs", new RandomIDGenerator());
+
+        // Assert
+        assertEquals(ROWS, inserted);
+    }
+
+    /**
+     * Measures inserts of logs identified by time-ordered (version 7) UUIDs.
+     */
+    @Test
+    void timeOrderedIDInserts() throws SQLException {
+        // Act
+        long inserted = insertLogs("Time-ordered IDs", new TimeOrderedIDGenerator());
+
+        // Assert
+        assertEquals(ROWS, inserted);
+    }
+
+    /**
+     * Recreates the benchmark table, inserts ROWS logs identified by the given generator in batches, one transaction
+     * per batch as LogRepository.saveAll() does, and drops the table.
+     *
+     * @return The number of rows in the table after the inserts.
+     */
+    private static long insertLogs(String name, IDGenerator idGenerator) throws SQLException {
+        UUID[] devices = new UUID[DEVICES];
+        UUID[] sensors = new UUID[DEVICES];
+        for (int i = 0; i < DEVICES; i++) {
+            devices[i] = UUID.randomUUID();
+            sensors[i] = UUID.randomUUID();
+        }
+
+        try (Connection connection = DriverManager.getConnection(URL, USER, PASSWORD)) {
+            createTable(connection);
+            connection.setAutoCommit(false);
+            String insert = "INSERT INTO " + TABLE + " (id, time, reading, reading_num, reading_type, sensor_id, "
+                    + "device_id, sensor_type_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+            long interval = Math.max(1, ROWS / INTERVALS);
+            long start = System.nanoTime();
+            long intervalStart = start;
+            try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                for (long row = 0; row < ROWS; row++) {
+                    int device = ThreadLocalRandom.current().nextInt(DEVICES);
+                    double reading = ThreadLocalRandom.current().nextInt(-200, 400) / 10.0;
+                    long millis = System.currentTimeMillis();
+                    statement.setBytes(1, UUIDBinaryConverter.toBytes(idGenerator.nextID()));
+                    statement.setTimestamp(2, new Timestamp(millis));
+                    statement.setString(3, Double.toString(reading));
+                    statement.setDouble(4, reading);
+                    statement.setString(5, "DECIMAL");
+                    statement.setBytes(6, UUIDBinaryConverter.toBytes(sensors[device]));
+                    statement.setBytes(7, UUIDBinaryConverter.toBytes(devices[device]));
+                    statement.setString(8, SENSOR_TYPES[device % SENSOR_TYPES.length]);
+                    statement.addBatch();
+                    if ((row + 1) % BATCH_SIZE == 0 || row + 1 == ROWS) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                    if ((row + 1) % interval == 0) {
+                        long now = System.nanoTime();
+                        System.out.printf("%s: %,d rows, %,.0f rows/s%n", name, row + 1,
+                                interval * 1e9 / (now - intervalStart));
+                        intervalStart = now;
+                    }
+                }
+            }
+            System.out.printf("%s: %,d rows in %.1f s, %,.0f rows/s overall%n", name, ROWS,
+                    (System.nanoTime() - start) / 1e9, ROWS * 1e9 / (System.nanoTime() - start));
+
+            long count;
+            try (Statement statement = connection.createStatement()) {
+                ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE);
+                resultSet.next();
+                count = resultSet.getLong(1);
+                statement.execute("DROP TABLE " + TABLE);
+            }
+            connection.commit();
+            return count;
+        }
+    }
+
+    /**
+     * Creates the benchmark table with the columns and indexes of the LOG table, dropping any previous one.
+     */
+    private static void createTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id BINARY(16) NOT NULL PRIMARY KEY, time TIMESTAMP(6), "
+                    + "reading VARCHAR(255), reading_num DOUBLE, reading_type VARCHAR(255), sensor_id BINARY(16), "
+                    + "device_id BINARY(16), sensor_type_id VARCHAR(255))");
+            statement.execute("CREATE INDEX idx_bench_device_sensor_type_time ON " + TABLE
+                    + " (device_id, sensor_type_id, time)");
+            statement.execute("CREATE INDEX idx_bench_device_time_id ON " + TABLE + " (device_id, time, id)");
+            statement.execute("CREATE INDEX idx_bench_sensor_type_time ON " + TABLE + " (sensor_type_id, time)");
+            statement.execute("CREATE INDEX idx_bench_time_id ON " + TABLE + " (time, id)");
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package smarthome.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIDGeneratorTest {
+
+    /**
+     * Compares UUIDs as unsigned 128-bit numbers, the order of their bytes and of their textual form.
+     */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int most = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return most != 0 ? most : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    /**
+     * Tests that the generated UUIDs are version 7 IETF UUIDs holding the time of the clock.
+     */
+    @Test
+    void whenGeneratingID_thenReturnsVersion7UUIDWithClockTime() {
+        // Arrange
+        long millis = 1_717_171_717_171L;
+        TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator(() -> millis);
+
+        // Act
+        UUID id = generator.nextID();
+
+        // Assert
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(millis, id.getMostSignificantBits() >>> 16);
+    }
+
+    /**
+     * Tests that UUIDs generated within the same millisecond are increasing.
+     */
+    @Test
+    void givenSameMillisecond_whenGeneratingIDs_thenIDsAreIncreasing() {
+        // Arrange
+        TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator(() -> 1_000L);
+        UUID previous = generator.nextID();
+
+        for (int i = 0; i < 10_000; i++) {
+            // Act
+            UUID next = generator.nextID();
+
+            // Assert
+            assertTrue(compareUnsigned(previous, next) < 0);
+            previous = next;
+        }
+    }
+
+    /**
+     * Tests that UUIDs keep increasing when the clock goes backwards.
+     */
+    @Test
+    void givenClockGoingBackwards_whenGeneratingIDs_thenIDsAreIncreasing() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(5_000L);
+        TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator(clock::get);
+        UUID before = generator.nextID();
+        clock.set(4_000L);
+
+        // Act
+        UUID after = generator.nextID();
+
+        // Assert
+        assertTrue(compareUnsigned(before, after) < 0);
+    }
+
+    /**
+     * Tests that UUIDs generated in a later millisecond sort after those of an earlier one.
+     */
+    @Test
+    void givenLaterMillisecond_whenGeneratingID_thenIDSortsAfterEarlierIDs() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(5_000L);
+        TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator(clock::get);
+        UUID earlier = generator.nextID();
+        clock.set(5_001L);
+
+        // Act
+        UUID later = generator.nextID();
+
+        // Assert
+        assertTrue(compareUnsigned(earlier, later) < 0);
+        assertEquals(5_001L, later.getMostSignificantBits() >>> 16);
+    }
+
+    /**
+     * Tests that UUIDs generated concurrently are all different, and increasing within each thread.
+     */
+    @Test
+    void givenConcurrentThreads_whenGeneratingIDs_thenIDsAreUniqueAndIncreasingPerThread() throws Exception {
+        // Arrange
+        TimeOrderedIDGenerator generator = new TimeOrderedIDGenerator();
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<List<UUID>>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                List<UUID> ids = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextID());
+                }
+                return ids;
+            }));
+        }
+        Set<UUID> all = new HashSet<>();
+        boolean increasing = true;
+        for (Future<List<UUID>> future : futures) {
+            List<UUID> ids = future.get();
+            for (int i = 1; i < ids.size(); i++) {
+                increasing &= compareUnsigned(ids.get(i - 1), ids.get(i)) < 0;
+            }
+            all.addAll(ids);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(threads * perThread, all.size());
+        assertTrue(increasing);
+    }
+
+    /**
+     * Tests that creating a generator with a null clock throws an IllegalArgumentException.
+     */
+    @Test
+    void givenNullClock_whenCreatingGenerator_thenThrowsIllegalArgumentException() {
+        // Act
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIDGenerator(null));
+
+        // Assert
+        assertEquals("Invalid clock", exception.getMessage());
+    }
+}
@@ -6,6 +6,11 @@ import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -377,4 +382,38 @@ class ActuatorFactoryImplTest {
         //Assert
         assertNull(result);
     }
+
+    /**
+     * Verifies that an actuator type removed from the configuration file is no longer created once the factory is
+     * refreshed, while the types still in the file are.
+     * @throws ConfigurationException If a file path used is invalid (it is encapsulated in the ActuatorFactory Class)
+     * @throws IOException If the temporary configuration file cannot be written
+     */
+    @Test
+    void givenTypeRemovedFromFile_WhenRefresh_ThenCreateActuatorShouldReturnNull(@TempDir Path directory)
+            throws ConfigurationException, IOException {
+        //Arrange
+        Path file = directory.resolve("config.properties");
+        Files.writeString(file, "SwitchActuator = smarthome.domain.actuator.SwitchActuator\n"
+                + "RollerBlindActuator = smarthome.domain.actuator.RollerBlindActuator\n");
+        ActuatorFactoryImpl factory = new ActuatorFactoryImpl(file.toString());
+        ActuatorNameVO actuatorName = mock(ActuatorNameVO.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        ActuatorTypeIDVO switchType = mock(ActuatorTypeIDVO.class);
+        when(switchType.getID()).thenReturn("SwitchActuator");
+        ActuatorTypeIDVO rollerBlindType = mock(ActuatorTypeIDVO.class);
+        when(rollerBlindType.getID()).thenReturn("RollerBlindActuator");
+        Actuator beforeRefresh = factory.createActuator(actuatorName, rollerBlindType, deviceID, null);
+        Files.writeString(file, "SwitchActuator = smarthome.domain.actuator.SwitchActuator\n");
+
+        //Act
+        factory.refresh();
+        Actuator afterRefresh = factory.createActuator(actuatorName, rollerBlindType, deviceID, null);
+        Actuator switchActuator = factory.createActuator(actuatorName, switchType, deviceID, null);
+
+        //Assert
+        assertInstanceOf(RollerBlindActuator.class, beforeRefresh);
+        assertNull(afterRefresh);
+        assertInstanceOf(SwitchActuator.class, switchActuator);
+    }
 }
@@ -507,4 +507,25 @@ class DecimalValueActuatorTest {
             assertEquals(idListExpectedSize, idList.size());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Verifies that isCommandValid accepts numbers within the actuator limits and rejects values out of the limits or
+     * that are not numbers, without executing the command.
+     */
+    @Test
+    void whenIsCommandValid_ThenOnlyNumbersWithinLimitsAreValid(){
+        //Arrange
+        ActuatorNameVO actuatorName = mock(ActuatorNameVO.class);
+        ActuatorTypeIDVO typeId = mock(ActuatorTypeIDVO.class);
+        DeviceIDVO deviceId = mock(DeviceIDVO.class);
+        DecimalSettingsVO configurations = mock(DecimalSettingsVO.class);
+        when(configurations.getValue()).thenReturn(new Double[]{6.0,9.0,0.01});
+        DecimalValueActuator actuator = new DecimalValueActuator(actuatorName, typeId, deviceId, configurations);
+
+        //Act & Assert
+        assertTrue(actuator.isCommandValid("6.5"));
+        assertFalse(actuator.isCommandValid("10.6"));
+        assertFalse(actuator.isCommandValid("warm"));
+        assertFalse(actuator.isCommandValid(null));
+    }
+}
@@ -546,4 +546,24 @@ class IntegerValueActuatorTest {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Verifies that isCommandValid accepts integers within the actuator limits and rejects values out of the limits or
+     * that are not integers, without executing the command.
+     */
+    @Test
+    void whenIsCommandValid_ThenOnlyIntegersWithinLimitsAreValid(){
+        //Arrange
+        ActuatorNameVO actuatorName = mock(ActuatorNameVO.class);
+        ActuatorTypeIDVO typeId = mock(ActuatorTypeIDVO.class);
+        DeviceIDVO deviceId = mock(DeviceIDVO.class);
+        IntegerSettingsVO settings = mock(IntegerSettingsVO.class);
+        when(settings.getValue()).thenReturn(new Integer[]{5,10});
+        IntegerValueActuator actuator = new IntegerValueActuator(actuatorName, typeId, deviceId, settings);
+
+        //Act & Assert
+        assertTrue(actuator.isCommandValid("5"));
+        assertTrue(actuator.isCommandValid("10"));
+        assertFalse(actuator.isCommandValid("11"));
+        assertFalse(actuator.isCommandValid("7.5"));
+    }
+}
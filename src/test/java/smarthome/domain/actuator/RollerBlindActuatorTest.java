@@ -352,4 +352,23 @@ class RollerBlindActuatorTest {
         assertEquals(expected,result);
     }
 
-}
\ No newline at end of file
+    /**
+     * Test to verify that isCommandValid accepts positions between 0 and 100 and rejects any other value, without
+     * executing the command.
+     */
+    @Test
+    void whenIsCommandValid_ThenOnlyPositionsBetweenZeroAndOneHundredAreValid(){
+        //Arrange
+        ActuatorNameVO actuatorName = mock(ActuatorNameVO.class);
+        ActuatorTypeIDVO actuatorTypeID = mock(ActuatorTypeIDVO.class);
+        DeviceIDVO deviceIDVO = mock(DeviceIDVO.class);
+        RollerBlindActuator actuator = new RollerBlindActuator(actuatorName, actuatorTypeID, deviceIDVO);
+
+        //Act & Assert
+        assertTrue(actuator.isCommandValid("0"));
+        assertTrue(actuator.isCommandValid("100"));
+        assertFalse(actuator.isCommandValid("101"));
+        assertFalse(actuator.isCommandValid("-1"));
+        assertFalse(actuator.isCommandValid("half"));
+    }
+}
@@ -335,4 +335,23 @@ class SwitchActuatorTest {
         // Assert
         assertEquals(expected,result);
     }
+
+    /**
+     * Test to verify that isCommandValid accepts 0 and 1 and rejects any other value, without executing the command.
+     */
+    @Test
+    void whenIsCommandValid_ThenOnlyZeroAndOneAreValid(){
+        // Arrange
+        ActuatorNameVO name = mock(ActuatorNameVO.class);
+        ActuatorTypeIDVO type = mock(ActuatorTypeIDVO.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        SwitchActuator actuator = new SwitchActuator(name,type,deviceID);
+
+        // Act & Assert
+        assertTrue(actuator.isCommandValid("0"));
+        assertTrue(actuator.isCommandValid("1"));
+        assertFalse(actuator.isCommandValid("2"));
+        assertFalse(actuator.isCommandValid("on"));
+        assertEquals("Default: 1", actuator.getActuatorStatus().getValue());
+    }
 }
@@ -1,6 +1,7 @@
 package smarthome.domain.log;
 
 import org.junit.jupiter.api.Test;
+import smarthome.domain.IDGenerator;
 import smarthome.domain.sensor.sensorvalues.SensorValueObject;
 import smarthome.domain.sensor.sensorvalues.TemperatureValue;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
@@ -118,4 +119,37 @@ class LogFactoryTest {
         assertEquals(sensorTypeID, log.getSensorTypeID());
 
     }
-}
\ No newline at end of file
+
+    /**
+     * This test case verifies if the LogFactoryImpl class creates logs with the IDs returned by its ID generator.
+     */
+    @Test
+    void whenCreateLogWithIDGenerator_ShouldCreateLogWithGeneratedID() {
+        //Arrange
+        UUID generatedID = UUID.randomUUID();
+        IDGenerator idGenerator = () -> generatedID;
+        TemperatureValue reading = new TemperatureValue("20.0");
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorTypeID = new SensorTypeIDVO("123");
+
+        //Act
+        LogFactoryImpl logFactory = new LogFactoryImpl(idGenerator);
+        Log log = logFactory.createLog(reading, sensorID, deviceID, sensorTypeID);
+
+        //Assert
+        assertEquals(new LogIDVO(generatedID), log.getId());
+    }
+
+    /**
+     * This test case verifies if creating a LogFactoryImpl with a null ID generator throws an IllegalArgumentException.
+     */
+    @Test
+    void whenCreateLogFactoryWithNullIDGenerator_ShouldThrowIllegalArgumentException() {
+        //Act
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new LogFactoryImpl(null));
+
+        //Assert
+        assertEquals("Invalid parameters.", exception.getMessage());
+    }
+}
@@ -61,6 +61,45 @@ class LogTest {
         assertEquals(expected,result6);
     }
 
+    /**
+     * Tests that creating a Log with a null ID generator throws an IllegalArgumentException.
+     */
+    @Test
+    void whenGivenANullIDGenerator_throwsIllegalArgumentException() {
+        // Arrange
+        SensorValueObject<?> reading = new HumidityValue("70");
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorTypeID = new SensorTypeIDVO("Humidity");
+        String expected = "Invalid parameters.";
+
+        // Act
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> new Log(null, reading, sensorID, deviceID, sensorTypeID));
+
+        // Assert
+        assertEquals(expected, exception.getMessage());
+    }
+
+    /**
+     * Tests that a Log created with an ID generator is identified by the generated ID.
+     */
+    @Test
+    void whenGivenAnIDGenerator_returnsGeneratedID() {
+        // Arrange
+        UUID generatedID = UUID.randomUUID();
+        SensorValueObject<?> reading = new HumidityValue("70");
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorTypeID = new SensorTypeIDVO("Humidity");
+
+        // Act
+        Log log = new Log(() -> generatedID, reading, sensorID, deviceID, sensorTypeID);
+
+        // Assert
+        assertEquals(new LogIDVO(generatedID), log.getId());
+    }
+
     /**
      * Tests that creating a Log with any null parameters throws an IllegalArgumentException,
      * ensuring the integrity of the Log entity within the aggregate.
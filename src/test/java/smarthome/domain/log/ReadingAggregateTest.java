@@ -0,0 +1,91 @@
+package smarthome.domain.log;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.vo.logvo.TimeStampVO;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadingAggregateTest {
+
+    private TimeStampVO time(String time) {
+        return new TimeStampVO(LocalDateTime.parse(time));
+    }
+
+    /**
+     * This test ensures the constructor rejects null periods, periods that end before they start and negative counts.
+     */
+    @Test
+    void givenInvalidParameters_ConstructorThrowsIllegalArgumentException() {
+        // Arrange
+        TimeStampVO start = time("2024-01-01T10:00:00");
+        TimeStampVO end = time("2024-01-01T11:00:00");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ReadingAggregate(null, end, 1, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ReadingAggregate(start, null, 1, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ReadingAggregate(end, start, 1, 1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ReadingAggregate(start, end, -1, 1, 1, 1));
+    }
+
+    /**
+     * This test ensures an aggregate without readings has a count of zero and NaN minimum, maximum and average.
+     */
+    @Test
+    void givenEmptyAggregate_StatisticsAreNaN() {
+        // Act
+        ReadingAggregate aggregate = ReadingAggregate.empty(time("2024-01-01T10:00:00"), time("2024-01-01T11:00:00"));
+
+        // Assert
+        assertEquals(0, aggregate.getCount());
+        assertEquals(0, aggregate.getSum());
+        assertTrue(Double.isNaN(aggregate.getMin()));
+        assertTrue(Double.isNaN(aggregate.getMax()));
+        assertTrue(Double.isNaN(aggregate.getAverage()));
+    }
+
+    /**
+     * This test ensures merging two aggregates adds their counts and sums, keeps the extreme readings and spans both
+     * periods.
+     */
+    @Test
+    void givenTwoAggregates_MergeCombinesReadingsAndPeriods() {
+        // Arrange
+        ReadingAggregate first = new ReadingAggregate(time("2024-01-01T10:00:00"), time("2024-01-01T11:00:00"), 2, 10, 4, 6);
+        ReadingAggregate second = new ReadingAggregate(time("2024-01-01T11:00:00"), time("2024-01-01T12:00:00"), 3, 3, -1, 2);
+
+        // Act
+        ReadingAggregate merged = first.merge(second);
+
+        // Assert
+        assertEquals(5, merged.getCount());
+        assertEquals(13, merged.getSum());
+        assertEquals(-1, merged.getMin());
+        assertEquals(6, merged.getMax());
+        assertEquals(2.6, merged.getAverage(), 1e-9);
+        assertEquals(time("2024-01-01T10:00:00"), merged.getStart());
+        assertEquals(time("2024-01-01T12:00:00"), merged.getEnd());
+    }
+
+    /**
+     * This test ensures merging with an empty aggregate keeps the readings unchanged and only widens the period.
+     */
+    @Test
+    void givenEmptyAggregate_MergeKeepsReadings() {
+        // Arrange
+        ReadingAggregate empty = ReadingAggregate.empty(time("2024-01-01T09:00:00"), time("2024-01-01T10:00:00"));
+        ReadingAggregate reading = ReadingAggregate.of(time("2024-01-01T10:30:00"), 21.5);
+
+        // Act
+        ReadingAggregate merged = empty.merge(reading);
+
+        // Assert
+        assertEquals(1, merged.getCount());
+        assertEquals(21.5, merged.getMin());
+        assertEquals(21.5, merged.getMax());
+        assertEquals(time("2024-01-01T09:00:00"), merged.getStart());
+        assertEquals(time("2024-01-01T10:30:00"), merged.getEnd());
+        assertThrows(IllegalArgumentException.class, () -> empty.merge(null));
+    }
+}
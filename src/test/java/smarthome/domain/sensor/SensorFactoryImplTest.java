@@ -5,8 +5,13 @@ import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.domain.vo.sensorvo.SensorIDVO;
 import smarthome.domain.vo.sensorvo.SensorNameVO;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedConstruction;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -696,4 +701,35 @@ class SensorFactoryImplTest {
         assertEquals(expectedDeviceID,resultDeviceID);
         assertEquals(expectedSensorTypeID,resultSensorTypeID);
     }
+
+    /**
+     * This test ensures a sensor type added to the configuration file is only created once the factory is refreshed,
+     * and that refreshing keeps creating the types already configured.
+     */
+    @Test
+    void givenTypeAddedToFile_createSensorReturnsItOnlyAfterRefresh(@TempDir Path directory) throws IOException {
+        //Arrange
+        Path file = directory.resolve("config.properties");
+        Files.writeString(file, "TemperatureSensor = smarthome.domain.sensor.TemperatureSensor\n");
+        SensorFactoryImpl sensorFactoryImpl = new SensorFactoryImpl(file.toString());
+        SensorNameVO sensorName = mock(SensorNameVO.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        SensorTypeIDVO humidityType = mock(SensorTypeIDVO.class);
+        when(humidityType.getID()).thenReturn("HumiditySensor");
+        SensorTypeIDVO temperatureType = mock(SensorTypeIDVO.class);
+        when(temperatureType.getID()).thenReturn("TemperatureSensor");
+        Sensor beforeRefresh = sensorFactoryImpl.createSensor(sensorName, deviceID, humidityType);
+        Files.writeString(file, "TemperatureSensor = smarthome.domain.sensor.TemperatureSensor\n"
+                + "HumiditySensor = smarthome.domain.sensor.HumiditySensor\n");
+
+        //Act
+        sensorFactoryImpl.refresh();
+        Sensor afterRefresh = sensorFactoryImpl.createSensor(sensorName, deviceID, humidityType);
+        Sensor temperatureSensor = sensorFactoryImpl.createSensor(sensorName, deviceID, temperatureType);
+
+        //Assert
+        assertNull(beforeRefresh);
+        assertInstanceOf(HumiditySensor.class, afterRefresh);
+        assertInstanceOf(TemperatureSensor.class, temperatureSensor);
+    }
 }
@@ -0,0 +1,113 @@
+package smarthome.domain.sensor.externalservices;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ParallelSensorExternalServicesTest {
+
+    /**
+     * This test ensures the constructor throws IllegalArgumentException for a null hardware, a parallelism or a
+     * timeout that is not positive.
+     */
+    @Test
+    void whenGivenInvalidParameters_ConstructorThrowsIllegalArgumentException() {
+        //Arrange
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSensorExternalServices(null, 4, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSensorExternalServices(hardware, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSensorExternalServices(hardware, 4, 0));
+    }
+
+    /**
+     * This test ensures that, without the adapter, a batch is read one sensor after the other through getValue().
+     */
+    @Test
+    void withoutTheAdapter_getValuesReadsEverySensorWithGetValue() {
+        //Arrange
+        SensorExternalServices hardware = mock(SensorExternalServices.class, CALLS_REAL_METHODS);
+        doReturn("21").when(hardware).getValue();
+        List<SensorIDVO> sensors = sensorIDs(3);
+        //Act
+        Map<SensorIDVO, String> result = hardware.getValues(sensors);
+        //Assert
+        assertEquals(3, result.size());
+        assertEquals(sensors, new ArrayList<>(result.keySet()));
+        verify(hardware, times(3)).getValue();
+    }
+
+    /**
+     * This test ensures the sensors of a batch are read concurrently, never more than parallelism at once, and the
+     * values come back in the order of the batch.
+     */
+    @Test
+    void whenReadingABatch_SensorsAreReadConcurrentlyWithinTheParallelism() {
+        //Arrange
+        AtomicInteger reading = new AtomicInteger();
+        AtomicInteger maxReading = new AtomicInteger();
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenAnswer(invocation -> {
+            maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+            Thread.sleep(100);
+            reading.decrementAndGet();
+            return "21";
+        });
+        List<SensorIDVO> sensors = sensorIDs(8);
+        try (ParallelSensorExternalServices parallel = new ParallelSensorExternalServices(hardware, 4, 5000)) {
+            //Act
+            long start = System.nanoTime();
+            Map<SensorIDVO, String> result = parallel.getValues(sensors);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            //Assert
+            assertEquals(sensors, new ArrayList<>(result.keySet()));
+            assertTrue(maxReading.get() <= 4);
+            assertTrue(maxReading.get() > 1);
+            assertTrue(elapsedMillis < 8 * 100);
+        }
+    }
+
+    /**
+     * This test ensures the sensors whose read fails, or does not finish before the timeout, are left out of the
+     * batch while the others are returned.
+     */
+    @Test
+    void whenReadsFailOrTimeOut_TheSensorsAreLeftOut() {
+        //Arrange
+        AtomicInteger calls = new AtomicInteger();
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenAnswer(invocation -> {
+            int call = calls.getAndIncrement();
+            if (call == 1) {
+                throw new IllegalStateException("Unreachable");
+            }
+            if (call == 2) {
+                Thread.sleep(5000);
+            }
+            return "21";
+        });
+        List<SensorIDVO> sensors = sensorIDs(3);
+        try (ParallelSensorExternalServices parallel = new ParallelSensorExternalServices(hardware, 1, 500)) {
+            //Act
+            Map<SensorIDVO, String> result = parallel.getValues(sensors);
+            //Assert
+            assertEquals(Map.of(sensors.get(0), "21"), result);
+        }
+    }
+
+    private static List<SensorIDVO> sensorIDs(int count) {
+        List<SensorIDVO> sensorIDs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sensorIDs.add(new SensorIDVO(UUID.randomUUID()));
+        }
+        return sensorIDs;
+    }
+}
@@ -1,6 +1,12 @@
 package smarthome.domain.sensor.externalservices;
 
 import org.junit.jupiter.api.Test;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -32,4 +38,33 @@ class SimHardwareTest {
         //Assert
         assertEquals(expected, result);
     }
-}
\ No newline at end of file
+
+    /**
+     * This test ensures the getValues method returns the sample value of every sensor of the batch.
+     */
+    @Test
+    void successfullyReturnsSampleForEverySensorOfTheBatch() {
+        //Arrange
+        SimHardware sim = new SimHardware();
+        SensorIDVO sensor1 = new SensorIDVO(UUID.randomUUID());
+        SensorIDVO sensor2 = new SensorIDVO(UUID.randomUUID());
+        //Act
+        Map<SensorIDVO, String> result = sim.getValues(List.of(sensor1, sensor2));
+        //Assert
+        assertEquals(Map.of(sensor1, "Sample", sensor2, "Sample"), result);
+    }
+
+    /**
+     * This test ensures the getValues method throws IllegalArgumentException for a null batch or a null sensor ID.
+     */
+    @Test
+    void whenBatchIsInvalid_getValuesThrowsIllegalArgumentException() {
+        //Arrange
+        SimHardware sim = new SimHardware();
+        List<SensorIDVO> withNull = new ArrayList<>();
+        withNull.add(null);
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> sim.getValues(null));
+        assertThrows(IllegalArgumentException.class, () -> sim.getValues(withNull));
+    }
+}
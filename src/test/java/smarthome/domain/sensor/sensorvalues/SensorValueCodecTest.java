@@ -0,0 +1,91 @@
+package smarthome.domain.sensor.sensorvalues;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensorValueCodecTest {
+
+    /**
+     * Given a value class built from a String, the codec parses a reading into an instance of that class.
+     */
+    @Test
+    void givenValueClassWithStringConstructor_ParseReturnsTheValue() {
+        // Arrange
+        SensorValueCodec codec = SensorValueCodec.of(TemperatureValue.class);
+
+        // Act
+        SensorValueObject<?> result = codec.parse("21.5");
+
+        // Assert
+        assertInstanceOf(TemperatureValue.class, result);
+        assertEquals(21.5, result.getValue());
+        assertEquals(TemperatureValue.class, codec.getValueClass());
+    }
+
+    /**
+     * Given a value class built from a ZonedDateTime, the codec parses a reading written as an ISO zoned date time,
+     * and also builds the value from a ZonedDateTime directly.
+     */
+    @Test
+    void givenValueClassWithZonedDateTimeConstructor_ParseReturnsTheValue() {
+        // Arrange
+        SensorValueCodec codec = SensorValueCodec.of(SunTimeValue.class);
+        ZonedDateTime time = ZonedDateTime.of(2024, 6, 21, 5, 12, 0, 0, ZoneId.of("Europe/Lisbon"));
+
+        // Act
+        SensorValueObject<?> fromText = codec.parse(time.toString());
+        SensorValueObject<?> fromTime = codec.parse(time);
+
+        // Assert
+        assertEquals(time, fromText.getValue());
+        assertEquals(time, fromTime.getValue());
+    }
+
+    /**
+     * Given readings the value class rejects, the codec returns null instead of throwing.
+     */
+    @Test
+    void givenInvalidReading_ParseReturnsNull() {
+        // Arrange
+        SensorValueCodec temperature = SensorValueCodec.of(TemperatureValue.class);
+        SensorValueCodec sunTime = SensorValueCodec.of(SunTimeValue.class);
+
+        // Act + Assert
+        assertNull(temperature.parse("warm"));
+        assertNull(temperature.parse((String) null));
+        assertNull(temperature.parse(ZonedDateTime.now()));
+        assertNull(sunTime.parse("sunrise"));
+    }
+
+    /**
+     * Given a value, the codec writes it in the text form it parses back to an equal value.
+     */
+    @Test
+    void givenValue_SerializeWritesTextParsedBackToTheSameValue() {
+        // Arrange
+        SensorValueCodec codec = SensorValueCodec.of(WindValue.class);
+        SensorValueObject<?> value = codec.parse("44:W");
+
+        // Act
+        String result = codec.serialize(value);
+
+        // Assert
+        assertEquals("44:W", result);
+        assertEquals(value.getValue(), codec.parse(result).getValue());
+        assertThrows(IllegalArgumentException.class, () -> codec.serialize(null));
+    }
+
+    /**
+     * Given a class that is not a sensor value, or is missing, creating its codec throws IllegalArgumentException.
+     */
+    @Test
+    void givenInvalidValueClass_OfThrowsIllegalArgument() {
+        // Act + Assert
+        assertThrows(IllegalArgumentException.class, () -> SensorValueCodec.of(String.class));
+        assertThrows(IllegalArgumentException.class, () -> SensorValueCodec.of(null));
+    }
+}
@@ -836,4 +836,43 @@ class SensorValueFactoryImplTest {
         //Assert
         assertNull(value);
     }
+
+    /**
+     * This test ensures a sun time reading given as text is parsed as an ISO zoned date time, and that a text that is
+     * not a date and time gives no value.
+     */
+    @Test
+    void whenSunTimeReadingIsText_shouldParseItAsZonedDateTime(){
+        //Arrange
+        SensorTypeIDVO sensorTypeID= new SensorTypeIDVO("SunsetSensor");
+        SensorValueFactoryImpl factory = new SensorValueFactoryImpl(filePath);
+        ZonedDateTime expected = ZonedDateTime.of(2024, 6, 21, 21, 5, 0, 0, ZoneId.of("Europe/Lisbon"));
+
+        //Act
+        SensorValueObject<?> value = factory.createSensorValue(expected.toString(),sensorTypeID);
+        SensorValueObject<?> invalid = factory.createSensorValue("sunset",sensorTypeID);
+
+        //Assert
+        assertEquals(expected, value.getValue());
+        assertNull(invalid);
+    }
+
+    /**
+     * This test ensures the factory has a codec for each configured sensor type whose value class can be loaded,
+     * and none for the other types.
+     */
+    @Test
+    void givenConfiguredSensorTypes_getCodecReturnsCodecOfTheirValueClass(){
+        //Arrange
+        SensorValueFactoryImpl factory = new SensorValueFactoryImpl(filePath);
+
+        //Act
+        SensorValueCodec codec = factory.getCodec(new SensorTypeIDVO("HumiditySensor"));
+
+        //Assert
+        assertEquals(HumidityValue.class, codec.getValueClass());
+        assertNull(factory.getCodec(new SensorTypeIDVO("NuclearSensor")));
+        assertNull(factory.getCodec(new SensorTypeIDVO("UnknownSensor")));
+        assertNull(factory.getCodec(null));
+    }
 }
@@ -0,0 +1,83 @@
+package smarthome.domain.vo;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueObjectInternerTest {
+
+    /**
+     * Test that interning the same key twice returns the same instance, only created once.
+     */
+    @Test
+    void whenSameKeyInternedTwice_thenSameInstanceIsReturned() {
+        //Arrange
+        ValueObjectInterner<String, SensorTypeIDVO> interner = new ValueObjectInterner<>(16);
+        AtomicInteger created = new AtomicInteger();
+
+        //Act
+        SensorTypeIDVO first = interner.intern("TemperatureSensor", key -> {
+            created.incrementAndGet();
+            return new SensorTypeIDVO(key);
+        });
+        SensorTypeIDVO second = interner.intern(new String("TemperatureSensor"), key -> {
+            created.incrementAndGet();
+            return new SensorTypeIDVO(key);
+        });
+
+        //Assert
+        assertSame(first, second);
+        assertEquals(1, created.get());
+    }
+
+    /**
+     * Test that the interner stays bounded: keys competing for its only slot replace each other, and each still gets a
+     * value object equal to the one of its key.
+     */
+    @Test
+    void whenMoreKeysThanSlots_thenValueObjectsAreStillEqual() {
+        //Arrange
+        ValueObjectInterner<UUID, DeviceIDVO> interner = new ValueObjectInterner<>(1);
+        UUID firstID = UUID.randomUUID();
+        UUID secondID = UUID.randomUUID();
+
+        //Act
+        DeviceIDVO first = interner.intern(firstID, DeviceIDVO::new);
+        DeviceIDVO second = interner.intern(secondID, DeviceIDVO::new);
+        DeviceIDVO firstAgain = interner.intern(firstID, DeviceIDVO::new);
+
+        //Assert
+        assertEquals(new DeviceIDVO(firstID), first);
+        assertEquals(new DeviceIDVO(secondID), second);
+        assertEquals(first, firstAgain);
+    }
+
+    /**
+     * Test that a null key is passed to the factory, so the value object validation still applies.
+     */
+    @Test
+    void whenNullKey_thenFactoryExceptionIsThrown() {
+        //Arrange
+        ValueObjectInterner<UUID, DeviceIDVO> interner = new ValueObjectInterner<>(16);
+
+        //Act + Assert
+        assertThrows(IllegalArgumentException.class, () -> interner.intern(null, DeviceIDVO::new));
+    }
+
+    /**
+     * Test that the interner cannot be created without slots.
+     */
+    @Test
+    void whenInvalidCapacity_thenConstructorThrowsException() {
+        //Act
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new ValueObjectInterner<>(0));
+
+        //Assert
+        assertEquals("Invalid capacity", exception.getMessage());
+    }
+}
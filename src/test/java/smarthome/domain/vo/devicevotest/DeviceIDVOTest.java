@@ -174,4 +174,22 @@ class DeviceIDVOTest {
         //Assert
         assertEquals(result,result2);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case to verify that valueOf returns the same DeviceIDVO for the same identifier, whether given as a UUID
+     * or as a string, and that it is equal to one created with the constructor.
+     */
+    @Test
+    void whenValueOfCalledForSameIdentifier_shouldReturnSameInstance(){
+        //Arrange
+        UUID deviceIdentifier = UUID.randomUUID();
+
+        //Act
+        DeviceIDVO fromUUID = DeviceIDVO.valueOf(deviceIdentifier);
+        DeviceIDVO fromString = DeviceIDVO.valueOf(deviceIdentifier.toString());
+
+        //Assert
+        assertSame(fromUUID, fromString);
+        assertEquals(new DeviceIDVO(deviceIdentifier), fromUUID);
+    }
+}
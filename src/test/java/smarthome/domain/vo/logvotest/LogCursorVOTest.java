@@ -0,0 +1,88 @@
+package smarthome.domain.vo.logvotest;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.vo.logvo.LogCursorVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogCursorVOTest {
+
+    /**
+     * Test the constructor of the LogCursorVO class for the case when the time is null.
+     */
+    @Test
+    void whenTimeIsNull_thenExceptionIsThrown() {
+        //Arrange
+        LogIDVO logID = new LogIDVO(UUID.randomUUID());
+        String expected = "Invalid cursor";
+
+        //Act
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new LogCursorVO(null, logID));
+        String result = exception.getMessage();
+
+        //Assert
+        assertEquals(expected, result);
+    }
+
+    /**
+     * Test the constructor of the LogCursorVO class for the case when the log ID is null.
+     */
+    @Test
+    void whenLogIDIsNull_thenExceptionIsThrown() {
+        //Arrange
+        TimeStampVO time = new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:30"));
+        String expected = "Invalid cursor";
+
+        //Act
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new LogCursorVO(time, null));
+        String result = exception.getMessage();
+
+        //Assert
+        assertEquals(expected, result);
+    }
+
+    /**
+     * Test that a cursor read back from its own token points at the same log.
+     */
+    @Test
+    void whenTokenIsReadBack_thenCursorPointsAtTheSameLog() {
+        //Arrange
+        TimeStampVO time = new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00"));
+        LogIDVO logID = new LogIDVO(UUID.randomUUID());
+        LogCursorVO cursor = new LogCursorVO(time, logID);
+
+        //Act
+        LogCursorVO result = new LogCursorVO(cursor.getValue());
+
+        //Assert
+        assertEquals(cursor, result);
+        assertEquals(time, result.getTime());
+        assertEquals(logID, result.getLogID());
+    }
+
+    /**
+     * Test the constructor of the LogCursorVO class for tokens that are not valid cursors.
+     */
+    @Test
+    void whenTokenIsInvalid_thenExceptionIsThrown() {
+        //Arrange
+        String expected = "Invalid cursor";
+
+        //Act
+        Exception exception1 = assertThrows(IllegalArgumentException.class, () -> new LogCursorVO((String) null));
+        Exception exception2 = assertThrows(IllegalArgumentException.class, () -> new LogCursorVO(" "));
+        Exception exception3 = assertThrows(IllegalArgumentException.class, () -> new LogCursorVO("not a cursor"));
+        Exception exception4 = assertThrows(IllegalArgumentException.class, () -> new LogCursorVO("MjAyNC0wNC0wNFQxMjowMA"));
+
+        //Assert
+        assertEquals(expected, exception1.getMessage());
+        assertEquals(expected, exception2.getMessage());
+        assertEquals(expected, exception3.getMessage());
+        assertEquals(expected, exception4.getMessage());
+    }
+}
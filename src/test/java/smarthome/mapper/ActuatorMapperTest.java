@@ -356,13 +356,13 @@ class ActuatorMapperTest {
     @Test
     void givenActuatorDTOMock_WhenCreateActuatorTypeIDVO_ThenReturnActuatorTypeIDVO() {
 //        Arrange
-        String actuatorType = "Thermostat";
+        String actuatorType = "Thermostat" + UUID.randomUUID();
         int expectedListSize = 1;
         ActuatorDTO actuatorDTODouble = mock(ActuatorDTO.class);
         when(actuatorDTODouble.getActuatorTypeID()).thenReturn(actuatorType);
 
         try (MockedConstruction<ActuatorTypeIDVO> mockedActuatorTypeIDVO = mockConstruction(ActuatorTypeIDVO.class, (mock, context)
-                -> when(mock.getID()).thenReturn("Thermostat"))) {
+                -> when(mock.getID()).thenReturn(actuatorType))) {
 //            Act
             ActuatorTypeIDVO actuatorTypeIDVO = ActuatorMapper.createActuatorTypeIDVO(actuatorDTODouble);
 //            Assert
@@ -384,13 +384,13 @@ class ActuatorMapperTest {
     @Test
     void givenActuatorDTOMock_WhenCreateDeviceIDVO_ThenReturnDeviceIDVO() {
 //        Arrange
-        String deviceID = "123e4567-e89b-12d3-a456-111111111111";
+        String deviceID = UUID.randomUUID().toString();
         int expectedListSize = 1;
         ActuatorDTO actuatorDTODouble = mock(ActuatorDTO.class);
         when(actuatorDTODouble.getDeviceID()).thenReturn(deviceID);
 
         try (MockedConstruction<DeviceIDVO> mockedDeviceIDVO = mockConstruction(DeviceIDVO.class, (mock, context) ->
-                when(mock.getID()).thenReturn("123e4567-e89b-12d3-a456-111111111111"))) {
+                when(mock.getID()).thenReturn(deviceID))) {
 //            Act
             DeviceIDVO deviceIDVO = ActuatorMapper.createDeviceIDVO(actuatorDTODouble);
 //            Assert
@@ -1,6 +1,8 @@
 package smarthome.mapper;
 
 import org.junit.jupiter.api.Test;
+import smarthome.domain.IDGenerator;
+import smarthome.domain.TimeOrderedIDGenerator;
 import smarthome.domain.log.Log;
 import smarthome.domain.sensor.sensorvalues.HumidityValue;
 import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
@@ -187,6 +189,40 @@ class LogMapperTest {
         assertEquals(reading,readingVO.getValue().toString());
     }
 
+    /**
+     * Tests that the {@code dtoToDomain} method creates a {@code Log} from a complete {@code LogDTO}, generating a
+     * time-ordered log ID with the given generator when none is given, and throws an {@code IllegalArgumentException}
+     * when the time is invalid, a required attribute is missing or no sensor value factory or generator is given.
+     */
+    @Test
+    void whenDtoToDomainIsCalled_CreatesLogOrThrowsIllegalArgumentException(){
+        // Arrange
+        SensorValueFactory sensorFactory = new SensorValueFactoryImpl("value.properties");
+        IDGenerator idGenerator = new TimeOrderedIDGenerator();
+        String deviceID = UUID.randomUUID().toString();
+        String sensorID = UUID.randomUUID().toString();
+        LogDTO dto = LogDTO.builder().time("2024-04-23T22:00").reading("49")
+                .sensorID(sensorID).deviceID(deviceID).sensorTypeID("HumiditySensor").build();
+        LogDTO invalidTime = LogDTO.builder().time("yesterday").reading("49")
+                .sensorID(sensorID).deviceID(deviceID).sensorTypeID("HumiditySensor").build();
+        LogDTO missingReading = LogDTO.builder().time("2024-04-23T22:00")
+                .sensorID(sensorID).deviceID(deviceID).sensorTypeID("HumiditySensor").build();
+
+        // Act
+        Log log = LogMapper.dtoToDomain(dto, sensorFactory, idGenerator);
+
+        // Assert
+        assertEquals(7, UUID.fromString(log.getId().getID()).version());
+        assertEquals("2024-04-23T22:00", log.getTime().getValue().toString());
+        assertEquals("49", log.getReading().getValue().toString());
+        assertEquals(sensorID, log.getSensorID().getID());
+        assertEquals(deviceID, log.getDeviceID().getID());
+        assertThrows(IllegalArgumentException.class, () -> LogMapper.dtoToDomain(invalidTime, sensorFactory, idGenerator));
+        assertThrows(IllegalArgumentException.class, () -> LogMapper.dtoToDomain(missingReading, sensorFactory, idGenerator));
+        assertThrows(IllegalArgumentException.class, () -> LogMapper.dtoToDomain(dto, null, idGenerator));
+        assertThrows(IllegalArgumentException.class, () -> LogMapper.dtoToDomain(dto, sensorFactory, null));
+    }
+
     /**
      * Tests that the {@code createTimeStampVO} method successfully creates a {@code TimeStampVO}
      * from a valid {@code LogDTO}.
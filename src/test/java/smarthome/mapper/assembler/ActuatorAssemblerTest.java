@@ -48,10 +48,10 @@ class ActuatorAssemblerTest {
         Actuator actuator = ActuatorAssembler.toDomain(actuatorFactory, dataModel);
 
         //Assert
-        assertEquals(dataModel.getActuatorID(), actuator.getId().getID());
+        assertEquals(dataModel.getActuatorID().toString(), actuator.getId().getID());
         assertEquals(dataModel.getActuatorName(), actuator.getActuatorName().getValue());
         assertEquals(dataModel.getActuatorTypeID(), actuator.getActuatorTypeID().getID());
-        assertEquals(dataModel.getDeviceID(), actuator.getDeviceID().getID());
+        assertEquals(dataModel.getDeviceID().toString(), actuator.getDeviceID().getID());
         assertEquals(dataModel.getLowerLimit(), actuator.getLowerLimit());
         assertEquals(dataModel.getUpperLimit(), actuator.getUpperLimit());
         assertEquals(dataModel.getPrecision_value(), actuator.getPrecision());
@@ -80,10 +80,10 @@ class ActuatorAssemblerTest {
         Actuator actuator = ActuatorAssembler.toDomain(actuatorFactory, dataModel);
 
         //Assert
-        assertEquals(dataModel.getActuatorID(), actuator.getId().getID());
+        assertEquals(dataModel.getActuatorID().toString(), actuator.getId().getID());
         assertEquals(dataModel.getActuatorName(), actuator.getActuatorName().getValue());
         assertEquals(dataModel.getActuatorTypeID(), actuator.getActuatorTypeID().getID());
-        assertEquals(dataModel.getDeviceID(), actuator.getDeviceID().getID());
+        assertEquals(dataModel.getDeviceID().toString(), actuator.getDeviceID().getID());
         assertEquals(dataModel.getLowerLimit(), actuator.getLowerLimit());
         assertEquals(dataModel.getUpperLimit(), actuator.getUpperLimit());
         assertEquals(dataModel.getPrecision_value(), actuator.getPrecision());
@@ -111,10 +111,10 @@ class ActuatorAssemblerTest {
         Actuator actuator = ActuatorAssembler.toDomain(actuatorFactory, dataModel);
 
         //Assert
-        assertEquals(dataModel.getActuatorID(), actuator.getId().getID());
+        assertEquals(dataModel.getActuatorID().toString(), actuator.getId().getID());
         assertEquals(dataModel.getActuatorName(), actuator.getActuatorName().getValue());
         assertEquals(dataModel.getActuatorTypeID(), actuator.getActuatorTypeID().getID());
-        assertEquals(dataModel.getDeviceID(), actuator.getDeviceID().getID());
+        assertEquals(dataModel.getDeviceID().toString(), actuator.getDeviceID().getID());
         assertEquals(dataModel.getLowerLimit(), actuator.getLowerLimit());
         assertEquals(dataModel.getUpperLimit(), actuator.getUpperLimit());
         assertEquals(dataModel.getPrecision_value(), actuator.getPrecision());
@@ -142,10 +142,10 @@ class ActuatorAssemblerTest {
         Actuator actuator = ActuatorAssembler.toDomain(actuatorFactory, dataModel);
 
         //Assert
-        assertEquals(dataModel.getActuatorID(), actuator.getId().getID());
+        assertEquals(dataModel.getActuatorID().toString(), actuator.getId().getID());
         assertEquals(dataModel.getActuatorName(), actuator.getActuatorName().getValue());
         assertEquals(dataModel.getActuatorTypeID(), actuator.getActuatorTypeID().getID());
-        assertEquals(dataModel.getDeviceID(), actuator.getDeviceID().getID());
+        assertEquals(dataModel.getDeviceID().toString(), actuator.getDeviceID().getID());
         assertEquals(dataModel.getLowerLimit(), actuator.getLowerLimit());
         assertEquals(dataModel.getUpperLimit(), actuator.getUpperLimit());
         assertEquals(dataModel.getPrecision_value(), actuator.getPrecision());
@@ -220,10 +220,10 @@ class ActuatorAssemblerTest {
         //Assert
         List<Actuator> result = new ArrayList<>();
         actuatorToDomain.forEach(result::add);
-        assertEquals(dataModels.get(0).getActuatorID(), result.get(0).getId().getID());
+        assertEquals(dataModels.get(0).getActuatorID().toString(), result.get(0).getId().getID());
         assertEquals(dataModels.get(1).getActuatorName(), result.get(1).getActuatorName().getValue());
         assertEquals(dataModels.get(2).getActuatorTypeID(), result.get(2).getActuatorTypeID().getID());
-        assertEquals(dataModels.get(3).getDeviceID(), result.get(3).getDeviceID().getID());
+        assertEquals(dataModels.get(3).getDeviceID().toString(), result.get(3).getDeviceID().getID());
         assertEquals(dataModels.get(0).getLowerLimit(), result.get(0).getLowerLimit());
         assertEquals(dataModels.get(0).getUpperLimit(), result.get(0).getUpperLimit());
         assertEquals(dataModels.get(1).getPrecision_value(), result.get(1).getPrecision());
@@ -16,9 +16,13 @@ import smarthome.persistence.jpa.datamodel.DeviceDataModel;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 
 /**
  * DeviceAssemblerTest is a test class for the RoomAssembler class.
@@ -69,11 +73,11 @@ class DeviceAssemblerTest {
 //        Act
         DeviceDataModel deviceDataModel = new DeviceDataModel(device);
 //        Assert
-        assertEquals(deviceDataModel.getDeviceID(), expectedDeviceID);
+        assertEquals(deviceDataModel.getDeviceID().toString(), expectedDeviceID);
         assertEquals(deviceDataModel.getDeviceName(), expectedDeviceName);
         assertEquals(deviceDataModel.getDeviceModel(), expectedDeviceModel);
         assertEquals(deviceDataModel.getDeviceStatus(), expectedDeviceStatus);
-        assertEquals(deviceDataModel.getRoomID(), expectedRoomID);
+        assertEquals(deviceDataModel.getRoomID().toString(), expectedRoomID);
     }
 
     /**
@@ -96,7 +100,7 @@ class DeviceAssemblerTest {
         Device device = new Device(deviceIDVO, deviceNameVO, deviceModelVO, deviceStatusVO, roomIDVO);
 
         DeviceDataModel deviceDataModel = new DeviceDataModel(device);
-        String expectedDeviceID = deviceDataModel.getDeviceID();
+        String expectedDeviceID = deviceDataModel.getDeviceID().toString();
 
         DeviceFactory devicefactory = new DeviceFactoryImpl();
 //        Act
@@ -150,18 +154,67 @@ class DeviceAssemblerTest {
 
         Device firstDevice = deviceList.get(0);
 
-        assertEquals(deviceDataModel.getDeviceID(), firstDevice.getId().getID());
+        assertEquals(deviceDataModel.getDeviceID().toString(), firstDevice.getId().getID());
         assertEquals(deviceDataModel.getDeviceName(), firstDevice.getDeviceName().getValue());
         assertEquals(deviceDataModel.getDeviceModel(), firstDevice.getDeviceModel().getValue());
         assertEquals(deviceDataModel.getDeviceStatus(), firstDevice.getDeviceStatus().getValue());
-        assertEquals(deviceDataModel.getRoomID(), firstDevice.getRoomID().getID());
+        assertEquals(deviceDataModel.getRoomID().toString(), firstDevice.getRoomID().getID());
 
         Device secondDeviceFromList = deviceList.get(1);
 
-        assertEquals(secondDeviceDataModel.getDeviceID(), secondDeviceFromList.getId().getID());
+        assertEquals(secondDeviceDataModel.getDeviceID().toString(), secondDeviceFromList.getId().getID());
         assertEquals(secondDeviceDataModel.getDeviceName(), secondDeviceFromList.getDeviceName().getValue());
         assertEquals(secondDeviceDataModel.getDeviceModel(), secondDeviceFromList.getDeviceModel().getValue());
         assertEquals(secondDeviceDataModel.getDeviceStatus(), secondDeviceFromList.getDeviceStatus().getValue());
-        assertEquals(secondDeviceDataModel.getRoomID(), secondDeviceFromList.getRoomID().getID());
+        assertEquals(secondDeviceDataModel.getRoomID().toString(), secondDeviceFromList.getRoomID().getID());
+    }
+
+    /**
+     * This method tests the toDomainGroups() method of the DeviceAssembler class.
+     * It groups two devices by the types of four sensors and three actuators, one sensor type held by both devices
+     * and one device holding the same sensor type twice. It checks that sensor types come before actuator types, each
+     * in row order, that every device is listed once per type, that an actuator type sharing the ID of a sensor type
+     * replaces its devices, and that each device is assembled only once.
+     */
+
+    @Test
+    void givenSensorAndActuatorRows_whenToDomainGroupsIsCalled_thenReturnDevicesGroupedByType() {
+//        Arrange
+        Device fridge = new Device(new DeviceIDVO(UUID.fromString(deviceID)), new DeviceNameVO(deviceName),
+                new DeviceModelVO(deviceModel), new DeviceStatusVO(deviceStatus), new RoomIDVO(UUID.fromString(roomID)));
+        Device heater = new Device(new DeviceNameVO("Heater"), new DeviceModelVO(deviceModel),
+                new RoomIDVO(UUID.fromString(roomID)));
+        DeviceDataModel fridgeDataModel = new DeviceDataModel(fridge);
+        DeviceDataModel heaterDataModel = new DeviceDataModel(heater);
+
+        List<Object[]> sensorRows = new ArrayList<>();
+        sensorRows.add(new Object[]{"TemperatureSensor", fridgeDataModel});
+        sensorRows.add(new Object[]{"HumiditySensor", heaterDataModel});
+        sensorRows.add(new Object[]{"TemperatureSensor", heaterDataModel});
+        sensorRows.add(new Object[]{"TemperatureSensor", fridgeDataModel});
+        sensorRows.add(new Object[]{"SwitchSensor", fridgeDataModel});
+        List<Object[]> actuatorRows = new ArrayList<>();
+        actuatorRows.add(new Object[]{"RollerBlindActuator", heaterDataModel});
+        actuatorRows.add(new Object[]{"SwitchSensor", heaterDataModel});
+
+        DeviceFactory deviceFactory = mock(DeviceFactory.class);
+        when(deviceFactory.createDevice(any(DeviceIDVO.class), any(DeviceNameVO.class), any(DeviceModelVO.class),
+                any(DeviceStatusVO.class), any(RoomIDVO.class))).thenAnswer(invocation -> new Device(
+                invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2),
+                invocation.getArgument(3), invocation.getArgument(4)));
+//        Act
+        Map<String, List<Device>> result = DeviceAssembler.toDomainGroups(deviceFactory, sensorRows, actuatorRows);
+//        Assert
+        assertEquals(List.of("TemperatureSensor", "HumiditySensor", "SwitchSensor", "RollerBlindActuator"),
+                new ArrayList<>(result.keySet()));
+        List<Device> temperature = result.get("TemperatureSensor");
+        assertEquals(List.of(fridge.getId(), heater.getId()), List.of(temperature.get(0).getId(), temperature.get(1).getId()));
+        assertEquals(heater.getId(), result.get("HumiditySensor").get(0).getId());
+        assertEquals(1, result.get("SwitchSensor").size());
+        assertEquals(heater.getId(), result.get("SwitchSensor").get(0).getId());
+        assertEquals(heater.getId(), result.get("RollerBlindActuator").get(0).getId());
+        assertSame(temperature.get(1), result.get("HumiditySensor").get(0));
+        verify(deviceFactory, times(2)).createDevice(any(DeviceIDVO.class), any(DeviceNameVO.class),
+                any(DeviceModelVO.class), any(DeviceStatusVO.class), any(RoomIDVO.class));
     }
 }
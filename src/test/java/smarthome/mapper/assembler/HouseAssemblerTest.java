@@ -50,7 +50,7 @@ class HouseAssemblerTest {
         HouseDataModel houseDataModel = new HouseDataModel(house);
 
         //Assert
-        assertEquals(houseDataModel.getId(),house.getId().getID());
+        assertEquals(houseDataModel.getId().toString(),house.getId().getID());
         assertEquals(houseDataModel.getDoor(),locationVO.getDoor());
         assertEquals(houseDataModel.getStreet(), locationVO.getStreet());
         assertEquals(houseDataModel.getCity(), locationVO.getCity());
@@ -119,7 +119,7 @@ class HouseAssemblerTest {
         House firstEntry = houseList.get(0);
 
         LocationVO locationVO1 = firstEntry.getLocation();
-        assertEquals(houseDataModel.getId(),firstEntry.getId().getID());
+        assertEquals(houseDataModel.getId().toString(),firstEntry.getId().getID());
         assertEquals(houseDataModel.getDoor(),locationVO1.getDoor());
         assertEquals(houseDataModel.getStreet(), locationVO1.getStreet());
         assertEquals(houseDataModel.getCity(), locationVO1.getCity());
@@ -129,7 +129,7 @@ class HouseAssemblerTest {
 
         House secondEntry = houseList.get(1);
         LocationVO locationVO2 = secondEntry.getLocation();
-        assertEquals(secondhouseDataModel.getId(),secondEntry.getId().getID());
+        assertEquals(secondhouseDataModel.getId().toString(),secondEntry.getId().getID());
         assertEquals(secondhouseDataModel.getDoor(),locationVO2.getDoor());
         assertEquals(secondhouseDataModel.getStreet(), locationVO2.getStreet());
         assertEquals(secondhouseDataModel.getCity(), locationVO2.getCity());
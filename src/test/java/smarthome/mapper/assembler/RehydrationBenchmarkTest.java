@@ -0,0 +1,111 @@
+package smarthome.mapper.assembler;
+
+import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import smarthome.domain.actuator.Actuator;
+import smarthome.domain.actuator.ActuatorFactoryImpl;
+import smarthome.domain.sensor.Sensor;
+import smarthome.domain.sensor.SensorFactoryImpl;
+import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
+import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
+import smarthome.domain.vo.actuatorvo.IntegerSettingsVO;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorNameVO;
+import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
+import smarthome.persistence.jpa.datamodel.SensorDataModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the cost of rebuilding sensors and actuators from their data models, as done when they are loaded from the
+ * database. Only runs when asked to, with -Dbenchmark=true, and prints the average time per entity.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RehydrationBenchmarkTest {
+
+    private static final int ENTITIES = 10_000;
+    private static final int WARM_UP_ROUNDS = 20;
+    private static final int ROUNDS = 20;
+
+    private static final String[] SENSOR_TYPES = {"TemperatureSensor", "HumiditySensor", "SwitchSensor",
+            "PowerConsumptionSensor", "WindSensor"};
+
+    /**
+     * Measures SensorAssembler.toDomain for sensors of several types.
+     */
+    @Test
+    void sensorRehydration() {
+        // Arrange
+        SensorFactoryImpl factory = new SensorFactoryImpl("config.properties");
+        List<SensorDataModel> dataModels = new ArrayList<>();
+        for (int i = 0; i < ENTITIES; i++) {
+            DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+            SensorTypeIDVO type = new SensorTypeIDVO(SENSOR_TYPES[i % SENSOR_TYPES.length]);
+            Sensor sensor = factory.createSensor(new SensorNameVO("Sensor" + i), deviceID, type);
+            dataModels.add(new SensorDataModel(sensor));
+        }
+
+        // Act
+        long nanos = 0;
+        int created = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (SensorDataModel dataModel : dataModels) {
+                if (SensorAssembler.toDomain(factory, dataModel) != null) {
+                    created++;
+                }
+            }
+            if (round >= WARM_UP_ROUNDS) {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        // Assert
+        assertEquals((WARM_UP_ROUNDS + ROUNDS) * ENTITIES, created);
+        System.out.printf("Sensor rehydration: %d ns per sensor%n", nanos / ((long) ROUNDS * ENTITIES));
+    }
+
+    /**
+     * Measures ActuatorAssembler.toDomain for actuators with and without settings.
+     */
+    @Test
+    void actuatorRehydration() throws ConfigurationException {
+        // Arrange
+        ActuatorFactoryImpl factory = new ActuatorFactoryImpl("config.properties");
+        List<ActuatorDataModel> dataModels = new ArrayList<>();
+        for (int i = 0; i < ENTITIES; i++) {
+            DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+            Actuator actuator = i % 2 == 0
+                    ? factory.createActuator(new ActuatorNameVO("Switch" + i), new ActuatorTypeIDVO("SwitchActuator"),
+                    deviceID, null)
+                    : factory.createActuator(new ActuatorNameVO("Dimmer" + i),
+                    new ActuatorTypeIDVO("IntegerValueActuator"), deviceID, new IntegerSettingsVO("0", "100"));
+            dataModels.add(new ActuatorDataModel(actuator));
+        }
+
+        // Act
+        long nanos = 0;
+        int created = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (ActuatorDataModel dataModel : dataModels) {
+                if (ActuatorAssembler.toDomain(factory, dataModel) != null) {
+                    created++;
+                }
+            }
+            if (round >= WARM_UP_ROUNDS) {
+                nanos += System.nanoTime() - start;
+            }
+        }
+
+        // Assert
+        assertEquals((WARM_UP_ROUNDS + ROUNDS) * ENTITIES, created);
+        System.out.printf("Actuator rehydration: %d ns per actuator%n", nanos / ((long) ROUNDS * ENTITIES));
+    }
+}
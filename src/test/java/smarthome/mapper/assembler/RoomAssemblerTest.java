@@ -68,13 +68,13 @@ class RoomAssemblerTest {
 //        Act
         RoomDataModel roomDataModel = new RoomDataModel(room);
 //        Assert
-        assertEquals(roomDataModel.getRoomID(), expectedRoomID);
+        assertEquals(roomDataModel.getRoomID().toString(), expectedRoomID);
         assertEquals(roomDataModel.getRoomName(), expectedRoomName);
         assertEquals(roomDataModel.getRoomFloor(), expectedFloor);
         assertEquals(roomDataModel.getRoomHeight(), expectedRoomHeight);
         assertEquals(roomDataModel.getRoomLength(), expectedRoomLength);
         assertEquals(roomDataModel.getRoomWidth(), expectedRoomWidth);
-        assertEquals(roomDataModel.getHouseID(), expectedHouseID);
+        assertEquals(roomDataModel.getHouseID().toString(), expectedHouseID);
     }
 
     /**
@@ -98,7 +98,7 @@ class RoomAssemblerTest {
         Room room = new Room(roomNameVO, roomFloorVO, roomDimensionsVO, houseIDVO);
 
         RoomDataModel roomDataModel = new RoomDataModel(room);
-        String roomIDVO = roomDataModel.getRoomID();
+        String roomIDVO = roomDataModel.getRoomID().toString();
 
         RoomFactory roomFactory = new RoomFactoryImpl();
 //        Act
@@ -157,22 +157,22 @@ class RoomAssemblerTest {
 
         Room firstRoom = roomList.get(0);
 
-        assertEquals(roomDataModel.getRoomID(), firstRoom.getId().getID());
+        assertEquals(roomDataModel.getRoomID().toString(), firstRoom.getId().getID());
         assertEquals(roomDataModel.getRoomName(), firstRoom.getRoomName().getValue());
         assertEquals(roomDataModel.getRoomFloor(), firstRoom.getFloor().getValue());
         assertEquals(roomDataModel.getRoomHeight(), firstRoom.getRoomDimensions().getRoomHeight());
         assertEquals(roomDataModel.getRoomLength(), firstRoom.getRoomDimensions().getRoomLength());
         assertEquals(roomDataModel.getRoomWidth(), firstRoom.getRoomDimensions().getRoomWidth());
-        assertEquals(roomDataModel.getHouseID(), firstRoom.getHouseID().getID());
+        assertEquals(roomDataModel.getHouseID().toString(), firstRoom.getHouseID().getID());
 
         Room secondRoomFromList = roomList.get(1);
 
-        assertEquals(secondRoomDataModel.getRoomID(), secondRoomFromList.getId().getID());
+        assertEquals(secondRoomDataModel.getRoomID().toString(), secondRoomFromList.getId().getID());
         assertEquals(secondRoomDataModel.getRoomName(), secondRoomFromList.getRoomName().getValue());
         assertEquals(secondRoomDataModel.getRoomFloor(), secondRoomFromList.getFloor().getValue());
         assertEquals(secondRoomDataModel.getRoomHeight(), secondRoomFromList.getRoomDimensions().getRoomHeight());
         assertEquals(secondRoomDataModel.getRoomLength(), secondRoomFromList.getRoomDimensions().getRoomLength());
         assertEquals(secondRoomDataModel.getRoomWidth(), secondRoomFromList.getRoomDimensions().getRoomWidth());
-        assertEquals(secondRoomDataModel.getHouseID(), secondRoomFromList.getHouseID().getID());
+        assertEquals(secondRoomDataModel.getHouseID().toString(), secondRoomFromList.getHouseID().getID());
     }
 }
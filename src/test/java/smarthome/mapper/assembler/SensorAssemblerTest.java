@@ -54,10 +54,10 @@ class SensorAssemblerTest {
         Sensor newSensor = SensorAssembler.toDomain(sensorFactory, sensorDataModel);
 
         // Assert
-        assertEquals(sensorDataModel.getSensorId(), newSensor.getId().getID());
+        assertEquals(sensorDataModel.getSensorId().toString(), newSensor.getId().getID());
         assertEquals(sensorDataModel.getSensorName(), newSensor.getSensorName().getValue());
         assertEquals(sensorDataModel.getSensorTypeID(), newSensor.getSensorTypeID().getID());
-        assertEquals(sensorDataModel.getDeviceID(), newSensor.getDeviceID().getID());
+        assertEquals(sensorDataModel.getDeviceID().toString(), newSensor.getDeviceID().getID());
     }
 
 
@@ -106,17 +106,17 @@ class SensorAssemblerTest {
 
         Sensor firstSensor = sensorList.get(0);
 
-        assertEquals(sensorDataModel.getSensorId(), firstSensor.getId().getID());
+        assertEquals(sensorDataModel.getSensorId().toString(), firstSensor.getId().getID());
         assertEquals(sensorDataModel.getSensorName(), firstSensor.getSensorName().getValue());
         assertEquals(sensorDataModel.getSensorTypeID(), firstSensor.getSensorTypeID().getID());
-        assertEquals(sensorDataModel.getDeviceID(), firstSensor.getDeviceID().getID());
+        assertEquals(sensorDataModel.getDeviceID().toString(), firstSensor.getDeviceID().getID());
 
         Sensor anotherSensor = sensorList.get(1);
 
-        assertEquals(secondSensorDataModel.getSensorId(), anotherSensor.getId().getID());
+        assertEquals(secondSensorDataModel.getSensorId().toString(), anotherSensor.getId().getID());
         assertEquals(secondSensorDataModel.getSensorName(), anotherSensor.getSensorName().getValue());
         assertEquals(secondSensorDataModel.getSensorTypeID(), anotherSensor.getSensorTypeID().getID());
-        assertEquals(secondSensorDataModel.getDeviceID(), anotherSensor.getDeviceID().getID());
+        assertEquals(secondSensorDataModel.getDeviceID().toString(), anotherSensor.getDeviceID().getID());
     }
 
 }
\ No newline at end of file
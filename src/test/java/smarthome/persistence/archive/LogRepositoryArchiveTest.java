@@ -0,0 +1,261 @@
+package smarthome.persistence.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactoryImpl;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.sensor.sensorvalues.SwitchValue;
+import smarthome.domain.sensor.sensorvalues.TemperatureValue;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+import smarthome.persistence.mem.LogRepositoryMem;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LogRepositoryArchiveTest {
+
+    private static final SensorTypeIDVO TEMPERATURE = new SensorTypeIDVO("TemperatureSensor");
+    private static final SensorTypeIDVO SWITCH = new SensorTypeIDVO("SwitchSensor");
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a sensor value factory that rebuilds temperature and switch readings from their text.
+     */
+    private SensorValueFactory createValueFactory() {
+        SensorValueFactory valueFactory = mock(SensorValueFactory.class);
+        when(valueFactory.createSensorValue(anyString(), any(SensorTypeIDVO.class))).thenAnswer(invocation -> {
+            String reading = invocation.getArgument(0);
+            SensorTypeIDVO type = invocation.getArgument(1);
+            return TEMPERATURE.equals(type) ? new TemperatureValue(reading) : new SwitchValue(reading);
+        });
+        return valueFactory;
+    }
+
+    private LogRepositoryArchive createArchive(LogRepositoryMem live) {
+        return new LogRepositoryArchive(live, directory, new LogFactoryImpl(), createValueFactory(), 2);
+    }
+
+    private Log createLog(DeviceIDVO deviceID, SensorTypeIDVO type, String time, SensorValueObject<?> reading) {
+        return new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse(time)), reading,
+                new SensorIDVO(UUID.randomUUID()), deviceID, type);
+    }
+
+    private List<String> times(Iterable<Log> logs) {
+        List<String> times = new ArrayList<>();
+        for (Log log : logs) {
+            times.add(log.getTime().getValue().toString());
+        }
+        return times;
+    }
+
+    /**
+     * This test ensures sealing moves the closed months out of the live repository into segment files, and that
+     * queries still return every log, in time order.
+     */
+    @Test
+    void givenLogsInSeveralMonths_SealBeforeMovesTheClosedMonthsIntoSegments() {
+        // Arrange
+        LogRepositoryMem live = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        LogRepositoryArchive repository = createArchive(live);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("-2.5")));
+        repository.save(createLog(deviceID, SWITCH, "2024-02-01T00:00:00", new SwitchValue("On")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-02-29T23:59:59", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-03-01T00:00:00", new TemperatureValue("-1")));
+        TimeStampVO from = new TimeStampVO(LocalDateTime.parse("2024-01-01T00:00:00"));
+        TimeStampVO to = new TimeStampVO(LocalDateTime.parse("2024-03-31T00:00:00"));
+
+        // Act
+        long moved = repository.sealBefore(YearMonth.of(2024, 3));
+
+        // Assert
+        assertEquals(3, moved);
+        assertEquals(List.of("2024-03-01T00:00"), times(live.findAll()));
+        assertTrue(Files.exists(directory.resolve("logs-2024-01.seg")));
+        assertTrue(Files.exists(directory.resolve("logs-2024-02.seg")));
+        assertEquals(List.of("2024-01-15T10:00", "2024-02-01T00:00", "2024-02-29T23:59:59", "2024-03-01T00:00"),
+                times(repository.findReadingsByDeviceID(deviceID, null, null)));
+        assertEquals(List.of("2024-01-15T10:00", "2024-02-29T23:59:59", "2024-03-01T00:00"),
+                times(repository.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID.getID(), TEMPERATURE.getID(), from, to)));
+        assertEquals(List.of("2024-01-15T10:00", "2024-03-01T00:00"),
+                times(repository.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(UUID.randomUUID().toString(),
+                        TEMPERATURE.getID(), from, to)));
+        assertEquals(List.of("2024-03-01T00:00", "2024-02-29T23:59:59"),
+                times(repository.findLatestReadingsByDeviceID(deviceID, 2)));
+        assertEquals(List.of("2024-01-15T10:00", "2024-02-01T00:00"),
+                times(repository.findReadingsPageByDeviceID(deviceID, null, null, null, 2)));
+    }
+
+    /**
+     * This test ensures a log saved late into a sealed month is found, and is merged into the segment of its month
+     * when the month is sealed again.
+     */
+    @Test
+    void givenLogSavedIntoSealedMonth_QueriesFindItAndSealingAgainMergesIt() {
+        // Arrange
+        LogRepositoryMem live = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        LogRepositoryArchive repository = createArchive(live);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20")));
+        repository.sealBefore(YearMonth.of(2024, 2));
+        Log late = createLog(deviceID, TEMPERATURE, "2024-01-10T10:00:00", new TemperatureValue("19"));
+
+        // Act
+        repository.save(late);
+        List<String> beforeSealing = times(repository.findReadingsByDeviceID(deviceID, null, null));
+        long moved = repository.sealBefore(YearMonth.of(2024, 2));
+        List<String> afterSealing = times(repository.findReadingsByDeviceID(deviceID, null, null));
+
+        // Assert
+        assertEquals(List.of("2024-01-10T10:00", "2024-01-15T10:00"), beforeSealing);
+        assertEquals(1, moved);
+        assertEquals(beforeSealing, afterSealing);
+        assertFalse(live.findAll().iterator().hasNext());
+        assertTrue(repository.isPresent((LogIDVO) late.getId()));
+    }
+
+    /**
+     * This test ensures a log saved into a month while that month is being sealed stays in the live repository, since
+     * sealing only deletes the logs it wrote into the segment.
+     */
+    @Test
+    void givenLogSavedWhileSealing_SealBeforeKeepsItLive() {
+        // Arrange
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Log late = createLog(deviceID, TEMPERATURE, "2024-01-20T10:00:00", new TemperatureValue("19"));
+        LogRepositoryMem live = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory()) {
+            @Override
+            public void streamReadingsBefore(YearMonth month, Consumer<Log> action) {
+                super.streamReadingsBefore(month, action);
+                save(late);
+            }
+        };
+        LogRepositoryArchive repository = createArchive(live);
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20")));
+
+        // Act
+        long moved = repository.sealBefore(YearMonth.of(2024, 2));
+
+        // Assert
+        assertEquals(1, moved);
+        assertEquals(List.of("2024-01-20T10:00"), times(live.findAll()));
+        assertTrue(repository.isPresent((LogIDVO) late.getId()));
+        assertEquals(List.of("2024-01-15T10:00", "2024-01-20T10:00"),
+                times(repository.findReadingsByDeviceID(deviceID, null, null)));
+    }
+
+    /**
+     * This test ensures deleteByIds deletes the given logs from the live repository and rewrites the segments holding
+     * them, deleting a segment left empty.
+     */
+    @Test
+    void givenLiveAndSealedLogs_DeleteByIdsDeletesThemFromBoth() {
+        // Arrange
+        LogRepositoryArchive repository = createArchive(new LogRepositoryMem(new LogFactoryImpl(), createValueFactory()));
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Log january = createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20"));
+        Log february = createLog(deviceID, TEMPERATURE, "2024-02-15T10:00:00", new TemperatureValue("20"));
+        Log kept = createLog(deviceID, TEMPERATURE, "2024-02-16T10:00:00", new TemperatureValue("20"));
+        Log march = createLog(deviceID, TEMPERATURE, "2024-03-15T10:00:00", new TemperatureValue("20"));
+        repository.save(january);
+        repository.save(february);
+        repository.save(kept);
+        repository.sealBefore(YearMonth.of(2024, 3));
+        repository.save(march);
+
+        // Act
+        long deleted = repository.deleteByIds(List.of((LogIDVO) january.getId(), (LogIDVO) february.getId(),
+                (LogIDVO) march.getId()));
+
+        // Assert
+        assertEquals(3, deleted);
+        assertFalse(Files.exists(directory.resolve("logs-2024-01.seg")));
+        assertTrue(Files.exists(directory.resolve("logs-2024-02.seg")));
+        assertEquals(List.of("2024-02-16T10:00"), times(repository.findAll()));
+        assertThrows(IllegalArgumentException.class, () -> repository.deleteByIds(null));
+    }
+
+    /**
+     * This test ensures the segments written by a repository are found again by a repository opened on the same
+     * directory.
+     */
+    @Test
+    void givenSegmentsInDirectory_NewRepositoryReadsThem() {
+        // Arrange
+        LogRepositoryArchive repository = createArchive(new LogRepositoryMem(new LogFactoryImpl(), createValueFactory()));
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Log log = createLog(deviceID, SWITCH, "2024-01-15T10:00:00", new SwitchValue("Off"));
+        repository.save(log);
+        repository.sealBefore(YearMonth.of(2024, 2));
+        repository.close();
+
+        // Act
+        LogRepositoryArchive reopened = createArchive(new LogRepositoryMem(new LogFactoryImpl(), createValueFactory()));
+        Log result = reopened.findById((LogIDVO) log.getId());
+
+        // Assert
+        assertEquals(log.getTime(), result.getTime());
+        assertEquals("Off", result.getReading().getValue());
+        assertEquals(List.of("2024-01-15T10:00"), times(reopened.findAll()));
+    }
+
+    /**
+     * This test ensures deletePartitionsBefore deletes the expired segments as well as the expired live months.
+     */
+    @Test
+    void givenSealedAndLiveMonths_DeletePartitionsBeforeDropsBoth() {
+        // Arrange
+        LogRepositoryArchive repository = createArchive(new LogRepositoryMem(new LogFactoryImpl(), createValueFactory()));
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-16T10:00:00", new TemperatureValue("20")));
+        repository.sealBefore(YearMonth.of(2024, 2));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-02-15T10:00:00", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-03-15T10:00:00", new TemperatureValue("20")));
+
+        // Act
+        long deleted = repository.deletePartitionsBefore(YearMonth.of(2024, 3));
+
+        // Assert
+        assertEquals(3, deleted);
+        assertFalse(Files.exists(directory.resolve("logs-2024-01.seg")));
+        assertEquals(List.of("2024-03-15T10:00"), times(repository.findAll()));
+    }
+
+    /**
+     * This test ensures the repository cannot be created without its collaborators or with a sealing delay of less
+     * than a month.
+     */
+    @Test
+    void givenInvalidParameters_ConstructorThrowsException() {
+        // Arrange
+        LogRepositoryMem live = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        LogFactoryImpl logFactory = new LogFactoryImpl();
+        SensorValueFactory valueFactory = createValueFactory();
+
+        // Act + Assert
+        assertThrows(IllegalArgumentException.class, () -> new LogRepositoryArchive(null, directory, logFactory, valueFactory, 2));
+        assertThrows(IllegalArgumentException.class, () -> new LogRepositoryArchive(live, null, logFactory, valueFactory, 2));
+        assertThrows(IllegalArgumentException.class, () -> new LogRepositoryArchive(live, directory, logFactory, valueFactory, 0));
+    }
+}
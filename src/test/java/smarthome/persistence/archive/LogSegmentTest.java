@@ -0,0 +1,204 @@
+package smarthome.persistence.archive;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactoryImpl;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.sensor.sensorvalues.SwitchValue;
+import smarthome.domain.sensor.sensorvalues.TemperatureValue;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LogSegmentTest {
+
+    private static final SensorTypeIDVO TEMPERATURE = new SensorTypeIDVO("TemperatureSensor");
+    private static final SensorTypeIDVO POWER = new SensorTypeIDVO("PowerConsumptionSensor");
+    private static final SensorTypeIDVO SWITCH = new SensorTypeIDVO("SwitchSensor");
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Creates a sensor value factory that rebuilds temperature, power and switch readings from their text.
+     */
+    private SensorValueFactory createValueFactory() {
+        SensorValueFactory valueFactory = mock(SensorValueFactory.class);
+        when(valueFactory.createSensorValue(anyString(), any(SensorTypeIDVO.class))).thenAnswer(invocation -> {
+            String reading = invocation.getArgument(0);
+            SensorTypeIDVO type = invocation.getArgument(1);
+            if (TEMPERATURE.equals(type)) {
+                return new TemperatureValue(reading);
+            }
+            return POWER.equals(type) ? power(Integer.parseInt(reading)) : new SwitchValue(reading);
+        });
+        return valueFactory;
+    }
+
+    private static SensorValueObject<Integer> power(int watts) {
+        return () -> watts;
+    }
+
+    private Log createLog(DeviceIDVO deviceID, SensorIDVO sensorID, SensorTypeIDVO type, LocalDateTime time,
+                          SensorValueObject<?> reading) {
+        return new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(time), reading, sensorID, deviceID, type);
+    }
+
+    private List<String> describe(List<Log> logs) {
+        List<String> descriptions = new ArrayList<>();
+        for (Log log : logs) {
+            descriptions.add(log.getTime().getValue() + " " + log.getId().getID() + " " + log.getDeviceID().getID() + " "
+                    + log.getSensorID().getID() + " " + log.getSensorTypeID().getID() + " " + log.getReading().getValue());
+        }
+        return descriptions;
+    }
+
+    /**
+     * This test ensures every attribute of every log is read back from a segment, whatever the type of its reading,
+     * in (time, log ID) order.
+     */
+    @Test
+    void givenLogsOfSeveralSeries_ReadAllReturnsTheSameLogsInOrder() throws IOException {
+        // Arrange
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        SensorIDVO otherSensorID = new SensorIDVO(UUID.randomUUID());
+        LocalDateTime start = LocalDateTime.parse("2024-01-01T00:00:00");
+        List<Log> logs = new ArrayList<>();
+        logs.add(createLog(deviceID, sensorID, TEMPERATURE, start.plusSeconds(60), new TemperatureValue("21.5")));
+        logs.add(createLog(deviceID, otherSensorID, TEMPERATURE, start.plusSeconds(120), new TemperatureValue("-3.25")));
+        logs.add(createLog(deviceID, sensorID, TEMPERATURE, start.plusDays(20), new TemperatureValue("21.5")));
+        logs.add(createLog(deviceID, sensorID, POWER, start.plusSeconds(59), power(-1500)));
+        logs.add(createLog(deviceID, sensorID, POWER, start.plusSeconds(59), power(Integer.MAX_VALUE)));
+        logs.add(createLog(otherDeviceID, otherSensorID, SWITCH, start, new SwitchValue("On")));
+        logs.add(createLog(otherDeviceID, otherSensorID, SWITCH, start.plusHours(5), new SwitchValue("Off")));
+        Path file = directory.resolve("logs-2024-01.seg");
+
+        // Act
+        LogSegment.write(file, YearMonth.of(2024, 1), logs);
+        LogSegment segment = LogSegment.open(file);
+        List<Log> result = segment.readAll(new LogFactoryImpl(), createValueFactory());
+
+        // Assert
+        logs.sort(LogSegment.ORDER);
+        assertEquals(describe(logs), describe(result));
+        assertEquals(YearMonth.of(2024, 1), segment.getMonth());
+        assertEquals(7, segment.getLogCount());
+    }
+
+    /**
+     * This test ensures a read only returns the logs of the accepted series within the time period, and only the
+     * negative ones when asked to.
+     */
+    @Test
+    void givenSeriesFilterAndPeriod_ReadReturnsOnlyTheMatchingLogs() throws IOException {
+        // Arrange
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        LocalDateTime start = LocalDateTime.parse("2024-02-01T00:00:00");
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            logs.add(createLog(deviceID, sensorID, TEMPERATURE, start.plusHours(i), new TemperatureValue(String.valueOf(i - 5.5))));
+            logs.add(createLog(deviceID, sensorID, SWITCH, start.plusHours(i), new SwitchValue("On")));
+        }
+        Path file = directory.resolve("logs-2024-02.seg");
+        LogSegment.write(file, YearMonth.of(2024, 2), logs);
+        LogSegment segment = LogSegment.open(file);
+        long from = start.plusHours(2).toEpochSecond(ZoneOffset.UTC);
+        long to = start.plusHours(7).toEpochSecond(ZoneOffset.UTC);
+
+        // Act
+        List<Log> temperatures = segment.read((device, type) -> type.equals(TEMPERATURE.getID()), from, to, false,
+                new LogFactoryImpl(), createValueFactory());
+        List<Log> negatives = segment.read((device, type) -> true, from, to, true, new LogFactoryImpl(), createValueFactory());
+
+        // Assert
+        assertEquals(6, temperatures.size());
+        assertEquals(-3.5, temperatures.get(0).getReading().getValue());
+        assertEquals(4, negatives.size());
+        assertTrue(negatives.stream().allMatch(log -> (Double) log.getReading().getValue() < 0));
+    }
+
+    /**
+     * This test ensures readings taken at a regular interval with slowly changing values take a few bytes each,
+     * most of them being the log ID.
+     */
+    @Test
+    void givenRegularReadings_SegmentStoresThemInAFewBytesEach() throws IOException {
+        // Arrange
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        LocalDateTime start = LocalDateTime.parse("2024-03-01T00:00:00");
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 1440; i++) {
+            logs.add(createLog(deviceID, sensorID, TEMPERATURE, start.plusMinutes(i), new TemperatureValue(String.valueOf(20 + i / 60))));
+        }
+        Path file = directory.resolve("logs-2024-03.seg");
+
+        // Act
+        LogSegment.write(file, YearMonth.of(2024, 3), logs);
+
+        // Assert
+        assertTrue(Files.size(file) < 1440 * 18L);
+    }
+
+    /**
+     * This test ensures a log is found by its ID, and that an unknown ID is not found.
+     */
+    @Test
+    void givenLogID_FindByIdReturnsTheLogOrNull() throws IOException {
+        // Arrange
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        LocalDateTime start = LocalDateTime.parse("2024-04-01T00:00:00");
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            logs.add(createLog(deviceID, sensorID, POWER, start.plusMinutes(i), power(i * 100)));
+        }
+        Path file = directory.resolve("logs-2024-04.seg");
+        LogSegment.write(file, YearMonth.of(2024, 4), logs);
+        LogSegment segment = LogSegment.open(file);
+        Log expected = logs.get(3);
+
+        // Act
+        Log result = segment.findById(UUID.fromString(expected.getId().getID()), new LogFactoryImpl(), createValueFactory());
+        Log missing = segment.findById(UUID.randomUUID(), new LogFactoryImpl(), createValueFactory());
+
+        // Assert
+        assertEquals(describe(List.of(expected)), describe(List.of(result)));
+        assertNull(missing);
+    }
+
+    /**
+     * This test ensures a file that is not a segment is rejected when opened.
+     */
+    @Test
+    void givenFileThatIsNotASegment_OpenThrowsException() throws IOException {
+        // Arrange
+        Path file = Files.writeString(directory.resolve("logs-2024-05.seg"), "not a segment");
+
+        // Act + Assert
+        assertThrows(IOException.class, () -> LogSegment.open(file));
+    }
+}
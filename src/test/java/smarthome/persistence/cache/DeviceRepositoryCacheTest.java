@@ -0,0 +1,151 @@
+package smarthome.persistence.cache;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.device.Device;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.devicevo.DeviceModelVO;
+import smarthome.domain.vo.devicevo.DeviceNameVO;
+import smarthome.domain.vo.devicevo.DeviceStatusVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.persistence.DeviceRepository;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DeviceRepositoryCacheTest {
+
+    /**
+     * This test ensures the constructor rejects a null repository or cache.
+     */
+    @Test
+    void givenNullParameters_ConstructorThrowsIllegalArgumentException() {
+        // Arrange
+        DeviceRepository delegate = mock(DeviceRepository.class);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new DeviceRepositoryCache(null, new RepositoryCache<>(10)));
+        assertThrows(IllegalArgumentException.class, () -> new DeviceRepositoryCache(delegate, null));
+    }
+
+    /**
+     * This test ensures repeated lookups of the same device only reach the wrapped repository once.
+     */
+    @Test
+    void givenRepeatedLookups_FindByIdReadsWrappedRepositoryOnce() {
+        // Arrange
+        DeviceRepository delegate = mock(DeviceRepository.class);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Device device = mock(Device.class);
+        when(delegate.findById(deviceID)).thenReturn(device);
+        DeviceRepositoryCache repository = new DeviceRepositoryCache(delegate, new RepositoryCache<>(10));
+
+        // Act
+        Device first = repository.findById(deviceID);
+        Device second = repository.findById(deviceID);
+        boolean present = repository.isPresent(deviceID);
+
+        // Assert
+        assertSame(device, first);
+        assertSame(device, second);
+        assertTrue(present);
+        verify(delegate, times(1)).findById(deviceID);
+        verify(delegate, never()).isPresent(deviceID);
+        assertEquals(2, repository.getCache().getHits());
+    }
+
+    /**
+     * This test ensures updating a device drops its cached copy, so the next lookup reads the updated device.
+     */
+    @Test
+    void givenUpdatedDevice_FindByIdReadsItAgain() {
+        // Arrange
+        DeviceRepository delegate = mock(DeviceRepository.class);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Device before = mock(Device.class);
+        Device after = mock(Device.class);
+        when(after.getId()).thenReturn(deviceID);
+        when(delegate.findById(deviceID)).thenReturn(before, after);
+        when(delegate.update(after)).thenReturn(true);
+        DeviceRepositoryCache repository = new DeviceRepositoryCache(delegate, new RepositoryCache<>(10));
+        repository.findById(deviceID);
+
+        // Act
+        boolean updated = repository.update(after);
+        Device result = repository.findById(deviceID);
+
+        // Assert
+        assertTrue(updated);
+        assertSame(after, result);
+        verify(delegate, times(2)).findById(deviceID);
+    }
+
+    /**
+     * This test ensures saving a device drops any cached copy of it.
+     */
+    @Test
+    void givenSavedDevice_CachedCopyIsInvalidated() {
+        // Arrange
+        DeviceRepository delegate = mock(DeviceRepository.class);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Device device = mock(Device.class);
+        when(device.getId()).thenReturn(deviceID);
+        when(delegate.findById(deviceID)).thenReturn(device);
+        when(delegate.save(device)).thenReturn(true);
+        DeviceRepositoryCache repository = new DeviceRepositoryCache(delegate, new RepositoryCache<>(10));
+        repository.findById(deviceID);
+
+        // Act
+        boolean saved = repository.save(device);
+
+        // Assert
+        assertTrue(saved);
+        assertEquals(0, repository.getCache().getSize());
+        assertEquals(1, repository.getCache().getInvalidations());
+    }
+
+    /**
+     * This test ensures deactivating a device looked up through a cache with a copier, without updating it, does not
+     * change the device the cache hands out next.
+     */
+    @Test
+    void givenCopier_DeactivatingFoundDeviceDoesNotChangeCachedDevice() {
+        // Arrange
+        DeviceRepository delegate = mock(DeviceRepository.class);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Device device = new Device(deviceID, new DeviceNameVO("Heater"), new DeviceModelVO("XPTO 3000"),
+                new DeviceStatusVO(true), new RoomIDVO(UUID.randomUUID()));
+        when(delegate.findById(deviceID)).thenReturn(device);
+        RepositoryCache<DeviceIDVO, Device> cache = new RepositoryCache<>(10, cached -> new Device(cached.getId(),
+                cached.getDeviceName(), cached.getDeviceModel(), cached.getDeviceStatus(), cached.getRoomID()));
+        DeviceRepositoryCache repository = new DeviceRepositoryCache(delegate, cache);
+
+        // Act
+        repository.findById(deviceID).deactivateDevice();
+        Device result = repository.findById(deviceID);
+
+        // Assert
+        assertTrue(result.isActive());
+        assertNotSame(device, result);
+        verify(delegate, times(1)).findById(deviceID);
+    }
+
+    /**
+     * This test ensures a device the wrapped repository does not find is not cached.
+     */
+    @Test
+    void givenMissingDevice_FindByIdReturnsNullAndCachesNothing() {
+        // Arrange
+        DeviceRepository delegate = mock(DeviceRepository.class);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceRepositoryCache repository = new DeviceRepositoryCache(delegate, new RepositoryCache<>(10));
+
+        // Act
+        Device result = repository.findById(deviceID);
+
+        // Assert
+        assertNull(result);
+        assertEquals(0, repository.getCache().getSize());
+    }
+}
@@ -0,0 +1,185 @@
+package smarthome.persistence.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryCacheTest {
+
+    /**
+     * This test ensures the constructor rejects a capacity that is not positive.
+     */
+    @Test
+    void givenInvalidCapacity_ConstructorThrowsIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryCache<String, String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new RepositoryCache<String, String>(10, null));
+    }
+
+    /**
+     * This test ensures a cache with a copier keeps its own copy of a loaded entity and hands out a new copy on every
+     * hit, so changing an entity got from the cache changes neither the cached one nor the ones got by other callers.
+     */
+    @Test
+    void givenCopier_GetNeverHandsOutTheCachedEntity() {
+        // Arrange
+        RepositoryCache<String, StringBuilder> cache = new RepositoryCache<>(10, StringBuilder::new);
+        StringBuilder loaded = new StringBuilder("a");
+
+        // Act
+        StringBuilder first = cache.get("a", id -> loaded);
+        first.append("-changed");
+        StringBuilder second = cache.get("a", id -> new StringBuilder("reloaded"));
+        second.append("-changed");
+        StringBuilder third = cache.get("a", id -> new StringBuilder("reloaded"));
+
+        // Assert
+        assertSame(loaded, first);
+        assertEquals("a-changed", second.toString());
+        assertEquals("a", third.toString());
+        assertNotSame(second, third);
+        assertEquals(2, cache.getHits());
+    }
+
+    /**
+     * This test ensures a missing entry is loaded once and then answered by the cache, and that the lookups are
+     * counted as one miss and one hit.
+     */
+    @Test
+    void givenMissingEntry_GetLoadsItOnceAndThenHits() {
+        // Arrange
+        RepositoryCache<String, String> cache = new RepositoryCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        String first = cache.get("a", id -> id + loads.incrementAndGet());
+        String second = cache.get("a", id -> id + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("a1", first);
+        assertEquals("a1", second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(0.5, cache.getHitRatio());
+        assertEquals(1, cache.getSize());
+    }
+
+    /**
+     * This test ensures an entity the loader does not find is not cached, so it is looked up again.
+     */
+    @Test
+    void givenLoaderReturningNull_GetDoesNotCacheIt() {
+        // Arrange
+        RepositoryCache<String, String> cache = new RepositoryCache<>(10);
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        cache.get("a", id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        String result = cache.get("a", id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        // Assert
+        assertNull(result);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getSize());
+    }
+
+    /**
+     * This test ensures that once the cache is full, the least recently used entry is evicted.
+     */
+    @Test
+    void givenFullCache_GetEvictsLeastRecentlyUsedEntry() {
+        // Arrange
+        RepositoryCache<String, String> cache = new RepositoryCache<>(2);
+        cache.get("a", id -> id);
+        cache.get("b", id -> id);
+        cache.get("a", id -> id);
+
+        // Act
+        cache.get("c", id -> id);
+
+        // Assert
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+    }
+
+    /**
+     * This test ensures an invalidated entry is loaded again on the next lookup.
+     */
+    @Test
+    void givenInvalidatedEntry_GetLoadsItAgain() {
+        // Arrange
+        RepositoryCache<String, String> cache = new RepositoryCache<>(10);
+        cache.get("a", id -> "old");
+
+        // Act
+        cache.invalidate("a");
+        String result = cache.get("a", id -> "new");
+
+        // Assert
+        assertEquals("new", result);
+        assertEquals(1, cache.getInvalidations());
+    }
+
+    /**
+     * This test ensures an entry loaded while it was being invalidated is returned to its caller but not kept, so
+     * the cache does not hold a copy read before the write.
+     */
+    @Test
+    void givenInvalidationDuringLoad_GetDoesNotKeepLoadedEntry() throws InterruptedException {
+        // Arrange
+        RepositoryCache<String, String> cache = new RepositoryCache<>(10);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        Thread reader = new Thread(() -> cache.get("a", id -> {
+            loading.countDown();
+            try {
+                invalidated.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "stale";
+        }));
+        reader.start();
+        loading.await();
+
+        // Act
+        cache.invalidate("a");
+        invalidated.countDown();
+        reader.join();
+
+        // Assert
+        assertEquals(0, cache.getSize());
+        assertEquals("fresh", cache.get("a", id -> "fresh"));
+    }
+
+    /**
+     * This test ensures clear() drops every entry.
+     */
+    @Test
+    void givenCachedEntries_ClearDropsThemAll() {
+        // Arrange
+        RepositoryCache<String, String> cache = new RepositoryCache<>(10);
+        cache.get("a", id -> id);
+        cache.get("b", id -> id);
+
+        // Act
+        cache.clear();
+
+        // Assert
+        assertEquals(0, cache.getSize());
+        assertFalse(cache.contains("a"));
+    }
+}
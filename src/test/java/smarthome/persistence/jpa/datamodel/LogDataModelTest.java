@@ -0,0 +1,78 @@
+package smarthome.persistence.jpa.datamodel;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.log.Log;
+import smarthome.domain.sensor.sensorvalues.HumidityValue;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.sensor.sensorvalues.TemperatureValue;
+import smarthome.domain.sensor.sensorvalues.WindValue;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogDataModelTest {
+
+    private Log createLog(SensorValueObject<?> reading) {
+        return new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:00")),
+                reading, new SensorIDVO(UUID.randomUUID()), new DeviceIDVO(UUID.randomUUID()),
+                new SensorTypeIDVO("TemperatureSensor"));
+    }
+
+    /**
+     * Test to verify that a decimal reading is stored both as text and in the numeric reading column.
+     */
+    @Test
+    void givenDecimalReading_ConstructorStoresItInTheNumericColumn() {
+        // Arrange
+        Log log = createLog(new TemperatureValue("-2.5"));
+
+        // Act
+        LogDataModel dataModel = new LogDataModel(log);
+
+        // Assert
+        assertEquals("-2.5", dataModel.getReading());
+        assertEquals(-2.5, dataModel.getReadingNumeric());
+        assertEquals(LogDataModel.ReadingType.DECIMAL, dataModel.getReadingType());
+    }
+
+    /**
+     * Test to verify that an integer reading is stored both as text and in the numeric reading column.
+     */
+    @Test
+    void givenIntegerReading_ConstructorStoresItInTheNumericColumn() {
+        // Arrange
+        Log log = createLog(new HumidityValue("50"));
+
+        // Act
+        LogDataModel dataModel = new LogDataModel(log);
+
+        // Assert
+        assertEquals("50", dataModel.getReading());
+        assertEquals(50.0, dataModel.getReadingNumeric());
+        assertEquals(LogDataModel.ReadingType.INTEGER, dataModel.getReadingType());
+    }
+
+    /**
+     * Test to verify that a non-numeric reading is only stored as text, leaving the numeric reading column null.
+     */
+    @Test
+    void givenTextReading_ConstructorLeavesTheNumericColumnNull() {
+        // Arrange
+        Log log = createLog(new WindValue("44:W"));
+
+        // Act
+        LogDataModel dataModel = new LogDataModel(log);
+
+        // Assert
+        assertNotNull(dataModel.getReading());
+        assertNull(dataModel.getReadingNumeric());
+        assertEquals(LogDataModel.ReadingType.TEXT, dataModel.getReadingType());
+    }
+}
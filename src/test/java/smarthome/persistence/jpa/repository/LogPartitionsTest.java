@@ -0,0 +1,42 @@
+package smarthome.persistence.jpa.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogPartitionsTest {
+
+    /**
+     * This test ensures the name of a monthly partition is made of its year and month, and reads back as that month,
+     * while the overflow partition reads as no month.
+     */
+    @Test
+    void givenMonth_PartitionNameReadsBackAsTheSameMonth() {
+        // Act
+        String name = LogPartitions.partitionName(YearMonth.of(2024, 1));
+
+        // Assert
+        assertEquals("p202401", name);
+        assertEquals(YearMonth.of(2024, 1), LogPartitions.monthOf(name));
+        assertNull(LogPartitions.monthOf("pmax"));
+    }
+
+    /**
+     * This test ensures splitting the overflow partition gives each month of the period its own partition, bounded
+     * by the first day of the next month, and keeps the overflow partition last, across the turn of a year.
+     */
+    @Test
+    void givenPeriod_SplitOverflowStatementAddsOnePartitionPerMonthBeforeTheOverflow() {
+        // Act
+        String statement = LogPartitions.splitOverflowStatement(YearMonth.of(2024, 11), YearMonth.of(2025, 1));
+
+        // Assert
+        assertEquals("ALTER TABLE LOG REORGANIZE PARTITION pmax INTO (" +
+                "PARTITION p202411 VALUES LESS THAN ('2024-12-01 00:00:00'), " +
+                "PARTITION p202412 VALUES LESS THAN ('2025-01-01 00:00:00'), " +
+                "PARTITION p202501 VALUES LESS THAN ('2025-02-01 00:00:00'), " +
+                "PARTITION pmax VALUES LESS THAN (MAXVALUE))", statement);
+    }
+}
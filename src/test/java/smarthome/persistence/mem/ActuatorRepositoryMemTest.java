@@ -6,6 +6,7 @@ import org.apache.commons.collections4.IterableUtils;
 import org.junit.jupiter.api.Test;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -277,12 +278,12 @@ class ActuatorRepositoryMemTest {
         when(actuatorDoubleTwo.getId()).thenReturn(actuatorIDVO2);
 
         ActuatorRepositoryMem repository = new ActuatorRepositoryMem();
-        repository.save(actuatorDoubleOne);
-        repository.save(actuatorDoubleTwo);
-
         when(actuatorDoubleOne.getDeviceID()).thenReturn(deviceIDVO);
         when(actuatorDoubleTwo.getDeviceID()).thenReturn(deviceIDVO);
 
+        repository.save(actuatorDoubleOne);
+        repository.save(actuatorDoubleTwo);
+
         //Act
         List<Actuator> actuators = repository.findByDeviceID(deviceIDVO);
 
@@ -315,4 +316,49 @@ class ActuatorRepositoryMemTest {
         assertEquals(0, actuators.size());
     }
 
+    /**
+     * This test case verifies that saveAll() stores new actuators and replaces the ones already stored with the same
+     * ID, so their new state is returned by the lookups by ID and by device.
+     */
+    @Test
+    void givenNewAndStoredActuators_whenSaveAll_ThenAllAreSavedAndReplaced() {
+        //Arrange
+        ActuatorIDVO idDouble = mock(ActuatorIDVO.class);
+        DeviceIDVO deviceIDVO = mock(DeviceIDVO.class);
+        Actuator stored = mock(Actuator.class);
+        Actuator updated = mock(Actuator.class);
+        Actuator newActuator = mock(Actuator.class);
+        when(stored.getId()).thenReturn(idDouble);
+        when(updated.getId()).thenReturn(idDouble);
+        when(newActuator.getId()).thenReturn(mock(ActuatorIDVO.class));
+        when(stored.getDeviceID()).thenReturn(deviceIDVO);
+        when(updated.getDeviceID()).thenReturn(deviceIDVO);
+        when(newActuator.getDeviceID()).thenReturn(deviceIDVO);
+
+        ActuatorRepositoryMem repository = new ActuatorRepositoryMem();
+        repository.save(stored);
+
+        //Act
+        List<Boolean> results = repository.saveAll(List.of(updated, newActuator));
+
+        //Assert
+        assertEquals(List.of(true, true), results);
+        assertEquals(updated, repository.findById(idDouble));
+        assertEquals(List.of(updated, newActuator), repository.findByDeviceID(deviceIDVO));
+    }
+
+    /**
+     * This test case verifies that saveAll() throws IllegalArgumentException for a null list or a null actuator.
+     */
+    @Test
+    void givenNullActuators_whenSaveAll_ThenThrowsIllegalArgumentException() {
+        //Arrange
+        ActuatorRepositoryMem repository = new ActuatorRepositoryMem();
+        List<Actuator> withNull = new ArrayList<>();
+        withNull.add(null);
+
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(null));
+        assertThrows(IllegalArgumentException.class, () -> repository.saveAll(withNull));
+    }
 }
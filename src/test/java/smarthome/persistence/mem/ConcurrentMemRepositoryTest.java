@@ -0,0 +1,179 @@
+package smarthome.persistence.mem;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.actuator.SwitchActuator;
+import smarthome.domain.device.Device;
+import smarthome.domain.sensor.Sensor;
+import smarthome.domain.sensor.SensorFactoryImpl;
+import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
+import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.devicevo.DeviceModelVO;
+import smarthome.domain.vo.devicevo.DeviceNameVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorNameVO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests of the in-memory repositories under concurrent request threads: writers save devices, sensors and
+ * actuators while readers iterate over every snapshot the repositories hand out.
+ */
+class ConcurrentMemRepositoryTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int DEVICES_PER_WRITER = 2_000;
+    private static final int ROOMS = 10;
+
+    /**
+     * Verifies that readers never fail while writers save, and that once the writers are done every device, sensor
+     * and actuator was saved exactly once and can be found through the indexes.
+     */
+    @Test
+    void givenConcurrentWritersAndReaders_whenSaving_thenReadersNeverFailAndEverythingIsSavedOnce() throws Exception {
+        // Arrange
+        SensorFactoryImpl sensorFactory = new SensorFactoryImpl("config.properties");
+        SensorTypeIDVO temperature = new SensorTypeIDVO("TemperatureSensor");
+        ActuatorTypeIDVO switchType = new ActuatorTypeIDVO("SwitchActuator");
+        RoomIDVO[] rooms = new RoomIDVO[ROOMS];
+        for (int i = 0; i < ROOMS; i++) {
+            rooms[i] = new RoomIDVO(UUID.randomUUID());
+        }
+        SensorRepositoryMem sensorRepository = new SensorRepositoryMem();
+        ActuatorRepositoryMem actuatorRepository = new ActuatorRepositoryMem();
+        DeviceRepositoryMem deviceRepository = new DeviceRepositoryMem(sensorRepository, actuatorRepository);
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<Integer>> writers = new ArrayList<>();
+        List<Future<Long>> readers = new ArrayList<>();
+
+        // Act
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                int saved = 0;
+                for (int i = 0; i < DEVICES_PER_WRITER; i++) {
+                    Device device = new Device(new DeviceNameVO("Device" + i), new DeviceModelVO("Model"), rooms[i % ROOMS]);
+                    DeviceIDVO deviceID = device.getId();
+                    Sensor sensor = sensorFactory.createSensor(new SensorNameVO("Sensor"), deviceID, temperature);
+                    if (deviceRepository.save(device)
+                            && sensorRepository.save(sensor)
+                            && actuatorRepository.save(new SwitchActuator(new ActuatorNameVO("Switch"), switchType, deviceID))
+                            && deviceRepository.update(device)) {
+                        saved++;
+                    }
+                }
+                return saved;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(executor.submit(() -> {
+                start.await();
+                long seen = 0;
+                while (writing.get()) {
+                    for (Device device : deviceRepository.findAll()) {
+                        seen += sensorRepository.findByDeviceID(device.getId()).iterator().hasNext() ? 1 : 0;
+                    }
+                    seen += deviceRepository.findByRoomID(rooms[(int) (seen % ROOMS)]).size();
+                    for (Sensor ignored : sensorRepository.findBySensorTypeId(temperature)) {
+                        seen++;
+                    }
+                    seen += deviceRepository.findGroupedByFunctionality().size();
+                }
+                return seen;
+            }));
+        }
+        start.countDown();
+        int saved = 0;
+        for (Future<Integer> writer : writers) {
+            saved += writer.get(1, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+        for (Future<Long> reader : readers) {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Assert
+        int expected = WRITERS * DEVICES_PER_WRITER;
+        assertEquals(expected, saved);
+        assertEquals(expected, ((List<Device>) deviceRepository.findAll()).size());
+        int inRooms = 0;
+        for (RoomIDVO room : rooms) {
+            inRooms += deviceRepository.findByRoomID(room).size();
+        }
+        assertEquals(expected, inRooms);
+        int sensors = 0;
+        for (Device device : deviceRepository.findAll()) {
+            assertEquals(1, actuatorRepository.findByDeviceID(device.getId()).size());
+            for (Sensor ignored : sensorRepository.findByDeviceID(device.getId())) {
+                sensors++;
+            }
+        }
+        assertEquals(expected, sensors);
+        assertEquals(expected, deviceRepository.findGroupedByFunctionality().get("SwitchActuator").size());
+    }
+
+    /**
+     * Verifies that concurrent saves of the same entity store it once, and only one of them reports success.
+     */
+    @Test
+    void givenConcurrentSavesOfTheSameDevice_whenSaving_thenOnlyOneSucceeds() throws Exception {
+        // Arrange
+        DeviceRepositoryMem deviceRepository = new DeviceRepositoryMem();
+        Device device = new Device(new DeviceNameVO("Device"), new DeviceModelVO("Model"), new RoomIDVO(UUID.randomUUID()));
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> saves = new ArrayList<>();
+
+        // Act
+        for (int w = 0; w < WRITERS; w++) {
+            saves.add(executor.submit(() -> {
+                start.await();
+                return deviceRepository.save(device);
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Boolean> save : saves) {
+            succeeded += save.get(1, TimeUnit.MINUTES) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, succeeded);
+        assertEquals(1, deviceRepository.findByRoomID(device.getRoomID()).size());
+    }
+
+    /**
+     * Verifies that a snapshot returned by findAll() is not changed by later saves.
+     */
+    @Test
+    void givenSnapshotFromFindAll_whenSavingAfterwards_thenSnapshotIsUnchanged() {
+        // Arrange
+        DeviceRepositoryMem deviceRepository = new DeviceRepositoryMem();
+        RoomIDVO room = new RoomIDVO(UUID.randomUUID());
+        deviceRepository.save(new Device(new DeviceNameVO("Device1"), new DeviceModelVO("Model"), room));
+        Iterable<Device> snapshot = deviceRepository.findAll();
+
+        // Act
+        deviceRepository.save(new Device(new DeviceNameVO("Device2"), new DeviceModelVO("Model"), room));
+
+        // Assert
+        assertEquals(1, ((List<Device>) snapshot).size());
+    }
+}
@@ -1,11 +1,19 @@
 package smarthome.persistence.mem;
 
+import smarthome.domain.actuator.Actuator;
 import smarthome.domain.device.Device;
+import smarthome.domain.sensor.Sensor;
+import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
+import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -239,12 +247,12 @@ class DeviceRepositoryMemTest {
         when(device1.getId()).thenReturn(deviceID1);
         when(device2.getId()).thenReturn(deviceID2);
 
-        deviceRepositoryMem.save(device1);
-        deviceRepositoryMem.save(device2);
-
         when(device1.getRoomID()).thenReturn(roomID);
         when(device2.getRoomID()).thenReturn(roomID);
 
+        deviceRepositoryMem.save(device1);
+        deviceRepositoryMem.save(device2);
+
         //Act
         List<Device> listOfDevicesInARoom = deviceRepositoryMem.findByRoomID(roomID);
 
@@ -299,18 +307,14 @@ class DeviceRepositoryMemTest {
         when(device2.getId()).thenReturn(deviceID2);
         when(device3.getId()).thenReturn(deviceID3);
 
-        deviceRepositoryMem.save(device1);
-        deviceRepositoryMem.save(device2);
-        deviceRepositoryMem.save(device3);
-
-        when(device1.getRoomID()).thenReturn(roomID);
-        when(device2.getRoomID()).thenReturn(roomID2);
-        when(device3.getRoomID()).thenReturn(roomID);
-
         when(device1.getRoomID()).thenReturn(roomID);
         when(device2.getRoomID()).thenReturn(roomID);
         when(device3.getRoomID()).thenReturn(roomID2);
 
+        deviceRepositoryMem.save(device1);
+        deviceRepositoryMem.save(device2);
+        deviceRepositoryMem.save(device3);
+
         //Act
         List<Device> listOfDevicesInARoom = deviceRepositoryMem.findByRoomID(roomID);
 
@@ -319,4 +323,173 @@ class DeviceRepositoryMemTest {
         assertTrue(listOfDevicesInARoom.contains(device2));
         assertFalse(listOfDevicesInARoom.contains(device3));
     }
-}
\ No newline at end of file
+
+    /**
+     * This test ensures that updating a device that moved to another room moves it between the room indexes.
+     */
+    @Test
+    void givenDeviceMovedToAnotherRoom_whenUpdate_thenFindByRoomIDReturnsItOnlyInTheNewRoom() {
+        //Arrange
+        DeviceRepositoryMem deviceRepositoryMem = new DeviceRepositoryMem();
+        RoomIDVO roomID = mock(RoomIDVO.class);
+        RoomIDVO roomID2 = mock(RoomIDVO.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+
+        Device device = mock(Device.class);
+        when(device.getId()).thenReturn(deviceID);
+        when(device.getRoomID()).thenReturn(roomID);
+        deviceRepositoryMem.save(device);
+
+        Device movedDevice = mock(Device.class);
+        when(movedDevice.getId()).thenReturn(deviceID);
+        when(movedDevice.getRoomID()).thenReturn(roomID2);
+
+        //Act
+        boolean result = deviceRepositoryMem.update(movedDevice);
+
+        //Assert
+        assertTrue(result);
+        assertTrue(deviceRepositoryMem.findByRoomID(roomID).isEmpty());
+        assertEquals(List.of(movedDevice), deviceRepositoryMem.findByRoomID(roomID2));
+    }
+
+    /**
+     * This test ensures that updating a device in the same room replaces it in place in the room index.
+     */
+    @Test
+    void givenDeviceInSameRoom_whenUpdate_thenFindByRoomIDReturnsUpdatedDeviceInSavedOrder() {
+        //Arrange
+        DeviceRepositoryMem deviceRepositoryMem = new DeviceRepositoryMem();
+        RoomIDVO roomID = mock(RoomIDVO.class);
+
+        Device device1 = mock(Device.class);
+        Device device2 = mock(Device.class);
+        Device updatedDevice1 = mock(Device.class);
+        DeviceIDVO deviceID1 = mock(DeviceIDVO.class);
+        DeviceIDVO deviceID2 = mock(DeviceIDVO.class);
+        when(device1.getId()).thenReturn(deviceID1);
+        when(device2.getId()).thenReturn(deviceID2);
+        when(updatedDevice1.getId()).thenReturn(deviceID1);
+        when(device1.getRoomID()).thenReturn(roomID);
+        when(device2.getRoomID()).thenReturn(roomID);
+        when(updatedDevice1.getRoomID()).thenReturn(roomID);
+
+        deviceRepositoryMem.save(device1);
+        deviceRepositoryMem.save(device2);
+
+        //Act
+        deviceRepositoryMem.update(updatedDevice1);
+
+        //Assert
+        assertEquals(List.of(updatedDevice1, device2), deviceRepositoryMem.findByRoomID(roomID));
+    }
+
+    /**
+     * Tests that the devices are grouped by the types of their sensors and then of their actuators, in the order they
+     * were saved, with each device listed once per type and sensors of unknown devices ignored.
+     */
+    @Test
+    void givenSensorsAndActuators_whenFindGroupedByFunctionality_thenReturnsDevicesBySensorTypeThenActuatorType() {
+        //Arrange
+        SensorRepositoryMem sensorRepositoryMem = new SensorRepositoryMem();
+        ActuatorRepositoryMem actuatorRepositoryMem = new ActuatorRepositoryMem();
+        DeviceRepositoryMem deviceRepositoryMem = new DeviceRepositoryMem(sensorRepositoryMem, actuatorRepositoryMem);
+
+        Device device1 = mock(Device.class);
+        Device device2 = mock(Device.class);
+        DeviceIDVO deviceID1 = mock(DeviceIDVO.class);
+        DeviceIDVO deviceID2 = mock(DeviceIDVO.class);
+        DeviceIDVO unknownDeviceID = mock(DeviceIDVO.class);
+        when(device1.getId()).thenReturn(deviceID1);
+        when(device2.getId()).thenReturn(deviceID2);
+        deviceRepositoryMem.save(device1);
+        deviceRepositoryMem.save(device2);
+
+        sensorRepositoryMem.save(mockSensor("TemperatureSensor", deviceID2));
+        sensorRepositoryMem.save(mockSensor("TemperatureSensor", deviceID1));
+        sensorRepositoryMem.save(mockSensor("TemperatureSensor", deviceID2));
+        sensorRepositoryMem.save(mockSensor("HumiditySensor", deviceID1));
+        sensorRepositoryMem.save(mockSensor("HumiditySensor", unknownDeviceID));
+        actuatorRepositoryMem.save(mockActuator("SwitchActuator", deviceID1));
+
+        //Act
+        Map<String, List<Device>> result = deviceRepositoryMem.findGroupedByFunctionality();
+
+        //Assert
+        assertEquals(List.of("TemperatureSensor", "HumiditySensor", "SwitchActuator"), new ArrayList<>(result.keySet()));
+        assertEquals(List.of(device2, device1), result.get("TemperatureSensor"));
+        assertEquals(List.of(device1), result.get("HumiditySensor"));
+        assertEquals(List.of(device1), result.get("SwitchActuator"));
+    }
+
+    /**
+     * Tests that a repository whose devices have no sensors or actuators groups no devices by functionality.
+     */
+    @Test
+    void givenNoSensorsOrActuators_whenFindGroupedByFunctionality_thenReturnsEmptyMap() {
+        //Arrange
+        DeviceRepositoryMem deviceRepositoryMem = new DeviceRepositoryMem(new SensorRepositoryMem(), new ActuatorRepositoryMem());
+        Device device = mock(Device.class);
+        when(device.getId()).thenReturn(mock(DeviceIDVO.class));
+        deviceRepositoryMem.save(device);
+
+        //Act
+        Map<String, List<Device>> result = deviceRepositoryMem.findGroupedByFunctionality();
+
+        //Assert
+        assertTrue(result.isEmpty());
+    }
+
+    /**
+     * Tests that a repository created without sensor and actuator repositories cannot group its devices by
+     * functionality, and says so by returning null instead of an empty map.
+     */
+    @Test
+    void givenRepositoryWithoutSensorsAndActuators_whenFindGroupedByFunctionality_thenReturnsNull() {
+        //Arrange
+        DeviceRepositoryMem deviceRepositoryMem = new DeviceRepositoryMem();
+        Device device = mock(Device.class);
+        when(device.getId()).thenReturn(mock(DeviceIDVO.class));
+        deviceRepositoryMem.save(device);
+
+        //Act
+        Map<String, List<Device>> result = deviceRepositoryMem.findGroupedByFunctionality();
+
+        //Assert
+        assertNull(result);
+    }
+
+    /**
+     * Tests that the constructor throws an IllegalArgumentException when given null sensor or actuator repositories.
+     */
+    @Test
+    void givenNullSensorOrActuatorRepository_whenConstructing_thenThrowsIllegalArgumentException() {
+        //Arrange
+        SensorRepositoryMem sensorRepositoryMem = new SensorRepositoryMem();
+        ActuatorRepositoryMem actuatorRepositoryMem = new ActuatorRepositoryMem();
+
+        //Act + Assert
+        assertThrows(IllegalArgumentException.class, () -> new DeviceRepositoryMem(null, actuatorRepositoryMem));
+        assertThrows(IllegalArgumentException.class, () -> new DeviceRepositoryMem(sensorRepositoryMem, null));
+    }
+
+    private Sensor mockSensor(String type, DeviceIDVO deviceID) {
+        Sensor sensor = mock(Sensor.class);
+        SensorTypeIDVO sensorTypeID = mock(SensorTypeIDVO.class);
+        when(sensorTypeID.getID()).thenReturn(type);
+        when(sensor.getId()).thenReturn(mock(SensorIDVO.class));
+        when(sensor.getSensorTypeID()).thenReturn(sensorTypeID);
+        when(sensor.getDeviceID()).thenReturn(deviceID);
+        return sensor;
+    }
+
+    private Actuator mockActuator(String type, DeviceIDVO deviceID) {
+        Actuator actuator = mock(Actuator.class);
+        ActuatorTypeIDVO actuatorTypeID = mock(ActuatorTypeIDVO.class);
+        when(actuatorTypeID.getID()).thenReturn(type);
+        when(actuator.getId()).thenReturn(mock(ActuatorIDVO.class));
+        when(actuator.getActuatorTypeID()).thenReturn(actuatorTypeID);
+        when(actuator.getDeviceID()).thenReturn(deviceID);
+        return actuator;
+    }
+}
@@ -0,0 +1,432 @@
+package smarthome.persistence.mem;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactoryImpl;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.sensor.sensorvalues.SwitchValue;
+import smarthome.domain.sensor.sensorvalues.TemperatureValue;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LogRepositoryMemTest {
+
+    private static final SensorTypeIDVO TEMPERATURE = new SensorTypeIDVO("TemperatureSensor");
+    private static final SensorTypeIDVO SWITCH = new SensorTypeIDVO("SwitchSensor");
+
+    /**
+     * Creates a sensor value factory that rebuilds temperature and switch readings from their text.
+     */
+    private SensorValueFactory createValueFactory() {
+        SensorValueFactory valueFactory = mock(SensorValueFactory.class);
+        when(valueFactory.createSensorValue(anyString(), any(SensorTypeIDVO.class))).thenAnswer(invocation -> {
+            String reading = invocation.getArgument(0);
+            SensorTypeIDVO type = invocation.getArgument(1);
+            return TEMPERATURE.equals(type) ? new TemperatureValue(reading) : new SwitchValue(reading);
+        });
+        return valueFactory;
+    }
+
+    private Log createLog(DeviceIDVO deviceID, SensorTypeIDVO type, String time, SensorValueObject<?> reading) {
+        return new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse(time)), reading,
+                new SensorIDVO(UUID.randomUUID()), deviceID, type);
+    }
+
+    private List<String> times(Iterable<Log> logs) {
+        List<String> times = new ArrayList<>();
+        for (Log log : logs) {
+            times.add(log.getTime().getValue().toString());
+        }
+        return times;
+    }
+
+    /**
+     * This test ensures a saved log can be found by its ID, with all of its attributes rebuilt.
+     */
+    @Test
+    void givenSavedLog_FindByIdReturnsTheSameLog() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Log log = createLog(deviceID, TEMPERATURE, "2024-04-04T12:00:30", new TemperatureValue("21.5"));
+
+        // Act
+        boolean saved = repository.save(log);
+        Log result = repository.findById((LogIDVO) log.getId());
+
+        // Assert
+        assertTrue(saved);
+        assertEquals(log.getId(), result.getId());
+        assertEquals(log.getTime(), result.getTime());
+        assertEquals(21.5, result.getReading().getValue());
+        assertEquals(log.getSensorID(), result.getSensorID());
+        assertEquals(deviceID, result.getDeviceID());
+        assertEquals(TEMPERATURE, result.getSensorTypeID());
+        assertNull(repository.findById(new LogIDVO(UUID.randomUUID())));
+    }
+
+    /**
+     * This test ensures the same log cannot be saved twice.
+     */
+    @Test
+    void givenDuplicateLog_RepositoryDoesNotSaveReturningFalse() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        Log log = createLog(new DeviceIDVO(UUID.randomUUID()), TEMPERATURE, "2024-04-04T12:00:30", new TemperatureValue("21.5"));
+        repository.save(log);
+
+        // Act
+        boolean result = repository.save(log);
+
+        // Assert
+        assertFalse(result);
+    }
+
+    /**
+     * This test ensures a log ID is saved only once, even when the second log carrying it has another time, device or
+     * sensor type, and that the first log is the one kept.
+     */
+    @Test
+    void givenLogWithAnIDAlreadySavedAtAnotherTime_RepositoryDoesNotSaveReturningFalse() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        Log log = createLog(new DeviceIDVO(UUID.randomUUID()), TEMPERATURE, "2024-04-04T12:00:30", new TemperatureValue("21.5"));
+        Log sameID = new Log((LogIDVO) log.getId(), new TimeStampVO(LocalDateTime.parse("2024-05-01T08:00:00")),
+                new SwitchValue("On"), new SensorIDVO(UUID.randomUUID()), new DeviceIDVO(UUID.randomUUID()), SWITCH);
+        repository.save(log);
+
+        // Act
+        boolean result = repository.save(sameID);
+
+        // Assert
+        assertFalse(result);
+        assertEquals(List.of("2024-04-04T12:00:30"), times(repository.findAll()));
+        assertEquals(log.getTime(), repository.findById((LogIDVO) log.getId()).getTime());
+    }
+
+    /**
+     * This test ensures saveAll returns one result per log, in order, rejecting the logs already saved.
+     */
+    @Test
+    void givenLogsWithDuplicates_SaveAllReturnsOneResultPerLog() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Log log1 = createLog(deviceID, TEMPERATURE, "2024-04-04T12:00:00", new TemperatureValue("20"));
+        Log log2 = createLog(deviceID, SWITCH, "2024-04-04T12:10:00", new SwitchValue("On"));
+        repository.save(log1);
+
+        // Act
+        List<Boolean> result = repository.saveAll(List.of(log1, log2, log2));
+
+        // Assert
+        assertEquals(List.of(false, true, false), result);
+        assertNotNull(repository.findById((LogIDVO) log2.getId()));
+    }
+
+    /**
+     * This test ensures the readings of a device are returned in time order across its sensor types, whatever the
+     * order they were saved in, and that only the readings within the time period are returned.
+     */
+    @Test
+    void givenLogsSavedOutOfOrder_FindReadingsByDeviceIDReturnsThemInTimeOrder() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:20:00", new TemperatureValue("22")));
+        repository.save(createLog(deviceID, SWITCH, "2024-04-04T12:10:00", new SwitchValue("On")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:00:00", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, SWITCH, "2024-04-04T12:30:00", new SwitchValue("Off")));
+        repository.save(createLog(new DeviceIDVO(UUID.randomUUID()), TEMPERATURE, "2024-04-04T12:15:00", new TemperatureValue("19")));
+
+        TimeStampVO from = new TimeStampVO(LocalDateTime.parse("2024-04-04T12:05:00"));
+        TimeStampVO to = new TimeStampVO(LocalDateTime.parse("2024-04-04T12:30:00"));
+
+        // Act
+        List<String> all = times(repository.findReadingsByDeviceID(deviceID, null, null));
+        List<String> period = times(repository.findReadingsByDeviceID(deviceID, from, to));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:00", "2024-04-04T12:10", "2024-04-04T12:20", "2024-04-04T12:30"), all);
+        assertEquals(List.of("2024-04-04T12:10", "2024-04-04T12:20", "2024-04-04T12:30"), period);
+    }
+
+    /**
+     * This test ensures only the negative readings of the sensor type are returned, excluding the given device.
+     */
+    @Test
+    void givenNegativeAndPositiveReadings_FindByNegativeReadingReturnsOnlyNegativeReadingsOfOtherDevices() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO excluded = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID1 = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO deviceID2 = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(excluded, TEMPERATURE, "2024-04-04T12:00:00", new TemperatureValue("-5")));
+        repository.save(createLog(deviceID1, TEMPERATURE, "2024-04-04T12:10:00", new TemperatureValue("-3")));
+        repository.save(createLog(deviceID1, TEMPERATURE, "2024-04-04T12:20:00", new TemperatureValue("4")));
+        repository.save(createLog(deviceID2, TEMPERATURE, "2024-04-04T12:05:00", new TemperatureValue("-1")));
+
+        TimeStampVO start = new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:00"));
+        TimeStampVO end = new TimeStampVO(LocalDateTime.parse("2024-04-04T13:00:00"));
+
+        // Act
+        List<String> result = times(repository.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(
+                excluded.getID(), TEMPERATURE.getID(), start, end));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:05", "2024-04-04T12:10"), result);
+    }
+
+    /**
+     * This test ensures only the readings of the device and sensor type whose value lies within the range, bounds
+     * included, are returned, and that text readings never match.
+     */
+    @Test
+    void givenReadingsInsideAndOutsideTheRange_FindByReadingBetweenReturnsOnlyTheReadingsInTheRange() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:00:00", new TemperatureValue("-5")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:10:00", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:20:00", new TemperatureValue("25.5")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:30:00", new TemperatureValue("30")));
+        repository.save(createLog(otherDeviceID, TEMPERATURE, "2024-04-04T12:15:00", new TemperatureValue("22")));
+        repository.save(createLog(deviceID, SWITCH, "2024-04-04T12:25:00", new SwitchValue("On")));
+
+        TimeStampVO start = new TimeStampVO(LocalDateTime.parse("2024-04-04T12:00:00"));
+        TimeStampVO end = new TimeStampVO(LocalDateTime.parse("2024-04-04T13:00:00"));
+
+        // Act
+        List<String> result = times(repository.findByDeviceIDAndSensorTypeAndReadingBetween(
+                deviceID, TEMPERATURE, start, end, 20, 30));
+        List<String> text = times(repository.findByDeviceIDAndSensorTypeAndReadingBetween(
+                deviceID, SWITCH, start, end, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:10", "2024-04-04T12:20", "2024-04-04T12:30"), result);
+        assertTrue(text.isEmpty());
+        assertThrows(IllegalArgumentException.class, () ->
+                repository.findByDeviceIDAndSensorTypeAndReadingBetween(null, TEMPERATURE, start, end, 0, 1));
+    }
+
+    /**
+     * This test ensures the aggregate covers the numeric readings of the device and sensor type within the period,
+     * across monthly partitions, with the end of the period excluded.
+     */
+    @Test
+    void givenReadingsInSeveralMonths_AggregateReadingsReturnsTheCountSumMinAndMaxOfThePeriod() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-31T23:00:00", new TemperatureValue("-2.5")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-02-01T01:00:00", new TemperatureValue("10")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-02-02T00:00:00", new TemperatureValue("40")));
+        repository.save(createLog(otherDeviceID, TEMPERATURE, "2024-02-01T12:00:00", new TemperatureValue("99")));
+
+        TimeStampVO start = new TimeStampVO(LocalDateTime.parse("2024-01-31T00:00:00"));
+        TimeStampVO end = new TimeStampVO(LocalDateTime.parse("2024-02-02T00:00:00"));
+
+        // Act
+        ReadingAggregate result = repository.aggregateReadings(deviceID, TEMPERATURE, start, end);
+        ReadingAggregate none = repository.aggregateReadings(deviceID, SWITCH, start, end);
+
+        // Assert
+        assertEquals(start, result.getStart());
+        assertEquals(end, result.getEnd());
+        assertEquals(2, result.getCount());
+        assertEquals(7.5, result.getSum());
+        assertEquals(-2.5, result.getMin());
+        assertEquals(10, result.getMax());
+        assertEquals(0, none.getCount());
+        assertTrue(Double.isNaN(none.getMax()));
+        assertThrows(IllegalArgumentException.class, () -> repository.aggregateReadings(deviceID, TEMPERATURE, end, start));
+    }
+
+    /**
+     * This test ensures the newest readings of a device are returned newest first.
+     */
+    @Test
+    void givenSeveralReadings_FindLatestReadingsReturnsTheNewestFirst() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:00:00", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, SWITCH, "2024-04-04T12:10:00", new SwitchValue("On")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-04T12:20:00", new TemperatureValue("22")));
+
+        // Act
+        List<String> result = times(repository.findLatestReadingsByDeviceID(deviceID, 2));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:20", "2024-04-04T12:10"), result);
+    }
+
+    /**
+     * This test ensures logs saved concurrently to the same series are all kept, in time order.
+     */
+    @Test
+    void givenConcurrentSaves_AllLogsAreKeptInTimeOrder() throws Exception {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int thread = 0; thread < 4; thread++) {
+            int offset = thread;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    String time = LocalDateTime.parse("2024-04-04T12:00:00").plusSeconds(i * 4L + offset).toString();
+                    repository.save(createLog(deviceID, TEMPERATURE, time, new TemperatureValue("20")));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        List<Log> result = new ArrayList<>();
+        repository.findReadingsByDeviceID(deviceID, null, null).forEach(result::add);
+
+        // Assert
+        assertEquals(1000, result.size());
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).getTime().getValue().isBefore(result.get(i).getTime().getValue()));
+        }
+    }
+
+    /**
+     * This test ensures queries spanning several monthly partitions return the logs of every partition in the
+     * period, in time order, and pages and latest readings continue across partitions.
+     */
+    @Test
+    void givenLogsInSeveralMonths_QueriesSpanThePartitionsInTimeOrder() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-03-31T23:59:59", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, SWITCH, "2024-02-01T00:00:00", new SwitchValue("On")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-04-01T00:00:00", new TemperatureValue("20")));
+        TimeStampVO from = new TimeStampVO(LocalDateTime.parse("2024-01-20T00:00:00"));
+        TimeStampVO to = new TimeStampVO(LocalDateTime.parse("2024-04-01T00:00:00"));
+
+        // Act
+        List<String> range = times(repository.findReadingsByDeviceID(deviceID, from, to));
+        List<String> temperatures = times(repository.findByDeviceIDAndSensorTypeAndTimeBetween(deviceID.getID(),
+                TEMPERATURE.getID(), from, to));
+        List<String> page = times(repository.findReadingsPageByDeviceID(deviceID, null, null, null, 3));
+        List<String> latest = times(repository.findLatestReadingsByDeviceID(deviceID, 3));
+
+        // Assert
+        assertEquals(List.of("2024-02-01T00:00", "2024-03-31T23:59:59", "2024-04-01T00:00"), range);
+        assertEquals(List.of("2024-03-31T23:59:59", "2024-04-01T00:00"), temperatures);
+        assertEquals(List.of("2024-01-15T10:00", "2024-02-01T00:00", "2024-03-31T23:59:59"), page);
+        assertEquals(List.of("2024-04-01T00:00", "2024-03-31T23:59:59", "2024-02-01T00:00"), latest);
+    }
+
+    /**
+     * This test ensures deletePartitionsBefore drops every log of the months before the given one, and only those,
+     * along with their IDs.
+     */
+    @Test
+    void givenLogsInSeveralMonths_DeletePartitionsBeforeDropsTheOlderMonths() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        Log expired = createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20"));
+        repository.save(expired);
+        repository.save(createLog(otherDeviceID, SWITCH, "2024-02-29T23:59:59", new SwitchValue("On")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-03-01T00:00:00", new TemperatureValue("20")));
+
+        // Act
+        long deleted = repository.deletePartitionsBefore(YearMonth.of(2024, 3));
+
+        // Assert
+        assertEquals(2, deleted);
+        assertEquals(List.of("2024-03-01T00:00"), times(repository.findAll()));
+        assertNull(repository.findById((LogIDVO) expired.getId()));
+        assertFalse(repository.isPresent((LogIDVO) expired.getId()));
+        assertEquals(0, repository.deletePartitionsBefore(YearMonth.of(2024, 3)));
+        assertThrows(IllegalArgumentException.class, () -> repository.deletePartitionsBefore(null));
+        assertTrue(repository.save(expired));
+    }
+
+    /**
+     * This test ensures deleteByIds deletes only the given logs, ignoring IDs that are not stored, and keeps the
+     * remaining logs of their series in time order.
+     */
+    @Test
+    void givenSavedLogs_DeleteByIdsDeletesOnlyTheGivenLogs() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        Log first = createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20"));
+        Log second = createLog(deviceID, TEMPERATURE, "2024-01-15T11:00:00", new TemperatureValue("21"));
+        Log third = createLog(deviceID, TEMPERATURE, "2024-01-15T12:00:00", new TemperatureValue("22"));
+        repository.save(first);
+        repository.save(second);
+        repository.save(third);
+
+        // Act
+        long deleted = repository.deleteByIds(List.of((LogIDVO) second.getId(), new LogIDVO(UUID.randomUUID())));
+
+        // Assert
+        assertEquals(1, deleted);
+        assertFalse(repository.isPresent((LogIDVO) second.getId()));
+        assertEquals(List.of("2024-01-15T10:00", "2024-01-15T12:00"),
+                times(repository.findReadingsByDeviceID(deviceID, null, null)));
+        assertEquals(0, repository.deleteByIds(List.of((LogIDVO) second.getId())));
+        assertThrows(IllegalArgumentException.class, () -> repository.deleteByIds(null));
+        assertTrue(repository.save(second));
+    }
+
+    /**
+     * This test ensures streamReadingsBefore hands out the logs of the months before the given one, across series,
+     * in time order, and leaves them in the repository.
+     */
+    @Test
+    void givenLogsInSeveralMonths_StreamReadingsBeforeHandsOutTheOlderMonthsInTimeOrder() {
+        // Arrange
+        LogRepositoryMem repository = new LogRepositoryMem(new LogFactoryImpl(), createValueFactory());
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-02-10T08:00:00", new TemperatureValue("20")));
+        repository.save(createLog(otherDeviceID, SWITCH, "2024-01-31T23:59:59", new SwitchValue("On")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-01-15T10:00:00", new TemperatureValue("20")));
+        repository.save(createLog(deviceID, TEMPERATURE, "2024-03-01T00:00:00", new TemperatureValue("20")));
+        List<Log> streamed = new ArrayList<>();
+
+        // Act
+        repository.streamReadingsBefore(YearMonth.of(2024, 3), streamed::add);
+
+        // Assert
+        assertEquals(List.of("2024-01-15T10:00", "2024-01-31T23:59:59", "2024-02-10T08:00"), times(streamed));
+        assertEquals(4, times(repository.findAll()).size());
+        assertThrows(IllegalArgumentException.class, () -> repository.streamReadingsBefore(null, streamed::add));
+    }
+}
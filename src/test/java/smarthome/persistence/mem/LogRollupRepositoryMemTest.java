@@ -0,0 +1,147 @@
+package smarthome.persistence.mem;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.persistence.LogRollupRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogRollupRepositoryMemTest {
+
+    private static final SensorTypeIDVO TEMPERATURE = new SensorTypeIDVO("TemperatureSensor");
+
+    private TimeStampVO time(String time) {
+        return new TimeStampVO(LocalDateTime.parse(time));
+    }
+
+    private ReadingAggregate hour(String start, double value) {
+        TimeStampVO bucketStart = time(start);
+        return ReadingAggregate.of(bucketStart, value)
+                .withPeriod(bucketStart, new TimeStampVO(bucketStart.getValue().plusHours(1)));
+    }
+
+    /**
+     * This test ensures only the rollups of the requested series and resolution whose bucket starts within the
+     * period are returned, in bucket order.
+     */
+    @Test
+    void givenRollups_FindRollupsReturnsBucketsStartingWithinThePeriod() {
+        // Arrange
+        LogRollupRepositoryMem repository = new LogRollupRepositoryMem();
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.replaceRollups(deviceID, TEMPERATURE, time("2024-01-01T00:00:00"), time("2024-01-02T00:00:00"),
+                Map.of(RollupResolution.HOUR, List.of(hour("2024-01-01T13:00:00", 2), hour("2024-01-01T10:00:00", 1),
+                        hour("2024-01-01T15:00:00", 3))));
+        repository.replaceRollups(otherDeviceID, TEMPERATURE, time("2024-01-01T00:00:00"), time("2024-01-02T00:00:00"),
+                Map.of(RollupResolution.HOUR, List.of(hour("2024-01-01T11:00:00", 9))));
+
+        // Act
+        List<ReadingAggregate> result = repository.findRollups(deviceID, TEMPERATURE, RollupResolution.HOUR,
+                time("2024-01-01T10:00:00"), time("2024-01-01T15:00:00"));
+
+        // Assert
+        assertEquals(List.of(hour("2024-01-01T10:00:00", 1), hour("2024-01-01T13:00:00", 2)), result);
+        assertTrue(repository.findRollups(deviceID, TEMPERATURE, RollupResolution.MINUTE,
+                time("2024-01-01T00:00:00"), time("2024-01-02T00:00:00")).isEmpty());
+    }
+
+    /**
+     * This test ensures replacing the rollups of a period removes the previous buckets of that period, and only of
+     * that period.
+     */
+    @Test
+    void givenExistingRollups_ReplaceRollupsReplacesOnlyThePeriod() {
+        // Arrange
+        LogRollupRepositoryMem repository = new LogRollupRepositoryMem();
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.replaceRollups(deviceID, TEMPERATURE, time("2024-01-01T00:00:00"), time("2024-01-03T00:00:00"),
+                Map.of(RollupResolution.HOUR, List.of(hour("2024-01-01T10:00:00", 1), hour("2024-01-02T10:00:00", 2))));
+
+        // Act
+        repository.replaceRollups(deviceID, TEMPERATURE, time("2024-01-01T00:00:00"), time("2024-01-02T00:00:00"),
+                Map.of(RollupResolution.HOUR, List.of(hour("2024-01-01T12:00:00", 5))));
+
+        // Assert
+        List<ReadingAggregate> result = repository.findRollups(deviceID, TEMPERATURE, RollupResolution.HOUR,
+                time("2024-01-01T00:00:00"), time("2024-01-03T00:00:00"));
+        assertEquals(List.of(hour("2024-01-01T12:00:00", 5), hour("2024-01-02T10:00:00", 2)), result);
+    }
+
+    /**
+     * This test ensures replacing buckets replaces only the given buckets, and removes those left without readings.
+     */
+    @Test
+    void givenExistingRollups_ReplaceBucketsReplacesOnlyTheGivenBuckets() {
+        // Arrange
+        LogRollupRepositoryMem repository = new LogRollupRepositoryMem();
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.replaceRollups(deviceID, TEMPERATURE, time("2024-01-01T00:00:00"), time("2024-01-02T00:00:00"),
+                Map.of(RollupResolution.HOUR, List.of(hour("2024-01-01T10:00:00", 1), hour("2024-01-01T11:00:00", 2),
+                        hour("2024-01-01T12:00:00", 3))));
+
+        // Act
+        repository.replaceBuckets(deviceID, TEMPERATURE, Map.of(RollupResolution.HOUR, List.of(
+                hour("2024-01-01T11:00:00", 7),
+                ReadingAggregate.empty(time("2024-01-01T12:00:00"), time("2024-01-01T13:00:00")))));
+
+        // Assert
+        List<ReadingAggregate> result = repository.findRollups(deviceID, TEMPERATURE, RollupResolution.HOUR,
+                time("2024-01-01T00:00:00"), time("2024-01-02T00:00:00"));
+        assertEquals(List.of(hour("2024-01-01T10:00:00", 1), hour("2024-01-01T11:00:00", 7)), result);
+    }
+
+    /**
+     * This test ensures a minute is marked dirty once however often it is marked, and that clearing it only clears
+     * the given minutes of the given series.
+     */
+    @Test
+    void givenDirtyMinutes_ClearDirtyRemovesOnlyTheGivenMinutes() {
+        // Arrange
+        LogRollupRepositoryMem repository = new LogRollupRepositoryMem();
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        DeviceIDVO otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        repository.markDirty(deviceID, TEMPERATURE, time("2024-01-01T10:00:00"));
+        repository.markDirty(deviceID, TEMPERATURE, time("2024-01-01T10:00:00"));
+        repository.markDirty(deviceID, TEMPERATURE, time("2024-01-01T10:01:00"));
+        repository.markDirty(otherDeviceID, TEMPERATURE, time("2024-01-01T10:00:00"));
+
+        // Act
+        repository.clearDirty(deviceID, TEMPERATURE, List.of(time("2024-01-01T10:00:00")));
+
+        // Assert
+        assertEquals(List.of(new LogRollupRepository.DirtyMinute(deviceID, TEMPERATURE, time("2024-01-01T10:01:00")),
+                new LogRollupRepository.DirtyMinute(otherDeviceID, TEMPERATURE, time("2024-01-01T10:00:00"))),
+                repository.findDirty());
+    }
+
+    /**
+     * This test ensures every method rejects null parameters.
+     */
+    @Test
+    void givenNullParameters_ThrowsIllegalArgumentException() {
+        // Arrange
+        LogRollupRepositoryMem repository = new LogRollupRepositoryMem();
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        TimeStampVO from = time("2024-01-01T00:00:00");
+        TimeStampVO to = time("2024-01-02T00:00:00");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> repository.replaceRollups(deviceID, TEMPERATURE, from, to, null));
+        assertThrows(IllegalArgumentException.class, () -> repository.replaceRollups(null, TEMPERATURE, from, to, Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> repository.findRollups(deviceID, TEMPERATURE, null, from, to));
+        assertThrows(IllegalArgumentException.class, () -> repository.findRollups(deviceID, null, RollupResolution.DAY, from, to));
+        assertThrows(IllegalArgumentException.class, () -> repository.replaceBuckets(deviceID, TEMPERATURE, null));
+        assertThrows(IllegalArgumentException.class, () -> repository.markDirty(deviceID, TEMPERATURE, null));
+        assertThrows(IllegalArgumentException.class, () -> repository.clearDirty(null, TEMPERATURE, List.of()));
+    }
+}
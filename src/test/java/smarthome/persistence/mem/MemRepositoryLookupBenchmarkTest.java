@@ -0,0 +1,145 @@
+package smarthome.persistence.mem;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import smarthome.domain.actuator.SwitchActuator;
+import smarthome.domain.device.Device;
+import smarthome.domain.sensor.Sensor;
+import smarthome.domain.sensor.SensorFactoryImpl;
+import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
+import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.devicevo.DeviceModelVO;
+import smarthome.domain.vo.devicevo.DeviceNameVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorNameVO;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the lookups by room, device and sensor type of the in-memory repositories at simulation scale. Only runs
+ * when asked to, with -Dbenchmark=true, and prints the average time per lookup.
+ * <p>
+ * Defaults to 100,000 devices spread over 1,000 rooms, each with two sensors and one actuator. Other sizes are set
+ * with -Dbenchmark.devices and -Dbenchmark.rooms.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemRepositoryLookupBenchmarkTest {
+
+    private static final int DEVICES = Integer.getInteger("benchmark.devices", 100_000);
+    private static final int ROOMS = Integer.getInteger("benchmark.rooms", 1_000);
+    private static final int LOOKUPS = 10_000;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int ROUNDS = 5;
+
+    private static final String[] SENSOR_TYPES = {"TemperatureSensor", "HumiditySensor", "SwitchSensor",
+            "PowerConsumptionSensor", "WindSensor"};
+
+    private static RoomIDVO[] rooms;
+    private static DeviceIDVO[] devices;
+    private static DeviceRepositoryMem deviceRepository;
+    private static SensorRepositoryMem sensorRepository;
+    private static ActuatorRepositoryMem actuatorRepository;
+
+    /**
+     * Fills the repositories once for every lookup measured.
+     */
+    @BeforeAll
+    static void fillRepositories() {
+        SensorFactoryImpl sensorFactory = new SensorFactoryImpl("config.properties");
+        ActuatorTypeIDVO switchType = new ActuatorTypeIDVO("SwitchActuator");
+        rooms = new RoomIDVO[ROOMS];
+        for (int i = 0; i < ROOMS; i++) {
+            rooms[i] = new RoomIDVO(UUID.randomUUID());
+        }
+        devices = new DeviceIDVO[DEVICES];
+        sensorRepository = new SensorRepositoryMem();
+        actuatorRepository = new ActuatorRepositoryMem();
+        deviceRepository = new DeviceRepositoryMem(sensorRepository, actuatorRepository);
+        for (int i = 0; i < DEVICES; i++) {
+            Device device = new Device(new DeviceNameVO("Device" + i), new DeviceModelVO("Model"), rooms[i % ROOMS]);
+            devices[i] = device.getId();
+            deviceRepository.save(device);
+            for (int j = 0; j < 2; j++) {
+                SensorTypeIDVO type = new SensorTypeIDVO(SENSOR_TYPES[(i + j) % SENSOR_TYPES.length]);
+                sensorRepository.save(sensorFactory.createSensor(new SensorNameVO("Sensor" + j), device.getId(), type));
+            }
+            actuatorRepository.save(new SwitchActuator(new ActuatorNameVO("Switch"), switchType, device.getId()));
+        }
+    }
+
+    /**
+     * Measures DeviceRepositoryMem.findByRoomID.
+     */
+    @Test
+    void devicesByRoom() {
+        long found = measure("Devices by room", i -> deviceRepository.findByRoomID(rooms[i % ROOMS]));
+
+        assertTrue(found >= (long) (WARM_UP_ROUNDS + ROUNDS) * LOOKUPS * (DEVICES / ROOMS));
+    }
+
+    /**
+     * Measures SensorRepositoryMem.findByDeviceID.
+     */
+    @Test
+    void sensorsByDevice() {
+        long found = measure("Sensors by device", i -> (List<Sensor>) sensorRepository.findByDeviceID(devices[i % DEVICES]));
+
+        assertEquals((long) (WARM_UP_ROUNDS + ROUNDS) * LOOKUPS * 2, found);
+    }
+
+    /**
+     * Measures ActuatorRepositoryMem.findByDeviceID.
+     */
+    @Test
+    void actuatorsByDevice() {
+        long found = measure("Actuators by device", i -> actuatorRepository.findByDeviceID(devices[i % DEVICES]));
+
+        assertEquals((long) (WARM_UP_ROUNDS + ROUNDS) * LOOKUPS, found);
+    }
+
+    /**
+     * Measures one SensorRepositoryMem.findBySensorTypeId, which copies a fifth of the sensors.
+     */
+    @Test
+    void sensorsBySensorType() {
+        SensorTypeIDVO type = new SensorTypeIDVO(SENSOR_TYPES[0]);
+        long start = System.nanoTime();
+        int count = 0;
+        for (Sensor ignored : sensorRepository.findBySensorTypeId(type)) {
+            count++;
+        }
+        long nanos = System.nanoTime() - start;
+
+        assertEquals(2L * DEVICES / SENSOR_TYPES.length, count);
+        System.out.printf("Sensors by sensor type: %,d sensors in %d us%n", count, nanos / 1_000);
+    }
+
+    /**
+     * Runs a lookup LOOKUPS times per round and prints the average time of the measured rounds.
+     *
+     * @return The total number of entities found, warm-up rounds included.
+     */
+    private static long measure(String name, IntFunction<List<?>> lookup) {
+        long nanos = 0;
+        long found = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                found += lookup.apply(i * 7919).size();
+            }
+            if (round >= WARM_UP_ROUNDS) {
+                nanos += System.nanoTime() - start;
+            }
+        }
+        System.out.printf("%s: %d ns per lookup over %,d devices%n", name, nanos / ((long) ROUNDS * LOOKUPS), DEVICES);
+        return found;
+    }
+}
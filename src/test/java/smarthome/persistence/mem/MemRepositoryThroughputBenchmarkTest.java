@@ -0,0 +1,125 @@
+package smarthome.persistence.mem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import smarthome.domain.device.Device;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.devicevo.DeviceModelVO;
+import smarthome.domain.vo.devicevo.DeviceNameVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the throughput of DeviceRepositoryMem under a mixed load from concurrent threads: lookups by ID, lookups by
+ * room and saves of new devices. Only runs when asked to, with -Dbenchmark=true, and prints the operations per second
+ * for one thread and for every available processor.
+ * <p>
+ * Defaults to 10,000 devices over 100 rooms to start with, one write in ten operations, and two seconds per run after
+ * one second of warm-up. Other values are set with -Dbenchmark.devices, -Dbenchmark.rooms, -Dbenchmark.writePercent
+ * and -Dbenchmark.seconds.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MemRepositoryThroughputBenchmarkTest {
+
+    private static final int DEVICES = Integer.getInteger("benchmark.devices", 10_000);
+    private static final int ROOMS = Integer.getInteger("benchmark.rooms", 100);
+    private static final int WRITE_PERCENT = Integer.getInteger("benchmark.writePercent", 10);
+    private static final int SECONDS = Integer.getInteger("benchmark.seconds", 2);
+
+    /**
+     * Measures the mixed load with a single thread, as a baseline.
+     */
+    @Test
+    void singleThread() throws Exception {
+        assertTrue(run(1) > 0);
+    }
+
+    /**
+     * Measures the mixed load with one thread per available processor.
+     */
+    @Test
+    void allProcessors() throws Exception {
+        assertTrue(run(Runtime.getRuntime().availableProcessors()) > 0);
+    }
+
+    /**
+     * Fills a repository, warms it up for a second and then runs the mixed load from the given number of threads for
+     * SECONDS seconds.
+     *
+     * @return The number of operations per second.
+     */
+    private static double run(int threads) throws Exception {
+        RoomIDVO[] rooms = new RoomIDVO[ROOMS];
+        for (int i = 0; i < ROOMS; i++) {
+            rooms[i] = new RoomIDVO(UUID.randomUUID());
+        }
+        DeviceIDVO[] devices = new DeviceIDVO[DEVICES];
+        DeviceRepositoryMem repository = new DeviceRepositoryMem();
+        for (int i = 0; i < DEVICES; i++) {
+            Device device = new Device(new DeviceNameVO("Device" + i), new DeviceModelVO("Model"), rooms[i % ROOMS]);
+            devices[i] = device.getId();
+            repository.save(device);
+        }
+
+        mixedLoad(repository, rooms, devices, threads, 1);
+        long operations = mixedLoad(repository, rooms, devices, threads, SECONDS);
+        double perSecond = operations / (double) SECONDS;
+        System.out.printf("DeviceRepositoryMem, %d thread(s), %d%% writes: %,.0f ops/s%n", threads, WRITE_PERCENT,
+                perSecond);
+        return perSecond;
+    }
+
+    /**
+     * Runs the mixed load from the given number of threads for the given number of seconds.
+     *
+     * @return The number of operations done by all threads.
+     */
+    private static long mixedLoad(DeviceRepositoryMem repository, RoomIDVO[] rooms, DeviceIDVO[] devices, int threads,
+                                  int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+                long operations = 0;
+                long found = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while ((operations & 0xFF) != 0 || System.nanoTime() < deadline) {
+                    int dice = random.nextInt(100);
+                    if (dice < WRITE_PERCENT) {
+                        RoomIDVO room = rooms[random.nextInt(rooms.length)];
+                        repository.save(new Device(new DeviceNameVO("New"), new DeviceModelVO("Model"), room));
+                    } else if (dice % 2 == 0) {
+                        found += repository.findById(devices[random.nextInt(devices.length)]) == null ? 0 : 1;
+                    } else {
+                        found += repository.findByRoomID(rooms[random.nextInt(rooms.length)]).isEmpty() ? 0 : 1;
+                    }
+                    operations++;
+                }
+                assertTrue(found > 0);
+                return operations;
+            }));
+        }
+        start.countDown();
+        long operations = 0;
+        for (Future<Long> worker : workers) {
+            operations += worker.get();
+        }
+        executor.shutdown();
+        return operations;
+    }
+}
@@ -2,9 +2,12 @@ package smarthome.persistence.mem;
 
 import smarthome.domain.sensor.Sensor;
 import smarthome.domain.sensor.SunriseSensor;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.domain.vo.sensorvo.SensorIDVO;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -223,4 +226,62 @@ class SensorRepositoryMemTest {
         // Assert
         assertFalse(result);
     }
-}
\ No newline at end of file
+
+    /**
+     * This test ensures findByDeviceID returns only the sensors of the given device, in the order they were saved.
+     */
+    @Test
+    void givenSensorsOfTwoDevices_whenFindByDeviceID_thenReturnsTheSensorsOfTheDevice(){
+        // Arrange
+        DeviceIDVO deviceID1 = mock(DeviceIDVO.class);
+        DeviceIDVO deviceID2 = mock(DeviceIDVO.class);
+
+        SunriseSensor sensor1 = mockSensor(deviceID1, mock(SensorTypeIDVO.class));
+        SunriseSensor sensor2 = mockSensor(deviceID2, mock(SensorTypeIDVO.class));
+        SunriseSensor sensor3 = mockSensor(deviceID1, mock(SensorTypeIDVO.class));
+
+        SensorRepositoryMem repository = new SensorRepositoryMem();
+        repository.save(sensor1);
+        repository.save(sensor2);
+        repository.save(sensor3);
+
+        // Act
+        Iterable<Sensor> result = repository.findByDeviceID(deviceID1);
+
+        // Assert
+        assertEquals(List.of(sensor1, sensor3), result);
+    }
+
+    /**
+     * This test ensures findBySensorTypeId returns only the sensors of the given type, and nothing for an unknown type.
+     */
+    @Test
+    void givenSensorsOfTwoTypes_whenFindBySensorTypeId_thenReturnsTheSensorsOfTheType(){
+        // Arrange
+        SensorTypeIDVO sensorTypeID1 = mock(SensorTypeIDVO.class);
+        SensorTypeIDVO sensorTypeID2 = mock(SensorTypeIDVO.class);
+
+        SunriseSensor sensor1 = mockSensor(mock(DeviceIDVO.class), sensorTypeID1);
+        SunriseSensor sensor2 = mockSensor(mock(DeviceIDVO.class), sensorTypeID2);
+
+        SensorRepositoryMem repository = new SensorRepositoryMem();
+        repository.save(sensor1);
+        repository.save(sensor2);
+
+        // Act
+        Iterable<Sensor> result = repository.findBySensorTypeId(sensorTypeID2);
+        Iterable<Sensor> unknownTypeResult = repository.findBySensorTypeId(mock(SensorTypeIDVO.class));
+
+        // Assert
+        assertEquals(List.of(sensor2), result);
+        assertFalse(unknownTypeResult.iterator().hasNext());
+    }
+
+    private SunriseSensor mockSensor(DeviceIDVO deviceID, SensorTypeIDVO sensorTypeID){
+        SunriseSensor sensor = mock(SunriseSensor.class);
+        when(sensor.getId()).thenReturn(mock(SensorIDVO.class));
+        when(sensor.getDeviceID()).thenReturn(deviceID);
+        when(sensor.getSensorTypeID()).thenReturn(sensorTypeID);
+        return sensor;
+    }
+}
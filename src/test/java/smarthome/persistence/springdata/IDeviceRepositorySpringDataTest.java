@@ -0,0 +1,130 @@
+package smarthome.persistence.springdata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import smarthome.domain.actuator.RollerBlindActuator;
+import smarthome.domain.actuator.SwitchActuator;
+import smarthome.domain.device.Device;
+import smarthome.domain.sensor.HumiditySensor;
+import smarthome.domain.sensor.TemperatureSensor;
+import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
+import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
+import smarthome.domain.vo.devicevo.DeviceModelVO;
+import smarthome.domain.vo.devicevo.DeviceNameVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorNameVO;
+import smarthome.persistence.jpa.datamodel.ActuatorDataModel;
+import smarthome.persistence.jpa.datamodel.DeviceDataModel;
+import smarthome.persistence.jpa.datamodel.SensorDataModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the functionality join queries of IDeviceRepositorySpringData against an embedded database with the schema
+ * generated from the data models.
+ */
+@DataJpaTest
+class IDeviceRepositorySpringDataTest {
+
+    @Autowired
+    private IDeviceRepositorySpringData iDeviceRepositorySpringData;
+
+    @Autowired
+    private ISensorRepositorySpringData iSensorRepositorySpringData;
+
+    @Autowired
+    private IActuatorRepositorySpringData iActuatorRepositorySpringData;
+
+    private Device heater;
+    private Device fridge;
+
+    private Device saveDevice(String name) {
+        Device device = new Device(new DeviceNameVO(name), new DeviceModelVO("Model"), new RoomIDVO(UUID.randomUUID()));
+        iDeviceRepositorySpringData.save(new DeviceDataModel(device));
+        return device;
+    }
+
+    private List<String> rows(List<Object[]> rows) {
+        List<String> result = new ArrayList<>();
+        for (Object[] row : rows) {
+            result.add(row[0] + " " + ((DeviceDataModel) row[1]).getDeviceName());
+        }
+        return result;
+    }
+
+    /**
+     * Saves two devices, then their sensors and actuators out of type and name order, shared by every test.
+     */
+    @BeforeEach
+    void saveDevices() {
+        heater = saveDevice("Heater");
+        fridge = saveDevice("Fridge");
+        iSensorRepositorySpringData.save(new SensorDataModel(new TemperatureSensor(new SensorNameVO("Temperature"),
+                heater.getId(), new SensorTypeIDVO("TemperatureSensor"))));
+        iSensorRepositorySpringData.save(new SensorDataModel(new HumiditySensor(new SensorNameVO("Humidity"),
+                heater.getId(), new SensorTypeIDVO("HumiditySensor"))));
+        iSensorRepositorySpringData.save(new SensorDataModel(new TemperatureSensor(new SensorNameVO("Temperature"),
+                fridge.getId(), new SensorTypeIDVO("TemperatureSensor"))));
+        iActuatorRepositorySpringData.save(new ActuatorDataModel(new SwitchActuator(new ActuatorNameVO("Switch"),
+                new ActuatorTypeIDVO("SwitchActuator"), heater.getId())));
+        iActuatorRepositorySpringData.save(new ActuatorDataModel(new RollerBlindActuator(new ActuatorNameVO("Blind"),
+                new ActuatorTypeIDVO("RollerBlindActuator"), fridge.getId())));
+        iActuatorRepositorySpringData.save(new ActuatorDataModel(new SwitchActuator(new ActuatorNameVO("Switch"),
+                new ActuatorTypeIDVO("SwitchActuator"), fridge.getId())));
+    }
+
+    /**
+     * Test to verify that the sensor join query returns one row per sensor, ordered by sensor type ID and then by
+     * device name, whatever the order the sensors were saved in.
+     */
+    @Test
+    void findDevicesWithSensorType_ReturnsOneRowPerSensorOrderedByTypeThenDeviceName() {
+        // Act
+        List<Object[]> result = iDeviceRepositorySpringData.findDevicesWithSensorType();
+
+        // Assert
+        assertEquals(List.of("HumiditySensor Heater", "TemperatureSensor Fridge", "TemperatureSensor Heater"),
+                rows(result));
+        assertEquals(fridge.getId().getUUID(), ((DeviceDataModel) result.get(1)[1]).getDeviceID());
+    }
+
+    /**
+     * Test to verify that the actuator join query returns one row per actuator, ordered by actuator type ID and then
+     * by device name, whatever the order the actuators were saved in.
+     */
+    @Test
+    void findDevicesWithActuatorType_ReturnsOneRowPerActuatorOrderedByTypeThenDeviceName() {
+        // Act
+        List<Object[]> result = iDeviceRepositorySpringData.findDevicesWithActuatorType();
+
+        // Assert
+        assertEquals(List.of("RollerBlindActuator Fridge", "SwitchActuator Fridge", "SwitchActuator Heater"),
+                rows(result));
+    }
+
+    /**
+     * Test to verify that sensors and actuators of devices that are not stored are left out of the join queries.
+     */
+    @Test
+    void givenSensorOfMissingDevice_FindDevicesWithSensorTypeLeavesItOut() {
+        // Arrange
+        Device missing = new Device(new DeviceNameVO("Missing"), new DeviceModelVO("Model"),
+                new RoomIDVO(UUID.randomUUID()));
+        iSensorRepositorySpringData.save(new SensorDataModel(new HumiditySensor(new SensorNameVO("Humidity"),
+                missing.getId(), new SensorTypeIDVO("HumiditySensor"))));
+
+        // Act
+        List<Object[]> result = iDeviceRepositorySpringData.findDevicesWithSensorType();
+
+        // Assert
+        assertEquals(3, result.size());
+        assertFalse(rows(result).contains("HumiditySensor Missing"));
+    }
+}
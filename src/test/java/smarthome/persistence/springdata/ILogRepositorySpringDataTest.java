@@ -0,0 +1,178 @@
+package smarthome.persistence.springdata;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import smarthome.domain.log.Log;
+import smarthome.domain.sensor.sensorvalues.SensorValueObject;
+import smarthome.domain.sensor.sensorvalues.SwitchValue;
+import smarthome.domain.sensor.sensorvalues.TemperatureValue;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+import smarthome.persistence.jpa.datamodel.LogDataModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the queries of ILogRepositorySpringData against an embedded database with the schema generated from the data
+ * models, indexes included.
+ */
+@DataJpaTest
+class ILogRepositorySpringDataTest {
+
+    private static final SensorTypeIDVO TEMPERATURE = new SensorTypeIDVO("TemperatureSensor");
+    private static final SensorTypeIDVO SWITCH = new SensorTypeIDVO("SwitchSensor");
+
+    @Autowired
+    private ILogRepositorySpringData iLogRepositorySpringData;
+
+    private DeviceIDVO deviceID;
+    private DeviceIDVO otherDeviceID;
+
+    private LogDataModel save(DeviceIDVO device, SensorTypeIDVO type, String time, SensorValueObject<?> reading) {
+        Log log = new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse(time)), reading,
+                new SensorIDVO(UUID.randomUUID()), device, type);
+        return iLogRepositorySpringData.save(new LogDataModel(log));
+    }
+
+    private List<String> times(Iterable<LogDataModel> dataModels) {
+        List<String> times = new ArrayList<>();
+        for (LogDataModel dataModel : dataModels) {
+            times.add(dataModel.getTime().toString());
+        }
+        return times;
+    }
+
+    /**
+     * Saves the readings of two devices, out of time order, shared by every test.
+     */
+    @BeforeEach
+    void saveLogs() {
+        deviceID = new DeviceIDVO(UUID.randomUUID());
+        otherDeviceID = new DeviceIDVO(UUID.randomUUID());
+        save(deviceID, TEMPERATURE, "2024-04-04T12:20:00", new TemperatureValue("25.5"));
+        save(deviceID, TEMPERATURE, "2024-04-04T12:00:00", new TemperatureValue("-5"));
+        save(deviceID, SWITCH, "2024-04-04T12:05:00", new SwitchValue("On"));
+        save(deviceID, TEMPERATURE, "2024-04-04T12:10:00", new TemperatureValue("20"));
+        save(deviceID, TEMPERATURE, "2024-04-04T13:00:00", new TemperatureValue("30"));
+        save(otherDeviceID, TEMPERATURE, "2024-04-04T12:15:00", new TemperatureValue("-1"));
+    }
+
+    /**
+     * Test to verify that the time range query returns the readings of the device within the range, bounds included,
+     * in time order.
+     */
+    @Test
+    void findByDeviceIDAndTimeBetween_ReturnsTheReadingsOfTheDeviceWithinTheRangeInTimeOrder() {
+        // Act
+        List<LogDataModel> result = iLogRepositorySpringData.findByDeviceIDAndTimeBetween(deviceID.getUUID(),
+                LocalDateTime.parse("2024-04-04T12:05:00"), LocalDateTime.parse("2024-04-04T12:20:00"));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:05", "2024-04-04T12:10", "2024-04-04T12:20"), times(result));
+    }
+
+    /**
+     * Test to verify that the sensor type query only returns the readings of that sensor type of the device.
+     */
+    @Test
+    void findByDeviceIDAndSensorTypeAndTimeBetween_ReturnsOnlyTheReadingsOfTheSensorType() {
+        // Act
+        List<LogDataModel> result = iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndTimeBetween(
+                deviceID.getUUID(), TEMPERATURE.getID(),
+                LocalDateTime.parse("2024-04-04T12:00:00"), LocalDateTime.parse("2024-04-04T12:30:00"));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:00", "2024-04-04T12:10", "2024-04-04T12:20"), times(result));
+    }
+
+    /**
+     * Test to verify that the negative reading query returns the negative numeric readings of the other devices only.
+     */
+    @Test
+    void findByNegativeReadingAndNotDeviceID_ReturnsTheNegativeReadingsOfTheOtherDevices() {
+        // Act
+        List<LogDataModel> result = iLogRepositorySpringData.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(
+                deviceID.getUUID(), TEMPERATURE.getID(),
+                LocalDateTime.parse("2024-04-04T12:00:00"), LocalDateTime.parse("2024-04-04T13:00:00"));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:15"), times(result));
+        assertEquals(-1.0, result.get(0).getReadingNumeric());
+    }
+
+    /**
+     * Test to verify that a page starts right after the (time, log ID) position it seeks from, and holds at most the
+     * requested number of readings.
+     */
+    @Test
+    void findPageByDeviceIDAfter_ReturnsTheReadingsAfterTheSeekPosition() {
+        // Arrange
+        LogDataModel seek = iLogRepositorySpringData.findByDeviceIDAndTimeBetween(deviceID.getUUID(),
+                LocalDateTime.parse("2024-04-04T12:05:00"), LocalDateTime.parse("2024-04-04T12:05:00")).get(0);
+
+        // Act
+        List<LogDataModel> result = iLogRepositorySpringData.findPageByDeviceIDAfter(deviceID.getUUID(), seek.getTime(),
+                seek.getLogID(), LocalDateTime.parse("2024-04-04T23:59:59"), PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:10", "2024-04-04T12:20"), times(result));
+    }
+
+    /**
+     * Test to verify that the latest readings of a device are returned newest first.
+     */
+    @Test
+    void findLatestByDeviceID_ReturnsTheNewestReadingsFirst() {
+        // Act
+        List<LogDataModel> result = iLogRepositorySpringData.findLatestByDeviceID(deviceID.getUUID(), PageRequest.of(0, 2));
+
+        // Assert
+        assertEquals(List.of("2024-04-04T13:00", "2024-04-04T12:20"), times(result));
+    }
+
+    /**
+     * Test to verify that the reading range query filters on the numeric reading, bounds included.
+     */
+    @Test
+    void findByDeviceIDAndSensorTypeAndReadingBetween_ReturnsTheReadingsWithinTheRange() {
+        // Act
+        List<LogDataModel> result = iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndReadingBetween(
+                deviceID.getUUID(), TEMPERATURE.getID(),
+                LocalDateTime.parse("2024-04-04T12:00:00"), LocalDateTime.parse("2024-04-04T13:00:00"), 20, 30);
+
+        // Assert
+        assertEquals(List.of("2024-04-04T12:10", "2024-04-04T12:20", "2024-04-04T13:00"), times(result));
+    }
+
+    /**
+     * Test to verify that the aggregate query counts, sums and bounds the numeric readings of the period, its end
+     * excluded, and that text readings are not counted.
+     */
+    @Test
+    void aggregateReadings_ReturnsTheCountSumMinAndMaxOfTheNumericReadings() {
+        // Act
+        Object[] temperature = iLogRepositorySpringData.aggregateReadings(deviceID.getUUID(), TEMPERATURE.getID(),
+                LocalDateTime.parse("2024-04-04T12:00:00"), LocalDateTime.parse("2024-04-04T13:00:00")).get(0);
+        Object[] switches = iLogRepositorySpringData.aggregateReadings(deviceID.getUUID(), SWITCH.getID(),
+                LocalDateTime.parse("2024-04-04T12:00:00"), LocalDateTime.parse("2024-04-04T13:00:00")).get(0);
+
+        // Assert
+        assertEquals(3L, ((Number) temperature[0]).longValue());
+        assertEquals(40.5, ((Number) temperature[1]).doubleValue());
+        assertEquals(-5.0, ((Number) temperature[2]).doubleValue());
+        assertEquals(25.5, ((Number) temperature[3]).doubleValue());
+        assertEquals(0L, ((Number) switches[0]).longValue());
+        assertNull(switches[3]);
+    }
+}
@@ -0,0 +1,216 @@
+package smarthome.persistence.springdata;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import smarthome.persistence.jpa.datamodel.LogDataModel;
+import smarthome.persistence.jpa.datamodel.UUIDBinaryConverter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the LOG queries of ILogRepositorySpringData on a large table, before and after the composite indexes
+ * declared by LogDataModel. Only runs when asked to, with -Dbenchmark=true, and prints the average time per query.
+ * <p>
+ * Defaults to 10,000,000 logs, one every 3 seconds, spread over 500 devices reading 5 sensor types in turn, which is
+ * about a year of readings. Other sizes are set with -Dbenchmark.logs and -Dbenchmark.devices. The table is kept in a
+ * file database under target/, since it does not fit in memory. Each query is run on a different device and day per
+ * round.
+ * </p>
+ * <p>
+ * The queries are first measured as they are, with the indexes; then with the optional time bounds written as
+ * (:from IS NULL OR l.time >= :from), as they were before; and last without the indexes, which are dropped.
+ * </p>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/log-query-benchmark",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LogQueryBenchmarkTest {
+
+    private static final int LOGS = Integer.getInteger("benchmark.logs", 10_000_000);
+    private static final int DEVICES = Integer.getInteger("benchmark.devices", 500);
+    private static final int SPACING_SECONDS = 3;
+    private static final int INSERT_BATCH = 10_000;
+    private static final int WARM_UP_ROUNDS = 1;
+    private static final int ROUNDS = 5;
+
+    private static final String[] SENSOR_TYPES = {"TemperatureSensor", "HumiditySensor", "PowerConsumptionSensor",
+            "WindSensor", "SwitchSensor"};
+    private static final String POWER = "PowerConsumptionSensor";
+    private static final LocalDateTime FIRST_LOG = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final String[] INDEXES = {"idx_log_device_sensor_type_time_num", "idx_log_device_time_id",
+            "idx_log_sensor_type_time_num"};
+
+    @Autowired
+    private ILogRepositorySpringData iLogRepositorySpringData;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID[] devices;
+    private final Map<String, Long> indexedCounts = new LinkedHashMap<>();
+
+    /**
+     * Fills the LOG table once for every query measured, with plain JDBC batches.
+     */
+    @BeforeAll
+    void fillTable() {
+        devices = new UUID[DEVICES];
+        UUID[][] sensors = new UUID[DEVICES][SENSOR_TYPES.length];
+        for (int i = 0; i < DEVICES; i++) {
+            devices[i] = UUID.randomUUID();
+            for (int j = 0; j < SENSOR_TYPES.length; j++) {
+                sensors[i][j] = UUID.randomUUID();
+            }
+        }
+        long start = System.nanoTime();
+        for (int first = 0; first < LOGS; first += INSERT_BATCH) {
+            int offset = first;
+            int size = Math.min(INSERT_BATCH, LOGS - first);
+            jdbcTemplate.batchUpdate("INSERT INTO LOG (id, time, reading, reading_num, reading_type, sensor_id, " +
+                    "device_id, sensor_type_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    int log = offset + i;
+                    int device = log % DEVICES;
+                    int type = (log / DEVICES) % SENSOR_TYPES.length;
+                    LocalDateTime time = FIRST_LOG.plusSeconds((long) log * SPACING_SECONDS);
+                    // One power reading in ten is negative, as from a power source
+                    double reading = (log % 10 == 0 ? -1 : 1) * (log % 1000) / 10.0;
+                    statement.setBytes(1, UUIDBinaryConverter.toBytes(UUID.randomUUID()));
+                    statement.setTimestamp(2, Timestamp.valueOf(time));
+                    statement.setString(3, Double.toString(reading));
+                    statement.setDouble(4, reading);
+                    statement.setString(5, LogDataModel.ReadingType.DECIMAL.name());
+                    statement.setBytes(6, UUIDBinaryConverter.toBytes(sensors[device][type]));
+                    statement.setBytes(7, UUIDBinaryConverter.toBytes(devices[device]));
+                    statement.setString(8, SENSOR_TYPES[type]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+        System.out.printf("Filled LOG with %,d logs in %d s%n", LOGS, (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    /**
+     * Measures the queries as the repository runs them, on the indexed table.
+     */
+    @Test
+    @Order(1)
+    void indexedQueries() {
+        indexedCounts.put("device", measure("Device, 1 day window", round -> iLogRepositorySpringData
+                .findByDeviceIDAndTimeBetween(device(round), day(round), day(round).plusDays(1)).size()));
+        indexedCounts.put("sensorType", measure("Device and sensor type, 1 day window", round -> iLogRepositorySpringData
+                .findByDeviceIDAndSensorTypeAndTimeBetween(device(round), POWER, day(round), day(round).plusDays(1)).size()));
+        indexedCounts.put("negative", measure("Power sources (sensor type, negative readings), 1 day window", round -> iLogRepositorySpringData
+                .findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(device(round), POWER, day(round), day(round).plusDays(1)).size()));
+        indexedCounts.put("aggregate", measure("Aggregate of a device and sensor type, 1 day window", round -> ((Number) iLogRepositorySpringData
+                .aggregateReadings(device(round), POWER, day(round), day(round).plusDays(1)).get(0)[0]).intValue()));
+
+        assertTrue(indexedCounts.get("device") > 0);
+        assertTrue(indexedCounts.get("negative") > 0);
+    }
+
+    /**
+     * Measures the device query with its time bounds written as optional parameters, on the indexed table.
+     */
+    @Test
+    @Order(2)
+    void optionalBoundQuery() {
+        long count = measure("Device, 1 day window, optional bounds", round -> entityManager.createQuery(
+                        "SELECT l FROM LogDataModel l WHERE l.deviceID = :deviceID " +
+                                "AND (:from IS NULL OR l.time >= :from) AND (:to IS NULL OR l.time <= :to) " +
+                                "ORDER BY l.time", LogDataModel.class)
+                .setParameter("deviceID", device(round))
+                .setParameter("from", day(round))
+                .setParameter("to", day(round).plusDays(1))
+                .getResultList().size());
+
+        assertEquals(indexedCounts.get("device"), count);
+    }
+
+    /**
+     * Measures the same queries once the composite indexes are dropped.
+     */
+    @Test
+    @Order(3)
+    void unindexedQueries() {
+        for (String index : INDEXES) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+        }
+
+        long device = measure("Device, 1 day window, no index", round -> iLogRepositorySpringData
+                .findByDeviceIDAndTimeBetween(device(round), day(round), day(round).plusDays(1)).size());
+        long sensorType = measure("Device and sensor type, 1 day window, no index", round -> iLogRepositorySpringData
+                .findByDeviceIDAndSensorTypeAndTimeBetween(device(round), POWER, day(round), day(round).plusDays(1)).size());
+        long negative = measure("Power sources (sensor type, negative readings), 1 day window, no index", round -> iLogRepositorySpringData
+                .findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(device(round), POWER, day(round), day(round).plusDays(1)).size());
+
+        assertEquals(indexedCounts.get("device"), device);
+        assertEquals(indexedCounts.get("sensorType"), sensorType);
+        assertEquals(indexedCounts.get("negative"), negative);
+    }
+
+    /**
+     * Runs a query once per round, each round on another device and day, and prints the average time of the
+     * measured rounds.
+     *
+     * @return The total number of rows found in the measured rounds.
+     */
+    private static long measure(String name, IntFunction<Integer> query) {
+        long nanos = 0;
+        long found = 0;
+        for (int round = 0; round < WARM_UP_ROUNDS + ROUNDS; round++) {
+            long start = System.nanoTime();
+            int rows = query.apply(round);
+            if (round >= WARM_UP_ROUNDS) {
+                nanos += System.nanoTime() - start;
+                found += rows;
+            }
+        }
+        System.out.printf("%s: %.1f ms per query, %,d rows per query, over %,d logs%n",
+                name, nanos / (ROUNDS * 1_000_000.0), found / ROUNDS, LOGS);
+        return found;
+    }
+
+    private UUID device(int round) {
+        return devices[(round * 97) % DEVICES];
+    }
+
+    private static LocalDateTime day(int round) {
+        long days = (long) LOGS * SPACING_SECONDS / 86_400;
+        return FIRST_LOG.plusDays(Math.max(days, 1) * (round + 1) / (WARM_UP_ROUNDS + ROUNDS + 1));
+    }
+}
@@ -0,0 +1,140 @@
+package smarthome.persistence.springdata;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.persistence.jpa.datamodel.LogDataModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LogRepositorySpringDataTest {
+
+    private static final SensorTypeIDVO TEMPERATURE = new SensorTypeIDVO("TemperatureSensor");
+    private static final TimeStampVO START = new TimeStampVO(LocalDateTime.parse("2024-04-04T00:00:00"));
+    private static final TimeStampVO END = new TimeStampVO(LocalDateTime.parse("2024-04-05T00:00:00"));
+
+    private List<Object[]> row(Object... values) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(values);
+        return rows;
+    }
+
+    /**
+     * Test to verify that the count, sum, minimum and maximum computed by the database are returned as the aggregate
+     * of the requested period.
+     */
+    @Test
+    void givenNumericReadings_AggregateReadingsReturnsTheAggregateComputedByTheDatabase() {
+        // Arrange
+        ILogRepositorySpringData iLogRepositorySpringData = mock(ILogRepositorySpringData.class);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        when(iLogRepositorySpringData.aggregateReadings(deviceID.getUUID(), TEMPERATURE.getID(), START.getValue(), END.getValue()))
+                .thenReturn(row(3L, 37.5, -2.5, 20.0));
+        LogRepositorySpringData repository = new LogRepositorySpringData(iLogRepositorySpringData,
+                mock(LogFactory.class), mock(SensorValueFactory.class));
+
+        // Act
+        ReadingAggregate result = repository.aggregateReadings(deviceID, TEMPERATURE, START, END);
+
+        // Assert
+        assertEquals(new ReadingAggregate(START, END, 3, 37.5, -2.5, 20.0), result);
+    }
+
+    /**
+     * Test to verify that a period without numeric readings, for which the database returns a count of zero and null
+     * sum, minimum and maximum, gives an empty aggregate.
+     */
+    @Test
+    void givenNoNumericReadings_AggregateReadingsReturnsAnEmptyAggregate() {
+        // Arrange
+        ILogRepositorySpringData iLogRepositorySpringData = mock(ILogRepositorySpringData.class);
+        when(iLogRepositorySpringData.aggregateReadings(any(), any(), any(), any())).thenReturn(row(0L, null, null, null));
+        LogRepositorySpringData repository = new LogRepositorySpringData(iLogRepositorySpringData,
+                mock(LogFactory.class), mock(SensorValueFactory.class));
+
+        // Act
+        ReadingAggregate result = repository.aggregateReadings(new DeviceIDVO(UUID.randomUUID()), TEMPERATURE, START, END);
+
+        // Assert
+        assertEquals(ReadingAggregate.empty(START, END), result);
+    }
+
+    /**
+     * Test to verify that aggregateReadings returns null when the database cannot be read, and rejects a period
+     * ending before it starts.
+     */
+    @Test
+    void givenDatabaseFailureOrInvalidPeriod_AggregateReadingsReturnsNullOrThrows() {
+        // Arrange
+        ILogRepositorySpringData iLogRepositorySpringData = mock(ILogRepositorySpringData.class);
+        when(iLogRepositorySpringData.aggregateReadings(any(), any(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection lost"));
+        LogRepositorySpringData repository = new LogRepositorySpringData(iLogRepositorySpringData,
+                mock(LogFactory.class), mock(SensorValueFactory.class));
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+
+        // Act & Assert
+        assertNull(repository.aggregateReadings(deviceID, TEMPERATURE, START, END));
+        assertThrows(IllegalArgumentException.class, () -> repository.aggregateReadings(deviceID, TEMPERATURE, END, START));
+    }
+
+    /**
+     * Test to verify that the reading range is handed to the database query along with the device, sensor type and
+     * period.
+     */
+    @Test
+    void givenReadingRange_FindByReadingBetweenQueriesTheNumericReadingColumn() {
+        // Arrange
+        ILogRepositorySpringData iLogRepositorySpringData = mock(ILogRepositorySpringData.class);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        when(iLogRepositorySpringData.findByDeviceIDAndSensorTypeAndReadingBetween(any(), any(), any(), any(), anyDouble(), anyDouble()))
+                .thenReturn(List.of());
+        LogRepositorySpringData repository = new LogRepositorySpringData(iLogRepositorySpringData,
+                mock(LogFactory.class), mock(SensorValueFactory.class));
+
+        // Act
+        repository.findByDeviceIDAndSensorTypeAndReadingBetween(deviceID, TEMPERATURE, START, END, -10, 0);
+
+        // Assert
+        verify(iLogRepositorySpringData).findByDeviceIDAndSensorTypeAndReadingBetween(
+                deviceID.getUUID(), TEMPERATURE.getID(), START.getValue(), END.getValue(), -10, 0);
+    }
+
+    /**
+     * Test to verify that a failure while streaming the logs of a device is thrown to the caller instead of ending the
+     * stream as if it were complete, and that the database cursor is closed all the same.
+     */
+    @Test
+    void givenDatabaseFailureWhileStreaming_StreamReadingsByDeviceIDThrowsAndClosesTheCursor() {
+        // Arrange
+        ILogRepositorySpringData iLogRepositorySpringData = mock(ILogRepositorySpringData.class);
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<LogDataModel> failing = Stream.<LogDataModel>generate(() -> {
+            throw new DataAccessResourceFailureException("Connection lost");
+        }).onClose(() -> closed.set(true));
+        when(iLogRepositorySpringData.streamByDeviceIDAndTimeBetween(any(), any(), any())).thenReturn(failing);
+        LogRepositorySpringData repository = new LogRepositorySpringData(iLogRepositorySpringData,
+                mock(LogFactory.class), mock(SensorValueFactory.class));
+        List<Log> received = new ArrayList<>();
+
+        // Act & Assert
+        assertThrows(DataAccessResourceFailureException.class, () ->
+                repository.streamReadingsByDeviceID(new DeviceIDVO(UUID.randomUUID()), START, END, received::add));
+        assertTrue(closed.get());
+        assertTrue(received.isEmpty());
+    }
+}
@@ -0,0 +1,203 @@
+package smarthome.persistence.writebehind;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.log.Log;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.persistence.LogRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class LogRepositoryWriteBehindTest {
+
+    /**
+     * Creates a mocked repository whose saveAll() saves every log and records each group it receives.
+     */
+    private LogRepository createDelegate(List<List<Log>> groups) {
+        LogRepository delegate = mock(LogRepository.class);
+        when(delegate.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Log> logs = invocation.getArgument(0);
+            groups.add(new ArrayList<>(logs));
+            List<Boolean> results = new ArrayList<>();
+            logs.forEach(log -> results.add(true));
+            return results;
+        });
+        return delegate;
+    }
+
+    /**
+     * This test ensures the constructor rejects a null repository and invalid sizes.
+     */
+    @Test
+    void givenInvalidParameters_ConstructorThrowsIllegalArgumentException() {
+        // Arrange
+        LogRepository delegate = mock(LogRepository.class);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LogRepositoryWriteBehind(null, 10, 10, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new LogRepositoryWriteBehind(delegate, 0, 10, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new LogRepositoryWriteBehind(delegate, 10, 0, 10, 10));
+        assertThrows(IllegalArgumentException.class, () -> new LogRepositoryWriteBehind(delegate, 10, 10, -1, 10));
+    }
+
+    /**
+     * This test ensures queued logs are written in groups of at most batchSize, and that a read waits for the queued
+     * logs to be written before reaching the wrapped repository.
+     */
+    @Test
+    void givenQueuedLogs_ReadFlushesThemInGroupsBeforeDelegating() {
+        // Arrange
+        List<List<Log>> groups = new ArrayList<>();
+        LogRepository delegate = createDelegate(groups);
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+
+        try (LogRepositoryWriteBehind repository = new LogRepositoryWriteBehind(delegate, 100, 10, 1000, 100)) {
+            for (int i = 0; i < 25; i++) {
+                assertTrue(repository.save(mock(Log.class)));
+            }
+
+            // Act
+            repository.findReadingsByDeviceID(deviceID, null, null);
+
+            // Assert
+            verify(delegate).findReadingsByDeviceID(deviceID, null, null);
+            int written = groups.stream().mapToInt(List::size).sum();
+            assertEquals(25, written);
+            assertTrue(groups.stream().allMatch(group -> group.size() <= 10));
+            assertEquals(25, repository.getCommittedLogs());
+            assertEquals(0, repository.getQueueDepth());
+        }
+    }
+
+    /**
+     * This test ensures that when the queue stays full, save() gives up after the offer timeout and returns false.
+     */
+    @Test
+    void givenFullQueue_SaveReturnsFalse() throws InterruptedException {
+        // Arrange
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        LogRepository delegate = mock(LogRepository.class);
+        when(delegate.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return List.of(true);
+        });
+
+        LogRepositoryWriteBehind repository = new LogRepositoryWriteBehind(delegate, 1, 1, 0, 10);
+        repository.save(mock(Log.class));
+        writing.await();
+        repository.save(mock(Log.class));
+
+        // Act
+        boolean result = repository.save(mock(Log.class));
+
+        // Assert
+        assertFalse(result);
+        assertEquals(1, repository.getRejectedLogs());
+        release.countDown();
+        repository.close();
+    }
+
+    /**
+     * This test ensures close() writes every queued log, even if its group was not due yet, and that no log is
+     * accepted afterwards.
+     */
+    @Test
+    void givenQueuedLogs_CloseWritesThemAll() {
+        // Arrange
+        List<List<Log>> groups = new ArrayList<>();
+        LogRepository delegate = createDelegate(groups);
+        LogRepositoryWriteBehind repository = new LogRepositoryWriteBehind(delegate, 100, 100, 60000, 100);
+        for (int i = 0; i < 30; i++) {
+            repository.save(mock(Log.class));
+        }
+
+        // Act
+        repository.close();
+
+        // Assert
+        assertEquals(30, groups.stream().mapToInt(List::size).sum());
+        assertFalse(repository.save(mock(Log.class)));
+    }
+
+    /**
+     * This test ensures a read does not wait for maxDelay: the writer commits the group it is gathering as soon as a
+     * read is waiting for it.
+     */
+    @Test
+    void givenGroupNotDueYet_ReadHasItCommittedWithoutWaitingForMaxDelay() {
+        // Arrange
+        List<List<Log>> groups = new ArrayList<>();
+        LogRepository delegate = createDelegate(groups);
+
+        try (LogRepositoryWriteBehind repository = new LogRepositoryWriteBehind(delegate, 100, 100, 60000, 100)) {
+            for (int i = 0; i < 5; i++) {
+                repository.save(mock(Log.class));
+            }
+            long start = System.nanoTime();
+
+            // Act
+            repository.findAll();
+
+            // Assert
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis < 5000);
+            assertEquals(5, repository.getCommittedLogs());
+        }
+    }
+
+    /**
+     * This test ensures a group whose commit fails is retried, and counted as committed once a retry succeeds.
+     */
+    @Test
+    void givenCommitFailingOnce_GroupIsRetriedAndSaved() {
+        // Arrange
+        LogRepository delegate = mock(LogRepository.class);
+        when(delegate.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("Connection lost"))
+                .thenReturn(List.of(true));
+
+        try (LogRepositoryWriteBehind repository = new LogRepositoryWriteBehind(delegate, 100, 100, 0, 100)) {
+            repository.save(mock(Log.class));
+
+            // Act
+            repository.flush();
+
+            // Assert
+            verify(delegate, times(2)).saveAll(anyList());
+            assertEquals(1, repository.getCommittedLogs());
+            assertEquals(0, repository.getFailedLogs());
+            assertEquals(0, repository.getFailedCommits());
+        }
+    }
+
+    /**
+     * This test ensures a group whose commit keeps failing is given up after the last attempt, and that its logs are
+     * counted as failed instead of being silently lost.
+     */
+    @Test
+    void givenCommitAlwaysFailing_GroupIsDroppedAfterTheLastAttemptAndCounted() {
+        // Arrange
+        LogRepository delegate = mock(LogRepository.class);
+        when(delegate.saveAll(anyList())).thenThrow(new IllegalStateException("Connection lost"));
+        LogRepositoryWriteBehind repository = new LogRepositoryWriteBehind(delegate, 100, 100, 0, 100);
+        repository.save(mock(Log.class));
+
+        // Act
+        repository.close();
+
+        // Assert
+        verify(delegate, times(3)).saveAll(anyList());
+        assertEquals(0, repository.getCommittedLogs());
+        assertEquals(1, repository.getFailedLogs());
+        assertEquals(1, repository.getFailedCommits());
+    }
+}
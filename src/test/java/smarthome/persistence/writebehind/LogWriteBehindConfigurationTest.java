@@ -0,0 +1,35 @@
+package smarthome.persistence.writebehind;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import smarthome.persistence.LogRepository;
+import smarthome.persistence.springdata.LogRepositorySpringData;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application with the default properties, where the write-behind log pipeline is off.
+ */
+@SpringBootTest
+class LogWriteBehindConfigurationTest {
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    /**
+     * Test to verify that, with the default properties, the context starts without the write-behind repository and
+     * the Spring Data log repository is the one injected into the services.
+     */
+    @Test
+    void givenDefaultProperties_ContextStartsWithTheSpringDataLogRepository() {
+        // Assert
+        assertEquals(0, applicationContext.getBeanNamesForType(LogRepositoryWriteBehind.class).length);
+        assertFalse(applicationContext.containsBean("primaryLogRepository"));
+        assertInstanceOf(LogRepositorySpringData.class, logRepository);
+    }
+}
@@ -1,5 +1,6 @@
 package smarthome.service;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import smarthome.domain.actuator.*;
 import smarthome.domain.actuator.externalservices.ActuatorExternalService;
@@ -11,16 +12,20 @@ import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
 import smarthome.domain.vo.actuatorvo.ActuatorStatusVO;
 import smarthome.domain.vo.actuatorvo.Settings;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.persistence.ActuatorRepository;
 import smarthome.persistence.ActuatorTypeRepository;
 import smarthome.persistence.DeviceRepository;
+import smarthome.service.command.ActuatorCommandQueue;
 import org.junit.jupiter.api.Test;
 
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -558,10 +563,10 @@ class ActuatorServiceImplTest {
      * findById method is called with the ActuatorIDVO as an argument.
      * Next, it sets the behavior of the actuator double to return a new ActuatorTypeIDVO of type "RollerBlindActuator".
      * Then, it sets the behavior of the actuator double to return true when the executeCommand method is called with
-     * the ActuatorExternalService and 0 as arguments.
+     * the ActuatorExternalService and 0 as arguments, and the ActuatorRepository to save the closed actuator.
      * After that, it creates an ActuatorServiceImpl instance with the mocked dependencies. It then calls the
      * closeRollerBlind method with the ActuatorIDVO as an argument and assigns the result to a boolean variable.
-     * Finally, it asserts that the result is true.
+     * Finally, it asserts that the result is true and that the closed actuator was saved.
      */
     @Test
     void whenCloseRollerBlindWithValidActuator_ThenReturnsTrue() {
@@ -576,11 +581,13 @@ class ActuatorServiceImplTest {
         when(actuatorRepository.findById(actuatorIDVO)).thenReturn(actuator);
         when(actuator.getActuatorTypeID()).thenReturn(new ActuatorTypeIDVO("RollerBlindActuator"));
         when(actuator.executeCommand(this.externalService, "0")).thenReturn("0");
+        when(actuatorRepository.save(actuator)).thenReturn(true);
         ActuatorService actuatorService = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository, actuatorFactory, actuatorRepository);
         //Act
         boolean result = actuatorService.closeRollerBlind(actuatorIDVO);
         //Assert
         assertTrue(result);
+        verify(actuatorRepository).save(actuator);
     }
 
 
@@ -602,6 +609,7 @@ class ActuatorServiceImplTest {
         boolean result = actuatorService.closeRollerBlind(actuatorIDVO);
         //Assert
         assertFalse(result);
+        verify(actuatorRepository, never()).save(actuator);
     }
 
     /**
@@ -963,4 +971,367 @@ class ActuatorServiceImplTest {
         // Assert
         assertEquals(actuator, result);
     }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#executeRoomCommand(RoomIDVO, ActuatorTypeIDVO, String)}.
+     * <p>
+     * This test verifies that a group command throws an {@link IllegalArgumentException} when any of its parameters
+     * is null, or when the actuator type is not present.
+     * </p>
+     */
+    @Test
+    void whenGroupCommandGivenInvalidParameters_ThenThrowsIllegalArgumentException() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        RoomIDVO roomIDVO = new RoomIDVO(UUID.randomUUID());
+        ActuatorTypeIDVO rollerBlind = new ActuatorTypeIDVO("RollerBlindActuator");
+        when(actuatorTypeRepository.isPresent(rollerBlind)).thenReturn(false);
+        when(deviceRepository.findByRoomID(roomIDVO)).thenReturn(Collections.emptyList());
+
+        ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                actuatorFactory, actuatorRepository);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.executeRoomCommand(null, rollerBlind, "0"));
+        assertThrows(IllegalArgumentException.class, () -> service.executeRoomCommand(roomIDVO, null, "0"));
+        assertThrows(IllegalArgumentException.class, () -> service.executeRoomCommand(roomIDVO, rollerBlind, null));
+        assertThrows(IllegalArgumentException.class, () -> service.executeGroupCommand(null, rollerBlind, "0"));
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                service.executeRoomCommand(roomIDVO, rollerBlind, "0"));
+        assertEquals("Actuator type is not present", exception.getMessage());
+    }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#executeGroupCommand(List, ActuatorTypeIDVO, String)}.
+     * <p>
+     * This test verifies that a group command naming a device that is not found throws an
+     * {@link IllegalArgumentException} with the message "Device not found", and commands no actuator.
+     * </p>
+     */
+    @Test
+    void whenGroupCommandGivenUnknownDevice_ThenThrowsIllegalArgumentException() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        DeviceIDVO deviceIDVO = new DeviceIDVO(UUID.randomUUID());
+        ActuatorTypeIDVO rollerBlind = new ActuatorTypeIDVO("RollerBlindActuator");
+        when(deviceRepository.findById(deviceIDVO)).thenReturn(null);
+
+        ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                actuatorFactory, actuatorRepository);
+
+        // Act
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                service.executeGroupCommand(List.of(deviceIDVO), rollerBlind, "0"));
+
+        // Assert
+        assertEquals("Device not found", exception.getMessage());
+        verify(actuatorRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#executeRoomCommand(RoomIDVO, ActuatorTypeIDVO, String)}.
+     * <p>
+     * This test verifies that a room command executes the command on every actuator of the type in the active
+     * devices of the room, and only on them, and saves their new states with a single saveAll().
+     * </p>
+     */
+    @Test
+    void whenRoomCommandExecuted_ThenActuatorsOfTheTypeInActiveDevicesAreSavedInOneBatch() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        RoomIDVO roomIDVO = new RoomIDVO(UUID.randomUUID());
+        ActuatorTypeIDVO rollerBlind = new ActuatorTypeIDVO("RollerBlindActuator");
+
+        Device active = deviceDouble(true);
+        Device inactive = deviceDouble(false);
+        Actuator blindOne = actuatorDouble(rollerBlind, "0");
+        Actuator blindTwo = actuatorDouble(rollerBlind, "0");
+        Actuator lightSwitch = actuatorDouble(new ActuatorTypeIDVO("SwitchActuator"), "0");
+        Actuator blindOfInactiveDevice = actuatorDouble(rollerBlind, "0");
+
+        when(actuatorTypeRepository.isPresent(rollerBlind)).thenReturn(true);
+        when(deviceRepository.findByRoomID(roomIDVO)).thenReturn(List.of(active, inactive));
+        when(actuatorRepository.findByDeviceID(active.getId())).thenReturn(List.of(blindOne, lightSwitch, blindTwo));
+        when(actuatorRepository.findByDeviceID(inactive.getId())).thenReturn(List.of(blindOfInactiveDevice));
+        when(actuatorRepository.saveAll(List.of(blindOne, blindTwo))).thenReturn(List.of(true, true));
+
+        ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                actuatorFactory, actuatorRepository);
+
+        // Act
+        GroupCommandResult result = service.executeRoomCommand(roomIDVO, rollerBlind, "0");
+
+        // Assert
+        assertTrue(result.isSuccessful());
+        assertEquals(2, result.getOutcomes().size());
+        assertEquals(blindOne.getId(), result.getOutcomes().get(0).getActuatorID());
+        assertEquals("0", result.getOutcomes().get(1).getStatus());
+        verify(actuatorRepository).saveAll(List.of(blindOne, blindTwo));
+        verify(actuatorRepository, never()).save(any());
+        verify(lightSwitch, never()).executeCommand(any(), anyString());
+        verify(blindOfInactiveDevice, never()).executeCommand(any(), anyString());
+    }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#executeGroupCommand(List, ActuatorTypeIDVO, String)}.
+     * <p>
+     * This test verifies that the actuators of a group are commanded concurrently, never more than the configured
+     * parallelism at once, that an actuator the hardware rejects, or does not answer for before the timeout, is
+     * reported with its error and left out of the batch, and that the others are still saved.
+     * </p>
+     */
+    @Test
+    void whenGroupCommandRunsWithSlowAndFailingHardware_ThenEachActuatorIsReportedOnItsOwn() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        ActuatorTypeIDVO rollerBlind = new ActuatorTypeIDVO("RollerBlindActuator");
+        Device device = deviceDouble(true);
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Actuator> slow = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Actuator actuator = actuatorDouble(rollerBlind, "0");
+            when(actuator.executeCommand(any(), eq("0"))).thenAnswer(invocation -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(100);
+                running.decrementAndGet();
+                return "0";
+            });
+            slow.add(actuator);
+        }
+        Actuator rejected = actuatorDouble(rollerBlind, "0");
+        when(rejected.executeCommand(any(), eq("0"))).thenThrow(new IllegalArgumentException("Hardware error: Value was not set"));
+        Actuator unanswered = actuatorDouble(rollerBlind, "0");
+        when(unanswered.executeCommand(any(), eq("0"))).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return "0";
+        });
+        List<Actuator> actuators = new ArrayList<>(slow);
+        actuators.add(rejected);
+        actuators.add(unanswered);
+
+        when(actuatorTypeRepository.isPresent(rollerBlind)).thenReturn(true);
+        when(deviceRepository.findById(device.getId())).thenReturn(device);
+        when(actuatorRepository.findByDeviceID(device.getId())).thenReturn(actuators);
+        when(actuatorRepository.saveAll(slow)).thenReturn(List.of(true, true, true, true));
+
+        try (ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                actuatorFactory, actuatorRepository, 2, 1000)) {
+
+            // Act
+            GroupCommandResult result = service.executeGroupCommand(List.of(device.getId()), rollerBlind, "0");
+
+            // Assert
+            assertFalse(result.isSuccessful());
+            assertEquals(6, result.getOutcomes().size());
+            assertTrue(result.getOutcomes().subList(0, 4).stream().allMatch(GroupCommandResult.ActuatorOutcome::isSuccessful));
+            assertEquals("Hardware error: Value was not set", result.getOutcomes().get(4).getError());
+            assertEquals("Timed out", result.getOutcomes().get(5).getError());
+            assertTrue(maxRunning.get() <= 2);
+            assertTrue(maxRunning.get() > 1);
+            assertTrue(result.getLatencyMillis() >= 1000);
+            verify(actuatorRepository).saveAll(slow);
+        }
+    }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#executeGroupCommand(List, ActuatorTypeIDVO, String)}.
+     * <p>
+     * This test verifies that an actuator that executed the command but could not be saved is reported with the
+     * error "Unable to save".
+     * </p>
+     */
+    @Test
+    void whenGroupCommandFailsToSaveAnActuator_ThenItIsReportedAsUnableToSave() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        ActuatorTypeIDVO rollerBlind = new ActuatorTypeIDVO("RollerBlindActuator");
+        Device device = deviceDouble(true);
+        Actuator saved = actuatorDouble(rollerBlind, "0");
+        Actuator notSaved = actuatorDouble(rollerBlind, "0");
+
+        when(actuatorTypeRepository.isPresent(rollerBlind)).thenReturn(true);
+        when(deviceRepository.findById(device.getId())).thenReturn(device);
+        when(actuatorRepository.findByDeviceID(device.getId())).thenReturn(List.of(saved, notSaved));
+        when(actuatorRepository.saveAll(List.of(saved, notSaved))).thenReturn(List.of(true, false));
+
+        ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                actuatorFactory, actuatorRepository);
+
+        // Act
+        GroupCommandResult result = service.executeGroupCommand(List.of(device.getId()), rollerBlind, "0");
+
+        // Assert
+        assertFalse(result.isSuccessful());
+        assertTrue(result.getOutcomes().get(0).isSuccessful());
+        assertNull(result.getOutcomes().get(1).getStatus());
+        assertEquals("Unable to save", result.getOutcomes().get(1).getError());
+    }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#executeGroupCommand(List, ActuatorTypeIDVO, String)}.
+     * <p>
+     * This test verifies that the command of an actuator the hardware answers for only after the timeout is not
+     * interrupted: the actuator is reported as timed out, and its new state is saved once the hardware answers.
+     * </p>
+     */
+    @Test
+    void whenGroupCommandTimesOut_ThenTheActuatorIsSavedOnceTheHardwareAnswers() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        ActuatorTypeIDVO rollerBlind = new ActuatorTypeIDVO("RollerBlindActuator");
+        Device device = deviceDouble(true);
+        Actuator late = actuatorDouble(rollerBlind, "0");
+        when(late.executeCommand(any(), eq("0"))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return "0";
+        });
+
+        when(actuatorTypeRepository.isPresent(rollerBlind)).thenReturn(true);
+        when(deviceRepository.findById(device.getId())).thenReturn(device);
+        when(actuatorRepository.findByDeviceID(device.getId())).thenReturn(List.of(late));
+        when(actuatorRepository.save(late)).thenReturn(true);
+
+        try (ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                actuatorFactory, actuatorRepository, 2, 100)) {
+
+            // Act
+            GroupCommandResult result = service.executeGroupCommand(List.of(device.getId()), rollerBlind, "0");
+
+            // Assert
+            assertEquals("Timed out", result.getOutcomes().get(0).getError());
+            verify(actuatorRepository, timeout(2000)).save(late);
+            verify(actuatorRepository, never()).saveAll(any());
+        }
+    }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#executeGroupCommand(List, ActuatorTypeIDVO, String)}.
+     * <p>
+     * This test verifies that when the command queue is available, the group command goes through it: each actuator
+     * is commanded and saved by the queue, and nothing is commanded or saved by the group command itself.
+     * </p>
+     */
+    @Test
+    void whenCommandQueueIsAvailable_ThenGroupCommandGoesThroughIt() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        ActuatorTypeIDVO rollerBlind = new ActuatorTypeIDVO("RollerBlindActuator");
+        Device device = deviceDouble(true);
+        Actuator first = actuatorDouble(rollerBlind, "0");
+        Actuator second = actuatorDouble(rollerBlind, "0");
+        ActuatorService queueService = mock(ActuatorService.class);
+        for (Actuator actuator : List.of(first, second)) {
+            when(actuator.getActuatorStatus()).thenReturn(new ActuatorStatusVO("0"));
+            when(actuator.isCommandValid("0")).thenReturn(true);
+            when(queueService.getActuatorById((ActuatorIDVO) actuator.getId())).thenReturn(Optional.of(actuator));
+            when(queueService.executeCommand((ActuatorIDVO) actuator.getId(), "0")).thenReturn(actuator);
+        }
+
+        when(actuatorTypeRepository.isPresent(rollerBlind)).thenReturn(true);
+        when(deviceRepository.findById(device.getId())).thenReturn(device);
+        when(actuatorRepository.findByDeviceID(device.getId())).thenReturn(List.of(first, second));
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(queueService, 0, 2);
+             ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                     actuatorFactory, actuatorRepository)) {
+            service.setCommandQueue(commandQueueProvider(queue));
+
+            // Act
+            GroupCommandResult result = service.executeGroupCommand(List.of(device.getId()), rollerBlind, "0");
+
+            // Assert
+            assertTrue(result.isSuccessful());
+            assertEquals("0", result.getOutcomes().get(0).getStatus());
+            assertEquals("0", result.getOutcomes().get(1).getStatus());
+            verify(queueService).executeCommand((ActuatorIDVO) first.getId(), "0");
+            verify(queueService).executeCommand((ActuatorIDVO) second.getId(), "0");
+            verify(first, never()).executeCommand(any(), anyString());
+            verify(actuatorRepository, never()).saveAll(any());
+        }
+    }
+
+    /**
+     * Test method for {@link ActuatorServiceImpl#closeRollerBlind(ActuatorIDVO)}.
+     * <p>
+     * This test verifies that when the command queue is available, the roller blind is closed through it, and the
+     * result is true once the queue executed the command.
+     * </p>
+     */
+    @Test
+    void whenCommandQueueIsAvailable_ThenCloseRollerBlindGoesThroughIt() {
+        // Arrange
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        ActuatorTypeRepository actuatorTypeRepository = mock(ActuatorTypeRepository.class);
+        ActuatorFactory actuatorFactory = mock(ActuatorFactory.class);
+        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
+        Actuator rollerBlind = actuatorDouble(new ActuatorTypeIDVO("RollerBlindActuator"), "0");
+        when(rollerBlind.getActuatorStatus()).thenReturn(new ActuatorStatusVO("0"));
+        ActuatorIDVO actuatorIDVO = (ActuatorIDVO) rollerBlind.getId();
+        when(actuatorRepository.isPresent(actuatorIDVO)).thenReturn(true);
+        when(actuatorRepository.findById(actuatorIDVO)).thenReturn(rollerBlind);
+        when(rollerBlind.isCommandValid("0")).thenReturn(true);
+        ActuatorService queueService = mock(ActuatorService.class);
+        when(queueService.getActuatorById(actuatorIDVO)).thenReturn(Optional.of(rollerBlind));
+        when(queueService.executeCommand(actuatorIDVO, "0")).thenReturn(rollerBlind);
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(queueService, 0, 1);
+             ActuatorServiceImpl service = new ActuatorServiceImpl(deviceRepository, actuatorTypeRepository,
+                     actuatorFactory, actuatorRepository)) {
+            service.setCommandQueue(commandQueueProvider(queue));
+
+            // Act
+            boolean result = service.closeRollerBlind(actuatorIDVO);
+
+            // Assert
+            assertTrue(result);
+            verify(queueService).executeCommand(actuatorIDVO, "0");
+            verify(rollerBlind, never()).executeCommand(any(), anyString());
+            verify(actuatorRepository, never()).save(any());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ActuatorCommandQueue> commandQueueProvider(ActuatorCommandQueue queue) {
+        ObjectProvider<ActuatorCommandQueue> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(queue);
+        return provider;
+    }
+
+    private static Device deviceDouble(boolean active) {
+        Device device = mock(Device.class);
+        when(device.getId()).thenReturn(new DeviceIDVO(UUID.randomUUID()));
+        when(device.isActive()).thenReturn(active);
+        return device;
+    }
+
+    private static Actuator actuatorDouble(ActuatorTypeIDVO actuatorTypeIDVO, String status) {
+        Actuator actuator = mock(Actuator.class);
+        when(actuator.getId()).thenReturn(new ActuatorIDVO(UUID.randomUUID()));
+        when(actuator.getActuatorTypeID()).thenReturn(actuatorTypeIDVO);
+        when(actuator.executeCommand(any(), anyString())).thenReturn(status);
+        return actuator;
+    }
 }
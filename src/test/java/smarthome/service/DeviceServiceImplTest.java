@@ -2,26 +2,35 @@ package smarthome.service;
 
 
 import org.junit.jupiter.api.Test;
-import smarthome.domain.actuator.Actuator;
+import smarthome.domain.actuator.RollerBlindActuator;
+import smarthome.domain.actuator.SwitchActuator;
 import smarthome.domain.device.Device;
 import smarthome.domain.device.DeviceFactory;
 import smarthome.domain.device.DeviceFactoryImpl;
-import smarthome.domain.sensor.Sensor;
+import smarthome.domain.sensor.HumiditySensor;
+import smarthome.domain.sensor.PositionSensor;
+import smarthome.domain.sensor.TemperatureSensor;
 import smarthome.domain.vo.actuatortype.ActuatorTypeIDVO;
+import smarthome.domain.vo.actuatorvo.ActuatorNameVO;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
 import smarthome.domain.vo.devicevo.DeviceModelVO;
 import smarthome.domain.vo.devicevo.DeviceNameVO;
 import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
-import smarthome.persistence.ActuatorRepository;
+import smarthome.domain.vo.sensorvo.SensorNameVO;
 import smarthome.persistence.DeviceRepository;
 import smarthome.persistence.RoomRepository;
-import smarthome.persistence.SensorRepository;
+import smarthome.persistence.mem.ActuatorRepositoryMem;
+import smarthome.persistence.mem.DeviceRepositoryMem;
+import smarthome.persistence.mem.SensorRepositoryMem;
 
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class DeviceServiceImplTest {
@@ -31,7 +40,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the DeviceServiceImpl constructor throws an IllegalArgumentException
-     * when the RoomRepository parameter is null. The test arranges a mock DeviceFactory, DeviceRepository, SensorRepository, and ActuatorRepository,
+     * when the RoomRepository parameter is null. The test arranges a mock DeviceFactory and DeviceRepository,
      * and then asserts that an IllegalArgumentException is thrown when the DeviceServiceImpl constructor
      * is called with a null RoomRepository. The test also verifies that the exception message matches the expected message.
      */
@@ -41,12 +50,10 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = null;
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
         String expected = "Invalid parameters";
 
         //Act
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository));
         String result = exception.getMessage();
 
         //Assert
@@ -55,7 +62,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the DeviceServiceImpl constructor throws an IllegalArgumentException
-     * when the DeviceFactory parameter is null. The test arranges a mock RoomRepository, DeviceRepository, SensorRepository, and ActuatorRepository,
+     * when the DeviceFactory parameter is null. The test arranges a mock RoomRepository and DeviceRepository,
      * and then asserts that an IllegalArgumentException is thrown when the DeviceServiceImpl constructor
      * is called with a null DeviceFactory. The test also verifies that the exception message matches the expected message.
      */
@@ -65,12 +72,10 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = null;
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
         String expected = "Invalid parameters";
 
         //Act
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository));
         String result = exception.getMessage();
 
         //Assert
@@ -79,7 +84,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the DeviceServiceImpl constructor throws an IllegalArgumentException
-     * when the DeviceRepository parameter is null. The test arranges a mock RoomRepository, DeviceFactory, SensorRepository, and ActuatorRepository,
+     * when the DeviceRepository parameter is null. The test arranges a mock RoomRepository and DeviceFactory,
      * and then asserts that an IllegalArgumentException is thrown when the DeviceServiceImpl constructor
      * is called with a null DeviceRepository. The test also verifies that the exception message matches the expected message.
      */
@@ -89,62 +94,10 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = null;
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
         String expected = "Invalid parameters";
 
         //Act
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository));
-        String result = exception.getMessage();
-
-        //Assert
-        assertEquals(expected, result);
-    }
-
-    /**
-     * Test to verify that the DeviceServiceImpl constructor throws an IllegalArgumentException
-     * when the SensorRepository parameter is null. The test arranges a mock RoomRepository, DeviceFactory, DeviceRepository, and ActuatorRepository,
-     * and then asserts that an IllegalArgumentException is thrown when the DeviceServiceImpl constructor
-     * is called with a null SensorRepository. The test also verifies that the exception message matches the expected message.
-     */
-
-    @Test
-    void whenNullSensorRepository_thenThrowsIllegalArgumentException() {
-        //Arrange
-        RoomRepository roomRepository = mock(RoomRepository.class);
-        DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
-        DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = null;
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        String expected = "Invalid parameters";
-
-        //Act
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository));
-        String result = exception.getMessage();
-
-        //Assert
-        assertEquals(expected, result);
-    }
-
-    /**
-     * Test to verify that the DeviceServiceImpl constructor throws an IllegalArgumentException
-     * when the ActuatorRepository parameter is null. The test arranges a mock RoomRepository, DeviceFactory, DeviceRepository, and SensorRepository,
-     * and then asserts that an IllegalArgumentException is thrown when the DeviceServiceImpl constructor
-     * is called with a null ActuatorRepository. The test also verifies that the exception message matches the expected message.
-     */
-
-    @Test
-    void whenNullActuatorRepository_thenThrowsIllegalArgumentException() {
-        //Arrange
-        RoomRepository roomRepository = mock(RoomRepository.class);
-        DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
-        DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = null;
-        String expected = "Invalid parameters";
-
-        //Act
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository));
         String result = exception.getMessage();
 
         //Assert
@@ -153,7 +106,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the DeviceServiceImpl constructor correctly instantiates the DeviceService
-     * when all parameters are valid. The test arranges mock RoomRepository, DeviceFactory, DeviceRepository, SensorRepository, and ActuatorRepository,
+     * when all parameters are valid. The test arranges mock RoomRepository, DeviceFactory and DeviceRepository,
      * and then asserts that a DeviceServiceImpl object is successfully created when the constructor is called with these valid parameters.
      */
     @Test
@@ -162,11 +115,9 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
 
         //Act
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
 
         //Assert
         assertNotNull(deviceService);
@@ -176,7 +127,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the addDevice method throws an IllegalArgumentException
-     * when the DeviceNameVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository, SensorRepository, ActuatorRepository,
+     * when the DeviceNameVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
      * DeviceModelVO, and RoomIDVO. It then asserts that an IllegalArgumentException is thrown when the addDevice method
      * is called with a null DeviceNameVO. The test also verifies that the exception message matches the expected message.
      */
@@ -186,9 +137,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceModelVO deviceModelIDVO = mock(DeviceModelVO.class);
         RoomIDVO roomIDVO = mock(RoomIDVO.class);
         String expected = "DeviceNameVO, DeviceModelVO and RoomIDVO cannot be null.";
@@ -204,7 +153,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the addDevice method throws an IllegalArgumentException
      * when the DeviceModelVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceNameVO, and RoomIDVO. It then asserts that an IllegalArgumentException is thrown when the addDevice method
+     * DeviceNameVO, and RoomIDVO. It then asserts that an IllegalArgumentException is thrown when the addDevice method
      * is called with a null DeviceModelVO. The test also verifies that the exception message matches the expected message.
      */
     @Test
@@ -213,9 +162,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceNameVO deviceName = mock(DeviceNameVO.class);
         RoomIDVO roomIDVO = mock(RoomIDVO.class);
         String expected = "DeviceNameVO, DeviceModelVO and RoomIDVO cannot be null.";
@@ -231,7 +178,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the addDevice method throws an IllegalArgumentException
      * when the RoomIDVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceNameVO, and DeviceModelVO. It then asserts that an IllegalArgumentException is thrown when the addDevice method
+     * DeviceNameVO, and DeviceModelVO. It then asserts that an IllegalArgumentException is thrown when the addDevice method
      * is called with a null RoomIDVO. The test also verifies that the exception message matches the expected message.
      */
     @Test
@@ -240,9 +187,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceModelVO deviceModelIDVO = mock(DeviceModelVO.class);
         DeviceNameVO deviceNameVO = mock(DeviceNameVO.class);
         String expected = "DeviceNameVO, DeviceModelVO and RoomIDVO cannot be null.";
@@ -258,7 +203,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the addDevice method throws an IllegalArgumentException
      * when the RoomIDVO does not exist in the RoomRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceNameVO, DeviceModelVO, and RoomIDVO. It then sets the behavior of the RoomRepository to return false when isPresent is called.
+     * DeviceNameVO, DeviceModelVO, and RoomIDVO. It then sets the behavior of the RoomRepository to return false when isPresent is called.
      * It then asserts that an IllegalArgumentException is thrown when the addDevice method is called. The test also verifies that the exception message matches the expected message.
      */
     @Test
@@ -267,9 +212,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceNameVO deviceNameVO = mock(DeviceNameVO.class);
         DeviceModelVO deviceModelIDVO = mock(DeviceModelVO.class);
         RoomIDVO roomIDVO = mock(RoomIDVO.class);
@@ -288,7 +231,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the addDevice method returns an empty Optional
      * when the Device is not saved in the DeviceRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceNameVO, DeviceModelVO, and RoomIDVO. It then sets the behavior of the RoomRepository to return true when isPresent is called,
+     * DeviceNameVO, DeviceModelVO, and RoomIDVO. It then sets the behavior of the RoomRepository to return true when isPresent is called,
      * and the behavior of the DeviceRepository to return false when save is called. It then asserts that the result of the addDevice method is an empty Optional.
      */
     @Test
@@ -297,9 +240,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceNameVO deviceNameVO = mock(DeviceNameVO.class);
         DeviceModelVO deviceModelIDVO = mock(DeviceModelVO.class);
         RoomIDVO roomIDVO = mock(RoomIDVO.class);
@@ -317,7 +258,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the addDevice method returns an Optional of Device
      * when the Device is saved in the DeviceRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceNameVO, DeviceModelVO, RoomIDVO, and Device. It then sets the behavior of the RoomRepository to return true when isPresent is called,
+     * DeviceNameVO, DeviceModelVO, RoomIDVO, and Device. It then sets the behavior of the RoomRepository to return true when isPresent is called,
      * the behavior of the DeviceFactoryImpl to return the mock Device when createDevice is called, and the behavior of the DeviceRepository to return true when save is called.
      * It then asserts that the result of the addDevice method is an Optional containing the mock Device.
      */
@@ -327,9 +268,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceNameVO deviceNameVO = mock(DeviceNameVO.class);
         DeviceModelVO deviceModelIDVO = mock(DeviceModelVO.class);
         RoomIDVO roomIDVO = mock(RoomIDVO.class);
@@ -350,7 +289,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the deactivateDevice method throws an IllegalArgumentException
-     * when the DeviceIDVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository, SensorRepository, and ActuatorRepository.
+     * when the DeviceIDVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository.
      * It then asserts that an IllegalArgumentException is thrown when the deactivateDevice method
      * is called with a null DeviceIDVO. The test also verifies that the exception message matches the expected message.
      */
@@ -360,9 +299,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         String expected = "DeviceIDVO cannot be null.";
 
         //Act
@@ -377,7 +314,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the deactivateDevice method
      * when the DeviceIDVO does not exist in the DeviceRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository and DeviceIDVO. It then sets the behavior of the DeviceRepository to return false when isPresent is called.
+     * DeviceIDVO. It then sets the behavior of the DeviceRepository to return false when isPresent is called.
      * It then asserts that an empty optional is returned
      */
     @Test
@@ -386,9 +323,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceIDVO deviceIDVO = mock(DeviceIDVO.class);
 
         when(deviceRepository.isPresent(deviceIDVO)).thenReturn(false);
@@ -402,8 +337,8 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the deactivateDevice method throws an IllegalArgumentException
-     * when the Device is not active. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository, SensorRepository,
-     * ActuatorRepository, DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
+     * when the Device is not active. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
+     * DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
      * the behavior of the DeviceRepository to return the mock Device when findById is called, and the behavior of the Device to return false when isActive is called.
      * It then asserts that an IllegalArgumentException is thrown when the deactivateDevice method is called. The test also verifies that the exception message matches the expected message.
      */
@@ -413,9 +348,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceIDVO deviceIDVO = mock(DeviceIDVO.class);
         Device device = mock(Device.class);
         String expected = "Device with ID: " + deviceIDVO + " is already deactivated.";
@@ -436,7 +369,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the deactivateDevice method returns an empty Optional
      * when the Device is not deactivated. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
+     * DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
      * the behavior of the DeviceRepository to return the mock Device when findById is called, the behavior of the Device to return true when isActive is called,
      * the behavior of the Device to return false when deactivateDevice is called, and the behavior of the DeviceRepository to return true when update is called.
      * It then asserts that deactivateDevice method throws and Illegal Argument Exception.
@@ -448,9 +381,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceIDVO deviceIDVO = mock(DeviceIDVO.class);
         Device device = mock(Device.class);
 
@@ -471,7 +402,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the deactivateDevice method returns an empty Optional
      * when the Device is not updated in the DeviceRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
+     * DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
      * the behavior of the DeviceRepository to return the mock Device when findById is called, the behavior of the Device to return true when isActive is called,
      * the behavior of the Device to return true when deactivateDevice is called, and the behavior of the DeviceRepository to return false when update is called.
      * It then asserts that the result of deactivateDevice method throws and Illegal Argument Exception.
@@ -483,9 +414,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceIDVO deviceIDVO = mock(DeviceIDVO.class);
         Device device = mock(Device.class);
         String result = "Device could not be updated";
@@ -508,7 +437,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the deactivateDevice method returns an Optional of Device
      * when the Device is correctly deactivated and updated in the DeviceRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
+     * DeviceIDVO, and Device. It then sets the behavior of the DeviceRepository to return true when isPresent is called,
      * the behavior of the DeviceRepository to return the mock Device when findById is called, the behavior of the Device to return true when isActive is called,
      * the behavior of the Device to return true when deactivateDevice is called, and the behavior of the DeviceRepository to return true when update is called.
      * It then asserts that the result of the deactivateDevice method is an Optional containing the mock Device.
@@ -520,9 +449,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         DeviceIDVO deviceIDVO = mock(DeviceIDVO.class);
         Device device = mock(Device.class);
 
@@ -542,7 +469,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the getListOfDevicesInARoom method throws an IllegalArgumentException
-     * when the RoomIDVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository, SensorRepository, and ActuatorRepository.
+     * when the RoomIDVO parameter is null. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository.
      * It then asserts that an IllegalArgumentException is thrown when the getListOfDevicesInARoom method
      * is called with a null RoomIDVO. The test also verifies that the exception message matches the expected message.
      */
@@ -553,9 +480,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         String expected = "RoomIDVO cannot be null.";
 
         //Act
@@ -570,7 +495,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the getListOfDevicesInARoom method throws an IllegalArgumentException
      * when the RoomIDVO does not exist in the DeviceRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository and RoomIDVO. It then sets the behavior of the DeviceRepository to return an empty list when findByRoomID is called.
+     * RoomIDVO. It then sets the behavior of the DeviceRepository to return an empty list when findByRoomID is called.
      * It then asserts that an IllegalArgumentException is thrown when the getListOfDevicesInARoom method is called. The test also verifies that the exception message matches the expected message.
      */
     @Test
@@ -579,9 +504,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         RoomIDVO roomIDVO = mock(RoomIDVO.class);
         String expected = "Room with ID: " + roomIDVO + " is not present.";
 
@@ -599,7 +522,7 @@ class DeviceServiceImplTest {
     /**
      * Test to verify that the getListOfDevicesInARoom method returns a list of Devices
      * when the RoomIDVO exists in the RoomRepository. The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository,
-     * SensorRepository, ActuatorRepository, RoomIDVO, and a list of Devices. It then sets the behavior of the RoomRepository to return true when isPresent is called,
+     * RoomIDVO, and a list of Devices. It then sets the behavior of the RoomRepository to return true when isPresent is called,
      * and the behavior of the DeviceRepository to return the list of Devices when findByRoomID is called.
      * It then asserts that the result of the getListOfDevicesInARoom method is the list of Devices.
      */
@@ -609,9 +532,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
         RoomIDVO roomIDVO = mock(RoomIDVO.class);
         List<Device> devices = Collections.singletonList(mock(Device.class));
 
@@ -629,11 +550,7 @@ class DeviceServiceImplTest {
 
     /**
      * This test verifies the functionality of the getListOfDevicesByFunctionality method in the DeviceService class.
-     * It ensures that the method correctly associates devices with their respective functionalities and returns a map
-     * where each key represents a functionality and each value is a list of devices associated with that functionality.
-     * The test sets up various doubled dependencies, conditions their behavior, and then invokes the
-     * getListOfDevicesByFunctionality method to obtain the result. It then compares the result with the expected
-     * functionalities and associated device lists.
+     * It ensures that the method returns an empty map when the device repository finds no devices grouped by functionality.
      */
 
     @Test
@@ -642,12 +559,9 @@ class DeviceServiceImplTest {
         RoomRepository roomRepository = mock(RoomRepository.class);
         DeviceFactoryImpl deviceFactory = mock(DeviceFactoryImpl.class);
         DeviceRepository deviceRepository = mock(DeviceRepository.class);
-        SensorRepository sensorRepository = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepository = mock(ActuatorRepository.class);
-        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository, sensorRepository, actuatorRepository);
+        DeviceServiceImpl deviceService = new DeviceServiceImpl(roomRepository, deviceFactory, deviceRepository);
 
-        when(sensorRepository.findAll()).thenReturn(Collections.emptyList());
-        when(actuatorRepository.findAll()).thenReturn(Collections.emptyList());
+        when(deviceRepository.findGroupedByFunctionality()).thenReturn(new LinkedHashMap<>());
 
         // Act
         Map<String, List<Device>> result = deviceService.getListOfDeviceByFunctionality();
@@ -658,12 +572,8 @@ class DeviceServiceImplTest {
 
     /**
      * This test verifies the functionality of the getListOfDevicesByFunctionality method in the DeviceService class.
-     * It ensures that the method correctly associates devices with their respective functionalities and returns a map
-     * where each key represents a functionality and each value is a list of devices associated with that functionality.
-
-     * The test sets up various doubled dependencies, conditions their behavior, and then invokes the
-     * getListOfDevicesByFunctionality method to obtain the result. It then compares the result with the expected
-     * functionalities and associated device lists.
+     * It ensures that the method returns the devices grouped by functionality as found by the device repository,
+     * keeping the order of the functionalities, and that sensors, actuators and devices are not loaded one by one.
 
      * Regarding behavior conditioning, every step of the test is commented to a better analysis.
      */
@@ -672,284 +582,117 @@ class DeviceServiceImplTest {
     void getListOfDevicesByFunctionality_ShouldReturnListOfDevicesByFunctionality() {
         //Arrange
 
-        //Defining all functionalities for being reused through the test (sensor types and actuator types)
-        String humidity = "HumiditySensor";
-        String position = "PositionSensor";
-        String temperature = "TemperatureSensor";
-        String sunset = "SunsetSensor";
-        String switchActuator = "SwitchSensor";
-        String rollerBlind = "RollerBlindSensor";
-
-        //Adding all expected functionalities to a list (for future comparison with the resulting map key set)
-        List<String> expectedFunctionalities = new ArrayList<>();
-
-        expectedFunctionalities.add(humidity);
-        expectedFunctionalities.add(position);
-        expectedFunctionalities.add(temperature);
-        expectedFunctionalities.add(sunset);
-        expectedFunctionalities.add(switchActuator);
-        expectedFunctionalities.add(rollerBlind);
-
-        //Sorting alphabetically list content
-        Collections.sort(expectedFunctionalities);
-
         //Doubling all device service dependencies
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactoryDouble = mock(DeviceFactory.class);
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
 
         //Initialize device service with previously doubled dependencies
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble);
 
-        //Doubling devices
+        //Doubling devices and grouping them by functionality, sensor types first
         Device deviceOneDouble = mock(Device.class);
         Device deviceTwoDouble = mock(Device.class);
-        Device deviceThreeDouble = mock(Device.class);
-        Device deviceFourDouble = mock(Device.class);
-
-        //Conditioning the doubled device's behavior to return an id when queried for it's ID
-
-        DeviceIDVO deviceIDOneDouble = mock(DeviceIDVO.class);
-        when(deviceOneDouble.getId()).thenReturn(deviceIDOneDouble);
-
-        DeviceIDVO deviceIDTwoDouble = mock(DeviceIDVO.class);
-        when(deviceTwoDouble.getId()).thenReturn(deviceIDTwoDouble);
-
-        DeviceIDVO deviceIDThreeDouble = mock(DeviceIDVO.class);
-        when(deviceThreeDouble.getId()).thenReturn(deviceIDThreeDouble);
-
-        DeviceIDVO deviceIDFourDouble = mock(DeviceIDVO.class);
-        when(deviceFourDouble.getId()).thenReturn(deviceIDFourDouble);
-
-        /*
-        Creating various lists with the device doubles.
-        Each list will be used to compare with the resulting map value of a given key (functionality)
-         */
-
-        List<Device> listOne = new ArrayList<>();
-        listOne.add(deviceOneDouble);
-
-        List<Device> listTwo = new ArrayList<>();
-        listTwo.add(deviceTwoDouble);
-
-        List<Device> listThree = new ArrayList<>();
-        listThree.add(deviceThreeDouble);
-
-        List<Device> listFour = new ArrayList<>();
-        listFour.add(deviceFourDouble);
-
-        //Conditioning device repository to return a device, when invoked to find a device by id
 
-        when(deviceRepositoryDouble.findById(deviceIDOneDouble)).thenReturn(deviceOneDouble);
-        when(deviceRepositoryDouble.findById(deviceIDTwoDouble)).thenReturn(deviceTwoDouble);
-        when(deviceRepositoryDouble.findById(deviceIDThreeDouble)).thenReturn(deviceThreeDouble);
-        when(deviceRepositoryDouble.findById(deviceIDFourDouble)).thenReturn(deviceFourDouble);
+        Map<String, List<Device>> devicesByFunctionality = new LinkedHashMap<>();
+        devicesByFunctionality.put("TemperatureSensor", List.of(deviceOneDouble, deviceTwoDouble));
+        devicesByFunctionality.put("HumiditySensor", List.of(deviceTwoDouble));
+        devicesByFunctionality.put("SwitchActuator", List.of(deviceOneDouble));
 
-        /*
-        Doubling sensors and adding them to a list (this list will be returned by sensor repository double
-        when queried for all sensors.
-         */
+        //Conditioning device repository double to return the previously grouped devices
+        when(deviceRepositoryDouble.findGroupedByFunctionality()).thenReturn(devicesByFunctionality);
 
-        List<Sensor> sensorList = new ArrayList<>();
-
-        Sensor sensorOneDouble = mock(Sensor.class);
-        sensorList.add(sensorOneDouble);
-
-        Sensor sensorTwoDouble = mock(Sensor.class);
-        sensorList.add(sensorTwoDouble);
-
-        Sensor sensorThreeDouble = mock(Sensor.class);
-        sensorList.add(sensorThreeDouble);
-
-        Sensor sensorFourDouble = mock(Sensor.class);
-        sensorList.add(sensorFourDouble);
-
-        //Conditioning sensor repository double to return a previously created sensor doubles list
-        when(sensorRepositoryDouble.findAll()).thenReturn(sensorList);
-
-        /*
-        Doubling sensor type id value objects and conditioning each behavior to return their
-        id as string (functionality)
-         */
-
-        SensorTypeIDVO sensorTypeIdOneDouble = mock(SensorTypeIDVO.class);
-        when(sensorTypeIdOneDouble.getID()).thenReturn(humidity);
-
-        SensorTypeIDVO sensorTypeIdTwoDouble = mock(SensorTypeIDVO.class);
-        when(sensorTypeIdTwoDouble.getID()).thenReturn(position);
-
-        SensorTypeIDVO sensorTypeIdThreeDouble = mock(SensorTypeIDVO.class);
-        when(sensorTypeIdThreeDouble.getID()).thenReturn(temperature);
-
-        SensorTypeIDVO sensorTypeIdFourDouble = mock(SensorTypeIDVO.class);
-        when(sensorTypeIdFourDouble.getID()).thenReturn(sunset);
-
-        //Conditioning each sensor to return a doubled sensor type id value object
-
-        when(sensorOneDouble.getSensorTypeID()).thenReturn(sensorTypeIdOneDouble);
-        when(sensorTwoDouble.getSensorTypeID()).thenReturn(sensorTypeIdTwoDouble);
-        when(sensorThreeDouble.getSensorTypeID()).thenReturn(sensorTypeIdThreeDouble);
-        when(sensorFourDouble.getSensorTypeID()).thenReturn(sensorTypeIdFourDouble);
-
-        //Conditioning each sensor to return a doubled device id value object
-
-        when(sensorOneDouble.getDeviceID()).thenReturn(deviceIDOneDouble);
-        when(sensorTwoDouble.getDeviceID()).thenReturn(deviceIDTwoDouble);
-        when(sensorThreeDouble.getDeviceID()).thenReturn(deviceIDThreeDouble);
-        when(sensorFourDouble.getDeviceID()).thenReturn(deviceIDFourDouble);
-
-        //Actuators
-
-         /*
-        Doubling actuators and adding them to a list (this list will be returned by actuator repository double
-        when queried for all actuators.
-         */
-        List<Actuator> actuatorList = new ArrayList<>();
-
-        Actuator actuatorOne = mock(Actuator.class);
-        actuatorList.add(actuatorOne);
-
-        Actuator actuatorTwo = mock(Actuator.class);
-        actuatorList.add(actuatorTwo);
-
-        //Conditioning actuator repository to return an actuator list when queried for all actuators
-        when(actuatorRepositoryDouble.findAll()).thenReturn(actuatorList);
-
-        /*
-        Doubling actuator type id value objects and conditioning each behavior to return their
-        id as string (functionality)
-        */
-        ActuatorTypeIDVO actuatorTypeIDOneDouble = mock(ActuatorTypeIDVO.class);
-        when(actuatorTypeIDOneDouble.getID()).thenReturn(switchActuator);
-
-        ActuatorTypeIDVO actuatorTypeIDTwoDouble = mock(ActuatorTypeIDVO.class);
-        when(actuatorTypeIDTwoDouble.getID()).thenReturn(rollerBlind);
-
-        //Conditioning each actuator to return a doubled actuator type value object
-
-        when(actuatorOne.getActuatorTypeID()).thenReturn(actuatorTypeIDOneDouble);
-        when(actuatorTwo.getActuatorTypeID()).thenReturn(actuatorTypeIDTwoDouble);
-
-        //Conditioning each actuator to return a device id double
-
-        when(actuatorOne.getDeviceID()).thenReturn(deviceIDOneDouble);
-        when(actuatorTwo.getDeviceID()).thenReturn(deviceIDTwoDouble);
+        List<String> expectedFunctionalities = List.of("TemperatureSensor", "HumiditySensor", "SwitchActuator");
 
         //Act
-
         Map<String,List<Device>> result = deviceService.getListOfDeviceByFunctionality();
 
         //Assert
+        assertEquals(expectedFunctionalities, new ArrayList<>(result.keySet()));
+        assertEquals(List.of(deviceOneDouble, deviceTwoDouble), result.get("TemperatureSensor"));
+        assertEquals(List.of(deviceTwoDouble), result.get("HumiditySensor"));
+        assertEquals(List.of(deviceOneDouble), result.get("SwitchActuator"));
 
-        /*
-        Getting the key set as a list, this key set has all resulting functionalities.
-        It will be used for comparison with a list of expected functionalities
-        */
-
-        List<String> resultFunctionalities = new ArrayList<>(result.keySet());
-
-        //Sorting alphabetically list content
-        Collections.sort(resultFunctionalities);
-
-        /*
-        Extracting the list associated with each functionality.
-        Each list will be asserted against another list, that has the expected results per functionality.
-         */
-        List<Device> firstLineList = result.get(humidity);
-        List<Device> secondLineList = result.get(position);
-        List<Device> thirdLineList = result.get(temperature);
-        List<Device> fourthLineList = result.get(sunset);
-        List<Device> fifthLineList = result.get(switchActuator);
-        List<Device> sixthLineList = result.get(rollerBlind);
-
-        //Assert
-
-        //Assert the resulting list of functionalities match the expected
-        assertEquals(expectedFunctionalities,resultFunctionalities);
-
-        //Asserting that each list associated with a functionality has the expected devices
-        assertEquals(listOne,firstLineList);
-        assertEquals(listTwo,secondLineList);
-        assertEquals(listThree,thirdLineList);
-        assertEquals(listFour,fourthLineList);
-        assertEquals(listOne,fifthLineList);
-        assertEquals(listTwo,sixthLineList);
+        //Asserting that no device was loaded one by one
+        verify(deviceRepositoryDouble, never()).findById(any());
     }
 
     /**
-     *
-     * This test verifies the functionality of the getListOfDevicesByFunctionality method in the DeviceService class.
-     * It ensures that the method throws an IllegalArgumentException when the SensorRepository returns null.
-
-     * The test sets up various doubled dependencies, conditions their behavior, and then invokes the
-     * getListOfDevicesByFunctionality method to trigger the exception. It then compares the exception message with
-     * the expected message.
+     * This test verifies the functionality of the getListOfDevicesByFunctionality method in the DeviceService class,
+     * with in-memory repositories instead of a device repository double.
+     * It ensures that the method associates four devices with the types of the four sensors and two actuators they
+     * hold, and returns a map where each key represents a functionality and each value is the list of devices
+     * associated with that functionality, sensor types first.
 
-     * Regarding behavior conditioning, every step of the test is commented for better analysis.
+     * Regarding behavior conditioning, every step of the test is commented to a better analysis.
      */
 
     @Test
-    void getListOfDevicesByFunctionality_WhenSensorRepositoryReturnsNull_ShouldThrowIllegalArgumentException() {
+    void getListOfDevicesByFunctionality_WithInMemoryRepositories_ShouldGroupDevicesBySensorAndActuatorTypes() {
         //Arrange
 
-        //Doubling all device service dependencies
-        RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
-        DeviceFactory deviceFactoryDouble = mock(DeviceFactory.class);
-        DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-
-        //Initialize device service with previously doubled dependencies
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
-
-        //Conditioning sensor repository double to return null
-        when(sensorRepositoryDouble.findAll()).thenReturn(null);
-        String expected = "Cannot access all sensors";
+        //In-memory repositories, the device repository groups its devices by the sensors and actuators saved
+        SensorRepositoryMem sensorRepository = new SensorRepositoryMem();
+        ActuatorRepositoryMem actuatorRepository = new ActuatorRepositoryMem();
+        DeviceRepository deviceRepository = new DeviceRepositoryMem(sensorRepository, actuatorRepository);
+        DeviceService deviceService = new DeviceServiceImpl(mock(RoomRepository.class), mock(DeviceFactory.class), deviceRepository);
+
+        //Saving four devices in the same room
+        RoomIDVO roomID = new RoomIDVO(UUID.randomUUID());
+        Device deviceOne = new Device(new DeviceNameVO("Device One"), new DeviceModelVO("Model"), roomID);
+        Device deviceTwo = new Device(new DeviceNameVO("Device Two"), new DeviceModelVO("Model"), roomID);
+        Device deviceThree = new Device(new DeviceNameVO("Device Three"), new DeviceModelVO("Model"), roomID);
+        Device deviceFour = new Device(new DeviceNameVO("Device Four"), new DeviceModelVO("Model"), roomID);
+        deviceRepository.save(deviceOne);
+        deviceRepository.save(deviceTwo);
+        deviceRepository.save(deviceThree);
+        deviceRepository.save(deviceFour);
+
+        //Saving one sensor per device, and a switch and a roller blind actuator on the first two devices
+        sensorRepository.save(new HumiditySensor(new SensorNameVO("Humidity"), deviceOne.getId(), new SensorTypeIDVO("HumiditySensor")));
+        sensorRepository.save(new PositionSensor(new SensorNameVO("Position"), deviceTwo.getId(), new SensorTypeIDVO("PositionSensor")));
+        sensorRepository.save(new TemperatureSensor(new SensorNameVO("Temperature"), deviceThree.getId(), new SensorTypeIDVO("TemperatureSensor")));
+        sensorRepository.save(new HumiditySensor(new SensorNameVO("Humidity"), deviceFour.getId(), new SensorTypeIDVO("HumiditySensor")));
+        actuatorRepository.save(new SwitchActuator(new ActuatorNameVO("Switch"), new ActuatorTypeIDVO("SwitchActuator"), deviceOne.getId()));
+        actuatorRepository.save(new RollerBlindActuator(new ActuatorNameVO("Blind"), new ActuatorTypeIDVO("RollerBlindActuator"), deviceTwo.getId()));
 
-        //Act + Assert
-        Exception exception = assertThrows(IllegalArgumentException.class, deviceService::getListOfDeviceByFunctionality);
-        String result = exception.getMessage();
+        //Act
+        Map<String, List<Device>> result = deviceService.getListOfDeviceByFunctionality();
 
         //Assert
-        assertEquals(expected,result);
-
+        assertEquals(List.of("HumiditySensor", "PositionSensor", "TemperatureSensor", "SwitchActuator", "RollerBlindActuator"),
+                new ArrayList<>(result.keySet()));
+        assertEquals(List.of(deviceOne, deviceFour), result.get("HumiditySensor"));
+        assertEquals(List.of(deviceTwo), result.get("PositionSensor"));
+        assertEquals(List.of(deviceThree), result.get("TemperatureSensor"));
+        assertEquals(List.of(deviceOne), result.get("SwitchActuator"));
+        assertEquals(List.of(deviceTwo), result.get("RollerBlindActuator"));
     }
 
     /**
      *
      * This test verifies the functionality of the getListOfDevicesByFunctionality method in the DeviceService class.
-     * It ensures that the method throws an IllegalArgumentException when the ActuatorRepository returns null.
-
-     * The test sets up various doubled dependencies, conditions their behavior, and then invokes the
-     * getListOfDevicesByFunctionality method to trigger the exception. It then compares the exception message with
-     * the expected message.
+     * It ensures that the method throws an IllegalArgumentException when the DeviceRepository cannot group the devices
+     * by functionality and returns null.
 
      * Regarding behavior conditioning, every step of the test is commented for better analysis.
      */
 
     @Test
-    void getListOfDevicesByFunctionality_WhenActuatorRepositoryReturnsNull_ShouldThrowIllegalArgumentException() {
+    void getListOfDevicesByFunctionality_WhenDeviceRepositoryReturnsNull_ShouldThrowIllegalArgumentException() {
         //Arrange
-        List<Sensor> sensorList = new ArrayList<>();
 
         //Doubling all device service dependencies
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactoryDouble = mock(DeviceFactory.class);
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
 
         //Initialize device service with previously doubled dependencies
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
-
-        //Conditioning actuator repository double to return a previously created sensor doubles list
-        when(sensorRepositoryDouble.findAll()).thenReturn(sensorList);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble);
 
-        //Conditioning sensor repository double to return null
-        when(actuatorRepositoryDouble.findAll()).thenReturn(null);
-        String expected = "Cannot access all actuators";
+        //Conditioning device repository double to return null
+        when(deviceRepositoryDouble.findGroupedByFunctionality()).thenReturn(null);
+        String expected = "Cannot access devices by functionality";
 
         //Act + Assert
         Exception exception = assertThrows(IllegalArgumentException.class, deviceService::getListOfDeviceByFunctionality);
@@ -962,7 +705,7 @@ class DeviceServiceImplTest {
 
     /**
      * Test to verify that the getDeviceById method throws an IllegalArgumentException when the DeviceIDVO parameter is null.
-     * The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository, SensorRepository, and ActuatorRepository.
+     * The test arranges mock RoomRepository, DeviceFactoryImpl, DeviceRepository.
      * It then asserts that an IllegalArgumentException is thrown when the getDeviceById method is called with a null DeviceIDVO.
      * The test also verifies that the exception message matches the expected message.
      */
@@ -972,9 +715,7 @@ class DeviceServiceImplTest {
         RoomRepository roomRepositoryDouble = mock(RoomRepository.class);
         DeviceFactory deviceFactoryDouble = mock(DeviceFactory.class);
         DeviceRepository deviceRepositoryDouble = mock(DeviceRepository.class);
-        SensorRepository sensorRepositoryDouble = mock(SensorRepository.class);
-        ActuatorRepository actuatorRepositoryDouble = mock(ActuatorRepository.class);
-        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble, sensorRepositoryDouble, actuatorRepositoryDouble);
+        DeviceService deviceService = new DeviceServiceImpl(roomRepositoryDouble, deviceFactoryDouble, deviceRepositoryDouble);
         String expected = "DeviceIDVO cannot be null.";
 //        Act
         Exception exception = assertThrows(IllegalArgumentException.class, () -> deviceService.getDeviceById(null));
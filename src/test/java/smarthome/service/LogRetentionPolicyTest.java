@@ -0,0 +1,63 @@
+package smarthome.service;
+
+import org.junit.jupiter.api.Test;
+import smarthome.persistence.LogRepository;
+
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LogRetentionPolicyTest {
+
+    /**
+     * Test to verify that the constructor throws IllegalArgumentException for a null repository or a negative
+     * retention.
+     */
+    @Test
+    void whenGivenInvalidParameters_ConstructorThrowsIllegalArgumentException() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LogRetentionPolicy(null, 12));
+        assertThrows(IllegalArgumentException.class, () -> new LogRetentionPolicy(logRepository, -1));
+    }
+
+    /**
+     * Test to verify that the partitions of the months before the retention period are deleted, keeping the logs of
+     * the last full retention months.
+     */
+    @Test
+    void whenRetentionIsSet_PurgeDeletesThePartitionsBeforeTheRetentionPeriod() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        when(logRepository.deletePartitionsBefore(YearMonth.of(2023, 10))).thenReturn(42L);
+        LogRetentionPolicy policy = new LogRetentionPolicy(logRepository, 12);
+
+        // Act
+        long result = policy.purgeExpiredLogs(YearMonth.of(2024, 10));
+
+        // Assert
+        assertEquals(42, result);
+        verify(logRepository).deletePartitionsBefore(YearMonth.of(2023, 10));
+    }
+
+    /**
+     * Test to verify that no log is deleted when the retention is 0 months.
+     */
+    @Test
+    void whenRetentionIsZero_PurgeKeepsEveryLog() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        LogRetentionPolicy policy = new LogRetentionPolicy(logRepository, 0);
+
+        // Act
+        long result = policy.purgeExpiredLogs(YearMonth.of(2024, 10));
+
+        // Assert
+        assertEquals(0, result);
+        verify(logRepository, never()).deletePartitionsBefore(any());
+    }
+}
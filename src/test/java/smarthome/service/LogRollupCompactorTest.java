@@ -0,0 +1,174 @@
+package smarthome.service;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactoryImpl;
+import smarthome.domain.log.ReadingAggregate;
+import smarthome.domain.log.RollupResolution;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactoryImpl;
+import smarthome.domain.sensor.sensorvalues.TemperatureValue;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.logvo.LogIDVO;
+import smarthome.domain.vo.logvo.TimeStampVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorIDVO;
+import smarthome.persistence.LogRepository;
+import smarthome.persistence.LogRollupRepository;
+import smarthome.persistence.mem.LogRepositoryMem;
+import smarthome.persistence.mem.LogRollupRepositoryMem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LogRollupCompactorTest {
+
+    private static final SensorTypeIDVO TEMPERATURE = new SensorTypeIDVO("TemperatureSensor");
+    private final DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+    private final SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+
+    private static TimeStampVO time(String time) {
+        return new TimeStampVO(LocalDateTime.parse(time));
+    }
+
+    private static LogRepository newLogRepository() {
+        return new LogRepositoryMem(new LogFactoryImpl(), new SensorValueFactoryImpl("value.properties"));
+    }
+
+    private Log saveLog(LogRepository logRepository, String time, String value) {
+        Log log = new Log(new LogIDVO(UUID.randomUUID()), time(time), new TemperatureValue(value), sensorID, deviceID, TEMPERATURE);
+        logRepository.save(log);
+        return log;
+    }
+
+    private List<ReadingAggregate> rollups(LogRollupRepository repository, RollupResolution resolution) {
+        return repository.findRollups(deviceID, TEMPERATURE, resolution, time("2024-01-01T00:00:00"), time("2024-01-03T00:00:00"));
+    }
+
+    /**
+     * Test to verify that the constructor throws IllegalArgumentException when any of the repositories is null.
+     */
+    @Test
+    void whenGivenNullRepositories_ConstructorThrowsIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new LogRollupCompactor(null, new LogRollupRepositoryMem()));
+        assertThrows(IllegalArgumentException.class, () -> new LogRollupCompactor(newLogRepository(), null));
+    }
+
+    /**
+     * Test to verify that a compaction only aggregates the raw readings of the dirty minutes, and brings the hour and
+     * day holding them up to date from the minutes already stored.
+     */
+    @Test
+    void givenADirtyMinute_CompactAggregatesOnlyThatMinuteAndUpdatesItsHourAndDay() {
+        // Arrange
+        LogRepository logRepository = spy(newLogRepository());
+        LogRollupRepository rollupRepository = new LogRollupRepositoryMem();
+        LogRollupCompactor compactor = new LogRollupCompactor(logRepository, rollupRepository);
+        compactor.markDirty(saveLog(logRepository, "2024-01-01T10:15:05", "1"));
+        compactor.markDirty(saveLog(logRepository, "2024-01-01T10:15:40", "2"));
+        compactor.compact();
+        clearInvocations(logRepository);
+        compactor.markDirty(saveLog(logRepository, "2024-01-01T10:40:00", "6"));
+
+        // Act
+        compactor.compact();
+
+        // Assert
+        verify(logRepository, times(1)).aggregateReadings(any(), any(), any(), any());
+        verify(logRepository).aggregateReadings(deviceID, TEMPERATURE, time("2024-01-01T10:40:00"), time("2024-01-01T10:41:00"));
+        List<ReadingAggregate> minutes = rollups(rollupRepository, RollupResolution.MINUTE);
+        assertEquals(2, minutes.size());
+        assertEquals(2, minutes.get(0).getCount());
+        assertEquals(1, minutes.get(1).getCount());
+        ReadingAggregate hour = rollups(rollupRepository, RollupResolution.HOUR).get(0);
+        assertEquals(3, hour.getCount());
+        assertEquals(9, hour.getSum());
+        assertEquals(time("2024-01-01T10:00:00"), hour.getStart());
+        ReadingAggregate day = rollups(rollupRepository, RollupResolution.DAY).get(0);
+        assertEquals(3, day.getCount());
+        assertEquals(1, day.getMin());
+        assertEquals(6, day.getMax());
+        assertTrue(rollupRepository.findDirty().isEmpty());
+    }
+
+    /**
+     * Test to verify that the minutes marked dirty but not compacted before a restart are compacted by the next
+     * compactor working on the same rollup repository.
+     */
+    @Test
+    void givenMinutesLeftDirtyByAPreviousRun_CompactRecoversThem() {
+        // Arrange
+        LogRepository logRepository = newLogRepository();
+        LogRollupRepository rollupRepository = new LogRollupRepositoryMem();
+        new LogRollupCompactor(logRepository, rollupRepository).markDirty(saveLog(logRepository, "2024-01-02T08:00:00", "4"));
+        LogRollupCompactor restarted = new LogRollupCompactor(logRepository, rollupRepository);
+
+        // Act
+        restarted.compact();
+
+        // Assert
+        assertEquals(1, rollups(rollupRepository, RollupResolution.DAY).get(0).getCount());
+        assertTrue(rollupRepository.findDirty().isEmpty());
+    }
+
+    /**
+     * Test to verify that a minute whose rollups cannot be written stays dirty, both in memory and in the repository,
+     * and is compacted by the next pass.
+     */
+    @Test
+    void givenRollupsThatCannotBeWritten_CompactKeepsTheMinuteDirtyAndRetriesIt() {
+        // Arrange
+        LogRepository logRepository = newLogRepository();
+        LogRollupRepository rollupRepository = spy(new LogRollupRepositoryMem());
+        doThrow(new IllegalStateException("Database unavailable")).doCallRealMethod()
+                .when(rollupRepository).replaceBuckets(any(), any(), any());
+        LogRollupCompactor compactor = new LogRollupCompactor(logRepository, rollupRepository);
+        compactor.markDirty(saveLog(logRepository, "2024-01-01T10:15:05", "1"));
+
+        // Act
+        compactor.compact();
+
+        // Assert
+        assertTrue(rollups(rollupRepository, RollupResolution.MINUTE).isEmpty());
+        assertEquals(1, rollupRepository.findDirty().size());
+
+        // Act
+        compactor.compact();
+
+        // Assert
+        assertEquals(1, rollups(rollupRepository, RollupResolution.MINUTE).size());
+        assertTrue(rollupRepository.findDirty().isEmpty());
+    }
+
+    /**
+     * Test to verify that a day with more dirty minutes than is worth querying one by one is recomputed from its raw
+     * logs with a single range query.
+     */
+    @Test
+    void givenManyDirtyMinutesInADay_CompactRebuildsTheDayFromItsRawLogs() {
+        // Arrange
+        LogRepository logRepository = spy(newLogRepository());
+        LogRollupRepository rollupRepository = new LogRollupRepositoryMem();
+        LogRollupCompactor compactor = new LogRollupCompactor(logRepository, rollupRepository);
+        LocalDateTime start = LocalDateTime.parse("2024-01-01T10:00:00");
+        for (int i = 0; i < 100; i++) {
+            compactor.markDirty(saveLog(logRepository, start.plusMinutes(i).toString(), "1"));
+        }
+
+        // Act
+        compactor.compact();
+
+        // Assert
+        verify(logRepository, never()).aggregateReadings(any(), any(), any(), any());
+        verify(logRepository, times(1)).findByDeviceIDAndSensorTypeAndTimeBetween(anyString(), anyString(), any(), any());
+        assertEquals(100, rollups(rollupRepository, RollupResolution.MINUTE).size());
+        assertEquals(2, rollups(rollupRepository, RollupResolution.HOUR).size());
+        assertEquals(100, rollups(rollupRepository, RollupResolution.DAY).get(0).getCount());
+    }
+}
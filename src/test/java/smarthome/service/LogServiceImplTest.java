@@ -8,33 +8,49 @@ import smarthome.domain.device.Device;
 import smarthome.domain.log.Log;
 import smarthome.domain.log.LogFactory;
 import smarthome.domain.log.LogFactoryImpl;
+import smarthome.domain.log.ReadingAggregate;
 import smarthome.domain.room.Room;
+import smarthome.domain.sensor.HumiditySensor;
 import smarthome.domain.sensor.Sensor;
 import smarthome.domain.sensor.SunSensor;
 import smarthome.domain.sensor.SunsetSensor;
 import smarthome.domain.sensor.SwitchSensor;
+import smarthome.domain.sensor.TemperatureSensor;
+import smarthome.domain.sensor.externalservices.SensorExternalServices;
 import smarthome.domain.sensor.externalservices.SunTimeCalculator;
 import smarthome.domain.sensor.sensorvalues.*;
 import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.devicevo.DeviceModelVO;
+import smarthome.domain.vo.devicevo.DeviceNameVO;
 import smarthome.domain.vo.logvo.LogIDVO;
 import smarthome.domain.vo.roomvo.RoomDimensionsVO;
 import smarthome.domain.vo.roomvo.RoomIDVO;
 import smarthome.domain.vo.sensortype.SensorTypeIDVO;
 import smarthome.domain.vo.sensorvo.SensorIDVO;
+import smarthome.domain.vo.sensorvo.SensorNameVO;
 import smarthome.persistence.DeviceRepository;
 import smarthome.persistence.LogRepository;
 import smarthome.persistence.RoomRepository;
 import smarthome.domain.vo.DeltaVO;
+import smarthome.domain.vo.logvo.LogCursorVO;
 import smarthome.domain.vo.logvo.TimeStampVO;
 import smarthome.persistence.SensorRepository;
+import smarthome.persistence.mem.LogRepositoryMem;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -237,6 +253,64 @@ class LogServiceImplTest {
         assertEquals(expected, result);
     }
 
+    /**
+     * Test to verify that addLogs saves all logs in a single repository call and returns one result per log,
+     * in the same order, empty for the logs that could not be saved.
+     */
+    @Test
+    void whenSomeLogsAreNotSaved_addLogsReturnsOneResultPerLogInOrder() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        Log log1 = mock(Log.class);
+        Log log2 = mock(Log.class);
+        Log log3 = mock(Log.class);
+        when(logRepository.saveAll(List.of(log1, log2, log3))).thenReturn(List.of(true, false, true));
+
+        List<Optional<Log>> expected = List.of(Optional.of(log1), Optional.empty(), Optional.of(log3));
+
+        // Act
+        List<Optional<Log>> result = service.addLogs(List.of(log1, log2, log3));
+
+        // Assert
+        assertEquals(expected, result);
+    }
+
+    /**
+     * Test to verify that addLogs throws IllegalArgumentException, without reaching the repository, when given a
+     * null or empty collection or a collection containing null.
+     */
+    @Test
+    void whenGivenInvalidCollection_addLogsThrowsIllegalArgumentException() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        List<Log> withNull = new ArrayList<>();
+        withNull.add(mock(Log.class));
+        withNull.add(null);
+
+        // Act
+        Exception exception1 = assertThrows(IllegalArgumentException.class, () -> service.addLogs(null));
+        Exception exception2 = assertThrows(IllegalArgumentException.class, () -> service.addLogs(List.of()));
+        Exception exception3 = assertThrows(IllegalArgumentException.class, () -> service.addLogs(withNull));
+
+        // Assert
+        assertEquals("Invalid parameters", exception1.getMessage());
+        assertEquals("Invalid batch size", exception2.getMessage());
+        assertEquals("Invalid parameters", exception3.getMessage());
+        verifyNoInteractions(logRepository);
+    }
+
         /**
          * Test to verify that IllegalArgumentException is thrown when given null parameters.
          */
@@ -396,6 +470,152 @@ class LogServiceImplTest {
         assertEquals(expected,result);
     }
 
+    /**
+     * Test case to verify that findReadingsPageFromDevice returns the page read from the repository after the given
+     * cursor.
+     */
+    @Test
+    void whenPageIsFound_findReadingsPageFromDeviceReturnsTheLogsOfThePage(){
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        LogCursorVO cursor = mock(LogCursorVO.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        Log log1 = mock(Log.class);
+        Log log2 = mock(Log.class);
+        when(logRepository.findReadingsPageByDeviceID(deviceID, null, null, cursor, 2)).thenReturn(List.of(log1, log2));
+
+        // Act
+        List<Log> result = service.findReadingsPageFromDevice(deviceID, null, null, cursor, 2);
+
+        // Assert
+        assertEquals(List.of(log1, log2), result);
+    }
+
+    /**
+     * Test case to verify that findReadingsPageFromDevice and findLatestReadingsFromDevice reject page sizes outside
+     * the allowed range before reaching the repository.
+     */
+    @Test
+    void whenPageSizeIsOutOfRange_pagedQueriesThrowIllegalArgumentException(){
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+        String expected = "Invalid page size";
+
+        // Act
+        Exception exception1 = assertThrows(IllegalArgumentException.class, ()
+                -> service.findReadingsPageFromDevice(deviceID, null, null, null, 0));
+        Exception exception2 = assertThrows(IllegalArgumentException.class, ()
+                -> service.findReadingsPageFromDevice(deviceID, null, null, null, 1001));
+        Exception exception3 = assertThrows(IllegalArgumentException.class, ()
+                -> service.findLatestReadingsFromDevice(deviceID, -1));
+
+        // Assert
+        assertEquals(expected, exception1.getMessage());
+        assertEquals(expected, exception2.getMessage());
+        assertEquals(expected, exception3.getMessage());
+        verifyNoInteractions(logRepository);
+    }
+
+    /**
+     * Test case to verify that findLatestReadingsFromDevice returns the newest logs read from the repository.
+     */
+    @Test
+    void whenLogsAreFound_findLatestReadingsFromDeviceReturnsTheNewestLogs(){
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        Log newest = mock(Log.class);
+        when(logRepository.findLatestReadingsByDeviceID(deviceID, 1)).thenReturn(List.of(newest));
+
+        // Act
+        List<Log> result = service.findLatestReadingsFromDevice(deviceID, 1);
+
+        // Assert
+        assertEquals(List.of(newest), result);
+    }
+
+    /**
+     * Test case to verify that exportReadingsFromDevice hands every log streamed by the repository to the given action,
+     * in the order the repository provides them.
+     */
+    @Test
+    void whenLogsAreStreamed_exportReadingsFromDeviceHandsEachLogToTheAction(){
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        TimeStampVO initialTime = new TimeStampVO(LocalDateTime.parse("2024-02-25T10:00:00"));
+        TimeStampVO finalTime = new TimeStampVO(LocalDateTime.parse("2024-02-25T11:00:00"));
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        Log log1 = mock(Log.class);
+        Log log2 = mock(Log.class);
+        doAnswer(invocation -> {
+            Consumer<Log> action = invocation.getArgument(3);
+            action.accept(log1);
+            action.accept(log2);
+            return null;
+        }).when(logRepository).streamReadingsByDeviceID(eq(deviceID), eq(initialTime), eq(finalTime), any());
+
+        List<Log> result = new ArrayList<>();
+
+        // Act
+        service.exportReadingsFromDevice(deviceID, initialTime, finalTime, result::add);
+
+        // Assert
+        assertEquals(List.of(log1, log2), result);
+    }
+
+    /**
+     * Test case to verify that exportReadingsFromDevice validates its parameters before reaching the repository.
+     */
+    @Test
+    void whenGivenInvalidParameters_exportReadingsFromDeviceThrowsIllegalArgumentException(){
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+        DeviceIDVO deviceID = mock(DeviceIDVO.class);
+        TimeStampVO initialTime = new TimeStampVO(LocalDateTime.parse("2024-02-25T11:00:00"));
+        TimeStampVO finalTime = new TimeStampVO(LocalDateTime.parse("2024-02-25T10:00:00"));
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        // Act
+        Exception exception1 = assertThrows(IllegalArgumentException.class, ()
+                -> service.exportReadingsFromDevice(null, null, null, log -> {}));
+        Exception exception2 = assertThrows(IllegalArgumentException.class, ()
+                -> service.exportReadingsFromDevice(deviceID, initialTime, null, log -> {}));
+        Exception exception3 = assertThrows(IllegalArgumentException.class, ()
+                -> service.exportReadingsFromDevice(deviceID, initialTime, finalTime, log -> {}));
+        Exception exception4 = assertThrows(IllegalArgumentException.class, ()
+                -> service.exportReadingsFromDevice(deviceID, null, null, null));
+
+        // Assert
+        assertEquals("Invalid parameters", exception1.getMessage());
+        assertEquals("Invalid time stamps", exception2.getMessage());
+        assertEquals("Invalid time stamps", exception3.getMessage());
+        assertEquals("Invalid parameters", exception4.getMessage());
+        verifyNoInteractions(logRepository);
+    }
+
     /**
      * Test case to verify the behavior of findReadingsFromDevices() in service
      * when an existing device is provided with no timestamps. It should return all device readings.
@@ -1077,6 +1297,98 @@ class LogServiceImplTest {
         assertEquals(expectedMessage, result);
     }
 
+    /**
+     * Tests that when several outdoor readings fall within the delta of an indoor reading, the difference is taken
+     * against the outdoor reading furthest from it, readings outside the delta are ignored, and the logs do not need
+     * to be ordered by time.
+     */
+    @Test
+    void whenGetMaxInstantaneousTempDifferenceIsCalled_ifSeveralOutdoorReadingsAreWithinTheDelta_ThenComparesAgainstTheFurthestOne() {
+        // Arrange
+        DeviceIDVO deviceIdOut = mock(DeviceIDVO.class);
+        DeviceIDVO deviceIdInt = mock(DeviceIDVO.class);
+        DeltaVO delta = mock(DeltaVO.class);
+        when(delta.getValue()).thenReturn(5);
+
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+
+        LogServiceImpl logService = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        Device deviceOut = mock(Device.class);
+        when(deviceRepository.findById(deviceIdOut)).thenReturn(deviceOut);
+        RoomIDVO roomIdOut = mock(RoomIDVO.class);
+        when(deviceOut.getRoomID()).thenReturn(roomIdOut);
+        Room roomOut = mock(Room.class);
+        when(roomRepository.findById(roomIdOut)).thenReturn(roomOut);
+        RoomDimensionsVO roomDimensionsOut = mock(RoomDimensionsVO.class);
+        when(roomOut.getRoomDimensions()).thenReturn(roomDimensionsOut);
+        when(roomDimensionsOut.getRoomHeight()).thenReturn(0.0);
+
+        Device deviceIn = mock(Device.class);
+        when(deviceRepository.findById(deviceIdInt)).thenReturn(deviceIn);
+        RoomIDVO roomIdIn = mock(RoomIDVO.class);
+        when(deviceIn.getRoomID()).thenReturn(roomIdIn);
+        Room roomIn = mock(Room.class);
+        when(roomRepository.findById(roomIdIn)).thenReturn(roomIn);
+        RoomDimensionsVO roomDimensionsIn = mock(RoomDimensionsVO.class);
+        when(roomIn.getRoomDimensions()).thenReturn(roomDimensionsIn);
+        when(roomDimensionsIn.getRoomHeight()).thenReturn(1.0);
+
+        TimeStampVO initialDateTime = mock(TimeStampVO.class);
+        when(initialDateTime.getValue()).thenReturn(LocalDateTime.parse("2024-01-25T23:50:00"));
+        TimeStampVO finalDateTime = mock(TimeStampVO.class);
+        when(finalDateTime.getValue()).thenReturn(LocalDateTime.parse("2024-04-25T23:50:00"));
+
+        String sensorType = "TemperatureSensor";
+
+        String[] outdoorTimes = {"2024-02-25T10:04:00", "2024-02-25T10:01:00", "2024-02-25T10:07:00", "2024-02-25T09:58:00"};
+        double[] outdoorTemps = {-2.0, 3.0, -30.0, 18.0};
+        List<Log> outdoorLogs = new ArrayList<>();
+        for (int i = 0; i < outdoorTimes.length; i++) {
+            Log log = mock(Log.class);
+            TimeStampVO time = mock(TimeStampVO.class);
+            when(time.getValue()).thenReturn(LocalDateTime.parse(outdoorTimes[i]));
+            when(log.getTime()).thenReturn(time);
+            SensorValueObject value = mock(TemperatureValue.class);
+            when(value.getValue()).thenReturn(outdoorTemps[i]);
+            when(log.getReading()).thenReturn(value);
+            outdoorLogs.add(log);
+        }
+
+        String[] indoorTimes = {"2024-02-25T10:02:00", "2024-02-25T09:55:00"};
+        double[] indoorTemps = {20.0, 21.0};
+        List<Log> indoorLogs = new ArrayList<>();
+        for (int i = 0; i < indoorTimes.length; i++) {
+            Log log = mock(Log.class);
+            TimeStampVO time = mock(TimeStampVO.class);
+            when(time.getValue()).thenReturn(LocalDateTime.parse(indoorTimes[i]));
+            when(log.getTime()).thenReturn(time);
+            SensorValueObject value = mock(TemperatureValue.class);
+            when(value.getValue()).thenReturn(indoorTemps[i]);
+            when(log.getReading()).thenReturn(value);
+            indoorLogs.add(log);
+        }
+
+        when(logRepository.getDeviceTemperatureLogs(deviceIdOut, sensorType, initialDateTime, finalDateTime))
+                .thenReturn(outdoorLogs);
+        when(logRepository.getDeviceTemperatureLogs(deviceIdInt, sensorType, initialDateTime, finalDateTime))
+                .thenReturn(indoorLogs);
+
+        // 10:02 matches 09:58, 10:01 and 10:04 (10:07 is not strictly within the delta), furthest being -2.0
+        String expectedMessage = "The Maximum Temperature Difference within the selected Period was of 22.0 Cº which "
+                + "happened at 2024-02-25T10:02";
+
+        // Act
+        String result = logService.getMaxInstantaneousTempDifference(deviceIdOut, deviceIdInt, initialDateTime,
+                                                                        finalDateTime, delta);
+
+        // Assert
+        assertEquals(expectedMessage, result);
+    }
+
     /**
      * Test case to verify that when given invalid timestamps, attempting to get the maximum instantaneous temperature
      * difference between an outdoor and indoor device throws an IllegalArgumentException.
@@ -1650,6 +1962,57 @@ class LogServiceImplTest {
         assertEquals(expectedMessage, result);
     }
 
+    /**
+     * Tests that when there are no power source logs, the peak power consumption breakdown only contains the Grid
+     * Power Meter with its highest reading, and that when there are no Grid Power Meter logs it is empty.
+     */
+    @Test
+    void whenGetPeakPowerConsumptionBreakdownIsCalled_ifThereAreNoPowerSourceLogs_ThenReturnsOnlyTheGridPowerMeter() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+
+        LogServiceImpl logService = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        TimeStampVO initialTime = mock(TimeStampVO.class);
+        when(initialTime.getValue()).thenReturn(LocalDateTime.now().minusMinutes(10).truncatedTo(ChronoUnit.SECONDS));
+        TimeStampVO finalTime = mock(TimeStampVO.class);
+        when(finalTime.getValue()).thenReturn(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
+        DeltaVO delta = mock(DeltaVO.class);
+        when(delta.getValue()).thenReturn(5);
+        String powerGridDeviceID = "12345";
+        String sensorTypeID = "EnergyConsumptionSensor";
+
+        System.setProperty("Grid Power Meter device", powerGridDeviceID);
+        System.setProperty("Grid Power Meter sensor type", sensorTypeID);
+
+        Log powerGridLog1 = mock(Log.class);
+        SensorValueObject powerGridReading1 = mock(EnergyConsumptionValue.class);
+        when(powerGridReading1.getValue()).thenReturn(20);
+        when(powerGridLog1.getReading()).thenReturn(powerGridReading1);
+
+        Log powerGridLog2 = mock(Log.class);
+        SensorValueObject powerGridReading2 = mock(EnergyConsumptionValue.class);
+        when(powerGridReading2.getValue()).thenReturn(35);
+        when(powerGridLog2.getReading()).thenReturn(powerGridReading2);
+
+        when(logRepository.findByDeviceIDAndSensorTypeAndTimeBetween(powerGridDeviceID, sensorTypeID, initialTime, finalTime))
+                .thenReturn(List.of(powerGridLog1, powerGridLog2))
+                .thenReturn(Collections.emptyList());
+        when(logRepository.findByNegativeReadingAndNotDeviceIDAndSensorTypeAndTimeBetween(powerGridDeviceID, sensorTypeID, initialTime, finalTime))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        Map<String, Integer> result = logService.getPeakPowerConsumptionBreakdown(initialTime, finalTime, delta);
+        Map<String, Integer> resultWithoutGridLogs = logService.getPeakPowerConsumptionBreakdown(initialTime, finalTime, delta);
+
+        // Assert
+        assertEquals(Map.of(powerGridDeviceID, 35), result);
+        assertTrue(resultWithoutGridLogs.isEmpty());
+    }
+
     /**
      * Verifies that when any of the parameters (date, gpsLocation, or sensorTypeIDVO) are null,
      * the getSunReading method throws an IllegalArgumentException with the message "Invalid parameters".
@@ -1924,4 +2287,227 @@ class LogServiceImplTest {
         assertEquals(expected, result);
     }
 
+
+    /**
+     * Test to verify that summarizeReadings covers exactly the requested period, combining the rollups of the whole
+     * days, hours and minutes in it with the raw readings of its partial minutes.
+     */
+    @Test
+    void whenReadingsAreAdded_summarizeReadingsReturnsStatisticsOfThePeriod() {
+        // Arrange
+        LogRepository logRepository = new LogRepositoryMem(new LogFactoryImpl(), new SensorValueFactoryImpl("value.properties"));
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, new LogFactoryImpl());
+
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorTypeID = new SensorTypeIDVO("TemperatureSensor");
+        String[][] readings = {
+                {"2024-01-01T09:59:59", "100"},     // before the period
+                {"2024-01-01T10:00:30", "1"},       // partial first minute
+                {"2024-01-01T10:30:00", "2"},       // whole minutes of the first hour
+                {"2024-01-01T12:00:00", "3"},       // whole hours of the first day
+                {"2024-01-02T08:15:00", "4"},       // whole day
+                {"2024-01-03T00:00:00", "5"},       // whole hour of the last day
+                {"2024-01-03T01:05:10", "6"},       // whole minute of the last hour
+                {"2024-01-03T01:06:44", "7"},       // partial last minute
+                {"2024-01-03T01:06:45", "-100"}};   // at the end of the period, excluded
+        List<Log> logs = new ArrayList<>();
+        for (String[] reading : readings) {
+            logs.add(new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(LocalDateTime.parse(reading[0])),
+                    new TemperatureValue(reading[1]), sensorID, deviceID, sensorTypeID));
+        }
+        service.addLogs(logs);
+
+        TimeStampVO from = new TimeStampVO(LocalDateTime.parse("2024-01-01T10:00:15"));
+        TimeStampVO to = new TimeStampVO(LocalDateTime.parse("2024-01-03T01:06:45"));
+
+        // Act
+        ReadingAggregate result = service.summarizeReadings(deviceID, sensorTypeID, from, to);
+
+        // Assert
+        assertEquals(7, result.getCount());
+        assertEquals(28, result.getSum(), 1e-9);
+        assertEquals(1, result.getMin());
+        assertEquals(7, result.getMax());
+        assertEquals(4, result.getAverage(), 1e-9);
+        assertEquals(from, result.getStart());
+        assertEquals(to, result.getEnd());
+    }
+
+    /**
+     * Test to verify that findReadingAggregates uses the finest resolution that fits in the requested number of
+     * buckets.
+     */
+    @Test
+    void whenGivenMaxBuckets_findReadingAggregatesUsesFinestResolutionThatFits() {
+        // Arrange
+        LogRepository logRepository = new LogRepositoryMem(new LogFactoryImpl(), new SensorValueFactoryImpl("value.properties"));
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, new LogFactoryImpl());
+
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorIDVO sensorID = new SensorIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorTypeID = new SensorTypeIDVO("TemperatureSensor");
+        LocalDateTime start = LocalDateTime.parse("2024-01-01T00:00:00");
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            logs.add(new Log(new LogIDVO(UUID.randomUUID()), new TimeStampVO(start.plusMinutes(i * 30L)),
+                    new TemperatureValue("20"), sensorID, deviceID, sensorTypeID));
+        }
+        service.addLogs(logs);
+        TimeStampVO from = new TimeStampVO(start);
+        TimeStampVO to = new TimeStampVO(start.plusDays(1));
+
+        // Act
+        List<ReadingAggregate> hours = service.findReadingAggregates(deviceID, sensorTypeID, from, to, 24);
+        List<ReadingAggregate> days = service.findReadingAggregates(deviceID, sensorTypeID, from, to, 23);
+
+        // Assert
+        assertEquals(24, hours.size());
+        assertEquals(2, hours.get(0).getCount());
+        assertEquals(1, days.size());
+        assertEquals(48, days.get(0).getCount());
+    }
+
+    /**
+     * Test to verify that the rollup queries throw IllegalArgumentException when given null parameters, a period
+     * that does not start before it ends or an invalid bucket count.
+     */
+    @Test
+    void whenGivenInvalidParameters_rollupQueriesThrowIllegalArgumentException() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        LogFactory logFactory = mock(LogFactory.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, logFactory);
+
+        DeviceIDVO deviceID = new DeviceIDVO(UUID.randomUUID());
+        SensorTypeIDVO sensorTypeID = new SensorTypeIDVO("TemperatureSensor");
+        TimeStampVO from = new TimeStampVO(LocalDateTime.parse("2024-01-01T00:00:00"));
+        TimeStampVO to = new TimeStampVO(LocalDateTime.parse("2024-01-02T00:00:00"));
+
+        // Act
+        Exception exception1 = assertThrows(IllegalArgumentException.class, () -> service.summarizeReadings(null, sensorTypeID, from, to));
+        Exception exception2 = assertThrows(IllegalArgumentException.class, () -> service.summarizeReadings(deviceID, sensorTypeID, to, from));
+        Exception exception3 = assertThrows(IllegalArgumentException.class, () -> service.findReadingAggregates(deviceID, sensorTypeID, from, to, 0));
+
+        // Assert
+        assertEquals("Invalid parameters", exception1.getMessage());
+        assertEquals("Invalid time stamps", exception2.getMessage());
+        assertEquals("Invalid bucket count", exception3.getMessage());
+        verifyNoInteractions(logRepository);
+    }
+
+    /**
+     * Test to verify that sampleRoom throws IllegalArgumentException when given a null room ID or a room that is not
+     * found, without reading any sensor.
+     */
+    @Test
+    void whenGivenNullOrUnknownRoom_sampleRoomThrowsIllegalArgumentException() {
+        // Arrange
+        LogRepository logRepository = mock(LogRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, new LogFactoryImpl());
+        service.setSensorExternalServices(hardware);
+        RoomIDVO roomID = new RoomIDVO(UUID.randomUUID());
+        when(roomRepository.isPresent(roomID)).thenReturn(false);
+
+        // Act
+        Exception exception1 = assertThrows(IllegalArgumentException.class, () -> service.sampleRoom(null));
+        Exception exception2 = assertThrows(IllegalArgumentException.class, () -> service.sampleRoom(roomID));
+
+        // Assert
+        assertEquals("Invalid parameters", exception1.getMessage());
+        assertEquals("Room not found", exception2.getMessage());
+        verifyNoInteractions(hardware, logRepository);
+    }
+
+    /**
+     * Test to verify that sampleRoom reads the instantaneous sensors of the active devices of the room in a single
+     * batch read and saves their logs in a single call, leaving out the sensors of deactivated devices, the sensors
+     * that cannot be polled and the sensors the hardware did not answer for.
+     */
+    @Test
+    void whenRoomHasSensors_sampleRoomReadsThemInOneBatchAndLogsTheReadings() {
+        // Arrange
+        LogRepository logRepository = new LogRepositoryMem(new LogFactoryImpl(), new SensorValueFactoryImpl("value.properties"));
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, new LogFactoryImpl());
+        service.setSensorRepository(sensorRepository);
+        service.setSensorValueFactory(new SensorValueFactoryImpl("value.properties"));
+        service.setSensorExternalServices(hardware);
+
+        RoomIDVO roomID = new RoomIDVO(UUID.randomUUID());
+        Device active = new Device(new DeviceNameVO("Thermostat"), new DeviceModelVO("Model"), roomID);
+        Device inactive = new Device(new DeviceNameVO("Old"), new DeviceModelVO("Model"), roomID);
+        inactive.deactivateDevice();
+        TemperatureSensor temperature = new TemperatureSensor(new SensorNameVO("Temperature"), active.getId(), new SensorTypeIDVO("TemperatureSensor"));
+        HumiditySensor humidity = new HumiditySensor(new SensorNameVO("Humidity"), active.getId(), new SensorTypeIDVO("HumiditySensor"));
+        TemperatureSensor silent = new TemperatureSensor(new SensorNameVO("Silent"), active.getId(), new SensorTypeIDVO("TemperatureSensor"));
+        SunsetSensor sunset = mock(SunsetSensor.class);
+        when(roomRepository.isPresent(roomID)).thenReturn(true);
+        when(deviceRepository.findByRoomID(roomID)).thenReturn(List.of(active, inactive));
+        when(sensorRepository.findByDeviceID(active.getId())).thenReturn(List.of(temperature, humidity, silent, sunset));
+        when(hardware.getValues(any())).thenReturn(Map.of(temperature.getId(), "21.5", humidity.getId(), "40"));
+
+        // Act
+        List<Log> result = service.sampleRoom(roomID);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(temperature.getId(), result.get(0).getSensorID());
+        assertEquals(21.5, result.get(0).getReading().getValue());
+        assertEquals(humidity.getId(), result.get(1).getSensorID());
+        assertEquals(2, ((List<Log>) logRepository.findAll()).size());
+        verify(hardware).getValues(List.of(temperature.getId(), humidity.getId(), silent.getId()));
+        verify(sensorRepository, never()).findByDeviceID(inactive.getId());
+    }
+
+    /**
+     * Test to verify that sampleHouse reads the sensors of every active device of the house, and throws
+     * IllegalArgumentException when the sensors cannot be read.
+     */
+    @Test
+    void whenHouseHasSensors_sampleHouseLogsTheReadingsOfActiveDevices() {
+        // Arrange
+        LogRepository logRepository = new LogRepositoryMem(new LogFactoryImpl(), new SensorValueFactoryImpl("value.properties"));
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        RoomRepository roomRepository = mock(RoomRepository.class);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        LogServiceImpl service = new LogServiceImpl(logRepository, deviceRepository, roomRepository, new LogFactoryImpl());
+        service.setSensorRepository(sensorRepository);
+        service.setSensorValueFactory(new SensorValueFactoryImpl("value.properties"));
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        service.setSensorExternalServices(hardware);
+
+        Device kitchen = new Device(new DeviceNameVO("Kitchen"), new DeviceModelVO("Model"), new RoomIDVO(UUID.randomUUID()));
+        Device garage = new Device(new DeviceNameVO("Garage"), new DeviceModelVO("Model"), new RoomIDVO(UUID.randomUUID()));
+        garage.deactivateDevice();
+        TemperatureSensor kitchenSensor = new TemperatureSensor(new SensorNameVO("Temperature"), kitchen.getId(), new SensorTypeIDVO("TemperatureSensor"));
+        TemperatureSensor garageSensor = new TemperatureSensor(new SensorNameVO("Temperature"), garage.getId(), new SensorTypeIDVO("TemperatureSensor"));
+        when(deviceRepository.findAll()).thenReturn(List.of(kitchen, garage));
+        when(sensorRepository.findAll()).thenReturn(List.of(kitchenSensor, garageSensor));
+        when(hardware.getValues(any())).thenReturn(Map.of(kitchenSensor.getId(), "19", garageSensor.getId(), "12"));
+
+        // Act
+        List<Log> result = service.sampleHouse();
+        when(sensorRepository.findAll()).thenReturn(null);
+        Exception exception = assertThrows(IllegalArgumentException.class, service::sampleHouse);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(kitchenSensor.getId(), result.get(0).getSensorID());
+        verify(hardware).getValues(List.of(kitchenSensor.getId()));
+        assertEquals("Cannot access sensors", exception.getMessage());
+    }
+
 }
@@ -0,0 +1,251 @@
+package smarthome.service.command;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.actuator.Actuator;
+import smarthome.domain.vo.actuatorvo.ActuatorIDVO;
+import smarthome.service.ActuatorService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ActuatorCommandQueueTest {
+
+    /**
+     * Test to verify that the constructor throws IllegalArgumentException for a null service, a negative window or a
+     * number of threads that is not positive.
+     */
+    @Test
+    void whenGivenInvalidParameters_ConstructorThrowsIllegalArgumentException() {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ActuatorCommandQueue(null, 100, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ActuatorCommandQueue(actuatorService, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ActuatorCommandQueue(actuatorService, 100, 0));
+    }
+
+    /**
+     * Test to verify that a command for an actuator with nothing to do is executed at once, without waiting for the
+     * window.
+     */
+    @Test
+    void whenActuatorIsIdle_CommandIsExecutedAtOnce() {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.randomUUID());
+        Actuator actuator = validActuator(actuatorService, actuatorIDVO);
+        when(actuatorService.executeCommand(actuatorIDVO, "1")).thenReturn(actuator);
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, 5000, 1)) {
+            long start = System.nanoTime();
+
+            // Act
+            CommandReceipt receipt = queue.execute(actuatorIDVO, "1");
+
+            // Assert
+            assertFalse(receipt.isSuperseded());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2500);
+        }
+    }
+
+    /**
+     * Test to verify that, of several commands sent to an actuator within the window after one was executed, only
+     * the last one is executed, and the ones it replaced are acknowledged as superseded as soon as it arrives.
+     */
+    @Test
+    void whenCommandsArriveWithinTheWindow_OnlyTheLastOneIsExecuted() throws Exception {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.randomUUID());
+        Actuator actuator = validActuator(actuatorService, actuatorIDVO);
+        when(actuatorService.executeCommand(eq(actuatorIDVO), any())).thenReturn(actuator);
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, 500, 2)) {
+            queue.execute(actuatorIDVO, "0");
+
+            // Act
+            List<CompletableFuture<CommandReceipt>> receipts = new ArrayList<>();
+            for (int i = 1; i < 10; i++) {
+                receipts.add(queue.submit(actuatorIDVO, String.valueOf(i)));
+            }
+
+            // Assert
+            for (int i = 0; i < 8; i++) {
+                assertTrue(receipts.get(i).isDone());
+                assertTrue(receipts.get(i).get().isSuperseded());
+            }
+            CommandReceipt last = receipts.get(8).get(5, TimeUnit.SECONDS);
+            assertFalse(last.isSuperseded());
+            assertEquals(actuator, last.getActuator());
+            verify(actuatorService).executeCommand(actuatorIDVO, "0");
+            verify(actuatorService).executeCommand(actuatorIDVO, "9");
+            verify(actuatorService, times(2)).executeCommand(any(), any());
+            assertEquals(10, queue.getSubmittedCommands());
+            assertEquals(8, queue.getSupersededCommands());
+            assertEquals(2, queue.getExecutedCommands());
+        }
+    }
+
+    /**
+     * Test to verify that a command that is not valid for its actuator is refused at once, and does not take the
+     * place of the valid command waiting for the actuator.
+     */
+    @Test
+    void whenCommandIsInvalid_SubmitThrowsAndTheWaitingCommandIsKept() throws Exception {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.randomUUID());
+        Actuator actuator = validActuator(actuatorService, actuatorIDVO);
+        when(actuator.isCommandValid("abc")).thenReturn(false);
+        when(actuatorService.executeCommand(eq(actuatorIDVO), any())).thenReturn(actuator);
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, 200, 1)) {
+            queue.execute(actuatorIDVO, "0");
+            CompletableFuture<CommandReceipt> waiting = queue.submit(actuatorIDVO, "50");
+
+            // Act
+            Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                    queue.submit(actuatorIDVO, "abc"));
+
+            // Assert
+            assertEquals("Invalid value, could not execute command", exception.getMessage());
+            assertFalse(waiting.get(5, TimeUnit.SECONDS).isSuperseded());
+            verify(actuatorService).executeCommand(actuatorIDVO, "50");
+            verify(actuatorService, never()).executeCommand(actuatorIDVO, "abc");
+            assertEquals(0, queue.getSupersededCommands());
+        }
+    }
+
+    /**
+     * Test to verify that a command for an actuator that is not found is refused at once.
+     */
+    @Test
+    void whenActuatorIsNotFound_SubmitThrowsIllegalArgumentException() {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.randomUUID());
+        when(actuatorService.getActuatorById(actuatorIDVO)).thenReturn(Optional.empty());
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, 10, 1)) {
+            // Act
+            Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                    queue.submit(actuatorIDVO, "1"));
+
+            // Assert
+            assertEquals("Actuator not found", exception.getMessage());
+            assertEquals(0, queue.getSubmittedCommands());
+        }
+    }
+
+    /**
+     * Test to verify that the commands of an actuator are never executed at the same time: the commands arriving
+     * while one is executed are coalesced and executed after it, while another actuator is not held up.
+     */
+    @Test
+    void whenCommandsArriveWhileOneIsExecuted_TheyAreExecutedAfterIt() throws Exception {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        ActuatorIDVO slow = new ActuatorIDVO(UUID.randomUUID());
+        ActuatorIDVO other = new ActuatorIDVO(UUID.randomUUID());
+        Actuator actuator = validActuator(actuatorService, slow);
+        validActuator(actuatorService, other);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(actuatorService.executeCommand(eq(slow), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(300);
+            running.decrementAndGet();
+            return actuator;
+        });
+        when(actuatorService.executeCommand(eq(other), any())).thenReturn(actuator);
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, 0, 4)) {
+            CompletableFuture<CommandReceipt> first = queue.submit(slow, "1");
+            Thread.sleep(100);
+
+            // Act
+            CompletableFuture<CommandReceipt> second = queue.submit(slow, "2");
+            CompletableFuture<CommandReceipt> third = queue.submit(slow, "3");
+            CommandReceipt otherReceipt = queue.execute(other, "1");
+
+            // Assert
+            assertFalse(otherReceipt.isSuperseded());
+            assertFalse(first.isDone());
+            assertTrue(second.get().isSuperseded());
+            assertFalse(third.get(5, TimeUnit.SECONDS).isSuperseded());
+            assertNotNull(first.get().getActuator());
+            assertEquals(1, maxRunning.get());
+            verify(actuatorService).executeCommand(slow, "1");
+            verify(actuatorService, never()).executeCommand(slow, "2");
+            verify(actuatorService).executeCommand(slow, "3");
+        }
+    }
+
+    /**
+     * Test to verify that a command the service rejects fails with the IllegalArgumentException of the service.
+     */
+    @Test
+    void whenCommandFails_ExecuteThrowsTheIllegalArgumentExceptionOfTheService() {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.randomUUID());
+        validActuator(actuatorService, actuatorIDVO);
+        when(actuatorService.executeCommand(actuatorIDVO, "200"))
+                .thenThrow(new IllegalArgumentException("Invalid value, could not execute command"));
+
+        try (ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, 10, 1)) {
+            // Act
+            Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                    queue.execute(actuatorIDVO, "200"));
+
+            // Assert
+            assertEquals("Invalid value, could not execute command", exception.getMessage());
+            assertEquals(1, queue.getFailedCommands());
+        }
+    }
+
+    /**
+     * Test to verify that closing the queue executes the commands still waiting their window, and that the queue
+     * takes no commands afterwards.
+     */
+    @Test
+    void whenClosed_WaitingCommandsAreExecutedAndNewOnesRefused() throws Exception {
+        // Arrange
+        ActuatorService actuatorService = mock(ActuatorService.class);
+        ActuatorIDVO actuatorIDVO = new ActuatorIDVO(UUID.randomUUID());
+        Actuator actuator = validActuator(actuatorService, actuatorIDVO);
+        when(actuatorService.executeCommand(eq(actuatorIDVO), any())).thenReturn(actuator);
+        ActuatorCommandQueue queue = new ActuatorCommandQueue(actuatorService, 200, 1);
+        queue.execute(actuatorIDVO, "1");
+        CompletableFuture<CommandReceipt> waiting = queue.submit(actuatorIDVO, "2");
+
+        // Act
+        queue.close();
+
+        // Assert
+        assertTrue(waiting.isDone());
+        assertFalse(waiting.get().isSuperseded());
+        assertEquals(0, queue.getQueuedActuators());
+        verify(actuatorService).executeCommand(actuatorIDVO, "2");
+        assertThrows(IllegalStateException.class, () -> queue.submit(actuatorIDVO, "3"));
+    }
+
+    /**
+     * @return an actuator the service finds by the given ID, for which every command is valid
+     */
+    private static Actuator validActuator(ActuatorService actuatorService, ActuatorIDVO actuatorIDVO) {
+        Actuator actuator = mock(Actuator.class);
+        when(actuator.isCommandValid(anyString())).thenReturn(true);
+        when(actuatorService.getActuatorById(actuatorIDVO)).thenReturn(Optional.of(actuator));
+        return actuator;
+    }
+}
@@ -0,0 +1,80 @@
+package smarthome.service.sampling;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingScheduleTest {
+
+    /**
+     * Test to verify that the constructor throws IllegalArgumentException for intervals that are not positive, a null
+     * map or a jitter out of range.
+     */
+    @Test
+    void whenGivenInvalidParameters_ConstructorThrowsIllegalArgumentException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SamplingSchedule(0, Map.of(), 0.1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SamplingSchedule(1000, null, 0.1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SamplingSchedule(1000, Map.of("TemperatureSensor", 0L), 0.1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SamplingSchedule(1000, Map.of(), -0.1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SamplingSchedule(1000, Map.of(), 1.5, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new SamplingSchedule(1000, Map.of(), 0.1, 0));
+    }
+
+    /**
+     * Test to verify that a sensor type is sampled at its own interval, and the other types at the default one.
+     */
+    @Test
+    void whenSensorTypeHasAnInterval_ItIsUsed_OtherwiseTheDefaultOne() {
+        // Arrange
+        SamplingSchedule schedule = new SamplingSchedule(60000, Map.of("PowerConsumptionSensor", 10000L), 0.1, 1000);
+
+        // Act
+        long power = schedule.intervalNanos(new SensorTypeIDVO("PowerConsumptionSensor"));
+        long temperature = schedule.intervalNanos(new SensorTypeIDVO("TemperatureSensor"));
+
+        // Assert
+        assertEquals(TimeUnit.SECONDS.toNanos(10), power);
+        assertEquals(TimeUnit.SECONDS.toNanos(60), temperature);
+    }
+
+    /**
+     * Test to verify that the first delay falls within the first interval and the jitter within its fraction of it.
+     */
+    @Test
+    void whenDelaysAreDrawn_TheyStayWithinTheirBounds() {
+        // Arrange
+        SamplingSchedule schedule = new SamplingSchedule(1000, Map.of(), 0.1, 1000);
+        SamplingSchedule withoutJitter = new SamplingSchedule(1000, Map.of(), 0, 1000);
+        long interval = TimeUnit.SECONDS.toNanos(1);
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            long first = schedule.firstDelayNanos(interval);
+            long jitter = schedule.jitterNanos(interval);
+            assertTrue(first >= 0 && first < interval);
+            assertTrue(jitter >= 0 && jitter < interval / 10);
+            assertEquals(0, withoutJitter.jitterNanos(interval));
+        }
+    }
+
+    /**
+     * Test to verify that the intervals of the configuration are parsed from SensorType:milliseconds pairs, and that
+     * malformed pairs are refused.
+     */
+    @Test
+    void whenIntervalsAreConfigured_TheyAreParsedByType() {
+        // Act
+        Map<String, Long> intervals = SensorSamplingConfiguration.parseIntervals("PowerConsumptionSensor:10000, SwitchSensor : 5000");
+
+        // Assert
+        assertEquals(Map.of("PowerConsumptionSensor", 10000L, "SwitchSensor", 5000L), intervals);
+        assertTrue(SensorSamplingConfiguration.parseIntervals("").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> SensorSamplingConfiguration.parseIntervals("SwitchSensor"));
+        assertThrows(IllegalArgumentException.class, () -> SensorSamplingConfiguration.parseIntervals("SwitchSensor:fast"));
+    }
+}
@@ -0,0 +1,314 @@
+package smarthome.service.sampling;
+
+import org.junit.jupiter.api.Test;
+import smarthome.domain.device.Device;
+import smarthome.domain.log.Log;
+import smarthome.domain.log.LogFactory;
+import smarthome.domain.log.LogFactoryImpl;
+import smarthome.domain.sensor.Sensor;
+import smarthome.domain.sensor.SunriseSensor;
+import smarthome.domain.sensor.TemperatureSensor;
+import smarthome.domain.sensor.externalservices.SensorExternalServices;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactory;
+import smarthome.domain.sensor.sensorvalues.SensorValueFactoryImpl;
+import smarthome.domain.vo.devicevo.DeviceIDVO;
+import smarthome.domain.vo.sensortype.SensorTypeIDVO;
+import smarthome.domain.vo.sensorvo.SensorNameVO;
+import smarthome.persistence.DeviceRepository;
+import smarthome.persistence.SensorRepository;
+import smarthome.service.LogService;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SensorSamplerTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final SensorValueFactory valueFactory = new SensorValueFactoryImpl("value.properties");
+    private final LogFactory logFactory = new LogFactoryImpl();
+
+    /**
+     * Test to verify that the constructor throws IllegalArgumentException for a null dependency, a number that is
+     * not positive, or a pending queue smaller than a batch.
+     */
+    @Test
+    void whenGivenInvalidParameters_ConstructorThrowsIllegalArgumentException() {
+        // Arrange
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        LogService logService = mock(LogService.class);
+        SamplingSchedule schedule = new SamplingSchedule(100, Map.of(), 0.1, 1000);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(null, deviceRepository, hardware,
+                valueFactory, logFactory, logService, schedule, 4, 10, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(sensorRepository, null, hardware,
+                valueFactory, logFactory, logService, schedule, 4, 10, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(sensorRepository, deviceRepository, null,
+                valueFactory, logFactory, logService, schedule, 4, 10, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(sensorRepository, deviceRepository,
+                hardware, valueFactory, logFactory, logService, null, 4, 10, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(sensorRepository, deviceRepository,
+                hardware, valueFactory, logFactory, logService, schedule, 0, 10, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(sensorRepository, deviceRepository,
+                hardware, valueFactory, logFactory, logService, schedule, 4, 0, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(sensorRepository, deviceRepository,
+                hardware, valueFactory, logFactory, logService, schedule, 4, 10, 9, 100));
+        assertThrows(IllegalArgumentException.class, () -> new SensorSampler(sensorRepository, deviceRepository,
+                hardware, valueFactory, logFactory, logService, schedule, 4, 10, 100, 0));
+    }
+
+    /**
+     * Test to verify that every instantaneous sensor is read on its schedule, that sensors that cannot be polled are
+     * left alone, and that the readings reach the log store in batches of at most batchSize logs.
+     */
+    @Test
+    void whenStarted_ReadingsOfEveryInstantaneousSensorAreLoggedInBatches() throws InterruptedException {
+        // Arrange
+        List<Sensor> sensors = temperatureSensors(10);
+        SunriseSensor sunriseSensor = mock(SunriseSensor.class);
+        when(sunriseSensor.getDeviceID()).thenReturn(new DeviceIDVO(UUID.randomUUID()));
+        sensors.add(sunriseSensor);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        when(sensorRepository.findAll()).thenReturn(sensors);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenReturn("21.5");
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        LogService logService = savingLogService(batchSizes);
+        SensorSampler sampler = new SensorSampler(sensorRepository, activeDevicesOf(sensors), hardware, valueFactory,
+                logFactory, logService, new SamplingSchedule(50, Map.of(), 0.1, 60000), 4, 5, 1000, 100);
+
+        // Act
+        sampler.start();
+        awaitUntil(() -> sampler.getLoggedReadings() >= 30);
+        sampler.close();
+
+        // Assert
+        assertEquals(10, sampler.getSampledSensors());
+        assertEquals(0, sampler.getFailedReads());
+        assertEquals(sampler.getCompletedReads(), sampler.getLoggedReadings());
+        assertEquals(0, sampler.getPendingReadings());
+        assertTrue(batchSizes.stream().allMatch(size -> size >= 1 && size <= 5));
+        assertTrue(batchSizes.contains(5));
+    }
+
+    /**
+     * Test to verify that when the hardware is slower than the interval, the deadlines that come while a sensor is
+     * still being read are counted as missed instead of piling up readings of the same sensor.
+     */
+    @Test
+    void whenHardwareIsSlowerThanTheInterval_DeadlinesAreCountedAsMissed() throws InterruptedException {
+        // Arrange
+        List<Sensor> sensors = temperatureSensors(2);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        when(sensorRepository.findAll()).thenReturn(sensors);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return "21.5";
+        });
+        SensorSampler sampler = new SensorSampler(sensorRepository, activeDevicesOf(sensors), hardware, valueFactory,
+                logFactory, savingLogService(new ArrayList<>()), new SamplingSchedule(20, Map.of(), 0, 60000), 4, 10,
+                1000, 50);
+
+        // Act
+        sampler.start();
+        awaitUntil(() -> sampler.getMissedDeadlines() >= 10 && sampler.getCompletedReads() >= 2);
+        sampler.close();
+
+        // Assert
+        assertTrue(sampler.getMissedDeadlines() >= 10);
+        assertTrue(sampler.getReadsInFlight() <= 2);
+        assertEquals(sampler.getCompletedReads(), sampler.getLoggedReadings());
+    }
+
+    /**
+     * Test to verify that readings the hardware fails to produce are counted as failed, nothing is logged for them,
+     * and the sensor keeps being sampled.
+     */
+    @Test
+    void whenHardwareFails_ReadingsAreCountedAsFailedAndSamplingGoesOn() throws InterruptedException {
+        // Arrange
+        List<Sensor> sensors = temperatureSensors(1);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        when(sensorRepository.findAll()).thenReturn(sensors);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenThrow(new IllegalStateException("Unreachable"));
+        LogService logService = mock(LogService.class);
+        SensorSampler sampler = new SensorSampler(sensorRepository, activeDevicesOf(sensors), hardware, valueFactory,
+                logFactory, logService, new SamplingSchedule(20, Map.of(), 0.1, 60000), 4, 10, 1000, 50);
+
+        // Act
+        sampler.start();
+        awaitUntil(() -> sampler.getFailedReads() >= 3);
+        sampler.close();
+
+        // Assert
+        assertEquals(0, sampler.getCompletedReads());
+        verify(logService, never()).addLogs(any());
+    }
+
+    /**
+     * Test to verify that the readings still waiting for their batch are written when the sampler is closed.
+     */
+    @Test
+    void whenClosed_PendingReadingsAreWritten() throws InterruptedException {
+        // Arrange
+        List<Sensor> sensors = temperatureSensors(3);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        when(sensorRepository.findAll()).thenReturn(sensors);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenReturn("21.5");
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        SensorSampler sampler = new SensorSampler(sensorRepository, activeDevicesOf(sensors), hardware, valueFactory,
+                logFactory, savingLogService(batchSizes), new SamplingSchedule(50, Map.of(), 0.1, 60000), 4, 1000,
+                1000, 60000);
+
+        // Act
+        sampler.start();
+        awaitUntil(() -> sampler.getPendingReadings() >= 3);
+        sampler.close();
+
+        // Assert
+        assertTrue(sampler.getLoggedReadings() >= 3);
+        assertEquals(sampler.getCompletedReads(), sampler.getLoggedReadings());
+        assertEquals(0, sampler.getPendingReadings());
+    }
+
+    /**
+     * Test to verify that the sensors of devices that are not active are not sampled, and stop being sampled once
+     * their device is deactivated.
+     */
+    @Test
+    void whenDeviceIsNotActive_ItsSensorsAreNotSampled() throws InterruptedException {
+        // Arrange
+        List<Sensor> sensors = temperatureSensors(3);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        when(sensorRepository.findAll()).thenReturn(sensors);
+        Device active = device(sensors.get(0), true);
+        Device inactive = device(sensors.get(1), false);
+        Device deactivated = device(sensors.get(2), true);
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        when(deviceRepository.findAll()).thenReturn(List.of(active, inactive, deactivated));
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenReturn("21.5");
+        SensorSampler sampler = new SensorSampler(sensorRepository, deviceRepository, hardware, valueFactory,
+                logFactory, savingLogService(new ArrayList<>()), new SamplingSchedule(50, Map.of(), 0.1, 50), 4, 10,
+                1000, 50);
+
+        // Act
+        sampler.start();
+        awaitUntil(() -> sampler.getSampledSensors() == 2);
+        when(deactivated.isActive()).thenReturn(false);
+        awaitUntil(() -> sampler.getSampledSensors() == 1);
+        sampler.close();
+
+        // Assert
+        assertEquals(1, sampler.getSampledSensors());
+    }
+
+    /**
+     * Test to verify that while the log store is slower than the sensors, no more than maxPendingReadings readings
+     * wait to be written and the others are counted as dropped.
+     */
+    @Test
+    void whenLogStoreIsSlow_PendingReadingsAreBoundedAndTheRestDropped() throws InterruptedException {
+        // Arrange
+        List<Sensor> sensors = temperatureSensors(5);
+        SensorRepository sensorRepository = mock(SensorRepository.class);
+        when(sensorRepository.findAll()).thenReturn(sensors);
+        SensorExternalServices hardware = mock(SensorExternalServices.class);
+        when(hardware.getValue()).thenReturn("21.5");
+        CountDownLatch released = new CountDownLatch(1);
+        LogService logService = savingLogService(new ArrayList<>());
+        LogService slowLogService = mock(LogService.class);
+        when(slowLogService.addLogs(any())).thenAnswer(invocation -> {
+            released.await();
+            return logService.addLogs(invocation.getArgument(0));
+        });
+        SensorSampler sampler = new SensorSampler(sensorRepository, activeDevicesOf(sensors), hardware, valueFactory,
+                logFactory, slowLogService, new SamplingSchedule(20, Map.of(), 0.1, 60000), 4, 2, 4, 50);
+
+        // Act
+        sampler.start();
+        awaitUntil(() -> sampler.getDroppedReadings() >= 10);
+        int pendingWhileBlocked = sampler.getPendingReadings();
+        released.countDown();
+        sampler.close();
+
+        // Assert
+        assertTrue(pendingWhileBlocked <= 4);
+        assertTrue(sampler.getLoggedReadings() <= sampler.getCompletedReads());
+        assertEquals(0, sampler.getPendingReadings());
+    }
+
+    private static List<Sensor> temperatureSensors(int count) {
+        List<Sensor> sensors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sensors.add(new TemperatureSensor(new SensorNameVO("Sensor" + i), new DeviceIDVO(UUID.randomUUID()),
+                    new SensorTypeIDVO("TemperatureSensor")));
+        }
+        return sensors;
+    }
+
+    /**
+     * @param sensors the sensors
+     * @return a device repository holding an active device for each of the sensors
+     */
+    private static DeviceRepository activeDevicesOf(List<Sensor> sensors) {
+        List<Device> devices = new ArrayList<>();
+        for (Sensor sensor : sensors) {
+            devices.add(device(sensor, true));
+        }
+        DeviceRepository deviceRepository = mock(DeviceRepository.class);
+        when(deviceRepository.findAll()).thenReturn(devices);
+        return deviceRepository;
+    }
+
+    private static Device device(Sensor sensor, boolean active) {
+        DeviceIDVO deviceID = sensor.getDeviceID();
+        Device device = mock(Device.class);
+        when(device.getId()).thenReturn(deviceID);
+        when(device.isActive()).thenReturn(active);
+        return device;
+    }
+
+    /**
+     * @param batchSizes receives the size of every batch written
+     * @return a log service that saves every log it is given
+     */
+    private static LogService savingLogService(List<Integer> batchSizes) {
+        LogService logService = mock(LogService.class);
+        when(logService.addLogs(any())).thenAnswer(invocation -> {
+            Collection<Log> logs = invocation.getArgument(0);
+            batchSizes.add(logs.size());
+            List<Optional<Log>> results = new ArrayList<>();
+            for (Log log : logs) {
+                results.add(Optional.of(log));
+            }
+            return results;
+        });
+        return logService;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}